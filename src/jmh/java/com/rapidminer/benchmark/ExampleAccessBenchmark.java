@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.benchmark;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeWeights;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.AttributeWeightedExampleSet;
+import com.rapidminer.example.set.Condition;
+import com.rapidminer.example.set.ConditionedExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.ExampleTable;
+import com.rapidminer.operator.preprocessing.PreprocessingOperator;
+import com.rapidminer.operator.preprocessing.normalization.ZTransformationModel;
+import com.rapidminer.tools.container.Tupel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks reading all regular values of an example set through the different access paths:
+ * iterating {@link Example#getValue(Attribute)}, random access via
+ * {@link ExampleSet#getExample(int)}, reading {@link DataRow}s of the table directly, the readers
+ * of {@link MappedExampleSet} and {@link ConditionedExampleSet}, and attributes with
+ * transformation chains or views. Each benchmark returns the sum of all read values.
+ *
+ * @since 7.6.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExampleAccessBenchmark {
+
+	/** Accepts the examples whose first numerical value is at least 0.5. */
+	private static final class UpperHalfCondition implements Condition {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Attribute attribute;
+
+		private UpperHalfCondition(Attribute attribute) {
+			this.attribute = attribute;
+		}
+
+		@Override
+		public boolean conditionOk(Example example) {
+			return example.getValue(attribute) >= 0.5;
+		}
+
+		@Override
+		@Deprecated
+		public Condition duplicate() {
+			return this;
+		}
+	}
+
+	@Param({ "100000" })
+	public int rows;
+
+	@Param({ "20" })
+	public int attributes;
+
+	@Param({ "0.0", "0.95" })
+	public double sparsity;
+
+	@Param({ "columnar", "memory" })
+	public String table;
+
+	private ExampleSet exampleSet;
+	private ExampleSet mappedSet;
+	private ExampleSet conditionedSet;
+	private ExampleSet weightedSet;
+	private ExampleSet viewSet;
+	private int[] randomOrder;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		exampleSet = new SyntheticData(rows).withNumericAttributes(attributes).withSparsity(sparsity)
+				.withMemoryTable("memory".equals(table)).build();
+
+		Random random = new Random(2017);
+		randomOrder = new int[rows];
+		for (int i = 0; i < rows; i++) {
+			randomOrder[i] = random.nextInt(rows);
+		}
+		// a bootstrapping sample keeps the order of its draws
+		mappedSet = new MappedExampleSet(exampleSet, randomOrder, true, false);
+		conditionedSet = new ConditionedExampleSet(exampleSet,
+				new UpperHalfCondition(exampleSet.getAttributes().get("num1")));
+
+		AttributeWeights weights = new AttributeWeights();
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			weights.setWeight(attribute.getName(), 0.5);
+		}
+		weightedSet = new AttributeWeightedExampleSet(exampleSet, weights);
+
+		HashMap<String, Tupel<Double, Double>> meanVariances = new HashMap<>();
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			meanVariances.put(attribute.getName(), new Tupel<>(0.5, 1d / 12));
+		}
+		ZTransformationModel model = new ZTransformationModel(exampleSet, meanVariances);
+		model.setParameter(PreprocessingOperator.PARAMETER_CREATE_VIEW, true);
+		viewSet = model.apply(exampleSet);
+	}
+
+	@Benchmark
+	public double iterate() {
+		return sum(exampleSet);
+	}
+
+	@Benchmark
+	public double randomAccess() {
+		Attribute[] regular = exampleSet.getAttributes().createRegularAttributeArray();
+		double sum = 0;
+		for (int row : randomOrder) {
+			Example example = exampleSet.getExample(row);
+			for (Attribute attribute : regular) {
+				sum += example.getValue(attribute);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double dataRows() {
+		Attribute[] regular = exampleSet.getAttributes().createRegularAttributeArray();
+		ExampleTable exampleTable = exampleSet.getExampleTable();
+		double sum = 0;
+		for (int row = 0; row < exampleTable.size(); row++) {
+			DataRow dataRow = exampleTable.getDataRow(row);
+			for (Attribute attribute : regular) {
+				sum += attribute.getValue(dataRow);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double mappedExampleSet() {
+		return sum(mappedSet);
+	}
+
+	@Benchmark
+	public double conditionedExampleSet() {
+		return sum(conditionedSet);
+	}
+
+	@Benchmark
+	public double transformationChain() {
+		return sum(weightedSet);
+	}
+
+	@Benchmark
+	public double viewAttributes() {
+		return sum(viewSet);
+	}
+
+	private static double sum(ExampleSet exampleSet) {
+		Attribute[] regular = exampleSet.getAttributes().createRegularAttributeArray();
+		double sum = 0;
+		for (Example example : exampleSet) {
+			for (Attribute attribute : regular) {
+				sum += example.getValue(attribute);
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.benchmark;
+
+import com.rapidminer.Process;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.features.construction.AttributeConstruction;
+import com.rapidminer.operator.preprocessing.filter.Sorting;
+import com.rapidminer.operator.preprocessing.join.ExampleSetJoin;
+import com.rapidminer.operator.preprocessing.normalization.Normalization;
+import com.rapidminer.operator.preprocessing.transformation.aggregation.AggregationFunction;
+import com.rapidminer.operator.preprocessing.transformation.aggregation.AggregationOperator;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.tools.OperatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks small workloads of frequently used data preparation operators on synthetic data:
+ * Generate Attributes, Normalize, Aggregate and Sort in {@link Preparation} and Join in
+ * {@link Join}. The operators are executed directly via {@link Operator#doWork()} inside an
+ * otherwise empty process, so the results include the operator overhead but not the process
+ * execution. Every invocation gets freshly built input data, since operators like Normalize change
+ * their input and a shallow clone of the example set shares the example table.
+ *
+ * @since 7.6.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class OperatorBenchmark {
+
+	@Param({ "100000" })
+	public int rows;
+
+	@Param({ "10" })
+	public int numericAttributes;
+
+	@Param({ "100" })
+	public int nominalValues;
+
+	@Param({ "0.0" })
+	public double sparsity;
+
+	/** Builds the left input, which is the only input of single input operators. */
+	private SyntheticData leftData;
+
+	/** The left input of the current invocation. */
+	ExampleSet left;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		SyntheticData.initRapidMiner();
+		leftData = data();
+		Process process = new Process();
+		for (Operator operator : createOperators()) {
+			process.getRootOperator().getSubprocess(0).addOperator(operator);
+		}
+		// a new process counts as stopped, which makes operators checking for stop requests abort
+		process.resume();
+	}
+
+	@Setup(Level.Invocation)
+	public void buildLeft() {
+		left = leftData.build();
+	}
+
+	/**
+	 * Returns a generator for the input data with the configured shape.
+	 */
+	SyntheticData data() {
+		return new SyntheticData(rows).withNumericAttributes(numericAttributes)
+				.withNominalAttributes(2, nominalValues).withSparsity(sparsity);
+	}
+
+	/**
+	 * Creates and configures the benchmarked operators.
+	 */
+	abstract Operator[] createOperators() throws Exception;
+
+	/**
+	 * Delivers the inputs to the first input ports of the operator, executes it and returns the
+	 * example set at its first output port.
+	 */
+	static ExampleSet execute(Operator operator, ExampleSet... inputs) throws OperatorException {
+		for (int i = 0; i < inputs.length; i++) {
+			operator.getInputPorts().getPortByIndex(i).receive(inputs[i]);
+		}
+		operator.doWork();
+		return operator.getOutputPorts().getPortByIndex(0).getData(ExampleSet.class);
+	}
+
+    /**
+     * Benchmarks the single input operators Generate Attributes, Normalize, Aggregate and Sort.
+     */
+    public static class Preparation extends OperatorBenchmark {
+
+		private Operator generateAttributes;
+		private Operator normalize;
+		private Operator aggregate;
+		private Operator sort;
+
+		@Override
+		Operator[] createOperators() throws Exception {
+			generateAttributes = OperatorService.createOperator(AttributeConstruction.class);
+			generateAttributes.setParameter(AttributeConstruction.PARAMETER_FUNCTIONS,
+					ParameterTypeList.transformList2String(Arrays.asList(new String[] { "product", "num1 * num2" },
+							new String[] { "ratio", "num1 / (num2 + 1)" },
+							new String[] { "combined", "if(nom1 == \"value0\", sqrt(num3), log(num3 + 1))" })));
+
+			normalize = OperatorService.createOperator(Normalization.class);
+
+			aggregate = OperatorService.createOperator(AggregationOperator.class);
+			aggregate.setParameter(AggregationOperator.PARAMETER_AGGREGATION_ATTRIBUTES,
+					ParameterTypeList.transformList2String(
+							Arrays.asList(new String[] { "num1", AggregationFunction.FUNCTION_NAME_AVERAGE },
+									new String[] { "num2", AggregationFunction.FUNCTION_NAME_SUM },
+									new String[] { "num3", AggregationFunction.FUNCTION_NAME_MAXIMUM })));
+			aggregate.setParameter(AggregationOperator.PARAMETER_GROUP_BY_ATTRIBUTES, "nom1|nom2");
+
+			sort = OperatorService.createOperator(Sorting.class);
+			sort.setParameter(Sorting.PARAMETER_ATTRIBUTE_NAME, "num1");
+
+			return new Operator[] { generateAttributes, normalize, aggregate, sort };
+		}
+
+		@Benchmark
+		public ExampleSet generateAttributes() throws OperatorException {
+			return execute(generateAttributes, left);
+		}
+
+		@Benchmark
+		public ExampleSet normalize() throws OperatorException {
+			return execute(normalize, left);
+		}
+
+		@Benchmark
+		public ExampleSet aggregate() throws OperatorException {
+			return execute(aggregate, left);
+		}
+
+		@Benchmark
+		public ExampleSet sort() throws OperatorException {
+			return execute(sort, left);
+		}
+	}
+
+    /**
+     * Benchmarks Join with the different join strategies.
+     */
+    public static class Join extends OperatorBenchmark {
+
+		@Param({ "hash", "sort merge" })
+		public String joinStrategy;
+
+		private SyntheticData rightData;
+
+		private ExampleSet right;
+
+		private Operator join;
+
+		@Override
+		Operator[] createOperators() throws Exception {
+			rightData = data().withSeed(4711).withPrefix("right_");
+
+			join = OperatorService.createOperator(ExampleSetJoin.class);
+			join.setParameter(ExampleSetJoin.PARAMETER_USE_ID, "false");
+			join.setParameter(ExampleSetJoin.PARAMETER_JOIN_ATTRIBUTES,
+					ParameterTypeList.transformList2String(Collections.singletonList(new String[] { "id", "id" })));
+			join.setParameter(ExampleSetJoin.PARAMETER_JOIN_STRATEGY, joinStrategy);
+			return new Operator[] { join };
+		}
+
+		@Setup(Level.Invocation)
+		public void buildRight() {
+			right = rightData.build();
+		}
+
+		@Benchmark
+		public ExampleSet join() throws OperatorException {
+			return execute(join, left, right);
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.benchmark;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DoubleArrayDataRow;
+import com.rapidminer.example.table.MemoryExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.PlatformUtilities;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Creates reproducible example sets of a configurable shape for the benchmarks. Every set has an
+ * integer {@code id} attribute with the row number, numerical attributes {@code num1, num2, ...}
+ * with uniform values in [0, 1) and nominal attributes {@code nom1, nom2, ...} with uniformly
+ * distributed values. The given fraction of numerical values is zero, so that sparse data can be
+ * benchmarked. All values only depend on the seed, the column and the row.
+ *
+ * @since 7.6.1
+ */
+public final class SyntheticData {
+
+	private static boolean initialized = false;
+
+	private final int rows;
+	private int numericAttributes = 10;
+	private int nominalAttributes = 0;
+	private int nominalValues = 10;
+	private double sparsity = 0;
+	private long seed = 2017;
+	private String prefix = "";
+	private DataManagement management = DataManagement.AUTO;
+	private boolean memoryTable = false;
+
+    /**
+     * Creates a generator for example sets with the given number of rows and ten numerical
+     * attributes.
+     *
+     * @param rows the number of rows
+     */
+    public SyntheticData(int rows) {
+		this.rows = rows;
+	}
+
+    /**
+     * Sets the number of numerical attributes.
+     *
+     * @param numericAttributes the number of numerical attributes
+     * @return this generator
+     */
+    public SyntheticData withNumericAttributes(int numericAttributes) {
+		this.numericAttributes = numericAttributes;
+		return this;
+	}
+
+    /**
+     * Sets the number of nominal attributes and the number of their different values.
+     *
+     * @param nominalAttributes the number of nominal attributes
+     * @param nominalValues     the number of different values per nominal attribute
+     * @return this generator
+     */
+    public SyntheticData withNominalAttributes(int nominalAttributes, int nominalValues) {
+		this.nominalAttributes = nominalAttributes;
+		this.nominalValues = nominalValues;
+		return this;
+	}
+
+    /**
+     * Sets the fraction of numerical values that are zero.
+     *
+     * @param sparsity the fraction between 0 and 1
+     * @return this generator
+     */
+    public SyntheticData withSparsity(double sparsity) {
+		this.sparsity = sparsity;
+		return this;
+	}
+
+    /**
+     * Sets the seed of the values.
+     *
+     * @param seed the seed
+     * @return this generator
+     */
+    public SyntheticData withSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+    /**
+     * Sets a prefix for the names of all attributes except the id, e.g. to create a second set for
+     * a join.
+     *
+     * @param prefix the prefix
+     * @return this generator
+     */
+    public SyntheticData withPrefix(String prefix) {
+		this.prefix = prefix;
+		return this;
+	}
+
+    /**
+     * Sets the optimization hint for columnar example sets.
+     *
+     * @param management the data management
+     * @return this generator
+     */
+    public SyntheticData withDataManagement(DataManagement management) {
+		this.management = management;
+		return this;
+	}
+
+    /**
+     * Sets whether the legacy row based {@link MemoryExampleTable} is used instead of a columnar
+     * table.
+     *
+     * @param memoryTable {@code true} for a row based table
+     * @return this generator
+     */
+    public SyntheticData withMemoryTable(boolean memoryTable) {
+		this.memoryTable = memoryTable;
+		return this;
+	}
+
+    /**
+     * Creates the example set.
+     *
+     * @return the new example set
+     */
+    public ExampleSet build() {
+		List<Attribute> attributes = new ArrayList<>(1 + numericAttributes + nominalAttributes);
+		attributes.add(AttributeFactory.createAttribute("id", Ontology.INTEGER));
+		for (int i = 1; i <= numericAttributes; i++) {
+			attributes.add(AttributeFactory.createAttribute(prefix + "num" + i, Ontology.REAL));
+		}
+		for (int i = 1; i <= nominalAttributes; i++) {
+			Attribute attribute = AttributeFactory.createAttribute(prefix + "nom" + i, Ontology.NOMINAL);
+			for (int value = 0; value < nominalValues; value++) {
+				attribute.getMapping().mapString("value" + value);
+			}
+			attributes.add(attribute);
+		}
+
+		if (memoryTable) {
+			MemoryExampleTable table = new MemoryExampleTable(attributes, rows);
+			for (int row = 0; row < rows; row++) {
+				double[] values = new double[attributes.size()];
+				for (int column = 0; column < values.length; column++) {
+					values[column] = getValue(column, row);
+				}
+				table.addDataRow(new DoubleArrayDataRow(values));
+			}
+			return table.createExampleSet();
+		}
+
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(rows).withOptimizationHint(management);
+		for (int column = 0; column < attributes.size(); column++) {
+			final int finalColumn = column;
+			builder.withColumnFiller(attributes.get(column), row -> getValue(finalColumn, row));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the value of the given column and row.
+	 */
+	private double getValue(int column, int row) {
+		if (column == 0) {
+			return row;
+		}
+		double uniform = uniform(column, row);
+		if (column <= numericAttributes) {
+			// decide about sparsity with an independent draw
+			return uniform(-column, row) < sparsity ? 0 : uniform;
+		}
+		return Math.min(nominalValues - 1, (int) (uniform * nominalValues));
+	}
+
+	/**
+	 * Returns a uniform value in [0, 1) by hashing the seed, column and row (SplitMix64).
+	 */
+	private double uniform(int column, int row) {
+		long z = seed + 0x9E3779B97F4A7C15L * ((long) column << 32 | row & 0xFFFFFFFFL);
+		z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+		z = z ^ z >>> 31;
+		return (z >>> 11) * 0x1.0p-53;
+	}
+
+    /**
+     * Initializes RapidMiner in command line mode once, so that operators can be created.
+     */
+    public static synchronized void initRapidMiner() {
+		if (initialized) {
+			return;
+		}
+		if (System.getProperty(PlatformUtilities.PROPERTY_RAPIDMINER_HOME) == null) {
+			System.setProperty(PlatformUtilities.PROPERTY_RAPIDMINER_HOME, Paths.get("").toAbsolutePath().toString());
+		}
+		RapidMiner.setExecutionMode(RapidMiner.ExecutionMode.COMMAND_LINE);
+		RapidMiner.init();
+		initialized = true;
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table.internal;
+
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks building and reading a {@link DoubleAutoColumn} for different sparsities and data
+ * management hints, which decide between the dense, medium and high sparsity chunks.
+ *
+ * @since 7.6.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoColumnBenchmark {
+
+	@Param({ "1000000" })
+	public int rows;
+
+	@Param({ "0.0", "0.5", "0.99" })
+	public double sparsity;
+
+	@Param({ "SPEED_OPTIMIZED", "AUTO", "MEMORY_OPTIMIZED" })
+	public String management;
+
+	private double[] values;
+	private int[] randomRows;
+	private Column column;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(2017);
+		values = new double[rows];
+		randomRows = new int[rows];
+		for (int i = 0; i < rows; i++) {
+			values[i] = random.nextDouble() < sparsity ? 0 : random.nextDouble();
+			randomRows[i] = random.nextInt(rows);
+		}
+		column = build();
+	}
+
+	@Benchmark
+	public Column build() {
+		Column newColumn = new DoubleAutoColumn(rows, DataManagement.valueOf(management));
+		for (int row = 0; row < rows; row++) {
+			newColumn.setLast(row, values[row]);
+		}
+		newColumn.complete();
+		return newColumn;
+	}
+
+	@Benchmark
+	public double sequentialGet() {
+		double sum = 0;
+		for (int row = 0; row < rows; row++) {
+			sum += column.get(row);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double randomGet() {
+		double sum = 0;
+		for (int row : randomRows) {
+			sum += column.get(row);
+		}
+		return sum;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package com.rapidminer;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.core.license.LicenseViolationException;
 import com.rapidminer.core.license.ProductConstraintManager;
 import com.rapidminer.datatable.DataTable;
@@ -36,7 +37,10 @@ import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.Port;
 import com.rapidminer.report.ReportStream;
 import com.rapidminer.repository.*;
+import com.rapidminer.studio.concurrency.internal.ProcessScheduler;
+import com.rapidminer.studio.concurrency.internal.StudioConcurrencyContext;
 import com.rapidminer.studio.internal.ProcessFlowFilterRegistry;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.*;
 import com.rapidminer.tools.Observable;
 import com.rapidminer.tools.Observer;
@@ -54,6 +58,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 
 
@@ -101,7 +106,7 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	private ProcessRootOperator rootOperator = null;
 
 	/** This is the operator which is currently applied. */
-	private Operator currentOperator;
+	private volatile Operator currentOperator;
 
 	/**
 	 * The process might be connected to this file or repository location which is then used to
@@ -741,7 +746,8 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	}
 
     /**
-     * Returns the operator that is currently being executed.  @return the current operator
+     * Returns the operator that is currently being executed. If operators are executed in parallel,
+     * this is the operator started most recently.  @return the current operator
      *
      * @return the current operator
      */
@@ -1461,6 +1467,7 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		}
 
 		long start = System.currentTimeMillis();
+		long threadCpuStart = StudioConcurrencyContext.getCurrentThreadCpuTime();
 
 		rootOperator.processStarts();
 
@@ -1524,10 +1531,14 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 			long end = System.currentTimeMillis();
 
 			getLogger().fine("Process:" + Tools.getLineSeparator() + getRootOperator().createProcessTree(3));
+			String cpuTime = Tools.formatDuration(TimeUnit.NANOSECONDS.toMillis(ProcessScheduler.getCpuTime(this)
+					+ StudioConcurrencyContext.getCurrentThreadCpuTime() - threadCpuStart));
 			if (name != null) {
-				getLogger().info("Process " + name + " finished successfully after " + Tools.formatDuration(end - start));
+				getLogger().info("Process " + name + " finished successfully after " + Tools.formatDuration(end - start)
+						+ " (CPU time " + cpuTime + ")");
 			} else {
-				getLogger().info("Process finished successfully after " + Tools.formatDuration(end - start));
+				getLogger().info("Process finished successfully after " + Tools.formatDuration(end - start)
+						+ " (CPU time " + cpuTime + ")");
 			}
 
 			return result;
@@ -1548,10 +1559,23 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 			}
 			throw e;
 		} finally {
+			accountThreadCpuTime(threadCpuStart);
 			finishProcess(logHandler);
 		}
 	}
 
+	/**
+	 * Adds the CPU time the current thread spent since the given start to the CPU time of this
+	 * process, see {@link ProcessScheduler#getCpuTime(Process)}.
+	 */
+	private void accountThreadCpuTime(long threadCpuStart) {
+		ConcurrencyContext context = Resources.getConcurrencyContext(rootOperator);
+		if (context instanceof StudioConcurrencyContext) {
+			((StudioConcurrencyContext) context)
+					.addCpuTime(StudioConcurrencyContext.getCurrentThreadCpuTime() - threadCpuStart);
+		}
+	}
+
 	/** The last thrown exception during context loading */
 	private Exception lastInitException;
 
@@ -36,6 +36,8 @@ import com.rapidminer.license.product.Product;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.IOObjectMap;
 import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.execution.ParallelUnitExecutionFactory;
+import com.rapidminer.operator.execution.UnitExecutionFactory;
 import com.rapidminer.operator.learner.CapabilityProvider;
 import com.rapidminer.parameter.*;
 import com.rapidminer.repository.RepositoryManager;
@@ -492,6 +494,39 @@ public class RapidMiner {
      */
     public static final String PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES = "rapidminer.general.number_of_processes";
 
+    /**
+     * The maximum number of working threads a single process may occupy at the same time. 0 stands
+     * for the global number of threads.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS = "rapidminer.general.number_of_threads_per_process";
+
+    /**
+     * Indicates whether independent operators of a subprocess are executed in parallel by a
+     * {@link ParallelUnitExecutionFactory}. Only read on startup.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION = "rapidminer.general.parallel_subprocess_execution";
+
+    /**
+     * The maximum number of operators of a subprocess running at the same time if
+     * {@link #PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION} is enabled. 0 stands for
+     * the parallelism of the process. Only read on startup.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_OPERATORS = "rapidminer.general.parallel_subprocess_operators";
+
+    /**
+     * The free heap in megabytes that must be available before another background process is
+     * started. 0 stands for an eighth of the maximal heap size.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_GENERAL_PROCESS_MEMORY_RESERVE = "rapidminer.general.process_memory_reserve";
+
     /**
      * The name of the property indicating whether beta features should be activated.
      */
@@ -514,6 +549,54 @@ public class RapidMiner {
      */
     public static final String PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT = "rapidminer.system.legacy_data_mgmt";
 
+    /**
+     * The name of the property indicating whether example sets stored in local repositories should
+     * be mapped into memory instead of being read completely.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_MAP_REPOSITORY_DATA = "rapidminer.system.map_repository_data";
+
+    /**
+     * The name of the property indicating whether example sets stored in local repositories should
+     * be written column by column. Files in this format cannot be read by older versions.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_DATA = "rapidminer.system.columnar_repository_data";
+
+    /**
+     * The name of the property defining the maximal estimated size in megabytes of the objects the
+     * {@link IOObjectMap} keeps in memory. 0 stands for a quarter of the maximal heap size.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SIZE = "rapidminer.system.io_object_cache_size";
+
+    /**
+     * The name of the property indicating whether example sets evicted from the {@link IOObjectMap}
+     * should be spilled to disk instead of being removed.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SPILL = "rapidminer.system.io_object_cache_spill";
+
+    /**
+     * The name of the property indicating whether new polynominal attributes should use a
+     * {@link com.rapidminer.example.table.CompactNominalMapping}.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS = "rapidminer.system.compact_nominal_mappings";
+
+    /**
+     * The name of the property indicating whether compact nominal mappings should store their
+     * values outside of the Java heap.
+     *
+     * @since 7.6.1
+     */
+    public static final String PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_NOMINAL_MAPPINGS = "rapidminer.system.off_heap_nominal_mappings";
+
     /**
      * The constant PROPERTY_RAPIDMINER_PROXY_MODE.
      */
@@ -672,6 +755,13 @@ public class RapidMiner {
 		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "", 0, Integer.MAX_VALUE, 0));
 		registerParameter(
 				new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "", 0, Integer.MAX_VALUE, 0));
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS, "", 0,
+				Integer.MAX_VALUE, 0));
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION, "", false));
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_OPERATORS, "", 0,
+				Integer.MAX_VALUE, 0));
+		registerParameter(
+				new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_PROCESS_MEMORY_RESERVE, "", 0, Integer.MAX_VALUE, 0));
 		registerParameter(new ParameterTypeString(PROPERTY_RAPIDMINER_TOOLS_EDITOR, "", true));
 		registerParameter(new ParameterTypeCategory(PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD, "",
 				PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD_VALUES, PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD_SMTP));
@@ -701,6 +791,18 @@ public class RapidMiner {
 		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_MAX_MEMORY, "", 384, Integer.MAX_VALUE, true), "system");
 		
 		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, "", false), "system");
+		// mapped files cannot be replaced or deleted on Windows
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_MAP_REPOSITORY_DATA, "",
+				SystemInfoUtilities.getOperatingSystem() != SystemInfoUtilities.OperatingSystem.WINDOWS), "system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_DATA, "", false),
+				"system");
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SIZE, "", 0, Integer.MAX_VALUE, 0),
+				"system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SPILL, "", true), "system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS, "", false),
+				"system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_NOMINAL_MAPPINGS, "", false),
+				"system");
 
 		registerParameter(new ParameterTypeInt(WebServiceTools.WEB_SERVICE_TIMEOUT, "", 1, Integer.MAX_VALUE, 20000),
 				"system");
@@ -877,6 +979,18 @@ public class RapidMiner {
 		// check if this version is started for the first time
 		performInitialSettings();
 		ParameterService.init();
+		if (Boolean.parseBoolean(
+				ParameterService.getParameterValue(PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION))) {
+			int operators = 0;
+			try {
+				operators = Integer.parseInt(
+						ParameterService.getParameterValue(PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_OPERATORS));
+			} catch (NumberFormatException e) {
+				// ignore and use default value
+			}
+			UnitExecutionFactory.setInstance(
+					operators > 0 ? new ParallelUnitExecutionFactory(operators) : new ParallelUnitExecutionFactory());
+		}
 
 		// initializing networking tools
 		GlobalAuthenticator.init();
@@ -26,7 +26,9 @@ import com.rapidminer.tools.I18N;
 import com.rapidminer.tools.expression.ExampleResolver;
 import com.rapidminer.tools.expression.Expression;
 import com.rapidminer.tools.expression.ExpressionException;
+import com.rapidminer.tools.expression.ExpressionParser;
 import com.rapidminer.tools.expression.ExpressionType;
+import com.rapidminer.tools.expression.internal.CompiledExpression;
 import com.rapidminer.tools.expression.internal.ExpressionParserUtils;
 
 
@@ -49,6 +51,9 @@ public class ExpressionFilter implements Condition {
 
 	private Expression result;
 
+	/** The compiled expression, {@code null} if the expression is evaluated by {@link #result}. */
+	private transient CompiledExpression compiledResult;
+
     /**
      * Creates a new {@link ExpressionFilter} instance with the given expression. The expression is
      * evaluated via the expression parser and examples are ok if the expression evaluates to
@@ -73,8 +78,10 @@ public class ExpressionFilter implements Condition {
 		this.expression = expression;
 		this.resolver = new ExampleResolver(exampleSet);
 
-		this.result = ExpressionParserUtils.createAllModulesParser(operator, resolver).parse(expression);
+		ExpressionParser parser = ExpressionParserUtils.createAllModulesParser(operator, resolver);
+		this.result = parser.parse(expression);
 		this.type = result.getExpressionType();
+		this.compiledResult = ExpressionParserUtils.compile(parser, expression, exampleSet);
 	}
 
     /**
@@ -113,6 +120,16 @@ public class ExpressionFilter implements Condition {
 	/** Returns true if all conditions are fulfilled for the given example. */
 	@Override
 	public boolean conditionOk(Example e) throws ExpressionEvaluationException {
+		if (compiledResult != null) {
+			// compiled boolean results are 1 for true, 0 for false and missing for missing
+			double resultValue = compiledResult.evaluate(e);
+			if (type == ExpressionType.BOOLEAN
+					|| type == ExpressionType.DOUBLE && (resultValue == 1d || resultValue == 0d)) {
+				return resultValue == 1d;
+			}
+			throw new ExpressionEvaluationException(
+					I18N.getMessageOrNull(I18N.getErrorBundle(), "expression_filter.expression_not_boolean", expression));
+		}
 		try {
 			resolver.bind(e);
 
@@ -21,6 +21,7 @@ package com.rapidminer.example.set;
 import com.rapidminer.tools.LogService;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.logging.Level;
 
 
@@ -274,6 +275,22 @@ public class Partition implements Cloneable, Serializable {
 		recalculateTableIndices();
 	}
 
+    /**
+     * Marks all subsets but the given one as selected. The table indices are recalculated only
+     * once, which is much faster than selecting the subsets one by one if there are many of them,
+     * e.g. for a leave-one-out partition.
+     *
+     * @param i the subset to deselect, all subsets are selected if it does not exist
+     * @since 7.6.1
+     */
+    public void selectAllSubsetsBut(int i) {
+		Arrays.fill(mask, true);
+		if (i >= 0 && i < mask.length) {
+			mask[i] = false;
+		}
+		recalculateTableIndices();
+	}
+
     /**
      * Returns the number of subsets.  @return the number of subsets
      *
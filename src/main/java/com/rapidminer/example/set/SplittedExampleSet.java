@@ -343,22 +343,14 @@ public class SplittedExampleSet extends AbstractExampleSet {
      * @param index the index
      */
     public void selectAllSubsetsBut(int index) {
-		partition.clearSelection();
-		for (int i = 0; i < partition.getNumberOfSubsets(); i++) {
-			if (i != index) {
-				partition.selectSubset(i);
-			}
-		}
+		partition.selectAllSubsetsBut(index);
 	}
 
     /**
      * Selects all subsets.
      */
     public void selectAllSubsets() {
-		partition.clearSelection();
-		for (int i = 0; i < partition.getNumberOfSubsets(); i++) {
-			partition.selectSubset(i);
-		}
+		partition.selectAllSubsetsBut(-1);
 	}
 
     /**
@@ -0,0 +1,743 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.AttributeTypeException;
+import com.rapidminer.example.Example;
+import com.rapidminer.tools.ParameterService;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+
+/**
+ * A memory efficient implementation of {@link NominalMapping} for nominal attributes with many
+ * different values like ids or texts. Instead of keeping every value as {@link String} in a map and
+ * a list, the values are stored UTF-8 encoded in a single byte pool and looked up via an open
+ * addressing hash index over that pool. The pool can be kept off-heap.
+ * <p>
+ * Clones share the pool with the original mapping until one of them adds or changes a value, so
+ * copying attributes does not copy the values. Like the {@link PolynominalMapping}, the mapping
+ * must not be changed concurrently, but it can be read by multiple threads.
+ *
+ * @since 7.6.1
+ */
+public class CompactNominalMapping implements NominalMapping {
+
+	private static final long serialVersionUID = -3904215370536846262L;
+
+	/** Starts the encoding of values which are not valid UTF-16 and thus stored as UTF-16 chars. */
+	private static final byte UTF_16_MARKER = (byte) 0xFF;
+
+	/** The number of decoded values kept per mapping. */
+	private static final int CACHE_SIZE = 1024;
+
+	/** The values, possibly shared with clones. */
+	private transient Dictionary dictionary;
+
+	/** Whether the dictionary might be shared and must be copied before changing it. */
+	private transient boolean shared;
+
+	/**
+	 * Recently decoded values, indexed by the value index modulo {@link #CACHE_SIZE}. Allocated on
+	 * the first lookup.
+	 */
+	private transient CachedValue[] cache;
+
+    /**
+     * Creates an empty mapping which stores its values off-heap if
+     * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_NOMINAL_MAPPINGS} is set.
+     */
+    public CompactNominalMapping() {
+		this(Boolean.parseBoolean(
+				ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_NOMINAL_MAPPINGS)));
+	}
+
+    /**
+     * Creates an empty mapping.
+     *
+     * @param offHeap whether the values should be stored outside of the Java heap
+     */
+    public CompactNominalMapping(boolean offHeap) {
+		this.dictionary = new Dictionary(offHeap);
+	}
+
+    /**
+     * Creates a mapping with the same values and indices as the given mapping. If the given mapping
+     * is a {@link CompactNominalMapping}, the values are shared until one of the mappings changes.
+     *
+     * @param mapping the mapping to copy
+     */
+    public CompactNominalMapping(NominalMapping mapping) {
+		if (mapping instanceof CompactNominalMapping) {
+			CompactNominalMapping compact = (CompactNominalMapping) mapping;
+			compact.shared = true;
+			this.dictionary = compact.dictionary;
+			this.shared = true;
+		} else {
+			this.dictionary = new Dictionary(Boolean.parseBoolean(
+					ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_NOMINAL_MAPPINGS)));
+			for (int i = 0; i < mapping.size(); i++) {
+				dictionary.put(mapping.mapIndex(i));
+			}
+		}
+	}
+
+	@Override
+	public Object clone() {
+		return new CompactNominalMapping(this);
+	}
+
+    /**
+     * Returns whether the values are stored outside of the Java heap.
+     *
+     * @return {@code true} if the values are stored off-heap
+     */
+    public boolean isOffHeap() {
+		return dictionary.offHeap;
+	}
+
+	@Override
+	public boolean equals(NominalMapping mapping) {
+		if (mapping.size() != size()) {
+			return false;
+		}
+		for (String value : mapping.getValues()) {
+			if (getIndex(value) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the index for the nominal attribute value <code>str</code>. If the string is unknown,
+	 * a new index value is assigned. Returns -1, if str is null.
+	 */
+	@Override
+	public int mapString(String str) {
+		if (str == null) {
+			return -1;
+		}
+		byte[] bytes = encode(str);
+		int hash = hash(bytes);
+		int index = dictionary.find(bytes, hash);
+		if (index < 0) {
+			index = writableDictionary().add(bytes, hash);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the given nominal value or -1 if this value was not mapped before by
+	 * invoking the method {@link #mapIndex(int)}.
+	 */
+	@Override
+	public int getIndex(String str) {
+		if (str == null) {
+			return -1;
+		}
+		byte[] bytes = encode(str);
+		return dictionary.find(bytes, hash(bytes));
+	}
+
+	/**
+	 * Returns the attribute value, that is associated with this index. Index counting starts with
+	 * 0. <b>WARNING:</b> In order to iterate over all values please use the collection returned by
+	 * {@link #getValues()}.
+	 */
+	@Override
+	public String mapIndex(int index) {
+		if (index < 0 || index >= dictionary.size) {
+			throw new AttributeTypeException(
+					"Cannot map index of nominal attribute to nominal value: index " + index + " is out of bounds!");
+		}
+		CachedValue[] currentCache = cache;
+		if (currentCache == null) {
+			currentCache = new CachedValue[CACHE_SIZE];
+			cache = currentCache;
+		}
+		int cacheIndex = index & CACHE_SIZE - 1;
+		CachedValue cached = currentCache[cacheIndex];
+		if (cached != null && cached.index == index) {
+			return cached.value;
+		}
+		String value = dictionary.get(index);
+		currentCache[cacheIndex] = new CachedValue(index, value);
+		return value;
+	}
+
+	/**
+	 * Sets the given mapping. Please note that this will overwrite existing mappings and might
+	 * cause data changes in this way.
+	 */
+	@Override
+	public void setMapping(String nominalValue, int index) {
+		if (index < 0 || index >= dictionary.size) {
+			throw new AttributeTypeException(
+					"Cannot map nominal value to index of nominal attribute: index " + index + " is out of bounds!");
+		}
+		writableDictionary().set(index, nominalValue);
+		CachedValue[] currentCache = cache;
+		if (currentCache != null) {
+			currentCache[index & CACHE_SIZE - 1] = null;
+		}
+	}
+
+	/**
+	 * Returns the index of the first value if this attribute is a classification attribute, i.e. if
+	 * it is binominal.
+	 */
+	@Override
+	public int getNegativeIndex() {
+		ensureClassification();
+		if (mapIndex(0) == null) {
+			throw new AttributeTypeException("Attribute: Cannot use FIRST_CLASS_INDEX for negative class!");
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the index of the second value if this attribute is a classification attribute. Works
+	 * for all binominal attributes.
+	 */
+	@Override
+	public int getPositiveIndex() {
+		ensureClassification();
+		if (mapIndex(0) == null) {
+			throw new AttributeTypeException("Attribute: Cannot use FIRST_CLASS_INDEX for negative class!");
+		}
+		return 1;
+	}
+
+	@Override
+	public String getNegativeString() {
+		return mapIndex(getNegativeIndex());
+	}
+
+	@Override
+	public String getPositiveString() {
+		return mapIndex(getPositiveIndex());
+	}
+
+	/**
+	 * Returns the values of the attribute as an unmodifiable list view. The values are decoded on
+	 * access.
+	 */
+	@Override
+	public List<String> getValues() {
+		return new ValueList();
+	}
+
+	/** Returns the number of different nominal values. */
+	@Override
+	public int size() {
+		return dictionary.size;
+	}
+
+	/**
+	 * This method rearranges the string to number mappings such that they are in alphabetical
+	 * order. <br>
+	 * <b>VERY IMPORTANT NOTE:</b> Do not call this method when this attribute is already associated
+	 * with an {@link ExampleTable} and it already contains {@link Example}s. All examples will be
+	 * messed up since the indices will not be replaced in the data table.
+	 */
+	@Override
+	public void sortMappings() {
+		List<String> allStrings = new ArrayList<>(dictionary.size);
+		for (int i = 0; i < dictionary.size; i++) {
+			String value = dictionary.get(i);
+			// only values whose index is known, like the keys of the polynominal mapping
+			if (value != null && getIndex(value) == i) {
+				allStrings.add(value);
+			}
+		}
+		Collections.sort(allStrings);
+		Dictionary sorted = new Dictionary(dictionary.offHeap);
+		for (String value : allStrings) {
+			sorted.put(value);
+		}
+		replaceDictionary(sorted);
+	}
+
+	/** Clears all mappings for nominal values. */
+	@Override
+	public void clear() {
+		replaceDictionary(new Dictionary(dictionary.offHeap));
+	}
+
+	/**
+	 * Replaces the dictionary and invalidates the decoded values.
+	 */
+	private void replaceDictionary(Dictionary newDictionary) {
+		dictionary = newDictionary;
+		shared = false;
+		cache = null;
+	}
+
+	/**
+	 * Returns the dictionary after copying it if it is shared with a clone.
+	 */
+	private Dictionary writableDictionary() {
+		if (shared) {
+			dictionary = dictionary.copy();
+			shared = false;
+		}
+		return dictionary;
+	}
+
+	/**
+	 * Throws a runtime exception if this attribute is not a classification attribute.
+	 */
+	private void ensureClassification() {
+		if (size() != 2) {
+			throw new AttributeTypeException("Attribute " + this.toString() + " is not a classification attribute!");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getValues().toString();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeBoolean(dictionary.offHeap);
+		out.writeInt(dictionary.size);
+		for (int i = 0; i < dictionary.size; i++) {
+			byte[] bytes = dictionary.getBytes(i);
+			if (bytes == null) {
+				out.writeInt(-1);
+			} else {
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		dictionary = new Dictionary(in.readBoolean());
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			int length = in.readInt();
+			if (length < 0) {
+				dictionary.append(null, 0);
+			} else {
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				int hash = hash(bytes);
+				dictionary.index(dictionary.append(bytes, hash), bytes, hash);
+			}
+		}
+	}
+
+	/**
+	 * Encodes the given value as UTF-8. Values with unpaired surrogates cannot be encoded as UTF-8
+	 * without losing them, so they are stored as {@link #UTF_16_MARKER} followed by their UTF-16
+	 * chars instead. The marker byte never occurs in UTF-8, so every value has exactly one encoding.
+	 */
+	private static byte[] encode(String value) {
+		if (isWellFormed(value)) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[1 + 2 * value.length()];
+		bytes[0] = UTF_16_MARKER;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			bytes[1 + 2 * i] = (byte) (c >>> 8);
+			bytes[2 + 2 * i] = (byte) c;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Decodes the value encoded by {@link #encode(String)} at the given position.
+	 */
+	private static String decode(byte[] bytes, int start, int length) {
+		if (length == 0 || bytes[start] != UTF_16_MARKER) {
+			return new String(bytes, start, length, StandardCharsets.UTF_8);
+		}
+		char[] chars = new char[(length - 1) / 2];
+		for (int i = 0; i < chars.length; i++) {
+			int position = start + 1 + 2 * i;
+			chars[i] = (char) ((bytes[position] & 0xFF) << 8 | bytes[position + 1] & 0xFF);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Checks whether every surrogate of the given value is part of a surrogate pair.
+	 */
+	private static boolean isWellFormed(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (Character.isHighSurrogate(c)) {
+				if (i + 1 == value.length() || !Character.isLowSurrogate(value.charAt(i + 1))) {
+					return false;
+				}
+				i++;
+			} else if (Character.isLowSurrogate(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Hashes the given encoded bytes.
+	 */
+	private static int hash(byte[] bytes) {
+		int hash = 1;
+		for (byte b : bytes) {
+			hash = 31 * hash + b;
+		}
+		// spread the bits since the table uses the lowest ones
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		return hash ^ hash >>> 13;
+	}
+
+	/**
+	 * A decoded value together with its index.
+	 */
+	private static final class CachedValue {
+
+		private final int index;
+		private final String value;
+
+		private CachedValue(int index, String value) {
+			this.index = index;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Unmodifiable view of the values.
+	 */
+	private final class ValueList extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+			return mapIndex(index);
+		}
+
+		@Override
+		public int size() {
+			return dictionary.size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof String && getIndex((String) o) >= 0;
+		}
+	}
+
+	/**
+	 * The values of a mapping: the UTF-8 bytes of all values in one pool, the position of every
+	 * value in the pool and a hash table of the value indices with linear probing.
+	 */
+	private static final class Dictionary {
+
+		/** Marks an empty slot of the table. */
+		private static final int EMPTY = 0;
+
+		/** Marks a slot whose value was replaced. */
+		private static final int REMOVED = -1;
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final boolean offHeap;
+
+		/** The UTF-8 bytes of the values. */
+		private ByteBuffer pool;
+		private int poolSize;
+
+		/** Start, length and hash of every value, the length of {@code null} is -1. */
+		private int[] starts;
+		private int[] lengths;
+		private int[] hashes;
+		private int size;
+
+		/** The value index plus one per slot or {@link #EMPTY} or {@link #REMOVED}. */
+		private int[] table;
+
+		/** The number of slots which are not {@link #EMPTY}. */
+		private int usedSlots;
+
+		private Dictionary(boolean offHeap) {
+			this.offHeap = offHeap;
+			this.pool = allocate(INITIAL_CAPACITY * 8);
+			this.starts = new int[INITIAL_CAPACITY];
+			this.lengths = new int[INITIAL_CAPACITY];
+			this.hashes = new int[INITIAL_CAPACITY];
+			this.table = new int[2 * INITIAL_CAPACITY];
+		}
+
+		private Dictionary(Dictionary other) {
+			this.offHeap = other.offHeap;
+			this.pool = allocate(Math.max(other.poolSize, 1));
+			ByteBuffer source = other.pool.duplicate();
+			source.position(0);
+			source.limit(other.poolSize);
+			this.pool.put(source);
+			this.poolSize = other.poolSize;
+			this.starts = Arrays.copyOf(other.starts, Math.max(other.size, 1));
+			this.lengths = Arrays.copyOf(other.lengths, Math.max(other.size, 1));
+			this.hashes = Arrays.copyOf(other.hashes, Math.max(other.size, 1));
+			this.size = other.size;
+			this.table = other.table.clone();
+			this.usedSlots = other.usedSlots;
+		}
+
+		private Dictionary copy() {
+			return new Dictionary(this);
+		}
+
+		private ByteBuffer allocate(int capacity) {
+			return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+		}
+
+		/**
+		 * Returns the index of the given value or -1 if it is not contained.
+		 */
+		private int find(byte[] bytes, int hash) {
+			int slot = findSlot(bytes, hash);
+			return slot < 0 ? -1 : table[slot] - 1;
+		}
+
+		/**
+		 * Returns the slot of the given value or -1 if it is not contained.
+		 */
+		private int findSlot(byte[] bytes, int hash) {
+			int mask = table.length - 1;
+			for (int slot = hash & mask;; slot = slot + 1 & mask) {
+				int entry = table[slot];
+				if (entry == EMPTY) {
+					return -1;
+				}
+				if (entry != REMOVED && hashes[entry - 1] == hash && equalBytes(entry - 1, bytes)) {
+					return slot;
+				}
+			}
+		}
+
+		private boolean equalBytes(int index, byte[] bytes) {
+			if (lengths[index] != bytes.length) {
+				return false;
+			}
+			int start = starts[index];
+			if (pool.hasArray()) {
+				byte[] array = pool.array();
+				for (int i = 0; i < bytes.length; i++) {
+					if (array[start + i] != bytes[i]) {
+						return false;
+					}
+				}
+			} else {
+				for (int i = 0; i < bytes.length; i++) {
+					if (pool.get(start + i) != bytes[i]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the given value, which must not be contained yet, and returns its new index.
+		 */
+		private int add(byte[] bytes, int hash) {
+			int index = append(bytes, hash);
+			index(index, bytes, hash);
+			return index;
+		}
+
+		/**
+		 * Adds the given value if it is not contained yet.
+		 */
+		private void put(String value) {
+			if (value == null) {
+				append(null, 0);
+				return;
+			}
+			byte[] bytes = encode(value);
+			int hash = hash(bytes);
+			index(append(bytes, hash), bytes, hash);
+		}
+
+		/**
+		 * Replaces the value at the given index. Like for a map, the replaced value is unknown
+		 * afterwards and the new value is found at the given index.
+		 */
+		private void set(int index, String value) {
+			byte[] oldBytes = getBytes(index);
+			if (oldBytes != null) {
+				int slot = findSlot(oldBytes, hashes[index]);
+				if (slot >= 0) {
+					table[slot] = REMOVED;
+				}
+			}
+			if (value == null) {
+				lengths[index] = -1;
+				return;
+			}
+			byte[] bytes = encode(value);
+			int hash = hash(bytes);
+			starts[index] = write(bytes);
+			lengths[index] = bytes.length;
+			hashes[index] = hash;
+			index(index, bytes, hash);
+		}
+
+		/**
+		 * Appends the value to the pool without indexing it.
+		 */
+		private int append(byte[] bytes, int hash) {
+			if (size == starts.length) {
+				int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+				starts = Arrays.copyOf(starts, capacity);
+				lengths = Arrays.copyOf(lengths, capacity);
+				hashes = Arrays.copyOf(hashes, capacity);
+			}
+			if (bytes == null) {
+				lengths[size] = -1;
+			} else {
+				starts[size] = write(bytes);
+				lengths[size] = bytes.length;
+				hashes[size] = hash;
+			}
+			return size++;
+		}
+
+		/**
+		 * Makes the given value findable at the given index, replacing an older index of it.
+		 */
+		private void index(int index, byte[] bytes, int hash) {
+			int slot = findSlot(bytes, hash);
+			if (slot >= 0) {
+				table[slot] = index + 1;
+				return;
+			}
+			if (2 * (usedSlots + 1) > table.length) {
+				rehash();
+			}
+			int mask = table.length - 1;
+			slot = hash & mask;
+			while (table[slot] != EMPTY && table[slot] != REMOVED) {
+				slot = slot + 1 & mask;
+			}
+			if (table[slot] == EMPTY) {
+				usedSlots++;
+			}
+			table[slot] = index + 1;
+		}
+
+		/**
+		 * Rebuilds the table with twice the number of live entries as capacity, dropping removed
+		 * slots.
+		 */
+		private void rehash() {
+			int live = 0;
+			for (int entry : table) {
+				if (entry > 0) {
+					live++;
+				}
+			}
+			int capacity = table.length;
+			while (4 * (live + 1) > capacity) {
+				capacity <<= 1;
+			}
+			int[] oldTable = table;
+			table = new int[capacity];
+			usedSlots = live;
+			int mask = capacity - 1;
+			for (int entry : oldTable) {
+				if (entry > 0) {
+					int slot = hashes[entry - 1] & mask;
+					while (table[slot] != EMPTY) {
+						slot = slot + 1 & mask;
+					}
+					table[slot] = entry;
+				}
+			}
+		}
+
+		/**
+		 * Writes the bytes to the end of the pool and returns their start.
+		 */
+		private int write(byte[] bytes) {
+			long required = (long) poolSize + bytes.length;
+			if (required > Integer.MAX_VALUE - 8) {
+				throw new AttributeTypeException("Nominal values of attribute exceed the maximal size of 2 GB!");
+			}
+			if (required > pool.capacity()) {
+				long capacity = Math.max(required, (long) pool.capacity() * 2);
+				ByteBuffer newPool = allocate((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+				ByteBuffer source = pool.duplicate();
+				source.position(0);
+				source.limit(poolSize);
+				newPool.put(source);
+				pool = newPool;
+			}
+			int start = poolSize;
+			ByteBuffer target = pool.duplicate();
+			target.position(start);
+			target.put(bytes);
+			poolSize += bytes.length;
+			return start;
+		}
+
+		private byte[] getBytes(int index) {
+			int length = lengths[index];
+			if (length < 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			ByteBuffer source = pool.duplicate();
+			source.position(starts[index]);
+			source.get(bytes);
+			return bytes;
+		}
+
+		private String get(int index) {
+			int length = lengths[index];
+			if (length < 0) {
+				return null;
+			}
+			if (pool.hasArray()) {
+				return decode(pool.array(), starts[index], length);
+			}
+			return decode(getBytes(index), 0, length);
+		}
+	}
+}
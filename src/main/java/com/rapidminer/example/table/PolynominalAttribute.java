@@ -18,7 +18,9 @@
 */
 package com.rapidminer.example.table;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
 
 import java.util.Iterator;
 
@@ -35,7 +37,9 @@ import java.util.Iterator;
  * This class is one of the two available implementations of {@link NominalAttribute} available in
  * RapidMiner. In contrast to the {@link BinominalAttribute}, which stores the possible values
  * internally very efficient, this class allows an arbitrary number of nominal values and uses a
- * {@link PolynominalMapping} for the internal representation mapping.
+ * {@link PolynominalMapping} for the internal representation mapping, or a
+ * {@link CompactNominalMapping} if {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS}
+ * is set.
  *
  * @author Ingo Mierswa Exp $
  */
@@ -46,7 +50,7 @@ public class PolynominalAttribute extends NominalAttribute {
 	/** The maximum number of nominal values displayed in result strings. */
 	private static final int MAX_NUMBER_OF_SHOWN_NOMINAL_VALUES = 100;
 
-	private NominalMapping nominalMapping = new PolynominalMapping();
+	private NominalMapping nominalMapping;
 
     /**
      * Creates a simple attribute which is not part of a series and does not provide a unit string.
@@ -65,6 +69,7 @@ public class PolynominalAttribute extends NominalAttribute {
      */
 /* pp */PolynominalAttribute(String name, int valueType) {
 		super(name, valueType);
+		this.nominalMapping = createMapping();
 	}
 
 	/**
@@ -89,7 +94,24 @@ public class PolynominalAttribute extends NominalAttribute {
 
 	@Override
 	public void setMapping(NominalMapping newMapping) {
-		this.nominalMapping = new PolynominalMapping(newMapping);
+		if (newMapping instanceof CompactNominalMapping || useCompactMappings()) {
+			// shares the values with the given mapping until one of them changes
+			this.nominalMapping = new CompactNominalMapping(newMapping);
+		} else {
+			this.nominalMapping = new PolynominalMapping(newMapping);
+		}
+	}
+
+	/**
+	 * Creates an empty mapping of the configured kind.
+	 */
+	private static NominalMapping createMapping() {
+		return useCompactMappings() ? new CompactNominalMapping() : new PolynominalMapping();
+	}
+
+	private static boolean useCompactMappings() {
+		return Boolean.parseBoolean(
+				ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS));
 	}
 
 	// ================================================================================
@@ -186,26 +186,27 @@ public class IOObjectCacheViewer extends JPanel implements Dockable {
 		JPanel entriesPanel = new JPanel();
 		entriesPanel.setLayout(layout);
 
-		List<String> keys = new ArrayList<>(map.getAll().keySet());
+		List<String> keys = new ArrayList<>(map.getAllKeys());
 		Collections.sort(keys);
 		boolean alternatingRow = true;
 		for (String key : keys) {
-			IOObject object = map.get(key);
-			if (object == null) {
+			// the type is known without reading spilled objects from disk
+			Class<? extends IOObject> objectClass = map.getType(key);
+			if (objectClass == null) {
 				// do not display empty results
 				continue;
 			}
 
 			// look up icon
-			Icon icon = RendererService.getIcon(object.getClass());
+			Icon icon = RendererService.getIcon(objectClass);
 			if (icon == null) {
 				icon = UNKNOWN_TYPE;
 			}
 
 			// look up name
-			String type = RendererService.getName(object.getClass());
+			String type = RendererService.getName(objectClass);
 			if (type == null) {
-				type = object.getClass().getSimpleName();
+				type = objectClass.getSimpleName();
 			}
 
 			Action removeAction = new RemoveCacheEntryAction(map, key);
@@ -18,19 +18,55 @@
 */
 package com.rapidminer.operator;
 
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.IOObjectMapEvent.IOObjectMapEventType;
+import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.operator.ports.metadata.MetaDataFactory;
+import com.rapidminer.operator.tools.ColumnarExampleSetSerializer;
 import com.rapidminer.tools.AbstractObservable;
+import com.rapidminer.tools.LogService;
 import com.rapidminer.tools.Observable;
 import com.rapidminer.tools.Observer;
+import com.rapidminer.tools.ParameterService;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 
 
 /**
  * This map of {@link IOObject}s is used to make {@link IOObject}s accessible for a given scope.
+ * <p>
+ * The map is thread-safe and bounded by the estimated memory of the stored objects (see
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SIZE}). If the bound is exceeded,
+ * objects are evicted by the greedy dual size frequency policy: every object has a priority of
+ * its number of accesses divided by its size plus the priority of the last evicted object, and
+ * the object with the lowest priority is evicted first. Hence, large and rarely used objects are
+ * evicted first, and objects that were not accessed for a long time age out.
+ * <p>
+ * Evicted example sets are spilled to a temporary file in the columnar format of
+ * {@link ColumnarExampleSetSerializer} (see
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SPILL}) and reloaded transparently
+ * when they are accessed again, as {@link com.rapidminer.example.set.SimpleExampleSet}s with the
+ * examples and attributes of the evicted set. Other evicted objects are removed from the map.
  *
  * @author Sabrina Kirstein, Marco Boeck
  */
@@ -47,16 +83,88 @@ public class IOObjectMap {
 		}
 	}
 
+	/**
+	 * A stored object, which is either in memory or spilled to disk.
+	 */
+	private static final class Entry {
+
+		private final String name;
+		private final Class<? extends IOObject> type;
+		private final long size;
+
+		/** the object or {@code null} if it is spilled */
+		private IOObject object;
+
+		/** the file the object is spilled to or {@code null} */
+		private File file;
+
+		/** the meta data of a spilled object */
+		private MetaData metaData;
+
+		/** whether the object is currently written to disk */
+		private boolean spilling;
+
+		private long frequency = 1;
+		private double priority;
+
+		private Entry(String name, IOObject object) {
+			this.name = name;
+			// spilled example sets are reloaded as simple example sets
+			this.type = object instanceof ExampleSet ? ExampleSet.class : object.getClass();
+			this.object = object;
+			this.size = estimateSize(object);
+		}
+	}
+
+	/** The estimated size of objects other than example sets. */
+	private static final long DEFAULT_OBJECT_SIZE = 1 << 16;
+
+	/** The estimated size of a value of an example table. */
+	private static final long VALUE_SIZE = 8;
+
 	/**
 	 * Stores IOObjects according to a specified name.
 	 */
-	private Map<String, IOObject> cacheMap = new HashMap<>();
+	private Map<String, Entry> cacheMap = new HashMap<>();
 
 	/** observable which informs observers about the map state */
 	private PrivateMapObservable mapObservable = new PrivateMapObservable();
 
 	private Object LOCK = new Object();
 
+	/** the maximal estimated size of the objects in memory, {@code -1} to use the system setting */
+	private final long maxMemory;
+
+	/** the estimated size of the objects in memory */
+	private long memoryUsage;
+
+	/** the priority of the last evicted object */
+	private double inflation;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong diskHits = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong evictedBytes = new AtomicLong();
+
+    /**
+     * Creates a map bounded by the system settings.
+     */
+    public IOObjectMap() {
+		this(-1);
+	}
+
+    /**
+     * Creates a map bounded by the given estimated memory size.
+     *
+     * @param maxMemory the maximal estimated size of the objects kept in memory in bytes or
+     *                  {@code -1} to use the system settings
+     * @since 7.6.1
+     */
+    public IOObjectMap(long maxMemory) {
+		this.maxMemory = maxMemory;
+	}
+
     /**
      * Adds an observer, which receives updates when the map changes, i.e. an object is
      * added/removed/changed or multiple objects are added/removed at the same time.
@@ -77,16 +185,24 @@ public class IOObjectMap {
 	}
 
     /**
-     * Cache a given {@link IOObject} with an associated name.  @param name the name
+     * Cache a given {@link IOObject} with an associated name. Other objects might be evicted to
+     * stay within the memory bound.
      *
      * @param name   the name
      * @param object the object
      */
     public void store(String name, IOObject object) {
-		IOObject previous = null;
+		Entry entry = new Entry(name, object);
+		Entry previous = null;
+		List<Entry> evicted;
 		synchronized (LOCK) {
-			previous = cacheMap.put(name, object);
-
+			entry.priority = inflation + (double) entry.frequency / entry.size;
+			previous = cacheMap.put(name, entry);
+			if (previous != null) {
+				discard(previous);
+			}
+			memoryUsage += entry.size;
+			evicted = evict(entry);
 		}
 
 		if (previous == null) {
@@ -94,27 +210,172 @@ public class IOObjectMap {
 		} else {
 			mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.CHANGED, name));
 		}
+		handleEvicted(evicted);
 	}
 
     /**
-     * Return an {@link IOObject} with the given name or <code>null</code> is none exists.
+     * Return an {@link IOObject} with the given name or <code>null</code> is none exists. Spilled
+     * objects are read from disk again.
      *
      * @param name the name
      * @return the io object
      */
     public IOObject get(String name) {
-		return cacheMap.get(name);
+		Entry entry;
+		File file;
+		synchronized (LOCK) {
+			entry = cacheMap.get(name);
+			if (entry == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+			entry.frequency++;
+			entry.priority = inflation + (double) entry.frequency / entry.size;
+			if (entry.object != null) {
+				hits.incrementAndGet();
+				return entry.object;
+			}
+			file = entry.file;
+		}
+
+		// reading the spilled object without holding the lock
+		IOObject object = null;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			object = new ColumnarExampleSetSerializer(false).read(in);
+		} catch (IOException e) {
+			LogService.getRoot().log(Level.WARNING, "Cannot read spilled object " + name + " from " + file, e);
+		}
+
+		List<Entry> evicted = null;
+		boolean lost = false;
+		synchronized (LOCK) {
+			if (cacheMap.get(name) != entry) {
+				// replaced or removed in the meantime
+				return object;
+			}
+			if (entry.object != null) {
+				// read by another thread in the meantime
+				hits.incrementAndGet();
+				return entry.object;
+			}
+			if (object == null) {
+				cacheMap.remove(name);
+				lost = true;
+			} else {
+				diskHits.incrementAndGet();
+				entry.object = object;
+				entry.metaData = null;
+				memoryUsage += entry.size;
+				evicted = evict(entry);
+			}
+			// the reloaded object might be changed, hence it is written again when evicted
+			entry.file = null;
+		}
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+		if (lost) {
+			misses.incrementAndGet();
+			mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.REMOVED, name));
+		} else {
+			handleEvicted(evicted);
+		}
+		return object;
 	}
 
     /**
-     * Returns all cached {@link IOObject}s
+     * Returns the type of the {@link IOObject} with the given name without reading it from disk.
+     * The type of all example sets is {@link ExampleSet}, since spilled example sets are read from
+     * disk as {@link com.rapidminer.example.set.SimpleExampleSet}s.
      *
-     * @return all all
+     * @param name the name
+     * @return the class of the object or {@code null} if none exists
+     * @since 7.6.1
      */
-    public Map<String, IOObject> getAll() {
+    public Class<? extends IOObject> getType(String name) {
+		synchronized (LOCK) {
+			Entry entry = cacheMap.get(name);
+			return entry != null ? entry.type : null;
+		}
+	}
+
+    /**
+     * Returns the meta data of the {@link IOObject} with the given name without reading it from
+     * disk and without counting as access.
+     *
+     * @param name the name
+     * @return the meta data or {@code null} if no object exists
+     * @since 7.6.1
+     */
+    public MetaData getMetaData(String name) {
+		IOObject object;
 		synchronized (LOCK) {
-			return Collections.unmodifiableMap(cacheMap);
+			Entry entry = cacheMap.get(name);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.object == null) {
+				return entry.metaData;
+			}
+			object = entry.object;
 		}
+		return MetaDataFactory.getInstance().createMetaDataforIOObject(object, false);
+	}
+
+    /**
+     * Returns all cached {@link IOObject}s. The values of the returned map are looked up by
+     * {@link #get(String)} when they are accessed.
+     *
+     * @return all all
+     */
+    public Map<String, IOObject> getAll() {
+		final Set<String> keys = getAllKeys();
+		return new AbstractMap<String, IOObject>() {
+
+			@Override
+			public boolean containsKey(Object key) {
+				return keys.contains(key);
+			}
+
+			@Override
+			public IOObject get(Object key) {
+				return keys.contains(key) ? IOObjectMap.this.get((String) key) : null;
+			}
+
+			@Override
+			public Set<String> keySet() {
+				return keys;
+			}
+
+			@Override
+			public Set<Map.Entry<String, IOObject>> entrySet() {
+				return new AbstractSet<Map.Entry<String, IOObject>>() {
+
+					@Override
+					public Iterator<Map.Entry<String, IOObject>> iterator() {
+						final Iterator<String> keyIterator = keys.iterator();
+						return new Iterator<Map.Entry<String, IOObject>>() {
+
+							@Override
+							public boolean hasNext() {
+								return keyIterator.hasNext();
+							}
+
+							@Override
+							public Map.Entry<String, IOObject> next() {
+								String key = keyIterator.next();
+								return new AbstractMap.SimpleImmutableEntry<>(key, IOObjectMap.this.get(key));
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return keys.size();
+					}
+				};
+			}
+		};
 	}
 
     /**
@@ -124,20 +385,26 @@ public class IOObjectMap {
      */
     public Set<String> getAllKeys() {
 		synchronized (LOCK) {
-			return Collections.unmodifiableSet(cacheMap.keySet());
+			return Collections.unmodifiableSet(new LinkedHashSet<>(cacheMap.keySet()));
 		}
 	}
 
     /**
-     * Removes an {@link IOObject} with the given name
+     * Removes an {@link IOObject} with the given name. Spilled objects are not read from disk
+     * again, their file is deleted.
      *
      * @param name the name
-     * @return the removed {@link IOObject} or <code>null</code> if it does not exist
+     * @return the removed {@link IOObject} or <code>null</code> if it does not exist or was spilled
+     *         to disk
      */
     public IOObject remove(String name) {
-		IOObject removedObject;
+		IOObject removedObject = null;
 		synchronized (LOCK) {
-			removedObject = cacheMap.remove(name);
+			Entry entry = cacheMap.remove(name);
+			if (entry != null) {
+				removedObject = entry.object;
+				discard(entry);
+			}
 		}
 		mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.REMOVED, name));
 		return removedObject;
@@ -148,8 +415,221 @@ public class IOObjectMap {
      */
     public void clearStorage() {
 		synchronized (LOCK) {
+			for (Entry entry : cacheMap.values()) {
+				discard(entry);
+			}
 			cacheMap.clear();
 		}
 		mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.STRUCTURE_CHANGED, null));
 	}
+
+    /**
+     * Returns the number of successful lookups of objects in memory.
+     *
+     * @return the number of hits
+     * @since 7.6.1
+     */
+    public long getHitCount() {
+		return hits.get();
+	}
+
+    /**
+     * Returns the number of successful lookups of spilled objects, which were read from disk.
+     *
+     * @return the number of disk hits
+     * @since 7.6.1
+     */
+    public long getDiskHitCount() {
+		return diskHits.get();
+	}
+
+    /**
+     * Returns the number of lookups of names without object.
+     *
+     * @return the number of misses
+     * @since 7.6.1
+     */
+    public long getMissCount() {
+		return misses.get();
+	}
+
+    /**
+     * Returns the number of objects evicted from memory, either spilled or removed.
+     *
+     * @return the number of evictions
+     * @since 7.6.1
+     */
+    public long getEvictionCount() {
+		return evictions.get();
+	}
+
+    /**
+     * Returns the estimated size of all objects evicted from memory.
+     *
+     * @return the evicted bytes
+     * @since 7.6.1
+     */
+    public long getEvictedBytes() {
+		return evictedBytes.get();
+	}
+
+    /**
+     * Returns the estimated size of the objects currently kept in memory.
+     *
+     * @return the memory usage in bytes
+     * @since 7.6.1
+     */
+    public long getMemoryUsage() {
+		synchronized (LOCK) {
+			return memoryUsage;
+		}
+	}
+
+	/**
+	 * Estimates the memory used by the object. Example sets are estimated by the number of values
+	 * they contain, all other objects by a constant. Views on a table are only charged for their
+	 * examples and attributes, since the table is usually shared with other objects.
+	 */
+	private static long estimateSize(IOObject object) {
+		if (object instanceof ExampleSet) {
+			ExampleSet exampleSet = (ExampleSet) object;
+			long values = (long) exampleSet.size() * exampleSet.getAttributes().allSize();
+			return Math.max(DEFAULT_OBJECT_SIZE, values * VALUE_SIZE);
+		}
+		return DEFAULT_OBJECT_SIZE;
+	}
+
+	/**
+	 * Returns the memory bound of this map, either given at construction or by the system
+	 * settings.
+	 */
+	private long getMaxMemory() {
+		if (maxMemory >= 0) {
+			return maxMemory;
+		}
+		long megabytes = 0;
+		try {
+			String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SIZE);
+			if (value != null) {
+				megabytes = Long.parseLong(value);
+			}
+		} catch (NumberFormatException e) {
+			// use default
+		}
+		if (megabytes > 0) {
+			return megabytes << 20;
+		}
+		// a quarter of the heap by default
+		return Runtime.getRuntime().maxMemory() / 4;
+	}
+
+	/**
+	 * Whether evicted example sets should be spilled to disk.
+	 */
+	private static boolean isSpillingEnabled() {
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_IO_OBJECT_CACHE_SPILL);
+		return value == null || Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * Frees the resources of an entry no longer in the map. Must be called while holding the lock.
+	 */
+	private void discard(Entry entry) {
+		if (entry.object != null && !entry.spilling) {
+			memoryUsage -= entry.size;
+		}
+		if (entry.file != null && !entry.file.delete()) {
+			entry.file.deleteOnExit();
+		}
+		entry.file = null;
+	}
+
+	/**
+	 * Evicts objects until the memory bound is met, except for the given entry. Spilled example
+	 * sets stay in the map and are written by {@link #handleEvicted(List)}, other objects are
+	 * removed. Must be called while holding the lock.
+	 *
+	 * @return the evicted entries
+	 */
+	private List<Entry> evict(Entry protectedEntry) {
+		long bound = getMaxMemory();
+		if (memoryUsage <= bound) {
+			return Collections.emptyList();
+		}
+		boolean spill = isSpillingEnabled();
+		List<Entry> evicted = new ArrayList<>();
+		while (memoryUsage > bound) {
+			Entry victim = null;
+			for (Entry entry : cacheMap.values()) {
+				if (entry != protectedEntry && entry.object != null && !entry.spilling
+						&& (victim == null || entry.priority < victim.priority)) {
+					victim = entry;
+				}
+			}
+			if (victim == null) {
+				break;
+			}
+			inflation = victim.priority;
+			memoryUsage -= victim.size;
+			evictions.incrementAndGet();
+			evictedBytes.addAndGet(victim.size);
+			if (spill && victim.object instanceof ExampleSet) {
+				victim.spilling = true;
+			} else {
+				cacheMap.remove(victim.name);
+			}
+			evicted.add(victim);
+		}
+		return evicted;
+	}
+
+	/**
+	 * Writes the spilled example sets to disk and informs the observers about removed objects.
+	 * Must not be called while holding the lock.
+	 */
+	private void handleEvicted(List<Entry> evicted) {
+		for (Entry entry : evicted) {
+			if (!entry.spilling) {
+				mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.REMOVED, entry.name));
+				continue;
+			}
+			IOObject object = entry.object;
+			MetaData metaData = MetaDataFactory.getInstance().createMetaDataforIOObject(object, false);
+			File file = null;
+			try {
+				file = File.createTempFile("rm_cache_", ".dump");
+				file.deleteOnExit();
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+					new ColumnarExampleSetSerializer(true).write((ExampleSet) object, out);
+				}
+			} catch (IOException e) {
+				LogService.getRoot().log(Level.WARNING, "Cannot spill object " + entry.name + " to disk", e);
+				if (file != null && !file.delete()) {
+					file.deleteOnExit();
+				}
+				file = null;
+			}
+
+			boolean removed = false;
+			synchronized (LOCK) {
+				entry.spilling = false;
+				if (cacheMap.get(entry.name) != entry) {
+					// replaced or removed in the meantime
+					if (file != null && !file.delete()) {
+						file.deleteOnExit();
+					}
+				} else if (file == null) {
+					cacheMap.remove(entry.name);
+					removed = true;
+				} else {
+					entry.file = file;
+					entry.metaData = metaData;
+					entry.object = null;
+				}
+			}
+			if (removed) {
+				mapObservable.fireUpdate(new IOObjectMapEvent(IOObjectMapEventType.REMOVED, entry.name));
+			}
+		}
+	}
 }
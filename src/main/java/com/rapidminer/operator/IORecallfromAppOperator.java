@@ -23,7 +23,7 @@ import com.rapidminer.operator.ports.DummyPortPairExtender;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.PortPairExtender;
 import com.rapidminer.operator.ports.metadata.MDTransformationRule;
-import com.rapidminer.operator.ports.metadata.MetaDataFactory;
+import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.parameter.*;
 
 import java.util.List;
@@ -77,9 +77,10 @@ public class IORecallfromAppOperator extends Operator {
 				try {
 					String name = getParameterAsString(PARAMETER_NAME);
 					if (name != null && !name.isEmpty()) {
-						IOObject object = getProcess().getIOObjectCache().get(name);
-						if (object != null) {
-							resultOutput.deliverMD(MetaDataFactory.getInstance().createMetaDataforIOObject(object, false));
+						// does not read spilled objects from disk
+						MetaData metaData = getProcess().getIOObjectCache().getMetaData(name);
+						if (metaData != null) {
+							resultOutput.deliverMD(metaData);
 						}
 					}
 				} catch (UndefinedParameterError e) {
@@ -104,7 +105,7 @@ public class IORecallfromAppOperator extends Operator {
 		}
 
 		if (getParameterAsBoolean(PARAMETER_REMOVE_FROM_APP)) {
-			object = getProcess().getIOObjectCache().remove(name);
+			getProcess().getIOObjectCache().remove(name);
 			resultOutput.deliver(object);
 		} else {
 			resultOutput.deliver(object.copy());
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Executes the independent runs of a clustering algorithm with different initializations
+ * concurrently. At most one run per thread of the {@link ConcurrencyContext} is in progress at any
+ * time, which bounds the memory of the runs' auxiliary data structures. All random decisions must
+ * be made before, so that the results do not depend on the order of execution.
+ *
+ * @since 7.6.1
+ */
+final class ClusteringRuns {
+
+    /**
+     * A single run of the clustering algorithm.
+     *
+     * @param <T> the type of the result of a run
+     */
+    interface Run<T> {
+
+        /**
+         * Executes the run with the given index.
+         *
+         * @param index the index of the run
+         * @return the result of the run
+         * @throws OperatorException if the run fails
+         */
+        T execute(int index) throws OperatorException;
+
+    }
+
+	private ClusteringRuns() {}
+
+    /**
+     * Executes the given number of runs and returns their results in the order of the indices.
+     *
+     * @param <T>          the type of the results
+     * @param operator     the operator whose concurrency context executes the runs
+     * @param numberOfRuns the number of runs
+     * @param run          the run
+     * @return the results of the runs
+     * @throws OperatorException if a run fails
+     */
+    static <T> List<T> execute(Operator operator, final int numberOfRuns, final Run<T> run) throws OperatorException {
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		@SuppressWarnings("unchecked")
+		final T[] results = (T[]) new Object[numberOfRuns];
+		int numberOfWorkers = Math.min(context.getParallelism(), numberOfRuns);
+		if (numberOfWorkers < 2) {
+			for (int i = 0; i < numberOfRuns; i++) {
+				results[i] = run.execute(i);
+			}
+			return Arrays.asList(results);
+		}
+
+		final AtomicInteger nextRun = new AtomicInteger();
+		List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			workers.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					for (int index = nextRun.getAndIncrement(); index < numberOfRuns; index = nextRun
+							.getAndIncrement()) {
+						results[index] = run.execute(index);
+					}
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(workers);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+		return Arrays.asList(results);
+	}
+}
@@ -27,10 +27,9 @@ import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
 
 /**
@@ -45,6 +44,9 @@ public class DBScan extends RMAbstractClusterer {
 
 	private static final String PARAMETER_MIN_POINTS = "min_points";
 
+	/** The number of queued examples whose neighbourhoods are queried at once. */
+	private static final int EXPANSION_BATCH_SIZE = 256;
+
     /**
      * Instantiates a new Db scan.
      *
@@ -60,8 +62,8 @@ public class DBScan extends RMAbstractClusterer {
 		double epsilon = getParameterAsDouble(PARAMETER_EPSILON);
 		int minPoints = getParameterAsInt(PARAMETER_MIN_POINTS);
 
-		// init operator progress
-		getProgress().setTotal(exampleSet.size());
+		// init operator progress: counting the neighbours and clustering
+		getProgress().setTotal(2 * exampleSet.size());
 
 		// checking and creating ids if necessary
 		Tools.checkAndCreateIds(exampleSet);
@@ -69,49 +71,70 @@ public class DBScan extends RMAbstractClusterer {
 		// additional checks
 		Tools.onlyNonMissingValues(exampleSet, getOperatorClassName(), this, new String[0]);
 
-		// extracting attribute names
-		Attributes attributes = exampleSet.getAttributes();
-		ArrayList<String> attributeNames = new ArrayList<String>(attributes.size());
-		for (Attribute attribute : attributes) {
-			attributeNames.add(attribute.getName());
-		}
+		// copying the data and counting the neighbours of all examples up front, so that only the
+		// neighbourhoods of center points have to be queried
+		int size = exampleSet.size();
+		RegionQueryEngine queries = new RegionQueryEngine(exampleSet, measure, epsilon, this);
+		int[] neighbourCounts = queries.countNeighbours(getProgress());
 
-		boolean[] visited = new boolean[exampleSet.size()];
-		boolean[] noised = new boolean[exampleSet.size()];
-		int[] clusterAssignments = new int[exampleSet.size()];
+		boolean[] visited = new boolean[size];
+		boolean[] noised = new boolean[size];
+		int[] clusterAssignments = new int[size];
 
-		int i = 0;
+		int[] queue = new int[16];
+		int[] centerRows = new int[EXPANSION_BATCH_SIZE];
 		int clusterIndex = 1;
-		for (Example example : exampleSet) {
+		for (int i = 0; i < size; i++) {
 			if (!visited[i]) {
-				Queue<Integer> centerNeighbourhood = getNeighbourhood(example, exampleSet, measure, epsilon);
-				if (centerNeighbourhood.size() < minPoints) {
+				if (neighbourCounts[i] < minPoints) {
 					noised[i] = true;
 				} else {
 					// then its center point of a cluster. Assign example to new cluster
 					clusterAssignments[i] = clusterIndex;
+					int[] centerNeighbourhood = queries.getNeighbourhood(i);
+					if (queue.length < centerNeighbourhood.length) {
+						queue = new int[centerNeighbourhood.length];
+					}
+					System.arraycopy(centerNeighbourhood, 0, queue, 0, centerNeighbourhood.length);
+					int head = 0;
+					int tail = centerNeighbourhood.length;
+
 					// expanding cluster within density borders
-					while (centerNeighbourhood.size() > 0) {
-						int currentIndex = centerNeighbourhood.poll().intValue();
-						Example currentExample = exampleSet.getExample(currentIndex);
-						// assigning example to current cluster
-						clusterAssignments[currentIndex] = clusterIndex;
-						visited[currentIndex] = true;
-
-						// appending own neighbourhood to queue
-						Queue<Integer> neighbourhood = getNeighbourhood(currentExample, exampleSet, measure, epsilon);
-						if (neighbourhood.size() >= minPoints) {
-							// then this neighbor of center is also a center of the cluster
-							while (neighbourhood.size() > 0) {
-								int neighbourIndex = neighbourhood.poll().intValue();
-								if (!visited[neighbourIndex]) {
-									if (!noised[neighbourIndex]) {
-										// if its not noised, then it might be center of cluster! So
-										// append to queue
-										centerNeighbourhood.add(neighbourIndex);
+					while (head < tail) {
+						// the neighbourhoods do not depend on the state of the expansion: query the
+						// neighbourhoods of the centers in the next part of the queue in parallel
+						int batchEnd = Math.min(tail, head + EXPANSION_BATCH_SIZE);
+						int numberOfCenters = 0;
+						for (int position = head; position < batchEnd; position++) {
+							if (neighbourCounts[queue[position]] >= minPoints) {
+								centerRows[numberOfCenters++] = queue[position];
+							}
+						}
+						int[][] neighbourhoods = queries.getNeighbourhoods(centerRows, numberOfCenters);
+
+						int center = 0;
+						for (; head < batchEnd; head++) {
+							int currentIndex = queue[head];
+							// assigning example to current cluster
+							clusterAssignments[currentIndex] = clusterIndex;
+							visited[currentIndex] = true;
+
+							// appending own neighbourhood to queue
+							if (neighbourCounts[currentIndex] >= minPoints) {
+								// then this neighbor of center is also a center of the cluster
+								for (int neighbourIndex : neighbourhoods[center++]) {
+									if (!visited[neighbourIndex]) {
+										if (!noised[neighbourIndex]) {
+											// if its not noised, then it might be center of cluster! So
+											// append to queue
+											if (tail == queue.length) {
+												queue = Arrays.copyOf(queue, 2 * queue.length);
+											}
+											queue[tail++] = neighbourIndex;
+										}
+										clusterAssignments[neighbourIndex] = clusterIndex;
+										visited[neighbourIndex] = true;
 									}
-									clusterAssignments[neighbourIndex] = clusterIndex;
-									visited[neighbourIndex] = true;
 								}
 							}
 						}
@@ -120,7 +143,6 @@ public class DBScan extends RMAbstractClusterer {
 					clusterIndex++;
 				}
 			}
-			i++;
 			getProgress().step();
 		}
 
@@ -136,20 +158,6 @@ public class DBScan extends RMAbstractClusterer {
 		return model;
 	}
 
-	private LinkedList<Integer> getNeighbourhood(Example centerExample, ExampleSet exampleSet, DistanceMeasure measure,
-			double epsilon) {
-		LinkedList<Integer> neighbourhood = new LinkedList<Integer>();
-		int i = 0;
-		for (Example example : exampleSet) {
-			double distance = measure.calculateDistance(centerExample, example);
-			if (distance < epsilon) {
-				neighbourhood.add(i);
-			}
-			i++;
-		}
-		return neighbourhood;
-	}
-
 	@Override
 	protected boolean usesDistanceMeasures() {
 		return true;
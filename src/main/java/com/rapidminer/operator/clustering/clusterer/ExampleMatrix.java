@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.clustering.CentroidClusterModel;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * The values of the regular attributes of an example set, copied once into a contiguous row-major
+ * array. The centroid based clusterers use it to avoid the {@link Example} accessors in their
+ * optimization loops and to process chunks of rows in parallel.
+ *
+ * @since 7.6.1
+ */
+final class ExampleMatrix {
+
+    /**
+     * Processes a range of rows. Different ranges are processed concurrently.
+     */
+    interface RowRangeTask {
+
+        /**
+         * Processes the rows from (inclusive) to (exclusive).
+         *
+         * @param from the first row
+         * @param to   the row after the last row
+         */
+        void process(int from, int to);
+
+    }
+
+	/** Do not bother other threads for less rows than this. */
+	private static final int MIN_ROWS_PER_TASK = 1024;
+
+	private final double[] data;
+
+	private final int rows;
+
+	private final int columns;
+
+	private final Operator operator;
+
+	private final ConcurrencyContext context;
+
+    /**
+     * Copies the values of the regular attributes of the given example set.
+     *
+     * @param exampleSet the example set
+     * @param operator   the operator whose concurrency context processes the rows
+     */
+    ExampleMatrix(ExampleSet exampleSet, Operator operator) {
+		this.operator = operator;
+		this.context = Resources.getConcurrencyContext(operator);
+		Attributes attributes = exampleSet.getAttributes();
+		rows = exampleSet.size();
+		columns = attributes.size();
+		data = new double[rows * columns];
+		int offset = 0;
+		for (Example example : exampleSet) {
+			for (Attribute attribute : attributes) {
+				data[offset++] = example.getValue(attribute);
+			}
+		}
+	}
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    int getRows() {
+		return rows;
+	}
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return the number of columns
+     */
+    int getColumns() {
+		return columns;
+	}
+
+    /**
+     * Copies the values of the given row into the buffer.
+     *
+     * @param row    the row
+     * @param buffer an array of length {@link #getColumns()}
+     * @return the buffer
+     */
+    double[] getRow(int row, double[] buffer) {
+		System.arraycopy(data, row * columns, buffer, 0, columns);
+		return buffer;
+	}
+
+    /**
+     * Splits the rows into ranges and processes them in parallel if the context allows it.
+     *
+     * @param task the task processing a range
+     * @throws OperatorException if the task fails
+     */
+    void forEachRange(RowRangeTask task) throws OperatorException {
+		forEachRange(rows, Math.min(context.getParallelism(), rows / MIN_ROWS_PER_TASK), task);
+	}
+
+    /**
+     * Assigns every row to the centroid given by the assignments. Every centroid sums up its rows
+     * in ascending order, so that the result is identical to a sequential assignment. Different
+     * centroids are processed in parallel.
+     *
+     * @param model       the model containing the centroids
+     * @param assignments the centroid index of every row
+     * @throws OperatorException if the assignment fails
+     */
+    void assignRows(final CentroidClusterModel model, final int[] assignments) throws OperatorException {
+		int numberOfClusters = model.getNumberOfClusters();
+		int numberOfTasks = rows < MIN_ROWS_PER_TASK ? 1 : Math.min(context.getParallelism(), numberOfClusters);
+		forEachRange(numberOfClusters, numberOfTasks, new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				double[] values = new double[columns];
+				for (int row = 0; row < rows; row++) {
+					int cluster = assignments[row];
+					if (cluster >= from && cluster < to) {
+						model.assignExample(cluster, getRow(row, values));
+					}
+				}
+			}
+		});
+	}
+
+    /**
+     * Returns the sum of the squared distances of the rows to their centroids. The distances are
+     * computed in parallel and summed up in the order of the rows.
+     *
+     * @param model       the model containing the centroids
+     * @param assignments the centroid index of every row
+     * @param measure     the distance measure
+     * @return the sum of the squared distances
+     * @throws OperatorException if the computation fails
+     */
+    double getSquaredDistanceSum(final CentroidClusterModel model, final int[] assignments,
+			final DistanceMeasure measure) throws OperatorException {
+		final double[] distances = new double[rows];
+		forEachRange(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				double[] values = new double[columns];
+				for (int row = from; row < to; row++) {
+					distances[row] = measure.calculateDistance(model.getCentroidCoordinates(assignments[row]),
+							getRow(row, values));
+				}
+			}
+		});
+		double distanceSum = 0;
+		for (double distance : distances) {
+			distanceSum += distance * distance;
+		}
+		return distanceSum;
+	}
+
+	/**
+	 * Splits the range from 0 to size into the given number of parts processed in parallel.
+	 */
+	private void forEachRange(int size, int numberOfTasks, final RowRangeTask task) throws OperatorException {
+		if (numberOfTasks < 2) {
+			task.process(0, size);
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int from = (int) ((long) size * i / numberOfTasks);
+			final int to = (int) ((long) size * (i + 1) / numberOfTasks);
+
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					task.process(from, to);
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+}
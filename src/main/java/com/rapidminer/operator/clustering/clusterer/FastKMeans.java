@@ -21,6 +21,7 @@ package com.rapidminer.operator.clustering.clusterer;
 import com.rapidminer.example.*;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.clustering.CentroidClusterModel;
 import com.rapidminer.operator.clustering.ClusterModel;
@@ -122,6 +123,9 @@ public class FastKMeans extends RMAbstractClusterer {
 		CentroidClusterModel bestModel = null;
 		int[] bestAssignments = null;
 
+		// initializing all runs first, so that the random numbers are drawn in the same order as in a
+		// sequential execution
+		final List<CentroidClusterModel> models = new ArrayList<CentroidClusterModel>(maxRuns);
 		for (int iter = 0; iter < maxRuns; iter++) {
 			CentroidClusterModel model = new CentroidClusterModel(exampleSet, k, attributeNames, measure, addAsLabel,
 					removeUnlabeled);
@@ -145,59 +149,116 @@ public class FastKMeans extends RMAbstractClusterer {
 				}
 			}
 			model.finishAssign();
+			models.add(model);
+		}
 
-			// auxiliary data structures according to paper
-			final double[][] l = new double[exampleSet.size()][k];
-			final double[] u = new double[exampleSet.size()];
-			final boolean[] r = new boolean[exampleSet.size()];
+		// optimizing the runs concurrently on a copy of the data
+		final ExampleMatrix matrix = new ExampleMatrix(exampleSet, this);
+		final double[] distanceSums = new double[maxRuns];
+		List<int[]> assignments = ClusteringRuns.execute(this, maxRuns, new ClusteringRuns.Run<int[]>() {
+
+			@Override
+			public int[] execute(int index) throws OperatorException {
+				CentroidClusterModel model = models.get(index);
+				int[] centroidAssignments = optimize(model, matrix, measure, maxOptimizationSteps);
+				// assessing quality of this model
+				distanceSums[index] = matrix.getSquaredDistanceSum(model, centroidAssignments, measure);
+				OperatorProgress progress = getProgress();
+				synchronized (progress) {
+					progress.step();
+				}
+				return centroidAssignments;
+			}
+		});
 
-			final double[][] m_old = new double[k][attributes.size()]; // needed for step 4
-			final double[] s = new double[k];
+		// choosing the best run, the first one in case of ties
+		for (int iter = 0; iter < maxRuns; iter++) {
+			if (distanceSums[iter] < minimalIntraClusterDistance) {
+				bestModel = models.get(iter);
+				minimalIntraClusterDistance = distanceSums[iter];
+				bestAssignments = assignments.get(iter);
+			}
+		}
+		bestModel.setClusterAssignments(bestAssignments, exampleSet);
 
-			final int[] centroidAssignments = new int[exampleSet.size()];
+		if (addsClusterAttribute()) {
+			addClusterAssignments(exampleSet, bestAssignments);
+		}
+		getProgress().complete();
 
-			final DistanceMatrix centroidDistances = new DistanceMatrix(k);
-			computeClusterDistances(centroidDistances, s, model, measure);
+		return bestModel;
+	}
 
-			// initialization step (has many distance calculations)
-			int x = 0;
-			for (Example example : exampleSet) {
-				double[] exampleValues = getAsDoubleArray(example, attributes);
-				double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
-				l[x][0] = nearestDistance;
-				int nearestIndex = 0;
-				for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
-					if (centroidDistances.get(nearestIndex, centroidIndex) >= 2 * nearestDistance) {
-						continue;
-					}
-					final double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
-							exampleValues);
-					l[x][centroidIndex] = distance;
-					if (distance < nearestDistance) {
-						nearestDistance = distance;
-						nearestIndex = centroidIndex;
+	/**
+	 * Runs the optimization steps of a single run and returns the final assignments. The bounds of
+	 * the examples are updated in parallel, the centroids are updated in the order of the examples.
+	 */
+	private int[] optimize(final CentroidClusterModel model, final ExampleMatrix matrix, final DistanceMeasure measure,
+			int maxOptimizationSteps) throws OperatorException {
+		final int k = model.getNumberOfClusters();
+		final int size = matrix.getRows();
+
+		// auxiliary data structures according to paper
+		final double[][] l = new double[size][k];
+		final double[] u = new double[size];
+		final boolean[] r = new boolean[size];
+
+		final double[][] m_old = new double[k][matrix.getColumns()]; // needed for step 4
+		final double[] s = new double[k];
+
+		final int[] centroidAssignments = new int[size];
+
+		final DistanceMatrix centroidDistances = new DistanceMatrix(k);
+		computeClusterDistances(centroidDistances, s, model, measure);
+
+		// initialization step (has many distance calculations)
+		matrix.forEachRange(new ExampleMatrix.RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				double[] values = new double[matrix.getColumns()];
+				for (int x = from; x < to; x++) {
+					double[] exampleValues = matrix.getRow(x, values);
+					double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
+					l[x][0] = nearestDistance;
+					int nearestIndex = 0;
+					for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
+						if (centroidDistances.get(nearestIndex, centroidIndex) >= 2 * nearestDistance) {
+							continue;
+						}
+						final double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
+								exampleValues);
+						l[x][centroidIndex] = distance;
+						if (distance < nearestDistance) {
+							nearestDistance = distance;
+							nearestIndex = centroidIndex;
+						}
 					}
+					centroidAssignments[x] = nearestIndex;
+					u[x] = nearestDistance;
+					r[x] = false;
 				}
-				centroidAssignments[x] = nearestIndex;
-				u[x] = nearestDistance;
-				r[x] = false;
-				x++;
 			}
+		});
 
-			// optimization steps (repeat until convergence)
-			boolean stable = false;
-			for (int step = 0; step < maxOptimizationSteps && !stable; step++) {
+		// optimization steps (repeat until convergence)
+		boolean stable = false;
+		for (int step = 0; step < maxOptimizationSteps && !stable; step++) {
 
-				// step 1.
-				computeClusterDistances(centroidDistances, s, model, measure);
+			// step 1.
+			computeClusterDistances(centroidDistances, s, model, measure);
 
-				x = 0;
-				for (Example example : exampleSet) {
-					final double[] exampleValue = getAsDoubleArray(example, attributes);
+			matrix.forEachRange(new ExampleMatrix.RowRangeTask() {
 
-					// step 2.
-					if (u[x] <= s[centroidAssignments[x]]) {
-					} else {
+				@Override
+				public void process(int from, int to) {
+					double[] values = new double[matrix.getColumns()];
+					for (int x = from; x < to; x++) {
+						// step 2.
+						if (u[x] <= s[centroidAssignments[x]]) {
+							continue;
+						}
+						final double[] exampleValue = matrix.getRow(x, values);
 						// step 3.
 						for (int c = 0; c < k; c++) {
 							if (c != centroidAssignments[x]  // (i)
@@ -227,67 +288,48 @@ public class FastKMeans extends RMAbstractClusterer {
 								}
 							}
 						}
-
 					}
-					model.assignExample(centroidAssignments[x], exampleValue);
-					x++;
 				}
+			});
+			matrix.assignRows(model, centroidAssignments);
 
-				// step 4
-				// first store old c
-				for (int c = 0; c < k; c++) {
-					m_old[c] = model.getCentroidCoordinates(c);
-				}
-				// then compute the m(c) - here this is same as step 7
-				stable = model.finishAssign();
+			// step 4
+			// first store old c
+			for (int c = 0; c < k; c++) {
+				m_old[c] = model.getCentroidCoordinates(c);
+			}
+			// then compute the m(c) - here this is same as step 7
+			stable = model.finishAssign();
 
-				// compute all d(c,m(c))
-				final double[] mean_distances = new double[k];
-				for (int c = 0; c < k; c++) {
-					mean_distances[c] = measure.calculateDistance(m_old[c], model.getCentroidCoordinates(c));
-				}
+			// compute all d(c,m(c))
+			final double[] mean_distances = new double[k];
+			for (int c = 0; c < k; c++) {
+				mean_distances[c] = measure.calculateDistance(m_old[c], model.getCentroidCoordinates(c));
+			}
 
-				// step 5 & 6
-				for (x = 0; x < exampleSet.size(); x++) {
-					// step 5
-					for (int c = 0; c < k; c++) {
-						final double d = l[x][c] - mean_distances[c];
-						if (d > 0) {
-							l[x][c] = d;
-						} else {
-							l[x][c] = 0;
+			// step 5 & 6
+			matrix.forEachRange(new ExampleMatrix.RowRangeTask() {
+
+				@Override
+				public void process(int from, int to) {
+					for (int x = from; x < to; x++) {
+						// step 5
+						for (int c = 0; c < k; c++) {
+							final double d = l[x][c] - mean_distances[c];
+							if (d > 0) {
+								l[x][c] = d;
+							} else {
+								l[x][c] = 0;
+							}
 						}
+						// step 6
+						u[x] = u[x] + mean_distances[centroidAssignments[x]];
+						r[x] = true;
 					}
-					// step 6
-					u[x] = u[x] + mean_distances[centroidAssignments[x]];
-					r[x] = true;
 				}
-
-			}
-			// assessing quality of this model
-			double distanceSum = 0;
-			i = 0;
-			for (Example example : exampleSet) {
-				double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidAssignments[i]),
-						getAsDoubleArray(example, attributes));
-				distanceSum += distance * distance;
-				i++;
-			}
-			if (distanceSum < minimalIntraClusterDistance) {
-				bestModel = model;
-				minimalIntraClusterDistance = distanceSum;
-				bestAssignments = centroidAssignments;
-			}
-			getProgress().step();
-		}
-		bestModel.setClusterAssignments(bestAssignments, exampleSet);
-
-		if (addsClusterAttribute()) {
-			addClusterAssignments(exampleSet, bestAssignments);
+			});
 		}
-		getProgress().complete();
-
-		return bestModel;
+		return centroidAssignments;
 	}
 
 	// this is for step 1 of the paper algorithm
@@ -21,6 +21,7 @@ package com.rapidminer.operator.clustering.clusterer;
 import com.rapidminer.example.*;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.clustering.CentroidClusterModel;
 import com.rapidminer.operator.clustering.ClusterModel;
@@ -119,6 +120,9 @@ public class KMeans extends RMAbstractClusterer {
 		int[] bestAssignments = null;
 		double[] values = new double[attributes.size()];
 
+		// initializing all runs first, so that the random numbers are drawn in the same order as in a
+		// sequential execution
+		final List<CentroidClusterModel> models = new ArrayList<>(maxRuns);
 		for (int iter = 0; iter < maxRuns; iter++) {
 			CentroidClusterModel model = new CentroidClusterModel(exampleSet, k, attributeNames, measure, addAsLabel,
 					removeUnlabeled);
@@ -141,50 +145,31 @@ public class KMeans extends RMAbstractClusterer {
 				}
 			}
 			model.finishAssign();
+			models.add(model);
+		}
 
-			// run optimization steps
-			int[] centroidAssignments = new int[exampleSet.size()];
-			boolean stable = false;
-			for (int step = 0; step < maxOptimizationSteps && !stable; step++) {
-				getProgress().step();
-
-				// assign examples to new centroids
-				i = 0;
-				for (Example example : exampleSet) {
-					double[] exampleValues = getAsDoubleArray(example, attributes, values);
-					double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
-					int nearestIndex = 0;
-					for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
-						double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
-								exampleValues);
-						if (distance < nearestDistance) {
-							nearestDistance = distance;
-							nearestIndex = centroidIndex;
-						}
-					}
-					centroidAssignments[i] = nearestIndex;
-					model.getCentroid(nearestIndex).assignExample(exampleValues);
-					i++;
-				}
+		// optimizing the runs concurrently on a copy of the data
+		final ExampleMatrix matrix = new ExampleMatrix(exampleSet, this);
+		final double[] distanceSums = new double[maxRuns];
+		List<int[]> assignments = ClusteringRuns.execute(this, maxRuns, new ClusteringRuns.Run<int[]>() {
 
-				// finishing assignment
-				stable = model.finishAssign();
-			}
-			// assessing quality of this model
-			double distanceSum = 0;
-			i = 0;
-			for (Example example : exampleSet) {
-				double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidAssignments[i]),
-						getAsDoubleArray(example, attributes, values));
-				distanceSum += distance * distance;
-				i++;
+			@Override
+			public int[] execute(int index) throws OperatorException {
+				CentroidClusterModel model = models.get(index);
+				int[] centroidAssignments = optimize(model, matrix, measure, maxOptimizationSteps);
+				distanceSums[index] = matrix.getSquaredDistanceSum(model, centroidAssignments, measure);
+
+				return centroidAssignments;
 			}
-			if (distanceSum < minimalIntraClusterDistance) {
-				bestModel = model;
-				minimalIntraClusterDistance = distanceSum;
-				bestAssignments = centroidAssignments;
+		});
+
+		// choosing the best run, the first one in case of ties
+		for (int iter = 0; iter < maxRuns; iter++) {
+			if (distanceSums[iter] < minimalIntraClusterDistance) {
+				bestModel = models.get(iter);
+				minimalIntraClusterDistance = distanceSums[iter];
+				bestAssignments = assignments.get(iter);
 			}
-			getProgress().setCompleted((iter + 1) * maxOptimizationSteps);
 		}
 		bestModel.setClusterAssignments(bestAssignments, exampleSet);
 
@@ -197,6 +182,55 @@ public class KMeans extends RMAbstractClusterer {
 		return bestModel;
 	}
 
+	/**
+	 * Runs the optimization steps of a single run and returns the final assignments. The nearest
+	 * centroids are searched in parallel, the centroids are updated in the order of the examples.
+	 */
+	private int[] optimize(final CentroidClusterModel model, final ExampleMatrix matrix, final DistanceMeasure measure,
+			int maxOptimizationSteps) throws OperatorException {
+		final int k = model.getNumberOfClusters();
+		final int[] centroidAssignments = new int[matrix.getRows()];
+		OperatorProgress progress = getProgress();
+		boolean stable = false;
+		int step = 0;
+		for (; step < maxOptimizationSteps && !stable; step++) {
+			synchronized (progress) {
+				progress.step();
+			}
+
+			// assign examples to new centroids
+			matrix.forEachRange(new ExampleMatrix.RowRangeTask() {
+
+				@Override
+				public void process(int from, int to) {
+					double[] values = new double[matrix.getColumns()];
+					for (int row = from; row < to; row++) {
+						double[] exampleValues = matrix.getRow(row, values);
+						double nearestDistance = measure.calculateDistance(model.getCentroidCoordinates(0), exampleValues);
+						int nearestIndex = 0;
+						for (int centroidIndex = 1; centroidIndex < k; centroidIndex++) {
+							double distance = measure.calculateDistance(model.getCentroidCoordinates(centroidIndex),
+									exampleValues);
+							if (distance < nearestDistance) {
+								nearestDistance = distance;
+								nearestIndex = centroidIndex;
+							}
+						}
+						centroidAssignments[row] = nearestIndex;
+					}
+				}
+			});
+			matrix.assignRows(model, centroidAssignments);
+
+			// finishing assignment
+			stable = model.finishAssign();
+		}
+		synchronized (progress) {
+			progress.step(maxOptimizationSteps - step);
+		}
+		return centroidAssignments;
+	}
+
 	private double[] getAsDoubleArray(Example example, Attributes attributes, double[] values) {
 		int i = 0;
 		for (Attribute attribute : attributes) {
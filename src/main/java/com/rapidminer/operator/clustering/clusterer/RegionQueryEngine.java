@@ -0,0 +1,266 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.GeometricDataCollections;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Answers the epsilon-range queries of {@link DBScan}. The values of the example set are copied
+ * once into a row-major matrix. If the distance measure allows exact results, the queries are
+ * answered by a {@link GeometricDataCollection} built on the rows, otherwise by a linear scan over
+ * the matrix. Batches of queries are distributed over the threads of the
+ * {@link ConcurrencyContext}.
+ * <p>
+ * A point is a neighbour of another point if their distance is strictly smaller than epsilon.
+ * Neighbourhoods are returned in ascending order of the rows, i.e. in the order of a linear scan.
+ *
+ * @since 7.6.1
+ */
+final class RegionQueryEngine {
+
+	/** The number of rows counted between two progress updates. */
+	private static final int COUNT_BATCH_SIZE = 1024;
+
+	/** Do not bother other threads for less queries than this. */
+	private static final int MIN_ROWS_PER_TASK = 16;
+
+	/** The number of tasks per thread, queries may take very different times. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/**
+	 * Processes a range of rows.
+	 */
+	private interface RowRangeTask {
+
+		void process(int from, int to);
+
+	}
+
+	private final double[][] points;
+
+	private final DistanceMeasure measure;
+
+	private final double epsilon;
+
+	/** The index on the rows, {@code null} if a linear scan is used */
+	private final GeometricDataCollection<Integer> index;
+
+	private final ConcurrencyContext context;
+
+	private final Operator operator;
+
+    /**
+     * Copies the regular attributes of the given example set and builds the index if possible.
+     *
+     * @param exampleSet the example set without missing values
+     * @param measure    the initialized distance measure
+     * @param epsilon    the size of the neighbourhood
+     * @param operator   the operator executing the queries
+     */
+    RegionQueryEngine(ExampleSet exampleSet, DistanceMeasure measure, double epsilon, Operator operator) {
+		this.measure = measure;
+		this.epsilon = epsilon;
+		this.context = Resources.getConcurrencyContext(operator);
+		this.operator = operator;
+
+		Attributes attributes = exampleSet.getAttributes();
+		int dimensions = attributes.size();
+		boolean onlyNumerical = true;
+		for (Attribute attribute : attributes) {
+			onlyNumerical &= attribute.isNumerical();
+		}
+
+		points = new double[exampleSet.size()][];
+		int row = 0;
+		for (Example example : exampleSet) {
+			double[] values = new double[dimensions];
+			int i = 0;
+			for (Attribute attribute : attributes) {
+				values[i++] = example.getValue(attribute);
+			}
+			points[row++] = values;
+		}
+
+		int structure = GeometricDataCollections.selectSearchStructure(GeometricDataCollections.AUTOMATIC, measure,
+				dimensions, points.length, onlyNumerical, false);
+		if (structure == GeometricDataCollections.LINEAR_SEARCH) {
+			index = null;
+		} else {
+			List<Integer> rows = new ArrayList<>(points.length);
+			for (int i = 0; i < points.length; i++) {
+				rows.add(i);
+			}
+			index = GeometricDataCollections.create(structure, dimensions, measure, Arrays.asList(points), rows);
+		}
+	}
+
+    /**
+     * Counts the neighbours of every row.
+     *
+     * @param progress the progress to report the counted rows to
+     * @return the number of neighbours for every row
+     * @throws OperatorException if the process is stopped
+     */
+    int[] countNeighbours(OperatorProgress progress) throws OperatorException {
+		final int[] counts = new int[points.length];
+		for (int start = 0; start < points.length; start += COUNT_BATCH_SIZE) {
+			final int end = Math.min(points.length, start + COUNT_BATCH_SIZE);
+			final int offset = start;
+			run(end - start, new RowRangeTask() {
+
+				@Override
+				public void process(int from, int to) {
+					for (int row = offset + from; row < offset + to; row++) {
+						counts[row] = countNeighbours(row);
+					}
+				}
+			});
+			progress.setCompleted(end);
+		}
+		return counts;
+	}
+
+    /**
+     * Returns the neighbourhoods of the given rows.
+     *
+     * @param rows  the rows
+     * @param count the number of rows to regard
+     * @return the neighbourhood for each of the first count rows
+     * @throws OperatorException if the process is stopped
+     */
+    int[][] getNeighbourhoods(final int[] rows, int count) throws OperatorException {
+		final int[][] neighbourhoods = new int[count][];
+		run(count, new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				for (int i = from; i < to; i++) {
+					neighbourhoods[i] = getNeighbourhood(rows[i]);
+				}
+			}
+		});
+		return neighbourhoods;
+	}
+
+    /**
+     * Returns the neighbourhood of the given row.
+     *
+     * @param row the row
+     * @return the neighbours in ascending order
+     */
+    int[] getNeighbourhood(int row) {
+		double[] center = points[row];
+		if (index != null) {
+			Collection<Tupel<Double, Integer>> candidates = index.getNearestValueDistances(epsilon, center);
+			int[] neighbours = new int[candidates.size()];
+			int size = 0;
+			for (Tupel<Double, Integer> candidate : candidates) {
+				if (candidate.getFirst() < epsilon) {
+					neighbours[size++] = candidate.getSecond();
+				}
+			}
+			neighbours = Arrays.copyOf(neighbours, size);
+			Arrays.sort(neighbours);
+			return neighbours;
+		} else {
+			int[] neighbours = new int[16];
+			int size = 0;
+			for (int i = 0; i < points.length; i++) {
+				if (measure.calculateDistance(center, points[i]) < epsilon) {
+					if (size == neighbours.length) {
+						neighbours = Arrays.copyOf(neighbours, size * 2);
+					}
+					neighbours[size++] = i;
+				}
+			}
+			return Arrays.copyOf(neighbours, size);
+		}
+	}
+
+	private int countNeighbours(int row) {
+		double[] center = points[row];
+		int count = 0;
+		if (index != null) {
+			for (Tupel<Double, Integer> candidate : index.getNearestValueDistances(epsilon, center)) {
+				if (candidate.getFirst() < epsilon) {
+					count++;
+				}
+			}
+		} else {
+			for (double[] point : points) {
+				if (measure.calculateDistance(center, point) < epsilon) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Runs the task on the rows from 0 to size, split into ranges processed in parallel.
+	 */
+	private void run(int size, final RowRangeTask task) throws OperatorException {
+		int numberOfTasks = Math.min(context.getParallelism() * TASKS_PER_THREAD, size / MIN_ROWS_PER_TASK);
+		if (context.getParallelism() < 2 || numberOfTasks < 2) {
+			context.checkStatus();
+			task.process(0, size);
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int from = (int) ((long) size * i / numberOfTasks);
+			final int to = (int) ((long) size * (i + 1) / numberOfTasks);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					context.checkStatus();
+					task.process(from, to);
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+}
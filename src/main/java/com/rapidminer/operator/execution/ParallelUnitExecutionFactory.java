@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.execution;
+
+import com.rapidminer.operator.ExecutionUnit;
+
+
+/**
+ * Returns a shared instance of a {@link ParallelUnitExecutor}. Installed by
+ * {@link com.rapidminer.RapidMiner#init()} if the setting
+ * {@link com.rapidminer.RapidMiner#PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION} is
+ * enabled, or via {@link UnitExecutionFactory#setInstance(UnitExecutionFactory)}. The parallelism
+ * installed on startup is given by
+ * {@link com.rapidminer.RapidMiner#PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_OPERATORS}.
+ *
+ * @since 7.6.1
+ */
+public class ParallelUnitExecutionFactory extends UnitExecutionFactory {
+
+	private final ParallelUnitExecutor executor;
+
+    /**
+     * Creates a factory for executors which are only limited by the parallelism of the concurrency
+     * context of the process.
+     */
+    public ParallelUnitExecutionFactory() {
+		this(Integer.MAX_VALUE);
+	}
+
+    /**
+     * Creates a factory for executors running at most the given number of operators of a
+     * subprocess at the same time.
+     *
+     * @param parallelism the maximal number of concurrently running operators per subprocess
+     */
+    public ParallelUnitExecutionFactory(int parallelism) {
+		executor = new ParallelUnitExecutor(parallelism);
+	}
+
+	@Override
+	public UnitExecutor getExecutor(ExecutionUnit unit) {
+		return executor;
+	}
+
+}
@@ -0,0 +1,353 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.execution;
+
+import com.rapidminer.Process;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.DataMacroDefinitionOperator;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOPublishToAppOperator;
+import com.rapidminer.operator.IORecallfromAppOperator;
+import com.rapidminer.operator.IORetrievalOperator;
+import com.rapidminer.operator.IOStorageOperator;
+import com.rapidminer.operator.MacroConstructionOperator;
+import com.rapidminer.operator.MacroDefinitionOperator;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorChain;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.SingleMacroDefinitionOperator;
+import com.rapidminer.operator.features.weighting.ProcessLog2AttributeWeights;
+import com.rapidminer.operator.io.RepositorySource;
+import com.rapidminer.operator.io.RepositoryStorer;
+import com.rapidminer.operator.macros.UnsetMacroOperator;
+import com.rapidminer.operator.meta.ExceptionHandling;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.util.annotations.ExtractAnnotation;
+import com.rapidminer.operator.visualization.ClearProcessLog;
+import com.rapidminer.operator.visualization.ProcessLog2ExampleSet;
+import com.rapidminer.operator.visualization.ProcessLogOperator;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Executes an {@link ExecutionUnit} by running operators concurrently once all operators
+ * delivering their input have finished. The dependencies are given by the port connections between
+ * the operators of the unit. Every operator is submitted as a task to the {@link ConcurrencyContext}
+ * of the process as soon as its last dependency has finished, in execution order if several
+ * operators become ready at the same time. At most as many operators as the parallelism of the
+ * executor and of the context run at the same time. If an operator fails, no further operators are
+ * started and the failure is rethrown after the running operators have finished. Instances of this
+ * class can be shared.
+ * <p>
+ * Operators which communicate by side effects (see {@link #hasSideEffects(Operator)}), e.g. an
+ * operator defining a macro used by another operator, keep their position in the execution order:
+ * they wait for all previous operators and all following operators wait for them. Other operators
+ * which only depend on each other by side effects must be connected to keep their order. Units
+ * containing operators with breakpoints and units outside of a process are executed sequentially by
+ * a {@link SimpleUnitExecutor}.
+ * <p>
+ * The {@link ProcessFlowFilter}s are called by the thread executing the operator and receive the
+ * neighbours of the operator in the execution order, like for sequential execution. Each operator
+ * uses its own global {@link RandomGenerator}. Their seeds are derived in execution order from a
+ * single value drawn from the global random generator of the calling thread, so that results do not
+ * depend on the scheduling of the operators and the random stream of the process advances by one
+ * value per executed unit. While the unit runs, the {@link Process#getCurrentOperator() current
+ * operator} of the process is the operator started most recently; afterwards it is the last
+ * operator in execution order, as for sequential execution.
+ *
+ * @since 7.6.1
+ */
+public class ParallelUnitExecutor implements UnitExecutor {
+
+	/** Used for units which cannot be executed in parallel. */
+	private static final SimpleUnitExecutor SEQUENTIAL_EXECUTOR = new SimpleUnitExecutor();
+
+	/**
+	 * Operators reading or writing macros, the object store of the process, the repository or the
+	 * process log.
+	 */
+	private static final List<Class<? extends Operator>> SIDE_EFFECT_OPERATORS = Arrays.asList(
+			MacroDefinitionOperator.class, SingleMacroDefinitionOperator.class, DataMacroDefinitionOperator.class,
+			MacroConstructionOperator.class, UnsetMacroOperator.class, ExtractAnnotation.class, ExceptionHandling.class,
+			IOStorageOperator.class, IORetrievalOperator.class, IOPublishToAppOperator.class,
+			IORecallfromAppOperator.class, RepositoryStorer.class, RepositorySource.class, ProcessLogOperator.class,
+			ClearProcessLog.class, ProcessLog2ExampleSet.class, ProcessLog2AttributeWeights.class);
+
+	private final int parallelism;
+
+    /**
+     * Creates an executor running at most the given number of operators of a unit at the same time.
+     * The parallelism is further limited by the {@link ConcurrencyContext} of the process.
+     *
+     * @param parallelism the maximal number of concurrently running operators per unit, at least 1
+     */
+    public ParallelUnitExecutor(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void execute(ExecutionUnit unit) throws OperatorException {
+		List<Operator> operators = unit.getOperators();
+		Process process = unit.getEnclosingOperator().getProcess();
+		if (parallelism == 1 || process == null || operators.size() < 2 || hasBreakpoints(operators)) {
+			SEQUENTIAL_EXECUTOR.execute(unit);
+			return;
+		}
+		ConcurrencyContext context = Resources.getConcurrencyContext(unit.getEnclosingOperator());
+		int maxRunning = Math.min(parallelism, context.getParallelism());
+		if (maxRunning < 2) {
+			SEQUENTIAL_EXECUTOR.execute(unit);
+			return;
+		}
+		Logger logger = unit.getEnclosingOperator().getLogger();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Executing subprocess " + unit.getEnclosingOperator().getName() + "." + unit.getName()
+					+ " in parallel. Execution order is: " + operators);
+		}
+		int size = operators.size();
+
+		// the successors of every operator and the number of operators it is waiting for. Only
+		// connections to later operators are dependencies, as for sequential execution. Operators
+		// with side effects wait for all previous operators and all later operators wait for them,
+		// which follows transitively from waiting for the previous one of them.
+		Map<Operator, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < size; i++) {
+			indices.put(operators.get(i), i);
+		}
+		int[][] successors = new int[size][];
+		int[] successorCounts = new int[size];
+		int[] waiting = new int[size];
+		for (int i = 0; i < size; i++) {
+			successors[i] = new int[4];
+		}
+		int lastSideEffect = -1;
+		for (int i = 0; i < size; i++) {
+			Operator operator = operators.get(i);
+			if (operator.getInputPorts() != null) {
+				for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
+					if (inputPort.isConnected()) {
+						Integer source = indices.get(inputPort.getSource().getPorts().getOwner().getOperator());
+						if (source != null && source < i) {
+							addDependency(successors, successorCounts, waiting, source, i);
+						}
+					}
+				}
+			}
+			if (hasSideEffects(operator)) {
+				for (int j = Math.max(lastSideEffect, 0); j < i; j++) {
+					addDependency(successors, successorCounts, waiting, j, i);
+				}
+				lastSideEffect = i;
+			} else if (lastSideEffect >= 0) {
+				addDependency(successors, successorCounts, waiting, lastSideEffect, i);
+			}
+		}
+
+		// the random generators are seeded in execution order to be independent of the scheduling
+		Random seeds = new Random(RandomGenerator.getGlobalRandomGenerator().nextLong());
+		RandomGenerator[] generators = new RandomGenerator[size];
+		for (int i = 0; i < size; i++) {
+			generators[i] = new RandomGenerator(seeds.nextLong());
+		}
+
+		PriorityQueue<Integer> ready = new PriorityQueue<>();
+		for (int i = 0; i < size; i++) {
+			if (waiting[i] == 0) {
+				ready.add(i);
+			}
+		}
+		BlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+		@SuppressWarnings("unchecked")
+		Future<Void>[] futures = new Future[size];
+		int running = 0;
+		int failed = -1;
+		try {
+			while (running > 0 || failed < 0 && !ready.isEmpty()) {
+				while (failed < 0 && running < maxRunning && !ready.isEmpty()) {
+					int index = ready.poll();
+					futures[index] = context.submit(Collections.singletonList(
+							createTask(process, operators, index, generators[index], finished))).get(0);
+					running++;
+				}
+				int index = finished.take();
+				running--;
+				if (failed >= 0) {
+					continue;
+				}
+				if (isFailed(futures[index])) {
+					failed = index;
+					continue;
+				}
+				for (int s = 0; s < successorCounts[index]; s++) {
+					int successor = successors[index][s];
+					if (--waiting[successor] == 0) {
+						ready.add(successor);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			for (Future<Void> future : futures) {
+				if (future != null) {
+					future.cancel(true);
+				}
+			}
+			Thread.currentThread().interrupt();
+			throw new ProcessStoppedException(unit.getEnclosingOperator());
+		}
+		if (failed >= 0) {
+			try {
+				context.collectResults(Collections.singletonList(futures[failed]));
+			} catch (ExecutionException e) {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, process);
+			}
+		}
+		process.setCurrentOperator(operators.get(size - 1));
+	}
+
+	/**
+	 * Checks whether the operator or one of its inner operators communicates with other operators by
+	 * other means than its ports, i.e. reads or writes macros, the object store of the process, the
+	 * repository or the process log. Such operators must be executed in the order of their
+	 * subprocess.
+	 *
+	 * @param operator
+	 *            the operator to check
+	 * @return {@code true} if the operator has side effects other operators might depend on
+	 */
+	public static boolean hasSideEffects(Operator operator) {
+		if (isSideEffectOperator(operator)) {
+			return true;
+		}
+		if (operator instanceof OperatorChain) {
+			for (Operator inner : ((OperatorChain) operator).getAllInnerOperators()) {
+				if (isSideEffectOperator(inner)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the operator itself is one of the {@link #SIDE_EFFECT_OPERATORS}.
+	 */
+	private static boolean isSideEffectOperator(Operator operator) {
+		for (Class<? extends Operator> type : SIDE_EFFECT_OPERATORS) {
+			if (type.isInstance(operator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Lets the operator with index {@code to} wait for the one with index {@code from}.
+	 */
+	private static void addDependency(int[][] successors, int[] successorCounts, int[] waiting, int from, int to) {
+		if (successorCounts[from] == successors[from].length) {
+			successors[from] = Arrays.copyOf(successors[from], 2 * successorCounts[from]);
+		}
+		successors[from][successorCounts[from]++] = to;
+		waiting[to]++;
+	}
+
+	/**
+	 * Creates the task executing the operator with the given index. The task adds the index to the
+	 * finished queue when it terminates, whether successfully or not.
+	 */
+	private static Callable<Void> createTask(Process process, List<Operator> operators, int index,
+			RandomGenerator generator, BlockingQueue<Integer> finished) {
+		Operator previous = index > 0 ? operators.get(index - 1) : null;
+		Operator next = index + 1 < operators.size() ? operators.get(index + 1) : null;
+		return () -> {
+			try {
+				executeOperator(process, previous, operators.get(index), next, generator);
+				return null;
+			} finally {
+				finished.add(index);
+			}
+		};
+	}
+
+	/**
+	 * Checks whether the terminated task has thrown an exception or was cancelled.
+	 */
+	private static boolean isFailed(Future<Void> future) throws InterruptedException {
+		if (future.isCancelled()) {
+			return true;
+		}
+		try {
+			future.get();
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Executes the operator with the given global random generator, surrounded by the calls of
+	 * the process flow filters.
+	 */
+	private static void executeOperator(Process process, Operator previous, Operator operator, Operator next,
+			RandomGenerator generator) throws OperatorException {
+		RandomGenerator previousGenerator = RandomGenerator.setGlobalRandomGenerator(generator);
+		try {
+			process.fireProcessFlowBeforeOperator(previous, operator, SimpleUnitExecutor.collectInput(operator));
+			operator.execute();
+			process.fireProcessFlowAfterOperator(operator, next, SimpleUnitExecutor.collectOutput(operator));
+			operator.freeMemory();
+		} finally {
+			RandomGenerator.setGlobalRandomGenerator(previousGenerator);
+		}
+	}
+
+	/**
+	 * Checks whether one of the operators has a breakpoint.
+	 */
+	private static boolean hasBreakpoints(List<Operator> operators) {
+		for (Operator operator : operators) {
+			if (operator.hasBreakpoint()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
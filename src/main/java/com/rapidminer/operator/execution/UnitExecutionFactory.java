@@ -28,7 +28,7 @@ import com.rapidminer.operator.ExecutionUnit;
  */
 public abstract class UnitExecutionFactory {
 
-	private static UnitExecutionFactory instance = new SimpleUnitExecutionFactory();
+	private static volatile UnitExecutionFactory instance = new SimpleUnitExecutionFactory();
 
     /**
      * Gets instance.
@@ -39,6 +39,20 @@ public abstract class UnitExecutionFactory {
 		return instance;
 	}
 
+    /**
+     * Sets the factory used to execute all {@link ExecutionUnit}s, e.g. a
+     * {@link ParallelUnitExecutionFactory}.
+     *
+     * @param factory the factory, must not be {@code null}
+     * @since 7.6.1
+     */
+    public static void setInstance(UnitExecutionFactory factory) {
+		if (factory == null) {
+			throw new IllegalArgumentException("factory must not be null");
+		}
+		instance = factory;
+	}
+
     /**
      * Gets executor.
      *
@@ -211,6 +211,14 @@ public class AttributeConstruction extends AbstractFeatureConstruction {
      */
     public static final String PARAMETER_KEEP_ALL = "keep_all";
 
+    /**
+     * The parameter name for &quot;If set to true, the expressions are evaluated for chunks of
+     * examples in parallel.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
     /**
      * Instantiates a new Attribute construction.
      *
@@ -295,12 +303,13 @@ public class AttributeConstruction extends AbstractFeatureConstruction {
 		// iterate over new attributes and generate them
 		List<String> newAttributeNames = new LinkedList<>();
 		List<String[]> parameterList = getParameterList(PARAMETER_FUNCTIONS);
+		boolean parallel = getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION);
 		for (String[] nameFunctionPair : parameterList) {
 			String name = nameFunctionPair[0];
 			String function = nameFunctionPair[1];
 			try {
 				Attribute newAttribute = ExpressionParserUtils.addAttribute(exampleSet, name, function, expParser, resolver,
-						this);
+						this, parallel);
 				newAttributeNames.add(newAttribute.getName());
 			} catch (ExpressionException e) {
 				throw ExpressionParserUtils.convertToUserError(this, function, e);
@@ -339,6 +348,11 @@ public class AttributeConstruction extends AbstractFeatureConstruction {
 		types.add(new ParameterTypeBoolean(PARAMETER_KEEP_ALL,
 				"If set to true, all the original attributes are kept, otherwise they are removed from the example set.",
 				true));
+		type = new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"If set to true, the expressions are evaluated for chunks of examples in parallel. Expressions using random numbers may deliver other values than for sequential evaluation.",
+				false);
+		type.setExpert(true);
+		types.add(type);
 
 		return types;
 	}
@@ -19,7 +19,6 @@
 package com.rapidminer.operator.features.selection;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.operator.OperatorDescription;
@@ -32,6 +31,7 @@ import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
+import com.rapidminer.tools.math.matrix.BlockedCovariance;
 
 import java.util.Iterator;
 import java.util.List;
@@ -137,7 +137,6 @@ public class RemoveCorrelatedFeatures extends AbstractFeatureSelection {
 		getProgress().setTotal(100);
 		exampleSet.recalculateAllAttributeStatistics();
 
-		double[] means = new double[exampleSet.getAttributes().size()];
 		double[] deviations = new double[exampleSet.getAttributes().size()];
 		boolean[] removeFeature = new boolean[exampleSet.getAttributes().size()];
 		int[] attributeIndex = new int[exampleSet.getAttributes().size()];
@@ -145,23 +144,15 @@ public class RemoveCorrelatedFeatures extends AbstractFeatureSelection {
 
 		int index = 0;
 		for (Attribute attribute : exampleSet.getAttributes()) {
-			means[index] = exampleSet.getStatistics(attribute, Statistics.AVERAGE);
 			deviations[index] = Math.sqrt(exampleSet.getStatistics(attribute, Statistics.VARIANCE));
 			removeFeature[index] = false;
 			attributeIndex[index] = index;
 			index++;
 		}
 
-		double[][] samples = new double[exampleSet.size()][exampleSet.getAttributes().size()];
-
-		int d = 0;
-		for (Attribute attribute : exampleSet.getAttributes()) {
-			int counter = 0;
-			for (Example example : exampleSet) {
-				samples[counter++][d] = example.getValue(attribute);
-			}
-			d++;
-		}
+		// all covariances in a single data scan
+		double[][] covariances = BlockedCovariance.covariance(exampleSet,
+				exampleSet.getAttributes().createRegularAttributeArray(), this, null);
 
 		// attribute order
 		int order = getParameterAsInt(PARAMETER_ATTRIBUTE_ORDER);
@@ -221,7 +212,7 @@ public class RemoveCorrelatedFeatures extends AbstractFeatureSelection {
 					continue;
 				}
 
-				double correlation = getCorrelation(samples, means, deviations, attributeIndex[i], attributeIndex[j]);
+				double correlation = getCorrelation(covariances, deviations, attributeIndex[i], attributeIndex[j]);
 				if (absolute) {
 					correlation = Math.abs(correlation);
 				}
@@ -278,13 +269,8 @@ public class RemoveCorrelatedFeatures extends AbstractFeatureSelection {
 	 *            index of feature 2
 	 * @return the correlation in (-1.0,1.0)
 	 */
-	private double getCorrelation(double[][] samples, double[] means, double[] deviations, int att1, int att2) {
-		// calculate covariance
-		double covariance = 0.0d;
-		for (int j = 0; j < samples.length; j++) {
-			covariance += (samples[j][att1] - means[att1]) * (samples[j][att2] - means[att2]);
-		}
-		covariance = covariance / (samples.length - 1);
+	private double getCorrelation(double[][] covariances, double[] deviations, int att1, int att2) {
+		double covariance = covariances[att1][att2];
 
 		// calculate correlation
 		double correlation = 0.0d;
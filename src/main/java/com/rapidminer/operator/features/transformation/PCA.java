@@ -44,6 +44,10 @@ import java.util.logging.Level;
  * number of principal components. The user can also specify manually the number of principal
  * components. The operator outputs a <code>PCAModel</code>. With the <code>ModelApplier</code> you
  * can transform the features.
+ * <p>
+ * For example sets with many attributes, the randomized decomposition computes only the leading
+ * components in a few passes over the data, without building the covariance matrix, see
+ * {@link RandomizedDecomposition}.
  *
  * @author Ingo Mierswa
  * @see PCAModel
@@ -121,6 +125,11 @@ public class PCA extends Operator {
 					resultNumber = numberOfAttributes;
 					metaData.attributesAreSubset();
 				}
+				if (getParameterAsInt(PARAMETER_REDUCTION_TYPE) != REDUCTION_FIXED
+						&& RandomizedDecomposition.isRandomized(PCA.this)) {
+					resultNumber = Math.min(resultNumber,
+							getParameterAsInt(RandomizedDecomposition.PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS));
+				}
 				metaData.clearRegular();
 				for (int i = 1; i <= resultNumber; i++) {
 					AttributeMetaData pcAMD = new AttributeMetaData("pc_" + i, Ontology.REAL);
@@ -162,33 +171,54 @@ public class PCA extends Operator {
 			}
 		}
 
-		// create covariance matrix
-		log("Creating the covariance matrix...");
-		Matrix covarianceMatrix = CovarianceMatrix.getCovarianceMatrix(exampleSet, this);
+		int reductionType = getParameterAsInt(PARAMETER_REDUCTION_TYPE);
+		int numberOfComponents = exampleSet.getAttributes().size();
+		PCAModel model;
+		if (RandomizedDecomposition.isRandomized(this)) {
+			// only the leading components: either the fixed number or the maximum number
+			int components = reductionType == REDUCTION_FIXED ? getParameterAsInt(PARAMETER_NUMBER_OF_COMPONENTS)
+					: getParameterAsInt(RandomizedDecomposition.PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS);
+			log("Performing the randomized decomposition...");
+			RandomizedDecomposition decomposition = RandomizedDecomposition.decompose(exampleSet, components, true,
+					this);
 
-		// EigenVector and EigenValues of the covariance matrix
-		log("Performing the eigenvalue decomposition...");
-		EigenvalueDecomposition eigenvalueDecomposition = covarianceMatrix.eig();
+			// the eigenvalues of the covariance matrix
+			double degreesOfFreedom = decomposition.getNumberOfExamples() - 1;
+			double[] eigenvalues = decomposition.getSquaredSingularValues();
+			for (int i = 0; i < eigenvalues.length; i++) {
+				eigenvalues[i] /= degreesOfFreedom;
+			}
+			numberOfComponents = eigenvalues.length;
+			model = new PCAModel(exampleSet, decomposition.getMeans(), eigenvalues,
+					decomposition.getRightSingularVectors(), decomposition.getSumOfSquares() / degreesOfFreedom);
+		} else {
+			// create covariance matrix
+			log("Creating the covariance matrix...");
+			Matrix covarianceMatrix = CovarianceMatrix.getCovarianceMatrix(exampleSet, this);
 
-		checkForStop();
+			// EigenVector and EigenValues of the covariance matrix
+			log("Performing the eigenvalue decomposition...");
+			EigenvalueDecomposition eigenvalueDecomposition = covarianceMatrix.eig();
 
-		// create and deliver results
-		double[] eigenvalues = eigenvalueDecomposition.getRealEigenvalues();
-		Matrix eigenvectorMatrix = eigenvalueDecomposition.getV();
-		double[][] eigenvectors = eigenvectorMatrix.getArray();
+			checkForStop();
 
-		PCAModel model = new PCAModel(exampleSet, eigenvalues, eigenvectors);
+			// create and deliver results
+			double[] eigenvalues = eigenvalueDecomposition.getRealEigenvalues();
+			Matrix eigenvectorMatrix = eigenvalueDecomposition.getV();
+			double[][] eigenvectors = eigenvectorMatrix.getArray();
+
+			model = new PCAModel(exampleSet, eigenvalues, eigenvectors);
+		}
 
-		int reductionType = getParameterAsInt(PARAMETER_REDUCTION_TYPE);
 		switch (reductionType) {
 			case REDUCTION_NONE:
-				model.setNumberOfComponents(exampleSet.getAttributes().size());
+				model.setNumberOfComponents(numberOfComponents);
 				break;
 			case REDUCTION_VARIANCE:
 				model.setVarianceThreshold(getParameterAsDouble(PARAMETER_VARIANCE_THRESHOLD));
 				break;
 			case REDUCTION_FIXED:
-				model.setNumberOfComponents(Math.min(exampleSet.getAttributes().size(),
+				model.setNumberOfComponents(Math.min(numberOfComponents,
 						getParameterAsInt(PARAMETER_NUMBER_OF_COMPONENTS)));
 				break;
 		}
@@ -221,6 +251,9 @@ public class PCA extends Operator {
 		type.registerDependencyCondition(new EqualTypeCondition(this, PARAMETER_REDUCTION_TYPE, REDUCTION_METHODS, true,
 				REDUCTION_FIXED));
 		list.add(type);
+
+		list.addAll(RandomizedDecomposition.getParameterTypes(this, PARAMETER_REDUCTION_TYPE, REDUCTION_METHODS,
+				REDUCTION_FIXED));
 		return list;
 	}
 }
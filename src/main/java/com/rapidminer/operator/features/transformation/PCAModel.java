@@ -77,6 +77,9 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 
 	private boolean keepAttributes = false;
 
+	/** The sum of the variances of all attributes, 0 for models created before 7.6.1. */
+	private double totalVariance;
+
     /**
      * Instantiates a new Pca model.
      *
@@ -97,9 +100,47 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 			means[counter] = eSet.getStatistics(attribute, Statistics.AVERAGE);
 			counter++;
 		}
+		setEigenvectors(eigenvalues, eigenvectors);
+
+		double sumvariance = 0.0d;
+		for (double eigenvalue : eigenvalues) {
+			sumvariance += eigenvalue;
+		}
+		calculateCumulativeVariance(sumvariance);
+	}
+
+    /**
+     * Instantiates a new Pca model containing only the leading components, e.g. computed by a
+     * {@link RandomizedDecomposition}. The proportions of variance refer to the given total
+     * variance, so that the variance threshold keeps its meaning.
+     *
+     * @param eSet          the e set
+     * @param means         the means of the attributes
+     * @param eigenvalues   the eigenvalues of the leading components
+     * @param eigenvectors  the eigenvectors with one column per component
+     * @param totalVariance the sum of the variances of all attributes
+     * @since 7.6.1
+     */
+    public PCAModel(ExampleSet eSet, double[] means, double[] eigenvalues, double[][] eigenvectors,
+			double totalVariance) {
+		super(eSet);
+
+		this.keepAttributes = false;
+		this.attributeNames = new String[eSet.getAttributes().size()];
+		this.means = means;
+		int counter = 0;
+		for (Attribute attribute : eSet.getAttributes()) {
+			attributeNames[counter++] = attribute.getName();
+		}
+		setEigenvectors(eigenvalues, eigenvectors);
+		calculateCumulativeVariance(totalVariance);
+	}
+
+	/** Creates the eigenvectors from the columns of the given matrix, ordered by the eigenvalues. */
+	private void setEigenvectors(double[] eigenvalues, double[][] eigenvectors) {
 		this.eigenVectors = new ArrayList<>(eigenvalues.length);
 		for (int i = 0; i < eigenvalues.length; i++) {
-			double[] currentEigenVector = new double[eSet.getAttributes().size()];
+			double[] currentEigenVector = new double[attributeNames.length];
 			for (int j = 0; j < currentEigenVector.length; j++) {
 				currentEigenVector[j] = eigenvectors[j][i];
 			}
@@ -108,8 +149,6 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 
 		// order the eigenvectors by the eigenvalues
 		Collections.sort(this.eigenVectors);
-
-		calculateCumulativeVariance();
 	}
 
     /**
@@ -253,13 +292,15 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 		// determining number of used components
 		int numberOfUsedComponents = -1;
 		if (manualNumber) {
-			numberOfUsedComponents = numberOfComponents;
+			numberOfUsedComponents = Math.min(numberOfComponents, eigenVectors.size());
 		} else {
 			if (varianceThreshold == 0.0d) {
 				numberOfUsedComponents = -1;
 			} else {
 				numberOfUsedComponents = 0;
-				while (cumulativeVariance[numberOfUsedComponents] < varianceThreshold) {
+				// only the leading components might be known and not reach the threshold
+				while (numberOfUsedComponents < cumulativeVariance.length - 1
+						&& cumulativeVariance[numberOfUsedComponents] < varianceThreshold) {
 					numberOfUsedComponents++;
 				}
 				numberOfUsedComponents++;
@@ -270,7 +311,7 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 		}
 		if (numberOfUsedComponents == -1) {
 			// keep all components
-			numberOfUsedComponents = attributes.size();
+			numberOfUsedComponents = eigenVectors.size();
 		}
 
 		// retrieve factors inside eigenVectors
@@ -330,12 +371,9 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 		return exampleSet;
 	}
 
-	/** Calculates the cumulative variance. */
-	private void calculateCumulativeVariance() {
-		double sumvariance = 0.0d;
-		for (Eigenvector ev : this.eigenVectors) {
-			sumvariance += ev.getEigenvalue();
-		}
+	/** Calculates the cumulative variance relative to the given sum of all variances. */
+	private void calculateCumulativeVariance(double sumvariance) {
+		this.totalVariance = sumvariance;
 		this.variances = new double[this.eigenVectors.size()];
 		this.cumulativeVariance = new double[variances.length];
 		double cumulative = 0.0d;
@@ -385,9 +423,9 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 		if (component < 1) {
 			component = 1;
 		}
-		if (component > attributeNames.length) {
-			logWarning("Creating weights of component " + attributeNames.length + "!");
-			component = attributeNames.length;
+		if (component > eigenVectors.size()) {
+			logWarning("Creating weights of component " + eigenVectors.size() + "!");
+			component = eigenVectors.size();
 		}
 		AttributeWeights weights = new AttributeWeights();
 
@@ -443,9 +481,11 @@ public class PCAModel extends AbstractEigenvectorModel implements ComponentWeigh
 
 	@Override
 	public EigenvalueTableModel getEigenvalueTableModel() {
-		double varianceSum = 0.0d;
-		for (Eigenvector wv : eigenVectors) {
-			varianceSum += wv.getEigenvalue();
+		double varianceSum = totalVariance;
+		if (varianceSum == 0.0d) {
+			for (Eigenvector wv : eigenVectors) {
+				varianceSum += wv.getEigenvalue();
+			}
 		}
 		return new EigenvalueTableModel(eigenVectors, cumulativeVariance, varianceSum);
 	}
@@ -0,0 +1,609 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.features.transformation;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.FastExample2SparseTransform;
+import com.rapidminer.example.table.SparseDataRow;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.parameter.conditions.EqualTypeCondition;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Computes the leading right singular vectors of the data of an example set by randomized subspace
+ * iteration, without building the covariance matrix or copying the data. Every iteration is one
+ * pass over the examples: the examples are read in blocks of rows, the rows of a block are
+ * projected onto the current basis in parallel and the products with the projections are added to
+ * the next basis in parallel ranges of attributes. Only the basis is kept in memory, that is two
+ * matrices with one row per attribute and a few more columns than requested components. Zero values
+ * are skipped, so that wide sparse example sets are processed in time proportional to their
+ * non-zero values.
+ * <p>
+ * The components are finally obtained from the eigenvalue decomposition of the data projected onto
+ * the basis (Rayleigh-Ritz). For principal components, the data is centered implicitly by
+ * subtracting the projected means from the projections, hence sparse values remain sparse.
+ *
+ * @since 7.6.1
+ */
+public final class RandomizedDecomposition {
+
+    /**
+     * The parameter name for &quot;Indicates whether the decomposition is computed exactly or
+     * approximated by randomized passes over the data.&quot;
+     */
+    public static final String PARAMETER_DECOMPOSITION = "decomposition";
+
+    /**
+     * The constant DECOMPOSITION_METHODS.
+     */
+    public static final String[] DECOMPOSITION_METHODS = new String[] { "exact", "randomized" };
+
+    /**
+     * The constant DECOMPOSITION_EXACT.
+     */
+    public static final int DECOMPOSITION_EXACT = 0;
+    /**
+     * The constant DECOMPOSITION_RANDOMIZED.
+     */
+    public static final int DECOMPOSITION_RANDOMIZED = 1;
+
+    /**
+     * The parameter name for &quot;The number of leading components computed by the randomized
+     * decomposition if no fixed number of components is kept.&quot;
+     */
+    public static final String PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS = "maximum_number_of_components";
+
+    /**
+     * The parameter name for &quot;The number of additional directions iterated along with the
+     * components.&quot;
+     */
+    public static final String PARAMETER_OVERSAMPLING = "oversampling";
+
+    /**
+     * The parameter name for &quot;The number of additional passes over the data refining the
+     * components.&quot;
+     */
+    public static final String PARAMETER_POWER_ITERATIONS = "power_iterations";
+
+	/** The number of examples read at once. */
+	private static final int BLOCK_SIZE = 1024;
+
+	/** The number of tasks per thread, the numbers of non-zero values of rows and columns vary. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** Do not bother other threads for less multiplications per block than this. */
+	private static final int MIN_PARALLEL_WORK = 1 << 16;
+
+	private final ExampleSet exampleSet;
+	private final Attribute[] attributes;
+	private final int columns;
+	private final boolean center;
+	private final Operator operator;
+	private final ConcurrencyContext context;
+	private final int parallelism;
+
+	/** Used to read only the non-default values of sparse rows, {@code null} for dense data. */
+	private final FastExample2SparseTransform sparseTransform;
+
+	/** The non-zero values of the current block, row-wise with ascending attribute indices. */
+	private final int[] rowStarts = new int[BLOCK_SIZE + 1];
+	private int[] indices = new int[BLOCK_SIZE];
+	private double[] values = new double[BLOCK_SIZE];
+	private int blockRows;
+
+	/** The projections of the rows of the current block onto the basis. */
+	private double[][] projections;
+
+	private int completed;
+
+	/** The statistics of the attributes, collected during the first and the last pass. */
+	private int size;
+	private final double[] sums;
+	private final int[] nonZeros;
+	private final double[] means;
+	private double sumOfSquares;
+
+	private double[] squaredSingularValues;
+	private double[][] singularVectors;
+
+	private RandomizedDecomposition(ExampleSet exampleSet, boolean center, Operator operator) throws OperatorException {
+		this.exampleSet = exampleSet;
+		this.attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		this.columns = attributes.length;
+		this.center = center;
+		this.operator = operator;
+		this.context = Resources.getConcurrencyContext(operator);
+		this.parallelism = context.getParallelism();
+		this.sums = new double[columns];
+		this.nonZeros = new int[columns];
+		this.means = new double[columns];
+
+		boolean sparse = exampleSet.size() > 0
+				&& exampleSet.getExample(0).getDataRow() instanceof SparseDataRow;
+		for (Attribute attribute : attributes) {
+			sparse &= attribute.getTableIndex() != Attribute.VIEW_ATTRIBUTE_INDEX;
+		}
+		this.sparseTransform = sparse ? new FastExample2SparseTransform(exampleSet) : null;
+	}
+
+    /**
+     * Computes the leading components of the regular attributes of the given example set. The
+     * oversampling, the number of power iterations and the random generator are taken from the
+     * parameters of the operator, see {@link #getParameterTypes(Operator, String, String[], int)}.
+     *
+     * @param exampleSet the example set, must not contain missing values
+     * @param components the number of components to compute, at most the number of attributes are
+     *                   computed
+     * @param center     whether to decompose the centered data as for principal components, or the
+     *                   data itself as for singular value decompositions
+     * @param operator   the executing operator
+     * @return the decomposition
+     * @throws OperatorException if a parameter is undefined or the process is stopped
+     */
+    public static RandomizedDecomposition decompose(ExampleSet exampleSet, int components, boolean center,
+			Operator operator) throws OperatorException {
+		RandomizedDecomposition decomposition = new RandomizedDecomposition(exampleSet, center, operator);
+		decomposition.run(components, operator.getParameterAsInt(PARAMETER_OVERSAMPLING),
+				operator.getParameterAsInt(PARAMETER_POWER_ITERATIONS), RandomGenerator.getRandomGenerator(operator));
+		return decomposition;
+	}
+
+    /**
+     * Checks whether the given operator is set to the randomized decomposition.
+     *
+     * @param operator the operator with the parameters of the randomized decomposition
+     * @return whether the decomposition is randomized
+     * @throws UndefinedParameterError if the decomposition parameter is undefined
+     */
+    public static boolean isRandomized(Operator operator) throws UndefinedParameterError {
+		return operator.getParameterAsInt(PARAMETER_DECOMPOSITION) == DECOMPOSITION_RANDOMIZED;
+	}
+
+    /**
+     * Returns the parameters of the randomized decomposition, shown if the decomposition is
+     * randomized. The maximum number of components is additionally hidden if the given reduction
+     * type keeps a fixed number of components.
+     *
+     * @param operator           the operator
+     * @param reductionParameter the name of the reduction type parameter of the operator
+     * @param reductionMethods   the reduction types
+     * @param fixedReduction     the reduction type keeping a fixed number of components
+     * @return the parameter types
+     */
+    public static List<ParameterType> getParameterTypes(Operator operator, String reductionParameter,
+			String[] reductionMethods, int fixedReduction) {
+		List<ParameterType> types = new LinkedList<>();
+		ParameterType type = new ParameterTypeCategory(PARAMETER_DECOMPOSITION,
+				"Indicates whether the decomposition is computed exactly or approximated by randomized passes over the data. "
+						+ "The randomized decomposition only computes the leading components and is feasible for many attributes.",
+				DECOMPOSITION_METHODS, DECOMPOSITION_EXACT);
+		type.setExpert(false);
+		types.add(type);
+
+		int[] unfixedReductions = new int[reductionMethods.length - 1];
+		for (int i = 0, j = 0; i < reductionMethods.length; i++) {
+			if (i != fixedReduction) {
+				unfixedReductions[j++] = i;
+			}
+		}
+		type = new ParameterTypeInt(PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS,
+				"The number of leading components computed by the randomized decomposition if no fixed number of components is kept.",
+				1, Integer.MAX_VALUE, 100);
+		type.setExpert(false);
+		type.registerDependencyCondition(new EqualTypeCondition(operator, reductionParameter, reductionMethods, false,
+				unfixedReductions));
+		types.add(type);
+
+		types.add(new ParameterTypeInt(PARAMETER_OVERSAMPLING,
+				"The number of additional directions iterated along with the components, improving their accuracy.", 0,
+				Integer.MAX_VALUE, 10));
+		types.add(new ParameterTypeInt(PARAMETER_POWER_ITERATIONS,
+				"The number of additional passes over the data refining the components. "
+						+ "In total, the data is read this number plus two times.",
+				0, Integer.MAX_VALUE, 2));
+		types.addAll(RandomGenerator.getRandomGeneratorParameters(operator));
+
+		for (ParameterType randomizedType : types.subList(1, types.size())) {
+			randomizedType.registerDependencyCondition(new EqualTypeCondition(operator, PARAMETER_DECOMPOSITION,
+					DECOMPOSITION_METHODS, false, DECOMPOSITION_RANDOMIZED));
+		}
+		return types;
+	}
+
+    /**
+     * Returns the means of the attributes, all zero if the data was not centered.
+     *
+     * @return the means
+     */
+    public double[] getMeans() {
+		return means;
+	}
+
+    /**
+     * Returns the squares of the singular values of the leading components in descending order,
+     * that is the eigenvalues of the scatter matrix of the data.
+     *
+     * @return the squared singular values
+     */
+    public double[] getSquaredSingularValues() {
+		return squaredSingularValues;
+	}
+
+    /**
+     * Returns the singular values of the leading components in descending order.
+     *
+     * @return the singular values
+     */
+    public double[] getSingularValues() {
+		double[] singularValues = new double[squaredSingularValues.length];
+		for (int i = 0; i < singularValues.length; i++) {
+			singularValues[i] = Math.sqrt(squaredSingularValues[i]);
+		}
+		return singularValues;
+	}
+
+    /**
+     * Returns the right singular vectors of the leading components with one row per attribute and
+     * one column per component.
+     *
+     * @return the singular vectors
+     */
+    public double[][] getRightSingularVectors() {
+		return singularVectors;
+	}
+
+    /**
+     * Returns the sum of the squares of all (centered) values, that is the sum of the squares of
+     * all singular values including those not computed.
+     *
+     * @return the sum of squares
+     */
+    public double getSumOfSquares() {
+		return sumOfSquares;
+	}
+
+    /**
+     * Returns the number of examples.
+     *
+     * @return the number of examples
+     */
+    public int getNumberOfExamples() {
+		return size;
+	}
+
+	/**
+	 * Iterates the basis and extracts the components from the final pass.
+	 */
+	private void run(int components, int oversampling, int iterations, Random random) throws OperatorException {
+		int rank = Math.min(components, columns);
+		int width = (int) Math.min(columns, (long) rank + oversampling);
+		projections = new double[BLOCK_SIZE][width];
+
+		OperatorProgress progress = operator.getProgress();
+		progress.setTotal((int) Math.min(Integer.MAX_VALUE, ((long) iterations + 2) * exampleSet.size()));
+
+		double[][] basis = new double[columns][width];
+		for (double[] row : basis) {
+			for (int c = 0; c < width; c++) {
+				row[c] = random.nextGaussian();
+			}
+		}
+		for (int iteration = 0; iteration <= iterations; iteration++) {
+			double[][] product = multiply(basis, iteration == 0, false);
+			basis = width > 0 ? new Matrix(product).qr().getQ().getArray() : product;
+		}
+		double[][] product = multiply(basis, false, true);
+		projections = null;
+		indices = null;
+		values = null;
+
+		// the eigenvectors of the projected scatter matrix rotate the basis onto the components
+		double[][] projectedScatter = new double[width][width];
+		for (int j = 0; j < columns; j++) {
+			double[] basisRow = basis[j];
+			double[] productRow = product[j];
+			for (int a = 0; a < width; a++) {
+				double factor = basisRow[a];
+				if (factor != 0) {
+					double[] scatterRow = projectedScatter[a];
+					for (int b = 0; b < width; b++) {
+						scatterRow[b] += factor * productRow[b];
+					}
+				}
+			}
+		}
+		for (int a = 0; a < width; a++) {
+			for (int b = a + 1; b < width; b++) {
+				double mean = (projectedScatter[a][b] + projectedScatter[b][a]) / 2;
+				projectedScatter[a][b] = mean;
+				projectedScatter[b][a] = mean;
+			}
+		}
+		EigenvalueDecomposition eigen = new Matrix(projectedScatter).eig();
+		double[] eigenvalues = eigen.getRealEigenvalues();
+		double[][] eigenvectors = eigen.getV().getArray();
+
+		int[] order = new int[width];
+		for (int a = 0; a < width; a++) {
+			order[a] = a;
+		}
+		squaredSingularValues = new double[rank];
+		for (int c = 0; c < rank; c++) {
+			int largest = c;
+			for (int a = c + 1; a < width; a++) {
+				if (eigenvalues[order[a]] > eigenvalues[order[largest]]) {
+					largest = a;
+				}
+			}
+			int swap = order[c];
+			order[c] = order[largest];
+			order[largest] = swap;
+			squaredSingularValues[c] = Math.max(0, eigenvalues[order[c]]);
+		}
+
+		singularVectors = new double[columns][rank];
+		for (int j = 0; j < columns; j++) {
+			double[] basisRow = basis[j];
+			double[] vectorRow = singularVectors[j];
+			for (int c = 0; c < rank; c++) {
+				int component = order[c];
+				double value = 0;
+				for (int a = 0; a < width; a++) {
+					value += basisRow[a] * eigenvectors[a][component];
+				}
+				vectorRow[c] = value;
+			}
+		}
+	}
+
+	/**
+	 * Multiplies the scatter matrix of the (centered) data with the given basis in one pass over the
+	 * data. The first pass collects the means, the last one the sum of squares.
+	 */
+	private double[][] multiply(final double[][] basis, boolean firstPass, boolean lastPass) throws OperatorException {
+		final int width = projections[0].length;
+		final double[][] product = new double[columns][width];
+
+		// the projections of the means, unknown in the first pass
+		final double[] offset = new double[width];
+		if (!firstPass) {
+			for (int j = 0; j < columns; j++) {
+				for (int c = 0; c < width; c++) {
+					offset[c] += means[j] * basis[j][c];
+				}
+			}
+		}
+		double[] projectionSums = new double[width];
+
+		Iterator<Example> reader = exampleSet.iterator();
+		while (reader.hasNext()) {
+			readBlock(reader, firstPass, lastPass);
+
+			boolean parallel = parallelism > 1 && (long) rowStarts[blockRows] * width >= MIN_PARALLEL_WORK;
+			if (parallel) {
+				final int numberOfTasks = Math.min(blockRows, parallelism * TASKS_PER_THREAD);
+				List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+				for (int task = 0; task < numberOfTasks; task++) {
+					final int from = (int) ((long) blockRows * task / numberOfTasks);
+					final int to = (int) ((long) blockRows * (task + 1) / numberOfTasks);
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							project(basis, offset, from, to);
+							return null;
+						}
+					});
+				}
+				call(tasks);
+			} else {
+				project(basis, offset, 0, blockRows);
+			}
+			for (int r = 0; r < blockRows; r++) {
+				double[] projection = projections[r];
+				for (int c = 0; c < width; c++) {
+					projectionSums[c] += projection[c];
+				}
+			}
+
+			if (parallel) {
+				final int numberOfTasks = Math.min(columns, parallelism * TASKS_PER_THREAD);
+				List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+				for (int task = 0; task < numberOfTasks; task++) {
+					final int from = (int) ((long) columns * task / numberOfTasks);
+					final int to = (int) ((long) columns * (task + 1) / numberOfTasks);
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							addProducts(product, from, to);
+							return null;
+						}
+					});
+				}
+				call(tasks);
+			} else {
+				addProducts(product, 0, columns);
+			}
+
+			completed += blockRows;
+			operator.getProgress().setCompleted(completed);
+		}
+
+		if (firstPass && center && size > 0) {
+			for (int j = 0; j < columns; j++) {
+				means[j] = sums[j] / size;
+			}
+		}
+		if (lastPass) {
+			// the values not stored are zero
+			for (int j = 0; j < columns; j++) {
+				sumOfSquares += (double) (size - nonZeros[j]) * means[j] * means[j];
+			}
+		}
+		if (center) {
+			// the rows were not centered in the products, the projections are (after the first pass)
+			for (int j = 0; j < columns; j++) {
+				double mean = means[j];
+				if (mean != 0) {
+					double[] productRow = product[j];
+					for (int c = 0; c < width; c++) {
+						productRow[c] -= mean * projectionSums[c];
+					}
+				}
+			}
+		}
+		return product;
+	}
+
+	/**
+	 * Reads the non-zero values of the next block of examples.
+	 */
+	private void readBlock(Iterator<Example> reader, boolean firstPass, boolean lastPass) {
+		int position = 0;
+		blockRows = 0;
+		while (reader.hasNext() && blockRows < BLOCK_SIZE) {
+			Example example = reader.next();
+			if (sparseTransform != null) {
+				int[] nonDefaultIndices = sparseTransform.getNonDefaultAttributeIndices(example);
+				ensureCapacity(position + nonDefaultIndices.length);
+				for (int index : nonDefaultIndices) {
+					double value = example.getValue(attributes[index]);
+					if (value != 0) {
+						indices[position] = index;
+						values[position++] = value;
+					}
+				}
+			} else {
+				ensureCapacity(position + columns);
+				for (int i = 0; i < columns; i++) {
+					double value = example.getValue(attributes[i]);
+					if (value != 0) {
+						indices[position] = i;
+						values[position++] = value;
+					}
+				}
+			}
+			rowStarts[++blockRows] = position;
+		}
+
+		if (firstPass) {
+			size += blockRows;
+			for (int p = 0; p < position; p++) {
+				sums[indices[p]] += values[p];
+				nonZeros[indices[p]]++;
+			}
+		}
+		if (lastPass) {
+			for (int p = 0; p < position; p++) {
+				double difference = values[p] - means[indices[p]];
+				sumOfSquares += difference * difference;
+			}
+		}
+	}
+
+	/** Grows the arrays of the current block to hold the given number of values. */
+	private void ensureCapacity(int capacity) {
+		if (capacity > values.length) {
+			int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, 2L * values.length));
+			indices = Arrays.copyOf(indices, newCapacity);
+			values = Arrays.copyOf(values, newCapacity);
+		}
+	}
+
+	/**
+	 * Projects the given rows of the current block onto the basis and subtracts the offset.
+	 */
+	private void project(double[][] basis, double[] offset, int from, int to) {
+		int width = offset.length;
+		for (int r = from; r < to; r++) {
+			double[] projection = projections[r];
+			for (int c = 0; c < width; c++) {
+				projection[c] = -offset[c];
+			}
+			for (int p = rowStarts[r]; p < rowStarts[r + 1]; p++) {
+				double value = values[p];
+				double[] basisRow = basis[indices[p]];
+				for (int c = 0; c < width; c++) {
+					projection[c] += value * basisRow[c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the products of the values of the current block with their projections to the given rows
+	 * of the product.
+	 */
+	private void addProducts(double[][] product, int from, int to) {
+		int width = product.length > 0 ? product[0].length : 0;
+		for (int r = 0; r < blockRows; r++) {
+			int start = rowStarts[r];
+			int end = rowStarts[r + 1];
+			if (from > 0) {
+				start = Arrays.binarySearch(indices, start, end, from);
+				if (start < 0) {
+					start = -start - 1;
+				}
+			}
+			double[] projection = projections[r];
+			for (int p = start; p < end && indices[p] < to; p++) {
+				double value = values[p];
+				double[] productRow = product[indices[p]];
+				for (int c = 0; c < width; c++) {
+					productRow[c] += value * projection[c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the given tasks in the concurrency context of the operator.
+	 */
+	private void call(List<Callable<Void>> tasks) throws OperatorException {
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+}
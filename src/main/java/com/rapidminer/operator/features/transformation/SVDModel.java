@@ -366,15 +366,15 @@ public class SVDModel extends AbstractModel implements ComponentWeightsCreatable
 		if (component < 1) {
 			component = 1;
 		}
-		if (component > attributeNames.length) {
-			logWarning("Creating weights of component " + attributeNames.length + "!");
-			component = attributeNames.length;
+		if (component > singularValues.length) {
+			logWarning("Creating weights of component " + singularValues.length + "!");
+			component = singularValues.length;
 		}
 		AttributeWeights weights = new AttributeWeights();
 
-		double[] singularVector = vMatrix.getArray()[component];
+		// the singular vectors are the columns of V
 		for (int i = 0; i < attributeNames.length; i++) {
-			weights.setWeight(attributeNames[i], singularVector[i]);
+			weights.setWeight(attributeNames[i], vMatrix.get(i, component - 1));
 		}
 
 		return weights;
@@ -392,7 +392,7 @@ public class SVDModel extends AbstractModel implements ComponentWeightsCreatable
 		for (int i = 0; i < vMatrix.getColumnDimension(); i++) {
 			result.append("PC " + (i + 1) + ": ");
 			for (int j = 0; j < attributeNames.length; j++) {
-				double value = vMatrix.get(i, j);
+				double value = vMatrix.get(j, i);
 				if (value > 0) {
 					result.append(" + ");
 				} else {
@@ -38,6 +38,10 @@ import java.util.List;
  * This operator performs a Singular Value Decomposition (SVD) of the data The user can specify the
  * number of target dimensions operator outputs a {@link SVDModel}. With the
  * <code>ModelApplier</code> you can transform the features.
+ * <p>
+ * For example sets with many attributes, the randomized decomposition computes only the leading
+ * singular vectors in a few passes over the data, see {@link RandomizedDecomposition}. The
+ * percentage threshold then refers to the sum of the computed singular values.
  *
  * @author Sebastian Land
  */
@@ -109,6 +113,11 @@ public class SVDReduction extends Operator {
 					resultNumber = numberOfAttributes;
 					metaData.attributesAreSubset();
 				}
+				if (getParameterAsInt(PARAMETER_REDUCTION_TYPE) != REDUCTION_FIXED
+						&& RandomizedDecomposition.isRandomized(SVDReduction.this)) {
+					resultNumber = Math.min(resultNumber,
+							getParameterAsInt(RandomizedDecomposition.PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS));
+				}
 				metaData.clearRegular();
 				for (int i = 1; i <= resultNumber; i++) {
 					AttributeMetaData svdAMD = new AttributeMetaData("svd_" + i, Ontology.REAL);
@@ -142,25 +151,38 @@ public class SVDReduction extends Operator {
 		Tools.onlyNonMissingValues(exampleSet, getOperatorClassName(), this);
 		Tools.onlyNumericalAttributes(exampleSet, "SVD");
 
-		// create data matrix
-		Matrix dataMatrix = MatrixTools.getDataAsMatrix(exampleSet);
-
-		// Singular Value Decomposition
-		SingularValueDecomposition singularValueDecomposition = dataMatrix.svd();
-
-		// create and deliver results
-		double[] singularvalues = singularValueDecomposition.getSingularValues();
-		Matrix vMatrix = singularValueDecomposition.getV();
-
-		SVDModel model = new SVDModel(exampleSet, singularvalues, vMatrix);
+		int reductionType = getParameterAsInt(PARAMETER_REDUCTION_TYPE);
+		int numberOfComponents = exampleSet.getAttributes().size();
+		SVDModel model;
+		if (RandomizedDecomposition.isRandomized(this)) {
+			// only the leading components: either the fixed number or the maximum number
+			int components = reductionType == REDUCTION_FIXED ? getParameterAsInt(PARAMETER_NUMBER_OF_COMPONENTS)
+					: getParameterAsInt(RandomizedDecomposition.PARAMETER_MAXIMUM_NUMBER_OF_COMPONENTS);
+			RandomizedDecomposition decomposition = RandomizedDecomposition.decompose(exampleSet, components, false,
+					this);
+			double[] singularvalues = decomposition.getSingularValues();
+			numberOfComponents = singularvalues.length;
+			model = new SVDModel(exampleSet, singularvalues, new Matrix(decomposition.getRightSingularVectors()));
+		} else {
+			// create data matrix
+			Matrix dataMatrix = MatrixTools.getDataAsMatrix(exampleSet);
+
+			// Singular Value Decomposition
+			SingularValueDecomposition singularValueDecomposition = dataMatrix.svd();
+
+			// create and deliver results
+			double[] singularvalues = singularValueDecomposition.getSingularValues();
+			Matrix vMatrix = singularValueDecomposition.getV();
+
+			model = new SVDModel(exampleSet, singularvalues, vMatrix);
+		}
 		if (getCompatibilityLevel().isAtMost(OPERATOR_VERSION_CHANGED_ATTRIBUTE_NAME)) {
 			model.enableLegacyMode();
 		}
 
-		int reductionType = getParameterAsInt(PARAMETER_REDUCTION_TYPE);
 		switch (reductionType) {
 			case REDUCTION_NONE:
-				model.setNumberOfComponents(exampleSet.getAttributes().size());
+				model.setNumberOfComponents(numberOfComponents);
 				break;
 			case REDUCTION_PERCENTAGE:
 				model.setVarianceThreshold(getParameterAsDouble(PARAMETER_PERCENTAGE_THRESHOLD));
@@ -203,6 +225,9 @@ public class SVDReduction extends Operator {
 		type.registerDependencyCondition(new EqualTypeCondition(this, PARAMETER_REDUCTION_TYPE, REDUCTION_METHODS, true,
 				REDUCTION_FIXED));
 		list.add(type);
+
+		list.addAll(RandomizedDecomposition.getParameterTypes(this, PARAMETER_REDUCTION_TYPE, REDUCTION_METHODS,
+				REDUCTION_FIXED));
 		return list;
 	}
 }
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Applies prediction models in batches of examples. The values of a batch are read sequentially,
+ * the predictions of the batch are distributed over the threads of the {@link ConcurrencyContext}
+ * and written sequentially again. Hence, neither reading nor writing the example set needs to be
+ * thread-safe, only the prediction of a single row.
+ *
+ * @since 7.6.1
+ */
+public final class BatchScoring {
+
+    /**
+     * Predicts the values of a single row of the current batch. Must be thread-safe for different
+     * rows.
+     */
+    public interface RowPredictor {
+
+        /**
+         * Computes the prediction of the given row of the current batch.
+         *
+         * @param values the values of the example
+         * @param row    the index of the example in the batch
+         */
+        void predict(double[] values, int row);
+
+    }
+
+    /**
+     * Writes the prediction of a row of the current batch to the example.
+     */
+    public interface RowWriter {
+
+        /**
+         * Writes the prediction of the given row to the example.
+         *
+         * @param example the example
+         * @param row     the index of the example in the batch
+         * @throws OperatorException if the prediction of the row is invalid
+         */
+        void write(Example example, int row) throws OperatorException;
+
+    }
+
+    /**
+     * The number of examples read, predicted and written at once.
+     */
+    public static final int BATCH_SIZE = 4096;
+
+	/** Do not bother other threads for less examples than this. */
+	private static final int MIN_ROWS_PER_TASK = 64;
+
+	private BatchScoring() {}
+
+    /**
+     * Looks up the confidence attributes of the given example set for all values of the label
+     * mapping, indexed like the mapping.
+     *
+     * @param exampleSet the example set the predictions are written to
+     * @param mapping    the mapping of the label
+     * @return the confidence attributes or {@code null} if one of them does not exist
+     */
+    public static Attribute[] getConfidenceAttributes(ExampleSet exampleSet, NominalMapping mapping) {
+		Attribute[] confidenceAttributes = new Attribute[mapping.size()];
+		for (int i = 0; i < confidenceAttributes.length; i++) {
+			confidenceAttributes[i] = exampleSet.getAttributes().getSpecial(
+					Attributes.CONFIDENCE_NAME + "_" + mapping.mapIndex(i));
+			if (confidenceAttributes[i] == null) {
+				return null;
+			}
+		}
+		return confidenceAttributes;
+	}
+
+    /**
+     * Predicts all examples of the given set.
+     *
+     * @param exampleSet       the example set to predict
+     * @param sampleAttributes the attributes whose values are passed to the predictor, in that order
+     * @param operator         the operator applying the model, might be {@code null}
+     * @param progress         the progress to report to, might be {@code null}
+     * @param predictor        computes the prediction of a row
+     * @param writer           writes the prediction of a row
+     * @throws OperatorException if the prediction fails or the process is stopped
+     */
+    public static void apply(ExampleSet exampleSet, List<Attribute> sampleAttributes, Operator operator,
+			OperatorProgress progress, final RowPredictor predictor, RowWriter writer) throws OperatorException {
+		ConcurrencyContext context = operator != null ? Resources.getConcurrencyContext(operator) : null;
+		int parallelism = context != null ? context.getParallelism() : 1;
+
+		final double[][] values = new double[BATCH_SIZE][sampleAttributes.size()];
+		List<Example> batch = new ArrayList<>(BATCH_SIZE);
+		Iterator<Example> reader = exampleSet.iterator();
+		int completed = 0;
+		while (reader.hasNext()) {
+			// reading values
+			batch.clear();
+			while (reader.hasNext() && batch.size() < BATCH_SIZE) {
+				Example example = reader.next();
+				double[] rowValues = values[batch.size()];
+				int i = 0;
+				for (Attribute attribute : sampleAttributes) {
+					rowValues[i++] = example.getValue(attribute);
+				}
+				batch.add(example);
+			}
+
+			// predicting the rows
+			final int batchSize = batch.size();
+			int numberOfTasks = Math.min(parallelism, batchSize / MIN_ROWS_PER_TASK);
+			if (numberOfTasks > 1) {
+				List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+				for (int task = 0; task < numberOfTasks; task++) {
+					final int from = (int) ((long) batchSize * task / numberOfTasks);
+					final int to = (int) ((long) batchSize * (task + 1) / numberOfTasks);
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							for (int row = from; row < to; row++) {
+								predictor.predict(values[row], row);
+							}
+							return null;
+						}
+					});
+				}
+				try {
+					context.call(tasks);
+				} catch (ExecutionException e) {
+					throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+				}
+			} else {
+				for (int row = 0; row < batchSize; row++) {
+					predictor.predict(values[row], row);
+				}
+			}
+
+			// setting predictions
+			for (int row = 0; row < batchSize; row++) {
+				writer.write(batch.get(row), row);
+			}
+
+			completed += batchSize;
+			if (progress != null) {
+				progress.setCompleted(completed);
+			} else if (operator != null) {
+				operator.checkForStop();
+			}
+		}
+	}
+}
@@ -0,0 +1,623 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.functions.neuralnet;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * A layered view of the node graph of a neural net which keeps the weights of every layer in one
+ * dense block, row by row the bias of a node followed by the weights of its inputs. The net is
+ * trained and applied without walking the nodes.
+ * <p>
+ * With a batch size of one, the weights are updated after every example exactly like the nodes
+ * update them. With larger batch sizes, the gradients of a mini-batch are computed in parallel parts
+ * and their weighted average is used for the update. The node graph stays the view of the model,
+ * {@link #writeWeights()} copies the trained weights back into it.
+ *
+ * @since 7.6.1
+ */
+public final class DenseNeuralNet {
+
+	/** The maximal number of parts the gradient of a batch is computed in. */
+	private static final int MAX_SLICES = 16;
+
+	/** Do not bother other threads for less examples than this. */
+	private static final int MIN_ROWS_PER_SLICE = 32;
+
+	/** The number of examples after which the operator is checked for stop. */
+	private static final int STOP_CHECK_INTERVAL = 1000;
+
+	/** The sizes of all layers, starting with the input layer. */
+	private final int[] layerSizes;
+
+	/** The nodes of all but the input layer. */
+	private final InnerNode[][] layerNodes;
+
+	/** The weight blocks of all but the input layer. */
+	private final double[][] weights;
+
+	private final double[][] weightChanges;
+
+	private final boolean linearOutput;
+
+	private final String[] attributeNames;
+
+	private final double[] attributeRanges;
+
+	private final double[] attributeBases;
+
+	private final boolean[] normalize;
+
+	private final Attribute label;
+
+	private final int[] classIndices;
+
+	private final double labelRange;
+
+	private final double labelBase;
+
+	/** The workspaces of the parts of a batch, created on demand. */
+	private Slice[] slices = new Slice[0];
+
+	/** The values of the current batch. */
+	private double[][] batchInputs;
+
+	private double[] batchLabels;
+
+	private double[] batchWeights;
+
+	private DenseNeuralNet(Node[][] layers, OutputNode[] outputNodes, boolean linearOutput) {
+		int numberOfLayers = layers.length;
+		this.layerSizes = new int[numberOfLayers];
+		this.layerNodes = new InnerNode[numberOfLayers][];
+		this.weights = new double[numberOfLayers][];
+		this.weightChanges = new double[numberOfLayers][];
+		for (int l = 0; l < numberOfLayers; l++) {
+			layerSizes[l] = layers[l].length;
+		}
+		for (int l = 1; l < numberOfLayers; l++) {
+			int stride = layerSizes[l - 1] + 1;
+			layerNodes[l] = new InnerNode[layerSizes[l]];
+			weights[l] = new double[layerSizes[l] * stride];
+			weightChanges[l] = new double[layerSizes[l] * stride];
+			for (int k = 0; k < layerSizes[l]; k++) {
+				InnerNode node = (InnerNode) layers[l][k];
+				layerNodes[l][k] = node;
+				System.arraycopy(node.getWeights(), 0, weights[l], k * stride, stride);
+				System.arraycopy(node.getWeightChanges(), 0, weightChanges[l], k * stride, stride);
+			}
+		}
+		this.linearOutput = linearOutput;
+
+		int numberOfInputs = layerSizes[0];
+		this.attributeNames = new String[numberOfInputs];
+		this.attributeRanges = new double[numberOfInputs];
+		this.attributeBases = new double[numberOfInputs];
+		this.normalize = new boolean[numberOfInputs];
+		for (int i = 0; i < numberOfInputs; i++) {
+			InputNode input = (InputNode) layers[0][i];
+			attributeNames[i] = input.getAttribute().getName();
+			attributeRanges[i] = input.getAttributeRange();
+			attributeBases[i] = input.getAttributeBase();
+			normalize[i] = input.isNormalize();
+		}
+
+		this.label = outputNodes[0].getLabel();
+		this.classIndices = new int[outputNodes.length];
+		for (int o = 0; o < outputNodes.length; o++) {
+			classIndices[o] = outputNodes[o].getClassIndex();
+		}
+		this.labelRange = outputNodes[0].getLabelRange();
+		this.labelBase = outputNodes[0].getLabelBase();
+	}
+
+    /**
+     * Creates the layered view of the given node graph.
+     *
+     * @param inputNodes  the input nodes
+     * @param innerNodes  the hidden and output layer nodes
+     * @param outputNodes the output nodes
+     * @return the layered net or {@code null} if the nodes do not form fully connected layers of
+     *         sigmoid nodes (with sigmoid or linear output nodes)
+     */
+    public static DenseNeuralNet create(InputNode[] inputNodes, InnerNode[] innerNodes, OutputNode[] outputNodes) {
+		if (inputNodes.length == 0 || outputNodes.length == 0) {
+			return null;
+		}
+		for (InputNode inputNode : inputNodes) {
+			if (inputNode.getAttribute() == null) {
+				return null;
+			}
+		}
+
+		// the hidden layers ordered by their index, then the output layer
+		Map<Integer, List<InnerNode>> hiddenLayers = new TreeMap<>();
+		List<InnerNode> outputLayer = new ArrayList<>();
+		for (InnerNode node : innerNodes) {
+			if (node.getLayerIndex() == Node.OUTPUT) {
+				outputLayer.add(node);
+			} else if (node.getLayerIndex() >= 0) {
+				List<InnerNode> layer = hiddenLayers.get(node.getLayerIndex());
+				if (layer == null) {
+					layer = new ArrayList<>();
+					hiddenLayers.put(node.getLayerIndex(), layer);
+				}
+				layer.add(node);
+			} else {
+				return null;
+			}
+		}
+		if (outputLayer.size() != outputNodes.length) {
+			return null;
+		}
+		Node[][] layers = new Node[hiddenLayers.size() + 2][];
+		layers[0] = inputNodes;
+		int l = 1;
+		for (List<InnerNode> layer : hiddenLayers.values()) {
+			layers[l++] = layer.toArray(new InnerNode[layer.size()]);
+		}
+		layers[l] = outputLayer.toArray(new InnerNode[outputLayer.size()]);
+
+		// every node must be connected to all nodes of the previous and the next layer in order
+		boolean linearOutput = outputLayer.get(0).getActivationFunction().getClass() == LinearFunction.class;
+		for (l = 1; l < layers.length; l++) {
+			boolean isOutputLayer = l == layers.length - 1;
+			for (int k = 0; k < layers[l].length; k++) {
+				InnerNode node = (InnerNode) layers[l][k];
+				Class<?> function = node.getActivationFunction().getClass();
+				if (isOutputLayer ? function != (linearOutput ? LinearFunction.class : SigmoidFunction.class)
+						: function != SigmoidFunction.class) {
+					return null;
+				}
+				if (!Arrays.equals(node.getInputNodes(), layers[l - 1])
+						|| node.getWeights().length != layers[l - 1].length + 1
+						|| node.getWeightChanges().length != layers[l - 1].length + 1) {
+					return null;
+				}
+				Node[] successors = isOutputLayer ? new Node[] { outputNodes[k] } : layers[l + 1];
+				if (!Arrays.equals(node.getOutputNodes(), successors)) {
+					return null;
+				}
+				for (int index : node.getOutputNodeInputIndices()) {
+					if (index != (isOutputLayer ? 0 : k)) {
+						return null;
+					}
+				}
+			}
+		}
+		for (OutputNode outputNode : outputNodes) {
+			if (outputNode.getInputNodes().length != 1 || outputNode.getLabel() != outputNodes[0].getLabel()) {
+				return null;
+			}
+		}
+		return new DenseNeuralNet(layers, outputNodes, linearOutput);
+	}
+
+    /**
+     * Looks up the input attributes in the given example set.
+     *
+     * @param exampleSet the example set
+     * @return the attributes in the order of the input nodes or {@code null} if one is missing
+     */
+    public Attribute[] getAttributes(ExampleSet exampleSet) {
+		Attribute[] attributes = new Attribute[attributeNames.length];
+		for (int i = 0; i < attributes.length; i++) {
+			attributes[i] = exampleSet.getAttributes().get(attributeNames[i]);
+			if (attributes[i] == null) {
+				return null;
+			}
+		}
+		return attributes;
+	}
+
+    /**
+     * Trains the net for one cycle over the given example set.
+     *
+     * @param exampleSet     the training example set
+     * @param exampleIndices the order in which the examples are used or {@code null} for the order of
+     *                       the example set
+     * @param cycle          the current cycle, starting with 0
+     * @param learningRate   the learning rate
+     * @param momentum       the momentum
+     * @param decay          whether the learning rate is divided by the number of the cycle
+     * @param batchSize      the number of examples whose gradients are averaged for one update
+     * @param operator       the operator used for stop checks and parallel execution, might be
+     *                       {@code null}
+     * @return the weighted sum of the mean squared errors of the examples
+     * @throws OperatorException if the process is stopped or the parallel execution fails
+     */
+    public double trainCycle(ExampleSet exampleSet, int[] exampleIndices, int cycle, double learningRate,
+			double momentum, boolean decay, int batchSize, Operator operator) throws OperatorException {
+		Attribute[] attributes = getAttributes(exampleSet);
+		if (attributes == null) {
+			throw new IllegalArgumentException("The example set does not contain the input attributes of the net.");
+		}
+		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		int size = exampleSet.size();
+		int numberOfOutputs = classIndices.length;
+
+		double error = 0;
+		if (batchSize <= 1) {
+			// same calculations in the same order as the nodes
+			Slice slice = getSlices(1)[0];
+			for (int index = 0; index < size; index++) {
+				if (operator != null && index % STOP_CHECK_INTERVAL == 0) {
+					operator.checkForStop();
+				}
+				int exampleIndex = index;
+				if (exampleIndices != null) {
+					exampleIndex = exampleIndices[index];
+				}
+				Example example = exampleSet.getExample(exampleIndex);
+				readInputs(example, attributes, slice.activations[0]);
+				forward(slice.activations);
+
+				double weight = 1.0;
+				if (weightAttribute != null) {
+					weight = example.getValue(weightAttribute);
+				}
+				double tempRate = learningRate * weight;
+				if (decay) {
+					tempRate /= cycle + 1;
+				}
+
+				error += backward(slice, example.getValue(label)) / numberOfOutputs * weight;
+				update(slice, tempRate, momentum);
+			}
+			return error;
+		}
+
+		ConcurrencyContext context = operator != null ? Resources.getConcurrencyContext(operator) : null;
+		boolean parallel = context != null && context.getParallelism() > 1;
+		// no batch holds more rows than the example set
+		int bufferSize = Math.min(batchSize, size);
+		Slice[] batchSlices = getSlices(Math.max(1, Math.min(MAX_SLICES, bufferSize / MIN_ROWS_PER_SLICE)));
+		if (batchInputs == null || batchInputs.length < bufferSize) {
+			batchInputs = new double[bufferSize][layerSizes[0]];
+			batchLabels = new double[bufferSize];
+			batchWeights = new double[bufferSize];
+		}
+
+		for (int start = 0; start < size; start += batchSize) {
+			if (operator != null) {
+				operator.checkForStop();
+			}
+			// reading the batch
+			int rows = Math.min(batchSize, size - start);
+			for (int row = 0; row < rows; row++) {
+				int exampleIndex = start + row;
+				if (exampleIndices != null) {
+					exampleIndex = exampleIndices[exampleIndex];
+				}
+				Example example = exampleSet.getExample(exampleIndex);
+				readInputs(example, attributes, batchInputs[row]);
+				batchLabels[row] = example.getValue(label);
+				batchWeights[row] = weightAttribute != null ? example.getValue(weightAttribute) : 1.0;
+			}
+
+			// computing the gradients of the parts of the batch
+			int numberOfSlices = Math.max(1, Math.min(batchSlices.length, rows / MIN_ROWS_PER_SLICE));
+			for (int s = 0; s < numberOfSlices; s++) {
+				batchSlices[s].from = (int) ((long) rows * s / numberOfSlices);
+				batchSlices[s].to = (int) ((long) rows * (s + 1) / numberOfSlices);
+			}
+			if (parallel && numberOfSlices > 1) {
+				try {
+					context.call(Arrays.<Callable<Void>> asList(batchSlices).subList(0, numberOfSlices));
+				} catch (ExecutionException e) {
+					throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+				}
+			} else {
+				for (int s = 0; s < numberOfSlices; s++) {
+					batchSlices[s].call();
+				}
+			}
+
+			// updating with the average gradient
+			double rate = learningRate / rows;
+			if (decay) {
+				rate /= cycle + 1;
+			}
+			for (int s = 0; s < numberOfSlices; s++) {
+				error += batchSlices[s].error;
+			}
+			for (int l = 1; l < layerSizes.length; l++) {
+				double[] layerWeights = weights[l];
+				double[] layerWeightChanges = weightChanges[l];
+				for (int w = 0; w < layerWeights.length; w++) {
+					double gradient = 0;
+					for (int s = 0; s < numberOfSlices; s++) {
+						gradient += batchSlices[s].gradients[l][w];
+					}
+					double change = rate * gradient + momentum * layerWeightChanges[w];
+					layerWeights[w] += change;
+					layerWeightChanges[w] = change;
+				}
+			}
+		}
+		return error;
+	}
+
+    /**
+     * Copies the weights and the last weight changes back into the nodes.
+     */
+    public void writeWeights() {
+		for (int l = 1; l < layerSizes.length; l++) {
+			int stride = layerSizes[l - 1] + 1;
+			for (int k = 0; k < layerSizes[l]; k++) {
+				InnerNode node = layerNodes[l][k];
+				System.arraycopy(weights[l], k * stride, node.getWeights(), 0, stride);
+				System.arraycopy(weightChanges[l], k * stride, node.getWeightChanges(), 0, stride);
+			}
+		}
+	}
+
+    /**
+     * Creates the buffers for the values of all layers needed by
+     * {@link #predict(double[], double[][], double[])}. Buffers must not be shared between threads.
+     *
+     * @return the buffers
+     */
+    public double[][] createActivations() {
+		double[][] activations = new double[layerSizes.length][];
+		for (int l = 0; l < layerSizes.length; l++) {
+			activations[l] = new double[layerSizes[l]];
+		}
+		return activations;
+	}
+
+    /**
+     * Calculates the values of the output nodes for the given attribute values. Can be called by
+     * several threads at once with different buffers.
+     *
+     * @param values      the values of the attributes returned by {@link #getAttributes(ExampleSet)}
+     * @param activations buffers created by {@link #createActivations()}
+     * @param outputs     the array for the values of the output nodes
+     */
+    public void predict(double[] values, double[][] activations, double[] outputs) {
+		double[] inputs = activations[0];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = scale(i, values[i]);
+		}
+		forward(activations);
+		double[] outputLayer = activations[layerSizes.length - 1];
+		for (int o = 0; o < outputs.length; o++) {
+			double value = 0;
+			value += outputLayer[o];
+			if (!label.isNominal()) {
+				value = value * labelRange + labelBase;
+			}
+			outputs[o] = value;
+		}
+	}
+
+	private Slice[] getSlices(int numberOfSlices) {
+		if (slices.length < numberOfSlices) {
+			Slice[] newSlices = Arrays.copyOf(slices, numberOfSlices);
+			for (int s = slices.length; s < numberOfSlices; s++) {
+				newSlices[s] = new Slice();
+			}
+			slices = newSlices;
+		}
+		return slices;
+	}
+
+	private void readInputs(Example example, Attribute[] attributes, double[] inputs) {
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = scale(i, example.getValue(attributes[i]));
+		}
+	}
+
+	/** Scales the value like the input node. */
+	private double scale(int i, double value) {
+		if (Double.isNaN(value)) {
+			return 0;
+		} else if (normalize[i]) {
+			if (attributeRanges[i] != 0) {
+				return (value - attributeBases[i]) / attributeRanges[i];
+			} else {
+				return value - attributeBases[i];
+			}
+		} else {
+			return value;
+		}
+	}
+
+	/** Calculates the values of all layers from the values of the input layer. */
+	private void forward(double[][] activations) {
+		int outputLayer = layerSizes.length - 1;
+		for (int l = 1; l < layerSizes.length; l++) {
+			double[] inputs = activations[l - 1];
+			double[] outputs = activations[l];
+			double[] layerWeights = weights[l];
+			int numberOfInputs = layerSizes[l - 1];
+			boolean linear = linearOutput && l == outputLayer;
+			for (int k = 0, offset = 0; k < outputs.length; k++, offset += numberOfInputs + 1) {
+				double weightedSum = layerWeights[offset]; // bias
+				for (int i = 0; i < numberOfInputs; i++) {
+					weightedSum += inputs[i] * layerWeights[offset + 1 + i];
+				}
+				outputs[k] = linear ? weightedSum : sigmoid(weightedSum);
+			}
+		}
+	}
+
+	/** Same as {@link SigmoidFunction}. */
+	private static double sigmoid(double weightedSum) {
+		if (weightedSum < -45.0d) {
+			return 0;
+		} else if (weightedSum > 45.0d) {
+			return 1;
+		} else {
+			return 1 / (1 + Math.exp(-1 * weightedSum));
+		}
+	}
+
+	/**
+	 * Calculates the errors of all nodes of the slice from its current values and returns the sum
+	 * of the squared errors of the output nodes.
+	 */
+	private double backward(Slice slice, double labelValue) {
+		double[][] activations = slice.activations;
+		double[][] errors = slice.errors;
+		int outputLayer = layerSizes.length - 1;
+
+		double totalError = 0;
+		double[] outputs = activations[outputLayer];
+		for (int o = 0; o < outputs.length; o++) {
+			// the output node
+			double value = 0;
+			value += outputs[o];
+			double error;
+			if (label.isNominal()) {
+				if ((int) labelValue == classIndices[o]) {
+					error = 1.0d - value;
+				} else {
+					error = 0.0d - value;
+				}
+			} else {
+				value = value * labelRange + labelBase;
+				if (labelRange == 0.0d) {
+					error = 0.0d;
+				} else {
+					error = (labelValue - value) / labelRange;
+				}
+			}
+			totalError += error * error;
+
+			// the node of the output layer
+			double errorSum = 0;
+			errorSum += error;
+			if (linearOutput) {
+				errors[outputLayer][o] = errorSum;
+			} else {
+				errors[outputLayer][o] = errorSum * outputs[o] * (1 - outputs[o]);
+			}
+		}
+
+		for (int l = outputLayer - 1; l > 0; l--) {
+			double[] values = activations[l];
+			double[] nextErrors = errors[l + 1];
+			double[] nextWeights = weights[l + 1];
+			int stride = layerSizes[l] + 1;
+			for (int j = 0; j < values.length; j++) {
+				double errorSum = 0;
+				for (int k = 0; k < nextErrors.length; k++) {
+					errorSum += nextErrors[k] * nextWeights[k * stride + 1 + j];
+				}
+				errors[l][j] = errorSum * values[j] * (1 - values[j]);
+			}
+		}
+		return totalError;
+	}
+
+	/** Updates the weights by the errors of the slice like {@link ActivationFunction} does. */
+	private void update(Slice slice, double learningRate, double momentum) {
+		for (int l = 1; l < layerSizes.length; l++) {
+			double[] inputs = slice.activations[l - 1];
+			double[] layerErrors = slice.errors[l];
+			double[] layerWeights = weights[l];
+			double[] layerWeightChanges = weightChanges[l];
+			int numberOfInputs = layerSizes[l - 1];
+			for (int k = 0, offset = 0; k < layerErrors.length; k++, offset += numberOfInputs + 1) {
+				double delta = learningRate * layerErrors[k];
+				double thresholdChange = delta + momentum * layerWeightChanges[offset];
+				layerWeights[offset] += thresholdChange;
+				layerWeightChanges[offset] = thresholdChange;
+				for (int i = 0; i < numberOfInputs; i++) {
+					double currentChange = delta * inputs[i];
+					currentChange += momentum * layerWeightChanges[offset + 1 + i];
+					layerWeights[offset + 1 + i] += currentChange;
+					layerWeightChanges[offset + 1 + i] = currentChange;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The buffers for computing the gradient of a part of the current batch.
+	 */
+	private final class Slice implements Callable<Void> {
+
+		private final double[][] activations = createActivations();
+
+		private final double[][] errors = createActivations();
+
+		private double[][] gradients;
+
+		private int from;
+
+		private int to;
+
+		private double error;
+
+		@Override
+		public Void call() {
+			if (gradients == null) {
+				gradients = new double[layerSizes.length][];
+				for (int l = 1; l < layerSizes.length; l++) {
+					gradients[l] = new double[weights[l].length];
+				}
+			} else {
+				for (int l = 1; l < layerSizes.length; l++) {
+					Arrays.fill(gradients[l], 0);
+				}
+			}
+			error = 0;
+			int numberOfOutputs = classIndices.length;
+			for (int row = from; row < to; row++) {
+				activations[0] = batchInputs[row];
+				forward(activations);
+				double weight = batchWeights[row];
+				error += backward(this, batchLabels[row]) / numberOfOutputs * weight;
+
+				for (int l = 1; l < layerSizes.length; l++) {
+					double[] inputs = activations[l - 1];
+					double[] layerErrors = errors[l];
+					double[] layerGradients = gradients[l];
+					int numberOfInputs = layerSizes[l - 1];
+					for (int k = 0, offset = 0; k < layerErrors.length; k++, offset += numberOfInputs + 1) {
+						double delta = weight * layerErrors[k];
+						layerGradients[offset] += delta;
+						for (int i = 0; i < numberOfInputs; i++) {
+							layerGradients[offset + 1 + i] += delta * inputs[i];
+						}
+					}
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -107,6 +107,13 @@ public class ImprovedNeuralNetLearner extends AbstractLearner {
      */
     public static final String PARAMETER_NORMALIZE = "normalize";
 
+    /**
+     * The number of examples whose average gradient is used for one weight update.
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_BATCH_SIZE = "batch_size";
+
     /**
      * Instantiates a new Improved neural net learner.
      *
@@ -130,10 +137,11 @@ public class ImprovedNeuralNetLearner extends AbstractLearner {
 		boolean decay = getParameterAsBoolean(PARAMETER_DECAY);
 		boolean shuffle = getParameterAsBoolean(PARAMETER_SHUFFLE);
 		boolean normalize = getParameterAsBoolean(PARAMETER_NORMALIZE);
+		int batchSize = getParameterAsInt(PARAMETER_BATCH_SIZE);
 		RandomGenerator randomGenerator = RandomGenerator.getRandomGenerator(this);
 
 		model.train(exampleSet, hiddenLayers, maxCycles, maxError, learningRate, momentum, decay, shuffle, normalize,
-				randomGenerator, this);
+				batchSize, randomGenerator, this);
 		return model;
 	}
 
@@ -208,6 +216,12 @@ public class ImprovedNeuralNetLearner extends AbstractLearner {
 				"The optimization is stopped if the training error gets below this epsilon value.", 0.0d,
 				Double.POSITIVE_INFINITY, 0.00001d));
 
+		type = new ParameterTypeInt(PARAMETER_BATCH_SIZE,
+				"The number of examples whose average gradient is used for one update of the weights. With 1, the weights are updated after every example. The gradients of larger batches are computed in parallel.",
+				1, Integer.MAX_VALUE, 1);
+		type.setExpert(true);
+		types.add(type);
+
 		types.addAll(RandomGenerator.getRandomGeneratorParameters(this));
 
 		return types;
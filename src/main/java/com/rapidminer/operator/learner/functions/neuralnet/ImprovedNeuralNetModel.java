@@ -27,11 +27,13 @@ import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -90,6 +92,34 @@ public class ImprovedNeuralNetModel extends PredictionModel {
     public void train(ExampleSet exampleSet, List<String[]> hiddenLayers, int maxCycles, double maxError,
 			double learningRate, double momentum, boolean decay, boolean shuffle, boolean normalize,
 			RandomGenerator randomGenerator, Operator operator) throws OperatorException {
+		train(exampleSet, hiddenLayers, maxCycles, maxError, learningRate, momentum, decay, shuffle, normalize, 1,
+				randomGenerator, operator);
+	}
+
+    /**
+     * Trains the model. With a batch size of one, the weights are updated after every example.
+     * Larger batch sizes update the weights by the average gradient of the batch, which is computed
+     * in parallel.
+     *
+     * @param exampleSet      the example set
+     * @param hiddenLayers    the hidden layers
+     * @param maxCycles       the max cycles
+     * @param maxError        the max error
+     * @param learningRate    the learning rate
+     * @param momentum        the momentum
+     * @param decay           the decay
+     * @param shuffle         the shuffle
+     * @param normalize       the normalize
+     * @param batchSize       the number of examples per weight update
+     * @param randomGenerator the random generator
+     * @param operator        can be <code>null</code>, used to checkForStop and for parallel
+     *                        execution
+     * @throws OperatorException the operator exception
+     * @since 7.6.1
+     */
+    public void train(ExampleSet exampleSet, List<String[]> hiddenLayers, int maxCycles, double maxError,
+			double learningRate, double momentum, boolean decay, boolean shuffle, boolean normalize, int batchSize,
+			RandomGenerator randomGenerator, Operator operator) throws OperatorException {
 		Attribute label = exampleSet.getAttributes().getLabel();
 
 		int numberOfClasses = getNumberOfClasses(label);
@@ -138,11 +168,16 @@ public class ImprovedNeuralNetModel extends PredictionModel {
 			}
 		}
 
-		// optimization loop
+		// optimization loop, on the dense layers if the net consists of such
+		DenseNeuralNet denseNet = DenseNeuralNet.create(inputNodes, innerNodes, outputNodes);
 		for (int cycle = 0; cycle < maxCycles; cycle++) {
 			checkForStop(operator);
 			double error = 0;
-			int maxSize = exampleSet.size();
+			int maxSize = denseNet != null ? 0 : exampleSet.size();
+			if (denseNet != null) {
+				error = denseNet.trainCycle(exampleSet, exampleIndices, cycle, learningRate, momentum, decay, batchSize,
+						operator);
+			}
 			for (int index = 0; index < maxSize; index++) {
 				checkForStop(operator);
 				int exampleIndex = index;
@@ -184,9 +219,14 @@ public class ImprovedNeuralNetModel extends PredictionModel {
 				}
 				learningRate /= 2;
 				train(exampleSet, hiddenLayers, maxCycles, maxError, learningRate, momentum, decay, shuffle, normalize,
-						randomGenerator, operator);
+						batchSize, randomGenerator, operator);
+				// continue on the retrained nodes
+				denseNet = DenseNeuralNet.create(inputNodes, innerNodes, outputNodes);
 			}
 		}
+		if (denseNet != null) {
+			denseNet.writeWeights();
+		}
 	}
 
 	@Override
@@ -196,6 +236,14 @@ public class ImprovedNeuralNetModel extends PredictionModel {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
+
+		final DenseNeuralNet denseNet = DenseNeuralNet.create(inputNodes, innerNodes, outputNodes);
+		Attribute[] attributes = denseNet != null ? denseNet.getAttributes(exampleSet) : null;
+		if (attributes != null) {
+			performDensePrediction(exampleSet, predictedLabel, denseNet, attributes, progress);
+			return exampleSet;
+		}
+
 		int progressCounter = 0;
 		for (Example example : exampleSet) {
 			resetNetwork();
@@ -239,6 +287,61 @@ public class ImprovedNeuralNetModel extends PredictionModel {
 		return exampleSet;
 	}
 
+	/**
+	 * Predicts the examples on the dense layers in parallel batches. The same calculations as on the
+	 * nodes.
+	 */
+	private void performDensePrediction(ExampleSet exampleSet, final Attribute predictedLabel,
+			final DenseNeuralNet denseNet, Attribute[] attributes, OperatorProgress progress) throws OperatorException {
+		final int numberOfOutputs = outputNodes.length;
+		final double[][] outputs = new double[BatchScoring.BATCH_SIZE][numberOfOutputs];
+		final ThreadLocal<double[][]> activations = new ThreadLocal<double[][]>() {
+
+			@Override
+			protected double[][] initialValue() {
+				return denseNet.createActivations();
+			}
+		};
+		BatchScoring.apply(exampleSet, Arrays.asList(attributes), getOperator(), progress,
+				new BatchScoring.RowPredictor() {
+
+					@Override
+					public void predict(double[] values, int row) {
+						denseNet.predict(values, activations.get(), outputs[row]);
+					}
+				}, new BatchScoring.RowWriter() {
+
+					@Override
+					public void write(Example example, int row) {
+						double[] classProbabilities = outputs[row];
+						if (predictedLabel.isNominal()) {
+							double total = 0.0;
+							for (int c = 0; c < numberOfOutputs; c++) {
+								total += classProbabilities[c];
+							}
+
+							double maxConfidence = Double.NEGATIVE_INFINITY;
+							int maxIndex = 0;
+							for (int c = 0; c < numberOfOutputs; c++) {
+								classProbabilities[c] /= total;
+								if (classProbabilities[c] > maxConfidence) {
+									maxIndex = c;
+									maxConfidence = classProbabilities[c];
+								}
+							}
+
+							example.setValue(predictedLabel,
+									predictedLabel.getMapping().mapString(getLabel().getMapping().mapIndex(maxIndex)));
+							for (int c = 0; c < numberOfOutputs; c++) {
+								example.setConfidence(getLabel().getMapping().mapIndex(c), classProbabilities[c]);
+							}
+						} else {
+							example.setValue(predictedLabel, classProbabilities[0]);
+						}
+					}
+				});
+	}
+
     /**
      * Get attribute names string [ ].
      *
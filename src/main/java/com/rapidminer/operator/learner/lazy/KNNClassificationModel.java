@@ -26,12 +26,14 @@ import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.example.set.ExampleSetUtilities.SetsCompareOption;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.UpdateablePredictionModel;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Tupel;
 import com.rapidminer.tools.math.container.GeometricDataCollection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 
@@ -44,8 +46,6 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 
 	private static final long serialVersionUID = -6292869962412072573L;
 
-	private static final int OPERATOR_PROGRESS_STEPS = 1000;
-
 	private int k;
 
 	private int size;
@@ -81,7 +81,7 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 	}
 
 	@Override
-	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+	public ExampleSet performPrediction(ExampleSet exampleSet, final Attribute predictedLabel) throws OperatorException {
 		// building attribute order from trainingset
 		ArrayList<Attribute> sampleAttributes = new ArrayList<Attribute>(sampleAttributeNames.size());
 		Attributes attributes = exampleSet.getAttributes();
@@ -94,77 +94,84 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
-		int progressCounter = 0;
-
-		double[] values = new double[sampleAttributes.size()];
-		for (Example example : exampleSet) {
-			// reading values
-			int i = 0;
-			for (Attribute attribute : sampleAttributes) {
-				values[i] = example.getValue(attribute);
-				i++;
-			}
 
-			// counting frequency of labels
-			double[] counter = new double[predictedLabel.getMapping().size()];
-			double totalDistance = 0;
-			if (!weightByDistance || k == 1) {
-				// finding next k neighbours
-				Collection<Integer> neighbourLabels = samples.getNearestValues(k, values);
-				// distance is 1 for complete neighbourhood
-				totalDistance = k;
-
-				// counting frequency of labels
-				for (int index : neighbourLabels) {
-					counter[index] += 1 / totalDistance;
-				}
-			} else {
-				// finding next k neighbours and their distances
-				Collection<Tupel<Double, Integer>> neighbours = samples.getNearestValueDistances(k, values);
-				for (Tupel<Double, Integer> tupel : neighbours) {
-					totalDistance += tupel.getFirst();
-				}
+		// the label frequencies of the current batch
+		final int numberOfLabels = predictedLabel.getMapping().size();
+		final double[][] counters = new double[BatchScoring.BATCH_SIZE][numberOfLabels];
+		BatchScoring.apply(exampleSet, sampleAttributes, getOperator(), progress, new BatchScoring.RowPredictor() {
 
-				double totalSimilarity = 0.0d;
-				if (totalDistance == 0) {
-					totalDistance = 1;
-					totalSimilarity = k;
+			@Override
+			public void predict(double[] values, int row) {
+				double[] counter = counters[row];
+				Arrays.fill(counter, 0);
+				countLabels(values, counter);
+			}
+		}, new BatchScoring.RowWriter() {
+
+			@Override
+			public void write(Example example, int row) {
+				double[] counter = counters[row];
+				// finding most frequent class
+				int mostFrequentIndex = Integer.MIN_VALUE;
+				double mostFrequentFrequency = Double.NEGATIVE_INFINITY;
+				for (int index = 0; index < counter.length; index++) {
+					if (mostFrequentFrequency < counter[index]) {
+						mostFrequentFrequency = counter[index];
+						mostFrequentIndex = index;
+					}
+				}
+				// setting prediction
+				if (mostFrequentIndex == Integer.MIN_VALUE) {
+					example.setValue(predictedLabel, Double.NaN);
 				} else {
-					totalSimilarity = Math.max(k - 1, 1);
+					example.setValue(predictedLabel, mostFrequentIndex);
 				}
 
-				// counting frequency of labels
-				for (Tupel<Double, Integer> tupel : neighbours) {
-					counter[tupel.getSecond()] += (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
+				// setting confidence
+				for (int index = 0; index < counter.length; index++) {
+					example.setConfidence(predictedLabel.getMapping().mapIndex(index), counter[index]);
 				}
 			}
-			// finding most frequent class
-			int mostFrequentIndex = Integer.MIN_VALUE;
-			double mostFrequentFrequency = Double.NEGATIVE_INFINITY;
-			for (int index = 0; index < counter.length; index++) {
-				if (mostFrequentFrequency < counter[index]) {
-					mostFrequentFrequency = counter[index];
-					mostFrequentIndex = index;
-				}
+		});
+		return exampleSet;
+	}
+
+	/**
+	 * Counts the (weighted) frequencies of the labels of the nearest neighbours of the given values.
+	 * This method is called concurrently for different examples.
+	 */
+	private void countLabels(double[] values, double[] counter) {
+		double totalDistance = 0;
+		if (!weightByDistance || k == 1) {
+			// finding next k neighbours
+			Collection<Integer> neighbourLabels = samples.getNearestValues(k, values);
+			// distance is 1 for complete neighbourhood
+			totalDistance = k;
+
+			// counting frequency of labels
+			for (int index : neighbourLabels) {
+				counter[index] += 1 / totalDistance;
 			}
-			// setting prediction
-			if (mostFrequentIndex == Integer.MIN_VALUE) {
-				example.setValue(predictedLabel, Double.NaN);
-			} else {
-				example.setValue(predictedLabel, mostFrequentIndex);
+		} else {
+			// finding next k neighbours and their distances
+			Collection<Tupel<Double, Integer>> neighbours = samples.getNearestValueDistances(k, values);
+			for (Tupel<Double, Integer> tupel : neighbours) {
+				totalDistance += tupel.getFirst();
 			}
 
-			// setting confidence
-			for (int index = 0; index < counter.length; index++) {
-				example.setConfidence(predictedLabel.getMapping().mapIndex(index), counter[index]);
+			double totalSimilarity = 0.0d;
+			if (totalDistance == 0) {
+				totalDistance = 1;
+				totalSimilarity = k;
+			} else {
+				totalSimilarity = Math.max(k - 1, 1);
 			}
 
-			// trigger progress
-			if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
-				progress.setCompleted(progressCounter);
+			// counting frequency of labels
+			for (Tupel<Double, Integer> tupel : neighbours) {
+				counter[tupel.getSecond()] += (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
 			}
 		}
-		return exampleSet;
 	}
 
 	@Override
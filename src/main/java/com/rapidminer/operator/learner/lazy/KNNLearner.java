@@ -26,20 +26,24 @@ import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorCapability;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
 import com.rapidminer.operator.learner.AbstractLearner;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.ports.metadata.DistanceMeasurePrecondition;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.conditions.AboveOperatorVersionCondition;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.math.container.GeometricDataCollection;
-import com.rapidminer.tools.math.container.LinearList;
+import com.rapidminer.tools.math.container.GeometricDataCollections;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 import com.rapidminer.tools.math.similarity.DistanceMeasureHelper;
 import com.rapidminer.tools.math.similarity.DistanceMeasures;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -60,6 +64,16 @@ public class KNNLearner extends AbstractLearner {
      */
     public static final String PARAMETER_WEIGHTED_VOTE = "weighted_vote";
 
+    /**
+     * The parameter name for &quot;The structure used to search for the nearest neighbors.&quot;
+     */
+    public static final String PARAMETER_SEARCH_STRUCTURE = "search_structure";
+
+    /**
+     * Up to this version, the samples are always searched linearly.
+     */
+    public static final OperatorVersion VERSION_LINEAR_SEARCH_ONLY = new OperatorVersion(7, 6, 0);
+
 	private DistanceMeasureHelper measureHelper = new DistanceMeasureHelper(this);
 
     /**
@@ -77,43 +91,55 @@ public class KNNLearner extends AbstractLearner {
 	public Model learn(ExampleSet exampleSet) throws OperatorException {
 		DistanceMeasure measure = measureHelper.getInitializedMeasure(exampleSet);
 		Attribute label = exampleSet.getAttributes().getLabel();
+		Attributes attributes = exampleSet.getAttributes();
+
+		// reading the sample points
+		int valuesSize = attributes.size();
+		List<double[]> points = new ArrayList<>(exampleSet.size());
+		List<Double> labelValues = new ArrayList<>(exampleSet.size());
+		boolean hasMissingValues = false;
+		for (Example example : exampleSet) {
+			double[] values = new double[valuesSize];
+			int i = 0;
+			for (Attribute attribute : attributes) {
+				values[i] = example.getValue(attribute);
+				hasMissingValues |= Double.isNaN(values[i]);
+				i++;
+			}
+			points.add(values);
+			labelValues.add(example.getValue(label));
+			checkForStop();
+		}
+
+		boolean onlyNumerical = true;
+		for (Attribute attribute : attributes) {
+			onlyNumerical &= attribute.isNumerical();
+		}
+		int structure = GeometricDataCollections.LINEAR_SEARCH;
+		if (getCompatibilityLevel().isAbove(VERSION_LINEAR_SEARCH_ONLY)) {
+			int requested = getParameterAsInt(PARAMETER_SEARCH_STRUCTURE);
+			structure = GeometricDataCollections.selectSearchStructure(requested, measure, valuesSize,
+					exampleSet.size(), onlyNumerical, hasMissingValues);
+			if (requested != GeometricDataCollections.AUTOMATIC && requested != structure) {
+				getLogger().warning("The " + GeometricDataCollections.SEARCH_STRUCTURES[requested]
+						+ " does not support the selected distance measure or missing values, using linear search instead.");
+			}
+		}
+
 		if (label.isNominal()) {
 			// classification
-			GeometricDataCollection<Integer> samples = new LinearList<Integer>(measure);
-
-			Attributes attributes = exampleSet.getAttributes();
-
-			int valuesSize = attributes.size();
-			for (Example example : exampleSet) {
-				double[] values = new double[valuesSize];
-				int i = 0;
-				for (Attribute attribute : attributes) {
-					values[i] = example.getValue(attribute);
-					i++;
-				}
-				int labelValue = (int) example.getValue(label);
-				samples.add(values, labelValue);
-				checkForStop();
+			List<Integer> labelIndices = new ArrayList<>(labelValues.size());
+			for (double labelValue : labelValues) {
+				labelIndices.add((int) labelValue);
 			}
+			GeometricDataCollection<Integer> samples = GeometricDataCollections.create(structure, valuesSize, measure,
+					points, labelIndices);
 			return new KNNClassificationModel(exampleSet, samples, getParameterAsInt(PARAMETER_K),
 					getParameterAsBoolean(PARAMETER_WEIGHTED_VOTE));
 		} else {
 			// regression
-			GeometricDataCollection<Double> samples = new LinearList<Double>(measure);
-			Attributes attributes = exampleSet.getAttributes();
-
-			int valuesSize = attributes.size();
-			for (Example example : exampleSet) {
-				double[] values = new double[valuesSize];
-				int i = 0;
-				for (Attribute attribute : attributes) {
-					values[i] = example.getValue(attribute);
-					i++;
-				}
-				double labelValue = example.getValue(label);
-				samples.add(values, labelValue);
-				checkForStop();
-			}
+			GeometricDataCollection<Double> samples = GeometricDataCollections.create(structure, valuesSize, measure,
+					points, labelValues);
 			return new KNNRegressionModel(exampleSet, samples, getParameterAsInt(PARAMETER_K),
 					getParameterAsBoolean(PARAMETER_WEIGHTED_VOTE));
 		}
@@ -165,9 +191,24 @@ public class KNNLearner extends AbstractLearner {
 				"Indicates if the votes should be weighted by similarity.", false, false));
 
 		types.addAll(DistanceMeasures.getParameterTypes(this));
+
+		type = new ParameterTypeCategory(PARAMETER_SEARCH_STRUCTURE,
+				"The structure used to search for the nearest neighbors. Trees are only used for distance measures and data they return exact results for, automatic chooses depending on the number of examples and dimensions.",
+				GeometricDataCollections.SEARCH_STRUCTURES, GeometricDataCollections.AUTOMATIC, true);
+		type.registerDependencyCondition(new AboveOperatorVersionCondition(this, VERSION_LINEAR_SEARCH_ONLY));
+		types.add(type);
 		return types;
 	}
 
+	@Override
+	public OperatorVersion[] getIncompatibleVersionChanges() {
+		OperatorVersion[] old = super.getIncompatibleVersionChanges();
+		OperatorVersion[] newVersions = new OperatorVersion[old.length + 1];
+		System.arraycopy(old, 0, newVersions, 0, old.length);
+		newVersions[old.length] = VERSION_LINEAR_SEARCH_ONLY;
+		return newVersions;
+	}
+
 	@Override
 	public ResourceConsumptionEstimator getResourceConsumptionEstimator() {
 		return OperatorResourceConsumptionHandler.getResourceConsumptionEstimator(getExampleSetInputPort(),
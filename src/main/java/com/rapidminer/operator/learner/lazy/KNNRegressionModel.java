@@ -26,6 +26,7 @@ import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.example.set.ExampleSetUtilities.SetsCompareOption;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.UpdateablePredictionModel;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Tupel;
@@ -44,8 +45,6 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 
 	private static final long serialVersionUID = -6292869962412072573L;
 
-	private static final int OPERATOR_PROGRESS_STEPS = 1000;
-
 	private int k;
 
 	private int size;
@@ -81,7 +80,7 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 	}
 
 	@Override
-	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+	public ExampleSet performPrediction(ExampleSet exampleSet, final Attribute predictedLabel) throws OperatorException {
 		// building attribute order from trainingset
 		ArrayList<Attribute> sampleAttributes = new ArrayList<Attribute>(sampleAttributeNames.size());
 		Attributes attributes = exampleSet.getAttributes();
@@ -95,59 +94,65 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
-		int progressCounter = 0;
-
-		double[] values = new double[sampleAttributes.size()];
-		for (Example example : exampleSet) {
-			// reading values
-			int i = 0;
-			for (Attribute attribute : sampleAttributes) {
-				values[i] = example.getValue(attribute);
-				i++;
+
+		// the predictions of the current batch
+		final double[] results = new double[BatchScoring.BATCH_SIZE];
+		BatchScoring.apply(exampleSet, sampleAttributes, getOperator(), progress, new BatchScoring.RowPredictor() {
+
+			@Override
+			public void predict(double[] values, int row) {
+				results[row] = computePrediction(values);
 			}
+		}, new BatchScoring.RowWriter() {
 
-			double result = 0;
-			if (!weightByDistance) {
-				// finding next k neighbours
-				Collection<Double> neighbourLabels = samples.getNearestValues(k, values);
+			@Override
+			public void write(Example example, int row) {
+				// setting prediction
+				example.setValue(predictedLabel, results[row]);
+			}
+		});
 
-				// building mean
-				for (double label : neighbourLabels) {
-					result += label;
-				}
-				result /= k;
-			} else {
-				// finding next k neighbours and their distances
-				Collection<Tupel<Double, Double>> neighbourTupels = samples.getNearestValueDistances(k, values);
-				// finding total distance
-				double totalDistance = 0;
-				for (Tupel<Double, Double> tupel : neighbourTupels) {
-					totalDistance += tupel.getFirst();
-				}
+		return exampleSet;
+	}
 
-				double totalSimilarity = 0.0d;
-				if (totalDistance == 0) {
-					totalDistance = 1;
-					totalSimilarity = k;
-				} else {
-					totalSimilarity = Math.max(k - 1, 1);
-				}
+	/**
+	 * Computes the (weighted) mean label of the nearest neighbours of the given values. This method
+	 * is called concurrently for different examples.
+	 */
+	private double computePrediction(double[] values) {
+		double result = 0;
+		if (!weightByDistance) {
+			// finding next k neighbours
+			Collection<Double> neighbourLabels = samples.getNearestValues(k, values);
+
+			// building mean
+			for (double label : neighbourLabels) {
+				result += label;
+			}
+			result /= k;
+		} else {
+			// finding next k neighbours and their distances
+			Collection<Tupel<Double, Double>> neighbourTupels = samples.getNearestValueDistances(k, values);
+			// finding total distance
+			double totalDistance = 0;
+			for (Tupel<Double, Double> tupel : neighbourTupels) {
+				totalDistance += tupel.getFirst();
+			}
 
-				// building weighted mean
-				for (Tupel<Double, Double> tupel : neighbourTupels) {
-					result += tupel.getSecond() * (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
-				}
+			double totalSimilarity = 0.0d;
+			if (totalDistance == 0) {
+				totalDistance = 1;
+				totalSimilarity = k;
+			} else {
+				totalSimilarity = Math.max(k - 1, 1);
 			}
-			// setting prediction
-			example.setValue(predictedLabel, result);
 
-			// trigger progress
-			if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
-				progress.setCompleted(progressCounter);
+			// building weighted mean
+			for (Tupel<Double, Double> tupel : neighbourTupels) {
+				result += tupel.getSecond() * (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
 			}
 		}
-
-		return exampleSet;
+		return result;
 	}
 
 	@Override
@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.learner.meta;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.AttributeWeights;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.*;
@@ -29,9 +30,21 @@ import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.*;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 /**
  * A <tt>MetaLearner</tt> is an operator that encapsulates one or more learning steps to build its
@@ -42,6 +55,34 @@ import com.rapidminer.tools.Tools;
  */
 public abstract class AbstractMetaLearner extends OperatorChain implements Learner {
 
+    /**
+     * The parameter name for &quot;Enables the parallel training of the independent base models.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
+    /**
+     * Provides the training sets of the base models learned by
+     * {@link AbstractMetaLearner#applyInnerLearnerInParallel(int, RandomGenerator, TrainingSetProvider)}.
+     * Must be thread-safe.
+     *
+     * @since 7.6.1
+     */
+    protected interface TrainingSetProvider {
+
+        /**
+         * Creates the training set of the given base model.
+         *
+         * @param index the index of the base model
+         * @param seed  the non-negative random seed of the base model
+         * @return the training set
+         * @throws OperatorException if the training set cannot be created
+         */
+        ExampleSet getTrainingSet(int index, int seed) throws OperatorException;
+
+    }
+
     /**
      * The Example set input.
      */
@@ -187,6 +228,125 @@ public abstract class AbstractMetaLearner extends OperatorChain implements Learn
 		getSubprocess(0).execute();
 	}
 
+    /**
+     * Checks whether the user has enabled the parallel execution, whether more than one thread is
+     * available and whether there are no breakpoints inside the subprocess. Only meta learners
+     * offering the {@link #getParallelExecutionParameter() parameter} can execute in parallel.
+     *
+     * @return {@code true} if the base models should be learned in parallel
+     * @since 7.6.1
+     */
+    protected boolean checkParallelizability() {
+		if (getParameterType(PARAMETER_ENABLE_PARALLEL_EXECUTION) == null
+				|| !getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION)
+				|| Resources.getConcurrencyContext(this).getParallelism() < 2) {
+			return false;
+		}
+		for (Operator operator : getSubprocess(0).getAllInnerOperators()) {
+			if (operator.isEnabled() && operator.hasBreakpoint()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+    /**
+     * Called by {@link #applyInnerLearnerInParallel(int, RandomGenerator, TrainingSetProvider)} on
+     * the copy learning a base model with the index of the model before it is learned, and on this
+     * operator with the number of learned models whenever a model has been learned. Meta learners
+     * offering their current iteration as value should update it. Does nothing by default.
+     *
+     * @param iteration the index of the model learned by the copy or the number of learned models
+     * @since 7.6.1
+     */
+    protected void updateIteration(int iteration) {}
+
+    /**
+     * Creates the parameter enabling the parallel execution, to be added by meta learners which
+     * use {@link #applyInnerLearnerInParallel(int, RandomGenerator, TrainingSetProvider)}.
+     *
+     * @return the parameter type
+     * @since 7.6.1
+     */
+    protected ParameterType getParallelExecutionParameter() {
+		return new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"This parameter enables the parallel training of the base models. Please disable the parallel execution if you run into memory problems.",
+				false, true);
+	}
+
+    /**
+     * Applies the inner learner to the training sets of all base models concurrently. Every worker
+     * learns its base models on its own clone of this operator (see
+     * {@link ExecutionUnit#cloneExecutionUnitFrom(ExecutionUnit, boolean)}).
+     * <p>
+     * The seeds of the base models are drawn from the given generator in the order of the models
+     * before any model is learned. Each model is learned with a global random generator seeded with
+     * its seed, hence the result does not depend on the scheduling of the workers. The workers call
+     * {@link #inApplyLoop()} once for every model as soon as it is learned. The iteration is
+     * updated by {@link #updateIteration(int)} for the copies and this operator.
+     *
+     * @param numberOfModels the number of base models
+     * @param random         the generator of the seeds of the base models
+     * @param provider       the provider of the training sets, which should be derived from a thread-safe
+     *                       copy of the input
+     * @return the base models in the order of their indices
+     * @throws OperatorException if the learning of a base model fails
+     * @since 7.6.1
+     */
+    protected final List<Model> applyInnerLearnerInParallel(final int numberOfModels, RandomGenerator random,
+			final TrainingSetProvider provider) throws OperatorException {
+		final int[] seeds = new int[numberOfModels];
+		for (int i = 0; i < numberOfModels; i++) {
+			seeds[i] = random.nextInt(Integer.MAX_VALUE);
+		}
+		final Model[] models = new Model[numberOfModels];
+		final AtomicInteger nextModel = new AtomicInteger();
+		final AtomicInteger learnedModels = new AtomicInteger();
+		final Object loopLock = new Object();
+
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		int numberOfWorkers = Math.min(context.getParallelism(), numberOfModels);
+		List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final AbstractMetaLearner copy = (AbstractMetaLearner) cloneOperator(getName(), true);
+			workers.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					// the copy is not part of the execution unit but needs it to access the process
+					copy.setEnclosingProcess(getExecutionUnit());
+					try {
+						int index;
+						while ((index = nextModel.getAndIncrement()) < numberOfModels) {
+							copy.updateIteration(index);
+							RandomGenerator previous = RandomGenerator
+									.setGlobalRandomGenerator(new RandomGenerator(seeds[index]));
+							try {
+								models[index] = copy.applyInnerLearner(provider.getTrainingSet(index, seeds[index]));
+							} finally {
+								RandomGenerator.setGlobalRandomGenerator(previous);
+							}
+							synchronized (loopLock) {
+								updateIteration(learnedModels.incrementAndGet());
+								inApplyLoop();
+							}
+						}
+					} finally {
+						copy.setEnclosingProcess(null);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(workers);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+		return Arrays.asList(models);
+	}
+
 	@Override
 	public boolean shouldAutoConnect(OutputPort port) {
 		if (port == exampleSetOutput) {
@@ -21,7 +21,9 @@ package com.rapidminer.operator.learner.meta;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeWeights;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.*;
+import com.rapidminer.operator.execution.ParallelUnitExecutor;
 import com.rapidminer.operator.learner.Learner;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.performance.PerformanceVector;
@@ -33,9 +35,21 @@ import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.GeneratePredictionModelTransformationRule;
 import com.rapidminer.operator.ports.metadata.PredictionModelMetaData;
 import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -47,6 +61,13 @@ import java.util.List;
  */
 public abstract class AbstractStacking extends OperatorChain implements Learner {
 
+    /**
+     * The parameter name for &quot;Enables the parallel training of the base models.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
     /**
      * The Example set input.
      */
@@ -122,9 +143,14 @@ public abstract class AbstractStacking extends OperatorChain implements Learner
 	@Override
 	public Model learn(ExampleSet exampleSet) throws OperatorException {
 		// learn base models
-		baseInputExtender.deliverToAll(exampleSet, false);
-		getBaseModelLearnerProcess().execute();
-		List<Model> baseModels = baseModelExtender.getData(Model.class, true);
+		List<Model> baseModels;
+		if (checkParallelizability()) {
+			baseModels = learnBaseModelsInParallel(ExampleSets.createThreadSafeCopy(exampleSet));
+		} else {
+			baseInputExtender.deliverToAll(exampleSet, false);
+			getBaseModelLearnerProcess().execute();
+			baseModels = baseModelExtender.getData(Model.class, true);
+		}
 
 		// create temporary example set for stacking
 		ExampleSet stackingLearningSet = (ExampleSet) exampleSet.clone();
@@ -160,6 +186,125 @@ public abstract class AbstractStacking extends OperatorChain implements Learner
 		return new StackingModel(exampleSet, getModelName(), baseModels, stackingModel, keepOldAttributes());
 	}
 
+	/**
+	 * Learns the base models delivered to the connected base model ports concurrently. Every task
+	 * executes the base learner process of its own clone of this operator, in which only the
+	 * operators delivering to its port are enabled. Each task uses a global random generator
+	 * seeded with its own seed, drawn from the global random generator in the order of the ports
+	 * before any model is learned.
+	 */
+	private List<Model> learnBaseModelsInParallel(final ExampleSet threadSafeSet) throws OperatorException {
+		List<Integer> connectedPorts = new ArrayList<>();
+		List<InputPort> ports = baseModelExtender.getManagedPorts();
+		for (int i = 0; i < ports.size(); i++) {
+			if (ports.get(i).isConnected()) {
+				connectedPorts.add(i);
+			}
+		}
+		RandomGenerator globalGenerator = RandomGenerator.getGlobalRandomGenerator();
+		List<Callable<List<Model>>> tasks = new ArrayList<>(connectedPorts.size());
+		for (final int port : connectedPorts) {
+			final int seed = globalGenerator.nextInt(Integer.MAX_VALUE);
+			final AbstractStacking copy = (AbstractStacking) cloneOperator(getName(), true);
+			tasks.add(new Callable<List<Model>>() {
+
+				@Override
+				public List<Model> call() throws OperatorException {
+					copy.restrictToPort(port);
+					// the copy is not part of the execution unit but needs it to access the process
+					copy.setEnclosingProcess(getExecutionUnit());
+					RandomGenerator previous = RandomGenerator.setGlobalRandomGenerator(new RandomGenerator(seed));
+					try {
+						// every base learner works on its own view of the thread-safe copy
+						copy.baseInputExtender.deliverToAll(threadSafeSet, true);
+						copy.getBaseModelLearnerProcess().execute();
+						return copy.baseModelExtender.getData(Model.class, true);
+					} finally {
+						RandomGenerator.setGlobalRandomGenerator(previous);
+						copy.setEnclosingProcess(null);
+					}
+				}
+			});
+		}
+
+		List<List<Model>> results;
+		try {
+			results = Resources.getConcurrencyContext(this).call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+		List<Model> baseModels = new ArrayList<>();
+		for (List<Model> models : results) {
+			baseModels.addAll(models);
+		}
+		return baseModels;
+	}
+
+	/**
+	 * Disconnects all base model ports except for the given one and disables all operators of the
+	 * base learner process which do not deliver to it. Must only be called for a clone which is not
+	 * part of a process.
+	 */
+	private void restrictToPort(int port) {
+		List<InputPort> ports = baseModelExtender.getManagedPorts();
+		for (int i = 0; i < ports.size(); i++) {
+			if (i != port && ports.get(i).isConnected()) {
+				ports.get(i).getSource().disconnect();
+			}
+		}
+		ExecutionUnit unit = getBaseModelLearnerProcess();
+		Set<Operator> required = new HashSet<>();
+		Deque<InputPort> pending = new ArrayDeque<>();
+		pending.add(ports.get(port));
+		while (!pending.isEmpty()) {
+			InputPort input = pending.poll();
+			if (!input.isConnected()) {
+				continue;
+			}
+			Operator source = input.getSource().getPorts().getOwner().getOperator();
+			if (source != this && required.add(source)) {
+				pending.addAll(source.getInputPorts().getAllPorts());
+			}
+		}
+		for (Operator operator : unit.getOperators()) {
+			if (!required.contains(operator)) {
+				operator.setEnabled(false);
+			}
+		}
+	}
+
+    /**
+     * Checks whether the user has enabled the parallel execution, whether more than one thread is
+     * available and whether there are no breakpoints and no operators with side effects (see
+     * {@link ParallelUnitExecutor#hasSideEffects(Operator)}) inside the base learner process. The
+     * latter might be needed by operators which are disabled in the copies learning a single base
+     * model.
+     *
+     * @return {@code true} if the base models should be learned in parallel
+     * @since 7.6.1
+     */
+    protected boolean checkParallelizability() {
+		if (!getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION)
+				|| Resources.getConcurrencyContext(this).getParallelism() < 2) {
+			return false;
+		}
+		for (Operator operator : getBaseModelLearnerProcess().getAllInnerOperators()) {
+			if (operator.isEnabled() && (operator.hasBreakpoint() || ParallelUnitExecutor.hasSideEffects(operator))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public List<ParameterType> getParameterTypes() {
+		List<ParameterType> types = super.getParameterTypes();
+		types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"This parameter enables the parallel training of the base models. Please disable the parallel execution if you run into memory problems.",
+				false, true));
+		return types;
+	}
+
 	/** The default implementation throws an exception. */
 	@Override
 	public PerformanceVector getEstimatedPerformance() throws OperatorException {
@@ -20,6 +20,7 @@ package com.rapidminer.operator.learner.meta;
 
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.SplittedExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.*;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
@@ -58,7 +59,7 @@ public class Bagging extends AbstractMetaLearner {
      * The Current iteration.
      */
 // field for visualizing performance
-	protected int currentIteration;
+	protected volatile int currentIteration;
 
     /**
      * Constructor.  @param description the description
@@ -87,12 +88,29 @@ public class Bagging extends AbstractMetaLearner {
 		int localRandomSeed = getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED);
 
 		Vector<Model> modelList = new Vector<Model>();
-		for (this.currentIteration = 0; this.currentIteration < numInterations; this.currentIteration++) {
-			SplittedExampleSet splitted = new SplittedExampleSet(exampleSet, splitRatio,
-					SplittedExampleSet.SHUFFLED_SAMPLING, useLocalRandomSeed, localRandomSeed);
-			splitted.selectSingleSubset(0);
-			modelList.add(applyInnerLearner(splitted));
-			inApplyLoop();
+		if (checkParallelizability()) {
+			// every iteration samples with its own seed
+			final ExampleSet threadSafeSet = ExampleSets.createThreadSafeCopy(exampleSet);
+			modelList.addAll(applyInnerLearnerInParallel(numInterations, RandomGenerator.getRandomGenerator(this),
+					new TrainingSetProvider() {
+
+						@Override
+						public ExampleSet getTrainingSet(int index, int seed) throws OperatorException {
+							SplittedExampleSet splitted = new SplittedExampleSet(threadSafeSet, splitRatio,
+									SplittedExampleSet.SHUFFLED_SAMPLING, true, seed);
+							splitted.selectSingleSubset(0);
+							return splitted;
+						}
+					}));
+			this.currentIteration = numInterations;
+		} else {
+			for (this.currentIteration = 0; this.currentIteration < numInterations; this.currentIteration++) {
+				SplittedExampleSet splitted = new SplittedExampleSet(exampleSet, splitRatio,
+						SplittedExampleSet.SHUFFLED_SAMPLING, useLocalRandomSeed, localRandomSeed);
+				splitted.selectSingleSubset(0);
+				modelList.add(applyInnerLearner(splitted));
+				inApplyLoop();
+			}
 		}
 
 		boolean numerical = exampleSet.getAttributes().getLabel().isNumerical();
@@ -107,6 +125,11 @@ public class Bagging extends AbstractMetaLearner {
 		}
 	}
 
+	@Override
+	protected void updateIteration(int iteration) {
+		this.currentIteration = iteration;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -124,6 +147,8 @@ public class Bagging extends AbstractMetaLearner {
 
 		types.addAll(RandomGenerator.getRandomGeneratorParameters(this));
 
+		types.add(getParallelExecutionParameter());
+
 		return types;
 	}
 
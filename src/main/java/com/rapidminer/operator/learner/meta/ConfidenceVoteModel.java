@@ -18,12 +18,18 @@
 */
 package com.rapidminer.operator.learner.meta;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
+import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.SimplePredictionModel;
+import com.rapidminer.operator.learner.tree.CompiledTree;
+import com.rapidminer.operator.learner.tree.TreeModel;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 
@@ -37,7 +43,8 @@ import java.util.Map.Entry;
  * the prediction.
  * <p>
  * This meta model only works with {@link SimplePredictionModel}s that calculate meaningful
- * confidence values and predict a nominal label.
+ * confidence values and predict a nominal label. The confidences of {@link TreeModel}s are
+ * computed by {@link CompiledTree}s in parallel batches.
  *
  * @author Zoltan Prekopcsak, Michael Knopf
  * @since 7.0.0
@@ -49,6 +56,12 @@ public class ConfidenceVoteModel extends SimplePredictionModel implements MetaMo
 	/** List of voting models. */
 	private List<? extends SimplePredictionModel> models;
 
+	/** The compiled trees of the models, created on the first application. */
+	private transient volatile CompiledTree[] compiledTrees;
+
+	/** Whether the models cannot be compiled. */
+	private transient volatile boolean notCompilable;
+
     /**
      * Creates a new {@link MetaModel} with confidence based voting for the given example set and
      * models.
@@ -98,6 +111,98 @@ public class ConfidenceVoteModel extends SimplePredictionModel implements MetaMo
 		return names;
 	}
 
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, final Attribute predictedLabel) throws OperatorException {
+		final CompiledTree[] trees = getCompiledTrees();
+		List<Attribute> attributes = trees != null ? trees[0].getAttributes(exampleSet) : null;
+		final NominalMapping mapping = getLabel().getMapping();
+		final Attribute[] confidenceAttributes = trees != null ? BatchScoring.getConfidenceAttributes(exampleSet,
+				mapping) : null;
+		if (attributes == null || confidenceAttributes == null) {
+			return super.performPrediction(exampleSet, predictedLabel);
+		}
+
+		OperatorProgress progress = null;
+		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
+			progress = getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+
+		// the order in which predict(Example) iterates the classes
+		Map<String, Double> classConfidenceSums = new HashMap<>();
+		for (String className : mapping.getValues()) {
+			classConfidenceSums.put(className, 0d);
+		}
+		final int[] classes = new int[classConfidenceSums.size()];
+		int i = 0;
+		for (String className : classConfidenceSums.keySet()) {
+			classes[i++] = mapping.getIndex(className);
+		}
+
+		final int numberOfLabels = confidenceAttributes.length;
+		final double[][] confidenceSums = new double[BatchScoring.BATCH_SIZE][numberOfLabels];
+		final int[] bestClasses = new int[numberOfLabels];
+		BatchScoring.apply(exampleSet, attributes, getOperator(), progress, new BatchScoring.RowPredictor() {
+
+			@Override
+			public void predict(double[] values, int row) {
+				double[] sums = confidenceSums[row];
+				Arrays.fill(sums, 0);
+				for (CompiledTree tree : trees) {
+					int node = tree.findNode(values);
+					for (int label = 0; label < numberOfLabels; label++) {
+						sums[label] += tree.getConfidence(node, label);
+					}
+				}
+			}
+		}, new BatchScoring.RowWriter() {
+
+			@Override
+			public void write(Example example, int row) throws OperatorException {
+				// same choice (and random numbers) as predict(Example)
+				double[] sums = confidenceSums[row];
+				for (int label = 0; label < numberOfLabels; label++) {
+					if (Double.isNaN(sums[label])) {
+						throw new OperatorException("Child model failed to compute confidence value.");
+					}
+				}
+				int numberOfBestClasses = 0;
+				double maxConfidence = -1;
+				for (int currentClass : classes) {
+					double confidence = sums[currentClass] / models.size();
+					if (confidence > maxConfidence) {
+						maxConfidence = confidence;
+						numberOfBestClasses = 0;
+					}
+					if (confidence == maxConfidence) {
+						bestClasses[numberOfBestClasses++] = currentClass;
+					}
+					example.setValue(confidenceAttributes[currentClass], confidence);
+				}
+				int bestClassIndex = 0;
+				if (numberOfBestClasses != 1) {
+					bestClassIndex = RandomGenerator.getGlobalRandomGenerator().nextInt(numberOfBestClasses);
+				}
+				example.setValue(predictedLabel, bestClasses[bestClassIndex]);
+			}
+		});
+		return exampleSet;
+	}
+
+	/**
+	 * Returns the compiled trees of the models or {@code null} if not all models are trees that can
+	 * be compiled.
+	 */
+	private CompiledTree[] getCompiledTrees() {
+		CompiledTree[] trees = compiledTrees;
+		if (trees == null && !notCompilable) {
+			trees = CompiledTree.compileEnsemble(models, getLabel().getMapping());
+			compiledTrees = trees;
+			notCompilable = trees == null;
+		}
+		return trees;
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		Map<String, Double> classConfidenceSums = new HashMap<>();
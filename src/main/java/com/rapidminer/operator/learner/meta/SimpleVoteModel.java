@@ -18,13 +18,18 @@
 */
 package com.rapidminer.operator.learner.meta;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.SimplePredictionModel;
+import com.rapidminer.operator.learner.tree.CompiledTree;
+import com.rapidminer.operator.learner.tree.TreeModel;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 
@@ -35,7 +40,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * A simple vote model. For classification problems, the majority class is chosen. For regression
  * problems, the average prediction value is used. This model only supports simple prediction
- * models.
+ * models. Votes of {@link TreeModel}s on nominal labels are computed by {@link CompiledTree}s in
+ * parallel batches.
  *
  * @author Ingo Mierswa
  */
@@ -48,6 +54,12 @@ public class SimpleVoteModel extends SimplePredictionModel implements MetaModel
 	private boolean labelIsNominal;
 	private List<Double> labelIndices;
 
+	/** The compiled trees of the base models, created on the first application. */
+	private transient volatile CompiledTree[] compiledTrees;
+
+	/** Whether the base models cannot be compiled. */
+	private transient volatile boolean notCompilable;
+
     /**
      * Instantiates a new Simple vote model.
      *
@@ -70,6 +82,92 @@ public class SimpleVoteModel extends SimplePredictionModel implements MetaModel
 		}
 	}
 
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, final Attribute predictedLabel) throws OperatorException {
+		final CompiledTree[] trees = labelIsNominal ? getCompiledTrees() : null;
+		List<Attribute> attributes = trees != null ? trees[0].getAttributes(exampleSet) : null;
+		final Attribute[] confidenceAttributes = trees != null ? BatchScoring.getConfidenceAttributes(exampleSet,
+				getLabel().getMapping()) : null;
+		if (attributes == null || confidenceAttributes == null) {
+			return super.performPrediction(exampleSet, predictedLabel);
+		}
+
+		OperatorProgress progress = null;
+		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
+			progress = getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+
+		final int numberOfLabels = confidenceAttributes.length;
+		final int[] classes = new int[labelIndices.size()];
+		int i = 0;
+		for (double currentClass : labelIndices) {
+			classes[i++] = (int) currentClass;
+		}
+		final int[][] classVotes = new int[BatchScoring.BATCH_SIZE][numberOfLabels];
+		final double[] bestClasses = new double[classes.length + 1];
+		BatchScoring.apply(exampleSet, attributes, getOperator(), progress, new BatchScoring.RowPredictor() {
+
+			@Override
+			public void predict(double[] values, int row) {
+				int[] votes = classVotes[row];
+				Arrays.fill(votes, 0);
+				for (CompiledTree tree : trees) {
+					double prediction = tree.getPrediction(tree.findNode(values));
+					if (prediction >= 0 && prediction < numberOfLabels) {
+						votes[(int) prediction]++;
+					}
+				}
+			}
+		}, new BatchScoring.RowWriter() {
+
+			@Override
+			public void write(Example example, int row) {
+				// same choice (and random numbers) as predict(Example)
+				int[] votes = classVotes[row];
+				int numberOfBestClasses = 0;
+				int bestClassesVotes = -1;
+				for (int currentClass : classes) {
+					int currentVotes = votes[currentClass];
+					if (currentVotes > 0) {
+						if (currentVotes > bestClassesVotes) {
+							numberOfBestClasses = 0;
+							bestClasses[numberOfBestClasses++] = currentClass;
+							bestClassesVotes = currentVotes;
+						}
+						if (currentVotes == bestClassesVotes) {
+							bestClasses[numberOfBestClasses++] = currentClass;
+						}
+						example.setValue(confidenceAttributes[currentClass],
+								(double) currentVotes / (double) baseModels.size());
+					} else {
+						example.setValue(confidenceAttributes[currentClass], 0.00);
+					}
+				}
+				int bestClassIndex = 0;
+				if (numberOfBestClasses != 1) {
+					bestClassIndex = RandomGenerator.getGlobalRandomGenerator().nextInt(numberOfBestClasses);
+				}
+				example.setValue(predictedLabel, bestClasses[bestClassIndex]);
+			}
+		});
+		return exampleSet;
+	}
+
+	/**
+	 * Returns the compiled trees of the base models or {@code null} if not all base models are
+	 * trees that can be compiled.
+	 */
+	private CompiledTree[] getCompiledTrees() {
+		CompiledTree[] trees = compiledTrees;
+		if (trees == null && !notCompilable) {
+			trees = CompiledTree.compileEnsemble(baseModels, getLabel().getMapping());
+			compiledTrees = trees;
+			notCompilable = trees == null;
+		}
+		return trees;
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		if (labelIsNominal) {
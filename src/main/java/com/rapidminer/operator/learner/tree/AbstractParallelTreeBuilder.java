@@ -115,6 +115,13 @@ public abstract class AbstractParallelTreeBuilder {
      */
     final protected boolean parallelAllowed;
 
+    /**
+     * The maximal number of bins numerical split points are chosen from, 0 for all split points.
+     *
+     * @since 7.6.1
+     */
+    protected int numberOfBins = 0;
+
     /**
      * Initializes the fields.
      *
@@ -160,6 +167,23 @@ public abstract class AbstractParallelTreeBuilder {
 		this.parallelAllowed = parallelAllowed;
 	}
 
+    /**
+     * Sets the maximal number of bins numerical split points are chosen from. If numberOfBins is
+     * positive, the values of every numerical attribute are assigned to at most that many bins of
+     * about equal size and only split points between different bins are considered. This trades
+     * some accuracy of the split points for speed on very large data. The default 0 considers all
+     * split points.
+     *
+     * @param numberOfBins the maximal number of bins per numerical attribute, 0 for all split points
+     * @since 7.6.1
+     */
+    public void setNumberOfBins(int numberOfBins) {
+		if (numberOfBins < 0 || numberOfBins > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("numberOfBins must be between 0 and " + Short.MAX_VALUE);
+		}
+		this.numberOfBins = numberOfBins;
+	}
+
     /**
      * Creates a copy of the example set in form of the {@link ColumnExampleTable}, starts the tree
      * growing procedure and prunes the finished tree.
@@ -174,10 +198,15 @@ public abstract class AbstractParallelTreeBuilder {
 		exampleSet = preprocessExampleSet(exampleSet);
 
 		columnTable = new ColumnExampleTable(exampleSet, operator, parallelAllowed);
-		benefitCalculator = new BenefitCalculator(columnTable, criterion, operator);
 		selectionCreator = new SelectionCreator(columnTable);
 
 		Map<Integer, int[]> allSelectedExamples = createExampleStartSelection();
+		if (numberOfBins > 0) {
+			benefitCalculator = new BenefitCalculator(columnTable, criterion, operator,
+					selectionCreator.createBins(allSelectedExamples, numberOfBins));
+		} else {
+			benefitCalculator = new BenefitCalculator(columnTable, criterion, operator);
+		}
 		int[] selectedExamples = SelectionCreator.getArbitraryValue(allSelectedExamples);
 		int[] selectedAttributes = selectionCreator.createFullArray(columnTable.getTotalNumberOfRegularAttributes());
 
@@ -261,10 +290,13 @@ public abstract class AbstractParallelTreeBuilder {
 		Tree current = nodeData.getTree();
 		int depth = nodeData.getDepth();
 
+		int from = nodeData.getFrom();
+		int to = nodeData.getTo();
+
 		// terminate
 		int[] selectedExamples = SelectionCreator.getArbitraryValue(allSelectedExamples);
-		if (shouldStop(selectedExamples, selectedAttributes, depth)) {
-			leafCreator.changeTreeToLeaf(current, columnTable, selectedExamples);
+		if (shouldStop(selectedExamples, from, to, selectedAttributes, depth)) {
+			leafCreator.changeTreeToLeaf(current, columnTable, selectedExamples, from, to);
 			return Collections.emptyList();
 		}
 
@@ -274,7 +306,8 @@ public abstract class AbstractParallelTreeBuilder {
 		}
 
 		// calculate all benefits
-		List<ParallelBenefit> benefits = getBenefits(allSelectedExamples, selectedAttributes, attributeParallel);
+		List<ParallelBenefit> benefits = getBenefits(allSelectedExamples, from, to, selectedAttributes,
+				attributeParallel);
 		// sort all benefits
 		Collections.sort(benefits);
 
@@ -300,26 +333,30 @@ public abstract class AbstractParallelTreeBuilder {
 			int bestAttribute = bestBenefit.getAttributeNumber();
 
 			double bestSplitValue = bestBenefit.getSplitValue();
-			Collection<Map<Integer, int[]>> splits = selectionCreator.getSplits(allSelectedExamples, bestAttribute,
+			int[] splitEnds = selectionCreator.getSplitEnds(allSelectedExamples, from, to, bestAttribute,
 					bestSplitValue);
 
 			// if all have minimum size --> remove nominal attribute and recursive call for each
 			// subset
-			if (isSplitOK(selectedAttributes, depth, splits)) {
+			if (isSplitOK(selectedAttributes, depth, selectedExamples, from, splitEnds)) {
 				int[] remainingAttributes = selectionCreator.updateRemainingAttributes(selectedAttributes, bestAttribute);
 
+				// the children share the selections of this node, which are partitioned in place
+				selectionCreator.partition(allSelectedExamples, from, to, bestAttribute, bestSplitValue);
 				LinkedList<NodeData> children = new LinkedList<>();
 
 				int i = 0;
-				for (Map<Integer, int[]> split : splits) {
-					if (SelectionCreator.getArbitraryValue(split).length > 0) {
+				int splitStart = from;
+				for (int splitEnd : splitEnds) {
+					if (splitEnd > splitStart) {
 						Tree child = new Tree(null);
-						addToParentTree(current, child, bestAttribute, bestSplitValue,
-								SelectionCreator.getArbitraryValue(split), i);
-						NodeData newNode = new NodeData(child, split, remainingAttributes, depth + 1);
+						addToParentTree(current, child, bestAttribute, bestSplitValue, selectedExamples[splitStart], i);
+						NodeData newNode = new NodeData(child, allSelectedExamples, splitStart, splitEnd,
+								remainingAttributes, depth + 1);
 						children.add(newNode);
 						i++;
 					}
+					splitStart = splitEnd;
 				}
 
 				// end loop
@@ -330,7 +367,7 @@ public abstract class AbstractParallelTreeBuilder {
 
 		// no split found --> change to leaf and return
 		if (!splitFound) {
-			leafCreator.changeTreeToLeaf(current, columnTable, selectedExamples);
+			leafCreator.changeTreeToLeaf(current, columnTable, selectedExamples, from, to);
 		}
 		return Collections.emptyList();
 	}
@@ -345,11 +382,27 @@ public abstract class AbstractParallelTreeBuilder {
      * @return boolean boolean
      */
     protected boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, int depth) {
-		if (usePrePruning && selectedExamples.length < minSizeForSplit) {
+		return shouldStop(selectedExamples, 0, selectedExamples.length, selectedAttributes, depth);
+	}
+
+    /**
+     * Checks if the tree building should stop for the examples selected between from (inclusive)
+     * and to (exclusive).
+     *
+     * @param selectedExamples   the array containing the selected examples
+     * @param from               the position of the first selected example
+     * @param to                 the position after the last selected example
+     * @param selectedAttributes the selected attributes
+     * @param depth              the depth
+     * @return boolean boolean
+     * @since 7.6.1
+     */
+    protected boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes, int depth) {
+		if (usePrePruning && to - from < minSizeForSplit) {
 			return true;
 		} else {
 			for (ColumnTerminator terminator : otherTerminators) {
-				if (terminator.shouldStop(selectedExamples, selectedAttributes, columnTable, depth)) {
+				if (terminator.shouldStop(selectedExamples, from, to, selectedAttributes, columnTable, depth)) {
 					return true;
 				}
 			}
@@ -369,11 +422,31 @@ public abstract class AbstractParallelTreeBuilder {
      */
     protected List<ParallelBenefit> getBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes,
 			boolean attributeParallel) throws OperatorException {
+		return getBenefits(allSelectedExamples, 0, SelectionCreator.getArbitraryValue(allSelectedExamples).length,
+				selectedAttributes, attributeParallel);
+	}
+
+    /**
+     * For each attribute calculate the benefit for splitting the examples selected between from
+     * (inclusive) and to (exclusive), possibly in parallel if attributeParallel is
+     * <code>true</code>.
+     *
+     * @param allSelectedExamples the all selected examples
+     * @param from                the position of the first selected example
+     * @param to                  the position after the last selected example
+     * @param selectedAttributes  the selected attributes
+     * @param attributeParallel   the attribute parallel
+     * @return benefits benefits
+     * @throws OperatorException the operator exception
+     * @since 7.6.1
+     */
+    protected List<ParallelBenefit> getBenefits(Map<Integer, int[]> allSelectedExamples, int from, int to,
+			int[] selectedAttributes, boolean attributeParallel) throws OperatorException {
 		List<ParallelBenefit> benefits;
 		if (attributeParallel && operator != null) {
-			benefits = benefitCalculator.calculateAllBenefitsParallel(allSelectedExamples, selectedAttributes);
+			benefits = benefitCalculator.calculateAllBenefitsParallel(allSelectedExamples, from, to, selectedAttributes);
 		} else {
-			benefits = benefitCalculator.calculateAllBenefits(allSelectedExamples, selectedAttributes);
+			benefits = benefitCalculator.calculateAllBenefits(allSelectedExamples, from, to, selectedAttributes);
 		}
 		return benefits;
 	}
@@ -383,19 +456,23 @@ public abstract class AbstractParallelTreeBuilder {
 	 *
 	 * @param selectedAttributes
 	 * @param depth
-	 * @param splits
+	 * @param selectedExamples
+	 * @param from
+	 * @param splitEnds
 	 * @return
 	 */
-	private boolean isSplitOK(int[] selectedAttributes, int depth, Collection<Map<Integer, int[]>> splits) {
+	private boolean isSplitOK(int[] selectedAttributes, int depth, int[] selectedExamples, int from, int[] splitEnds) {
 		// check if children all have the minimum size
 		boolean splitOK = true;
 		if (usePrePruning) {
-			for (Map<Integer, int[]> splitinfo : splits) {
-				int[] split = SelectionCreator.getArbitraryValue(splitinfo);
-				if (split.length > 0 && minLeafSizeTerminator.shouldStop(split, selectedAttributes, columnTable, depth)) {
+			int splitStart = from;
+			for (int splitEnd : splitEnds) {
+				if (splitEnd > splitStart && minLeafSizeTerminator.shouldStop(selectedExamples, splitStart, splitEnd,
+						selectedAttributes, columnTable, depth)) {
 					splitOK = false;
 					break;
 				}
+				splitStart = splitEnd;
 			}
 		}
 		return splitOK;
@@ -408,15 +485,15 @@ public abstract class AbstractParallelTreeBuilder {
 	 * @param bestAttribute
 	 * @param bestSplitValue
 	 * @param counter
-	 * @param split
+	 * @param example
 	 * @param child
 	 */
-	private void addToParentTree(Tree parent, Tree child, int bestAttribute, double bestSplitValue, int[] split, int counter) {
+	private void addToParentTree(Tree parent, Tree child, int bestAttribute, double bestSplitValue, int example, int counter) {
 		SplitCondition condition = null;
 		if (columnTable.representsNominalAttribute(bestAttribute)) {
 			// find the attribute value we are splitting
 			Attribute best = columnTable.getNominalAttribute(bestAttribute);
-			final byte index = columnTable.getNominalAttributeColumn(bestAttribute)[split[0]];
+			final byte index = columnTable.getNominalAttributeColumn(bestAttribute)[example];
 			String splitValueName;
 			// NaNs are represented by the number mapping size
 			if (index == best.getMapping().size()) {
@@ -450,6 +527,14 @@ public abstract class AbstractParallelTreeBuilder {
          * The All selected examples.
          */
         Map<Integer, int[]> allSelectedExamples;
+        /**
+         * The position of the first example of this node in the selections.
+         */
+        int from;
+        /**
+         * The position after the last example of this node in the selections.
+         */
+        int to;
         /**
          * The Selected attributes.
          */
@@ -468,8 +553,28 @@ public abstract class AbstractParallelTreeBuilder {
          * @param depth               the depth
          */
         NodeData(Tree tree, Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes, int depth) {
+			this(tree, allSelectedExamples, 0, SelectionCreator.getArbitraryValue(allSelectedExamples).length,
+					selectedAttributes, depth);
+		}
+
+        /**
+         * Instantiates a new Node data for the examples between from (inclusive) and to (exclusive)
+         * in the selections.
+         *
+         * @param tree                the tree
+         * @param allSelectedExamples the all selected examples
+         * @param from                the position of the first example of the node
+         * @param to                  the position after the last example of the node
+         * @param selectedAttributes  the selected attributes
+         * @param depth               the depth
+         * @since 7.6.1
+         */
+        NodeData(Tree tree, Map<Integer, int[]> allSelectedExamples, int from, int to, int[] selectedAttributes,
+				int depth) {
 			this.tree = tree;
 			this.allSelectedExamples = allSelectedExamples;
+			this.from = from;
+			this.to = to;
 			this.selectedAttributes = selectedAttributes;
 			this.depth = depth;
 		}
@@ -492,6 +597,26 @@ public abstract class AbstractParallelTreeBuilder {
 			return allSelectedExamples;
 		}
 
+        /**
+         * Gets the position of the first example of this node in the selections.
+         *
+         * @return the position of the first example
+         * @since 7.6.1
+         */
+        int getFrom() {
+			return from;
+		}
+
+        /**
+         * Gets the position after the last example of this node in the selections.
+         *
+         * @return the position after the last example
+         * @since 7.6.1
+         */
+        int getTo() {
+			return to;
+		}
+
         /**
          * Get selected attributes int [ ].
          *
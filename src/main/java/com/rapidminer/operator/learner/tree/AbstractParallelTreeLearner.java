@@ -89,6 +89,13 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
      */
     public static final String PARAMETER_NUMBER_OF_PREPRUNING_ALTERNATIVES = "number_of_prepruning_alternatives";
 
+    /**
+     * The parameter name for the maximal number of bins numerical split points are chosen from.
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_NUMBER_OF_BINS = "number_of_bins";
+
     /**
      * The constant CRITERIA_NAMES.
      */
@@ -179,6 +186,7 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
 
 		// create tree builder
 		AbstractParallelTreeBuilder builder = getTreeBuilder(exampleSet);
+		builder.setNumberOfBins(getParameterAsInt(PARAMETER_NUMBER_OF_BINS));
 		// learn tree
 		Tree root = builder.learnTree(exampleSet);
 
@@ -258,6 +266,11 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
 		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_PRE_PRUNING, false, true));
 		types.add(type);
 
+		type = new ParameterTypeInt(PARAMETER_NUMBER_OF_BINS,
+				"The maximal number of bins per numerical attribute the split points are chosen from (0: all split points).",
+				0, Short.MAX_VALUE, 0);
+		types.add(type);
+
 		return types;
 	}
 }
@@ -56,24 +56,41 @@ public class BenefitCalculator {
      * @param operator    the operator
      */
     public BenefitCalculator(ColumnExampleTable columnTable, ColumnCriterion criterion, Operator operator) {
+		this(columnTable, criterion, operator, null);
+	}
+
+    /**
+     * Instantiates a new Benefit calculator that only considers numerical split points between the
+     * given bins.
+     *
+     * @param columnTable the column table
+     * @param criterion   the criterion
+     * @param operator    the operator
+     * @param bins        the bins of the examples per attribute number, or {@code null} to consider
+     *                    all split points
+     * @since 7.6.1
+     */
+    public BenefitCalculator(ColumnExampleTable columnTable, ColumnCriterion criterion, Operator operator,
+			short[][] bins) {
 		this.columnTable = columnTable;
 		this.criterion = criterion;
 		this.operator = operator;
-		splitter = new ColumnNumericalSplitter(columnTable, criterion);
+		splitter = new ColumnNumericalSplitter(columnTable, criterion, bins);
 	}
 
 	/**
 	 * This method calculates the benefit of the given attribute. This implementation utilizes the
 	 * defined {@link Criterion}.
 	 */
-	private ParallelBenefit calculateBenefit(Map<Integer, int[]> allSelectedExamples, int attributeNumber) {
+	private ParallelBenefit calculateBenefit(Map<Integer, int[]> allSelectedExamples, int from, int to,
+			int attributeNumber) {
 		if (columnTable.representsNominalAttribute(attributeNumber)) {
 			return new ParallelBenefit(criterion.getNominalBenefit(columnTable,
-					SelectionCreator.getArbitraryValue(allSelectedExamples), attributeNumber), attributeNumber);
+					SelectionCreator.getArbitraryValue(allSelectedExamples), from, to, attributeNumber), attributeNumber);
 		} else {
 			// numerical attribute
 			int[] selectedExamples = allSelectedExamples.get(attributeNumber);
-			return splitter.getBestSplitBenefit(selectedExamples, attributeNumber);
+			return splitter.getBestSplitBenefit(selectedExamples, from, to, attributeNumber);
 		}
 	}
 
@@ -88,6 +105,24 @@ public class BenefitCalculator {
      */
     public List<ParallelBenefit> calculateAllBenefitsParallel(final Map<Integer, int[]> allSelectedExamples,
 			final int[] selectedAttributes) throws OperatorException {
+		return calculateAllBenefitsParallel(allSelectedExamples, 0,
+				SelectionCreator.getArbitraryValue(allSelectedExamples).length, selectedAttributes);
+	}
+
+    /**
+     * Calculates the benefits for all selected attributes on the examples selected between from
+     * (inclusive) and to (exclusive) in parallel.
+     *
+     * @param allSelectedExamples the all selected examples
+     * @param from                the position of the first selected example
+     * @param to                  the position after the last selected example
+     * @param selectedAttributes  the selected attributes
+     * @return list list
+     * @throws OperatorException the operator exception
+     * @since 7.6.1
+     */
+    public List<ParallelBenefit> calculateAllBenefitsParallel(final Map<Integer, int[]> allSelectedExamples,
+			final int from, final int to, final int[] selectedAttributes) throws OperatorException {
 		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
 
 		final Vector<ParallelBenefit> benefits = new Vector<ParallelBenefit>();
@@ -103,7 +138,7 @@ public class BenefitCalculator {
 					for (int j = counter; j < selectedAttributes.length; j += numberOfParallel) {
 
 						int attribute = selectedAttributes[j];
-						ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute);
+						ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, from, to, attribute);
 						if (currentBenefit != null) {
 							benefits.add(currentBenefit);
 						}
@@ -139,10 +174,27 @@ public class BenefitCalculator {
      * @return list list
      */
     public List<ParallelBenefit> calculateAllBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes) {
+		return calculateAllBenefits(allSelectedExamples, 0, SelectionCreator.getArbitraryValue(allSelectedExamples).length,
+				selectedAttributes);
+	}
+
+    /**
+     * Calculates the benefits for all selected attributes on the examples selected between from
+     * (inclusive) and to (exclusive).
+     *
+     * @param allSelectedExamples the all selected examples
+     * @param from                the position of the first selected example
+     * @param to                  the position after the last selected example
+     * @param selectedAttributes  the selected attributes
+     * @return list list
+     * @since 7.6.1
+     */
+    public List<ParallelBenefit> calculateAllBenefits(Map<Integer, int[]> allSelectedExamples, int from, int to,
+			int[] selectedAttributes) {
 		Vector<ParallelBenefit> benefits = new Vector<ParallelBenefit>();
 
 		for (int attribute : selectedAttributes) {
-			ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute);
+			ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, from, to, attribute);
 			if (currentBenefit != null) {
 				benefits.add(currentBenefit);
 			}
@@ -29,4 +29,10 @@ public class ColumnEmptyTermination implements ColumnTerminator {
 	public boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, ColumnExampleTable columnTable, int depth) {
 		return selectedExamples.length == 0;
 	}
+
+	@Override
+	public boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
+		return to == from;
+	}
 }
@@ -39,6 +39,23 @@ public class ColumnFrequencyCalculator {
      * @return double [ ] [ ]
      */
     public static double[][] getNominalWeightCounts(ColumnExampleTable columnTable, int[] selection, int attributeNumber) {
+		return getNominalWeightCounts(columnTable, selection, 0, selection.length, attributeNumber);
+	}
+
+    /**
+     * Counts the weighted number of label value occurrences in each splitting class for the
+     * examples selected between from (inclusive) and to (exclusive).
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @return double [ ] [ ]
+     * @since 7.6.1
+     */
+    public static double[][] getNominalWeightCounts(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber) {
 		Attribute label = columnTable.getLabel();
 		int numberOfLabels = label.getMapping().size();
 		// maximal as many values as size of the mapping and one more for potential NaNs
@@ -51,7 +68,8 @@ public class ColumnFrequencyCalculator {
 
 		double[][] weightCounts = new double[numberOfValues][numberOfLabels];
 
-		for (int i : selection) {
+		for (int position = from; position < to; position++) {
+			int i = selection[position];
 			int labelIndex = labelColumn[i];
 			byte valueIndex = attributeColumn[i];
 			double weight = 1.0d;
@@ -76,6 +94,24 @@ public class ColumnFrequencyCalculator {
      */
     public static double[][] getNumericalWeightCounts(ColumnExampleTable columnTable, int[] selection, int attributeNumber,
 			double splitValue) {
+		return getNumericalWeightCounts(columnTable, selection, 0, selection.length, attributeNumber, splitValue);
+	}
+
+    /**
+     * Counts the weighted number of label value occurrences in each splitting class for the
+     * examples selected between from (inclusive) and to (exclusive).
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @param splitValue      the split value
+     * @return double [ ] [ ]
+     * @since 7.6.1
+     */
+    public static double[][] getNumericalWeightCounts(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber, double splitValue) {
 		Attribute label = columnTable.getLabel();
 		int numberOfLabels = label.getMapping().size();
 
@@ -85,7 +121,8 @@ public class ColumnFrequencyCalculator {
 		int[] labelColumn = columnTable.getLabelColumn();
 
 		double[][] weightCounts = new double[3][numberOfLabels];
-		for (int i : selection) {
+		for (int position = from; position < to; position++) {
+			int i = selection[position];
 			int labelIndex = labelColumn[i];
 			double value = attributeColumn[i];
 			double weight = 1.0d;
@@ -40,4 +40,10 @@ public class ColumnMaxDepthTermination implements ColumnTerminator {
 	public boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, ColumnExampleTable columnTable, int depth) {
 		return depth >= this.maxDepth;
 	}
+
+	@Override
+	public boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
+		return depth >= this.maxDepth;
+	}
 }
@@ -40,4 +40,10 @@ public class ColumnMinSizeTermination implements ColumnTerminator {
 	public boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, ColumnExampleTable columnTable, int depth) {
 		return selectedExamples.length < this.minSize;
 	}
+
+	@Override
+	public boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
+		return to - from < this.minSize;
+	}
 }
@@ -30,4 +30,10 @@ public class ColumnNoAttributeLeftTermination implements ColumnTerminator {
 		return selectedAttributes.length == 0;
 	}
 
+	@Override
+	public boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
+		return selectedAttributes.length == 0;
+	}
+
 }
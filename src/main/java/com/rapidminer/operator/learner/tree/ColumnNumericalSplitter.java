@@ -24,7 +24,8 @@ import com.rapidminer.tools.Tools;
 
 
 /**
- * Calculates the best split point for numerical attributes according to a given criterion.
+ * Calculates the best split point for numerical attributes according to a given criterion. If bins
+ * are given, only split points between different bins are considered.
  *
  * @author Ingo Mierswa, Gisa Schaefer
  */
@@ -33,6 +34,9 @@ public class ColumnNumericalSplitter {
 	private ColumnCriterion criterion;
 	private ColumnExampleTable columnTable;
 
+	/** The bins of the examples per attribute number, might be {@code null}. */
+	private short[][] bins;
+
     /**
      * Instantiates a new Column numerical splitter.
      *
@@ -40,8 +44,23 @@ public class ColumnNumericalSplitter {
      * @param criterion   the criterion
      */
     public ColumnNumericalSplitter(ColumnExampleTable columnTable, ColumnCriterion criterion) {
+		this(columnTable, criterion, null);
+	}
+
+    /**
+     * Instantiates a new Column numerical splitter that only considers split points between bins.
+     *
+     * @param columnTable the column table
+     * @param criterion   the criterion
+     * @param bins        the bins of the examples per attribute number as created by
+     *                    {@link SelectionCreator#createBins(java.util.Map, int)}, or {@code null} to consider
+     *                    all split points
+     * @since 7.6.1
+     */
+    public ColumnNumericalSplitter(ColumnExampleTable columnTable, ColumnCriterion criterion, short[][] bins) {
 		this.criterion = criterion;
 		this.columnTable = columnTable;
+		this.bins = bins;
 	}
 
     /**
@@ -54,7 +73,25 @@ public class ColumnNumericalSplitter {
      * @return the benefit of the best split
      */
     public ParallelBenefit getBestSplitBenefit(int[] selectedExamples, int attributeNumber) {
+		return getBestSplitBenefit(selectedExamples, 0, selectedExamples.length, attributeNumber);
+	}
+
+    /**
+     * Calculates where to best split a numerical attribute for the examples selected between from
+     * (inclusive) and to (exclusive).
+     *
+     * @param selectedExamples the array containing the selected examples, sorted between from and
+     *                         to such that the associated attribute values are in ascending order
+     * @param from             the position of the first selected example
+     * @param to               the position after the last selected example
+     * @param attributeNumber  indicates which attribute is considered
+     * @return the benefit of the best split
+     * @since 7.6.1
+     */
+    public ParallelBenefit getBestSplitBenefit(int[] selectedExamples, int from, int to, int attributeNumber) {
 		final double[] attributeColumn = columnTable.getNumericalAttributeColumn(attributeNumber);
+		final short[] attributeBins = bins != null ? bins[attributeNumber] : null;
+		int lastBin = -1;
 
 		double bestSplit = Double.NaN;
 		double lastValue = Double.NaN;
@@ -63,19 +100,23 @@ public class ColumnNumericalSplitter {
 		int lastRow = -1;
 		WeightDistribution distribution = null;
 		if (this.criterion.supportsIncrementalCalculation()) {
-			distribution = this.criterion.startIncrementalCalculation(columnTable, selectedExamples, attributeNumber);
+			distribution = this.criterion.startIncrementalCalculation(columnTable, selectedExamples, from, to,
+					attributeNumber);
 		}
 
-		for (int j : selectedExamples) {
+		for (int position = from; position < to; position++) {
+			int j = selectedExamples[position];
 
 			double currentValue = attributeColumn[j];
+			boolean splitPoint = !Tools.isEqual(currentValue, lastValue)
+					&& (attributeBins == null || attributeBins[j] != lastBin);
 
 			if (this.criterion.supportsIncrementalCalculation()) {
 				if (lastRow > -1) {
 					this.criterion.updateWeightDistribution(columnTable, lastRow, distribution);
 				}
 				lastRow = j;
-				if (!Tools.isEqual(currentValue, lastValue)) {
+				if (splitPoint) {
 					double benefit = this.criterion.getIncrementalBenefit(distribution);
 
 					if (benefit > bestSplitBenefit) {
@@ -85,10 +126,10 @@ public class ColumnNumericalSplitter {
 				}
 
 			} else {
-				if (!Tools.isEqual(currentValue, lastValue)) {
+				if (splitPoint) {
 					double splitValue = (lastValue + currentValue) / 2.0d;
-					double benefit = this.criterion.getNumericalBenefit(columnTable, selectedExamples, attributeNumber,
-							splitValue);
+					double benefit = this.criterion.getNumericalBenefit(columnTable, selectedExamples, from, to,
+							attributeNumber, splitValue);
 					if (benefit > bestSplitBenefit) {
 						bestSplitBenefit = benefit;
 						bestSplit = splitValue;
@@ -98,6 +139,9 @@ public class ColumnNumericalSplitter {
 			}
 
 			lastValue = currentValue;
+			if (attributeBins != null) {
+				lastBin = attributeBins[j];
+			}
 		}
 
 		if (Double.isNaN(bestSplit)) {
@@ -27,10 +27,16 @@ public class ColumnSingleLabelTermination implements ColumnTerminator {
 
 	@Override
 	public boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, ColumnExampleTable columnTable, int depth) {
+		return shouldStop(selectedExamples, 0, selectedExamples.length, selectedAttributes, columnTable, depth);
+	}
+
+	@Override
+	public boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
 		int[] labelColumn = columnTable.getLabelColumn();
-		int singleValue = labelColumn[selectedExamples[0]];
-		for (int i : selectedExamples) {
-			if (singleValue != labelColumn[i]) {
+		int singleValue = labelColumn[selectedExamples[from]];
+		for (int i = from; i < to; i++) {
+			if (singleValue != labelColumn[selectedExamples[i]]) {
 				return false;
 			}
 		}
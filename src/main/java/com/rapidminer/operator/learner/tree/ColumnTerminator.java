@@ -18,6 +18,9 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.Arrays;
+
+
 /**
  * Implementations of this interface are used in order to determine if a splitting procedure should
  * be stopped.
@@ -38,4 +41,23 @@ public interface ColumnTerminator {
      */
     public boolean shouldStop(int[] selectedExamples, int[] selectedAttributes, ColumnExampleTable columnTable, int depth);
 
+    /**
+     * Checks whether the splitting should stop for the examples selected between from (inclusive)
+     * and to (exclusive). The default implementation copies that range and calls
+     * {@link #shouldStop(int[], int[], ColumnExampleTable, int)}.
+     *
+     * @param selectedExamples   the array containing the selected examples
+     * @param from               the position of the first selected example
+     * @param to                 the position after the last selected example
+     * @param selectedAttributes the selected attributes
+     * @param columnTable        the column table
+     * @param depth              the depth
+     * @return the boolean
+     * @since 7.6.1
+     */
+    public default boolean shouldStop(int[] selectedExamples, int from, int to, int[] selectedAttributes,
+			ColumnExampleTable columnTable, int depth) {
+		return shouldStop(Arrays.copyOfRange(selectedExamples, from, to), selectedAttributes, columnTable, depth);
+	}
+
 }
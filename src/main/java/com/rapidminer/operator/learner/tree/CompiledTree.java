@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.tree;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.learner.SimplePredictionModel;
+import com.rapidminer.tools.Tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+
+/**
+ * A decision {@link Tree} compiled into flat primitive arrays for scoring. The nodes are numbered
+ * in breadth-first order starting with the root, the edges are numbered in the same order such that
+ * the child of edge {@code e} is node {@code e + 1}. The edges of a node are stored consecutively in
+ * the order in which {@link TreeModel} tests them.
+ * <p>
+ * Every node stores the label distribution and the prediction used if the scoring ends in it: the
+ * class counts for leaves and the class counts of the subtree for inner nodes none of whose
+ * conditions hold. The split conditions read the attribute values from a {@code double[]} ordered
+ * like {@link #getAttributeNames()}. Only the split conditions created by the tree learners of this
+ * package can be compiled.
+ * <p>
+ * Compiled trees are immutable and can be used by several threads at once.
+ *
+ * @since 7.6.1
+ */
+public final class CompiledTree {
+
+	private static final byte GREATER = 0;
+	private static final byte LESS_EQUALS = 1;
+	private static final byte NOMINAL_EQUALS = 2;
+	private static final byte MISSING = 3;
+
+	/** The names of the attributes tested by the tree, shared by trees compiled together. */
+	private final List<String> attributeNames;
+
+	private final int numberOfLabels;
+
+	/** The edges of node i are firstEdges[i] to firstEdges[i + 1] - 1. */
+	private final int[] firstEdges;
+
+	private final byte[] edgeTypes;
+
+	private final int[] edgeAttributes;
+
+	private final double[] edgeValues;
+
+	private final double[] predictions;
+
+	/** The label distributions of all nodes, the one of node i starts at i * numberOfLabels. */
+	private final double[] distributions;
+
+	private CompiledTree(List<String> attributeNames, int numberOfLabels, int numberOfNodes) {
+		this.attributeNames = attributeNames;
+		this.numberOfLabels = numberOfLabels;
+		this.firstEdges = new int[numberOfNodes + 1];
+		this.edgeTypes = new byte[numberOfNodes - 1];
+		this.edgeAttributes = new int[numberOfNodes - 1];
+		this.edgeValues = new double[numberOfNodes - 1];
+		this.predictions = new double[numberOfNodes];
+		this.distributions = new double[numberOfNodes * numberOfLabels];
+	}
+
+    /**
+     * Compiles the tree with the given root.
+     *
+     * @param root         the root of the tree
+     * @param labelMapping the mapping of the label the tree predicts
+     * @return the compiled tree or {@code null} if the tree contains split conditions that cannot be
+     *         compiled or class counts of unknown classes
+     */
+    public static CompiledTree compile(Tree root, NominalMapping labelMapping) {
+		return compile(root, labelMapping, new ArrayList<String>(), new HashMap<String, Integer>());
+	}
+
+    /**
+     * Compiles the trees of all the given models such that they share their attribute names. This
+     * is only possible if all models are {@link TreeModel}s predicting a label with the same values
+     * as the given mapping.
+     *
+     * @param models       the models of the ensemble
+     * @param labelMapping the mapping of the label the ensemble predicts
+     * @return the compiled trees in the order of the models or {@code null} if the models cannot be
+     *         compiled
+     */
+    public static CompiledTree[] compileEnsemble(List<? extends SimplePredictionModel> models,
+			NominalMapping labelMapping) {
+		if (models.isEmpty()) {
+			return null;
+		}
+		List<String> attributeNames = new ArrayList<>();
+		Map<String, Integer> attributeIndices = new HashMap<>();
+		CompiledTree[] trees = new CompiledTree[models.size()];
+		int i = 0;
+		for (SimplePredictionModel model : models) {
+			// subclasses might predict differently
+			if (model.getClass() != TreeModel.class
+					|| !model.getLabel().getMapping().getValues().equals(labelMapping.getValues())) {
+				return null;
+			}
+			trees[i] = compile(((TreeModel) model).getRoot(), labelMapping, attributeNames, attributeIndices);
+			if (trees[i] == null) {
+				return null;
+			}
+			i++;
+		}
+		return trees;
+	}
+
+	private static CompiledTree compile(Tree root, NominalMapping labelMapping, List<String> attributeNames,
+			Map<String, Integer> attributeIndices) {
+		// numbering the nodes breadth-first, every edge adds its child
+		List<Tree> nodes = new ArrayList<>();
+		nodes.add(root);
+		for (int i = 0; i < nodes.size(); i++) {
+			Iterator<Edge> children = nodes.get(i).childIterator();
+			while (children.hasNext()) {
+				nodes.add(children.next().getChild());
+			}
+		}
+
+		CompiledTree tree = new CompiledTree(attributeNames, labelMapping.size(), nodes.size());
+		int edge = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			Tree node = nodes.get(i);
+			tree.firstEdges[i] = edge;
+			if (node.isLeaf()) {
+				if (!tree.setDistribution(i, node.getCounterMap(), labelMapping)) {
+					return null;
+				}
+				tree.predictions[i] = labelMapping.getIndex(node.getLabel());
+			} else {
+				Iterator<Edge> children = node.childIterator();
+				while (children.hasNext()) {
+					if (!tree.setCondition(edge++, children.next().getCondition(), attributeNames, attributeIndices)) {
+						return null;
+					}
+				}
+
+				// nothing known from training --> use majority class in this node
+				Map<String, Integer> subtreeCounts = node.getSubtreeCounterMap();
+				if (!tree.setDistribution(i, subtreeCounts, labelMapping)) {
+					return null;
+				}
+				String majorityClass = null;
+				int majorityCounter = -1;
+				for (Entry<String, Integer> entry : subtreeCounts.entrySet()) {
+					if (entry.getValue() > majorityCounter) {
+						majorityCounter = entry.getValue();
+						majorityClass = entry.getKey();
+					}
+				}
+				tree.predictions[i] = majorityClass != null ? labelMapping.getIndex(majorityClass) : 0;
+			}
+		}
+		tree.firstEdges[nodes.size()] = edge;
+		return tree;
+	}
+
+	/** Stores the relative class frequencies of the given counts as distribution of the node. */
+	private boolean setDistribution(int node, Map<String, Integer> counterMap, NominalMapping labelMapping) {
+		int[] counts = new int[numberOfLabels];
+		int sum = 0;
+		for (Entry<String, Integer> entry : counterMap.entrySet()) {
+			int index = labelMapping.getIndex(entry.getKey());
+			if (index < 0) {
+				return false;
+			}
+			counts[index] = entry.getValue();
+			sum += counts[index];
+		}
+		for (int i = 0; i < numberOfLabels; i++) {
+			distributions[node * numberOfLabels + i] = (double) counts[i] / sum;
+		}
+		return true;
+	}
+
+	/** Stores the given split condition as the given edge if it is one of the known conditions. */
+	private boolean setCondition(int edge, SplitCondition condition, List<String> attributeNames,
+			Map<String, Integer> attributeIndices) {
+		Class<?> type = condition.getClass();
+		if (type == GreaterSplitCondition.class) {
+			edgeTypes[edge] = GREATER;
+			edgeValues[edge] = ((GreaterSplitCondition) condition).getValue();
+		} else if (type == LessEqualsSplitCondition.class) {
+			edgeTypes[edge] = LESS_EQUALS;
+			edgeValues[edge] = ((LessEqualsSplitCondition) condition).getValue();
+		} else if (type == NominalSplitCondition.class) {
+			edgeTypes[edge] = NOMINAL_EQUALS;
+			edgeValues[edge] = ((NominalSplitCondition) condition).getValue();
+		} else if (type == NumericalMissingSplitCondition.class) {
+			edgeTypes[edge] = MISSING;
+		} else {
+			return false;
+		}
+
+		Integer attributeIndex = attributeIndices.get(condition.getAttributeName());
+		if (attributeIndex == null) {
+			attributeIndex = attributeNames.size();
+			attributeNames.add(condition.getAttributeName());
+			attributeIndices.put(condition.getAttributeName(), attributeIndex);
+		}
+		edgeAttributes[edge] = attributeIndex;
+		return true;
+	}
+
+    /**
+     * Returns the names of the attributes whose values are passed to {@link #findNode(double[])}.
+     *
+     * @return the attribute names
+     */
+    public List<String> getAttributeNames() {
+		return Collections.unmodifiableList(attributeNames);
+	}
+
+    /**
+     * Looks up the attributes of {@link #getAttributeNames()} in the given example set.
+     *
+     * @param exampleSet the example set to score
+     * @return the attributes or {@code null} if one of them is missing
+     */
+    public List<Attribute> getAttributes(ExampleSet exampleSet) {
+		List<Attribute> attributes = new ArrayList<>(attributeNames.size());
+		for (String name : attributeNames) {
+			Attribute attribute = exampleSet.getAttributes().get(name);
+			if (attribute == null) {
+				return null;
+			}
+			attributes.add(attribute);
+		}
+		return attributes;
+	}
+
+    /**
+     * Follows the first edge whose condition holds for the given values until a leaf is reached or
+     * no condition holds anymore.
+     *
+     * @param values the values of the attributes in the order of {@link #getAttributeNames()}
+     * @return the index of the node the scoring ends in
+     */
+    public int findNode(double[] values) {
+		int node = 0;
+		int edge = firstEdges[0];
+		int end = firstEdges[1];
+		while (edge < end) {
+			if (holds(edge, values[edgeAttributes[edge]])) {
+				node = edge + 1;
+				edge = firstEdges[node];
+				end = firstEdges[node + 1];
+			} else {
+				edge++;
+			}
+		}
+		return node;
+	}
+
+	private boolean holds(int edge, double value) {
+		switch (edgeTypes[edge]) {
+			case GREATER:
+				return value > edgeValues[edge];
+			case LESS_EQUALS:
+				return value <= edgeValues[edge];
+			case NOMINAL_EQUALS:
+				return Tools.isEqual(value, edgeValues[edge]);
+			default:
+				return Double.isNaN(value);
+		}
+	}
+
+    /**
+     * Returns the predicted label index of the given node.
+     *
+     * @param node the node the scoring ended in
+     * @return the prediction
+     */
+    public double getPrediction(int node) {
+		return predictions[node];
+	}
+
+    /**
+     * Returns the confidence of the given node for the given label index.
+     *
+     * @param node       the node the scoring ended in
+     * @param labelIndex the index of the class in the label mapping
+     * @return the confidence
+     */
+    public double getConfidence(int node, int labelIndex) {
+		return distributions[node * numberOfLabels + labelIndex];
+	}
+}
@@ -139,7 +139,7 @@ public class ConcurrentTreeBuilder extends AbstractParallelTreeBuilder {
      */
     boolean nodeIsTooSmall(NodeData nodeData) {
 		return nodeData.getSelectedAttributes().length < 2
-				|| SelectionCreator.getArbitraryValue(nodeData.getAllSelectedExamples()).length < MINIMAL_EXAMPLES_FOR_GROWING_PARALLEL;
+				|| nodeData.getTo() - nodeData.getFrom() < MINIMAL_EXAMPLES_FOR_GROWING_PARALLEL;
 	}
 
 	@Override
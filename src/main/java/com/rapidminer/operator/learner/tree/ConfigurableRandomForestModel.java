@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
@@ -103,6 +104,19 @@ public class ConfigurableRandomForestModel extends SimplePredictionModel impleme
 		return "Random Forest Model";
 	}
 
+	/** Lets the voting model score the example set, reporting to the operator of this model. */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		model.setOperator(getOperator());
+		model.setShowProgress(getShowProgress());
+		try {
+			return model.performPrediction(exampleSet, predictedLabel);
+		} finally {
+			model.setOperator(null);
+			model.setShowProgress(false);
+		}
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		return model.predict(example);
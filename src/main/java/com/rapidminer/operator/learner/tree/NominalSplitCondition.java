@@ -59,6 +59,16 @@ public class NominalSplitCondition extends AbstractSplitCondition {
 		return Tools.isEqual(currentValue, value);
 	}
 
+    /**
+     * Gets the mapping index of the value, {@link Double#NaN} for missing values.
+     *
+     * @return the value
+     * @since 7.6.1
+     */
+    public double getValue() {
+		return value;
+	}
+
 	@Override
 	public String getRelation() {
 		return "=";
@@ -37,12 +37,27 @@ public class ParallelDecisionTreeLeafCreator {
      * @param selectedExamples the selected examples
      */
     public void changeTreeToLeaf(Tree node, ColumnExampleTable columnTable, int[] selectedExamples) {
+		changeTreeToLeaf(node, columnTable, selectedExamples, 0, selectedExamples.length);
+	}
+
+    /**
+     * Transforms the tree node into a leaf for the examples selected between from (inclusive) and
+     * to (exclusive).
+     *
+     * @param node             the node
+     * @param columnTable      the column table
+     * @param selectedExamples the array containing the selected examples
+     * @param from             the position of the first selected example
+     * @param to               the position after the last selected example
+     * @since 7.6.1
+     */
+    public void changeTreeToLeaf(Tree node, ColumnExampleTable columnTable, int[] selectedExamples, int from, int to) {
 		Attribute label = columnTable.getLabel();
 		int[] labelColumn = columnTable.getLabelColumn();
 		int numberOfLabels = label.getMapping().size();
 		int[] labelValueCount = new int[numberOfLabels];
 		// count the different labels for the example number in selection
-		for (int i = 0; i < selectedExamples.length; i++) {
+		for (int i = from; i < to; i++) {
 			int indexForAdd = labelColumn[selectedExamples[i]];
 			labelValueCount[indexForAdd]++;
 		}
@@ -18,18 +18,29 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.*;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.operator.preprocessing.MaterializeDataInMemory;
 import com.rapidminer.operator.preprocessing.sampling.BootstrappingOperator;
 import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorService;
 import com.rapidminer.tools.RandomGenerator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -47,6 +58,13 @@ public class RandomForestLearner extends RandomTreeLearner {
      */
     public static final String PARAMETER_NUMBER_OF_TREES = "number_of_trees";
 
+    /**
+     * The parameter name for &quot;Enables the parallel learning of the trees.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
     /**
      * Instantiates a new Random forest learner.
      *
@@ -63,6 +81,13 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 	@Override
 	public Model learn(ExampleSet exampleSet) throws OperatorException {
+		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		if (getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION) && context.getParallelism() > 1
+				&& numberOfTrees > 1 && exampleSet.size() > 0) {
+			return learnInParallel(exampleSet, numberOfTrees, context);
+		}
+
 		BootstrappingOperator bootstrapping = null;
 		try {
 			bootstrapping = OperatorService.createOperator(BootstrappingOperator.class);
@@ -79,7 +104,6 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 		// learn base models
 		List<TreeModel> baseModels = new LinkedList<TreeModel>();
-		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
 
 		for (int i = 0; i < numberOfTrees; i++) {
 			TreeModel model = (TreeModel) super.learn(bootstrapping.apply(exampleSet));
@@ -91,6 +115,52 @@ public class RandomForestLearner extends RandomTreeLearner {
 		return new ConfigurableRandomForestModel(exampleSet, baseModels, VotingStrategy.MAJORITY_VOTE);
 	}
 
+	/**
+	 * Learns the trees concurrently. Every tree gets its own random seed, drawn in the order of the
+	 * trees, which is used for its bootstrap sample and as global random generator while learning
+	 * it. Hence, the forest does not depend on the scheduling of the trees.
+	 */
+	private Model learnInParallel(ExampleSet exampleSet, int numberOfTrees, ConcurrencyContext context)
+			throws OperatorException {
+		final ExampleSet threadSafeSet = ExampleSets.createThreadSafeCopy(exampleSet);
+		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		final TreeModel[] models = new TreeModel[numberOfTrees];
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTrees);
+		for (int i = 0; i < numberOfTrees; i++) {
+			final int index = i;
+			final int seed = random.nextInt(Integer.MAX_VALUE);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					RandomGenerator generator = new RandomGenerator(seed);
+					RandomGenerator previous = RandomGenerator.setGlobalRandomGenerator(generator);
+					try {
+						// same sample as the bootstrapping operator with a sample ratio of 1
+						int[] mapping = MappedExampleSet.createBootstrappingMapping(threadSafeSet, threadSafeSet.size(),
+								generator);
+						ExampleSet sample = MaterializeDataInMemory.materializeExampleSet(
+								new MappedExampleSet(threadSafeSet, mapping, true),
+								threadSafeSet.getExampleTable().getDataRow(0).getType());
+						TreeModel model = (TreeModel) RandomForestLearner.super.learn(sample);
+						model.setSource(getName());
+						models[index] = model;
+					} finally {
+						RandomGenerator.setGlobalRandomGenerator(previous);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+		return new ConfigurableRandomForestModel(exampleSet, Arrays.asList(models), VotingStrategy.MAJORITY_VOTE);
+	}
+
 	@Override
 	public boolean supportsCapability(OperatorCapability capability) {
 		if (capability == com.rapidminer.operator.OperatorCapability.BINOMINAL_ATTRIBUTES) {
@@ -126,6 +196,10 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 		types.addAll(super.getParameterTypes());
 
+		types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"This parameter enables the parallel learning of the trees. Please disable the parallel execution if you run into memory problems.",
+				false, true));
+
 		return types;
 	}
 }
@@ -22,23 +22,33 @@ import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Tools;
-import org.apache.commons.lang.ArrayUtils;
 
 import java.util.*;
+import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
 
 /**
  * Handles selections of attributes and examples of a {@link ColumnExampleTable}. Creates start
- * selections and updates them.
+ * selections and updates them. The start selections are sorted by a stable radix sort over the
+ * primitive columns. Splits either copy the selections into arrays of the final size or partition
+ * a range of the selections in place, so that the nodes of a tree can share the start selections.
  *
  * @author Gisa Schaefer
  */
 public class SelectionCreator {
 
+	/** The number of bits sorted in one pass of the radix sort. */
+	private static final int RADIX_BITS = 8;
+
+	private static final int RADIX = 1 << RADIX_BITS;
+
 	private ColumnExampleTable columnTable;
 
+	/** The buffers for partitioning, one per thread since nodes can be split in parallel. */
+	private final ThreadLocal<int[]> partitionBuffer = new ThreadLocal<>();
+
     /**
      * Instantiates a new Selection creator.
      *
@@ -59,19 +69,9 @@ public class SelectionCreator {
 		if (columnTable.getNumberOfRegularNumericalAttributes() == 0) {
 			selection.put(0, createFullArray(columnTable.getNumberOfExamples()));
 		} else {
-			Integer[] bigSelectionArray = createFullBigArray(columnTable.getNumberOfExamples());
 			for (int j = columnTable.getNumberOfRegularNominalAttributes(); j < columnTable
 					.getTotalNumberOfRegularAttributes(); j++) {
-				final double[] attributeColumn = columnTable.getNumericalAttributeColumn(j);
-				Integer[] startSelection = Arrays.copyOf(bigSelectionArray, bigSelectionArray.length);
-				Arrays.sort(startSelection, new Comparator<Integer>() {
-
-					@Override
-					public int compare(Integer a, Integer b) {
-						return Double.compare(attributeColumn[a], attributeColumn[b]);
-					}
-				});
-				selection.put(j, ArrayUtils.toPrimitive(startSelection));
+				selection.put(j, createSortedSelection(columnTable.getNumericalAttributeColumn(j)));
 			}
 		}
 		return selection;
@@ -91,7 +91,6 @@ public class SelectionCreator {
 			selection.put(0, createFullArray(columnTable.getNumberOfExamples()));
 		} else {
 			List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>();
-			final Integer[] bigSelectionArray = createFullBigArray(columnTable.getNumberOfExamples());
 			for (int j = columnTable.getNumberOfRegularNominalAttributes(); j < columnTable
 					.getTotalNumberOfRegularAttributes(); j++) {
 				final double[] attributeColumn = columnTable.getNumericalAttributeColumn(j);
@@ -99,15 +98,7 @@ public class SelectionCreator {
 
 					@Override
 					public int[] call() {
-						Integer[] startSelection = Arrays.copyOf(bigSelectionArray, bigSelectionArray.length);
-						Arrays.sort(startSelection, new Comparator<Integer>() {
-
-							@Override
-							public int compare(Integer a, Integer b) {
-								return Double.compare(attributeColumn[a], attributeColumn[b]);
-							}
-						});
-						return ArrayUtils.toPrimitive(startSelection);
+						return createSortedSelection(attributeColumn);
 					}
 
 				});
@@ -135,6 +126,112 @@ public class SelectionCreator {
 		return selection;
 	}
 
+    /**
+     * Creates an example index array such that the associated values of the column are in
+     * ascending order as defined by {@link Double#compare(double, double)}, i.e. with the missing
+     * values at the end. Examples with equal values keep their order.
+     *
+     * @param attributeColumn the values of a numerical attribute
+     * @return the sorted example indices
+     * @since 7.6.1
+     */
+    public static int[] createSortedSelection(double[] attributeColumn) {
+		int length = attributeColumn.length;
+		int[] indices = new int[length];
+		if (length == 0) {
+			return indices;
+		}
+
+		// keys whose unsigned order is the order of Double.compare, and the histograms of all digits
+		int numberOfPasses = Long.SIZE / RADIX_BITS;
+		long[] keys = new long[length];
+		int[] counts = new int[numberOfPasses * RADIX];
+		for (int i = 0; i < length; i++) {
+			long bits = Double.doubleToLongBits(attributeColumn[i]);
+			long key = bits ^ (bits >> 63 | Long.MIN_VALUE);
+			keys[i] = key;
+			indices[i] = i;
+			for (int pass = 0; pass < numberOfPasses; pass++) {
+				counts[pass * RADIX + (int) (key >>> pass * RADIX_BITS & RADIX - 1)]++;
+			}
+		}
+
+		long[] keyBuffer = new long[length];
+		int[] indexBuffer = new int[length];
+		for (int pass = 0; pass < numberOfPasses; pass++) {
+			int shift = pass * RADIX_BITS;
+			int offset = pass * RADIX;
+			// a digit that is the same for all keys does not change the order
+			if (counts[offset + (int) (keys[0] >>> shift & RADIX - 1)] == length) {
+				continue;
+			}
+			int position = 0;
+			for (int digit = offset; digit < offset + RADIX; digit++) {
+				int count = counts[digit];
+				counts[digit] = position;
+				position += count;
+			}
+			for (int i = 0; i < length; i++) {
+				long key = keys[i];
+				int target = counts[offset + (int) (key >>> shift & RADIX - 1)]++;
+				keyBuffer[target] = key;
+				indexBuffer[target] = indices[i];
+			}
+			long[] swapKeys = keys;
+			keys = keyBuffer;
+			keyBuffer = swapKeys;
+			int[] swapIndices = indices;
+			indices = indexBuffer;
+			indexBuffer = swapIndices;
+		}
+		return indices;
+	}
+
+    /**
+     * Assigns the values of every numerical attribute to at most numberOfBins bins of about equal
+     * size, using the sorted start selection. Equal values are always in the same bin, missing
+     * values are in the extra bin numberOfBins.
+     *
+     * @param startSelection the start selection as created by {@link #getStartSelection()}
+     * @param numberOfBins   the maximal number of bins, at most {@link Short#MAX_VALUE}
+     * @return the bins of the examples for all numerical attribute numbers, {@code null} for the
+     *         nominal attributes
+     * @since 7.6.1
+     */
+    public short[][] createBins(Map<Integer, int[]> startSelection, int numberOfBins) {
+		short[][] bins = new short[columnTable.getTotalNumberOfRegularAttributes()][];
+		if (columnTable.getNumberOfRegularNumericalAttributes() == 0) {
+			return bins;
+		}
+		for (int j = columnTable.getNumberOfRegularNominalAttributes(); j < columnTable
+				.getTotalNumberOfRegularAttributes(); j++) {
+			double[] attributeColumn = columnTable.getNumericalAttributeColumn(j);
+			int[] sortedExamples = startSelection.get(j);
+			int numberOfValues = sortedExamples.length;
+			while (numberOfValues > 0 && Double.isNaN(attributeColumn[sortedExamples[numberOfValues - 1]])) {
+				numberOfValues--;
+			}
+
+			short[] attributeBins = new short[attributeColumn.length];
+			int bin = 0;
+			double lastValue = Double.NaN;
+			for (int position = 0; position < numberOfValues; position++) {
+				int example = sortedExamples[position];
+				double value = attributeColumn[example];
+				if (!Tools.isEqual(value, lastValue)) {
+					bin = (int) ((long) position * numberOfBins / numberOfValues);
+					lastValue = value;
+				}
+				attributeBins[example] = (short) bin;
+			}
+			for (int position = numberOfValues; position < sortedExamples.length; position++) {
+				attributeBins[sortedExamples[position]] = (short) numberOfBins;
+			}
+			bins[j] = attributeBins;
+		}
+		return bins;
+	}
+
     /**
      * Splits the selected examples according to the bestAttribute and, if the attribute is
      * numerical, the bestSplitValue.
@@ -168,31 +265,39 @@ public class SelectionCreator {
     public Collection<Map<Integer, int[]>> calculateSplits(Map<Integer, int[]> allSelectedExamples, int bestAttribute,
 			double bestSplitValue) {
 		double[] attributeColumn = columnTable.getNumericalAttributeColumn(bestAttribute);
+
+		// the sizes of the parts are the same for all attributes
+		int numberOfSmaller = 0;
+		int numberOfNaNs = 0;
+		int[] bestSelectedExamples = allSelectedExamples.get(bestAttribute);
+		for (int j : bestSelectedExamples) {
+			double value = attributeColumn[j];
+			if (Double.isNaN(value)) {
+				numberOfNaNs++;
+			} else if (Tools.isLessEqual(value, bestSplitValue)) {
+				numberOfSmaller++;
+			}
+		}
+		int numberOfBigger = bestSelectedExamples.length - numberOfSmaller - numberOfNaNs;
+
 		List<Map<Integer, int[]>> results = new ArrayList<>(3);
 		results.add(0, new HashMap<Integer, int[]>());
 		results.add(1, new HashMap<Integer, int[]>());
-
-		boolean existNaNs = false;
-		// check if the selectedExamples contain NaN values of the attribute Column - because of
-		// sorting they should be at the end
-		if (Double
-				.isNaN(attributeColumn[allSelectedExamples.get(bestAttribute)[allSelectedExamples.get(bestAttribute).length - 1]])) {
-			existNaNs = true;
+		boolean existNaNs = numberOfNaNs > 0;
+		if (existNaNs) {
 			results.add(2, new HashMap<Integer, int[]>());
 		}
-		int maximalLength = getArbitraryValue(allSelectedExamples).length;
-		int[] smaller = new int[maximalLength];
-		int[] bigger = new int[maximalLength];
-		int[] naNs = new int[maximalLength];
 
 		double value;
-		for (int i : allSelectedExamples.keySet()) {
+		for (Entry<Integer, int[]> entry : allSelectedExamples.entrySet()) {
+			int[] smaller = new int[numberOfSmaller];
+			int[] bigger = new int[numberOfBigger];
+			int[] naNs = new int[numberOfNaNs];
 			int smallerPosition = 0;
 			int biggerPosition = 0;
 			int naNsPosition = 0;
 
-			int[] selectedExamples = allSelectedExamples.get(i);
-			for (int j : selectedExamples) {
+			for (int j : entry.getValue()) {
 				value = attributeColumn[j];
 				if (Double.isNaN(value)) {
 					naNs[naNsPosition] = j;
@@ -205,10 +310,10 @@ public class SelectionCreator {
 					biggerPosition++;
 				}
 			}
-			results.get(0).put(i, Arrays.copyOf(smaller, smallerPosition));
-			results.get(1).put(i, Arrays.copyOf(bigger, biggerPosition));
+			results.get(0).put(entry.getKey(), smaller);
+			results.get(1).put(entry.getKey(), bigger);
 			if (existNaNs) {
-				results.get(2).put(i, Arrays.copyOf(naNs, naNsPosition));
+				results.get(2).put(entry.getKey(), naNs);
 			}
 		}
 
@@ -225,42 +330,163 @@ public class SelectionCreator {
      */
     public Collection<Map<Integer, int[]>> calculateSplits(Map<Integer, int[]> allSelectedExamples, int bestAttribute) {
 		byte[] attributeColumn = columnTable.getNominalAttributeColumn(bestAttribute);
+
+		// the number of examples per value is the same for all attributes
+		int[] counts = new int[256];
 		Map<Byte, Map<Integer, int[]>> results = new HashMap<>();
-		Map<Byte, List<Integer>> valueLists;
+		for (int j : getArbitraryValue(allSelectedExamples)) {
+			if (counts[attributeColumn[j] & 0xFF]++ == 0) {
+				results.put(attributeColumn[j], new HashMap<Integer, int[]>());
+			}
+		}
 
-		byte value;
-		for (int i : allSelectedExamples.keySet()) {
-			valueLists = new HashMap<>();
-			int[] selectedExamples = allSelectedExamples.get(i);
+		int[][] parts = new int[256][];
+		int[] positions = new int[256];
+		for (Entry<Integer, int[]> entry : allSelectedExamples.entrySet()) {
+			for (Entry<Byte, Map<Integer, int[]>> result : results.entrySet()) {
+				int value = result.getKey() & 0xFF;
+				parts[value] = new int[counts[value]];
+				positions[value] = 0;
+				result.getValue().put(entry.getKey(), parts[value]);
+			}
+			for (int j : entry.getValue()) {
+				int value = attributeColumn[j] & 0xFF;
+				parts[value][positions[value]++] = j;
+			}
+		}
 
-			for (int j : selectedExamples) {
-				// put j in the list associated to its value
-				value = attributeColumn[j];
-				if (valueLists.containsKey(value)) {
-					valueLists.get(value).add(j);
-				} else {
-					List<Integer> temp = new ArrayList<>();
-					temp.add(j);
-					valueLists.put(value, temp);
-				}
+		return results.values();
+	}
+
+    /**
+     * Calculates the parts the examples selected between from (inclusive) and to (exclusive) are
+     * split into according to the bestAttribute and, if the attribute is numerical, the
+     * bestSplitValue. The parts are in the same order as the ones of
+     * {@link #getSplits(Map, int, double)}, empty parts included. The selections are not changed.
+     *
+     * @param allSelectedExamples the all selected examples
+     * @param from                the position of the first selected example
+     * @param to                  the position after the last selected example
+     * @param bestAttribute       the best attribute
+     * @param bestSplitValue      the best split value
+     * @return the position after the last example of each part, the first part starts at from and
+     *         every other part at the end of the previous one
+     * @since 7.6.1
+     */
+    public int[] getSplitEnds(Map<Integer, int[]> allSelectedExamples, int from, int to, int bestAttribute,
+			double bestSplitValue) {
+		int[] selectedExamples = getArbitraryValue(allSelectedExamples);
+		int[] ends;
+		if (columnTable.representsNominalAttribute(bestAttribute)) {
+			byte[] attributeColumn = columnTable.getNominalAttributeColumn(bestAttribute);
+			int[] groups = getNominalGroups(selectedExamples, from, to, bestAttribute);
+			ends = new int[groups[256]];
+			for (int position = from; position < to; position++) {
+				ends[groups[attributeColumn[selectedExamples[position]] & 0xFF]]++;
 			}
+		} else {
+			double[] attributeColumn = columnTable.getNumericalAttributeColumn(bestAttribute);
+			ends = new int[3];
+			for (int position = from; position < to; position++) {
+				ends[getNumericalPart(attributeColumn[selectedExamples[position]], bestSplitValue)]++;
+			}
+			if (ends[2] == 0) {
+				// there is only a part for missing values if there are any
+				ends = Arrays.copyOf(ends, 2);
+			}
+		}
 
-			// store the pair (key, list) as (key, (i,array(list))
-			for (Byte key : valueLists.keySet()) {
-				List<Integer> list = valueLists.get(key);
-				int[] temp = ArrayUtils.toPrimitive(list.toArray(new Integer[list.size()]));
-				if (results.containsKey(key)) {
-					results.get(key).put(i, temp);
-				} else {
-					Map<Integer, int[]> toadd = new HashMap<>();
-					toadd.put(i, temp);
-					results.put(key, toadd);
-				}
+		int end = from;
+		for (int part = 0; part < ends.length; part++) {
+			end += ends[part];
+			ends[part] = end;
+		}
+		return ends;
+	}
 
+    /**
+     * Partitions for every attribute the examples selected between from (inclusive) and to
+     * (exclusive) in place into the parts given by {@link #getSplitEnds(Map, int, int, int, double)}.
+     * Examples keep their order within a part, so the parts stay sorted. Only a buffer that is
+     * reused for all nodes split by the same thread is needed.
+     *
+     * @param allSelectedExamples the all selected examples
+     * @param from                the position of the first selected example
+     * @param to                  the position after the last selected example
+     * @param bestAttribute       the best attribute
+     * @param bestSplitValue      the best split value
+     * @return the position after the last example of each part, see
+     *         {@link #getSplitEnds(Map, int, int, int, double)}
+     * @since 7.6.1
+     */
+    public int[] partition(Map<Integer, int[]> allSelectedExamples, int from, int to, int bestAttribute,
+			double bestSplitValue) {
+		int[] ends = getSplitEnds(allSelectedExamples, from, to, bestAttribute, bestSplitValue);
+		boolean nominal = columnTable.representsNominalAttribute(bestAttribute);
+		int[] groups = nominal ? getNominalGroups(getArbitraryValue(allSelectedExamples), from, to, bestAttribute)
+				: null;
+		byte[] nominalColumn = nominal ? columnTable.getNominalAttributeColumn(bestAttribute) : null;
+		double[] numericalColumn = nominal ? null : columnTable.getNumericalAttributeColumn(bestAttribute);
+
+		int length = to - from;
+		int[] buffer = partitionBuffer.get();
+		if (buffer == null || buffer.length < length) {
+			buffer = new int[length];
+			partitionBuffer.set(buffer);
+		}
+		int[] positions = new int[ends.length];
+		for (int[] selection : allSelectedExamples.values()) {
+			positions[0] = 0;
+			for (int part = 1; part < ends.length; part++) {
+				positions[part] = ends[part - 1] - from;
 			}
+			for (int position = from; position < to; position++) {
+				int j = selection[position];
+				int part = nominal ? groups[nominalColumn[j] & 0xFF]
+						: getNumericalPart(numericalColumn[j], bestSplitValue);
+				buffer[positions[part]++] = j;
+			}
+			System.arraycopy(buffer, 0, selection, from, length);
 		}
+		return ends;
+	}
 
-		return results.values();
+	/**
+	 * Returns 0 for values smaller or equal to the splitValue, 1 for bigger values and 2 for
+	 * missing values.
+	 */
+	private static int getNumericalPart(double value, double splitValue) {
+		if (Double.isNaN(value)) {
+			return 2;
+		} else if (Tools.isLessEqual(value, splitValue)) {
+			return 0;
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Numbers the values of the nominal attribute that occur between from and to in the order of
+	 * the parts of {@link #calculateSplits(Map, int)}, which is the iteration order of a hash set of
+	 * the values in the order they occur. The part of a value is at its unsigned byte index, the
+	 * number of parts at index 256.
+	 */
+	private int[] getNominalGroups(int[] selectedExamples, int from, int to, int attributeNumber) {
+		byte[] attributeColumn = columnTable.getNominalAttributeColumn(attributeNumber);
+		int[] groups = new int[257];
+		Set<Byte> values = new HashSet<>();
+		for (int position = from; position < to; position++) {
+			byte value = attributeColumn[selectedExamples[position]];
+			if (groups[value & 0xFF]++ == 0) {
+				values.add(value);
+			}
+		}
+		int part = 0;
+		for (byte value : values) {
+			groups[value & 0xFF] = part++;
+		}
+		groups[256] = part;
+		return groups;
 	}
 
     /**
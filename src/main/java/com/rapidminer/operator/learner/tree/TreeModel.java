@@ -18,18 +18,23 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.SimplePredictionModel;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 
 
 /**
- * The tree model is the model created by all decision trees.
+ * The tree model is the model created by all decision trees. Example sets are scored by a
+ * {@link CompiledTree} in parallel batches if the tree can be compiled.
  *
  * @author Sebastian Land
  */
@@ -39,6 +44,12 @@ public class TreeModel extends SimplePredictionModel {
 
 	private Tree root;
 
+	/** The compiled tree, created on the first application. */
+	private transient volatile CompiledTree compiledTree;
+
+	/** Whether the tree cannot be compiled. */
+	private transient volatile boolean notCompilable;
+
     /**
      * Instantiates a new Tree model.
      *
@@ -60,6 +71,57 @@ public class TreeModel extends SimplePredictionModel {
 		return this.root;
 	}
 
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, final Attribute predictedLabel) throws OperatorException {
+		// subclasses might predict differently
+		final CompiledTree tree = getClass() == TreeModel.class ? getCompiledTree() : null;
+		List<Attribute> attributes = tree != null ? tree.getAttributes(exampleSet) : null;
+		final Attribute[] confidenceAttributes = BatchScoring.getConfidenceAttributes(exampleSet,
+				getLabel().getMapping());
+		if (attributes == null || confidenceAttributes == null) {
+			return super.performPrediction(exampleSet, predictedLabel);
+		}
+
+		OperatorProgress progress = null;
+		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
+			progress = getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+
+		final int[] nodes = new int[BatchScoring.BATCH_SIZE];
+		BatchScoring.apply(exampleSet, attributes, getOperator(), progress, new BatchScoring.RowPredictor() {
+
+			@Override
+			public void predict(double[] values, int row) {
+				nodes[row] = tree.findNode(values);
+			}
+		}, new BatchScoring.RowWriter() {
+
+			@Override
+			public void write(Example example, int row) {
+				int node = nodes[row];
+				for (int i = 0; i < confidenceAttributes.length; i++) {
+					example.setValue(confidenceAttributes[i], tree.getConfidence(node, i));
+				}
+				example.setValue(predictedLabel, tree.getPrediction(node));
+			}
+		});
+		return exampleSet;
+	}
+
+	/**
+	 * Returns the compiled tree or {@code null} if the tree cannot be compiled.
+	 */
+	private CompiledTree getCompiledTree() {
+		CompiledTree tree = compiledTree;
+		if (tree == null && !notCompilable) {
+			tree = CompiledTree.compile(root, getLabel().getMapping());
+			compiledTree = tree;
+			notCompilable = tree == null;
+		}
+		return tree;
+	}
+
 	@Override
 	public double predict(Example example) throws OperatorException {
 		return predict(example, root);
@@ -46,6 +46,12 @@ public abstract class AbstractColumnCriterion implements ColumnCriterion {
 		return new WeightDistribution(columnTable, selection, numericalAttributeNumber);
 	}
 
+	@Override
+	public WeightDistribution startIncrementalCalculation(ColumnExampleTable columnTable, int[] selection, int from,
+			int to, int numericalAttributeNumber) {
+		return new WeightDistribution(columnTable, selection, from, to, numericalAttributeNumber);
+	}
+
 	@Override
 	public void updateWeightDistribution(ColumnExampleTable columnTable, int row, WeightDistribution distribution) {
 		double weight = 1;
@@ -62,6 +68,14 @@ public abstract class AbstractColumnCriterion implements ColumnCriterion {
 		return getBenefit(weightCounts);
 	}
 
+	@Override
+	public double getNominalBenefit(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber) {
+		double[][] weightCounts = ColumnFrequencyCalculator.getNominalWeightCounts(columnTable, selection, from, to,
+				attributeNumber);
+		return getBenefit(weightCounts);
+	}
+
 	@Override
 	public double getNumericalBenefit(ColumnExampleTable columnTable, int[] selection, int attributeNumber, double splitValue) {
 		double[][] weightCounts = ColumnFrequencyCalculator.getNumericalWeightCounts(columnTable, selection,
@@ -69,6 +83,14 @@ public abstract class AbstractColumnCriterion implements ColumnCriterion {
 		return getBenefit(weightCounts);
 	}
 
+	@Override
+	public double getNumericalBenefit(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber, double splitValue) {
+		double[][] weightCounts = ColumnFrequencyCalculator.getNumericalWeightCounts(columnTable, selection, from, to,
+				attributeNumber, splitValue);
+		return getBenefit(weightCounts);
+	}
+
     /**
      * This method returns the criterion specified by the respective parameters.
      *
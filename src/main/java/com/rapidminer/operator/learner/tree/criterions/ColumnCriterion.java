@@ -20,6 +20,8 @@ package com.rapidminer.operator.learner.tree.criterions;
 
 import com.rapidminer.operator.learner.tree.ColumnExampleTable;
 
+import java.util.Arrays;
+
 
 /**
  * The criterion for a splitting the selected examples based on a {@link ColumnExampleTable} and a
@@ -42,6 +44,25 @@ public interface ColumnCriterion {
      */
     public double getNominalBenefit(ColumnExampleTable columnTable, int[] selection, int attributeNumber);
 
+    /**
+     * Calculates the benefit for splitting the examples selected between from (inclusive) and to
+     * (exclusive) at the nominal attribute represented by the attributeNumber. The default
+     * implementation copies that range and calls
+     * {@link #getNominalBenefit(ColumnExampleTable, int[], int)}.
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @return nominal benefit
+     * @since 7.6.1
+     */
+    public default double getNominalBenefit(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber) {
+		return getNominalBenefit(columnTable, Arrays.copyOfRange(selection, from, to), attributeNumber);
+	}
+
     /**
      * Calculates the benefit for splitting the current selection of the columnTable at the split
      * value of the numerical attribute represented by the attributeNumber
@@ -54,6 +75,26 @@ public interface ColumnCriterion {
      */
     public double getNumericalBenefit(ColumnExampleTable columnTable, int[] selection, int attributeNumber, double splitValue);
 
+    /**
+     * Calculates the benefit for splitting the examples selected between from (inclusive) and to
+     * (exclusive) at the split value of the numerical attribute represented by the
+     * attributeNumber. The default implementation copies that range and calls
+     * {@link #getNumericalBenefit(ColumnExampleTable, int[], int, double)}.
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @param splitValue      the split value
+     * @return numerical benefit
+     * @since 7.6.1
+     */
+    public default double getNumericalBenefit(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber, double splitValue) {
+		return getNumericalBenefit(columnTable, Arrays.copyOfRange(selection, from, to), attributeNumber, splitValue);
+	}
+
     /**
      * Supports incremental calculation boolean.
      *
@@ -72,6 +113,25 @@ public interface ColumnCriterion {
     public WeightDistribution startIncrementalCalculation(ColumnExampleTable columnTable, int[] selection,
 			int attributeNumber);
 
+    /**
+     * Calculates the {@link WeightDistribution} of the examples selected between from (inclusive)
+     * and to (exclusive) at the beginning of the incremental calculation. The default
+     * implementation copies that range and calls
+     * {@link #startIncrementalCalculation(ColumnExampleTable, int[], int)}.
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @return weight distribution
+     * @since 7.6.1
+     */
+    public default WeightDistribution startIncrementalCalculation(ColumnExampleTable columnTable, int[] selection,
+			int from, int to, int attributeNumber) {
+		return startIncrementalCalculation(columnTable, Arrays.copyOfRange(selection, from, to), attributeNumber);
+	}
+
     /**
      * Updates the weight distribution when going to the next example.
      *
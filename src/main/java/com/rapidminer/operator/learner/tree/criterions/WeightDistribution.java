@@ -69,7 +69,22 @@ public class WeightDistribution {
      * @param attributeNumber the attribute number
      */
     public WeightDistribution(ColumnExampleTable columnTable, int[] selection, int attributeNumber) {
-		calculateLabelWeights(columnTable, selection, attributeNumber);
+		this(columnTable, selection, 0, selection.length, attributeNumber);
+	}
+
+    /**
+     * Initializes the counting arrays with the start distribution of the examples selected between
+     * from (inclusive) and to (exclusive).
+     *
+     * @param columnTable     the column table
+     * @param selection       the array containing the selection
+     * @param from            the position of the first selected example
+     * @param to              the position after the last selected example
+     * @param attributeNumber the attribute number
+     * @since 7.6.1
+     */
+    public WeightDistribution(ColumnExampleTable columnTable, int[] selection, int from, int to, int attributeNumber) {
+		calculateLabelWeights(columnTable, selection, from, to, attributeNumber);
 		leftLabelWeights = new double[totalLabelWeights.length];
 		leftWeight = 0;
 		totalWeight = getTotalWeight(totalLabelWeights);
@@ -89,14 +104,16 @@ public class WeightDistribution {
 	/**
 	 * Calculates the start distributions.
 	 */
-	private void calculateLabelWeights(ColumnExampleTable columnTable, int[] selection, int attributeNumber) {
+	private void calculateLabelWeights(ColumnExampleTable columnTable, int[] selection, int from, int to,
+			int attributeNumber) {
 		Attribute label = columnTable.getLabel();
 		int[] labelColumn = columnTable.getLabelColumn();
 		Attribute weightAttribute = columnTable.getWeight();
 		double[] weightColumn = columnTable.getWeightColumn();
 		totalLabelWeights = new double[label.getMapping().size()];
 		missingsLabelWeights = new double[totalLabelWeights.length];
-		for (int j : selection) {
+		for (int position = from; position < to; position++) {
+			int j = selection[position];
 			int labelIndex = labelColumn[j];
 			double weight = 1.0d;
 			if (weightAttribute != null) {
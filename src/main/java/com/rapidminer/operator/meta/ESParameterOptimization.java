@@ -19,11 +19,18 @@
 package com.rapidminer.operator.meta;
 
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.meta.ParameterIteratingOperatorChain.EvaluationResult;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.tools.LoggingHandler;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.optimization.ec.es.ESOptimization;
 import com.rapidminer.tools.math.optimization.ec.es.Individual;
+import com.rapidminer.tools.math.optimization.ec.es.Population;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -36,6 +43,9 @@ public class ESParameterOptimization extends ESOptimization {
 	/** The parent operator. Used for fitness evaluation. */
 	private EvolutionaryParameterOptimizationOperator operator;
 
+	/** The results of the parallel evaluation of the current generation, {@code null} if none. */
+	private Map<Individual, EvaluationResult> parallelResults;
+
     /**
      * Creates a new evolutionary SVM optimization.  @param operator the operator
      *
@@ -70,8 +80,36 @@ public class ESParameterOptimization extends ESOptimization {
 
 	}
 
+	@Override
+	protected void evaluateAll(Population population) throws OperatorException {
+		// evaluating the new individuals of the generation up front, they are processed in the
+		// original order afterwards
+		List<Individual> individuals = new ArrayList<>();
+		for (int i = population.getNumberOfIndividuals() - 1; i >= 0; i--) {
+			if (population.get(i).getFitness() == null) {
+				individuals.add(population.get(i));
+			}
+		}
+		List<EvaluationResult> results = operator.evaluateInParallel(individuals);
+		if (results != null) {
+			parallelResults = new IdentityHashMap<>();
+			for (int i = 0; i < individuals.size(); i++) {
+				parallelResults.put(individuals.get(i), results.get(i));
+			}
+		}
+		try {
+			super.evaluateAll(population);
+		} finally {
+			parallelResults = null;
+		}
+	}
+
 	@Override
 	public PerformanceVector evaluateIndividual(Individual individual) throws OperatorException {
+		EvaluationResult result = parallelResults != null ? parallelResults.get(individual) : null;
+		if (result != null) {
+			return operator.setParametersAndRestore(individual, result);
+		}
 		return operator.setParametersAndEvaluate(individual);
 	}
 
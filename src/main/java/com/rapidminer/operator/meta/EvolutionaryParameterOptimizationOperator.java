@@ -31,6 +31,7 @@ import com.rapidminer.tools.math.optimization.ec.es.ESOptimization;
 import com.rapidminer.tools.math.optimization.ec.es.Individual;
 import com.rapidminer.tools.math.optimization.ec.es.OptimizationValueType;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -295,18 +296,73 @@ public class EvolutionaryParameterOptimizationOperator extends ParameterOptimiza
      * @throws OperatorException the operator exception
      */
     public PerformanceVector setParametersAndEvaluate(Individual individual) throws OperatorException {
+		setParameters(individual);
+		return getPerformanceVector();
+	}
+
+    /**
+     * Sets the parameters of the individual like {@link #setParametersAndEvaluate(Individual)} but
+     * takes the performance and the inner results from the given result of
+     * {@link #evaluateInParallel(List)}.
+     *
+     * @param individual the individual
+     * @param result     the result of the parallel evaluation of the individual
+     * @return the performance of the individual
+     * @since 7.6.1
+     */
+    public PerformanceVector setParametersAndRestore(Individual individual, EvaluationResult result) {
+		setParameters(individual);
+		return restoreInnerResults(result);
+	}
+
+    /**
+     * Evaluates the given individuals of a generation in parallel if the parallel execution is
+     * enabled and possible.
+     *
+     * @param individuals the individuals to evaluate
+     * @return the results in the order of the individuals or {@code null} if the individuals need to
+     *         be evaluated sequentially
+     * @throws OperatorException if the evaluation of an individual fails
+     * @since 7.6.1
+     */
+    public List<EvaluationResult> evaluateInParallel(List<Individual> individuals) throws OperatorException {
+		if (individuals.size() < 2 || !checkParallelizability(operators)) {
+			return null;
+		}
+		List<String[]> combinations = new ArrayList<>(individuals.size());
+		for (Individual individual : individuals) {
+			combinations.add(getParameterValues(individual));
+		}
+		// the progress of the optimization is reported per generation
+		return evaluateInParallel(operators, parameters, combinations, true, null);
+	}
+
+	/** Sets the parameter values of the given individual for the operators. */
+	private void setParameters(Individual individual) {
+		String[] values = getParameterValues(individual);
+		for (int j = 0; j < values.length; j++) {
+			operators[j].getParameters().setParameter(parameters[j], values[j]);
+			getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j]);
+		}
+	}
+
+	/** Returns the parameter values of the given individual. */
+	private String[] getParameterValues(Individual individual) {
 		double[] currentValues = individual.getValues();
+		String[] values = new String[currentValues.length];
 		for (int j = 0; j < currentValues.length; j++) {
-			String value;
 			if (types[j].equals(OptimizationValueType.VALUE_TYPE_DOUBLE)) {
-				value = currentValues[j] + "";
+				values[j] = currentValues[j] + "";
 			} else {
-				value = (int) Math.round(currentValues[j]) + "";
+				values[j] = (int) Math.round(currentValues[j]) + "";
 			}
-			operators[j].getParameters().setParameter(parameters[j], value);
-			getLogger().fine(operators[j] + "." + parameters[j] + " = " + value);
 		}
-		return getPerformanceVector();
+		return values;
+	}
+
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
 	}
 
 	@Override
@@ -134,12 +134,20 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
      * @throws OperatorException the operator exception
      */
     protected PerformanceVector computeCurrentPerformance() throws OperatorException {
-		// set all parameter values
+		setCurrentParameters();
+		return super.getPerformanceVector();
+	}
+
+    /**
+     * Sets the current parameter values for the operators.
+     *
+     * @since 7.6.1
+     */
+    protected void setCurrentParameters() {
 		for (int j = 0; j < operators.length; j++) {
 			operators[j].getParameters().setParameter(parameters[j], values[j][currentIndex[j]]);
 			getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j][currentIndex[j]]);
 		}
-		return super.getPerformanceVector();
 	}
 
     /**
@@ -179,6 +187,11 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 		}
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	public double getCurrentBestPerformance() {
 		if (best != null) {
@@ -204,11 +217,23 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 			throw new UserError(this, 922);
 		}
 
+		// evaluating all combinations up front, the results are processed in the original order
+		List<EvaluationResult> results = null;
+		if (checkParallelizability(operators)) {
+			results = evaluateInParallel(operators, parameters, getCombinations(values), false, getProgress());
+		}
+
 		int counter = 1;
 		best = null;
 		while (true) {
 			getLogger().fine("Using parameter set " + counter + " / " + numberOfCombinations + ":");
-			PerformanceVector performance = computeCurrentPerformance();
+			PerformanceVector performance;
+			if (results != null) {
+				setCurrentParameters();
+				performance = restoreInnerResults(results.get(counter - 1));
+			} else {
+				performance = computeCurrentPerformance();
+			}
 			// entering if-block if and only if performance != null, because without a performance
 			// we can not say that this is the optimal set
 			if (performance != null && (best == null || performance.compareTo(best.getPerformance()) > 0)) {
@@ -237,7 +262,9 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 
 			inApplyLoop();
 			counter++;
-			getProgress().setCompleted(counter);
+			if (results == null) {
+				getProgress().setCompleted(counter);
+			}
 		}
 
 		deliver(best);
@@ -19,28 +19,50 @@
 package com.rapidminer.operator.meta;
 
 import com.rapidminer.RapidMiner;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.gui.properties.ConfigureParameterOptimizationDialogCreator;
 import com.rapidminer.operator.*;
 import com.rapidminer.operator.ProcessSetupError.Severity;
+import com.rapidminer.operator.collections.CollectionIterationOperator;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.Port;
 import com.rapidminer.operator.ports.PortPairExtender;
+import com.rapidminer.operator.ports.PortPairExtender.PortPair;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.SimplePrecondition;
 import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
 import com.rapidminer.operator.ports.quickfix.ParameterSettingQuickFix;
+import com.rapidminer.operator.features.weighting.ProcessLog2AttributeWeights;
+import com.rapidminer.operator.util.annotations.ExtractAnnotation;
+import com.rapidminer.operator.visualization.ClearProcessLog;
+import com.rapidminer.operator.visualization.ProcessLog2ExampleSet;
+import com.rapidminer.operator.visualization.ProcessLogOperator;
+import com.rapidminer.operator.visualization.ProcessLogOperator.BufferedRows;
 import com.rapidminer.parameter.*;
 import com.rapidminer.parameter.conditions.AboveOperatorVersionCondition;
 import com.rapidminer.parameter.value.ParameterValueGrid;
 import com.rapidminer.parameter.value.ParameterValueList;
 import com.rapidminer.parameter.value.ParameterValueRange;
 import com.rapidminer.parameter.value.ParameterValues;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -90,6 +112,19 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 
 	private static final String PARAMETER_PARAMETER = "parameter_name";
 
+	/**
+	 * The operators that change or read the state of the process and prevent the parallel
+	 * evaluation of the combinations. Rows logged by {@link ProcessLogOperator}s are buffered per
+	 * combination instead.
+	 */
+	private static final List<Class<? extends Operator>> SEQUENTIAL_OPERATORS = Arrays.asList(
+			ClearProcessLog.class, ProcessLog2ExampleSet.class, ProcessLog2AttributeWeights.class,
+			MacroDefinitionOperator.class, SingleMacroDefinitionOperator.class,
+			DataMacroDefinitionOperator.class, MacroConstructionOperator.class, ExtractAnnotation.class,
+			AbstractIteratingOperatorChain.class, FeatureIterator.class, ExampleIterator.class, ValueIteration.class,
+			ValueSubgroupIteration.class, AbstractFileIterator.class, AbstractRepositoryIterator.class,
+			ExceptionHandling.class, CollectionIterationOperator.class);
+
     /**
      * The constant PARAMETER_ERROR_HANDLING.
      */
@@ -109,6 +144,44 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
      */
     public static final int ERROR_IGNORE = 1;
 
+    /**
+     * The parameter name for &quot;Enables the parallel evaluation of the parameter
+     * combinations.&quot;
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
+    /**
+     * The performance and the data delivered to the inner sinks by the evaluation of a parameter
+     * combination in
+     * {@link ParameterIteratingOperatorChain#evaluateInParallel(Operator[], String[], List, boolean, OperatorProgress)}.
+     *
+     * @since 7.6.1
+     */
+    protected static final class EvaluationResult {
+
+		private final PerformanceVector performance;
+
+		/** The data of the inner sink extender, {@code null} if not kept. */
+		private IOObject[] innerResults;
+
+		/** The rows logged by the process log operators of the subprocess. */
+		private BufferedRows[] loggedRows;
+
+		private EvaluationResult(PerformanceVector performance, IOObject[] innerResults) {
+			this.performance = performance;
+			this.innerResults = innerResults;
+		}
+
+        /**
+         * Returns the performance of the parameter combination.
+         *
+         * @return the performance, might be {@code null}
+         */
+        public PerformanceVector getPerformance() {
+			return performance;
+		}
+	}
+
 	private final PortPairExtender inputExtender = new PortPairExtender("input", getInputPorts(), getSubprocess(0)
 			.getInnerSources());
 	private final InputPort performanceInnerSink = getSubprocess(0).getInnerSinks().createPort("performance");
@@ -370,6 +443,307 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 		}
 	}
 
+    /**
+     * Indicates whether this operator evaluates independent parameter combinations that can be
+     * evaluated in parallel. If so, the parameter {@link #PARAMETER_ENABLE_PARALLEL_EXECUTION} is
+     * offered and subclasses should call
+     * {@link #evaluateInParallel(Operator[], String[], List, boolean, OperatorProgress)} whenever
+     * {@link #checkParallelizability(Operator[])} returns {@code true}.
+     *
+     * @return {@code true} if the parameter combinations can be evaluated in parallel
+     * @since 7.6.1
+     */
+    protected boolean supportsParallelExecution() {
+		return false;
+	}
+
+    /**
+     * Checks whether the user has enabled the parallel execution, whether more than one thread is
+     * available, whether there are no breakpoints, operators reading or clearing the process log or
+     * operators defining macros inside the subprocess and whether all given operators are part of
+     * the subprocess. Otherwise the combinations need to be evaluated sequentially.
+     *
+     * @param operators the operators whose parameters are set for the combinations
+     * @return {@code true} if the parameter combinations should be evaluated in parallel
+     * @throws UndefinedParameterError if the parallel execution parameter is undefined
+     * @since 7.6.1
+     */
+    protected boolean checkParallelizability(Operator[] operators) throws UndefinedParameterError {
+		if (!supportsParallelExecution() || !getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION)
+				|| Resources.getConcurrencyContext(this).getParallelism() < 2) {
+			return false;
+		}
+		List<Operator> innerOperators = getSubprocess(0).getAllInnerOperators();
+		for (Operator operator : innerOperators) {
+			if (operator.isEnabled() && (operator.hasBreakpoint() || isSequentialOperator(operator))) {
+				return false;
+			}
+		}
+		// the copies can only set parameters of operators they contain themselves
+		for (Operator operator : operators) {
+			if (!innerOperators.contains(operator)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the operator reads or clears the process log or defines macros of the process,
+	 * which is shared by the copies of this operator evaluating the combinations concurrently.
+	 */
+	private static boolean isSequentialOperator(Operator operator) {
+		for (Class<? extends Operator> operatorClass : SEQUENTIAL_OPERATORS) {
+			if (operatorClass.isInstance(operator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+    /**
+     * Evaluates the given parameter combinations concurrently. Every worker evaluates its
+     * combinations on its own clone of this operator (see
+     * {@link ExecutionUnit#cloneExecutionUnitFrom(ExecutionUnit, boolean)}) with the parameters set
+     * on the clones of the given operators. Each combination is evaluated with a global random
+     * generator seeded with its own seed, drawn in the order of the combinations before any
+     * combination is evaluated, hence the results do not depend on the scheduling of the workers or
+     * the number of threads. Since the sequential evaluation passes a single random stream from one
+     * combination to the next, combinations using random numbers, e.g. for sampling or for the
+     * initialization of a learner, get other random numbers than when evaluated sequentially. Their
+     * performances and hence the best combination can differ from a sequential run.
+     * <p>
+     * Nothing is set for the original operators. The rows logged by the copies of
+     * {@link ProcessLogOperator}s are added to the data tables of the original operators in the
+     * order of the combinations after all combinations have been evaluated. Callers should go
+     * through the results in the order of the combinations like the sequential evaluation and use
+     * {@link #restoreInnerResults(EvaluationResult)} instead of {@link #getPerformanceVector()}.
+     *
+     * @param operators      the operators whose parameters are set
+     * @param parameters     the keys of the parameters, one per operator
+     * @param combinations   the values of the parameters for each combination
+     * @param keepAllResults whether the data at the inner sinks is kept for all combinations or, if
+     *                       {@code false}, only for the combinations that can be the best ones
+     *                       according to {@link PerformanceVector#compareTo(Object)}
+     * @param progress       the progress to step after each combination, might be {@code null}
+     * @return the results in the order of the combinations
+     * @throws OperatorException if the evaluation of a combination fails
+     * @since 7.6.1
+     */
+    protected final List<EvaluationResult> evaluateInParallel(final Operator[] operators, final String[] parameters,
+			final List<String[]> combinations, final boolean keepAllResults, final OperatorProgress progress)
+			throws OperatorException {
+		final int numberOfCombinations = combinations.size();
+		final EvaluationResult[] results = new EvaluationResult[numberOfCombinations];
+		final int[] seeds = new int[numberOfCombinations];
+		RandomGenerator random = RandomGenerator.getGlobalRandomGenerator();
+		for (int i = 0; i < numberOfCombinations; i++) {
+			seeds[i] = random.nextInt(Integer.MAX_VALUE);
+		}
+
+		// all combinations receive the same input, example sets must be safe for concurrent use
+		List<PortPair> inputPairs = inputExtender.getManagedPairs();
+		final IOObject[] inputs = new IOObject[inputPairs.size()];
+		for (int i = 0; i < inputs.length; i++) {
+			IOObject input = inputPairs.get(i).getInputPort().getAnyDataOrNull();
+			if (input instanceof ExampleSet) {
+				input = ExampleSets.createThreadSafeCopy((ExampleSet) input);
+			}
+			inputs[i] = input;
+		}
+
+		// the copies buffer their logged rows per combination
+		List<ProcessLogOperator> logs = new ArrayList<>();
+		for (Operator operator : getSubprocess(0).getAllInnerOperators()) {
+			if (operator instanceof ProcessLogOperator && operator.isEnabled()) {
+				logs.add((ProcessLogOperator) operator);
+			}
+		}
+		final ProcessLogOperator[] logOperators = logs.toArray(new ProcessLogOperator[logs.size()]);
+
+		final AtomicInteger nextCombination = new AtomicInteger();
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		int numberOfWorkers = Math.min(context.getParallelism(), numberOfCombinations);
+		List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final ParameterIteratingOperatorChain copy = (ParameterIteratingOperatorChain) cloneOperator(getName(),
+					true);
+			workers.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					// the copy is not part of the execution unit but needs it to access the process
+					copy.setEnclosingProcess(getExecutionUnit());
+					try {
+						Operator[] copiedOperators = copy.findInnerOperators(operators);
+						Operator[] copiedLogOperators = copy.findInnerOperators(logOperators);
+						int bestCombination = -1;
+						int combination;
+						while ((combination = nextCombination.getAndIncrement()) < numberOfCombinations) {
+							String[] values = combinations.get(combination);
+							for (int j = 0; j < copiedOperators.length; j++) {
+								copiedOperators[j].getParameters().setParameter(parameters[j], values[j]);
+							}
+							BufferedRows[] loggedRows = new BufferedRows[copiedLogOperators.length];
+							for (int j = 0; j < copiedLogOperators.length; j++) {
+								loggedRows[j] = new BufferedRows();
+								((ProcessLogOperator) copiedLogOperators[j]).setRowBuffer(loggedRows[j]);
+							}
+							RandomGenerator previous = RandomGenerator
+									.setGlobalRandomGenerator(new RandomGenerator(seeds[combination]));
+							try {
+								results[combination] = copy.evaluateCombination(inputs);
+							} finally {
+								RandomGenerator.setGlobalRandomGenerator(previous);
+								for (Operator copiedLogOperator : copiedLogOperators) {
+									((ProcessLogOperator) copiedLogOperator).setRowBuffer(null);
+								}
+							}
+							results[combination].loggedRows = loggedRows;
+
+							// the combinations of a worker ascend, only its first best one can be the
+							// first best one overall
+							if (!keepAllResults) {
+								PerformanceVector performance = results[combination].performance;
+								if (performance != null && (bestCombination < 0
+										|| performance.compareTo(results[bestCombination].performance) > 0)) {
+									if (bestCombination >= 0) {
+										results[bestCombination].innerResults = null;
+									}
+									bestCombination = combination;
+								} else {
+									results[combination].innerResults = null;
+								}
+							}
+
+							if (progress != null) {
+								synchronized (progress) {
+									progress.step();
+								}
+							}
+						}
+					} finally {
+						copy.setEnclosingProcess(null);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(workers);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+
+		// the logged rows are added as if the combinations had been evaluated one after the other
+		for (int j = 0; j < logOperators.length; j++) {
+			List<BufferedRows> loggedRows = new ArrayList<>(numberOfCombinations);
+			for (EvaluationResult result : results) {
+				loggedRows.add(result.loggedRows[j]);
+			}
+			logOperators[j].addBufferedRows(loggedRows);
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Returns the operators of this copy with the names of the given operators of the original.
+	 */
+	private Operator[] findInnerOperators(Operator[] originals) {
+		Map<String, Operator> innerOperators = new HashMap<>();
+		for (Operator operator : getSubprocess(0).getAllInnerOperators()) {
+			innerOperators.put(operator.getName(), operator);
+		}
+		Operator[] copies = new Operator[originals.length];
+		for (int i = 0; i < originals.length; i++) {
+			copies[i] = innerOperators.get(originals[i].getName());
+		}
+		return copies;
+	}
+
+	/**
+	 * Evaluates the current parameters on this copy with the given input and returns the
+	 * performance and the data at the inner sinks.
+	 */
+	private EvaluationResult evaluateCombination(IOObject[] inputs) throws OperatorException {
+		List<PortPair> inputPairs = inputExtender.getManagedPairs();
+		for (int i = 0; i < inputPairs.size() && i < inputs.length; i++) {
+			inputPairs.get(i).getInputPort().receive(inputs[i]);
+		}
+		// forget the results of the previous combination evaluated on this copy
+		List<PortPair> sinkPairs = innerSinkExtender.getManagedPairs();
+		getPerformanceInnerSink().clear(Port.CLEAR_DATA);
+		for (PortPair pair : sinkPairs) {
+			pair.getInputPort().clear(Port.CLEAR_DATA);
+		}
+
+		PerformanceVector performance = getPerformanceVector();
+		IOObject[] innerResults = new IOObject[sinkPairs.size()];
+		for (int i = 0; i < innerResults.length; i++) {
+			innerResults[i] = sinkPairs.get(i).getInputPort().getAnyDataOrNull();
+		}
+		return new EvaluationResult(performance, innerResults);
+	}
+
+    /**
+     * Delivers the data of the given result to the inner sinks of this operator, such that they
+     * contain the same data as after evaluating the combination with {@link #getPerformanceVector()}.
+     * Results whose data was not kept leave the inner sinks empty.
+     *
+     * @param result the result of
+     *               {@link #evaluateInParallel(Operator[], String[], List, boolean, OperatorProgress)}
+     * @return the performance of the result, might be {@code null}
+     * @since 7.6.1
+     */
+    protected PerformanceVector restoreInnerResults(EvaluationResult result) {
+		restore(getPerformanceInnerSink(), result.performance);
+		List<PortPair> sinkPairs = innerSinkExtender.getManagedPairs();
+		for (int i = 0; i < sinkPairs.size(); i++) {
+			IOObject data = result.innerResults != null && i < result.innerResults.length ? result.innerResults[i]
+					: null;
+			restore(sinkPairs.get(i).getInputPort(), data);
+		}
+		return result.performance;
+	}
+
+	private static void restore(InputPort port, IOObject data) {
+		if (data != null) {
+			port.receive(data);
+		} else {
+			port.clear(Port.CLEAR_DATA);
+		}
+	}
+
+    /**
+     * Returns all combinations of the given parameter values in the order of iteration: the values
+     * of the first parameter change fastest.
+     *
+     * @param values the values of each parameter
+     * @return the combinations, each containing one value per parameter
+     * @since 7.6.1
+     */
+    protected static List<String[]> getCombinations(String[][] values) {
+		List<String[]> combinations = new ArrayList<>();
+		int[] currentIndex = new int[values.length];
+		while (true) {
+			String[] combination = new String[values.length];
+			for (int j = 0; j < values.length; j++) {
+				combination[j] = values[j][currentIndex[j]];
+			}
+			combinations.add(combination);
+
+			int k = 0;
+			while (k < currentIndex.length && !(++currentIndex[k] < values[k].length)) {
+				currentIndex[k] = 0;
+				k++;
+			}
+			if (k >= currentIndex.length) {
+				return combinations;
+			}
+		}
+	}
+
     /**
      * Returns the results at the inner sink port extender. Does not include a possible performance
      * vector at the respective input. {@link #executeSubprocess()} or
@@ -407,6 +781,11 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 				ERROR_HANDLING_METHOD, ERROR_FAIL, false);
 		type.registerDependencyCondition(new AboveOperatorVersionCondition(this, CHANGE_6_0_3_ERROR_HANDLING));
 		types.add(type);
+		if (supportsParallelExecution()) {
+			types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+					"This parameter enables the parallel evaluation of the parameter combinations. Each combination uses its own random seed, hence results of random operators can differ from the sequential evaluation. Please disable the parallel execution if you run into memory problems.",
+					false, true));
+		}
 
 		return types;
 	}
@@ -28,6 +28,7 @@ import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.value.ParameterValueRange;
 import com.rapidminer.parameter.value.ParameterValues;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
@@ -180,20 +181,14 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 			throw new UserError(this, 958);
 		}
 
-		// iterate parameter combinations
-		this.iteration = 0;
+		// collect parameter combinations
+		List<String[]> combinations = new ArrayList<>();
 		while (true) {
 			String[] currentValues = new String[parameters.length];
-			// set all parameter values
 			for (int j = 0; j < operators.length; j++) {
 				currentValues[j] = values[j][currentIndex[j]].trim();
-				// operators[j].setParameter(parameters[j], values[j][currentIndex[j]].trim());
 			}
-			ParameterSet set = new ParameterSet(operators, parameters, currentValues, null);
-
-			evaluateParameterSet(set);
-
-			this.iteration++;
+			combinations.add(currentValues);
 
 			boolean ok = true;
 			if (!isSynchronized) {
@@ -220,9 +215,32 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 			if (!ok) {
 				break;
 			}
+		}
+
+		// evaluating all combinations up front, the results are processed in the original order
+		List<EvaluationResult> results = null;
+		if (checkParallelizability(operators)) {
+			results = evaluateInParallel(operators, parameters, combinations, true, getProgress());
+		}
+
+		// iterate parameter combinations
+		this.iteration = 0;
+		for (String[] currentValues : combinations) {
+			if (iteration > 0) {
+				inApplyLoop();
+				if (results == null) {
+					getProgress().step();
+				}
+			}
+			ParameterSet set = new ParameterSet(operators, parameters, currentValues, null);
+
+			if (results != null) {
+				restoreParameterSet(set, results.get(iteration));
+			} else {
+				evaluateParameterSet(set);
+			}
 
-			inApplyLoop();
-			getProgress().step();
+			this.iteration++;
 		}
 		getProgress().complete();
 	}
@@ -247,6 +265,29 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 		}
 	}
 
+	/**
+	 * Same as {@link #evaluateParameterSet(ParameterSet)} but takes the performance and the results
+	 * from the given result of the parallel evaluation.
+	 */
+	private void restoreParameterSet(ParameterSet set, EvaluationResult result) throws OperatorException {
+		if (getLogger().isLoggable(Level.FINE)) {
+			getLogger().fine("Evaluating parameter set: " + set.toString());
+		}
+		set.applyAll(getProcess(), null);
+		this.performance = restoreInnerResults(result);
+		((CollectingPortPairExtender) getInnerSinkExtender()).collect();
+		if (performance == null) {
+			getLogger().info(
+					"Inner operators of " + getName()
+							+ " do not provide performance vectors. Performance cannot be plotted.");
+		}
+	}
+
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	protected PortPairExtender makeInnerSinkExtender() {
 		return new CollectingPortPairExtender("result", getSubprocess(0).getInnerSinks(), getOutputPorts());
@@ -125,15 +125,23 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 
 		// init operator progress (+ 1 for work after loop)
 		getProgress().setTotal(allParameters.length + 1);
+
+		// evaluating all combinations up front, the results are processed in the original order
+		List<EvaluationResult> results = null;
+		if (checkParallelizability(operators)) {
+			results = evaluateInParallel(operators, parameters, getCombinations(values), false, getProgress());
+		}
 		while (true) {
 			getLogger().fine("Using parameter set");
 			// set all parameter values
-			for (int j = 0; j < operators.length; j++) {
-				operators[j].getParameters().setParameter(parameters[j], values[j][currentIndex[j]]);
-				getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j][currentIndex[j]]);
-			}
+			setCurrentParameters();
 
-			PerformanceVector performance = getPerformanceVector();
+			PerformanceVector performance;
+			if (results != null) {
+				performance = restoreInnerResults(results.get(paramIndex));
+			} else {
+				performance = getPerformanceVector();
+			}
 
 			String[] currentValues = new String[parameters.length];
 			for (int j = 0; j < parameters.length; j++) {
@@ -149,7 +157,9 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 				}
 			}
 
-			getProgress().step();
+			if (results == null) {
+				getProgress().step();
+			}
 
 			// next parameter values
 			int k = 0;
@@ -77,6 +77,13 @@ public class CSVExampleSource extends AbstractDataResultSetReader {
      * The constant PARAMETER_ESCAPE_CHARACTER.
      */
     public static final String PARAMETER_ESCAPE_CHARACTER = "escape_character";
+    /**
+     * The parameter name for &quot;If set to true, local files are split into blocks that are read
+     * and converted in parallel.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
 
 	static {
 		AbstractReader.registerReaderDescription(new ReaderDescription("csv", CSVExampleSource.class, PARAMETER_CSV_FILE));
@@ -156,6 +163,12 @@ public class CSVExampleSource extends AbstractDataResultSetReader {
 		types.addAll(DateParser.getParameterTypes(this));
 
 		types.addAll(super.getParameterTypes());
+
+		type = new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				"If set to true, local files are split into blocks that are read and converted in parallel. Please disable the parallel execution if you run into memory problems.",
+				true);
+		type.setExpert(true);
+		types.add(type);
 		return types;
 	}
 
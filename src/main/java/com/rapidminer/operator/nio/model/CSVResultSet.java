@@ -349,31 +349,57 @@ public class CSVResultSet implements DataResultSet {
 					break;
 				}
 			} catch (CSVParseException e) {
-				ParsingError parsingError = new ParsingError(currentRow, -1, ErrorCode.FILE_SYNTAX_ERROR, line, e);
-				getErrors().add(parsingError);
-				String warning = "Could not parse line " + currentRow + " in input: " + e.toString();
-				if (logCount < MAX_LOG_COUNT) {
-					if (operator != null) {
-						operator.logWarning(warning);
-					} else {
-						LogService.getRoot().warning(warning);
-					}
-				} else {
-					if (logCount == MAX_LOG_COUNT) {
-						if (operator != null) {
-							operator.logWarning("Maximum number of warnings exceeded. Will display no further warnings.");
-						} else {
-							LogService.getRoot()
-									.warning("Maximum number of warnings exceeded. Will display no further warnings.");
-						}
-					}
-				}
-				logCount++;
+				reportParseError(currentRow, line, e);
 				next = new String[] { line };
 			}
 		} while (true);
 	}
 
+    /**
+     * Registers a line that could not be parsed as {@link ErrorCode#FILE_SYNTAX_ERROR} and logs a
+     * warning unless the maximum number of warnings is exceeded.
+     *
+     * @param row  the row to report
+     * @param line the line that could not be parsed
+     * @param e    the exception thrown by the parser
+     */
+    void reportParseError(int row, String line, CSVParseException e) {
+		ParsingError parsingError = new ParsingError(row, -1, ErrorCode.FILE_SYNTAX_ERROR, line, e);
+		getErrors().add(parsingError);
+		String warning = "Could not parse line " + row + " in input: " + e.toString();
+		if (logCount < MAX_LOG_COUNT) {
+			if (operator != null) {
+				operator.logWarning(warning);
+			} else {
+				LogService.getRoot().warning(warning);
+			}
+		} else {
+			if (logCount == MAX_LOG_COUNT) {
+				if (operator != null) {
+					operator.logWarning("Maximum number of warnings exceeded. Will display no further warnings.");
+				} else {
+					LogService.getRoot()
+							.warning("Maximum number of warnings exceeded. Will display no further warnings.");
+				}
+			}
+		}
+		logCount++;
+	}
+
+    /**
+     * Creates a reader that reads the rows of the file in parallel, if this is enabled by the
+     * configuration and supported for the file.
+     *
+     * @return the reader or {@code null} if the file has to be read row by row
+     */
+    ParallelCSVReader createParallelReader() {
+		if (operator == null || parser == null || !configuration.isParallelReading()
+				|| !ParallelCSVReader.isSupported(configuration)) {
+			return null;
+		}
+		return new ParallelCSVReader(this, configuration, parser, operator);
+	}
+
 	@Override
 	public boolean hasNext() {
 		return next != null;
@@ -47,6 +47,7 @@ public class CSVResultSetConfiguration implements DataResultSetFactory {
 	private boolean skipUTF8BOM = false;
 	private boolean trimLines = false;
 	private boolean hasHeaderRow = true;
+	private boolean parallelReading = false;
 
 	private String columnSeparators = ";";
 
@@ -96,6 +97,7 @@ public class CSVResultSetConfiguration implements DataResultSetFactory {
 			setQuoteCharacter(csvExampleSource.getParameterAsChar(CSVExampleSource.PARAMETER_QUOTES_CHARACTER));
 		}
 		encoding = Encoding.getEncoding(csvExampleSource);
+		setParallelReading(csvExampleSource.getParameterAsBoolean(CSVExampleSource.PARAMETER_ENABLE_PARALLEL_EXECUTION));
 	}
 
 	@Override
@@ -393,6 +395,26 @@ public class CSVResultSetConfiguration implements DataResultSetFactory {
 		this.headerRow = headerRow;
 	}
 
+    /**
+     * Returns whether local files may be read in parallel when the complete file is imported.
+     *
+     * @return whether parallel reading is enabled
+     * @since 7.6.1
+     */
+    public boolean isParallelReading() {
+		return parallelReading;
+	}
+
+    /**
+     * Sets whether local files may be read in parallel when the complete file is imported.
+     *
+     * @param parallelReading whether parallel reading is enabled
+     * @since 7.6.1
+     */
+    public void setParallelReading(boolean parallelReading) {
+		this.parallelReading = parallelReading;
+	}
+
 	@Override
 	public String getResourceName() {
 		return getCsvFile();
@@ -183,7 +183,15 @@ public class DataResultSetTranslator {
 			}
 		}
 
-		while (dataResultSet.hasNext() && !shouldStop && (currentRow < maxRows || maxRows < 0)) {
+		// local csv files are read in parallel after the annotated rows
+		ParallelCSVReader parallelReader = null;
+		if (!previewOnly && dataResultSet instanceof CSVResultSet) {
+			parallelReader = ((CSVResultSet) dataResultSet).createParallelReader();
+		}
+		List<DataRow> headRows = new ArrayList<>();
+
+		while (dataResultSet.hasNext() && !shouldStop && (currentRow < maxRows || maxRows < 0)
+				&& (parallelReader == null || currentRow <= maxAnnotatedRow)) {
 			if (isRunningInProcess) {
 				operator.checkForStop();
 			}
@@ -275,11 +283,24 @@ public class DataResultSetTranslator {
 					}
 					attributeIndex++;
 				}
-				builder.addDataRow(row);
+				if (parallelReader != null) {
+					headRows.add(row);
+				} else {
+					builder.addDataRow(row);
+				}
 				exampleIndex++;
 			}
 			currentRow++;
 		}
+		if (parallelReader != null) {
+			if (isLoadingCancelled()) {
+				for (DataRow row : headRows) {
+					builder.addDataRow(row);
+				}
+			} else {
+				parallelReader.read(this, configuration, attributes, attributeColumns, headRows, currentRow, builder);
+			}
+		}
 
 		// derive ExampleSet from builder and assigning roles
 		ExampleSet exampleSet = builder.build();
@@ -702,7 +723,17 @@ public class DataResultSetTranslator {
 		errors.clear();
 	}
 
-	private void addOrThrow(boolean isFaultTolerant, ParsingError error, int row) throws UserError {
+	/**
+	 * Returns whether the loading was cancelled or stopped.
+	 */
+	boolean isLoadingCancelled() {
+		return shouldStop || cancelLoadingRequested;
+	}
+
+	/**
+	 * Adds the error if fault tolerant, otherwise throws it as {@link UserError}.
+	 */
+	void addOrThrow(boolean isFaultTolerant, ParsingError error, int row) throws UserError {
 		if (isFaultTolerant) {
 			addError(error, row);
 		} else {
@@ -0,0 +1,682 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.nio.model;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeTypeException;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.nio.model.ParsingError.ErrorCode;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.CSVParseException;
+import com.rapidminer.tools.LineParser;
+import com.rapidminer.tools.Ontology;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Reads the rows of a local csv file in parallel and converts them directly into the columns of
+ * the example set built by the {@link DataResultSetTranslator}.
+ * <p>
+ * The file is split into blocks which are read into heap buffers. A block consists of all lines
+ * starting inside of it. Since the {@link CSVResultSet} reads the file line by line and does not
+ * let quoted values span several lines, the line terminators are exactly the row boundaries, so
+ * that the blocks can be processed independently. Every line is tokenized by the same
+ * {@link LineParser} as in the sequential reader. Numerical and date values are parsed inside of
+ * the tasks, nominal values are collected in a dictionary per block. The blocks are merged in the
+ * order of the file, so that the nominal mappings, the parsing errors and the warnings are the same
+ * as for reading the rows one by one.
+ *
+ * @since 7.6.1
+ */
+final class ParallelCSVReader {
+
+	/** The number of bytes read by one task. */
+	static final int BYTES_PER_TASK = 1 << 22;
+
+	/** The number of bytes read behind a block for its last line. */
+	private static final int LINE_RESERVE = 1 << 16;
+
+	/** The maximal number of bytes read by one task, bounded by the maximal array size. */
+	private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+	/** The number of tasks per thread and round. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** The number of lines after which a task checks whether the execution was stopped. */
+	private static final int STATUS_CHECK_INTERVAL = 1 << 10;
+
+	/** The initial number of rows of the column buffers. */
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	private static final byte LF = '\n';
+
+	private static final byte CR = '\r';
+
+	private static final int KIND_NUMBER = 0;
+
+	private static final int KIND_DATE = 1;
+
+	private static final int KIND_NOMINAL = 2;
+
+	private static final int UNMAPPED = -1;
+
+	private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+	/**
+	 * An error that occurred while converting a value inside of a block.
+	 */
+	private static final class ValueError {
+
+		private final int row;
+		private final int attribute;
+		private final ErrorCode code;
+		private final String value;
+		private final Exception cause;
+
+		/**
+		 * The offset of the reported row with respect to the row of the result set, see
+		 * {@link DataResultSetTranslator#read}.
+		 */
+		private final int rowOffset;
+
+		private ValueError(int row, int attribute, ErrorCode code, String value, Exception cause, int rowOffset) {
+			this.row = row;
+			this.attribute = attribute;
+			this.code = code;
+			this.value = value;
+			this.cause = cause;
+			this.rowOffset = rowOffset;
+		}
+	}
+
+	/**
+	 * A part of the file read into a heap buffer. The part is extended if a line does not end
+	 * inside of it.
+	 */
+	private static final class Window {
+
+		private final FileChannel channel;
+		private final long start;
+		private final long fileSize;
+		private ByteBuffer buffer;
+
+		private Window(FileChannel channel, long start, int length, long fileSize) throws IOException {
+			this.channel = channel;
+			this.start = start;
+			this.fileSize = fileSize;
+			buffer = ByteBuffer.allocate(length);
+			fill(buffer, channel, start);
+		}
+
+		/**
+		 * Returns the position of the first line terminator at or after the position, or the limit
+		 * if the file ends before. The byte following the terminator is always part of the window
+		 * if it is part of the file.
+		 */
+		private int findLineTerminator(int position) throws IOException {
+			while (true) {
+				int limit = buffer.limit();
+				int terminator = ParallelCSVReader.findLineTerminator(buffer, position, limit);
+				if (terminator + 1 < limit || start + limit >= fileSize) {
+					return terminator;
+				}
+				if (limit == MAX_WINDOW_SIZE) {
+					throw new IOException("Line starting at byte " + (start + position) + " is too long.");
+				}
+				ByteBuffer extended = ByteBuffer
+						.allocate((int) Math.min(Math.min(fileSize - start, 2L * limit), MAX_WINDOW_SIZE));
+				buffer.position(0);
+				extended.put(buffer);
+				fill(extended, channel, start);
+				buffer = extended;
+			}
+		}
+
+		/**
+		 * Fills the remaining bytes of the buffer with the bytes of the file following the offset
+		 * plus the buffer position.
+		 */
+		private static void fill(ByteBuffer buffer, FileChannel channel, long offset) throws IOException {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, offset + buffer.position()) < 0) {
+					throw new IOException("Unexpected end of file at byte " + (offset + buffer.position()) + ".");
+				}
+			}
+			buffer.flip();
+		}
+	}
+
+	/**
+	 * A line that could not be tokenized by the {@link LineParser}.
+	 */
+	private static final class LineError {
+
+		private final int row;
+		private final String line;
+		private final CSVParseException cause;
+
+		private LineError(int row, String line, CSVParseException cause) {
+			this.row = row;
+			this.line = line;
+			this.cause = cause;
+		}
+	}
+
+	/**
+	 * The converted rows of one block.
+	 */
+	private static final class Block {
+
+		/** the number of rows, i.e. the number of lines that are no comments and not empty */
+		private int rows;
+
+		/** the values of the numerical and date attributes, {@code null} for nominal ones */
+		private final double[][] values;
+
+		/** the dictionary indices of the nominal values, -1 for missings */
+		private final int[][] codes;
+
+		/** the nominal values in the order of their first occurrence in the block */
+		private final List<List<String>> dictionaries;
+
+		private final List<ValueError> valueErrors = new ArrayList<>();
+
+		private final List<LineError> lineErrors = new ArrayList<>();
+
+		private Block(int[] kinds) {
+			values = new double[kinds.length][];
+			codes = new int[kinds.length][];
+			dictionaries = new ArrayList<>(kinds.length);
+			for (int i = 0; i < kinds.length; i++) {
+				if (kinds[i] == KIND_NOMINAL) {
+					codes[i] = new int[INITIAL_CAPACITY];
+					dictionaries.add(new ArrayList<>());
+				} else {
+					values[i] = new double[INITIAL_CAPACITY];
+					dictionaries.add(null);
+				}
+			}
+		}
+
+		private void ensureCapacity() {
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null && values[i].length == rows) {
+					values[i] = Arrays.copyOf(values[i], 2 * rows);
+				} else if (codes[i] != null && codes[i].length == rows) {
+					codes[i] = Arrays.copyOf(codes[i], 2 * rows);
+				}
+			}
+		}
+	}
+
+	private final CSVResultSet resultSet;
+	private final CSVResultSetConfiguration csvConfiguration;
+	private final LineParser parser;
+	private final Operator operator;
+
+    /**
+     * Creates a reader for the file of the given configuration.
+     *
+     * @param resultSet        the result set reading the same file, used for reporting lines that
+     *                         cannot be parsed
+     * @param csvConfiguration the configuration of the file
+     * @param parser           the parser to tokenize the lines with
+     * @param operator         the operator reading the file
+     */
+    ParallelCSVReader(CSVResultSet resultSet, CSVResultSetConfiguration csvConfiguration, LineParser parser,
+			Operator operator) {
+		this.resultSet = resultSet;
+		this.csvConfiguration = csvConfiguration;
+		this.parser = parser;
+		this.operator = operator;
+	}
+
+    /**
+     * Checks whether the file of the configuration can be read in parallel. This requires a local
+     * file in an encoding in which line terminators cannot be part of other characters.
+     *
+     * @param csvConfiguration the configuration of the file
+     * @return whether the file can be read by a {@link ParallelCSVReader}
+     */
+    static boolean isSupported(CSVResultSetConfiguration csvConfiguration) {
+		String csvFile = csvConfiguration.getCsvFile();
+		if (csvFile == null) {
+			return false;
+		}
+		try {
+			new URL(csvFile);
+			// opened as stream by the result set
+			return false;
+		} catch (MalformedURLException e) {
+			// a file as expected
+		}
+		if (!new File(csvFile).isFile()) {
+			return false;
+		}
+		Charset encoding = csvConfiguration.getEncoding();
+		if (StandardCharsets.UTF_8.equals(encoding)) {
+			return true;
+		}
+		return encoding.canEncode() && encoding.newEncoder().maxBytesPerChar() == 1f
+				&& Arrays.equals("\r\n".getBytes(encoding), new byte[] { CR, LF });
+	}
+
+    /**
+     * Reads the rows of the file following the skipped rows and fills the columns of the builder
+     * with their values and the values of the head rows. Conversion errors are handled like in
+     * {@link DataResultSetTranslator#read}.
+     *
+     * @param translator       the translator collecting the errors
+     * @param configuration    the translation configuration
+     * @param attributes       the attributes to fill
+     * @param attributeColumns the columns of the file belonging to the attributes
+     * @param headRows         the data rows already read by the translator
+     * @param skippedRows      the number of rows already read by the translator
+     * @param builder          the builder to fill
+     * @throws OperatorException if the file cannot be read or a value cannot be converted and the
+     *                           configuration is not fault tolerant
+     */
+    void read(DataResultSetTranslator translator, DataResultSetTranslationConfiguration configuration,
+			Attribute[] attributes, int[] attributeColumns, List<DataRow> headRows, int skippedRows,
+			ExampleSetBuilder builder) throws OperatorException {
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		boolean isFaultTolerant = configuration.isFaultTolerant();
+		int numberOfAttributes = attributes.length;
+		int[] kinds = new int[numberOfAttributes];
+		for (int i = 0; i < numberOfAttributes; i++) {
+			switch (attributes[i].getValueType()) {
+				case Ontology.INTEGER:
+				case Ontology.NUMERICAL:
+				case Ontology.REAL:
+					kinds[i] = KIND_NUMBER;
+					break;
+				case Ontology.DATE_TIME:
+				case Ontology.TIME:
+				case Ontology.DATE:
+					kinds[i] = KIND_DATE;
+					// initializes the thread local date formats
+					configuration.getDateFormat();
+					break;
+				default:
+					kinds[i] = KIND_NOMINAL;
+			}
+		}
+
+		int capacity = Math.max(INITIAL_CAPACITY, headRows.size());
+		double[][] columns = new double[numberOfAttributes][capacity];
+		int size = 0;
+		for (DataRow row : headRows) {
+			for (int i = 0; i < numberOfAttributes; i++) {
+				columns[i][size] = row.get(attributes[i]);
+			}
+			size++;
+		}
+
+		String csvFile = csvConfiguration.getCsvFile();
+		try (FileChannel channel = FileChannel.open(new File(csvFile).toPath(), StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			long contentStart = hasUTF8BOM(channel) ? UTF8_BOM.length : 0;
+			int tasksPerRound = TASKS_PER_THREAD * context.getParallelism();
+			int row = 0;
+			long roundStart = contentStart;
+			while (roundStart < fileSize && !translator.isLoadingCancelled()) {
+				List<Callable<Block>> tasks = new ArrayList<>(tasksPerRound);
+				for (int i = 0; i < tasksPerRound && roundStart < fileSize; i++) {
+					final long from = roundStart;
+					final long to = Math.min(fileSize, roundStart + BYTES_PER_TASK);
+					tasks.add(() -> readBlock(channel, from, to, fileSize, contentStart, kinds, attributeColumns,
+							configuration, context));
+					roundStart = to;
+				}
+				List<Block> blocks = call(context, tasks);
+
+				for (Block block : blocks) {
+					int[][] mappings = new int[numberOfAttributes][];
+					for (int i = 0; i < numberOfAttributes; i++) {
+						if (kinds[i] == KIND_NOMINAL) {
+							mappings[i] = new int[block.dictionaries.get(i).size()];
+							Arrays.fill(mappings[i], UNMAPPED);
+						}
+					}
+					int valueErrorIndex = 0;
+					int lineErrorIndex = 0;
+					for (int blockRow = 0; blockRow < block.rows; blockRow++, row++) {
+						boolean skipped = row < skippedRows;
+						lineErrorIndex = reportLineErrors(block, lineErrorIndex, blockRow, row, skippedRows);
+						if (skipped) {
+							while (valueErrorIndex < block.valueErrors.size()
+									&& block.valueErrors.get(valueErrorIndex).row == blockRow) {
+								valueErrorIndex++;
+							}
+							continue;
+						}
+
+						if (size == capacity) {
+							capacity *= 2;
+							for (int i = 0; i < numberOfAttributes; i++) {
+								columns[i] = Arrays.copyOf(columns[i], capacity);
+							}
+						}
+						for (int i = 0; i < numberOfAttributes; i++) {
+							if (kinds[i] == KIND_NOMINAL) {
+								columns[i][size] = mapNominal(translator, isFaultTolerant, block, mappings, attributes,
+										attributeColumns, i, blockRow, row, size);
+							} else {
+								columns[i][size] = block.values[i][blockRow];
+								if (valueErrorIndex < block.valueErrors.size()) {
+									ValueError error = block.valueErrors.get(valueErrorIndex);
+									if (error.row == blockRow && error.attribute == i) {
+										translator.addOrThrow(isFaultTolerant, new ParsingError(row + error.rowOffset,
+												attributeColumns[i], error.code, error.value, error.cause), size);
+										valueErrorIndex++;
+									}
+								}
+							}
+						}
+						size++;
+					}
+					reportLineErrors(block, lineErrorIndex, block.rows, row, skippedRows);
+				}
+
+				if (operator != null) {
+					operator.checkForStop();
+					if (fileSize > 0) {
+						operator.getProgress().setCompleted((int) (100 * roundStart / fileSize));
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UserError(operator, e, 321, csvFile, e.toString());
+		}
+
+		builder.withBlankSize(size);
+		for (int i = 0; i < numberOfAttributes; i++) {
+			final double[] column = columns[i];
+			builder.withColumnFiller(attributes[i], row -> column[row]);
+		}
+	}
+
+	/**
+	 * Reports the lines in front of the block row that could not be parsed with the row number
+	 * used by the sequential reader, which reports them while reading ahead for the next row.
+	 * Returns the index of the first line error behind the block row.
+	 */
+	private int reportLineErrors(Block block, int lineErrorIndex, int blockRow, int row, int skippedRows) {
+		int index = lineErrorIndex;
+		while (index < block.lineErrors.size() && block.lineErrors.get(index).row == blockRow) {
+			LineError error = block.lineErrors.get(index++);
+			if (row > skippedRows) {
+				// the sequential reader has already reported the errors up to the row following the
+				// skipped rows
+				resultSet.reportParseError(row - 1, error.line, error.cause);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Maps the nominal value of the block row to the index of the attribute mapping. The values
+	 * are added to the mapping when they first occur in the rows, as done by the sequential reader.
+	 */
+	private double mapNominal(DataResultSetTranslator translator, boolean isFaultTolerant, Block block,
+			int[][] mappings, Attribute[] attributes, int[] attributeColumns, int attributeIndex, int blockRow,
+			int row, int exampleIndex) throws UserError {
+		int code = block.codes[attributeIndex][blockRow];
+		if (code < 0) {
+			return Double.NaN;
+		}
+		int index = mappings[attributeIndex][code];
+		if (index == UNMAPPED) {
+			String value = block.dictionaries.get(attributeIndex).get(code);
+			try {
+				index = attributes[attributeIndex].getMapping().mapString(value);
+				mappings[attributeIndex][code] = index;
+			} catch (AttributeTypeException e) {
+				ParsingError error = new ParsingError(row + 1, attributeColumns[attributeIndex],
+						ErrorCode.MORE_THAN_TWO_VALUES, value, e);
+				translator.addOrThrow(isFaultTolerant, error, exampleIndex);
+				return Double.NaN;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Reads and converts the lines starting between from (inclusive) and to (exclusive).
+	 */
+	private Block readBlock(FileChannel channel, long from, long to, long fileSize, long contentStart, int[] kinds,
+			int[] attributeColumns, DataResultSetTranslationConfiguration configuration, ConcurrencyContext context)
+			throws IOException {
+		// the byte in front of the block decides whether a line starts with the block
+		long windowStart = from > contentStart ? from - 1 : from;
+		Window window = new Window(channel, windowStart,
+				(int) Math.min(fileSize - windowStart, to - windowStart + LINE_RESERVE), fileSize);
+		int end = (int) (to - windowStart);
+		int position = (int) (from - windowStart);
+		if (from > contentStart) {
+			byte previous = window.buffer.get(position - 1);
+			if (previous != LF && (previous != CR || window.buffer.get(position) == LF)) {
+				// the line is part of the previous block
+				int terminator = window.findLineTerminator(position);
+				position = skipLineTerminator(window.buffer, terminator, window.buffer.limit());
+			}
+		}
+
+		NumberFormat numberFormat = configuration.getNumberFormat();
+		if (numberFormat != null) {
+			numberFormat = (NumberFormat) numberFormat.clone();
+		}
+		DateFormat dateFormat = null;
+		Map<String, Integer>[] dictionaryIndices = createDictionaryIndices(kinds);
+		Charset encoding = csvConfiguration.getEncoding();
+
+		Block block = new Block(kinds);
+		int lines = 0;
+		while (position < end) {
+			if (lines++ % STATUS_CHECK_INTERVAL == 0) {
+				context.checkStatus();
+			}
+			int lineEnd = window.findLineTerminator(position);
+			ByteBuffer buffer = window.buffer;
+			String line = new String(buffer.array(), position, lineEnd - position, encoding);
+			position = skipLineTerminator(buffer, lineEnd, buffer.limit());
+
+			String[] tokens;
+			try {
+				tokens = parser.parse(line);
+				if (tokens == null) {
+					// comment or empty line
+					continue;
+				}
+			} catch (CSVParseException e) {
+				// skipped like by the sequential reader
+				block.lineErrors.add(new LineError(block.rows, line, e));
+				continue;
+			}
+
+			block.ensureCapacity();
+			int row = block.rows++;
+			for (int i = 0; i < kinds.length; i++) {
+				int column = attributeColumns[i];
+				String value = column < tokens.length ? tokens[column] : null;
+				boolean missing = value == null || value.isEmpty();
+				switch (kinds[i]) {
+					case KIND_NUMBER:
+						block.values[i][row] = missing ? Double.NaN : parseNumber(block, row, i, value, numberFormat);
+						break;
+					case KIND_DATE:
+						if (missing) {
+							block.values[i][row] = Double.NaN;
+						} else {
+							if (dateFormat == null) {
+								dateFormat = configuration.getDateFormat();
+							}
+							block.values[i][row] = parseDate(block, row, i, value, dateFormat);
+						}
+						break;
+					default:
+						if (missing) {
+							block.codes[i][row] = -1;
+						} else {
+							Integer code = dictionaryIndices[i].get(value);
+							if (code == null) {
+								code = dictionaryIndices[i].size();
+								dictionaryIndices[i].put(value, code);
+								block.dictionaries.get(i).add(value);
+							}
+							block.codes[i][row] = code;
+						}
+				}
+			}
+		}
+		return block;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Integer>[] createDictionaryIndices(int[] kinds) {
+		Map<String, Integer>[] indices = new Map[kinds.length];
+		for (int i = 0; i < kinds.length; i++) {
+			if (kinds[i] == KIND_NOMINAL) {
+				indices[i] = new HashMap<>();
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * Parses the number like {@link DataResultSetTranslator} and records an error if this fails.
+	 */
+	private static double parseNumber(Block block, int row, int attribute, String value, NumberFormat numberFormat) {
+		if (numberFormat != null) {
+			try {
+				Number parsedValue = numberFormat.parse(value);
+				return parsedValue == null ? Double.NaN : parsedValue.doubleValue();
+			} catch (ParseException e) {
+				block.valueErrors.add(new ValueError(row, attribute, ErrorCode.UNPARSEABLE_REAL, value, e, 1));
+				return Double.NaN;
+			}
+		} else {
+			try {
+				return Double.parseDouble(value);
+			} catch (NumberFormatException e) {
+				block.valueErrors.add(new ValueError(row, attribute, ErrorCode.UNPARSEABLE_REAL, value, e, 0));
+				return Double.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Parses the date like {@link DataResultSetTranslator} and records an error if this fails.
+	 */
+	private static double parseDate(Block block, int row, int attribute, String value, DateFormat dateFormat) {
+		try {
+			return dateFormat.parse(value).getTime();
+		} catch (ParseException e) {
+			block.valueErrors.add(new ValueError(row, attribute, ErrorCode.UNPARSEABLE_DATE, value, e, 1));
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the position of the first line terminator at or after the position, or the limit if
+	 * there is none.
+	 */
+	private static int findLineTerminator(ByteBuffer buffer, int position, int limit) {
+		int index = position;
+		while (index < limit) {
+			byte current = buffer.get(index);
+			if (current == LF || current == CR) {
+				return index;
+			}
+			index++;
+		}
+		return limit;
+	}
+
+	/**
+	 * Returns the start of the line following the line terminator at the given position, treating
+	 * {@code \r\n} as one terminator like {@link java.io.BufferedReader#readLine()}.
+	 */
+	private static int skipLineTerminator(ByteBuffer buffer, int terminator, int limit) {
+		if (terminator >= limit) {
+			return limit;
+		}
+		if (buffer.get(terminator) == CR && terminator + 1 < limit && buffer.get(terminator + 1) == LF) {
+			return terminator + 2;
+		}
+		return terminator + 1;
+	}
+
+	/**
+	 * Checks whether the file starts with a byte order mark that is skipped by the
+	 * {@link CSVResultSet}.
+	 */
+	private boolean hasUTF8BOM(FileChannel channel) throws IOException {
+		if (!csvConfiguration.getEncoding().name().equals("UTF-8") || channel.size() < UTF8_BOM.length) {
+			return false;
+		}
+		ByteBuffer start = ByteBuffer.allocate(UTF8_BOM.length);
+		while (start.hasRemaining()) {
+			if (channel.read(start, start.position()) < 0) {
+				return false;
+			}
+		}
+		return Arrays.equals(start.array(), UTF8_BOM);
+	}
+
+	/**
+	 * Calls the tasks and unwraps the exceptions thrown by them.
+	 */
+	private <T> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks) throws OperatorException {
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw new UserError(operator, cause, 321, csvConfiguration.getCsvFile(), cause.toString());
+			}
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+}
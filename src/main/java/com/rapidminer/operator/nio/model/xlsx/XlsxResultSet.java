@@ -194,11 +194,12 @@ public class XlsxResultSet implements DataResultSet {
 			// as UTF-8 is default XLSX encoding: https://msdn.microsoft.com/en-us/library/bb507946
 			Charset encoding = StandardCharsets.UTF_8;
 
-			// Parse shared strings file (only if it exists)
-			String[] sharedStrings = new String[0];
+			// Parse shared strings file (only if it exists), the strings are kept encoded and are
+			// only decoded for parsed cells
+			XlsxSharedStrings sharedStrings = new XlsxSharedStrings(0);
 			if (workbookRelations.sharedStringsPath != null) {
 				sharedStrings = new XlsxSharedStringsParser(xlsxFile, workbookRelations.sharedStringsPath,
-						XML_STREAM_FACTORY).parseSharedStrings(callingOperator, encoding);
+						XML_STREAM_FACTORY).parseCompactSharedStrings(callingOperator, encoding);
 
 			}
 
@@ -288,9 +289,8 @@ public class XlsxResultSet implements DataResultSet {
 
 	@Override
 	public boolean isMissing(int columnIndex) {
-		String value = getValue(columnIndex);
-		XlsxCellType cellType = getCellType(columnIndex);
-		if (value == null || value.trim().isEmpty() || XlsxCellType.ERROR.equals(cellType)) {
+		XlsxCell xlsxCell = getXlsxCell(columnIndex);
+		if (xlsxCell == null || xlsxCell.isBlank() || XlsxCellType.ERROR.equals(xlsxCell.cellType)) {
 			return true;
 		} else {
 			return false;
@@ -299,28 +299,28 @@ public class XlsxResultSet implements DataResultSet {
 
 	@Override
 	public Date getDate(int columnIndex) throws ParseException {
-		String dateValue = getValue(columnIndex);
-		if (dateValue == null) {
+		XlsxCell xlsxCell = getXlsxCell(columnIndex);
+		if (xlsxCell == null || !xlsxCell.hasValue()) {
 			return null;
 		}
-		switch (getCellType(columnIndex)) {
+		switch (xlsxCell.cellType) {
 			case NUMBER:
 			case DATE:
 				// XLSX stores dates as double values
-				double dateAsDouble = Double.parseDouble(dateValue);
+				double dateAsDouble = xlsxCell.getNumber();
 
 				// Use POI methods to convert value to Date java object
 				if (DateUtil.isValidExcelDate(dateAsDouble)) {
 					return DateUtil.getJavaDate(dateAsDouble, xlsxWorkbook.isDate1904);
 				} else {
 					throw new ParseException(new ParsingError(getCurrentRow() + 1, columnIndex,
-							ParsingError.ErrorCode.UNPARSEABLE_DATE, dateValue));
+							ParsingError.ErrorCode.UNPARSEABLE_DATE, xlsxCell.getValue()));
 				}
 			case INLINE_STRING:
 			case SHARED_STRING:
 			case STRING:
 				// In case a date is stored as String, we try to parse it here
-				String dateString = dateValue;
+				String dateString = xlsxCell.getValue();
 				try {
 					return dateFormatProvider.geDateFormat().parse(dateString);
 				} catch (java.text.ParseException e) {
@@ -329,7 +329,7 @@ public class XlsxResultSet implements DataResultSet {
 				}
 			default:
 				throw new ParseException(new ParsingError(getCurrentRow() + 1, columnIndex,
-						ParsingError.ErrorCode.UNPARSEABLE_DATE, dateValue));
+						ParsingError.ErrorCode.UNPARSEABLE_DATE, xlsxCell.getValue()));
 
 		}
 	}
@@ -358,15 +358,15 @@ public class XlsxResultSet implements DataResultSet {
 
 	@Override
 	public Number getNumber(int columnIndex) throws ParseException {
-		String numberValue = getValue(columnIndex);
-		if (numberValue == null) {
+		XlsxCell xlsxCell = getXlsxCell(columnIndex);
+		if (xlsxCell == null || !xlsxCell.hasValue()) {
 			return null;
 		}
 		try {
-			return Double.valueOf(numberValue);
+			return xlsxCell.getNumber();
 		} catch (NumberFormatException e) {
 			throw new ParseException(new ParsingError(getCurrentRow() + 1, columnIndex,
-					ParsingError.ErrorCode.UNPARSEABLE_REAL, numberValue));
+					ParsingError.ErrorCode.UNPARSEABLE_REAL, xlsxCell.getValue()));
 		}
 	}
 
@@ -377,7 +377,7 @@ public class XlsxResultSet implements DataResultSet {
 	 */
 	private String getValue(int columnIndex) {
 		XlsxCell xlsxCell = getXlsxCell(columnIndex);
-		return xlsxCell == null ? null : xlsxCell.value;
+		return xlsxCell == null ? null : xlsxCell.getValue();
 	}
 
 	/**
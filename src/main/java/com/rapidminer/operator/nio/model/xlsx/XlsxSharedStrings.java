@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * The items of a XLSX Shared String Table. Instead of keeping one {@link String} per item, the
+ * items are stored UTF-8 encoded in pages of bytes and are only decoded when they are referenced by
+ * a parsed cell. Recently decoded items are cached so that cells referencing the same item share
+ * the {@link String} instance.
+ * <p>
+ * Items are added by the {@link XlsxSharedStringsParser}. This class is not thread-safe.
+ *
+ * @since 7.6.1
+ */
+final class XlsxSharedStrings {
+
+	/** The size of the pages storing the encoded items */
+	private static final int PAGE_SIZE = 1 << 20;
+
+	/** The number of cached decoded items */
+	private static final int CACHE_SIZE = 1 << 12;
+
+	/** The length of items without text */
+	private static final int NO_TEXT = -1;
+
+	/** The pages storing the encoded items, items do not span pages */
+	private byte[][] pages = new byte[0][];
+
+	/** The number of used pages */
+	private int numberOfPages;
+
+	/** The number of used bytes of the last page */
+	private int pageFill = PAGE_SIZE;
+
+	/** The page index (upper 32 bit) and offset (lower 32 bit) of every item */
+	private long[] positions;
+
+	/** The encoded length of every item or {@link #NO_TEXT} */
+	private int[] lengths;
+
+	/** The number of items */
+	private int size;
+
+	private final String[] cache = new String[CACHE_SIZE];
+
+	private final int[] cachedIndices = new int[CACHE_SIZE];
+
+	/**
+	 * Creates an empty table.
+	 *
+	 * @param expectedSize
+	 *            the expected number of items
+	 */
+	XlsxSharedStrings(int expectedSize) {
+		positions = new long[Math.max(expectedSize, 16)];
+		lengths = new int[positions.length];
+		Arrays.fill(cachedIndices, -1);
+	}
+
+	/**
+	 * Adds the text as next item.
+	 *
+	 * @param text
+	 *            the text of the item, {@code null} if the item has no text
+	 */
+	void add(CharSequence text) {
+		if (size == positions.length) {
+			positions = Arrays.copyOf(positions, 2 * size);
+			lengths = Arrays.copyOf(lengths, 2 * size);
+		}
+		if (text == null) {
+			lengths[size++] = NO_TEXT;
+			return;
+		}
+		int length = encodedLength(text);
+		byte[] page = allocate(length);
+		positions[size] = (long) (numberOfPages - 1) << 32 | pageFill;
+		lengths[size++] = length;
+		pageFill = encode(text, page, pageFill);
+	}
+
+	/**
+	 * Returns the item with the given index.
+	 *
+	 * @param index
+	 *            the index of the item
+	 * @return the text of the item, {@code null} if the item has no text
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if there is no item with this index
+	 */
+	String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		int slot = index & CACHE_SIZE - 1;
+		if (cachedIndices[slot] == index) {
+			return cache[slot];
+		}
+		int length = lengths[index];
+		String text = null;
+		if (length != NO_TEXT) {
+			long position = positions[index];
+			text = new String(pages[(int) (position >>> 32)], (int) position, length, StandardCharsets.UTF_8);
+		}
+		cache[slot] = text;
+		cachedIndices[slot] = index;
+		return text;
+	}
+
+	/**
+	 * @return the number of items
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return all items as {@link String}s
+	 */
+	String[] toArray() {
+		String[] items = new String[size];
+		for (int i = 0; i < size; i++) {
+			items[i] = get(i);
+		}
+		return items;
+	}
+
+	/**
+	 * Returns the page the next item with the given encoded length is written to and updates the
+	 * page fill.
+	 */
+	private byte[] allocate(int length) {
+		if (pageFill + length > PAGE_SIZE || numberOfPages == 0) {
+			if (numberOfPages == pages.length) {
+				pages = Arrays.copyOf(pages, Math.max(2 * numberOfPages, 4));
+			}
+			// items longer than a page get their own page
+			pages[numberOfPages++] = new byte[Math.max(length, PAGE_SIZE)];
+			pageFill = 0;
+		}
+		return pages[numberOfPages - 1];
+	}
+
+	/**
+	 * Returns the number of bytes of the text encoded as UTF-8. Unpaired surrogates are encoded as
+	 * {@code '?'} like done by {@link String#getBytes}.
+	 */
+	private static int encodedLength(CharSequence text) {
+		int length = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				length++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the text encoded as UTF-8 to the page starting at the offset and returns the end of
+	 * the written bytes.
+	 */
+	private static int encode(CharSequence text, byte[] page, int offset) {
+		int position = offset;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				page[position++] = (byte) c;
+			} else if (c < 0x800) {
+				page[position++] = (byte) (0xC0 | c >> 6);
+				page[position++] = (byte) (0x80 | c & 0x3F);
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				page[position++] = (byte) (0xF0 | codePoint >> 18);
+				page[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+				page[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+				page[position++] = (byte) (0x80 | codePoint & 0x3F);
+			} else if (Character.isSurrogate(c)) {
+				page[position++] = '?';
+			} else {
+				page[position++] = (byte) (0xE0 | c >> 12);
+				page[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+				page[position++] = (byte) (0x80 | c & 0x3F);
+			}
+		}
+		return position;
+	}
+}
@@ -142,17 +142,36 @@ public class XlsxSharedStringsParser {
      * @throws UserError          in case the shared string content is malformed
      */
     public String[] parseSharedStrings(Operator op, Charset encoding) throws XMLStreamException, IOException, UserError {
+		return parseCompactSharedStrings(op, encoding).toArray();
+	}
+
+    /**
+     * Parses the XLSX shared strings XML file into a {@link XlsxSharedStrings} table, which keeps
+     * the strings encoded and only decodes them on access.
+     *
+     * @param op       the op
+     * @param encoding the encoding
+     * @return the parsed shared strings
+     * @throws XMLStreamException in case the {@link XMLInputFactory} cannot create a {@link XMLStreamReader}
+     * @throws IOException        in case the Shared Strings Zip entry cannot be opened
+     * @throws UserError          in case the shared string content is malformed
+     * @since 7.6.1
+     */
+    XlsxSharedStrings parseCompactSharedStrings(Operator op, Charset encoding)
+			throws XMLStreamException, IOException, UserError {
 
 		boolean isCurrentTagText = false;
 		int numberOfItems = 0;
-		int stringItemCounter = 0;
-		String[] xlsxSharedStrings = null;
+		XlsxSharedStrings xlsxSharedStrings = null;
+		// the text of the current item, reused for all items
+		StringBuilder itemText = new StringBuilder();
+		boolean itemHasText = false;
 		XMLStreamReader reader = null;
 		try (ZipFile zipFile = new ZipFile(xlsxFile)) {
 			ZipEntry zipEntry = zipFile.getEntry(XlsxUtilities.XLSX_PATH_PREFIX + sharedStringsFilePath);
 			if (zipEntry == null) {
 				// no shared strings defined
-				return new String[0];
+				return new XlsxSharedStrings(0);
 			}
 
 			InputStream inputStream = zipFile.getInputStream(zipEntry);
@@ -178,8 +197,8 @@ public class XlsxSharedStringsParser {
 								}
 							}
 
-							// initialize String array
-							xlsxSharedStrings = new String[numberOfItems];
+							// initialize shared strings table
+							xlsxSharedStrings = new XlsxSharedStrings(numberOfItems);
 
 						} else if (reader.getLocalName().equals(TAG_TEXT)) {
 							// we ignore formatting stored within the Shared Table XML because we
@@ -189,25 +208,23 @@ public class XlsxSharedStringsParser {
 						break;
 					case XMLStreamReader.END_ELEMENT:
 						if (reader.getLocalName().equals(TAG_STRING_ITEM)) {
-							stringItemCounter++;
+							xlsxSharedStrings.add(itemHasText ? itemText : null);
+							itemText.setLength(0);
+							itemHasText = false;
 						} else if (reader.getLocalName().equals(TAG_TEXT)) {
 							isCurrentTagText = false;
 						}
 						break;
 					case XMLStreamReader.CHARACTERS:
 						if (isCurrentTagText) {
-							if (xlsxSharedStrings[stringItemCounter] == null) {
-								// no text found yet for current TAG_STRING_ITEM
-								xlsxSharedStrings[stringItemCounter] = reader.getText();
-							} else {
-								// append new text to other text for current TAG_STRING_ITEM
-								xlsxSharedStrings[stringItemCounter] += reader.getText();
-							}
+							// append text to other text for current TAG_STRING_ITEM
+							itemText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+							itemHasText = true;
 						}
 						break;
 					case XMLStreamReader.END_DOCUMENT:
 						// Final check of correctness of logic
-						if (stringItemCounter != numberOfItems) {
+						if ((xlsxSharedStrings == null ? 0 : xlsxSharedStrings.size()) != numberOfItems) {
 							throw new UserError(op, "xlsx_content_malformed");
 						}
 						break;
@@ -221,6 +238,6 @@ public class XlsxSharedStringsParser {
 				reader.close();
 			}
 		}
-		return xlsxSharedStrings;
+		return xlsxSharedStrings == null ? new XlsxSharedStrings(0) : xlsxSharedStrings;
 	}
 }
@@ -23,6 +23,7 @@ import com.rapidminer.operator.nio.model.ParsingError;
 import com.rapidminer.operator.nio.model.ParsingError.ErrorCode;
 import com.rapidminer.operator.nio.model.xlsx.XlsxResultSet.XlsxReadMode;
 import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxCell;
+import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxRowText;
 import org.apache.tika.io.CountingInputStream;
 import org.xml.sax.Attributes;
 
@@ -121,7 +122,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	private final String workbookZipEntryPath;
 
 	/** Strings shared in multiple sheets */
-	private final String[] sharedStrings;
+	private final XlsxSharedStrings sharedStrings;
 
 	/** Number formats defined for XLSX cells */
 	private final XlsxNumberFormats numberFormats;
@@ -179,7 +180,7 @@ class XlsxSheetContentParser implements AutoCloseable {
      *
      * @param xlsxFile             The xlsx file itself
      * @param workbookZipEntryPath the path of the workbook Zip entry
-     * @param sharedStrings        A ordered list of shared strings to generate complete cell values.
+     * @param sharedStrings        The shared strings table to generate complete cell values.
      * @param numberFormats        the parsed XLSX number formats
      * @param sheetMetaData        the sheet meta data
      * @param factory              the factory
@@ -187,7 +188,7 @@ class XlsxSheetContentParser implements AutoCloseable {
      * @throws XMLStreamException On errors creating a XML stream reader.
      * @throws IOException        in case opening the workbook does not work
      */
-    public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, String[] sharedStrings,
+    public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, XlsxSharedStrings sharedStrings,
 			XlsxNumberFormats numberFormats, XlsxSheetMetaData sheetMetaData, XMLInputFactory factory, Charset encoding)
 			throws XMLStreamException, IOException {
 		this.xlsxFile = xlsxFile;
@@ -286,6 +287,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 		int numberOfColumns = sheetMetaData.getNumberOfColumns();
 
 		XlsxCell[] nextRowWithContent = new XlsxCell[numberOfColumns];
+		XlsxRowText rowText = new XlsxRowText();
 		while (!isRowWithContent && reader.hasNext()) {
 
 			// Parse the next element
@@ -347,11 +349,15 @@ class XlsxSheetContentParser implements AutoCloseable {
 					break;
 				case XMLStreamReader.CHARACTERS:
 					if (!sheetMetaData.isSkipColumn(columnIndex) && isValue) {
-						String text = reader.getText();
+						// read the characters without creating an intermediate String
+						char[] characters = reader.getTextCharacters();
+						int start = reader.getTextStart();
+						int length = reader.getTextLength();
 						if (nextRowWithContent[columnIndex].cellType.equals(XlsxCellType.SHARED_STRING)) {
-							nextRowWithContent[columnIndex].value = sharedStrings[Integer.parseInt(text)];
+							nextRowWithContent[columnIndex].value = sharedStrings
+									.get(parseSharedStringIndex(characters, start, length));
 						} else {
-							nextRowWithContent[columnIndex].value = text;
+							nextRowWithContent[columnIndex].setText(rowText, characters, start, length);
 						}
 						emptyColumn[columnIndex] = false;
 						contentFound = true;
@@ -369,6 +375,24 @@ class XlsxSheetContentParser implements AutoCloseable {
 		return nextRowWithContent;
 	}
 
+	/**
+	 * Parses the index of a shared string like {@link Integer#parseInt(String)}.
+	 */
+	private static int parseSharedStringIndex(char[] characters, int start, int length) {
+		if (length == 0 || length > 9) {
+			return Integer.parseInt(new String(characters, start, length));
+		}
+		int index = 0;
+		for (int i = start; i < start + length; i++) {
+			char c = characters[i];
+			if (c < '0' || c > '9') {
+				return Integer.parseInt(new String(characters, start, length));
+			}
+			index = 10 * index + (c - '0');
+		}
+		return index;
+	}
+
 	/**
 	 * Skips all rows before the selected starting row.
 	 *
@@ -143,9 +143,15 @@ public class XlsxSheetMetaDataParser {
 			firstColumnIndex = 0;
 		}
 
-		// Otherwise parse work sheet to obtain meta data
+		// Otherwise parse work sheet to obtain meta data. Previews only show the first rows so that
+		// only these rows are scanned.
 		boolean isRowWithoutSpan = false;
 		int maximumColumn = -1;
+		int rowsToScan = Integer.MAX_VALUE;
+		if (readMode == XlsxReadMode.WIZARD_PREVIEW || readMode == XlsxReadMode.WIZARD_SHEET_SELECTION) {
+			rowsToScan = firstRowIndex + XlsxUtilities.getSheetSelectionLength();
+		}
+		int scannedRows = 0;
 
 		XMLStreamReader reader = null;
 		try (ZipFile xlsxZipFile = new ZipFile(xlsxFile)) {
@@ -155,7 +161,7 @@ public class XlsxSheetMetaDataParser {
 			}
 			reader = xmlInputFactory.createXMLStreamReader(xlsxZipFile.getInputStream(workbookZipEntry));
 
-			while (reader.hasNext()) {
+			while (scannedRows < rowsToScan && reader.hasNext()) {
 				int eventCode = reader.next();
 				if (eventCode == XMLStreamReader.START_ELEMENT) {
 					Attributes attributes = XlsxUtilities.getAttributes(reader);
@@ -243,6 +249,7 @@ public class XlsxSheetMetaDataParser {
 					if (reader.getLocalName().equals(XlsxUtilities.TAG_ROW)) {
 						// Closing row element -> Row completed
 						isRowWithoutSpan = false;
+						scannedRows++;
 					}
 				}
 			}
@@ -95,7 +95,7 @@ public class XlsxSheetTableModel extends AbstractTableModel {
 		try (XlsxResultSet xlsxResultSet = new XlsxResultSet(null, configuration, sheetIndex, readMode)) {
 			int numberOfRows = xlsxResultSet.getNumberOfRows();
 			int initialCapacity = numberOfRows != -1 ? numberOfRows : XlsxSheetMetaDataParser.MAXIMUM_XLSX_ROW_INDEX + 1;
-			this.sheetContentCache = new ArrayList<>(initialCapacity);
+			this.sheetContentCache = new ArrayList<>(Math.min(initialCapacity, previewSize));
 			this.columnCount = xlsxResultSet.getNumberOfColumns();
 			this.sheetRowCount = initialCapacity;
 
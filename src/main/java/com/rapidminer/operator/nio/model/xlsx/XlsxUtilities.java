@@ -23,6 +23,7 @@ import org.xml.sax.Attributes;
 import org.xml.sax.helpers.AttributesImpl;
 
 import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
 import java.util.Locale;
 
 
@@ -207,21 +208,62 @@ public final class XlsxUtilities {
 
 	}
 
+    /**
+     * The characters of the cell values of one parsed row. Cells keep their value as range of these
+     * characters so that no {@link String} has to be created for values that are only read as
+     * numbers.
+     *
+     * @since 7.6.1
+     */
+    static final class XlsxRowText {
+
+		private char[] characters = new char[64];
+
+		private int length;
+
+		/**
+		 * Appends the characters and returns the start of the appended range.
+		 */
+		private int append(char[] source, int start, int count) {
+			if (length + count > characters.length) {
+				characters = Arrays.copyOf(characters, Math.max(length + count, 2 * characters.length));
+			}
+			System.arraycopy(source, start, characters, length, count);
+			int rangeStart = length;
+			length += count;
+			return rangeStart;
+		}
+	}
+
     /**
      * A simple POJO object that represents a XSLX cell which consist of a {@link XlsxCellType} and
      * a String value.
      */
     static final class XlsxCell {
 
+		/** Powers of ten which are exactly representable as double */
+		private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+				1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+		/** The maximum number of significant digits that are exactly representable as double */
+		private static final int MAX_EXACT_DIGITS = 15;
+
         /**
          * The Cell type.
          */
         final XlsxCellType cellType;
         /**
-         * The Value.
+         * The Value. Created on demand if the value is kept in a {@link XlsxRowText}.
          */
         String value;
 
+		/** The row text containing the value or {@code null} */
+		private XlsxRowText rowText;
+
+		private int textStart;
+
+		private int textLength;
+
         /**
          * Instantiates a new Xlsx cell.
          *
@@ -231,12 +273,168 @@ public final class XlsxUtilities {
 			this.cellType = cellType;
 		}
 
+        /**
+         * Sets the value to the given characters, which are copied to the row text.
+         *
+         * @param rowText    the text of the row containing the cell
+         * @param characters the characters of the value
+         * @param start      the start of the value
+         * @param length     the length of the value
+         * @since 7.6.1
+         */
+        void setText(XlsxRowText rowText, char[] characters, int start, int length) {
+			this.value = null;
+			this.rowText = rowText;
+			this.textStart = rowText.append(characters, start, length);
+			this.textLength = length;
+		}
+
+        /**
+         * Returns the value of the cell.
+         *
+         * @return the value or {@code null} if the cell has no value
+         * @since 7.6.1
+         */
+        String getValue() {
+			if (value == null && rowText != null) {
+				value = new String(rowText.characters, textStart, textLength);
+			}
+			return value;
+		}
+
+        /**
+         * Checks whether the cell has a value.
+         *
+         * @return {@code true} if the cell has a value, which might be empty
+         * @since 7.6.1
+         */
+        boolean hasValue() {
+			return value != null || rowText != null;
+		}
+
+        /**
+         * Checks whether the value is missing or consists of whitespace only, see
+         * {@link String#trim()}.
+         *
+         * @return {@code true} if the value is missing or blank
+         * @since 7.6.1
+         */
+        boolean isBlank() {
+			if (value != null) {
+				return value.trim().isEmpty();
+			}
+			if (rowText == null) {
+				return true;
+			}
+			for (int i = textStart; i < textStart + textLength; i++) {
+				if (rowText.characters[i] > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+        /**
+         * Parses the value as double like {@link Double#parseDouble(String)}. Plain decimal values
+         * with up to 15 significant digits are parsed directly from the row text.
+         *
+         * @return the parsed value
+         * @throws NumberFormatException if the value is not a number
+         * @since 7.6.1
+         */
+        double getNumber() {
+			if (value == null && rowText != null) {
+				double number = parseDecimal(rowText.characters, textStart, textStart + textLength);
+				if (!Double.isNaN(number)) {
+					return number;
+				}
+			}
+			return Double.parseDouble(getValue());
+		}
+
+		/**
+		 * Parses a plain decimal number with an optional sign, fraction and exponent. Since both
+		 * the significant digits and the power of ten are exactly representable, the single
+		 * multiplication or division is correctly rounded. Returns {@link Double#NaN} for all other
+		 * input, which has to be parsed by {@link Double#parseDouble(String)}.
+		 */
+		private static double parseDecimal(char[] characters, int start, int end) {
+			int index = start;
+			boolean negative = false;
+			if (index < end && (characters[index] == '-' || characters[index] == '+')) {
+				negative = characters[index] == '-';
+				index++;
+			}
+			long significand = 0;
+			int digits = 0;
+			int exponent = 0;
+			boolean anyDigit = false;
+			boolean fraction = false;
+			for (; index < end; index++) {
+				char c = characters[index];
+				if (c >= '0' && c <= '9') {
+					anyDigit = true;
+					if (significand != 0 || c != '0') {
+						if (++digits > MAX_EXACT_DIGITS) {
+							return Double.NaN;
+						}
+						significand = 10 * significand + (c - '0');
+					}
+					if (fraction) {
+						exponent--;
+					}
+				} else if (c == '.' && !fraction) {
+					fraction = true;
+				} else {
+					break;
+				}
+			}
+			if (!anyDigit) {
+				return Double.NaN;
+			}
+			if (index < end && (characters[index] == 'e' || characters[index] == 'E')) {
+				index++;
+				boolean negativeExponent = false;
+				if (index < end && (characters[index] == '-' || characters[index] == '+')) {
+					negativeExponent = characters[index] == '-';
+					index++;
+				}
+				if (index == end) {
+					return Double.NaN;
+				}
+				int exponentValue = 0;
+				for (; index < end; index++) {
+					char c = characters[index];
+					if (c < '0' || c > '9' || exponentValue > EXACT_POWERS_OF_TEN.length * 10) {
+						return Double.NaN;
+					}
+					exponentValue = 10 * exponentValue + (c - '0');
+				}
+				exponent += negativeExponent ? -exponentValue : exponentValue;
+			}
+			if (index != end) {
+				return Double.NaN;
+			}
+			double result;
+			if (significand == 0) {
+				result = 0;
+			} else if (exponent >= 0 && exponent < EXACT_POWERS_OF_TEN.length) {
+				result = significand * EXACT_POWERS_OF_TEN[exponent];
+			} else if (exponent < 0 && -exponent < EXACT_POWERS_OF_TEN.length) {
+				result = significand / EXACT_POWERS_OF_TEN[-exponent];
+			} else {
+				return Double.NaN;
+			}
+			return negative ? -result : result;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
+			String cellValue = getValue();
 			result = prime * result + (cellType == null ? 0 : cellType.hashCode());
-			result = prime * result + (value == null ? 0 : value.hashCode());
+			result = prime * result + (cellValue == null ? 0 : cellValue.hashCode());
 			return result;
 		}
 
@@ -255,11 +453,12 @@ public final class XlsxUtilities {
 			if (cellType != other.cellType) {
 				return false;
 			}
-			if (value == null) {
-				if (other.value != null) {
+			String cellValue = getValue();
+			if (cellValue == null) {
+				if (other.getValue() != null) {
 					return false;
 				}
-			} else if (!value.equals(other.value)) {
+			} else if (!cellValue.equals(other.getValue())) {
 				return false;
 			}
 			return true;
@@ -267,7 +466,7 @@ public final class XlsxUtilities {
 
 		@Override
 		public String toString() {
-			return "XlsxCell [cellType=" + cellType + ", value=" + value + "]";
+			return "XlsxCell [cellType=" + cellType + ", value=" + getValue() + "]";
 		}
 
 	}
@@ -56,10 +56,12 @@ public class RemoveUnusedNominalValuesModel extends PreprocessingModel {
          */
         public MappingTranslation(NominalMapping originalMapping) {
 			this.originalMapping = originalMapping;
-			if (originalMapping instanceof PolynominalMapping) {
-				this.newMapping = new PolynominalMapping();
-			} else {
+			if (originalMapping instanceof BinominalMapping) {
 				this.newMapping = new BinominalMapping();
+			} else if (originalMapping instanceof CompactNominalMapping) {
+				this.newMapping = new CompactNominalMapping(((CompactNominalMapping) originalMapping).isOffHeap());
+			} else {
+				this.newMapping = new PolynominalMapping();
 			}
 		}
 	}
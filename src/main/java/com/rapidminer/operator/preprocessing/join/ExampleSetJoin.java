@@ -147,6 +147,34 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
      */
     public static final int JOIN_TYPE_OUTER = 3;
 
+    /**
+     * The constant PARAMETER_JOIN_STRATEGY.
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_JOIN_STRATEGY = "join_strategy";
+
+    /**
+     * The constant JOIN_STRATEGIES.
+     *
+     * @since 7.6.1
+     */
+    public static final String[] JOIN_STRATEGIES = { "hash", "sort merge" };
+
+    /**
+     * The constant JOIN_STRATEGY_HASH.
+     *
+     * @since 7.6.1
+     */
+    public static final int JOIN_STRATEGY_HASH = 0;
+
+    /**
+     * The constant JOIN_STRATEGY_SORT_MERGE.
+     *
+     * @since 7.6.1
+     */
+    public static final int JOIN_STRATEGY_SORT_MERGE = 1;
+
     /**
      * Instantiates a new Example set join.
      *
@@ -232,11 +260,9 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	protected ExampleSetBuilder joinData(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList) throws OperatorException {
 		int joinType = getParameterAsInt(PARAMETER_JOIN_TYPE);
-		leftExampleSet.remapIds();
-		rightExampleSet.remapIds();
-
-		// the attributes that are used in the left and the right table as key attributes:
 
+		// the attributes that are used in the left and the right table as key attributes, the id
+		// attributes if they are used for the join:
 		Pair<Attribute[], Attribute[]> keyAttributes = getKeyAttributes(leftExampleSet, rightExampleSet);
 
 		switch (joinType) {
@@ -247,7 +273,7 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 			case JOIN_TYPE_LEFT:
 				getProgress().setTotal(leftExampleSet.size());
 				return performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes, null);
+						keyAttributes, false);
 			case JOIN_TYPE_RIGHT:
 				getProgress().setTotal(rightExampleSet.size());
 				return performRightJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
@@ -338,94 +364,63 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 * sets whose key attributes match.
 	 *
 	 */
-	private ExampleSetBuilder performInnerJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		if (!useId) {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
+	private ExampleSetBuilder performInnerJoin(final ExampleSet leftExampleSet, final ExampleSet rightExampleSet,
+			final List<AttributeSource> originalAttributeSources, final List<Attribute> unionAttributeList,
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
+		final ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
 
-		int progressCounter = 0;
 		// iterate over all example from left table and search for matching examples in right table:
-		for (Example leftExample : leftExampleSet) {
-
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-				}
-			}
+		createKeyJoin(leftExampleSet, keyAttributes.getFirst(), rightExampleSet, keyAttributes.getSecond()).join(false,
+				false, new KeyJoin.MatchHandler() {
 
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
+					@Override
+					void match(int leftRow, int rightRow) {
+						addCombinedOccurence(originalAttributeSources, unionAttributeList, builder,
+								leftExampleSet.getExample(leftRow), rightExampleSet.getExample(rightRow));
+					}
+				});
 		return builder;
 	}
 
 	/**
-	 * Performs a left join.
+	 * Performs a left join. If includeUnmatchedRight is true, the examples of the right table
+	 * without a match are added afterwards, which results in an outer join.
 	 *
 	 */
-	private ExampleSetBuilder performLeftJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes, Set<DoubleArrayWrapper> matchedExamplesInRightTable)
-			throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		leftKeyAttributes = keyAttributes.getFirst();
-		rightKeyAttributes = keyAttributes.getSecond();
-		if (!useId) {
-			// create key mapping for right example set
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
+	private ExampleSetBuilder performLeftJoin(final ExampleSet leftExampleSet, final ExampleSet rightExampleSet,
+			final List<AttributeSource> originalAttributeSources, final List<Attribute> unionAttributeList,
+			Pair<Attribute[], Attribute[]> keyAttributes, boolean includeUnmatchedRight) throws OperatorException {
+		final ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
+
+		final Attribute[] leftKeyAttributes = keyAttributes.getFirst();
+		final Attribute[] rightKeyAttributes = keyAttributes.getSecond();
+		final boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
+		final boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
 
-		int progressCounter = 0;
 		// iterate over all example from left table and search for matching examples in right table:
-		for (Example leftExample : leftExampleSet) {
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
-				// add combination of left example and all matching right examples
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-					if (matchedExamplesInRightTable != null) {
-						matchedExamplesInRightTable
-								.add(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)));
+		createKeyJoin(leftExampleSet, leftKeyAttributes, rightExampleSet, rightKeyAttributes).join(true,
+				includeUnmatchedRight, new KeyJoin.MatchHandler() {
+
+					@Override
+					void match(int leftRow, int rightRow) {
+						addCombinedOccurence(originalAttributeSources, unionAttributeList, builder,
+								leftExampleSet.getExample(leftRow), rightExampleSet.getExample(rightRow));
 					}
-				}
-			} else { // no rows with this key in right table
-				// insert this row with null values for the right table
-				addLeftOnlyOccurence(originalAttributeSources, unionAttributeList, builder, leftExample);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
+
+					@Override
+					void probeOnly(int leftRow) {
+						// insert this row with null values for the right table
+						addLeftOnlyOccurence(originalAttributeSources, unionAttributeList, builder,
+								leftExampleSet.getExample(leftRow));
+					}
+
+					@Override
+					void buildOnly(int rightRow) {
+						addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder,
+								rightExampleSet.getExample(rightRow), leftKeyAttributes, rightKeyAttributes, keepBoth,
+								removeDoubleAttributes);
+					}
+				});
 		return builder;
 	}
 
@@ -433,56 +428,33 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 * Performs a right join.
 	 *
 	 */
-	private ExampleSetBuilder performRightJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> leftKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		Attribute leftIdAttribute = null;
-		Attribute rightIdAttribute = null;
-		if (useId) {
-			// needed for getting the right id when adding examples which occur only in right table
-			leftIdAttribute = leftExampleSet.getAttributes().getId();
-			rightIdAttribute = rightExampleSet.getAttributes().getId();
-			leftKeyAttributes = new Attribute[] { leftIdAttribute };
-			rightKeyAttributes = new Attribute[] { rightIdAttribute };
-		} else {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			leftKeyMapping = createKeyMapping(leftExampleSet, leftKeyAttributes, rightKeyAttributes);
-		}
-
-		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
-		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
+	private ExampleSetBuilder performRightJoin(final ExampleSet leftExampleSet, final ExampleSet rightExampleSet,
+			final List<AttributeSource> originalAttributeSources, final List<Attribute> unionAttributeList,
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
+		final ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
+
+		final Attribute[] leftKeyAttributes = keyAttributes.getFirst();
+		final Attribute[] rightKeyAttributes = keyAttributes.getSecond();
+		final boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
+		final boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
+
+		// iterate over all example from right table and search for matching examples in left table:
+		createKeyJoin(rightExampleSet, rightKeyAttributes, leftExampleSet, leftKeyAttributes).join(true, false,
+				new KeyJoin.MatchHandler() {
+
+					@Override
+					void match(int rightRow, int leftRow) {
+						addCombinedOccurence(originalAttributeSources, unionAttributeList, builder,
+								leftExampleSet.getExample(leftRow), rightExampleSet.getExample(rightRow));
+					}
 
-		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
-		for (Example rightExample : rightExampleSet) {
-			List<Example> matchingLeftExamples = getMatchingExamples(rightExampleSet, leftExampleSet, rightKeyAttributes,
-					leftKeyMapping, useId, rightExample);
-
-			if (matchingLeftExamples != null) {
-				// add combination of left example and all matching right examples
-				for (Example leftExample : matchingLeftExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-				}
-			} else {
-				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
-						rightKeyAttributes, keepBoth, removeDoubleAttributes);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
+					@Override
+					void probeOnly(int rightRow) {
+						addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder,
+								rightExampleSet.getExample(rightRow), leftKeyAttributes, rightKeyAttributes, keepBoth,
+								removeDoubleAttributes);
+					}
+				});
 		return builder;
 	}
 
@@ -492,36 +464,20 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 */
 	private ExampleSetBuilder performOuterJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder;
-
-		Attribute[] leftKeyAttributes = keyAttributes.getFirst();
-		Attribute[] rightKeyAttributes = keyAttributes.getSecond();
-
-		// perform left join (an outer join is the union of a left join and a right join on the same
-		// tables)
-		Set<DoubleArrayWrapper> mappedRightExamples = new HashSet<>();
-		builder = performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-				keyAttributes, mappedRightExamples);
-
-		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
-		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
-		int progressCounter = 0;
-		for (Example rightExample : rightExampleSet) {
-			// perform right join, but add example only if it has not been matched during left join
-			// above
-			if (!mappedRightExamples.contains(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)))) {
-				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
-						rightKeyAttributes, keepBoth, removeDoubleAttributes);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
-		return builder;
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
+		// perform left join and add the examples of the right table which have not been matched (an
+		// outer join is the union of a left join and a right join on the same tables)
+		return performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
+				keyAttributes, true);
+	}
+
+	/**
+	 * Creates the join of the given example sets, using the join strategy selected by the user.
+	 */
+	private KeyJoin createKeyJoin(ExampleSet probeSet, Attribute[] probeKeyAttributes, ExampleSet buildSet,
+			Attribute[] buildKeyAttributes) throws UndefinedParameterError {
+		boolean sortMerge = getParameterAsInt(PARAMETER_JOIN_STRATEGY) == JOIN_STRATEGY_SORT_MERGE;
+		return new KeyJoin(probeSet, probeKeyAttributes, buildSet, buildKeyAttributes, sortMerge, this);
 	}
 
 	/**
@@ -620,138 +576,6 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 		builder.addRow(unionDataRow);
 	}
 
-	/**
-	 * Maps all values of the keyAttributes which occur in exampleSet to a list of matching
-	 * examples.
-	 *
-	 * @param exampleSet
-	 *            The example set for whose key attributes the mapping is created
-	 * @param keyAttributes
-	 *            the attributes which resemble the key attributes
-	 * @param matchKeyAttributes
-	 *            if not null, the values of nominal keyAttributes are mapped to match the mapping
-	 *            of these attributes prior to adding them to the map
-	 * @return
-	 */
-	private Map<DoubleArrayWrapper, List<Example>> createKeyMapping(ExampleSet exampleSet, Attribute[] keyAttributes,
-			Attribute[] matchKeyAttributes) {
-		Map<DoubleArrayWrapper, List<Example>> keyMapping = new HashMap<>();
-
-		assert keyAttributes.length == matchKeyAttributes.length;
-
-		// create mapping from nominal values of keyAttributes to matchKeyAttributes
-		Map<Attribute, Map<Double, Double>> valueMapping = null;
-		if (matchKeyAttributes != null) {
-			valueMapping = new HashMap<>();
-			for (int attributeNumber = 0; attributeNumber < keyAttributes.length; ++attributeNumber) {
-				if (keyAttributes[attributeNumber].isNominal()) {
-					Map<Double, Double> valueMap = new HashMap<>();
-					// TODO: iterate over getMappint().values() rather than relying on the
-					// assumption that values appear in increasing order
-					for (int valueNumber = 0; valueNumber < keyAttributes[attributeNumber].getMapping()
-							.size(); ++valueNumber) {
-						String valueString = keyAttributes[attributeNumber].getMapping().mapIndex(valueNumber);
-						valueMap.put((double) valueNumber,
-								(double) matchKeyAttributes[attributeNumber].getMapping().mapString(valueString));
-					}
-					valueMapping.put(keyAttributes[attributeNumber], valueMap);
-				}
-			}
-		}
-
-		double[] keyValues;
-
-		for (Example example : exampleSet) {
-			boolean continueIteration = false;
-			// fetch key values from example
-			keyValues = getKeyValues(example, keyAttributes);
-			if (valueMapping != null) {
-				// remap keyValues to match values of other attributes:
-				for (int i = 0; i < keyValues.length; ++i) {
-					if (Double.isNaN(keyValues[i])) {
-						continueIteration = true;
-						break;
-					}
-					if (keyAttributes[i].isNominal()) {
-						keyValues[i] = valueMapping.get(keyAttributes[i]).get(keyValues[i]);
-					}
-				}
-				if (continueIteration) {
-					continue;
-				}
-
-			}
-
-			// check if this key is in keyMapping. If not, add:
-			List<Example> keyExamples = keyMapping.get(new DoubleArrayWrapper(keyValues));
-			if (keyExamples != null) {
-				// add current example:
-				keyExamples.add(example);
-			} else {
-				// create set and add to keyMapping:
-				keyExamples = new LinkedList<>();
-				keyExamples.add(example);
-				keyMapping.put(new DoubleArrayWrapper(keyValues), keyExamples);
-			}
-		}
-		;
-		return keyMapping;
-	}
-
-	/**
-	 * Gets examples from secondExampleSet which match the values of the keyAttributes from
-	 * firstExample. If PARAMETER_USE_ID_FOR_JOIN is true, the standard id-mapping of example sets
-	 * is used. If not, secondKeyMapping is used (@see createKeyMapping())
-	 *
-	 */
-	private List<Example> getMatchingExamples(ExampleSet firstExampleSet, ExampleSet secondExampleSet,
-			Attribute[] firstKeyAttributes, Map<DoubleArrayWrapper, List<Example>> secondKeyMapping, boolean useId,
-			Example referenceExample) {
-		// find right examples matching current left example:
-		List<Example> matchingExamples = null;
-		if (useId) {
-			// use existent id mapping of right example set
-			Attribute firstIdAttribute = firstExampleSet.getAttributes().getId();
-			Attribute secondIdAttribute = secondExampleSet.getAttributes().getId();
-			double firstIdValue = referenceExample.getValue(firstIdAttribute);
-			// firstIdValue is NaN if the first value in the id column is a missing value
-			if (Double.isNaN(firstIdValue)) {
-				return null;
-			}
-			int[] matchingExampleIndices = null;
-			if (firstIdAttribute.isNominal()) {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(
-						secondIdAttribute.getMapping().getIndex(firstIdAttribute.getMapping().mapIndex((int) firstIdValue)));
-			} else {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(firstIdValue);
-			}
-			if (matchingExampleIndices != null) {
-				matchingExamples = new LinkedList<>();
-				for (int secondExampleIndex : matchingExampleIndices) {
-					Example matchingExample = secondExampleSet.getExample(secondExampleIndex);
-					matchingExamples.add(matchingExample);
-				}
-			}
-		} else {
-			// use previously created mapping
-			double[] leftKeyValues = getKeyValues(referenceExample, firstKeyAttributes);
-			matchingExamples = secondKeyMapping.get(new DoubleArrayWrapper(leftKeyValues));
-		}
-		return matchingExamples;
-	}
-
-	/**
-	 * Returns an array of doubles, which contains the values of the keyAttributes of example.
-	 */
-	private double[] getKeyValues(Example example, Attribute[] keyAttributes) {
-		int numKeys = keyAttributes.length;
-		double[] keyValues = new double[numKeys];
-		for (int i = 0; i < numKeys; ++i) {
-			keyValues[i] = example.getValue(keyAttributes[i]);
-		}
-		return keyValues;
-	}
-
 	/**
 	 * Returns all attributes from the right example which are key attributes.
 	 *
@@ -827,6 +651,11 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 				false, true);
 		types.add(keepBoth);
 
+		ParameterType joinStrategy = new ParameterTypeCategory(PARAMETER_JOIN_STRATEGY,
+				"Specifies how matching examples are found. The sort merge join needs less memory, but requires both example sets to be sorted ascendingly by the key attributes. Otherwise the hash join is used.",
+				JOIN_STRATEGIES, JOIN_STRATEGY_HASH, true);
+		types.add(joinStrategy);
+
 		return types;
 	}
 
@@ -0,0 +1,441 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.join;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Finds the matching examples of two example sets by the values of their key attributes. The
+ * examples of the probe side are delivered in their order, each of them together with its matching
+ * examples of the build side in their order. Missing key values never match.
+ * <p>
+ * The hash join copies the key values of the build side into a primitive array, using the nominal
+ * mapping of the probe side, and indexes the rows in an open-addressing table that points to the
+ * first row of every key. The further rows with the same key are chained in a single int array.
+ * The probe side is read in rounds whose look-ups are done in parallel.
+ * <p>
+ * The sort-merge join needs no memory besides the current group of equal keys, but requires both
+ * sides to be sorted ascendingly by their key attributes, nominal values by their string and
+ * numerical values by their value. If one of the sides is not sorted, the hash join is used.
+ *
+ * @since 7.6.1
+ */
+final class KeyJoin {
+
+	/**
+	 * Receives the result of the join in the order of the probe side. Every method is called from
+	 * the thread executing the join.
+	 */
+	abstract static class MatchHandler {
+
+		/** Called for every pair of matching examples. */
+		abstract void match(int probeRow, int buildRow);
+
+		/** Called for every example of the probe side without a match, if requested. */
+		void probeOnly(int probeRow) {}
+
+		/** Called for every example of the build side without a match after the probing, if requested. */
+		void buildOnly(int buildRow) {}
+
+	}
+
+	/** Marks the end of a chain and empty slots of the table. */
+	private static final int NO_ROW = -1;
+
+	/** The number of probe examples whose keys are read and looked up at once. */
+	private static final int ROUND_SIZE = 1 << 16;
+
+	/** Do not bother other threads for less look-ups than this. */
+	private static final int MIN_ROWS_PER_TASK = 4096;
+
+	/** The number of examples between two updates of the progress. */
+	private static final int PROGRESS_STEPS = 100;
+
+	private final ExampleSet probeSet;
+
+	private final Attribute[] probeKeys;
+
+	private final ExampleSet buildSet;
+
+	private final Attribute[] buildKeys;
+
+	private final boolean sortMerge;
+
+	private final Operator operator;
+
+    /**
+     * Creates a new join of the given example sets.
+     *
+     * @param probeSet  the example set whose examples are delivered in order
+     * @param probeKeys the key attributes of the probe side
+     * @param buildSet  the example set whose examples are looked up
+     * @param buildKeys the key attributes of the build side, of the same types as those of the
+     *                  probe side
+     * @param sortMerge whether a sort-merge join should be tried before the hash join
+     * @param operator  the operator executing the join
+     */
+    KeyJoin(ExampleSet probeSet, Attribute[] probeKeys, ExampleSet buildSet, Attribute[] buildKeys, boolean sortMerge,
+			Operator operator) {
+		this.probeSet = probeSet;
+		this.probeKeys = probeKeys;
+		this.buildSet = buildSet;
+		this.buildKeys = buildKeys;
+		this.sortMerge = sortMerge;
+		this.operator = operator;
+	}
+
+    /**
+     * Joins the example sets and delivers the result to the handler. The progress of the operator
+     * is stepped by one for every example of the probe side and, if unmatched examples of the
+     * build side are requested, for every example of the build side.
+     *
+     * @param keepProbeOnly whether examples of the probe side without a match are delivered
+     * @param keepBuildOnly whether examples of the build side without a match are delivered
+     * @param handler       the handler receiving the result
+     * @throws OperatorException if the process is stopped or a look-up fails
+     */
+    void join(boolean keepProbeOnly, boolean keepBuildOnly, MatchHandler handler) throws OperatorException {
+		boolean[] matched = keepBuildOnly ? new boolean[buildSet.size()] : null;
+		if (sortMerge && isSorted(probeSet, probeKeys) && isSorted(buildSet, buildKeys)) {
+			mergeJoin(keepProbeOnly, matched, handler);
+		} else {
+			if (sortMerge) {
+				operator.logWarning("The example sets are not sorted by the key attributes, using a hash join instead.");
+			}
+			hashJoin(keepProbeOnly, matched, handler);
+		}
+
+		if (keepBuildOnly) {
+			OperatorProgress progress = operator.getProgress();
+			for (int row = 0; row < matched.length; row++) {
+				if (!matched[row]) {
+					handler.buildOnly(row);
+				}
+				if ((row + 1) % PROGRESS_STEPS == 0) {
+					progress.step(PROGRESS_STEPS);
+				}
+			}
+			progress.step(matched.length % PROGRESS_STEPS);
+		}
+	}
+
+	/**
+	 * Builds the table for the build side and probes it round by round.
+	 */
+	private void hashJoin(boolean keepProbeOnly, boolean[] matched, MatchHandler handler) throws OperatorException {
+		final int width = probeKeys.length;
+
+		// copying the keys of the build side, translated into the nominal mappings of the probe side
+		final int buildSize = buildSet.size();
+		final double[] buildValues = new double[buildSize * width];
+		int[][] indexMappings = new int[width][];
+		for (int i = 0; i < width; i++) {
+			if (buildKeys[i].isNominal()) {
+				List<String> buildMapping = buildKeys[i].getMapping().getValues();
+				indexMappings[i] = new int[buildMapping.size()];
+				for (int index = 0; index < indexMappings[i].length; index++) {
+					indexMappings[i][index] = probeKeys[i].getMapping().getIndex(buildMapping.get(index));
+				}
+			}
+		}
+		int offset = 0;
+		for (Example example : buildSet) {
+			for (int i = 0; i < width; i++) {
+				double value = example.getValue(buildKeys[i]);
+				if (indexMappings[i] != null && !Double.isNaN(value)) {
+					int index = indexMappings[i][(int) value];
+					// values unknown to the probe side can never match
+					value = index < 0 ? Double.NaN : index;
+				}
+				buildValues[offset++] = value;
+			}
+		}
+		operator.checkForStop();
+
+		// indexing the rows, inserted backwards so that the chains are in ascending order
+		int minCapacity = (int) Math.min(1 << 30, (long) buildSize * 4 / 3 + 1);
+		int capacity = 2;
+		while (capacity < minCapacity) {
+			capacity <<= 1;
+		}
+		final int[] heads = new int[capacity];
+		Arrays.fill(heads, NO_ROW);
+		final int[] next = new int[buildSize];
+		final int mask = capacity - 1;
+		for (int row = buildSize - 1; row >= 0; row--) {
+			next[row] = NO_ROW;
+			int rowOffset = row * width;
+			if (!isMissing(buildValues, rowOffset, width)) {
+				int slot = hash(buildValues, rowOffset, width) & mask;
+				while (heads[slot] != NO_ROW && !equals(buildValues, heads[slot] * width, buildValues, rowOffset, width)) {
+					slot = (slot + 1) & mask;
+				}
+				next[row] = heads[slot];
+				heads[slot] = row;
+			}
+		}
+		operator.checkForStop();
+
+		// probing round by round: reading the keys, looking them up in parallel, delivering in order
+		final ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		final int probeSize = probeSet.size();
+		final double[] probeValues = new double[Math.min(ROUND_SIZE, probeSize) * width];
+		final int[] firstMatches = new int[Math.min(ROUND_SIZE, probeSize)];
+		OperatorProgress progress = operator.getProgress();
+		Iterator<Example> iterator = probeSet.iterator();
+		for (int start = 0; start < probeSize; start += ROUND_SIZE) {
+			int roundSize = Math.min(ROUND_SIZE, probeSize - start);
+			offset = 0;
+			for (int i = 0; i < roundSize; i++) {
+				Example example = iterator.next();
+				for (int j = 0; j < width; j++) {
+					probeValues[offset++] = example.getValue(probeKeys[j]);
+				}
+			}
+
+			int numberOfTasks = Math.min(context.getParallelism(), roundSize / MIN_ROWS_PER_TASK);
+			if (numberOfTasks < 2) {
+				lookUp(probeValues, 0, roundSize, width, buildValues, heads, firstMatches);
+			} else {
+				List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+				for (int i = 0; i < numberOfTasks; i++) {
+					final int from = (int) ((long) roundSize * i / numberOfTasks);
+					final int to = (int) ((long) roundSize * (i + 1) / numberOfTasks);
+					tasks.add(new Callable<Void>() {
+
+						@Override
+						public Void call() {
+							context.checkStatus();
+							lookUp(probeValues, from, to, width, buildValues, heads, firstMatches);
+							return null;
+						}
+					});
+				}
+				try {
+					context.call(tasks);
+				} catch (ExecutionException e) {
+					throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+				}
+			}
+
+			for (int i = 0; i < roundSize; i++) {
+				int buildRow = firstMatches[i];
+				if (buildRow == NO_ROW) {
+					if (keepProbeOnly) {
+						handler.probeOnly(start + i);
+					}
+				} else {
+					for (; buildRow != NO_ROW; buildRow = next[buildRow]) {
+						handler.match(start + i, buildRow);
+						if (matched != null) {
+							matched[buildRow] = true;
+						}
+					}
+				}
+			}
+			progress.step(roundSize);
+		}
+	}
+
+	/**
+	 * Looks up the first matching build row of the probe keys between from and to.
+	 */
+	private static void lookUp(double[] probeValues, int from, int to, int width, double[] buildValues, int[] heads,
+			int[] firstMatches) {
+		int mask = heads.length - 1;
+		for (int i = from; i < to; i++) {
+			int offset = i * width;
+			firstMatches[i] = NO_ROW;
+			if (!isMissing(probeValues, offset, width)) {
+				int slot = hash(probeValues, offset, width) & mask;
+				while (heads[slot] != NO_ROW) {
+					if (equals(buildValues, heads[slot] * width, probeValues, offset, width)) {
+						firstMatches[i] = heads[slot];
+						break;
+					}
+					slot = (slot + 1) & mask;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Walks through both sorted sides at once, keeping only the current group of build rows with
+	 * equal keys.
+	 */
+	private void mergeJoin(boolean keepProbeOnly, boolean[] matched, MatchHandler handler) throws OperatorException {
+		int width = probeKeys.length;
+		int buildSize = buildSet.size();
+		double[] probeValues = new double[width];
+		double[] groupValues = new double[width];
+		double[] buildValues = new double[width];
+		int[] group = new int[16];
+		int groupSize = 0;
+		// the first build row after the current group
+		int groupEnd = 0;
+		OperatorProgress progress = operator.getProgress();
+
+		int probeRow = 0;
+		for (Example example : probeSet) {
+			getValues(example, probeKeys, probeValues);
+			boolean found = false;
+			if (!isMissing(probeValues, 0, width)) {
+				// moving to the first group whose key is not smaller than the probe key
+				while (groupSize == 0 || compare(groupValues, buildKeys, probeValues, probeKeys) < 0) {
+					// skipping missing keys, they are in no group
+					while (groupEnd < buildSize
+							&& isMissing(getValues(buildSet.getExample(groupEnd), buildKeys, groupValues), 0, width)) {
+						groupEnd++;
+					}
+					if (groupEnd == buildSize) {
+						groupSize = 0;
+						break;
+					}
+					group[0] = groupEnd++;
+					groupSize = 1;
+					while (groupEnd < buildSize) {
+						getValues(buildSet.getExample(groupEnd), buildKeys, buildValues);
+						if (isMissing(buildValues, 0, width)) {
+							groupEnd++;
+						} else if (compare(buildValues, buildKeys, groupValues, buildKeys) == 0) {
+							if (groupSize == group.length) {
+								group = Arrays.copyOf(group, 2 * groupSize);
+							}
+							group[groupSize++] = groupEnd++;
+						} else {
+							break;
+						}
+					}
+				}
+				found = groupSize > 0 && compare(groupValues, buildKeys, probeValues, probeKeys) == 0;
+			}
+
+			if (found) {
+				for (int i = 0; i < groupSize; i++) {
+					handler.match(probeRow, group[i]);
+					if (matched != null) {
+						matched[group[i]] = true;
+					}
+				}
+			} else if (keepProbeOnly) {
+				handler.probeOnly(probeRow);
+			}
+			if (++probeRow % PROGRESS_STEPS == 0) {
+				progress.step(PROGRESS_STEPS);
+			}
+		}
+		progress.step(probeRow % PROGRESS_STEPS);
+	}
+
+	/**
+	 * Checks whether the examples with non-missing keys are sorted ascendingly by the given keys.
+	 */
+	private boolean isSorted(ExampleSet exampleSet, Attribute[] keys) throws OperatorException {
+		double[] previousValues = null;
+		double[] values = new double[keys.length];
+		int row = 0;
+		for (Example example : exampleSet) {
+			getValues(example, keys, values);
+			if (!isMissing(values, 0, keys.length)) {
+				if (previousValues == null) {
+					previousValues = new double[keys.length];
+				} else if (compare(previousValues, keys, values, keys) > 0) {
+					return false;
+				}
+				System.arraycopy(values, 0, previousValues, 0, keys.length);
+			}
+			if (++row % ROUND_SIZE == 0) {
+				operator.checkForStop();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two keys in the order of the sort-merge join.
+	 */
+	private static int compare(double[] values1, Attribute[] keys1, double[] values2, Attribute[] keys2) {
+		for (int i = 0; i < values1.length; i++) {
+			int result;
+			if (keys1[i].isNominal()) {
+				result = keys1[i].getMapping().mapIndex((int) values1[i])
+						.compareTo(keys2[i].getMapping().mapIndex((int) values2[i]));
+			} else {
+				result = Double.compare(values1[i], values2[i]);
+			}
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	private static double[] getValues(Example example, Attribute[] keys, double[] values) {
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = example.getValue(keys[i]);
+		}
+		return values;
+	}
+
+	private static boolean isMissing(double[] values, int offset, int width) {
+		for (int i = offset; i < offset + width; i++) {
+			if (Double.isNaN(values[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares the keys bitwise, as {@link Arrays#equals(double[], double[])} does.
+	 */
+	private static boolean equals(double[] values1, int offset1, double[] values2, int offset2, int width) {
+		for (int i = 0; i < width; i++) {
+			if (Double.doubleToLongBits(values1[offset1 + i]) != Double.doubleToLongBits(values2[offset2 + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(double[] values, int offset, int width) {
+		long hash = 0;
+		for (int i = offset; i < offset + width; i++) {
+			hash = hash * 31 + Double.doubleToLongBits(values[i]);
+		}
+		hash *= 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
@@ -21,11 +21,16 @@ package com.rapidminer.operator.preprocessing.outlier;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.operator.AbstractExampleSetProcessing;
 import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.SetRelation;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.conditions.AboveOperatorVersionCondition;
 import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.math.container.GeometricDataCollections;
 
 import java.util.Set;
 
@@ -40,6 +45,21 @@ import java.util.Set;
  */
 public abstract class AbstractOutlierDetection extends AbstractExampleSetProcessing {
 
+    /**
+     * The parameter name for &quot;The structure used to search for the nearest neighbors.&quot;
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_SEARCH_STRUCTURE = "search_structure";
+
+    /**
+     * Up to this version, the distance based outlier detections compare all pairs of examples in a
+     * {@link SearchSpace}.
+     *
+     * @since 7.6.1
+     */
+    public static final OperatorVersion VERSION_SEARCH_SPACE_ONLY = new OperatorVersion(7, 6, 0);
+
     /**
      * Instantiates a new Abstract outlier detection.
      *
@@ -64,6 +84,41 @@ public abstract class AbstractOutlierDetection extends AbstractExampleSetProcess
      */
     protected abstract Set<String> getOutlierValues();
 
+    /**
+     * Creates the parameter for the search structure of the neighbourhood queries, only shown
+     * above {@link #VERSION_SEARCH_SPACE_ONLY}.
+     *
+     * @return the parameter type
+     * @since 7.6.1
+     */
+    protected ParameterType createSearchStructureParameter() {
+		ParameterType type = new ParameterTypeCategory(PARAMETER_SEARCH_STRUCTURE,
+				"The structure used to search for the nearest neighbors. Trees are only used for the euclidian and squared distance on data without missing values, automatic chooses depending on the number of examples and dimensions.",
+				GeometricDataCollections.SEARCH_STRUCTURES, GeometricDataCollections.AUTOMATIC, true);
+		type.registerDependencyCondition(new AboveOperatorVersionCondition(this, VERSION_SEARCH_SPACE_ONLY));
+		return type;
+	}
+
+    /**
+     * Checks whether the neighbourhood queries are answered by a {@link NeighbourQueryEngine}
+     * instead of a {@link SearchSpace}.
+     *
+     * @return {@code true} above {@link #VERSION_SEARCH_SPACE_ONLY}
+     * @since 7.6.1
+     */
+    protected boolean usesNeighbourQueries() {
+		return getCompatibilityLevel().isAbove(VERSION_SEARCH_SPACE_ONLY);
+	}
+
+	@Override
+	public OperatorVersion[] getIncompatibleVersionChanges() {
+		OperatorVersion[] old = super.getIncompatibleVersionChanges();
+		OperatorVersion[] newVersions = new OperatorVersion[old.length + 1];
+		System.arraycopy(old, 0, newVersions, 0, old.length);
+		newVersions[old.length] = VERSION_SEARCH_SPACE_ONLY;
+		return newVersions;
+	}
+
 	@Override
 	public boolean writesIntoExistingData() {
 		return false;
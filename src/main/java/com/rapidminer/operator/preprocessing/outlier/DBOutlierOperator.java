@@ -102,6 +102,41 @@ public class DBOutlierOperator extends AbstractOutlierDetection {
 		double p = this.getParameterAsDouble(PARAMETER_PROPORTION);
 		int kindOfDistance = this.getParameterAsInt(PARAMETER_DISTANCE_FUNCTION);
 
+		boolean[] outlierStatus;
+		if (usesNeighbourQueries()) {
+			NeighbourQueryEngine queries = new NeighbourQueryEngine(eSet, kindOfDistance,
+					getParameterAsInt(PARAMETER_SEARCH_STRUCTURE), this);
+			outlierStatus = queries.computeDBOutliers(d, p);
+		} else {
+			outlierStatus = searchOutliers(eSet, d, p, kindOfDistance);
+		}
+
+		// create a new special attribute for the exampleSet
+		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.BINOMINAL);
+		outlierAttribute.getMapping().mapString("false");
+		outlierAttribute.getMapping().mapString("true");
+		eSet.getExampleTable().addAttribute(outlierAttribute);
+		eSet.getAttributes().setOutlier(outlierAttribute);
+
+		int counter = 0;
+		Iterator<Example> reader = eSet.iterator();
+		while (reader.hasNext()) {
+			Example example = reader.next();
+			if (outlierStatus[counter]) {
+				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("true"));
+			} else {
+				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("false"));
+			}
+			counter++;
+		}
+
+		return eSet;
+	}
+
+	/**
+	 * Performs the DB(p,D)-Outlier search in a {@link SearchSpace} comparing all pairs of examples.
+	 */
+	private boolean[] searchOutliers(ExampleSet eSet, double d, double p, int kindOfDistance) {
 		// create a new SearchSpace for the DB(p,D)-Outlier search
 		Iterator<Example> reader = eSet.iterator();
 		int searchSpaceDimension = eSet.getAttributes().size();
@@ -129,26 +164,11 @@ public class DBOutlierOperator extends AbstractOutlierDetection {
 		// perform the DB(p,d)-Outlier search
 		sr.allRadiusSearch(d, p, kindOfDistance);
 
-		// create a new special attribute for the exampleSet
-		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.BINOMINAL);
-		outlierAttribute.getMapping().mapString("false");
-		outlierAttribute.getMapping().mapString("true");
-		eSet.getExampleTable().addAttribute(outlierAttribute);
-		eSet.getAttributes().setOutlier(outlierAttribute);
-
-		counter = 0; // reset counter to zero
-		Iterator<Example> reader2 = eSet.iterator();
-		while (reader2.hasNext()) {
-			Example example = reader2.next();
-			if (sr.getSearchObjectOutlierStatus(counter) == true) {
-				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("true"));
-			} else {
-				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("false"));
-			}
-			counter++;
+		boolean[] outlierStatus = new boolean[counter];
+		for (int i = 0; i < counter; i++) {
+			outlierStatus[i] = sr.getSearchObjectOutlierStatus(i);
 		}
-
-		return eSet;
+		return outlierStatus;
 	}
 
 	@Override
@@ -166,6 +186,7 @@ public class DBOutlierOperator extends AbstractOutlierDetection {
 		types.add(new ParameterTypeCategory(PARAMETER_DISTANCE_FUNCTION,
 				"Indicates which distance function will be used for calculating the distance between two objects",
 				distanceFunctionList, 0, false));
+		types.add(createSearchStructureParameter());
 		return types;
 	}
 
@@ -105,9 +105,45 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 		// declaration and initializing the necessary fields from input
 		int k = this.getParameterAsInt(PARAMETER_NUMBER_OF_NEIGHBORS);
 		int n = this.getParameterAsInt(PARAMETER_NUMBER_OF_OUTLIERS);
-		n = n - 2; // this has to do with the internal indexing in the SearchSpace's methods
 		int kindOfDistance = this.getParameterAsInt(PARAMETER_DISTANCE_FUNCTION);
 
+		boolean[] outlierStatus;
+		if (usesNeighbourQueries()) {
+			NeighbourQueryEngine queries = new NeighbourQueryEngine(eSet, kindOfDistance,
+					getParameterAsInt(PARAMETER_SEARCH_STRUCTURE), this);
+			outlierStatus = NeighbourQueryEngine.selectTopOutliers(queries.computeKDistances(k), n);
+		} else {
+			outlierStatus = searchOutliers(eSet, k, n, kindOfDistance);
+		}
+
+		// create a new special attribute for the exampleSet
+		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.BINOMINAL);
+		outlierAttribute.getMapping().mapString("false");
+		outlierAttribute.getMapping().mapString("true");
+		eSet.getExampleTable().addAttribute(outlierAttribute);
+		eSet.getAttributes().setOutlier(outlierAttribute);
+
+		int counter = 0;
+		Iterator<Example> reader = eSet.iterator();
+		while (reader.hasNext()) {
+			Example example = reader.next();
+			if (outlierStatus[counter]) {
+				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("true"));
+			} else {
+				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("false"));
+			}
+			counter++;
+		}
+
+		return eSet;
+	}
+
+	/**
+	 * Performs the D^k_n Outlier search in a {@link SearchSpace} comparing all pairs of examples.
+	 */
+	private boolean[] searchOutliers(ExampleSet eSet, int k, int n, int kindOfDistance) throws OperatorException {
+		n = n - 2; // this has to do with the internal indexing in the SearchSpace's methods
+
 		// create a new SearchSpace for the DKN(p,D)-Outlier search
 		Iterator<Example> reader = eSet.iterator();
 		int searchSpaceDimension = eSet.getAttributes().size();
@@ -144,26 +180,11 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 		// perform the outlier search
 		sr.computeDKN(k, n, this);
 
-		// create a new special attribute for the exampleSet
-		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.BINOMINAL);
-		outlierAttribute.getMapping().mapString("false");
-		outlierAttribute.getMapping().mapString("true");
-		eSet.getExampleTable().addAttribute(outlierAttribute);
-		eSet.getAttributes().setOutlier(outlierAttribute);
-
-		counter = 0; // reset counter to zero
-		Iterator<Example> reader2 = eSet.iterator();
-		while (reader2.hasNext()) {
-			Example example = reader2.next();
-			if (sr.getSearchObjectOutlierStatus(counter) == true) {
-				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("true"));
-			} else {
-				example.setValue(outlierAttribute, outlierAttribute.getMapping().mapString("false"));
-			}
-			counter++;
+		boolean[] outlierStatus = new boolean[counter];
+		for (int i = 0; i < counter; i++) {
+			outlierStatus[i] = sr.getSearchObjectOutlierStatus(i);
 		}
-
-		return eSet;
+		return outlierStatus;
 	}
 
 	@Override
@@ -178,6 +199,7 @@ public class DKNOutlierOperator extends AbstractOutlierDetection {
 		types.add(new ParameterTypeCategory(PARAMETER_DISTANCE_FUNCTION,
 				"choose which distance function will be used for calculating " + "the distance between two objects",
 				distanceFunctionList, 0, false));
+		types.add(createSearchStructureParameter());
 		return types;
 	}
 
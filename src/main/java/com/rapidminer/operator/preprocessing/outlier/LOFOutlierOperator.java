@@ -140,6 +140,35 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 			minPtsUpperBound = minPtsLB;
 		}
 
+		double[] outlierFactors;
+		if (usesNeighbourQueries()) {
+			NeighbourQueryEngine queries = new NeighbourQueryEngine(eSet, kindOfDistance,
+					getParameterAsInt(PARAMETER_SEARCH_STRUCTURE), this);
+			outlierFactors = queries.computeLOF(minPtsLowerBound, minPtsUpperBound);
+		} else {
+			outlierFactors = searchOutliers(eSet, minPtsLowerBound, minPtsUpperBound, kindOfDistance);
+		}
+
+		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.REAL);
+		eSet.getExampleTable().addAttribute(outlierAttribute);
+		eSet.getAttributes().setOutlier(outlierAttribute);
+
+		int counter = 0;
+		Iterator<Example> reader = eSet.iterator();
+		while (reader.hasNext()) {
+			Example example = reader.next(); // read the next example
+			example.setValue(outlierAttribute, outlierFactors[counter]);
+			counter++;
+		}
+
+		return eSet;
+	}
+
+	/**
+	 * Performs the LOF-Outlier search in a {@link SearchSpace} comparing all pairs of examples.
+	 */
+	private double[] searchOutliers(ExampleSet eSet, int minPtsLowerBound, int minPtsUpperBound, int kindOfDistance)
+			throws OperatorException {
 		// create a new SearchSpace for the LOF-Outlier search
 		Iterator<Example> reader = eSet.iterator();
 		int searchSpaceDimension = eSet.getAttributes().size();
@@ -170,20 +199,11 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 		// perform the LOF-Outlier search
 		sr.computeLOF(minPtsLowerBound, minPtsUpperBound, this);
 
-		Attribute outlierAttribute = AttributeFactory.createAttribute(Attributes.OUTLIER_NAME, Ontology.REAL);
-		eSet.getExampleTable().addAttribute(outlierAttribute);
-		eSet.getAttributes().setOutlier(outlierAttribute);
-
-		counter = 0; // reset counter to zero
-		Iterator<Example> reader2 = eSet.iterator();
-		while (reader2.hasNext()) {
-			Example example = reader2.next(); // read the next example
-			SearchObject sobj = sr.getSearchObjects().elementAt(counter);
-			example.setValue(outlierAttribute, sobj.getOutlierFactor());
-			counter++;
+		double[] outlierFactors = new double[counter];
+		for (int i = 0; i < counter; i++) {
+			outlierFactors[i] = sr.getSearchObjects().elementAt(i).getOutlierFactor();
 		}
-
-		return eSet;
+		return outlierFactors;
 	}
 
 	@Override
@@ -210,6 +230,7 @@ public class LOFOutlierOperator extends AbstractOutlierDetection {
 				distanceFunctionList, 0);
 		type.setExpert(false);
 		types.add(type);
+		types.add(createSearchStructureParameter());
 		return types;
 	}
 
@@ -0,0 +1,701 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.outlier;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.GeometricDataCollections;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Answers the neighbourhood queries of the {@link LOFOutlierOperator}, the
+ * {@link DBOutlierOperator} and the {@link DKNOutlierOperator} without building a
+ * {@link SearchSpace}. The values of the example set are copied once into a row-major matrix. For
+ * the euclidian and the squared distance on data without missing values, the queries are answered
+ * by a {@link GeometricDataCollection} built on the rows, otherwise by a linear scan over the
+ * matrix. The queries are distributed over the threads of the {@link ConcurrencyContext} and all
+ * intermediate results are stored in primitive arrays.
+ * <p>
+ * The distances are computed like {@link SearchObject#getDistance(SearchObject, int)} and the
+ * results are the same as the ones of the {@link SearchSpace}, except that missing distances are
+ * ordered after all others instead of by their position in the data. The k-neighbourhood of a row
+ * consists of all other rows whose distance is at most the k-distance, ordered by distance and row.
+ *
+ * @since 7.6.1
+ */
+final class NeighbourQueryEngine {
+
+	/** The euclidian distance, also used for unknown kinds of distance. */
+	private static final int EUCLIDIAN = 0;
+
+	/** The squared euclidian distance. */
+	private static final int SQUARED = 1;
+
+	/** The cosine of the angle between the rows. */
+	private static final int COSINE = 2;
+
+	/** One minus the cosine of the angle between the rows. */
+	private static final int INV_COSINE = 3;
+
+	/** The number of rows queried between two checks for stop. */
+	private static final int QUERY_BATCH_SIZE = 1024;
+
+	/** Do not bother other threads for less queries than this. */
+	private static final int MIN_ROWS_PER_TASK = 16;
+
+	/** The number of tasks per thread, queries may take very different times. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** Up to this number of neighbours, the DB(p,D) counts are answered by the index. */
+	private static final int MAX_INDEX_COUNT = 1024;
+
+	/**
+	 * Processes a range of rows.
+	 */
+	private interface RowRangeTask {
+
+		void process(int from, int to);
+
+	}
+
+	/**
+	 * The buffers of a single thread for the neighbourhood of the current row.
+	 */
+	private static final class Neighbourhood {
+
+		private double[] distances;
+		private int[] rows;
+		private int size;
+
+		private Neighbourhood(int capacity) {
+			distances = new double[Math.max(capacity, 1)];
+			rows = new int[distances.length];
+		}
+
+		private void add(double distance, int row) {
+			if (size == rows.length) {
+				distances = Arrays.copyOf(distances, 2 * size);
+				rows = Arrays.copyOf(rows, 2 * size);
+			}
+			distances[size] = distance;
+			rows[size++] = row;
+		}
+	}
+
+	private final double[][] points;
+
+	/** The squared norms of the rows for the cosine based distances. */
+	private final double[] squaredNorms;
+
+	private final int kindOfDistance;
+
+	/** The index on the rows, {@code null} if a linear scan is used */
+	private final GeometricDataCollection<Integer> index;
+
+	private final Operator operator;
+
+	private final ConcurrencyContext context;
+
+    /**
+     * Copies the regular attributes of the given example set and builds the index if possible.
+     *
+     * @param exampleSet     the example set
+     * @param kindOfDistance the kind of distance as used by {@link SearchObject#getDistance(SearchObject, int)}
+     * @param structure      the requested search structure, one of the constants of
+     *                       {@link GeometricDataCollections}
+     * @param operator       the operator executing the queries
+     */
+    NeighbourQueryEngine(ExampleSet exampleSet, int kindOfDistance, int structure, Operator operator) {
+		this.kindOfDistance = kindOfDistance < EUCLIDIAN || kindOfDistance > 4 ? EUCLIDIAN : kindOfDistance;
+		this.operator = operator;
+		this.context = Resources.getConcurrencyContext(operator);
+
+		Attributes attributes = exampleSet.getAttributes();
+		int dimensions = attributes.size();
+		boolean hasMissingValues = false;
+		points = new double[exampleSet.size()][];
+		int row = 0;
+		for (Example example : exampleSet) {
+			double[] values = new double[dimensions];
+			int i = 0;
+			for (Attribute attribute : attributes) {
+				values[i] = example.getValue(attribute);
+				hasMissingValues |= Double.isNaN(values[i]);
+				i++;
+			}
+			points[row++] = values;
+		}
+
+		if (this.kindOfDistance == EUCLIDIAN || this.kindOfDistance == SQUARED) {
+			squaredNorms = null;
+			// the squared distance orders the rows like the euclidian one
+			EuclideanDistance measure = new EuclideanDistance();
+			int selected = GeometricDataCollections.selectSearchStructure(structure, measure, dimensions, points.length,
+					true, hasMissingValues);
+			if (structure != GeometricDataCollections.AUTOMATIC && structure != selected) {
+				operator.getLogger().warning("The " + GeometricDataCollections.SEARCH_STRUCTURES[structure]
+						+ " does not support missing values, using linear search instead.");
+			}
+			if (selected == GeometricDataCollections.LINEAR_SEARCH) {
+				index = null;
+			} else {
+				List<Integer> rows = new ArrayList<>(points.length);
+				for (int i = 0; i < points.length; i++) {
+					rows.add(i);
+				}
+				index = GeometricDataCollections.create(selected, dimensions, measure, Arrays.asList(points), rows);
+			}
+		} else {
+			if (structure != GeometricDataCollections.AUTOMATIC && structure != GeometricDataCollections.LINEAR_SEARCH) {
+				operator.getLogger().warning("The " + GeometricDataCollections.SEARCH_STRUCTURES[structure]
+						+ " does not support the selected distance function, using linear search instead.");
+			}
+			index = null;
+			squaredNorms = new double[points.length];
+			for (int i = 0; i < points.length; i++) {
+				double sum = 0;
+				for (double value : points[i]) {
+					sum = sum + value * value;
+				}
+				squaredNorms[i] = sum;
+			}
+		}
+	}
+
+    /**
+     * Determines the DB(p,D)-outliers: a row is an outlier if at most a proportion of 1-p of all
+     * rows, including itself, is closer than D.
+     *
+     * @param distance   the distance D
+     * @param proportion the proportion p
+     * @return the outlier status of every row
+     * @throws OperatorException if the process is stopped
+     */
+    boolean[] computeDBOutliers(final double distance, double proportion) throws OperatorException {
+		final boolean[] outliers = new boolean[points.length];
+		final long maxCount = Math.round(points.length * (1 - proportion));
+		final boolean useIndex = index != null && maxCount < MAX_INDEX_COUNT;
+		run(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				for (int row = from; row < to; row++) {
+					long count = useIndex ? countCloserByIndex(row, distance, maxCount) : countCloser(row, distance, maxCount);
+					outliers[row] = count <= maxCount;
+				}
+			}
+		});
+		return outliers;
+	}
+
+    /**
+     * Computes the distance of every row to its k-th nearest neighbour.
+     *
+     * @param k the number of neighbours
+     * @return the k-distances, 0 if there are less than k other rows
+     * @throws OperatorException if the process is stopped
+     */
+    double[] computeKDistances(final int k) throws OperatorException {
+		final double[] kDistances = new double[points.length];
+		if (k < 1 || k >= points.length) {
+			return kDistances;
+		}
+		run(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				Neighbourhood neighbourhood = new Neighbourhood(k + 1);
+				for (int row = from; row < to; row++) {
+					findNeighbourhood(row, k, neighbourhood);
+					kDistances[row] = neighbourhood.distances[k - 1];
+				}
+			}
+		});
+		return kDistances;
+	}
+
+    /**
+     * Computes the local outlier factors like {@link SearchSpace#computeLOF(int, int, Operator)}:
+     * the maximum of the LOFs for all MinPts from the lower up to the upper bound.
+     *
+     * @param kMin the lower bound for MinPts
+     * @param kMax the upper bound for MinPts
+     * @return the outlier factor of every row
+     * @throws OperatorException if the process is stopped
+     */
+    double[] computeLOF(final int kMin, final int kMax) throws OperatorException {
+		final int size = points.length;
+		final double[] outlierFactors = new double[size];
+		if (kMax < 1 || size < 2) {
+			return outlierFactors;
+		}
+
+		// (1) the k-neighbourhoods up to kMax, the k-distances are the distances at position k-1
+		final int[][] neighbours = new int[size][];
+		final double[][] distances = new double[size][];
+		final int k = Math.min(kMax, size - 1);
+		run(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				Neighbourhood neighbourhood = new Neighbourhood(k + 1);
+				for (int row = from; row < to; row++) {
+					findNeighbourhood(row, k, neighbourhood);
+					neighbours[row] = Arrays.copyOf(neighbourhood.rows, neighbourhood.size);
+					distances[row] = Arrays.copyOf(neighbourhood.distances, neighbourhood.size);
+				}
+			}
+		});
+
+		// (2) the local reachability densities for all k, constant for all k reached by the same
+		// group of equally distant neighbours
+		final double[][] lrds = new double[size][kMax + 1];
+		run(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				for (int row = from; row < to; row++) {
+					int[] rowNeighbours = neighbours[row];
+					double[] rowDistances = distances[row];
+					double[] lrd = lrds[row];
+					double sumDistance = 0;
+					int start = 0;
+					while (start < rowNeighbours.length && start < kMax) {
+						int end = groupEnd(rowDistances, start);
+						int groupK = start + 1;
+						for (int i = start; i < end; i++) {
+							sumDistance = sumDistance + Math.max(rowDistances[i], kDistance(distances[rowNeighbours[i]], groupK));
+						}
+						double groupLrd = 1 / (sumDistance / end);
+						for (int j = groupK; j <= Math.min(end, kMax); j++) {
+							lrd[j] = groupLrd;
+						}
+						start = end;
+					}
+				}
+			}
+		});
+
+		// (3) the local outlier factors, the ratios of the neighbours' and the own lrds are summed up
+		// for all k that are reached later on
+		run(new RowRangeTask() {
+
+			@Override
+			public void process(int from, int to) {
+				double[] sumLrdRatios = new double[kMax + 1];
+				for (int row = from; row < to; row++) {
+					Arrays.fill(sumLrdRatios, 0);
+					int[] rowNeighbours = neighbours[row];
+					double[] rowDistances = distances[row];
+					double[] lrd = lrds[row];
+					double outlierFactor = 0;
+					int start = 0;
+					while (start < rowNeighbours.length && start < kMax) {
+						int end = groupEnd(rowDistances, start);
+						int groupK = start + 1;
+						for (int i = start; i < end; i++) {
+							double[] neighbourLrd = lrds[rowNeighbours[i]];
+							for (int j = groupK; j <= kMax; j++) {
+								// the lrd becomes infinite for a huge number of duplicates
+								if (!(Double.isInfinite(lrd[j]) || Double.isInfinite(neighbourLrd[j]))) {
+									sumLrdRatios[j] = sumLrdRatios[j] + neighbourLrd[j] / lrd[j];
+								}
+							}
+						}
+						double lof = sumLrdRatios[groupK] / end;
+						for (int j = groupK; j <= Math.min(end, kMax); j++) {
+							if (j >= kMin && outlierFactor <= lof) {
+								outlierFactor = lof;
+							}
+						}
+						start = end;
+					}
+					outlierFactors[row] = outlierFactor;
+				}
+			}
+		});
+		return outlierFactors;
+	}
+
+    /**
+     * Selects the rows with the largest k-distances like
+     * {@link SearchSpace#computeDKN(int, int, Operator)}: a row replaces the selected row with the
+     * smallest k-distance only if its k-distance is strictly larger.
+     *
+     * @param kDistances the k-distances of all rows
+     * @param n          the number of rows to select
+     * @return the outlier status of every row
+     */
+    static boolean[] selectTopOutliers(double[] kDistances, int n) {
+		boolean[] outliers = new boolean[kDistances.length];
+		int capacity = Math.max(1, Math.min(n, kDistances.length));
+		// a min-heap on k-distance and row, the legacy list removes the first of equal minima
+		int[] heap = new int[capacity];
+		int size = 0;
+		for (int row = 0; row < kDistances.length; row++) {
+			if (size < capacity) {
+				int position = size++;
+				while (position > 0) {
+					int parent = (position - 1) >>> 1;
+					if (!isSmaller(kDistances, row, heap[parent])) {
+						break;
+					}
+					heap[position] = heap[parent];
+					position = parent;
+				}
+				heap[position] = row;
+			} else if (kDistances[row] > kDistances[heap[0]]) {
+				int position = 0;
+				int half = size >>> 1;
+				while (position < half) {
+					int child = 2 * position + 1;
+					if (child + 1 < size && isSmaller(kDistances, heap[child + 1], heap[child])) {
+						child++;
+					}
+					if (!isSmaller(kDistances, heap[child], row)) {
+						break;
+					}
+					heap[position] = heap[child];
+					position = child;
+				}
+				heap[position] = row;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			outliers[heap[i]] = true;
+		}
+		return outliers;
+	}
+
+	private static boolean isSmaller(double[] kDistances, int row, int otherRow) {
+		int comparison = Double.compare(kDistances[row], kDistances[otherRow]);
+		return comparison < 0 || comparison == 0 && row < otherRow;
+	}
+
+	/**
+	 * Returns the k-distance of a row from its neighbourhood distances, 0 if it has less than k
+	 * neighbours.
+	 */
+	private static double kDistance(double[] distances, int k) {
+		return k <= distances.length ? distances[k - 1] : 0;
+	}
+
+	/**
+	 * Returns the end of the group of equally distant neighbours starting at the given position.
+	 */
+	private static int groupEnd(double[] distances, int start) {
+		int end = start + 1;
+		while (end < distances.length && distances[end] == distances[start]) {
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Computes the distance between two rows like {@link SearchObject#getDistance(SearchObject, int)}.
+	 */
+	private double distance(int first, int second) {
+		double[] x = points[first];
+		double[] y = points[second];
+		if (squaredNorms == null) {
+			double sum = 0;
+			for (int i = 0; i < x.length; i++) {
+				double diff = x[i] - y[i];
+				sum = sum + diff * diff;
+			}
+			return kindOfDistance == SQUARED ? sum : Math.sqrt(sum);
+		}
+		double sumOfProducts = 0;
+		for (int i = 0; i < x.length; i++) {
+			sumOfProducts = sumOfProducts + x[i] * y[i];
+		}
+		double cosine = sumOfProducts / (Math.sqrt(squaredNorms[first]) * Math.sqrt(squaredNorms[second]));
+		if (kindOfDistance == COSINE) {
+			return cosine;
+		} else if (kindOfDistance == INV_COSINE) {
+			return 1 - cosine;
+		} else {
+			return Math.acos(cosine);
+		}
+	}
+
+	/**
+	 * Converts a distance into the euclidian distance used by the index.
+	 */
+	private double toIndexDistance(double distance) {
+		return kindOfDistance == SQUARED ? Math.sqrt(distance) : distance;
+	}
+
+	/**
+	 * Counts the rows closer than the given distance by a linear scan, stops as soon as the count
+	 * exceeds the maximum.
+	 */
+	private long countCloser(int row, double distance, long maxCount) {
+		long count = 0;
+		for (int i = 0; i < points.length && count <= maxCount; i++) {
+			if (distance(row, i) < distance) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the rows closer than the given distance using the index. If the nearest rows already
+	 * exceed the maximum, the remaining rows are not counted.
+	 */
+	private long countCloserByIndex(int row, double distance, long maxCount) {
+		long count = 0;
+		for (Tupel<Double, Integer> candidate : index.getNearestValueDistances((int) maxCount + 1, points[row])) {
+			if (distance(row, candidate.getSecond()) < distance) {
+				count++;
+			}
+		}
+		if (count > maxCount) {
+			return count;
+		}
+		count = 0;
+		for (Tupel<Double, Integer> candidate : index.getNearestValueDistances(toIndexDistance(distance), points[row])) {
+			if (distance(row, candidate.getSecond()) < distance) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the k-neighbourhood of the row, i.e. the k nearest other rows and all further rows as
+	 * distant as the k-th one, sorted by distance and row. Requires 0 < k < number of rows.
+	 */
+	private void findNeighbourhood(int row, int k, Neighbourhood neighbourhood) {
+		neighbourhood.size = 0;
+		if (index != null) {
+			collectByIndex(row, k, neighbourhood);
+		} else {
+			collectByScan(row, k, neighbourhood);
+		}
+		sort(neighbourhood.distances, neighbourhood.rows, neighbourhood.size);
+		// only rows as distant as the k-th nearest belong to the neighbourhood
+		double kDistance = neighbourhood.distances[k - 1];
+		int size = k;
+		while (size < neighbourhood.size && Double.compare(neighbourhood.distances[size], kDistance) <= 0) {
+			size++;
+		}
+		neighbourhood.size = size;
+	}
+
+	/**
+	 * Collects at least the k-neighbourhood of the row from the index. The nearest rows suffice if
+	 * one of them is further away than the k-th nearest, otherwise all rows within its distance are
+	 * collected.
+	 */
+	private void collectByIndex(int row, int k, Neighbourhood neighbourhood) {
+		double[] point = points[row];
+		Collection<Tupel<Double, Integer>> candidates = index.getNearestValueDistances(Math.min(k + 2, points.length),
+				point);
+		double[] indexDistances = new double[candidates.size()];
+		int others = 0;
+		for (Tupel<Double, Integer> candidate : candidates) {
+			if (candidate.getSecond() != row) {
+				indexDistances[others++] = candidate.getFirst();
+			}
+		}
+		Arrays.sort(indexDistances, 0, others);
+		double radius = indexDistances[k - 1];
+		if (candidates.size() < points.length && (others <= k || indexDistances[k] <= radius)) {
+			candidates = index.getNearestValueDistances(radius, point);
+		}
+		for (Tupel<Double, Integer> candidate : candidates) {
+			int other = candidate.getSecond();
+			if (other != row) {
+				neighbourhood.add(distance(row, other), other);
+			}
+		}
+	}
+
+	/**
+	 * Collects the k nearest other rows and all rows as distant as the k-th one by a linear scan.
+	 * The k nearest are kept in a bounded max-heap, rows as distant as its maximum in a separate
+	 * list.
+	 */
+	private void collectByScan(int row, int k, Neighbourhood neighbourhood) {
+		double[] heapDistances = new double[k];
+		int[] heapRows = new int[k];
+		int size = 0;
+		for (int i = 0; i < points.length; i++) {
+			if (i == row) {
+				continue;
+			}
+			double distance = distance(row, i);
+			if (size < k) {
+				int position = size++;
+				while (position > 0) {
+					int parent = (position - 1) >>> 1;
+					if (Double.compare(distance, heapDistances[parent]) <= 0) {
+						break;
+					}
+					heapDistances[position] = heapDistances[parent];
+					heapRows[position] = heapRows[parent];
+					position = parent;
+				}
+				heapDistances[position] = distance;
+				heapRows[position] = i;
+				continue;
+			}
+			int comparison = Double.compare(distance, heapDistances[0]);
+			if (comparison == 0) {
+				neighbourhood.add(distance, i);
+			} else if (comparison < 0) {
+				double evictedDistance = heapDistances[0];
+				int evictedRow = heapRows[0];
+				siftDown(heapDistances, heapRows, size, distance, i);
+				if (Double.compare(heapDistances[0], evictedDistance) < 0) {
+					neighbourhood.size = 0;
+				} else {
+					neighbourhood.add(evictedDistance, evictedRow);
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			neighbourhood.add(heapDistances[i], heapRows[i]);
+		}
+	}
+
+	/**
+	 * Replaces the root of the max-heap of the given size and restores the heap order.
+	 */
+	private static void siftDown(double[] distances, int[] rows, int size, double distance, int row) {
+		int position = 0;
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && Double.compare(distances[child + 1], distances[child]) > 0) {
+				child++;
+			}
+			if (Double.compare(distances[child], distance) <= 0) {
+				break;
+			}
+			distances[position] = distances[child];
+			rows[position] = rows[child];
+			position = child;
+		}
+		distances[position] = distance;
+		rows[position] = row;
+	}
+
+	/**
+	 * Sorts the first entries of both arrays by distance and row.
+	 */
+	private static void sort(double[] distances, int[] rows, int size) {
+		// heap sort: building a max-heap and moving the maximum to the end
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			sortDown(distances, rows, i, size);
+		}
+		for (int end = size - 1; end > 0; end--) {
+			double distance = distances[0];
+			int row = rows[0];
+			distances[0] = distances[end];
+			rows[0] = rows[end];
+			distances[end] = distance;
+			rows[end] = row;
+			sortDown(distances, rows, 0, end);
+		}
+	}
+
+	private static void sortDown(double[] distances, int[] rows, int position, int size) {
+		double distance = distances[position];
+		int row = rows[position];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && isAfter(distances[child + 1], rows[child + 1], distances[child], rows[child])) {
+				child++;
+			}
+			if (!isAfter(distances[child], rows[child], distance, row)) {
+				break;
+			}
+			distances[position] = distances[child];
+			rows[position] = rows[child];
+			position = child;
+		}
+		distances[position] = distance;
+		rows[position] = row;
+	}
+
+	private static boolean isAfter(double distance, int row, double otherDistance, int otherRow) {
+		int comparison = Double.compare(distance, otherDistance);
+		return comparison > 0 || comparison == 0 && row > otherRow;
+	}
+
+	/**
+	 * Runs the task on all rows in batches, the rows of a batch are split into ranges processed in
+	 * parallel.
+	 */
+	private void run(RowRangeTask task) throws OperatorException {
+		for (int start = 0; start < points.length; start += QUERY_BATCH_SIZE) {
+			run(start, Math.min(points.length, start + QUERY_BATCH_SIZE), task);
+			operator.checkForStop();
+		}
+	}
+
+	private void run(int start, int end, final RowRangeTask task) throws OperatorException {
+		int size = end - start;
+		int numberOfTasks = Math.min(context.getParallelism() * TASKS_PER_THREAD, size / MIN_ROWS_PER_TASK);
+		if (context.getParallelism() < 2 || numberOfTasks < 2) {
+			task.process(start, end);
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int from = start + (int) ((long) size * i / numberOfTasks);
+			final int to = start + (int) ((long) size * (i + 1) / numberOfTasks);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					context.checkStatus();
+					task.process(from, to);
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+}
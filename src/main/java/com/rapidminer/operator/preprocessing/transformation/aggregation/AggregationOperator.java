@@ -270,6 +270,13 @@ public class AggregationOperator extends AbstractDataProcessing {
      */
     public static final String PARAMETER_ALL_COMBINATIONS = "count_all_combinations";
 
+    /**
+     * The constant PARAMETER_SORT_GROUPS.
+     *
+     * @since 7.6.1
+     */
+    public static final String PARAMETER_SORT_GROUPS = "sort_groups";
+
     /**
      * The constant GENERIC_GROUP_NAME.
      */
@@ -466,53 +473,6 @@ public class AggregationOperator extends AbstractDataProcessing {
 					getParameterAsString(PARAMETER_GROUP_BY_ATTRIBUTES));
 		}
 
-		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
-		boolean useWeights = weightAttribute != null;
-
-		// running over exampleSet and aggregate data of each example
-		AggregationTreeNode rootNode = new AggregationTreeNode();
-		LeafAggregationTreeNode leafNode = null;
-		if (groupAttributes.length == 0) {
-			// if no grouping, we will directly insert into leaf node
-			leafNode = new LeafAggregationTreeNode(aggregationFunctions);
-		}
-		getProgress().setTotal(exampleSet.size());
-		int progressCounter = 0;
-		for (Example example : exampleSet) {
-			if (groupAttributes.length > 0) {
-				AggregationTreeNode currentNode = rootNode;
-				// now traversing aggregation tree for m-1 group attributes
-				for (int i = 0; i < groupAttributes.length - 1; i++) {
-					Attribute currentAttribute = groupAttributes[i];
-					if (currentAttribute.isNominal()) {
-						currentNode = currentNode.getOrCreateChild(example.getValueAsString(currentAttribute));
-					} else {
-						currentNode = currentNode.getOrCreateChild(example.getValue(currentAttribute));
-					}
-				}
-
-				// now we have to get the leaf node containing the aggregators
-				Attribute currentAttribute = groupAttributes[groupAttributes.length - 1];
-				if (currentAttribute.isNominal()) {
-					leafNode = currentNode.getOrCreateLeaf(example.getValueAsString(currentAttribute), aggregationFunctions);
-				} else {
-					leafNode = currentNode.getOrCreateLeaf(example.getValue(currentAttribute), aggregationFunctions);
-				}
-			}
-			// now count current example
-			if (!useWeights) {
-				leafNode.count(example);
-			} else {
-				leafNode.count(example, example.getValue(weightAttribute));
-			}
-
-			// Trigger operator progress
-			if (++progressCounter % 100 == 0) {
-				getProgress().setCompleted(progressCounter);
-			}
-		}
-
-		// now derive new example set from aggregated values
 		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
 
 		// building new attributes from grouping attributes and aggregation functions
@@ -526,11 +486,6 @@ public class AggregationOperator extends AbstractDataProcessing {
 			i++;
 		}
 
-		// creating example set
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
-		DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
-		double[] dataOfUpperLevels = new double[groupAttributes.length];
-
 		// prepare empty lists
 		ArrayList<List<Aggregator>> allAggregators = new ArrayList<>();
 		for (int aggregatorIdx = 0; aggregatorIdx < aggregationFunctions.size(); ++aggregatorIdx) {
@@ -539,14 +494,13 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 		ArrayList<double[]> allGroupCombinations = new ArrayList<>();
 
-		if (groupAttributes.length > 0) {
-			// going through all possible groups recursively
-			parseTree(rootNode, groupAttributes, dataOfUpperLevels, 0, allGroupCombinations, allAggregators, factory,
-					newAttributes, isCountingAllCombinations, aggregationFunctions);
+		if (groupAttributes.length > 0 && !isCountingAllCombinations) {
+			// hashing the groups, the tree is only needed for enumerating all combinations
+			new HashAggregation(groupAttributes, aggregationFunctions, getParameterAsBoolean(PARAMETER_SORT_GROUPS), this)
+					.aggregate(exampleSet, newAttributes, allGroupCombinations, allAggregators);
 		} else {
-			// just enter values from single leaf node
-			parseLeaf(leafNode, dataOfUpperLevels, allGroupCombinations, allAggregators, factory, newAttributes,
-					aggregationFunctions);
+			aggregateInTree(exampleSet, groupAttributes, aggregationFunctions, newAttributes, allGroupCombinations,
+					allAggregators);
 		}
 
 		// apply post-processing
@@ -556,6 +510,9 @@ public class AggregationOperator extends AbstractDataProcessing {
 			++currentFunctionIdx;
 		}
 
+		// creating example set
+		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
+
 		// write data into table
 		builder.withExpectedSize(allGroupCombinations.size());
 		int currentRow = 0;
@@ -625,6 +582,76 @@ public class AggregationOperator extends AbstractDataProcessing {
 		return resultSet;
 	}
 
+	/**
+	 * Builds the tree of groups and fills the given lists by traversing the tree in the order of the
+	 * group values. Package-private since it is the reference for the {@link HashAggregation} in
+	 * the tests.
+	 */
+	void aggregateInTree(ExampleSet exampleSet, Attribute[] groupAttributes,
+			List<AggregationFunction> aggregationFunctions, Attribute[] newAttributes, List<double[]> allGroupCombinations,
+			List<List<Aggregator>> allAggregators) throws OperatorException {
+		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		boolean useWeights = weightAttribute != null;
+
+		// running over exampleSet and aggregate data of each example
+		AggregationTreeNode rootNode = new AggregationTreeNode();
+		LeafAggregationTreeNode leafNode = null;
+		if (groupAttributes.length == 0) {
+			// if no grouping, we will directly insert into leaf node
+			leafNode = new LeafAggregationTreeNode(aggregationFunctions);
+		}
+		getProgress().setTotal(exampleSet.size());
+		int progressCounter = 0;
+		for (Example example : exampleSet) {
+			if (groupAttributes.length > 0) {
+				AggregationTreeNode currentNode = rootNode;
+				// now traversing aggregation tree for m-1 group attributes
+				for (int i = 0; i < groupAttributes.length - 1; i++) {
+					Attribute currentAttribute = groupAttributes[i];
+					if (currentAttribute.isNominal()) {
+						currentNode = currentNode.getOrCreateChild(example.getValueAsString(currentAttribute));
+					} else {
+						currentNode = currentNode.getOrCreateChild(example.getValue(currentAttribute));
+					}
+				}
+
+				// now we have to get the leaf node containing the aggregators
+				Attribute currentAttribute = groupAttributes[groupAttributes.length - 1];
+				if (currentAttribute.isNominal()) {
+					leafNode = currentNode.getOrCreateLeaf(example.getValueAsString(currentAttribute), aggregationFunctions);
+				} else {
+					leafNode = currentNode.getOrCreateLeaf(example.getValue(currentAttribute), aggregationFunctions);
+				}
+			}
+			// now count current example
+			if (!useWeights) {
+				leafNode.count(example);
+			} else {
+				leafNode.count(example, example.getValue(weightAttribute));
+			}
+
+			// Trigger operator progress
+			if (++progressCounter % 100 == 0) {
+				getProgress().setCompleted(progressCounter);
+			}
+		}
+
+		// now derive new example set from aggregated values
+		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
+		DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
+		double[] dataOfUpperLevels = new double[groupAttributes.length];
+
+		if (groupAttributes.length > 0) {
+			// going through all possible groups recursively
+			parseTree(rootNode, groupAttributes, dataOfUpperLevels, 0, allGroupCombinations, allAggregators, factory,
+					newAttributes, isCountingAllCombinations, aggregationFunctions);
+		} else {
+			// just enter values from single leaf node
+			parseLeaf(leafNode, dataOfUpperLevels, allGroupCombinations, allAggregators, factory, newAttributes,
+					aggregationFunctions);
+		}
+	}
+
 	private void parseLeaf(LeafAggregationTreeNode node, double[] dataOfUpperLevels, List<double[]> allGroupCombinations,
 			List<List<Aggregator>> allAggregators, DataRowFactory factory, Attribute[] newAttributes,
 			List<AggregationFunction> aggregationFunctions) {
@@ -809,6 +836,12 @@ public class AggregationOperator extends AbstractDataProcessing {
 		types.add(new ParameterTypeBoolean(PARAMETER_ALL_COMBINATIONS,
 				"Indicates that all possible combinations of the values of the group by attributes are counted, even if they don't occur. Please handle with care, since the number might be enormous.",
 				false));
+		type = new ParameterTypeBoolean(PARAMETER_SORT_GROUPS,
+				"Indicates if the groups are sorted by the values of the group by attributes. Otherwise they are delivered in the order of their first occurrence, which is faster for many groups.",
+				true);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_ALL_COMBINATIONS, false, false));
+		type.setExpert(true);
+		types.add(type);
 		type = new ParameterTypeBoolean(PARAMETER_ONLY_DISTINCT,
 				"Indicates if only rows with distinct values for the aggregation attribute should be used for the calculation of the aggregation function.",
 				false);
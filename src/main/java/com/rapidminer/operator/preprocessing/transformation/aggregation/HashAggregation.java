@@ -0,0 +1,469 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Hash based implementation of the grouping of the {@link AggregationOperator}. The values of the
+ * group-by attributes of every example are encoded into integer codes, the tuple of codes is
+ * looked up in an open-addressing hash table that assigns a dense group index. Afterwards, the
+ * examples are counted into the {@link Aggregator}s of their group. For this, the groups are
+ * partitioned between the threads of the {@link ConcurrencyContext}; every thread counts the
+ * examples of its groups in the order of the example set, so that the results are identical to a
+ * sequential aggregation.
+ * <p>
+ * The groups are delivered either in the order of their first occurrence or sorted in the same
+ * order as the tree based aggregation of the operator.
+ *
+ * @since 7.6.1
+ */
+final class HashAggregation {
+
+	/** The progress is updated after this many examples. */
+	private static final int PROGRESS_STEPS = 100;
+
+	/** Do not bother other threads for less examples than this. */
+	private static final int MIN_EXAMPLES_PER_THREAD = 10000;
+
+	/** The number of examples a counting thread processes between two checks for stop. */
+	private static final int STOP_CHECK_INTERVAL = 100000;
+
+	/**
+	 * Encodes the values of a single group-by attribute into integer codes.
+	 */
+	private interface ValueEncoder {
+
+		/** Returns the code of the given value. */
+		int encode(double value);
+
+		/** Returns the key of the given code as used by the tree based aggregation for sorting. */
+		Comparable<Object> getKey(int code);
+
+		/** Returns the value of the given code for the result attribute. */
+		double getResultValue(int code, Attribute resultAttribute);
+
+	}
+
+	/**
+	 * Nominal values are encoded by their mapping index. Missing values are treated as the value
+	 * {@link Attribute#MISSING_NOMINAL_VALUE}, as done by the tree based aggregation.
+	 */
+	private static final class NominalEncoder implements ValueEncoder {
+
+		private final Attribute attribute;
+		private final int missingCode;
+
+		private NominalEncoder(Attribute attribute) {
+			this.attribute = attribute;
+			this.missingCode = attribute.getMapping().getIndex(Attribute.MISSING_NOMINAL_VALUE);
+		}
+
+		@Override
+		public int encode(double value) {
+			return Double.isNaN(value) ? missingCode : (int) value;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Comparable<Object> getKey(int code) {
+			return (Comparable<Object>) (Comparable<?>) getString(code);
+		}
+
+		@Override
+		public double getResultValue(int code, Attribute resultAttribute) {
+			return resultAttribute.getMapping().mapString(getString(code));
+		}
+
+		private String getString(int code) {
+			return code < 0 ? Attribute.MISSING_NOMINAL_VALUE : attribute.getMapping().mapIndex(code);
+		}
+	}
+
+	/**
+	 * Numerical values are encoded by a dictionary that assigns consecutive codes to the distinct
+	 * values. Values are distinct if they are not equal as {@link Double} objects.
+	 */
+	private static final class NumericalEncoder implements ValueEncoder {
+
+		private long[] keys = new long[64];
+		private int[] slots = new int[64];
+		private double[] values = new double[32];
+		private int size = 0;
+
+		@Override
+		public int encode(double value) {
+			long key = Double.doubleToLongBits(value);
+			int mask = slots.length - 1;
+			int slot = mix(key) & mask;
+			while (slots[slot] != 0) {
+				if (keys[slot] == key) {
+					return slots[slot] - 1;
+				}
+				slot = (slot + 1) & mask;
+			}
+			// new value
+			if (size == values.length) {
+				values = Arrays.copyOf(values, 2 * size);
+			}
+			values[size] = value;
+			keys[slot] = key;
+			slots[slot] = ++size;
+			if (2 * size > slots.length) {
+				rehash();
+			}
+			return size - 1;
+		}
+
+		private void rehash() {
+			long[] newKeys = new long[2 * keys.length];
+			int[] newSlots = new int[2 * slots.length];
+			int mask = newSlots.length - 1;
+			for (int i = 0; i < slots.length; i++) {
+				if (slots[i] != 0) {
+					int slot = mix(keys[i]) & mask;
+					while (newSlots[slot] != 0) {
+						slot = (slot + 1) & mask;
+					}
+					newKeys[slot] = keys[i];
+					newSlots[slot] = slots[i];
+				}
+			}
+			keys = newKeys;
+			slots = newSlots;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Comparable<Object> getKey(int code) {
+			return (Comparable<Object>) (Comparable<?>) Double.valueOf(values[code]);
+		}
+
+		@Override
+		public double getResultValue(int code, Attribute resultAttribute) {
+			return values[code];
+		}
+	}
+
+	/**
+	 * Assigns dense group indices to tuples of codes. The tuples are stored consecutively in a
+	 * single array, the hash table only contains group indices.
+	 */
+	private static final class GroupTable {
+
+		private final int width;
+		private int[] tuples;
+		private int[] slots = new int[1024];
+		private int size = 0;
+
+		private GroupTable(int width) {
+			this.width = width;
+			this.tuples = new int[512 * width];
+		}
+
+		private int getOrAdd(int[] codes) {
+			int hash = hash(codes);
+			int mask = slots.length - 1;
+			int slot = hash & mask;
+			while (slots[slot] != 0) {
+				int group = slots[slot] - 1;
+				if (matches(group, codes)) {
+					return group;
+				}
+				slot = (slot + 1) & mask;
+			}
+			// new group
+			if ((size + 1) * width > tuples.length) {
+				tuples = Arrays.copyOf(tuples, 2 * tuples.length);
+			}
+			System.arraycopy(codes, 0, tuples, size * width, width);
+			slots[slot] = ++size;
+			if (2 * size > slots.length) {
+				rehash();
+			}
+			return size - 1;
+		}
+
+		private boolean matches(int group, int[] codes) {
+			int offset = group * width;
+			for (int i = 0; i < width; i++) {
+				if (tuples[offset + i] != codes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void rehash() {
+			int[] newSlots = new int[2 * slots.length];
+			int mask = newSlots.length - 1;
+			int[] codes = new int[width];
+			for (int group = 0; group < size; group++) {
+				System.arraycopy(tuples, group * width, codes, 0, width);
+				int slot = hash(codes) & mask;
+				while (newSlots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				newSlots[slot] = group + 1;
+			}
+			slots = newSlots;
+		}
+
+		private int getCode(int group, int level) {
+			return tuples[group * width + level];
+		}
+
+		private static int hash(int[] codes) {
+			long hash = 0;
+			for (int code : codes) {
+				hash = hash * 31 + code;
+			}
+			return mix(hash);
+		}
+	}
+
+	private final Attribute[] groupAttributes;
+
+	private final List<AggregationFunction> aggregationFunctions;
+
+	private final boolean sortGroups;
+
+	private final Operator operator;
+
+    /**
+     * Creates a new aggregation.
+     *
+     * @param groupAttributes      the group-by attributes, at least one
+     * @param aggregationFunctions the aggregation functions
+     * @param sortGroups           whether the groups should be sorted by the values of the group-by
+     *                             attributes
+     * @param operator             the operator executing the aggregation
+     */
+    HashAggregation(Attribute[] groupAttributes, List<AggregationFunction> aggregationFunctions, boolean sortGroups,
+			Operator operator) {
+		this.groupAttributes = groupAttributes;
+		this.aggregationFunctions = aggregationFunctions;
+		this.sortGroups = sortGroups;
+		this.operator = operator;
+	}
+
+    /**
+     * Aggregates the given example set. For every group, the values of the result attributes of the
+     * group-by attributes are added to the group combinations and the aggregators of the group are
+     * added to the list of the respective function.
+     *
+     * @param exampleSet           the example set to aggregate
+     * @param newAttributes        the result attributes, starting with those of the group-by
+     *                             attributes
+     * @param allGroupCombinations the list to add the group values to
+     * @param allAggregators       the lists to add the aggregators to, one for every function
+     * @throws OperatorException if the aggregation fails or the process is stopped
+     */
+    void aggregate(ExampleSet exampleSet, Attribute[] newAttributes, List<double[]> allGroupCombinations,
+			List<List<Aggregator>> allAggregators) throws OperatorException {
+		OperatorProgress progress = operator.getProgress();
+		progress.setTotal(2 * exampleSet.size());
+
+		// assigning the examples to groups
+		final ValueEncoder[] encoders = new ValueEncoder[groupAttributes.length];
+		for (int i = 0; i < groupAttributes.length; i++) {
+			if (groupAttributes[i].isNominal()) {
+				encoders[i] = new NominalEncoder(groupAttributes[i]);
+			} else {
+				encoders[i] = new NumericalEncoder();
+			}
+		}
+		final GroupTable table = new GroupTable(groupAttributes.length);
+		final int[] groupIndices = new int[exampleSet.size()];
+		int[] codes = new int[groupAttributes.length];
+		int row = 0;
+		for (Example example : exampleSet) {
+			for (int i = 0; i < groupAttributes.length; i++) {
+				codes[i] = encoders[i].encode(example.getValue(groupAttributes[i]));
+			}
+			groupIndices[row] = table.getOrAdd(codes);
+			if (++row % PROGRESS_STEPS == 0) {
+				progress.setCompleted(row);
+			}
+		}
+
+		// counting the examples
+		Aggregator[][] aggregators = count(exampleSet, groupIndices, table.size);
+		progress.setCompleted(2 * exampleSet.size());
+
+		// ordering the groups
+		Integer[] order = new Integer[table.size];
+		for (int group = 0; group < order.length; group++) {
+			order[group] = group;
+		}
+		if (sortGroups) {
+			Arrays.sort(order, new Comparator<Integer>() {
+
+				@Override
+				public int compare(Integer group1, Integer group2) {
+					for (int level = 0; level < encoders.length; level++) {
+						int code1 = table.getCode(group1, level);
+						int code2 = table.getCode(group2, level);
+						if (code1 != code2) {
+							int result = encoders[level].getKey(code1).compareTo(encoders[level].getKey(code2));
+							if (result != 0) {
+								return result;
+							}
+						}
+					}
+					return 0;
+				}
+			});
+		}
+
+		// delivering the groups
+		for (int group : order) {
+			double[] groupCombination = new double[groupAttributes.length];
+			for (int level = 0; level < encoders.length; level++) {
+				groupCombination[level] = encoders[level].getResultValue(table.getCode(group, level),
+						newAttributes[level]);
+			}
+			allGroupCombinations.add(groupCombination);
+			for (int i = 0; i < aggregationFunctions.size(); i++) {
+				allAggregators.get(i).add(aggregators[group][i]);
+			}
+		}
+	}
+
+	/**
+	 * Counts every example into the aggregators of its group. For the parallel counting, the rows
+	 * are sorted by group, so that every thread visits only the rows of a contiguous range of whole
+	 * groups. The rows of a group are counted in ascending order in both cases.
+	 */
+	private Aggregator[][] count(ExampleSet exampleSet, final int[] groupIndices, int numberOfGroups)
+			throws OperatorException {
+		final Aggregator[][] aggregators = new Aggregator[numberOfGroups][];
+		final Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		final ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		final int numberOfThreads = Math.min(Math.min(context.getParallelism(), numberOfGroups),
+				exampleSet.size() / MIN_EXAMPLES_PER_THREAD);
+		if (numberOfThreads < 2) {
+			int row = 0;
+			for (Example example : exampleSet) {
+				count(example, groupIndices[row], weightAttribute, aggregators);
+				if (++row % STOP_CHECK_INTERVAL == 0) {
+					context.checkStatus();
+				}
+			}
+			return aggregators;
+		}
+
+		// sorting the rows by group with a counting sort
+		final int[] groupStarts = new int[numberOfGroups + 1];
+		for (int group : groupIndices) {
+			groupStarts[group + 1]++;
+		}
+		for (int group = 0; group < numberOfGroups; group++) {
+			groupStarts[group + 1] += groupStarts[group];
+		}
+		final int[] sortedRows = new int[groupIndices.length];
+		int[] positions = Arrays.copyOf(groupStarts, numberOfGroups);
+		for (int row = 0; row < groupIndices.length; row++) {
+			sortedRows[positions[groupIndices[row]]++] = row;
+		}
+
+		// cutting the sorted rows into equal parts at the next group boundary
+		final ExampleSet threadSafeSet = ExampleSets.createThreadSafeCopy(exampleSet);
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfThreads);
+		int from = 0;
+		for (int thread = 1; thread <= numberOfThreads && from < sortedRows.length; thread++) {
+			int boundary = Arrays.binarySearch(groupStarts, (int) ((long) sortedRows.length * thread / numberOfThreads));
+			final int start = from;
+			final int end = groupStarts[boundary < 0 ? -boundary - 1 : boundary];
+			if (end > start) {
+				tasks.add(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						for (int i = start; i < end; i++) {
+							int row = sortedRows[i];
+							count(threadSafeSet.getExample(row), groupIndices[row], weightAttribute, aggregators);
+							if ((i - start + 1) % STOP_CHECK_INTERVAL == 0) {
+								context.checkStatus();
+							}
+						}
+						return null;
+					}
+				});
+			}
+			from = end;
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+		return aggregators;
+	}
+
+	/**
+	 * Counts the given example into the aggregators of the given group, creating them on first
+	 * use.
+	 */
+	private void count(Example example, int group, Attribute weightAttribute, Aggregator[][] aggregators) {
+		Aggregator[] groupAggregators = aggregators[group];
+		if (groupAggregators == null) {
+			groupAggregators = new Aggregator[aggregationFunctions.size()];
+			for (int i = 0; i < groupAggregators.length; i++) {
+				groupAggregators[i] = aggregationFunctions.get(i).createAggregator();
+			}
+			aggregators[group] = groupAggregators;
+		}
+		if (weightAttribute == null) {
+			for (Aggregator aggregator : groupAggregators) {
+				aggregator.count(example);
+			}
+		} else {
+			double weight = example.getValue(weightAttribute);
+			for (Aggregator aggregator : groupAggregators) {
+				aggregator.count(example, weight);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of the given hash code over the lower bits.
+	 */
+	private static int mix(long hash) {
+		hash *= 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
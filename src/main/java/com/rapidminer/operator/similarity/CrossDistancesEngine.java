@@ -0,0 +1,399 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.similarity;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.CosineSimilarity;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Computes the distances between all request and document rows and keeps the best documents per
+ * request. The rows are processed in tiles of requests and documents, so that a tile of documents
+ * stays in the cache while it is compared to a block of requests, and the blocks of requests are
+ * distributed over the threads of the {@link ConcurrencyContext}. For the top k documents, a bounded
+ * max-heap over primitive arrays is kept per request.
+ * <p>
+ * The values are the distances or similarities multiplied with the search mode factor, so that
+ * smaller is always better. Of documents with equal values, the earlier rows are kept. The bounded
+ * priority queue used before also only replaced its worst element by strictly better ones, but which
+ * of several equal worst elements it evicted depended on the shape of its heap. The Euclidean distance
+ * and the cosine similarity are computed without the measure objects if the data contains no missing
+ * values, the results are the same.
+ *
+ * @since 7.6.1
+ */
+final class CrossDistancesEngine {
+
+	/** The number of requests compared to a document tile. */
+	private static final int REQUEST_BLOCK_SIZE = 64;
+
+	/** The number of documents kept in the cache while comparing them to a request block. */
+	private static final int DOCUMENT_TILE_SIZE = 256;
+
+	/** Do not parallelize for less distance computations than this. */
+	private static final long MIN_PARALLEL_PAIRS = 1 << 16;
+
+	/**
+	 * Computes the distance value of a request and a document row.
+	 */
+	private interface Kernel {
+
+		double compute(int request, int document);
+	}
+
+	private final double[][] requests;
+	private final double[][] documents;
+	private final Kernel kernel;
+	private final double searchModeFactor;
+
+	/** The document rows for each request, ordered by value. */
+	private int[][] resultDocuments;
+
+	/** The values for each request, ordered like {@link #resultDocuments}. */
+	private double[][] resultValues;
+
+    /**
+     * Creates a new engine for the given rows. The attribute values of requests and documents must
+     * be ordered like the attributes the measure is initialized with.
+     *
+     * @param measure           the initialized distance measure
+     * @param requests          the rows of the request set
+     * @param documents         the rows of the document set
+     * @param matching          whether the attributes of both sets match, otherwise all distances
+     *                          are missing
+     * @param computeSimilarity whether to compute similarities instead of distances
+     * @param searchModeFactor  1 to search the smallest values, -1 to search the largest
+     */
+    CrossDistancesEngine(DistanceMeasure measure, double[][] requests, double[][] documents, boolean matching,
+			boolean computeSimilarity, double searchModeFactor) {
+		this.requests = requests;
+		this.documents = documents;
+		this.searchModeFactor = searchModeFactor;
+		this.kernel = createKernel(measure, matching, computeSimilarity);
+	}
+
+    /**
+     * Computes the best documents for every request.
+     *
+     * @param k        the number of documents per request or a negative number for all documents in
+     *                 their original order
+     * @param operator the calling operator, used for the concurrency context and to check for stop
+     * @throws OperatorException if the process is stopped
+     */
+    void compute(int k, final Operator operator) throws OperatorException {
+		final int topK = k < 0 ? -1 : Math.min(k, documents.length);
+		resultDocuments = new int[requests.length][];
+		resultValues = new double[requests.length][];
+		if (topK < 0) {
+			int[] allDocuments = new int[documents.length];
+			for (int i = 0; i < allDocuments.length; i++) {
+				allDocuments[i] = i;
+			}
+			for (int i = 0; i < requests.length; i++) {
+				resultDocuments[i] = allDocuments;
+			}
+		}
+
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		int numberOfBlocks = (requests.length + REQUEST_BLOCK_SIZE - 1) / REQUEST_BLOCK_SIZE;
+		int numberOfTasks = (long) requests.length * documents.length < MIN_PARALLEL_PAIRS ? 1
+				: Math.min(numberOfBlocks, 4 * context.getParallelism());
+		if (numberOfTasks <= 1) {
+			computeBlocks(0, numberOfBlocks, topK, operator);
+			return;
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int task = 0; task < numberOfTasks; task++) {
+			final int fromBlock = (int) ((long) numberOfBlocks * task / numberOfTasks);
+			final int toBlock = (int) ((long) numberOfBlocks * (task + 1) / numberOfTasks);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					computeBlocks(fromBlock, toBlock, topK, operator);
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+    /**
+     * Returns the documents selected for the given request, ordered by their values.
+     *
+     * @param request the request row
+     * @return the document rows
+     */
+    int[] getDocuments(int request) {
+		return resultDocuments[request];
+	}
+
+    /**
+     * Returns the distances or similarities of the documents selected for the given request.
+     *
+     * @param request the request row
+     * @return the values, not multiplied with the search mode factor
+     */
+    double[] getValues(int request) {
+		return resultValues[request];
+	}
+
+	/**
+	 * Computes the results for the given request blocks.
+	 */
+	private void computeBlocks(int fromBlock, int toBlock, int topK, Operator operator) throws OperatorException {
+		for (int block = fromBlock; block < toBlock; block++) {
+			int from = block * REQUEST_BLOCK_SIZE;
+			int to = Math.min(requests.length, from + REQUEST_BLOCK_SIZE);
+			if (topK < 0) {
+				computeAll(from, to);
+			} else {
+				computeTopK(from, to, topK);
+			}
+			operator.checkForStop();
+		}
+	}
+
+	/**
+	 * Computes the values of all documents for the given requests.
+	 */
+	private void computeAll(int from, int to) {
+		for (int request = from; request < to; request++) {
+			resultValues[request] = new double[documents.length];
+		}
+		for (int tile = 0; tile < documents.length; tile += DOCUMENT_TILE_SIZE) {
+			int tileEnd = Math.min(documents.length, tile + DOCUMENT_TILE_SIZE);
+			for (int request = from; request < to; request++) {
+				double[] values = resultValues[request];
+				for (int document = tile; document < tileEnd; document++) {
+					values[document] = kernel.compute(request, document);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the best k documents for the given requests with one bounded max-heap per request.
+	 */
+	private void computeTopK(int from, int to, int k) {
+		int numberOfRequests = to - from;
+		double[][] heapValues = new double[numberOfRequests][k];
+		int[][] heapDocuments = new int[numberOfRequests][k];
+		int[] heapSizes = new int[numberOfRequests];
+		if (k > 0) {
+			for (int tile = 0; tile < documents.length; tile += DOCUMENT_TILE_SIZE) {
+				int tileEnd = Math.min(documents.length, tile + DOCUMENT_TILE_SIZE);
+				for (int i = 0; i < numberOfRequests; i++) {
+					double[] values = heapValues[i];
+					int[] documentRows = heapDocuments[i];
+					int size = heapSizes[i];
+					for (int document = tile; document < tileEnd; document++) {
+						double value = searchModeFactor * kernel.compute(from + i, document);
+						if (size < k) {
+							siftUp(values, documentRows, size++, value, document);
+						} else if (Double.compare(value, values[0]) < 0) {
+							// later documents have larger rows, so only strictly smaller values win
+							siftDown(values, documentRows, size, value, document);
+						}
+					}
+					heapSizes[i] = size;
+				}
+			}
+		}
+		for (int i = 0; i < numberOfRequests; i++) {
+			// sorting the heap in place by repeatedly moving the maximum to the end
+			double[] values = heapValues[i];
+			int[] documentRows = heapDocuments[i];
+			for (int size = heapSizes[i] - 1; size > 0; size--) {
+				double lastValue = values[size];
+				int lastDocument = documentRows[size];
+				values[size] = values[0];
+				documentRows[size] = documentRows[0];
+				siftDown(values, documentRows, size, lastValue, lastDocument);
+			}
+			for (int j = 0; j < values.length; j++) {
+				values[j] *= searchModeFactor;
+			}
+			resultValues[from + i] = values;
+			resultDocuments[from + i] = documentRows;
+		}
+	}
+
+	/**
+	 * Inserts the entry at the given free position of the heap and restores the heap order.
+	 */
+	private static void siftUp(double[] values, int[] documents, int position, double value, int document) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (!isGreater(value, document, values[parent], documents[parent])) {
+				break;
+			}
+			values[position] = values[parent];
+			documents[position] = documents[parent];
+			position = parent;
+		}
+		values[position] = value;
+		documents[position] = document;
+	}
+
+	/**
+	 * Replaces the root of the heap of the given size by the entry and restores the heap order.
+	 */
+	private static void siftDown(double[] values, int[] documents, int size, double value, int document) {
+		int position = 0;
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < size && isGreater(values[right], documents[right], values[child], documents[child])) {
+				child = right;
+			}
+			if (!isGreater(values[child], documents[child], value, document)) {
+				break;
+			}
+			values[position] = values[child];
+			documents[position] = documents[child];
+			position = child;
+		}
+		values[position] = value;
+		documents[position] = document;
+	}
+
+	/**
+	 * Orders entries by value like {@link Double#compare(double, double)} and then by document row.
+	 */
+	private static boolean isGreater(double value, int document, double otherValue, int otherDocument) {
+		int comparison = Double.compare(value, otherValue);
+		return comparison > 0 || comparison == 0 && document > otherDocument;
+	}
+
+	/**
+	 * Creates the kernel for the measure, specialized for the Euclidean distance and the cosine
+	 * similarity on data without missing values.
+	 */
+	private Kernel createKernel(final DistanceMeasure measure, boolean matching, final boolean computeSimilarity) {
+		if (!matching) {
+			return new Kernel() {
+
+				@Override
+				public double compute(int request, int document) {
+					return Double.NaN;
+				}
+			};
+		}
+		boolean complete = !containsMissings(requests) && !containsMissings(documents);
+		if (complete && measure.getClass() == EuclideanDistance.class) {
+			return new Kernel() {
+
+				@Override
+				public double compute(int request, int document) {
+					double[] first = requests[request];
+					double[] second = documents[document];
+					if (first.length == 0) {
+						return Double.NaN;
+					}
+					double sum = 0;
+					for (int i = 0; i < first.length; i++) {
+						double diff = first[i] - second[i];
+						sum += diff * diff;
+					}
+					double distance = Math.sqrt(sum);
+					return computeSimilarity ? -distance : distance;
+				}
+			};
+		}
+		if (complete && measure.getClass() == CosineSimilarity.class) {
+			final double[] requestNorms = squaredNorms(requests);
+			final double[] documentNorms = squaredNorms(documents);
+			return new Kernel() {
+
+				@Override
+				public double compute(int request, int document) {
+					double[] first = requests[request];
+					double[] second = documents[document];
+					double sum1 = requestNorms[request];
+					double sum2 = documentNorms[document];
+					double similarity;
+					if (sum1 > 0 && sum2 > 0) {
+						double sum = 0;
+						for (int i = 0; i < first.length; i++) {
+							sum += second[i] * first[i];
+						}
+						similarity = Math.min(Math.max(sum / (Math.sqrt(sum1) * Math.sqrt(sum2)), -1d), 1d);
+					} else if (sum1 == 0 && sum2 == 0) {
+						similarity = 1d;
+					} else {
+						similarity = 0d;
+					}
+					return computeSimilarity ? similarity : Math.acos(similarity);
+				}
+			};
+		}
+		return new Kernel() {
+
+			@Override
+			public double compute(int request, int document) {
+				if (computeSimilarity) {
+					return measure.calculateSimilarity(requests[request], documents[document]);
+				} else {
+					return measure.calculateDistance(requests[request], documents[document]);
+				}
+			}
+		};
+	}
+
+	private static boolean containsMissings(double[][] rows) {
+		for (double[] row : rows) {
+			for (double value : row) {
+				if (Double.isNaN(value)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static double[] squaredNorms(double[][] rows) {
+		double[] norms = new double[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			double sum = 0;
+			for (double value : rows[i]) {
+				sum += value * value;
+			}
+			norms[i] = sum;
+		}
+		return norms;
+	}
+}
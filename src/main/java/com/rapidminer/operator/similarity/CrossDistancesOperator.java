@@ -21,13 +21,12 @@ package com.rapidminer.operator.similarity;
 import com.rapidminer.example.*;
 import com.rapidminer.example.set.SortedExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
-import com.rapidminer.example.table.DataRow;
-import com.rapidminer.example.table.DataRowFactory;
 import com.rapidminer.example.utils.ExampleSetBuilder;
 import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
@@ -40,8 +39,6 @@ import com.rapidminer.parameter.ParameterTypeCategory;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.tools.Ontology;
-import com.rapidminer.tools.container.Tupel;
-import com.rapidminer.tools.math.container.BoundedPriorityQueue;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 import com.rapidminer.tools.math.similarity.DistanceMeasures;
 
@@ -143,55 +140,72 @@ public class CrossDistancesOperator extends Operator {
 
 		List<Attribute> newAttributes = new LinkedList<Attribute>();
 		Collections.addAll(newAttributes, requestId, documentId, distance);
-		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
 
 		double searchModeFactor = getParameterAsInt(PARAMETER_SEARCH_MODE) == MODE_FARTHEST ? -1d : 1d;
 		boolean computeSimilarity = getParameterAsBoolean(PARAMETER_COMPUTE_SIMILARITIES);
 		boolean useK = getParameterAsBoolean(PARAMETER_USE_K);
 		int k = getParameterAsInt(PARAMETER_K);
 
-		for (Example request : requestSet) {
-			Collection<Tupel<Double, Double>> distances;
-			if (useK) {
-				distances = new BoundedPriorityQueue<Tupel<Double, Double>>(k);
-			} else {
-				distances = new ArrayList<Tupel<Double, Double>>();
-			}
+		// copying both sets once, ordered like the attributes of the measure
+		Attributes requestAttributes = requestSet.getAttributes();
+		Attributes documentAttributes = documentSet.getAttributes();
+		Attribute[] firstAttributes = new Attribute[requestAttributes.size()];
+		Attribute[] secondAttributes = new Attribute[requestAttributes.size()];
+		boolean matching = firstAttributes.length == documentAttributes.size();
+		int attributeIndex = 0;
+		for (Attribute attribute : requestAttributes) {
+			firstAttributes[attributeIndex] = attribute;
+			secondAttributes[attributeIndex] = documentAttributes.get(attribute.getName());
+			matching &= secondAttributes[attributeIndex] != null;
+			attributeIndex++;
+		}
+		double[] requestIds = new double[requestSet.size()];
+		double[][] requests = copyValues(requestSet, matching ? firstAttributes : new Attribute[0], oldRequestId,
+				requestIds);
+		double[] documentIds = new double[documentSet.size()];
+		double[][] documents = copyValues(documentSet, matching ? secondAttributes : new Attribute[0], oldDocumentId,
+				documentIds);
 
-			// calculating distance
-			for (Example document : documentSet) {
-				if (computeSimilarity) {
-					distances
-							.add(new Tupel<Double, Double>(measure.calculateSimilarity(request, document) * searchModeFactor,
-									document.getValue(oldDocumentId)));
-				} else {
-					distances.add(new Tupel<Double, Double>(measure.calculateDistance(request, document) * searchModeFactor,
-							document.getValue(oldDocumentId)));
-				}
-				checkForStop();
-			}
+		CrossDistancesEngine engine = new CrossDistancesEngine(measure, requests, documents, matching, computeSimilarity,
+				searchModeFactor);
+		engine.compute(useK ? k : -1, this);
 
-			// writing into table
-			DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
-			double requestIdValue = request.getValue(oldRequestId);
-			if (oldRequestId.isNominal()) {
-				requestIdValue = requestId.getMapping().mapString(request.getValueAsString(oldRequestId));
+		// writing into table, nominal ids are remapped in the order of the rows
+		long total = 0;
+		for (int request = 0; request < requests.length; request++) {
+			total += engine.getDocuments(request).length;
+		}
+		if (total > Integer.MAX_VALUE) {
+			throw new UserError(this, "cross_distances_too_big", total);
+		}
+		final double[] requestIdValues = new double[(int) total];
+		final double[] documentIdValues = new double[(int) total];
+		final double[] distanceValues = new double[(int) total];
+		int row = 0;
+		for (int request = 0; request < requests.length; request++) {
+			double requestIdValue = requestIds[request];
+			if (oldRequestId.isNominal() && !Double.isNaN(requestIdValue)) {
+				requestIdValue = requestId.getMapping().mapString(oldRequestId.getMapping().mapIndex((int) requestIdValue));
 			}
-
-			for (Tupel<Double, Double> tupel : distances) {
-				double documentIdValue = tupel.getSecond();
-				if (oldDocumentId.isNominal()) {
+			int[] documentRows = engine.getDocuments(request);
+			double[] values = engine.getValues(request);
+			for (int i = 0; i < documentRows.length; i++) {
+				double documentIdValue = documentIds[documentRows[i]];
+				if (oldDocumentId.isNominal() && !Double.isNaN(documentIdValue)) {
 					documentIdValue = documentId.getMapping()
 							.mapString(oldDocumentId.getMapping().mapIndex((int) documentIdValue));
 				}
-				DataRow row = factory.create(3);
-				row.set(distance, tupel.getFirst() * searchModeFactor);
-				row.set(requestId, requestIdValue);
-				row.set(documentId, documentIdValue);
-				builder.addDataRow(row);
-				checkForStop();
+				requestIdValues[row] = requestIdValue;
+				documentIdValues[row] = documentIdValue;
+				distanceValues[row] = values[i];
+				row++;
 			}
+			checkForStop();
 		}
+		ExampleSetBuilder builder = ExampleSets.from(newAttributes).withBlankSize((int) total)
+				.withColumnFiller(requestId, i -> requestIdValues[i])
+				.withColumnFiller(documentId, i -> documentIdValues[i])
+				.withColumnFiller(distance, i -> distanceValues[i]);
 
 		// sorting set
 		ExampleSet result = new SortedExampleSet(builder.build(), distance,
@@ -202,6 +216,23 @@ public class CrossDistancesOperator extends Operator {
 		resultSetOutput.deliver(result);
 	}
 
+	/**
+	 * Copies the values of the given attributes and the ids of all examples.
+	 */
+	private static double[][] copyValues(ExampleSet exampleSet, Attribute[] attributes, Attribute idAttribute,
+			double[] ids) {
+		double[][] values = new double[exampleSet.size()][attributes.length];
+		int row = 0;
+		for (Example example : exampleSet) {
+			double[] rowValues = values[row];
+			for (int i = 0; i < attributes.length; i++) {
+				rowValues[i] = example.getValue(attributes[i]);
+			}
+			ids[row++] = example.getValue(idAttribute);
+		}
+		return values;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -0,0 +1,798 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.operator.tools.ExampleSetToStream.Header;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Writes and reads example sets to and from streams column by column. The format starts with the
+ * version of the format, the header as written by {@link ExampleSetToStream#writeHeader}, the
+ * number of examples and the number of examples per chunk. Then follow the chunks of the first
+ * attribute, the chunks of the second attribute and so on. Every chunk consists of
+ * <ul>
+ * <li>the encoding (byte),</li>
+ * <li>the compression (byte),</li>
+ * <li>the length of the stored block (int),</li>
+ * <li>the length of the uncompressed block (int), only if the block is compressed,</li>
+ * <li>the block.</li>
+ * </ul>
+ * The encoding of a chunk is chosen by the statistics of its values: constant chunks store a
+ * single value, chunks of integers are bit-packed relative to their minimum, chunks with few
+ * distinct values store a dictionary and bit-packed codes, chunks with long runs of equal values
+ * store the runs and sparse chunks only store the values differing from the most frequent one.
+ * Otherwise, the doubles are stored as they are. Blocks are deflated if this saves at least an
+ * eighth of their size. All values are restored bitwise.
+ * <p>
+ * Reading fills a {@link ColumnarExampleTable} column by column, without copying the data into
+ * rows first. Alternatively, {@link #readMapped(File)} maps a stored file into memory and decodes
+ * its chunks only when they are accessed.
+ *
+ * @since 7.6.1
+ */
+public class ColumnarExampleSetSerializer implements BodySerializer {
+
+	/** The first version of the format. */
+	public static final int VERSION_1 = 1;
+
+	/** The number of examples per chunk. */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	/** Chunks with more distinct values are not dictionary encoded. */
+	private static final int MAX_DICTIONARY_SIZE = 1 << 12;
+
+	/** Smaller blocks are not compressed. */
+	private static final int MIN_COMPRESSION_SIZE = 64;
+
+	static final byte ENCODING_PLAIN = 0;
+	private static final byte ENCODING_CONSTANT = 1;
+	private static final byte ENCODING_INTEGER = 2;
+	private static final byte ENCODING_DICTIONARY = 3;
+	private static final byte ENCODING_RUN_LENGTH = 4;
+	private static final byte ENCODING_SPARSE = 5;
+
+	static final byte COMPRESSION_NONE = 0;
+	static final byte COMPRESSION_DEFLATE = 1;
+
+	/** The size of the segments in which files are mapped. */
+	private static final long SEGMENT_SIZE = 1L << 30;
+
+	/** Chunk sizes above this limit are rejected when mapping files. */
+	private static final int MAX_MAPPED_CHUNK_SIZE = 1 << 24;
+
+	/**
+	 * Collects the statistics of a chunk and encodes it. Instances are reused for all chunks of a
+	 * stream.
+	 */
+	private static final class ChunkEncoder {
+
+		private final long[] dictionaryKeys = new long[4 * MAX_DICTIONARY_SIZE];
+		private final int[] dictionarySlots = new int[4 * MAX_DICTIONARY_SIZE];
+		private final double[] dictionaryValues = new double[MAX_DICTIONARY_SIZE + 1];
+		private final int[] dictionaryCounts = new int[MAX_DICTIONARY_SIZE + 1];
+		private int dictionarySize;
+
+		private final long[] codes = new long[CHUNK_SIZE];
+
+		private final Deflater deflater;
+		private byte[] compressed = new byte[0];
+
+		private ChunkEncoder(boolean compress) {
+			this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+		}
+
+		private void write(double[] values, int count, DataOutputStream out) throws IOException {
+			// collecting the statistics
+			Arrays.fill(dictionarySlots, 0);
+			dictionarySize = 0;
+			boolean integral = true;
+			boolean missing = false;
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			int runs = 0;
+			long previousKey = 0;
+			for (int i = 0; i < count; i++) {
+				double value = values[i];
+				long key = Double.doubleToLongBits(value);
+				if (i == 0 || key != previousKey) {
+					runs++;
+					previousKey = key;
+				}
+				if (dictionarySize <= MAX_DICTIONARY_SIZE) {
+					dictionaryCounts[lookUp(key, value)]++;
+				}
+				if (Double.isNaN(value)) {
+					missing = true;
+				} else if (integral) {
+					int intValue = (int) value;
+					if (key == Double.doubleToLongBits(intValue)) {
+						min = Math.min(min, intValue);
+						max = Math.max(max, intValue);
+					} else {
+						integral = false;
+					}
+				}
+			}
+
+			// estimating the sizes of the encodings
+			byte encoding = ENCODING_PLAIN;
+			long size = 8L * count;
+			int bits = 0;
+			long missingCode = -1;
+			if (dictionarySize == 1) {
+				encoding = ENCODING_CONSTANT;
+				size = 8;
+			}
+			if (integral) {
+				long range = min > max ? 0 : max - min;
+				if (missing) {
+					missingCode = min > max ? 0 : range + 1;
+					range = missingCode;
+				}
+				int integerBits = 64 - Long.numberOfLeadingZeros(range);
+				long integerSize = 17 + getPackedSize(count, integerBits);
+				if (integerSize < size) {
+					encoding = ENCODING_INTEGER;
+					size = integerSize;
+					bits = integerBits;
+				}
+			}
+			if (dictionarySize <= MAX_DICTIONARY_SIZE) {
+				int dictionaryBits = 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+				long dictionarySizeInBytes = 5 + 8L * dictionarySize + getPackedSize(count, dictionaryBits);
+				if (dictionarySizeInBytes < size) {
+					encoding = ENCODING_DICTIONARY;
+					size = dictionarySizeInBytes;
+					bits = dictionaryBits;
+				}
+			}
+			if (4 + 12L * runs < size) {
+				encoding = ENCODING_RUN_LENGTH;
+				size = 4 + 12L * runs;
+			}
+			int defaultIndex = getMostFrequent();
+			int exceptions = count - (defaultIndex < 0 ? countZeros(values, count) : dictionaryCounts[defaultIndex]);
+			if (12 + 12L * exceptions < size) {
+				encoding = ENCODING_SPARSE;
+				size = 12 + 12L * exceptions;
+			}
+
+			// encoding the block
+			ByteBuffer block = ByteBuffer.allocate((int) size);
+			switch (encoding) {
+				case ENCODING_CONSTANT:
+					block.putDouble(values[0]);
+					break;
+				case ENCODING_INTEGER:
+					block.putLong(min > max ? 0 : min);
+					block.put((byte) bits);
+					block.putLong(missingCode);
+					for (int i = 0; i < count; i++) {
+						codes[i] = Double.isNaN(values[i]) ? missingCode : (long) values[i] - min;
+					}
+					pack(codes, count, bits, block);
+					break;
+				case ENCODING_DICTIONARY:
+					block.putInt(dictionarySize);
+					for (int i = 0; i < dictionarySize; i++) {
+						block.putDouble(dictionaryValues[i]);
+					}
+					block.put((byte) bits);
+					for (int i = 0; i < count; i++) {
+						codes[i] = lookUp(Double.doubleToLongBits(values[i]), values[i]);
+					}
+					pack(codes, count, bits, block);
+					break;
+				case ENCODING_RUN_LENGTH:
+					block.putInt(runs);
+					int runStart = 0;
+					for (int i = 1; i <= count; i++) {
+						if (i == count || Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(values[runStart])) {
+							block.putDouble(values[runStart]);
+							block.putInt(i - runStart);
+							runStart = i;
+						}
+					}
+					break;
+				case ENCODING_SPARSE:
+					double defaultValue = defaultIndex < 0 ? 0 : dictionaryValues[defaultIndex];
+					long defaultKey = Double.doubleToLongBits(defaultValue);
+					block.putDouble(defaultValue);
+					block.putInt(exceptions);
+					for (int i = 0; i < count; i++) {
+						if (Double.doubleToLongBits(values[i]) != defaultKey) {
+							block.putInt(i);
+						}
+					}
+					for (int i = 0; i < count; i++) {
+						if (Double.doubleToLongBits(values[i]) != defaultKey) {
+							block.putDouble(values[i]);
+						}
+					}
+					break;
+				default:
+					for (int i = 0; i < count; i++) {
+						block.putDouble(values[i]);
+					}
+					break;
+			}
+
+			// compressing the block if worthwhile
+			out.writeByte(encoding);
+			int length = block.position();
+			if (deflater != null && length >= MIN_COMPRESSION_SIZE) {
+				deflater.reset();
+				deflater.setInput(block.array(), 0, length);
+				deflater.finish();
+				if (compressed.length < length) {
+					compressed = new byte[length];
+				}
+				int compressedLength = 0;
+				int limit = length - length / 8;
+				while (!deflater.finished() && compressedLength < limit) {
+					compressedLength += deflater.deflate(compressed, compressedLength, limit - compressedLength);
+				}
+				if (deflater.finished() && compressedLength < limit) {
+					out.writeByte(COMPRESSION_DEFLATE);
+					out.writeInt(compressedLength);
+					out.writeInt(length);
+					out.write(compressed, 0, compressedLength);
+					return;
+				}
+			}
+			out.writeByte(COMPRESSION_NONE);
+			out.writeInt(length);
+			out.write(block.array(), 0, length);
+		}
+
+		/**
+		 * Returns the dictionary index of the value, adding it if the dictionary is not full.
+		 * Returns {@link #MAX_DICTIONARY_SIZE} for values not fitting into the dictionary.
+		 */
+		private int lookUp(long key, double value) {
+			int mask = dictionarySlots.length - 1;
+			int slot = mix(key) & mask;
+			while (dictionarySlots[slot] != 0) {
+				if (dictionaryKeys[slot] == key) {
+					return dictionarySlots[slot] - 1;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (dictionarySize == MAX_DICTIONARY_SIZE) {
+				// overflow, the dictionary is not used any more
+				dictionarySize++;
+				return MAX_DICTIONARY_SIZE;
+			}
+			dictionaryKeys[slot] = key;
+			dictionaryValues[dictionarySize] = value;
+			dictionaryCounts[dictionarySize] = 0;
+			dictionarySlots[slot] = ++dictionarySize;
+			return dictionarySize - 1;
+		}
+
+		/**
+		 * Returns the dictionary index of the most frequent value or -1 if the dictionary
+		 * overflowed.
+		 */
+		private int getMostFrequent() {
+			if (dictionarySize > MAX_DICTIONARY_SIZE) {
+				return -1;
+			}
+			int mostFrequent = 0;
+			for (int i = 1; i < dictionarySize; i++) {
+				if (dictionaryCounts[i] > dictionaryCounts[mostFrequent]) {
+					mostFrequent = i;
+				}
+			}
+			return mostFrequent;
+		}
+
+		private void close() {
+			if (deflater != null) {
+				deflater.end();
+			}
+		}
+
+		private static int countZeros(double[] values, int count) {
+			int zeros = 0;
+			for (int i = 0; i < count; i++) {
+				if (Double.doubleToLongBits(values[i]) == 0L) {
+					zeros++;
+				}
+			}
+			return zeros;
+		}
+
+		private static int mix(long key) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32));
+		}
+	}
+
+	/**
+	 * Reads the chunks of one attribute after the other and delivers their values in order.
+	 */
+	private static final class ChunkReader implements IntToDoubleFunction {
+
+		private final DataInputStream in;
+		private final int size;
+		private final double[] values;
+		private final long[] codes;
+		private final Inflater inflater = new Inflater();
+		private byte[] stored = new byte[0];
+		private byte[] block = new byte[0];
+		private int position;
+		private int available;
+
+		private ChunkReader(DataInputStream in, int size, int chunkSize) {
+			this.in = in;
+			this.size = size;
+			this.values = new double[Math.min(size, chunkSize)];
+			this.codes = new long[values.length];
+		}
+
+		@Override
+		public double applyAsDouble(int row) {
+			if (position == available) {
+				try {
+					readChunk(Math.min(values.length, size - row));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return values[position++];
+		}
+
+		private void readChunk(int count) throws IOException {
+			byte encoding = in.readByte();
+			byte compression = in.readByte();
+			int storedLength = in.readInt();
+			ByteBuffer buffer;
+			if (compression == COMPRESSION_DEFLATE) {
+				int length = in.readInt();
+				if (stored.length < storedLength) {
+					stored = new byte[storedLength];
+				}
+				in.readFully(stored, 0, storedLength);
+				if (block.length < length) {
+					block = new byte[length];
+				}
+				inflater.reset();
+				inflater.setInput(stored, 0, storedLength);
+				try {
+					int inflated = 0;
+					while (inflated < length && !inflater.finished()) {
+						int bytes = inflater.inflate(block, inflated, length - inflated);
+						if (bytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+							throw new IOException("Truncated compressed block.");
+						}
+						inflated += bytes;
+					}
+				} catch (DataFormatException e) {
+					throw new IOException("Corrupt compressed block: " + e.getMessage(), e);
+				}
+				buffer = ByteBuffer.wrap(block, 0, length);
+			} else if (compression == COMPRESSION_NONE) {
+				if (block.length < storedLength) {
+					block = new byte[storedLength];
+				}
+				in.readFully(block, 0, storedLength);
+				buffer = ByteBuffer.wrap(block, 0, storedLength);
+			} else {
+				throw new IOException("Unknown compression: " + compression);
+			}
+			decode(encoding, buffer, values, codes, count);
+			position = 0;
+			available = count;
+		}
+
+		private void reset() {
+			position = 0;
+			available = 0;
+		}
+
+		private void close() {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Reads from a byte buffer, advancing its position.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int length = Math.min(len, buffer.remaining());
+			buffer.get(b, off, length);
+			return length;
+		}
+	}
+
+	private final boolean compress;
+
+    /**
+     * Creates a new serializer.
+     *
+     * @param compress whether blocks should be deflated if this makes them smaller
+     */
+    public ColumnarExampleSetSerializer(boolean compress) {
+		this.compress = compress;
+	}
+
+	@Override
+	public Object deserialize(InputStream in) throws IOException {
+		return read(in);
+	}
+
+	@Override
+	public void serialize(Object object, OutputStream out) throws IOException {
+		if (object instanceof ExampleSet) {
+			write((ExampleSet) object, out);
+		} else {
+			throw new IOException(
+					"Serialization type " + SerializationType.COLUMNAR_EXAMPLE_SET + " only available for ExampleSets.");
+		}
+	}
+
+    /**
+     * Writes the example set to the stream.
+     *
+     * @param exampleSet   the example set
+     * @param outputStream the output stream
+     * @throws IOException if writing fails
+     */
+    public void write(ExampleSet exampleSet, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		List<AttributeRole> allRoles = new ArrayList<>();
+		Iterator<AttributeRole> i = exampleSet.getAttributes().allAttributeRoles();
+		while (i.hasNext()) {
+			allRoles.add(i.next());
+		}
+		out.writeInt(VERSION_1);
+		new ExampleSetToStream(ExampleSetToStream.VERSION_3).writeHeader(exampleSet.getAnnotations(), allRoles, out,
+				false);
+		int size = exampleSet.size();
+		out.writeInt(size);
+		out.writeInt(CHUNK_SIZE);
+
+		ChunkEncoder encoder = new ChunkEncoder(compress);
+		try {
+			double[] values = new double[Math.min(CHUNK_SIZE, size)];
+			for (AttributeRole role : allRoles) {
+				Attribute attribute = role.getAttribute();
+				int count = 0;
+				for (Example example : exampleSet) {
+					values[count++] = example.getValue(attribute);
+					if (count == values.length) {
+						encoder.write(values, count, out);
+						count = 0;
+					}
+				}
+				if (count > 0) {
+					encoder.write(values, count, out);
+				}
+			}
+		} finally {
+			encoder.close();
+		}
+		out.flush();
+	}
+
+    /**
+     * Reads an example set as written by {@link #write(ExampleSet, OutputStream)}.
+     *
+     * @param inputStream the input stream
+     * @return the example set
+     * @throws IOException if reading fails or the stream is corrupt
+     */
+    public ExampleSet read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		int version = in.readInt();
+		if (version != VERSION_1) {
+			throw new IOException("Unknown version of columnar example set stream: " + version);
+		}
+		Header header = new ExampleSetToStream(ExampleSetToStream.VERSION_3).readHeader(in);
+		List<Attribute> allAttributes = new ArrayList<>();
+		for (AttributeRole role : header.getAllRoles()) {
+			allAttributes.add(role.getAttribute());
+		}
+		int size = in.readInt();
+		int chunkSize = in.readInt();
+		if (size < 0 || chunkSize <= 0) {
+			throw new IOException("Illegal size of columnar example set stream: " + size + ", " + chunkSize);
+		}
+
+		// filling the columns one after the other
+		ColumnarExampleTable table = new ColumnarExampleTable(allAttributes, DataManagement.AUTO, true);
+		table.setExpectedSize(size);
+		table.addBlankRows(size);
+		ChunkReader reader = new ChunkReader(in, size, chunkSize);
+		try {
+			for (Attribute attribute : allAttributes) {
+				reader.reset();
+				table.fillColumn(attribute, reader);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			reader.close();
+		}
+		table.complete();
+
+		ExampleSet exampleSet = new SimpleExampleSet(table, allAttributes, null);
+		for (AttributeRole role : header.getAllRoles()) {
+			if (role.isSpecial()) {
+				Attribute attribute = exampleSet.getAttributes().get(role.getAttribute().getName());
+				exampleSet.getAttributes().getRole(attribute).setSpecial(role.getSpecialName());
+			}
+		}
+		exampleSet.getAnnotations().putAll(header.getAnnotations());
+		return exampleSet;
+	}
+
+    /**
+     * Reads an example set from a file written by
+     * {@link IOObjectSerializer#serialize(OutputStream, Object, SerializationType)} with
+     * {@link SerializationType#COLUMNAR_EXAMPLE_SET} without loading its data. The file is mapped
+     * into memory and the chunks are decoded when they are accessed, so that only the header is
+     * read up front. The file must not be modified in place while the example set is in use.
+     *
+     * @param file the file
+     * @return the example set or {@code null} if the file is of another serialization type
+     * @throws IOException if reading fails or the file is corrupt
+     */
+    public static ExampleSet readMapped(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			ByteBuffer head = channel.map(MapMode.READ_ONLY, 0, Math.min(fileSize, SEGMENT_SIZE));
+			InputStream headIn = new ByteBufferInputStream(head);
+			if (IOObjectSerializer.getInstance().deserializeHeader(headIn) != SerializationType.COLUMNAR_EXAMPLE_SET) {
+				return null;
+			}
+			DataInputStream in = new DataInputStream(headIn);
+			int version = in.readInt();
+			if (version != VERSION_1) {
+				throw new IOException("Unknown version of columnar example set stream: " + version);
+			}
+			Header header = new ExampleSetToStream(ExampleSetToStream.VERSION_3).readHeader(in);
+			List<Attribute> allAttributes = new ArrayList<>();
+			for (AttributeRole role : header.getAllRoles()) {
+				allAttributes.add(role.getAttribute());
+			}
+			int size = in.readInt();
+			int chunkSize = in.readInt();
+			if (size < 0 || chunkSize <= 0 || chunkSize > MAX_MAPPED_CHUNK_SIZE) {
+				throw new IOException("Illegal size of columnar example set stream: " + size + ", " + chunkSize);
+			}
+
+			// the segments overlap by the maximal length of a chunk, so that every block lies
+			// completely within the segment containing its start
+			long overlap = 8L * chunkSize + 16;
+			ByteBuffer[] segments = new ByteBuffer[(int) Math.max(1, (fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+			for (int s = 0; s < segments.length; s++) {
+				long start = s * SEGMENT_SIZE;
+				segments[s] = channel.map(MapMode.READ_ONLY, start, Math.min(fileSize - start, SEGMENT_SIZE + overlap));
+			}
+
+			// scanning the chunk headers of all columns
+			int numberOfChunks = size == 0 ? 0 : (size - 1) / chunkSize + 1;
+			List<MappedExampleTable.ColumnChunks> columns = new ArrayList<>(allAttributes.size());
+			long offset = head.position();
+			for (int column = 0; column < allAttributes.size(); column++) {
+				MappedExampleTable.ColumnChunks chunks = new MappedExampleTable.ColumnChunks(numberOfChunks);
+				for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+					if (offset + 6 > fileSize) {
+						throw new IOException("Truncated columnar example set file: " + file);
+					}
+					ByteBuffer segment = segments[(int) (offset / SEGMENT_SIZE)];
+					int position = (int) (offset % SEGMENT_SIZE);
+					byte encoding = segment.get(position);
+					byte compression = segment.get(position + 1);
+					int storedLength = segment.getInt(position + 2);
+					int rawLength = storedLength;
+					offset += 6;
+					if (compression == COMPRESSION_DEFLATE) {
+						if (offset + 4 > fileSize) {
+							throw new IOException("Truncated columnar example set file: " + file);
+						}
+						rawLength = segment.getInt(position + 6);
+						offset += 4;
+					} else if (compression != COMPRESSION_NONE) {
+						throw new IOException("Unknown compression: " + compression);
+					}
+					if (storedLength < 0 || storedLength > overlap || offset + storedLength > fileSize) {
+						throw new IOException("Truncated columnar example set file: " + file);
+					}
+					chunks.set(chunk, offset, storedLength, rawLength, encoding, compression);
+					offset += storedLength;
+				}
+				columns.add(chunks);
+			}
+
+			MappedExampleTable table = new MappedExampleTable(allAttributes, size, chunkSize, segments, SEGMENT_SIZE,
+					columns);
+			ExampleSet exampleSet = new SimpleExampleSet(table, allAttributes, null);
+			for (AttributeRole role : header.getAllRoles()) {
+				if (role.isSpecial()) {
+					Attribute attribute = exampleSet.getAttributes().get(role.getAttribute().getName());
+					exampleSet.getAttributes().getRole(attribute).setSpecial(role.getSpecialName());
+				}
+			}
+			exampleSet.getAnnotations().putAll(header.getAnnotations());
+			return exampleSet;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException("Truncated columnar example set file: " + file, e);
+		}
+	}
+
+	/**
+	 * Decodes the block of a chunk with the given number of values.
+	 */
+	static void decode(byte encoding, ByteBuffer block, double[] values, long[] codes, int count)
+			throws IOException {
+		switch (encoding) {
+			case ENCODING_PLAIN:
+				for (int i = 0; i < count; i++) {
+					values[i] = block.getDouble();
+				}
+				break;
+			case ENCODING_CONSTANT:
+				Arrays.fill(values, 0, count, block.getDouble());
+				break;
+			case ENCODING_INTEGER:
+				long reference = block.getLong();
+				int bits = block.get();
+				long missingCode = block.getLong();
+				unpack(block, bits, codes, count);
+				for (int i = 0; i < count; i++) {
+					values[i] = codes[i] == missingCode ? Double.NaN : reference + codes[i];
+				}
+				break;
+			case ENCODING_DICTIONARY:
+				double[] dictionary = new double[block.getInt()];
+				for (int i = 0; i < dictionary.length; i++) {
+					dictionary[i] = block.getDouble();
+				}
+				unpack(block, block.get(), codes, count);
+				for (int i = 0; i < count; i++) {
+					values[i] = dictionary[(int) codes[i]];
+				}
+				break;
+			case ENCODING_RUN_LENGTH:
+				int runs = block.getInt();
+				int position = 0;
+				for (int i = 0; i < runs; i++) {
+					double value = block.getDouble();
+					int length = block.getInt();
+					Arrays.fill(values, position, position + length, value);
+					position += length;
+				}
+				break;
+			case ENCODING_SPARSE:
+				Arrays.fill(values, 0, count, block.getDouble());
+				int exceptions = block.getInt();
+				int positionsStart = block.position();
+				block.position(positionsStart + 4 * exceptions);
+				for (int i = 0; i < exceptions; i++) {
+					values[block.getInt(positionsStart + 4 * i)] = block.getDouble();
+				}
+				break;
+			default:
+				throw new IOException("Unknown encoding: " + encoding);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes needed for the given number of bit-packed codes.
+	 */
+	private static long getPackedSize(int count, int bits) {
+		return ((long) count * bits + 63) / 64 * 8;
+	}
+
+	/**
+	 * Writes the codes with the given number of bits each into consecutive longs, starting with the
+	 * lowest bits.
+	 */
+	private static void pack(long[] codes, int count, int bits, ByteBuffer block) {
+		if (bits == 0) {
+			return;
+		}
+		long word = 0;
+		int used = 0;
+		for (int i = 0; i < count; i++) {
+			long code = codes[i];
+			word |= code << used;
+			used += bits;
+			if (used >= 64) {
+				block.putLong(word);
+				used -= 64;
+				word = used == 0 ? 0 : code >>> (bits - used);
+			}
+		}
+		if (used > 0) {
+			block.putLong(word);
+		}
+	}
+
+	/**
+	 * Reads codes written by {@link #pack(long[], int, int, ByteBuffer)}.
+	 */
+	private static void unpack(ByteBuffer block, int bits, long[] codes, int count) {
+		if (bits == 0) {
+			Arrays.fill(codes, 0, count, 0);
+			return;
+		}
+		long mask = bits == 64 ? -1L : (1L << bits) - 1;
+		long word = 0;
+		int available = 0;
+		for (int i = 0; i < count; i++) {
+			if (available >= bits) {
+				codes[i] = word & mask;
+				word >>>= bits;
+				available -= bits;
+			} else {
+				long low = word;
+				word = block.getLong();
+				codes[i] = (low | word << available) & mask;
+				word >>>= bits - available;
+				available += 64 - bits;
+			}
+		}
+	}
+}
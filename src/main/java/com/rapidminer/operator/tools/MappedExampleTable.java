@@ -0,0 +1,390 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.AbstractExampleTable;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.DataRowFactory;
+import com.rapidminer.example.table.DataRowReader;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.Ontology;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * An example table whose columns are read from a memory mapped file written by the
+ * {@link ColumnarExampleSetSerializer}. Uncompressed chunks of plain doubles are read directly
+ * from the mapping, all other chunks are decoded when they are accessed for the first time and
+ * kept as long as there is enough memory. A column is copied to the heap when it is written to for
+ * the first time, new columns are always kept on the heap. On serialization, the table is replaced
+ * by a {@link ColumnarExampleTable} holding all data.
+ *
+ * @since 7.6.1
+ */
+final class MappedExampleTable extends AbstractExampleTable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The positions and formats of the chunks of a stored column.
+	 */
+	static final class ColumnChunks {
+
+		private final long[] offsets;
+		private final int[] storedLengths;
+		private final int[] rawLengths;
+		private final byte[] encodings;
+		private final byte[] compressions;
+
+		ColumnChunks(int numberOfChunks) {
+			offsets = new long[numberOfChunks];
+			storedLengths = new int[numberOfChunks];
+			rawLengths = new int[numberOfChunks];
+			encodings = new byte[numberOfChunks];
+			compressions = new byte[numberOfChunks];
+		}
+
+		void set(int chunk, long offset, int storedLength, int rawLength, byte encoding, byte compression) {
+			offsets[chunk] = offset;
+			storedLengths[chunk] = storedLength;
+			rawLengths[chunk] = rawLength;
+			encodings[chunk] = encoding;
+			compressions[chunk] = compression;
+		}
+	}
+
+	/**
+	 * The values of a column.
+	 */
+	private abstract static class Column {
+
+		abstract double get(int row);
+	}
+
+	/**
+	 * A column on the heap, used for new columns and for stored columns that were written to.
+	 */
+	private static final class HeapColumn extends Column {
+
+		private final double[] data;
+
+		private HeapColumn(double[] data) {
+			this.data = data;
+		}
+
+		@Override
+		double get(int row) {
+			return data[row];
+		}
+	}
+
+	/**
+	 * A column read from the mapped file.
+	 */
+	private final class MappedColumn extends Column {
+
+		private final ColumnChunks chunks;
+		private final AtomicReferenceArray<SoftReference<double[]>> decoded;
+
+		private MappedColumn(ColumnChunks chunks) {
+			this.chunks = chunks;
+			this.decoded = new AtomicReferenceArray<>(chunks.offsets.length);
+		}
+
+		@Override
+		double get(int row) {
+			int chunk = row / chunkSize;
+			int index = row - chunk * chunkSize;
+			if (chunks.encodings[chunk] == ColumnarExampleSetSerializer.ENCODING_PLAIN
+					&& chunks.compressions[chunk] == ColumnarExampleSetSerializer.COMPRESSION_NONE) {
+				long offset = chunks.offsets[chunk];
+				int segment = (int) (offset / segmentSize);
+				return segments[segment].getDouble((int) (offset - segment * segmentSize) + 8 * index);
+			}
+			SoftReference<double[]> reference = decoded.get(chunk);
+			double[] values = reference == null ? null : reference.get();
+			if (values == null) {
+				values = decode(chunk);
+				decoded.set(chunk, new SoftReference<>(values));
+			}
+			return values[index];
+		}
+
+		/**
+		 * Decodes the given chunk, inflating it first if necessary.
+		 */
+		private double[] decode(int chunk) {
+			long offset = chunks.offsets[chunk];
+			int segment = (int) (offset / segmentSize);
+			ByteBuffer block = segments[segment].duplicate();
+			int start = (int) (offset - segment * segmentSize);
+			block.limit(start + chunks.storedLengths[chunk]);
+			block.position(start);
+			block = block.slice();
+			try {
+				if (chunks.compressions[chunk] == ColumnarExampleSetSerializer.COMPRESSION_DEFLATE) {
+					block = inflate(block, chunks.rawLengths[chunk]);
+				}
+				int count = Math.min(chunkSize, size - chunk * chunkSize);
+				double[] values = new double[count];
+				ColumnarExampleSetSerializer.decode(chunks.encodings[chunk], block, values, new long[count], count);
+				return values;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * A view on a row of the table.
+	 */
+	private final class RowView extends DataRow {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int row;
+
+		private RowView(int row) {
+			this.row = row;
+		}
+
+		@Override
+		protected double get(int column, double defaultValue) {
+			return MappedExampleTable.this.get(row, column);
+		}
+
+		@Override
+		protected void set(int column, double value, double defaultValue) {
+			getHeapColumn(column).data[row] = value;
+		}
+
+		@Override
+		protected void ensureNumberOfColumns(int columns) {
+			// not necessary
+		}
+
+		@Override
+		public void trim() {
+			// no data to trim
+		}
+
+		@Override
+		public int getType() {
+			return DataRowFactory.TYPE_COLUMN_VIEW;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder();
+			for (int i = 0; i < getNumberOfAttributes(); i++) {
+				result.append(i == 0 ? "" : ",").append(MappedExampleTable.this.get(row, i));
+			}
+			return result.toString();
+		}
+	}
+
+	/**
+	 * Reader for row views.
+	 */
+	private final class RowReader implements DataRowReader {
+
+		private int current = 0;
+
+		@Override
+		public boolean hasNext() {
+			return current < size;
+		}
+
+		@Override
+		public DataRow next() {
+			return new RowView(current++);
+		}
+	}
+
+	private final int size;
+	private final int chunkSize;
+	private final ByteBuffer[] segments;
+	private final long segmentSize;
+
+	/** the columns, replaced by a modified copy on every change so that readers need no lock */
+	private volatile Column[] columns;
+
+    /**
+     * Creates a table on the mapped segments of a file.
+     *
+     * @param attributes  the attributes of the stored columns
+     * @param size        the number of rows
+     * @param chunkSize   the number of rows per chunk
+     * @param segments    the mapped segments of the file, each starting at a multiple of the segment size
+     * @param segmentSize the distance between the starts of two segments
+     * @param chunks      the chunks of the stored columns
+     */
+    MappedExampleTable(List<Attribute> attributes, int size, int chunkSize, ByteBuffer[] segments, long segmentSize,
+			List<ColumnChunks> chunks) {
+		super(attributes);
+		this.size = size;
+		this.chunkSize = chunkSize;
+		this.segments = segments;
+		this.segmentSize = segmentSize;
+		Column[] storedColumns = new Column[Math.max(getNumberOfAttributes(), chunks.size())];
+		for (int i = 0; i < chunks.size(); i++) {
+			storedColumns[i] = new MappedColumn(chunks.get(i));
+		}
+		columns = storedColumns;
+	}
+
+	/**
+	 * Returns the value of the given row and column.
+	 */
+	private double get(int row, int column) {
+		Column values = columns[column];
+		return values == null ? Double.NaN : values.get(row);
+	}
+
+	/**
+	 * Returns the column with the given index on the heap, copying it if necessary.
+	 */
+	private synchronized HeapColumn getHeapColumn(int column) {
+		Column values = columns[column];
+		if (values instanceof HeapColumn) {
+			return (HeapColumn) values;
+		}
+		double[] data = new double[size];
+		for (int row = 0; row < size; row++) {
+			data[row] = values == null ? Double.NaN : values.get(row);
+		}
+		HeapColumn heapColumn = new HeapColumn(data);
+		setColumn(column, heapColumn);
+		return heapColumn;
+	}
+
+	/**
+	 * Publishes a copy of the columns in which the given column is replaced. Must be called while
+	 * holding the lock of this table.
+	 */
+	private void setColumn(int column, Column values) {
+		Column[] changedColumns = Arrays.copyOf(columns, Math.max(columns.length, column + 1));
+		changedColumns[column] = values;
+		columns = changedColumns;
+	}
+
+	@Override
+	public synchronized int addAttribute(Attribute attribute) {
+		int newIndex = super.addAttribute(attribute);
+		// the columns are not yet created while the super constructor adds the stored attributes
+		if (columns != null) {
+			setColumn(newIndex, new HeapColumn(new double[size]));
+		}
+		return newIndex;
+	}
+
+	@Override
+	public synchronized void removeAttribute(int index) {
+		super.removeAttribute(index);
+		setColumn(index, null);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public DataRowReader getDataRowReader() {
+		return new RowReader();
+	}
+
+	@Override
+	public DataRow getDataRow(int index) {
+		return new RowView(index);
+	}
+
+    /**
+     * Copies all data into a {@link ColumnarExampleTable}, keeping the indices of the attributes.
+     *
+     * @return the table on the heap
+     */
+    ColumnarExampleTable toHeapTable() {
+		Attribute[] attributes = getAttributes();
+		List<Attribute> tableAttributes = new ArrayList<>(attributes.length);
+		for (Attribute attribute : attributes) {
+			// removed columns are replaced by placeholders which are removed again below
+			tableAttributes.add(attribute != null ? attribute : AttributeFactory.createAttribute(Ontology.REAL));
+		}
+		ColumnarExampleTable table = new ColumnarExampleTable(tableAttributes, DataManagement.AUTO, true);
+		table.setExpectedSize(size);
+		table.addBlankRows(size);
+		for (int i = 0; i < attributes.length; i++) {
+			if (attributes[i] == null) {
+				table.removeAttribute(i);
+			} else {
+				final int column = i;
+				table.fillColumn(table.getAttribute(i), row -> get(row, column));
+			}
+		}
+		table.complete();
+		return table;
+	}
+
+	/**
+	 * Replaces the table by a copy on the heap, since the mapping cannot be serialized.
+	 */
+	private Object writeReplace() {
+		return toHeapTable();
+	}
+
+	/**
+	 * Inflates the given block.
+	 */
+	private static ByteBuffer inflate(ByteBuffer block, int length) throws IOException {
+		byte[] stored = new byte[block.remaining()];
+		block.get(stored);
+		byte[] inflated = new byte[length];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(stored);
+			int position = 0;
+			while (position < length && !inflater.finished()) {
+				int bytes = inflater.inflate(inflated, position, length - position);
+				if (bytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Truncated compressed block.");
+				}
+				position += bytes;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt compressed block: " + e.getMessage(), e);
+		} finally {
+			inflater.end();
+		}
+		return ByteBuffer.wrap(inflated);
+	}
+}
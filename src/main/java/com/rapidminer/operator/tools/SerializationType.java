@@ -131,7 +131,15 @@ public enum SerializationType {
     /**
      * The Streamed example set dense 3.
      */
-    STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3));
+    STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3)),
+
+    /**
+     * Column by column encoded example sets with optionally compressed blocks, see
+     * {@link ColumnarExampleSetSerializer}.
+     *
+     * @since 7.6.1
+     */
+    COLUMNAR_EXAMPLE_SET(new ColumnarExampleSetSerializer(true));
 
     /**
      * The constant STREAMED_EXAMPLE_SET_DENSE_CURRENT_VERSION.
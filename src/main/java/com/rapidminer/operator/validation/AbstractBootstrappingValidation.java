@@ -101,7 +101,20 @@ public abstract class AbstractBootstrappingValidation extends ValidationChain {
 		double sampleRatio = getParameterAsDouble(PARAMETER_SAMPLE_RATIO);
 
 		// start bootstrapping loop
-		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		final RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		if (checkParallelizability()) {
+			final ExampleSet exampleSet = createThreadSafeCopy(inputSet);
+			final int size = (int) Math.round(exampleSet.size() * sampleRatio);
+			learnAndEvaluateInParallel(number, new MappingIterationSetProvider(exampleSet) {
+
+				@Override
+				protected int[] createMapping() throws OperatorException {
+					return AbstractBootstrappingValidation.this.createMapping(exampleSet, size, random);
+				}
+			});
+			iteration = number;
+			return;
+		}
 		for (iteration = 0; iteration < number; iteration++) {
 			int[] mapping = createMapping(inputSet, (int) Math.round(inputSet.size() * sampleRatio), random);
 			MappedExampleSet trainingSet = new MappedExampleSet(inputSet, mapping, true);
@@ -114,6 +127,16 @@ public abstract class AbstractBootstrappingValidation extends ValidationChain {
 		// end loop
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
+	@Override
+	protected void updateIteration(int iteration) {
+		this.iteration = iteration;
+	}
+
 	@Override
 	protected MDInteger getTestSetSize(MDInteger originalSize) throws UndefinedParameterError {
 		return originalSize.multiply(1d - getParameterAsDouble(PARAMETER_SAMPLE_RATIO));
@@ -109,7 +109,12 @@ public class BatchXValidation extends ValidationChain {
 		if (batchAttribute == null) {
 			throw new UserError(this, 113, Attributes.BATCH_NAME);
 		}
-		SplittedExampleSet splittedES = SplittedExampleSet.splitByAttribute(inputSet, batchAttribute);
+		boolean parallel = checkParallelizability();
+		if (parallel) {
+			inputSet = createThreadSafeCopy(inputSet);
+			batchAttribute = inputSet.getAttributes().getSpecial(Attributes.BATCH_NAME);
+		}
+		final SplittedExampleSet splittedES = SplittedExampleSet.splitByAttribute(inputSet, batchAttribute);
 
 		// start crossvalidation
 		if (modelOutput.isConnected()) {
@@ -119,6 +124,27 @@ public class BatchXValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (parallel) {
+			learnAndEvaluateInParallel(splittedES.getNumberOfSubsets(), new IterationSetProvider() {
+
+				@Override
+				public ExampleSet getTrainingSet(int iteration) {
+					SplittedExampleSet trainingSet = new SplittedExampleSet(splittedES);
+					trainingSet.selectAllSubsetsBut(iteration);
+					return trainingSet;
+				}
+
+				@Override
+				public ExampleSet getTestSet(int iteration) {
+					SplittedExampleSet testSet = new SplittedExampleSet(splittedES);
+					testSet.selectSingleSubset(iteration);
+					return testSet;
+				}
+			});
+			iteration = splittedES.getNumberOfSubsets();
+			return;
+		}
+
 		for (iteration = 0; iteration < splittedES.getNumberOfSubsets(); iteration++) {
 			splittedES.selectAllSubsetsBut(iteration);
 			learn(splittedES);
@@ -148,6 +174,16 @@ public class BatchXValidation extends ValidationChain {
 		return types;
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
+	@Override
+	protected void updateIteration(int iteration) {
+		this.iteration = iteration;
+	}
+
 	@Override
 	public boolean supportsCapability(OperatorCapability capability) {
 		return true;
@@ -113,7 +113,7 @@ public class BootstrappingValidation extends ValidationChain {
 		int size = (int) Math.round(inputSet.size() * getParameterAsDouble(PARAMETER_SAMPLE_RATIO));
 
 		// start bootstrapping loop
-		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		final RandomGenerator random = RandomGenerator.getRandomGenerator(this);
 		if (modelOutput.isConnected()) {
 			getProgress().setTotal(number + 1);
 		} else {
@@ -121,6 +121,24 @@ public class BootstrappingValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (checkParallelizability()) {
+			final ExampleSet exampleSet = createThreadSafeCopy(inputSet);
+			final boolean weighted = useWeights && exampleSet.getAttributes().getWeight() != null;
+			learnAndEvaluateInParallel(number, new MappingIterationSetProvider(exampleSet) {
+
+				@Override
+				protected int[] createMapping() {
+					if (weighted) {
+						return MappedExampleSet.createWeightedBootstrappingMapping(exampleSet, size, random);
+					} else {
+						return MappedExampleSet.createBootstrappingMapping(exampleSet, size, random);
+					}
+				}
+			});
+			iteration = number;
+			return;
+		}
+
 		for (iteration = 0; iteration < number; iteration++) {
 			int[] mapping = null;
 			if (useWeights && inputSet.getAttributes().getWeight() != null) {
@@ -138,6 +156,16 @@ public class BootstrappingValidation extends ValidationChain {
 		}
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
+	@Override
+	protected void updateIteration(int iteration) {
+		this.iteration = iteration;
+	}
+
 	@Override
 	protected MDInteger getTestSetSize(MDInteger originalSize) throws UndefinedParameterError {
 		return originalSize.multiply(1d - getParameterAsDouble(PARAMETER_SAMPLE_RATIO));
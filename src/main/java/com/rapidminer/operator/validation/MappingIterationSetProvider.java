@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.validation;
+
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.operator.OperatorException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * {@link ValidationChain.IterationSetProvider} for validations that draw a random mapping of the
+ * examples in every iteration, e.g. bootstrapping validations. The training set consists of the
+ * mapped examples, the test set of the remaining ones. The mappings are always drawn in the order
+ * of the iterations, hence the random generator is used exactly like in the sequential execution.
+ *
+ * @since 7.6.1
+ */
+abstract class MappingIterationSetProvider implements ValidationChain.IterationSetProvider {
+
+	private final ExampleSet exampleSet;
+
+	/** the drawn mappings whose iterations have not requested their test set yet */
+	private final Map<Integer, int[]> mappings = new HashMap<>();
+
+	private int nextMapping = 0;
+
+    /**
+     * Creates a new provider for the given example set.
+     *
+     * @param exampleSet the thread-safe example set the mappings refer to
+     */
+    MappingIterationSetProvider(ExampleSet exampleSet) {
+		this.exampleSet = exampleSet;
+	}
+
+    /**
+     * Draws the mapping of the next iteration. Calls are synchronized by this provider.
+     *
+     * @return the mapping
+     * @throws OperatorException the operator exception
+     */
+    protected abstract int[] createMapping() throws OperatorException;
+
+	@Override
+	public ExampleSet getTrainingSet(int iteration) throws OperatorException {
+		int[] mapping;
+		synchronized (mappings) {
+			while (nextMapping <= iteration) {
+				mappings.put(nextMapping++, createMapping());
+			}
+			mapping = mappings.get(iteration);
+		}
+		return new MappedExampleSet(exampleSet, mapping, true);
+	}
+
+	@Override
+	public ExampleSet getTestSet(int iteration) {
+		int[] mapping;
+		synchronized (mappings) {
+			mapping = mappings.remove(iteration);
+		}
+		return new MappedExampleSet(exampleSet, mapping, false);
+	}
+
+}
@@ -159,6 +159,19 @@ public class Tools {
 		if (performance == null) {
 			return;
 		}
+		buildAverages(performance, outputPort);
+	}
+
+    /**
+     * Copies the given vector to the output port if it does not hold data yet (i.e. we are in the
+     * first iteration). Otherwise the average of the delivered vector and the given one is built.
+     *
+     * @param performance the vector of the current iteration, must not be {@code null}
+     * @param outputPort  the port holding the averages of the previous iterations
+     * @throws OperatorException the operator exception
+     * @since 7.6.1
+     */
+    public static void buildAverages(AverageVector performance, OutputPort outputPort) throws OperatorException {
 		if (outputPort.getDataOrNull(IOObject.class) == null) {
 			// we don't have data yet, so copy to output
 			// since this averages might be averages of averages and averagecount could be greater
@@ -18,8 +18,10 @@
 */
 package com.rapidminer.operator.validation;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.*;
 import com.rapidminer.operator.learner.CapabilityProvider;
 import com.rapidminer.operator.learner.PredictionModel;
@@ -27,14 +29,21 @@ import com.rapidminer.operator.performance.PerformanceCriterion;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.Port;
 import com.rapidminer.operator.ports.PortPairExtender;
 import com.rapidminer.operator.ports.metadata.*;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.math.AverageVector;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -54,6 +63,11 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
      */
     public static final String PARAMETER_CREATE_COMPLETE_MODEL = "create_complete_model";
 
+    /**
+     * The parameter name for &quot;Enables the parallel execution of the validation iterations.&quot;
+     */
+    public static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
     /**
      * The Training set input.
      */
@@ -377,6 +391,194 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 		}
 	}
 
+    /**
+     * Provides the training and test sets of the iterations executed by
+     * {@link ValidationChain#learnAndEvaluateInParallel(int, IterationSetProvider)}. The methods are
+     * called concurrently by different worker threads, but for a single iteration
+     * {@link #getTrainingSet(int)} is always called before {@link #getTestSet(int)} and from the
+     * same thread.
+     *
+     * @since 7.6.1
+     */
+    protected interface IterationSetProvider {
+
+        /**
+         * Returns the training set of the given iteration.
+         *
+         * @param iteration the iteration
+         * @return the training set
+         * @throws OperatorException the operator exception
+         */
+        ExampleSet getTrainingSet(int iteration) throws OperatorException;
+
+        /**
+         * Returns the test set of the given iteration.
+         *
+         * @param iteration the iteration
+         * @return the test set
+         * @throws OperatorException the operator exception
+         */
+        ExampleSet getTestSet(int iteration) throws OperatorException;
+
+    }
+
+    /**
+     * Indicates whether this validation consists of several independent iterations that can be
+     * executed in parallel. If so, the parameter {@link #PARAMETER_ENABLE_PARALLEL_EXECUTION} is
+     * offered and subclasses should call
+     * {@link #learnAndEvaluateInParallel(int, IterationSetProvider)} whenever
+     * {@link #checkParallelizability()} returns {@code true}.
+     *
+     * @return {@code true} if the iterations can be executed in parallel
+     * @since 7.6.1
+     */
+    protected boolean supportsParallelExecution() {
+		return false;
+	}
+
+    /**
+     * Checks whether the user has enabled the parallel execution, whether more than one thread is
+     * available and whether there are no breakpoints inside the subprocesses. Otherwise the
+     * iterations need to be executed sequentially.
+     *
+     * @return {@code true} if the iterations should be executed in parallel
+     * @since 7.6.1
+     */
+    protected boolean checkParallelizability() {
+		if (!supportsParallelExecution() || !getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION)
+				|| Resources.getConcurrencyContext(this).getParallelism() < 2) {
+			return false;
+		}
+		for (ExecutionUnit unit : getSubprocesses()) {
+			for (Operator operator : unit.getAllInnerOperators()) {
+				if (operator.isEnabled() && operator.hasBreakpoint()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+    /**
+     * Creates a copy of the given example set from which the training and test sets of
+     * {@link #learnAndEvaluateInParallel(int, IterationSetProvider)} can be derived.
+     *
+     * @param exampleSet the input example set
+     * @return a copy that is safe for concurrent read access and attribute set manipulations
+     * @since 7.6.1
+     */
+    protected ExampleSet createThreadSafeCopy(ExampleSet exampleSet) {
+		return ExampleSets.createThreadSafeCopy(exampleSet);
+	}
+
+    /**
+     * Applies the learner and the evaluator to the training and test sets of all iterations
+     * concurrently. Every worker executes its iterations on its own clone of this operator (see
+     * {@link ExecutionUnit#cloneExecutionUnitFrom(ExecutionUnit, boolean)}). The averagable
+     * results are merged in the order of the iterations afterwards, hence the result is the same as
+     * calling {@link #learn(ExampleSet)} and {@link #evaluate(ExampleSet)} for every iteration one
+     * after another. The iteration is updated by {@link #updateIteration(int)} on the clones before
+     * an iteration is executed, and on this operator right before {@link #inApplyLoop()} is called
+     * for each merged iteration. Hence values of this operator logged inside of the subprocesses
+     * during the parallel execution refer to the last merged iteration, not the executed one.
+     *
+     * @param numberOfIterations the number of iterations
+     * @param provider           the provider of the training and test sets, the sets must be derived
+     *                           from a {@link #createThreadSafeCopy(ExampleSet) thread-safe copy}
+     *                           of the input
+     * @throws OperatorException if one of the iterations fails
+     * @since 7.6.1
+     */
+    protected final void learnAndEvaluateInParallel(final int numberOfIterations, final IterationSetProvider provider)
+			throws OperatorException {
+		final AverageVector[][] results = new AverageVector[numberOfIterations][];
+		final AtomicInteger nextIteration = new AtomicInteger();
+		final OperatorProgress progress = getProgress();
+
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		int numberOfWorkers = Math.min(context.getParallelism(), numberOfIterations);
+		List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final ValidationChain copy = (ValidationChain) cloneOperator(getName(), true);
+			workers.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					// the copy is not part of the execution unit but needs it to access the process
+					copy.setEnclosingProcess(getExecutionUnit());
+					try {
+						int iteration;
+						while ((iteration = nextIteration.getAndIncrement()) < numberOfIterations) {
+							ExampleSet trainingSet = provider.getTrainingSet(iteration);
+							ExampleSet testSet = provider.getTestSet(iteration);
+							copy.updateIteration(iteration);
+							results[iteration] = copy.learnAndEvaluateIteration(trainingSet, testSet);
+
+							synchronized (progress) {
+								progress.step();
+							}
+						}
+					} finally {
+						copy.setEnclosingProcess(null);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			context.call(workers);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+
+		// merge in the order of the iterations to get the same averages as the sequential execution
+		List<PortPairExtender.PortPair> pairs = applyProcessPerformancePortExtender.getManagedPairs();
+		for (int iteration = 0; iteration < numberOfIterations; iteration++) {
+			AverageVector[] iterationResults = results[iteration];
+			for (int i = 0; i < pairs.size() && i < iterationResults.length; i++) {
+				if (iterationResults[i] != null) {
+					Tools.buildAverages(iterationResults[i], pairs.get(i).getOutputPort());
+				}
+			}
+			updateIteration(iteration);
+			inApplyLoop();
+		}
+	}
+
+    /**
+     * Called by {@link #learnAndEvaluateInParallel(int, IterationSetProvider)} on the clone executing
+     * an iteration before it is executed, and on this operator for every iteration after its results
+     * have been merged. Validations offering their current iteration as value should update it.
+     * Does nothing by default.
+     *
+     * @param iteration the iteration
+     * @since 7.6.1
+     */
+    protected void updateIteration(int iteration) {}
+
+	/**
+	 * Executes a single iteration on this copy and returns the averagables delivered by the
+	 * evaluator, ordered like the managed pairs of the performance port extender.
+	 */
+	private AverageVector[] learnAndEvaluateIteration(ExampleSet trainingSet, ExampleSet testSet)
+			throws OperatorException {
+		List<PortPairExtender.PortPair> pairs = applyProcessPerformancePortExtender.getManagedPairs();
+		// forget the results of the previous iteration executed on this copy
+		for (PortPairExtender.PortPair pair : pairs) {
+			pair.getOutputPort().clear(Port.CLEAR_DATA);
+		}
+
+		learn(trainingSet);
+		evaluate(testSet);
+
+		AverageVector[] iterationResults = new AverageVector[pairs.size()];
+		for (int i = 0; i < pairs.size(); i++) {
+			iterationResults[i] = pairs.get(i).getOutputPort().getDataOrNull(AverageVector.class);
+		}
+		return iterationResults;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -385,6 +587,13 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 		type.setDeprecated();
 		type.setExpert(false);
 		types.add(type);
+		if (supportsParallelExecution()) {
+			type = new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+					"This parameter enables the parallel execution of the validation iterations. Please disable the parallel execution if you run into memory problems.",
+					false, true);
+			types.add(type);
+		}
 		return types;
 	}
+
 }
@@ -151,6 +151,10 @@ public class XValidation extends ValidationChain {
 		getLogger().fine("Starting " + number + "-fold cross validation");
 
 		// Split training / test set
+		boolean parallel = checkParallelizability();
+		if (parallel) {
+			inputSet = createThreadSafeCopy(inputSet);
+		}
 		int samplingType = getParameterAsInt(PARAMETER_SAMPLING_TYPE);
 		SplittedExampleSet splittedES = new SplittedExampleSet(inputSet, number, samplingType,
 				getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
@@ -165,11 +169,45 @@ public class XValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
-		for (iteration = 0; iteration < number; iteration++) {
-			performIteration(splittedES, iteration);
+		if (parallel) {
+			performIterationsInParallel(splittedES, number);
+		} else {
+			for (iteration = 0; iteration < number; iteration++) {
+				performIteration(splittedES, iteration);
+			}
 		}
 	}
 
+    /**
+     * Performs all iterations concurrently. Every iteration works on its own copy of the given
+     * example set. The partition is copied as well, so the folds are the same as for the
+     * sequential execution.
+     *
+     * @param splittedES the splitted es, must be based on a thread-safe copy of the input
+     * @param number     the number of iterations
+     * @throws OperatorException the operator exception
+     */
+    protected void performIterationsInParallel(final SplittedExampleSet splittedES, int number)
+			throws OperatorException {
+		learnAndEvaluateInParallel(number, new IterationSetProvider() {
+
+			@Override
+			public ExampleSet getTrainingSet(int iteration) {
+				SplittedExampleSet trainingSet = new SplittedExampleSet(splittedES);
+				trainingSet.selectAllSubsetsBut(iteration);
+				return trainingSet;
+			}
+
+			@Override
+			public ExampleSet getTestSet(int iteration) {
+				SplittedExampleSet testSet = new SplittedExampleSet(splittedES);
+				testSet.selectSingleSubset(iteration);
+				return testSet;
+			}
+		});
+		iteration = number;
+	}
+
     /**
      * Perform iteration.
      *
@@ -240,6 +278,16 @@ public class XValidation extends ValidationChain {
 		return types;
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
+	@Override
+	protected void updateIteration(int iteration) {
+		this.iteration = iteration;
+	}
+
 	@Override
 	public OperatorVersion[] getIncompatibleVersionChanges() {
 		return new OperatorVersion[] { SplittedExampleSet.VERSION_SAMPLING_CHANGED };
@@ -126,8 +126,36 @@ public class ProcessLogOperator extends Operator {
      */
     public static final int SORTING_TYPE_BOTTOM_K = 2;
 
+    /**
+     * The rows logged by a copy of this operator which is executed in parallel to other copies.
+     * The rows are added to the data table of the original operator afterwards by
+     * {@link ProcessLogOperator#addBufferedRows(List)}, in the order of the sequential execution.
+     *
+     * @since 7.6.1
+     */
+    public static final class BufferedRows {
+
+		/** The logged values, {@link Double}s or {@link String}s for nominal values. */
+		private final List<Object[]> rows = new ArrayList<>();
+
+		/** Whether one of the rows was logged by the first application of the operator. */
+		private boolean firstApplication;
+
+        /**
+         * Returns the number of buffered rows.
+         *
+         * @return the number of rows
+         */
+        public int size() {
+			return rows.size();
+		}
+	}
+
 	private PortPairExtender dummyPorts = new DummyPortPairExtender("through", getInputPorts(), getOutputPorts());
 
+	/** The buffer receiving the logged rows, {@code null} if they are added to the data table. */
+	private BufferedRows rowBuffer;
+
     /**
      * Instantiates a new Process log operator.
      *
@@ -155,7 +183,10 @@ public class ProcessLogOperator extends Operator {
 		});
 	}
 
-	private double fetchValue(OperatorValueSelection selection, int column) throws UndefinedParameterError {
+	/**
+	 * Returns the value of the selection as {@link Double}, or as {@link String} if it is nominal.
+	 */
+	private Object fetchValue(OperatorValueSelection selection) throws UndefinedParameterError {
 		Operator operator = lookupOperator(selection.getOperator());
 		if (operator != null) {
 			if (selection.isValue()) {
@@ -167,14 +198,12 @@ public class ProcessLogOperator extends Operator {
 				if (value.isNominal()) {
 					Object actualValue = value.getValue();
 					if (actualValue != null) {
-						String valueString = value.getValue().toString();
-						SimpleDataTable table = (SimpleDataTable) getProcess().getDataTable(getName());
-						return table.mapString(column, valueString);
+						return value.getValue().toString();
 					} else {
 						return Double.NaN;
 					}
 				} else {
-					return ((Double) value.getValue()).doubleValue();
+					return (Double) value.getValue();
 				}
 
 			} else {
@@ -190,9 +219,7 @@ public class ProcessLogOperator extends Operator {
 							logWarning("Cannot parse parameter value of '" + selection + "'");
 						}
 					} else { // nominal
-						String value = parameterType.toString(operator.getParameter(selection.getParameterName()));
-						SimpleDataTable table = (SimpleDataTable) getProcess().getDataTable(getName());
-						return table.mapString(column, value);
+						return parameterType.toString(operator.getParameter(selection.getParameterName()));
 					}
 				}
 			}
@@ -222,26 +249,76 @@ public class ProcessLogOperator extends Operator {
 
 	@Override
 	public void doWork() throws OperatorException {
+		Object[] values = fetchAllValues();
+		if (rowBuffer != null) {
+			rowBuffer.rows.add(values);
+			rowBuffer.firstApplication |= getApplyCount() == 1;
+		} else {
+			addRow(values, getApplyCount() == 1);
+		}
+
+		dummyPorts.passDataThrough();
+	}
+
+    /**
+     * Sets the buffer receiving the rows logged by this operator instead of the data table of the
+     * process. Used for copies of this operator executed in parallel.
+     *
+     * @param rowBuffer the buffer for the logged rows, {@code null} to add them to the data table
+     *                  again
+     * @since 7.6.1
+     */
+    public void setRowBuffer(BufferedRows rowBuffer) {
+		this.rowBuffer = rowBuffer;
+	}
+
+    /**
+     * Adds the rows logged by copies of this operator to the data table of this operator, as if
+     * this operator had logged them in the given order.
+     *
+     * @param buffers the buffers of the copies in the order of the sequential execution, might
+     *                contain {@code null} for executions that did not log anything
+     * @throws OperatorException if the data table cannot be created or the rows cannot be written
+     * @since 7.6.1
+     */
+    public void addBufferedRows(List<BufferedRows> buffers) throws OperatorException {
+		boolean firstApplication = false;
+		for (BufferedRows buffer : buffers) {
+			firstApplication |= buffer != null && buffer.firstApplication;
+		}
+		for (BufferedRows buffer : buffers) {
+			if (buffer != null) {
+				for (Object[] values : buffer.rows) {
+					addRow(values, firstApplication);
+					firstApplication = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the row with the given values to the data table and writes it to the file if the log is
+	 * persistent.
+	 */
+	private void addRow(Object[] values, boolean firstApplication) throws OperatorException {
 		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
 		if (dataTable == null) {
 			createDataTable();
 		}
 
-		DataTableRow row = fetchAllValues();
+		DataTableRow row = addToDataTable(values);
 		if (getParameterAsInt(PARAMETER_SORTING_TYPE) == SORTING_TYPE_NONE && getParameterAsBoolean(PARAMETER_PERSISTENT)) {
-			writeOnline(row);
+			writeOnline(row, firstApplication);
 		}
-
-		dummyPorts.passDataThrough();
 	}
 
-	private void writeOnline(DataTableRow row) throws UserError {
+	private void writeOnline(DataTableRow row, boolean firstApplication) throws UserError {
 		DataTable table = getProcess().getDataTable(getName());
 		File outputFile = getParameterAsFile(PARAMETER_FILENAME, true);
 		try {
-			// writing header if file does not exist or applyCount is 1 and file exists and has to
-			// be overwritten
-			if (!outputFile.exists() || getApplyCount() == 1) {
+			// writing header if file does not exist or this is the first application and file
+			// exists and has to be overwritten
+			if (!outputFile.exists() || firstApplication) {
 				try (FileWriter fw = new FileWriter(outputFile); PrintWriter out = new PrintWriter(fw)) {
 					out.println("# Generated by " + getName() + "[" + getClass().getName() + "]");
 					for (int j = 0; j < table.getNumberOfColumns(); j++) {
@@ -262,16 +339,32 @@ public class ProcessLogOperator extends Operator {
 		}
 	}
 
-	private DataTableRow fetchAllValues() throws UndefinedParameterError {
+	private Object[] fetchAllValues() throws UndefinedParameterError {
 		Collection<OperatorValueSelection> valueDescriptions = getValueDescriptions();
-		double[] row = new double[valueDescriptions.size()];
+		Object[] values = new Object[valueDescriptions.size()];
 		int i = 0;
 		for (OperatorValueSelection selection : valueDescriptions) {
-			row[i] = fetchValue(selection, i);
+			values[i] = fetchValue(selection);
 			i++;
 		}
-		DataTableRow dataRow = new SimpleDataTableRow(row, null);
+		return values;
+	}
+
+	/**
+	 * Maps the nominal values and adds the row to the data table, replacing the worst row if only
+	 * the top-k or bottom-k rows are kept.
+	 */
+	private DataTableRow addToDataTable(Object[] values) throws UndefinedParameterError {
 		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
+		double[] row = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] instanceof String) {
+				row[i] = dataTable.mapString(i, (String) values[i]);
+			} else {
+				row[i] = (Double) values[i];
+			}
+		}
+		DataTableRow dataRow = new SimpleDataTableRow(row, null);
 
 		int sortingType = getParameterAsInt(PARAMETER_SORTING_TYPE);
 		if (sortingType == SORTING_TYPE_NONE || dataTable.getNumberOfRows() < getParameterAsInt(PARAMETER_SORTING_K)) {
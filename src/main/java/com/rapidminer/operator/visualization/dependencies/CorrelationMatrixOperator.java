@@ -29,7 +29,7 @@ import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.GenerateNewMDRule;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
-import com.rapidminer.tools.math.MathFunctions;
+import com.rapidminer.tools.math.matrix.BlockedCovariance;
 
 import java.util.List;
 
@@ -45,8 +45,8 @@ import java.util.List;
  * </p>
  * <p>
  * <p>
- * Please note that this simple implementation performs a data scan for each attribute combination
- * and might therefore take some time for non-memory example tables.
+ * The correlations of all attribute combinations are computed in a single data scan, the
+ * combinations are distributed over multiple threads.
  * </p>
  *
  * @author Ingo Mierswa
@@ -93,23 +93,14 @@ public class CorrelationMatrixOperator extends Operator {
 		boolean squared = getParameterAsBoolean(PARAMETER_SQUARED_CORRELATION);
 		boolean createWeights = getParameterAsBoolean(PARAMETER_CREATE_WEIGHTS);
 		boolean normalizeWeights = getParameterAsBoolean(PARAMETER_NORMALIZE_WEIGHTS);
-		int k = 0;
-		long progressCounter = 0;
-		getProgress().setTotal(100);
-		long batch = Math.max(1L, exampleSet.getAttributes().size() * (long) exampleSet.getAttributes().size() / 100);
+		getProgress().setTotal(exampleSet.size());
 		Attribute[] regularAttributes = exampleSet.getAttributes().createRegularAttributeArray();
-		for (Attribute firstAttribute : regularAttributes) {
-			int l = 0;
-			for (Attribute secondAttribute : regularAttributes) {
-				matrix.setValue(k, l,
-						MathFunctions.correlation(exampleSet, firstAttribute, secondAttribute, squared || createWeights));
-				l++;
-				if (++progressCounter % batch == 0 || progressCounter % 1000 == 0) {
-					getProgress().setCompleted((int) (progressCounter * 100
-							/ (exampleSet.getAttributes().size() * (long) exampleSet.getAttributes().size())));
-				}
+		double[][] correlations = BlockedCovariance.correlation(exampleSet, regularAttributes, squared || createWeights,
+				this, getProgress());
+		for (int k = 0; k < correlations.length; k++) {
+			for (int l = 0; l < correlations.length; l++) {
+				matrix.setValue(k, l, correlations[k][l]);
 			}
-			k++;
 		}
 
 		AttributeWeights weights = new AttributeWeights();
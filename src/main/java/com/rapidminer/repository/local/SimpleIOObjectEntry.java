@@ -18,22 +18,30 @@
 */
 package com.rapidminer.repository.local;
 
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.operator.tools.ColumnarExampleSetSerializer;
 import com.rapidminer.operator.tools.ExampleSetToStream;
 import com.rapidminer.operator.tools.IOObjectSerializer;
 import com.rapidminer.operator.tools.RMObjectInputStream;
+import com.rapidminer.operator.tools.SerializationType;
 import com.rapidminer.repository.Folder;
 import com.rapidminer.repository.IOObjectEntry;
 import com.rapidminer.repository.RepositoryException;
+import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.ProgressListener;
 import com.rapidminer.tools.plugin.Plugin;
 
 import java.io.*;
 import java.lang.ref.WeakReference;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 
 /**
@@ -46,6 +54,7 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 
 	private static final String MD_SUFFIX = ".md";
 	private static final String IOO_SUFFIX = ".ioo";
+	private static final String TEMP_SUFFIX = ".tmp";
 
 	private static final String PROPERTY_IOOBJECT_CLASS = "ioobject-class";
 
@@ -84,9 +93,18 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 		}
 		File dataFile = getDataFile();
 		if (dataFile.exists()) {
-			try (FileInputStream fis = new FileInputStream(dataFile);
-					BufferedInputStream in = new BufferedInputStream(fis)) {
-				return (IOObject) IOObjectSerializer.getInstance().deserialize(in);
+			boolean mapColumnar = Boolean.parseBoolean(
+					ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_MAP_REPOSITORY_DATA));
+			try {
+				try (FileInputStream fis = new FileInputStream(dataFile);
+						BufferedInputStream in = new BufferedInputStream(fis)) {
+					SerializationType type = IOObjectSerializer.getInstance().deserializeHeader(in);
+					if (!mapColumnar || type != SerializationType.COLUMNAR_EXAMPLE_SET) {
+						return (IOObject) type.getBodySerializer().deserialize(in);
+					}
+				}
+				// columnar example sets are mapped and only read when accessed
+				return ColumnarExampleSetSerializer.readMapped(dataFile);
 			} catch (Exception e) {
 				throw new RepositoryException("Cannot load data from '" + dataFile + "': " + e, e);
 			}
@@ -135,13 +153,32 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 		}
 		MetaData md = MetaData.forIOObject(data);
 		// Serialize Non-ExampleSets as IOO
-		try (FileOutputStream fos = new FileOutputStream(getDataFile()); OutputStream out = new BufferedOutputStream(fos)) {
-			IOObjectSerializer.getInstance().serialize(out, data);
+		File dataFile = getDataFile();
+		File tempFile = new File(dataFile.getParentFile(), dataFile.getName() + TEMP_SUFFIX);
+		try {
+			try (FileOutputStream fos = new FileOutputStream(tempFile); OutputStream out = new BufferedOutputStream(fos)) {
+				if (data instanceof ExampleSet && Boolean.parseBoolean(
+						ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_DATA))) {
+					// column by column is faster to write and read, but older versions cannot read it
+					IOObjectSerializer.getInstance().serialize(out, data, SerializationType.COLUMNAR_EXAMPLE_SET);
+				} else {
+					IOObjectSerializer.getInstance().serialize(out, data);
+				}
+			}
+			// replacing instead of overwriting the file keeps example sets mapped from the old file
+			// intact
+			try {
+				Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
 			if (l != null) {
 				l.setCompleted(75);
 			}
 		} catch (Exception e) {
-			throw new RepositoryException("Cannot store data at '" + getDataFile() + "': " + e, e);
+			tempFile.delete();
+			throw new RepositoryException("Cannot store data at '" + dataFile + "': " + e, e);
 		}
 		// Save MetaData
 		try (FileOutputStream fos = new FileOutputStream(getMetaDataFile());
@@ -72,7 +72,8 @@ public interface ConcurrencyExecutionService {
 
     /**
      * This method executes the given process in the background. This method does
-     * <strong>not</strong> block.
+     * <strong>not</strong> block. Implementations start the process via
+     * {@link #scheduleProcess(ProcessBackgroundExecution, Callable)}.
      * </p>
      *
      * @param process The process to be executed in the background
@@ -94,6 +95,26 @@ public interface ConcurrencyExecutionService {
      */
     void executeProcess(Process process, IOContainer container, Map<String, String> macroSettings) throws UserError;
 
+    /**
+     * Schedules the run of a background process with the admission control of the
+     * {@link ProcessScheduler}: the process stays pending while the maximal number of background
+     * processes is running or the free memory is below the reserve. The future of the run is set as
+     * results of the execution state.
+     * <p>
+     * This method does <strong>not</strong> block.
+     * </p>
+     *
+     * @param execution the execution of the process
+     * @param run       runs the process and returns its results
+     * @return the future of the run
+     * @since 7.6.1
+     */
+    default Future<IOContainer> scheduleProcess(ProcessBackgroundExecution execution, Callable<IOContainer> run) {
+		Future<IOContainer> future = ProcessScheduler.INSTANCE.submit(execution.getProcess(), 0, run);
+		execution.getBackgroundExecutionState().setResults(future);
+		return future;
+	}
+
     /**
      * This method will prepare an operator with subprocesses, that should be performed in parallel
      * as specified by the given {@link Callable}. The operator will be added to an otherwise empty
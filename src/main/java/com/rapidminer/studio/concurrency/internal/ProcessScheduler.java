@@ -0,0 +1,311 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.studio.concurrency.internal;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.studio.internal.ParameterServiceRegistry;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.LogService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+
+/**
+ * Runs background processes with admission control. Processes are started in submission order as
+ * long as less than {@link RapidMiner#PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES} processes
+ * are running and the estimated free heap exceeds the memory reserve of
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_GENERAL_PROCESS_MEMORY_RESERVE} or the estimated memory of
+ * the process. Otherwise the processes are queued until a running process finishes or memory is
+ * released. If no process is running, the next one is always started.
+ * <p>
+ * The operators of all processes share the global thread budget of the {@link ConcurrencyContext}s,
+ * the per-process budget is enforced by the {@link StudioConcurrencyContext}, which also accounts
+ * the CPU time of the process, see {@link #getCpuTime(Process)}.
+ * <p>
+ * Note that this part of the API is only temporary and might be removed in future versions again.
+ * </p>
+ *
+ * @since 7.6.1
+ */
+public final class ProcessScheduler {
+
+    /**
+     * the scheduler used for background processes
+     */
+    public static final ProcessScheduler INSTANCE = new ProcessScheduler(ProcessScheduler::getFreeMemory);
+
+	/** The delay in milliseconds before the memory of a queued process is checked again. */
+	private static final long MEMORY_RETRY_DELAY = 1000;
+
+	/** The processes waiting for admission, guarded by itself. */
+	private final Deque<ScheduledProcess<?>> queue = new ArrayDeque<>();
+
+	/** The number of running processes, guarded by {@link #queue}. */
+	private int running = 0;
+
+	/** Whether a memory check is already scheduled, guarded by {@link #queue}. */
+	private boolean retryScheduled = false;
+
+	/** Estimates the free heap in bytes. */
+	private final LongSupplier freeMemory;
+
+	/** Runs the admitted processes. */
+	private final ExecutorService executor = Executors.newCachedThreadPool(new SchedulerThreadFactory("process"));
+
+	/** Repeats the admission if processes wait for memory. */
+	private final ScheduledExecutorService timer = Executors
+			.newSingleThreadScheduledExecutor(new SchedulerThreadFactory("admission"));
+
+	/**
+	 * Creates a scheduler which estimates the free heap with the given supplier.
+	 *
+	 * @param freeMemory
+	 *            returns the free heap in bytes
+	 */
+	ProcessScheduler(LongSupplier freeMemory) {
+		this.freeMemory = freeMemory;
+	}
+
+    /**
+     * Schedules the given task, usually the run of the given process, for execution in the
+     * background. This method does <strong>not</strong> block.
+     *
+     * @param <T>             the result type of the task
+     * @param process         the process executed by the task
+     * @param estimatedMemory the estimated memory in bytes the process needs, {@code 0} if unknown
+     * @param task            the task to run
+     * @return the future of the task; cancelling it before the start removes the process from the
+     *         queue
+     */
+    public <T> Future<T> submit(Process process, long estimatedMemory, Callable<T> task) {
+		if (process == null) {
+			throw new IllegalArgumentException("process must not be null");
+		}
+		if (task == null) {
+			throw new IllegalArgumentException("task must not be null");
+		}
+		ScheduledProcess<T> scheduled = new ScheduledProcess<>(estimatedMemory, task);
+		synchronized (queue) {
+			queue.add(scheduled);
+		}
+		dispatch();
+		return scheduled;
+	}
+
+    /**
+     * Returns the number of processes waiting for admission.
+     *
+     * @return the number of queued processes
+     */
+    public int getQueuedCount() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+    /**
+     * Returns the number of running processes submitted to this scheduler.
+     *
+     * @return the number of running processes
+     */
+    public int getRunningCount() {
+		synchronized (queue) {
+			return running;
+		}
+	}
+
+    /**
+     * Returns the CPU time spent for the given process so far, i.e. the time of its operator tasks
+     * and of the threads that ran it.
+     *
+     * @param process the process
+     * @return the CPU time in nanoseconds or {@code 0} if it cannot be measured
+     */
+    public static long getCpuTime(Process process) {
+		ConcurrencyContext context = Resources.getConcurrencyContext(process.getRootOperator());
+		if (context instanceof StudioConcurrencyContext) {
+			return ((StudioConcurrencyContext) context).getCpuTime();
+		}
+		return 0;
+	}
+
+	/**
+	 * Starts queued processes in submission order as long as the budgets allow it.
+	 */
+	private void dispatch() {
+		List<ScheduledProcess<?>> admitted = new ArrayList<>();
+		boolean retry = false;
+		synchronized (queue) {
+			int maximalProcesses = getMaximalNumberOfProcesses();
+			while (!queue.isEmpty() && running < maximalProcesses) {
+				ScheduledProcess<?> next = queue.peek();
+				if (next.isCancelled()) {
+					queue.poll();
+					continue;
+				}
+				if (running > 0 && !hasMemoryFor(next)) {
+					// keep the order, otherwise large processes would starve
+					retry = !retryScheduled;
+					retryScheduled = true;
+					break;
+				}
+				queue.poll();
+				running++;
+				admitted.add(next);
+			}
+		}
+		for (ScheduledProcess<?> process : admitted) {
+			executor.execute(process);
+		}
+		if (retry) {
+			LogService.getRoot().log(Level.FINE, "com.rapidminer.concurrency.process_scheduler.memory_queued");
+			timer.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					synchronized (queue) {
+						retryScheduled = false;
+					}
+					dispatch();
+				}
+			}, MEMORY_RETRY_DELAY, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Frees the slot of a finished process.
+	 */
+	private void finished() {
+		synchronized (queue) {
+			running--;
+		}
+		dispatch();
+	}
+
+	/**
+	 * Checks whether the free heap suffices to start the given process.
+	 */
+	private boolean hasMemoryFor(ScheduledProcess<?> process) {
+		return freeMemory.getAsLong() >= Math.max(process.estimatedMemory,
+				getMemoryReserve(Runtime.getRuntime().maxMemory()));
+	}
+
+	/**
+	 * Estimates the free heap as the maximal heap minus the used heap.
+	 */
+	private static long getFreeMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+	}
+
+	/**
+	 * Returns the configured memory reserve in bytes.
+	 */
+	private static long getMemoryReserve(long maxMemory) {
+		int reserve = parseSetting(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PROCESS_MEMORY_RESERVE);
+		if (reserve <= 0) {
+			return maxMemory / 8;
+		}
+		return reserve * 1024L * 1024L;
+	}
+
+	/**
+	 * Returns the maximal number of processes running at the same time.
+	 */
+	private static int getMaximalNumberOfProcesses() {
+		int processes = parseSetting(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES);
+		if (processes <= 0) {
+			return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		}
+		return processes;
+	}
+
+	/**
+	 * Parses the given integer setting, returns {@code 0} if it is not set or invalid.
+	 */
+	private static int parseSetting(String key) {
+		String value = ParameterServiceRegistry.INSTANCE.getParameterValue(key);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				// ignore and use default value
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * A queued process which frees its slot when done.
+	 */
+	private final class ScheduledProcess<T> extends FutureTask<T> {
+
+		private final long estimatedMemory;
+
+		private ScheduledProcess(long estimatedMemory, Callable<T> task) {
+			super(task);
+			this.estimatedMemory = estimatedMemory;
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				finished();
+			}
+		}
+	}
+
+	/**
+	 * Creates named daemon threads, so that queued processes do not prevent the shutdown.
+	 */
+	private static final class SchedulerThreadFactory implements ThreadFactory {
+
+		private final String name;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private SchedulerThreadFactory(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "ProcessScheduler-" + name + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
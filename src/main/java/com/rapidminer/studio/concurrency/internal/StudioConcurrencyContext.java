@@ -26,12 +26,17 @@ import com.rapidminer.studio.internal.ParameterServiceRegistry;
 import com.rapidminer.studio.internal.ProcessStoppedRuntimeException;
 import com.rapidminer.tools.LogService;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
@@ -40,6 +45,14 @@ import java.util.logging.Level;
 /**
  * Simple {@link ConcurrencyContext} to be used with a single {@link Process}.
  * <p>
+ * All contexts share a single {@link ForkJoinPool} whose parallelism is the global thread budget.
+ * If {@link RapidMiner#PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS} is set, at most
+ * that many tasks of a process are handed to the pool at the same time and the remaining ones wait
+ * in a queue of the context, so that a single process cannot occupy the whole pool. The CPU time
+ * spent in the tasks of the process and, added by {@link Process#run}, in the process thread is
+ * accounted, see {@link #getCpuTime()}. Background processes are admitted by the
+ * {@link ProcessScheduler}.
+ * <p>
  * The context does not implement the submission methods for {@link ForkJoinTask}s.
  *
  * @author Gisa Schaefer, Michael Knopf
@@ -62,9 +75,24 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 	/** The fork join pool all task are submitted to. */
 	private static ForkJoinPool pool = null;
 
+	/** The context whose task is currently executed by a thread, used to detect nested submissions. */
+	private static final ThreadLocal<StudioConcurrencyContext> EXECUTING_CONTEXT = new ThreadLocal<>();
+
+	/** Used to measure the CPU time of the tasks. */
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
 	/** The corresponding process. */
 	private final Process process;
 
+	/** Tasks waiting for a free slot of the per-process budget, guarded by itself. */
+	private final Deque<Runnable> waitingTasks = new ArrayDeque<>();
+
+	/** The number of tasks handed to the pool and not yet finished, guarded by {@link #waitingTasks}. */
+	private int runningTasks = 0;
+
+	/** The CPU time in nanoseconds spent for the process. */
+	private final AtomicLong cpuTime = new AtomicLong();
+
     /**
      * Creates a new {@link ConcurrencyContext} for the given {@link Process}.
      * <p>
@@ -139,14 +167,24 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 			}
 		}
 
-		// submit callables without further checks
+		// submit callables without further checks; tasks submitted by tasks of this context are
+		// already covered by the budget of their parent and must not wait for it to avoid deadlocks
 		final List<Future<T>> futures = new ArrayList<>(callables.size());
+		final boolean nested = EXECUTING_CONTEXT.get() == this;
+		final int budget = getProcessParallelismLevel();
 		AccessController.doPrivileged(new PrivilegedAction<Void>() {
 
 			@Override
 			public Void run() {
+				ForkJoinPool forkJoinPool = getForkJoinPool();
+				boolean throttled = !nested && budget < forkJoinPool.getParallelism();
 				for (Callable<T> callable : callables) {
-					futures.add(getForkJoinPool().submit(callable));
+					Callable<T> accounted = new AccountedCallable<>(callable);
+					if (throttled) {
+						futures.add(submitThrottled(accounted, budget));
+					} else {
+						futures.add(forkJoinPool.submit(accounted));
+					}
 				}
 				return null;
 			}
@@ -154,6 +192,56 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 		return futures;
 	}
 
+	/**
+	 * Hands the given task to the pool if less than budget tasks of this context are running,
+	 * otherwise queues it until a running task finishes.
+	 */
+	private <T> Future<T> submitThrottled(Callable<T> callable, int budget) {
+		final FutureTask<T> future = new FutureTask<>(callable);
+		Runnable slot = new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					future.run();
+				} finally {
+					releaseSlot();
+				}
+			}
+		};
+		synchronized (waitingTasks) {
+			if (runningTasks >= budget) {
+				waitingTasks.add(slot);
+				return future;
+			}
+			runningTasks++;
+		}
+		getForkJoinPool().execute(slot);
+		return future;
+	}
+
+	/**
+	 * Passes the slot of a finished task on to the next waiting task.
+	 */
+	private void releaseSlot() {
+		final Runnable next;
+		synchronized (waitingTasks) {
+			next = waitingTasks.poll();
+			if (next == null) {
+				runningTasks--;
+				return;
+			}
+		}
+		AccessController.doPrivileged(new PrivilegedAction<Void>() {
+
+			@Override
+			public Void run() {
+				getForkJoinPool().execute(next);
+				return null;
+			}
+		});
+	}
+
 	@Override
 	public <T> List<T> collectResults(List<Future<T>> futures)
 			throws ExecutionException, ExecutionStoppedException, IllegalArgumentException {
@@ -208,11 +296,54 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 
 	@Override
 	public int getParallelism() {
+		int parallelism;
 		if (pool != null) {
-			return getForkJoinPool().getParallelism();
+			parallelism = getForkJoinPool().getParallelism();
 		} else {
-			return getDesiredParallelismLevel();
+			parallelism = getDesiredParallelismLevel();
 		}
+		return Math.min(parallelism, getProcessParallelismLevel());
+	}
+
+    /**
+     * Returns the CPU time spent for the process, i.e. in the tasks submitted to this context and the
+     * time added via {@link #addCpuTime(long)}. Tasks submitted by other tasks of the context are
+     * accounted to their parent. If the JVM does not support measuring the CPU time of threads, this
+     * is always {@code 0}.
+     *
+     * @return the CPU time in nanoseconds
+     * @since 7.6.1
+     */
+    public long getCpuTime() {
+		return cpuTime.get();
+	}
+
+    /**
+     * Accounts CPU time spent for the process outside of the tasks of this context, e.g. in the
+     * thread running the process.
+     *
+     * @param nanos the CPU time in nanoseconds
+     * @since 7.6.1
+     */
+    public void addCpuTime(long nanos) {
+		cpuTime.addAndGet(nanos);
+	}
+
+    /**
+     * Returns the CPU time of the current thread.
+     *
+     * @return the CPU time in nanoseconds or {@code 0} if it cannot be measured
+     * @since 7.6.1
+     */
+    public static long getCurrentThreadCpuTime() {
+		try {
+			if (THREAD_BEAN.isCurrentThreadCpuTimeSupported()) {
+				return Math.max(0, THREAD_BEAN.getCurrentThreadCpuTime());
+			}
+		} catch (UnsupportedOperationException e) {
+			// cannot be measured
+		}
+		return 0;
 	}
 
 	@Override
@@ -281,6 +412,25 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 		return getDesiredParallelismLevel() != pool.getParallelism();
 	}
 
+	/**
+	 * Returns the maximal number of tasks of a single process that run at the same time.
+	 *
+	 * @return the per-process budget or {@link Integer#MAX_VALUE} if it is not restricted
+	 */
+	private static int getProcessParallelismLevel() {
+		String threadsPerProcess = ParameterServiceRegistry.INSTANCE
+				.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS);
+		int level = 0;
+		if (threadsPerProcess != null) {
+			try {
+				level = Integer.parseInt(threadsPerProcess);
+			} catch (NumberFormatException e) {
+				// ignore and use default value
+			}
+		}
+		return level > 0 ? level : Integer.MAX_VALUE;
+	}
+
 	/**
 	 * Returns the desired number of cores to be used for concurrent computations. This number is
 	 * always at least one and either bound by a license limit or by the user's configuration.
@@ -315,4 +465,39 @@ public class StudioConcurrencyContext implements ConcurrencyContext {
 		}
 		return userLevel;
 	}
+
+	/**
+	 * Wraps a task to mark the executing thread and to account the CPU time of the task to this
+	 * context.
+	 */
+	private final class AccountedCallable<T> implements Callable<T> {
+
+		private final Callable<T> callable;
+
+		private AccountedCallable(Callable<T> callable) {
+			this.callable = callable;
+		}
+
+		@Override
+		public T call() throws Exception {
+			StudioConcurrencyContext previous = EXECUTING_CONTEXT.get();
+			if (previous != null) {
+				// the thread helps out while joining, the time is accounted by the outer task
+				EXECUTING_CONTEXT.set(StudioConcurrencyContext.this);
+				try {
+					return callable.call();
+				} finally {
+					EXECUTING_CONTEXT.set(previous);
+				}
+			}
+			long start = getCurrentThreadCpuTime();
+			EXECUTING_CONTEXT.set(StudioConcurrencyContext.this);
+			try {
+				return callable.call();
+			} finally {
+				EXECUTING_CONTEXT.remove();
+				cpuTime.addAndGet(getCurrentThreadCpuTime() - start);
+			}
+		}
+	}
 }
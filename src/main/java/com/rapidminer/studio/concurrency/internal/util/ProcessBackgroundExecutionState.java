@@ -26,6 +26,7 @@ import com.rapidminer.operator.IOContainer;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ProcessScheduler;
 import com.rapidminer.tools.SimpleObservable;
 import com.rapidminer.tools.Tools;
 
@@ -84,6 +85,7 @@ public class ProcessBackgroundExecutionState extends SimpleObservable<ProcessBac
 	private List<IOObject> results;
 	private Path logFilePath;
 	private Process process;
+	private long cpuTime;
 
     /**
      * Instantiates a new Process background execution state.
@@ -291,6 +293,21 @@ public class ProcessBackgroundExecutionState extends SimpleObservable<ProcessBac
 		return processLogs;
 	}
 
+    /**
+     * Returns the CPU time spent for the process so far, see
+     * {@link ProcessScheduler#getCpuTime(Process)}.
+     *
+     * @return the CPU time in nanoseconds
+     * @since 7.6.1
+     */
+    public long getCpuTime() {
+		Process current = process;
+		if (current != null) {
+			cpuTime = ProcessScheduler.getCpuTime(current);
+		}
+		return cpuTime;
+	}
+
     /**
      * Gets state.
      *
@@ -326,6 +343,7 @@ public class ProcessBackgroundExecutionState extends SimpleObservable<ProcessBac
 	 * state.
 	 */
 	private void cleanup() {
+		this.cpuTime = ProcessScheduler.getCpuTime(process);
 		this.process.getRootOperator().removeProcessListener(processListener);
 		this.process.removeLoggingListener(loggingListener);
 		this.process = null;
@@ -140,6 +140,25 @@ public class RandomGenerator extends Random {
 		return GLOBAL_RANDOM_GENERATOR_MAP.get(null);
 	}
 
+    /**
+     * Sets the global random number generator of the current thread, e.g. for a thread executing
+     * operators of a process in parallel to others. Passing {@code null} removes the generator of
+     * the thread again.
+     *
+     * @param generator the random generator or {@code null}
+     * @return the generator of the thread set before or {@code null}, can be used to restore it
+     * @since 7.6.1
+     */
+    public static RandomGenerator setGlobalRandomGenerator(RandomGenerator generator) {
+		RandomGenerator previous = GLOBAL_RANDOM_GENERATOR.get();
+		if (generator == null) {
+			GLOBAL_RANDOM_GENERATOR.remove();
+		} else {
+			GLOBAL_RANDOM_GENERATOR.set(generator);
+		}
+		return previous;
+	}
+
     /**
      * Returns the global random number generator if useLocalGenerator is false and a new
      * RandomGenerator with the given seed if the seed is positive or zero. This way is is possible
@@ -19,6 +19,7 @@
 package com.rapidminer.tools.expression;
 
 import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
@@ -29,7 +30,10 @@ import com.rapidminer.tools.expression.FunctionInput.Category;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -44,10 +48,37 @@ import java.util.List;
 public class ExampleResolver implements Resolver {
 
 	/**
-	 * A thread local {@link Example} in order to allow to split the evaluation of
+	 * The example bound to a thread together with the attributes already looked up by name in its
+	 * example set, so that the attributes are not searched again for every example.
+	 */
+	private static final class Binding {
+
+		private Example example;
+		private Attributes attributes;
+		private int generation;
+		private final Map<String, Attribute> attributesByName = new HashMap<>();
+
+		private Attribute getAttribute(String name) {
+			Attribute attribute = attributesByName.get(name);
+			if (attribute == null) {
+				attribute = attributes.get(name);
+				attributesByName.put(name, attribute);
+			}
+			return attribute;
+		}
+	}
+
+	/**
+	 * A thread local {@link Binding} in order to allow to split the evaluation of
 	 * {@link Expression}s over more than one thread.
 	 */
-	private final ThreadLocal<Example> exampleThreadLocal = new ThreadLocal<Example>();
+	private final ThreadLocal<Binding> bindingThreadLocal = new ThreadLocal<Binding>();
+
+	/** The expression types of the variables already looked up. */
+	private final Map<String, ExpressionType> variableTypes = new ConcurrentHashMap<>();
+
+	/** Incremented whenever the meta data changes, invalidating the looked up attributes. */
+	private volatile int generation;
 
 	private final ExampleSetMetaData metaData;
 
@@ -97,7 +128,17 @@ public class ExampleResolver implements Resolver {
      * @param example an example with the same meta data as the resolver was constructed with
      */
     public void bind(Example example) {
-		exampleThreadLocal.set(example);
+		Binding binding = bindingThreadLocal.get();
+		if (binding == null) {
+			binding = new Binding();
+			bindingThreadLocal.set(binding);
+		}
+		if (binding.attributes != example.getAttributes() || binding.generation != generation) {
+			binding.attributes = example.getAttributes();
+			binding.generation = generation;
+			binding.attributesByName.clear();
+		}
+		binding.example = example;
 	}
 
     /**
@@ -106,7 +147,9 @@ public class ExampleResolver implements Resolver {
      * might result in an undefined state.
      */
     public void unbind() {
-		exampleThreadLocal.remove();
+		// the looked up attributes are kept while examples are bound, removing the binding
+		// avoids memory leaks in pooled threads
+		bindingThreadLocal.remove();
 	}
 
     /**
@@ -116,6 +159,8 @@ public class ExampleResolver implements Resolver {
      */
     public void addAttributeMetaData(AttributeMetaData amd) {
 		this.metaData.addAttribute(amd);
+		variableTypes.clear();
+		generation++;
 	}
 
 	@Override
@@ -138,12 +183,19 @@ public class ExampleResolver implements Resolver {
 
 	@Override
 	public ExpressionType getVariableType(String variableName) {
-		AttributeMetaData attributeMetaData = metaData.getAttributeByName(variableName);
-		if (attributeMetaData == null) {
-			return null;
+		ExpressionType type = variableTypes.get(variableName);
+		if (type == null) {
+			AttributeMetaData attributeMetaData = metaData.getAttributeByName(variableName);
+			if (attributeMetaData == null) {
+				return null;
+			}
+			int ontologyValueType = attributeMetaData.getValueType();
+			type = ExpressionType.getExpressionType(ontologyValueType);
+			if (type != null) {
+				variableTypes.put(variableName, type);
+			}
 		}
-		int ontologyValueType = attributeMetaData.getValueType();
-		return ExpressionType.getExpressionType(ontologyValueType);
+		return type;
 	}
 
 	@Override
@@ -151,8 +203,9 @@ public class ExampleResolver implements Resolver {
 		if (!(getVariableType(variableName) == ExpressionType.STRING)) {
 			throw new IllegalStateException("the variable " + variableName + " does not have a String value");
 		}
-		Example example = getNonNullExample();
-		Attribute attribute = example.getAttributes().get(variableName);
+		Binding binding = getNonNullBinding();
+		Example example = binding.example;
+		Attribute attribute = binding.getAttribute(variableName);
 		if (Double.isNaN(example.getValue(attribute))) {
 			return null;
 		} else {
@@ -161,28 +214,28 @@ public class ExampleResolver implements Resolver {
 	}
 
 	/**
-	 * Gets the thread local example and checks that it is not {@code null}.
+	 * Gets the thread local binding and checks that an example is bound.
 	 */
-	private Example getNonNullExample() {
-		Example example = exampleThreadLocal.get();
-		if (example == null) {
+	private Binding getNonNullBinding() {
+		Binding binding = bindingThreadLocal.get();
+		if (binding == null || binding.example == null) {
 			throw new IllegalStateException("no example was bound");
 		}
-		return example;
+		return binding;
 	}
 
 	@Override
 	public double getDoubleValue(String variableName) {
-		if (!(getVariableType(variableName) == ExpressionType.DOUBLE
-		        || getVariableType(variableName) == ExpressionType.INTEGER)) {
+		ExpressionType type = getVariableType(variableName);
+		if (!(type == ExpressionType.DOUBLE || type == ExpressionType.INTEGER)) {
 			throw new IllegalStateException("the variable " + variableName + " does not have a double value");
 		}
-		Example example = getNonNullExample();
-		Attribute attribute = example.getAttributes().get(variableName);
-		if (getVariableType(variableName) == ExpressionType.INTEGER) {
-			return Math.floor(example.getNumericalValue(attribute));
+		Binding binding = getNonNullBinding();
+		double value = binding.example.getNumericalValue(binding.getAttribute(variableName));
+		if (type == ExpressionType.INTEGER) {
+			return Math.floor(value);
 		} else {
-			return example.getNumericalValue(attribute);
+			return value;
 		}
 	}
 
@@ -196,8 +249,9 @@ public class ExampleResolver implements Resolver {
 		if (!(getVariableType(variableName) == ExpressionType.DATE)) {
 			throw new IllegalStateException("the variable " + variableName + " does not have a date value");
 		}
-		Example example = getNonNullExample();
-		Attribute attribute = example.getAttributes().get(variableName);
+		Binding binding = getNonNullBinding();
+		Example example = binding.example;
+		Attribute attribute = binding.getAttribute(variableName);
 		if (Double.isNaN(example.getValue(attribute))) {
 			return null;
 		} else {
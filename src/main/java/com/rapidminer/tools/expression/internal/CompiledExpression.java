@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression.internal;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.tools.expression.ExpressionType;
+
+
+/**
+ * An expression compiled to a generated class that reads the values of its attributes directly
+ * from the examples, without binding them to an {@link com.rapidminer.tools.expression.ExampleResolver}.
+ * Only numerical and boolean expressions are compiled. Boolean results are encoded as {@code 1}
+ * for {@code true}, {@code 0} for {@code false} and {@link Double#NaN} for missing values, which
+ * are the indices of the values of a new binominal attribute.
+ * <p>
+ * The static methods are used by the generated classes and implement the semantics of the
+ * functions of the expression parser on this encoding.
+ *
+ * @author Gisa Schaefer
+ * @since 7.6.1
+ */
+public abstract class CompiledExpression {
+
+	private final ExpressionType type;
+
+	/** The names of the attributes read by the expression. */
+	protected final String[] attributeNames;
+
+	/** The attributes read by the expression, in the order of {@link #attributeNames}. */
+	protected final Attribute[] attributes;
+
+    /**
+     * Creates a compiled expression reading the given attributes.
+     *
+     * @param type           the type of the expression, either numerical or boolean
+     * @param attributeNames the names of the attributes read by the expression
+     * @param attributes     the attributes with the given names
+     */
+    protected CompiledExpression(ExpressionType type, String[] attributeNames, Attribute[] attributes) {
+		this.type = type;
+		this.attributeNames = attributeNames;
+		this.attributes = attributes;
+	}
+
+    /**
+     * Returns the type of the expression.
+     *
+     * @return the expression type, either {@link ExpressionType#DOUBLE}, {@link ExpressionType#INTEGER} or {@link ExpressionType#BOOLEAN}
+     */
+    public ExpressionType getExpressionType() {
+		return type;
+	}
+
+    /**
+     * Evaluates the expression for the given example, which must belong to the example set this
+     * expression was compiled or bound for.
+     *
+     * @param example the example
+     * @return the numerical result or the encoded boolean result
+     */
+    public abstract double evaluate(Example example);
+
+    /**
+     * Creates a copy of this expression that reads the attributes with the same names from the
+     * given example set.
+     *
+     * @param exampleSet the example set to read the examples from
+     * @return the bound expression or {@code null} if the example set misses one of the attributes
+     */
+    public CompiledExpression bind(ExampleSet exampleSet) {
+		Attribute[] bound = new Attribute[attributeNames.length];
+		for (int i = 0; i < bound.length; i++) {
+			bound[i] = exampleSet.getAttributes().get(attributeNames[i]);
+			if (bound[i] == null || !bound[i].isNumerical()) {
+				return null;
+			}
+		}
+		return newInstance(bound);
+	}
+
+    /**
+     * Creates a new instance of the generated class reading the given attributes.
+     *
+     * @param attributes the attributes to read
+     * @return the new instance
+     */
+    protected abstract CompiledExpression newInstance(Attribute[] attributes);
+
+    /**
+     * Converts a numerical value to the boolean encoding, like the logical functions do.
+     *
+     * @param value the value
+     * @return the encoded boolean value
+     */
+    protected static double truth(double value) {
+		if (Double.isNaN(value)) {
+			return Double.NaN;
+		}
+		return Math.abs(value) < Double.MIN_VALUE * 2 ? 0 : 1;
+	}
+
+    /**
+     * Logical and of two encoded booleans or numerical values.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double and(double left, double right) {
+		if (Double.isNaN(left) || Double.isNaN(right)) {
+			return Double.NaN;
+		}
+		return truth(left) == 1 && truth(right) == 1 ? 1 : 0;
+	}
+
+    /**
+     * Logical or of two encoded booleans or numerical values.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double or(double left, double right) {
+		if (Double.isNaN(left) || Double.isNaN(right)) {
+			return Double.NaN;
+		}
+		return truth(left) == 1 || truth(right) == 1 ? 1 : 0;
+	}
+
+    /**
+     * Logical negation of an encoded boolean or numerical value.
+     *
+     * @param value the value
+     * @return the encoded result
+     */
+    protected static double not(double value) {
+		if (Double.isNaN(value)) {
+			return Double.NaN;
+		}
+		return truth(value) == 1 ? 0 : 1;
+	}
+
+    /**
+     * Tests whether a numerical or encoded boolean value is missing.
+     *
+     * @param value the value
+     * @return the encoded result
+     */
+    protected static double missing(double value) {
+		return Double.isNaN(value) ? 1 : 0;
+	}
+
+    /**
+     * Compares two numerical values, {@code false} if one of them is missing.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double lessThan(double left, double right) {
+		return left < right ? 1 : 0;
+	}
+
+    /**
+     * Compares two numerical values, {@code false} if one of them is missing.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double lessEqualThan(double left, double right) {
+		return left <= right ? 1 : 0;
+	}
+
+    /**
+     * Compares two numerical values, {@code false} if one of them is missing.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double greaterThan(double left, double right) {
+		return left > right ? 1 : 0;
+	}
+
+    /**
+     * Compares two numerical values, {@code false} if one of them is missing.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double greaterEqualThan(double left, double right) {
+		return left >= right ? 1 : 0;
+	}
+
+    /**
+     * Tests two numerical or two encoded boolean values for equality, two missing values are
+     * equal.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double equal(double left, double right) {
+		if (Double.isNaN(left) || Double.isNaN(right)) {
+			return Double.isNaN(left) && Double.isNaN(right) ? 1 : 0;
+		}
+		return left == right ? 1 : 0;
+	}
+
+    /**
+     * Negation of {@link #equal(double, double)}.
+     *
+     * @param left  the left value
+     * @param right the right value
+     * @return the encoded result
+     */
+    protected static double notEqual(double left, double right) {
+		return 1 - equal(left, right);
+	}
+
+    /**
+     * Selects one of two values by an encoded boolean or numerical condition, missing if the
+     * condition is missing.
+     *
+     * @param condition the condition
+     * @param ifValue   the value if the condition is true
+     * @param elseValue the value if the condition is false
+     * @return the selected value
+     */
+    protected static double select(double condition, double ifValue, double elseValue) {
+		if (Double.isNaN(condition)) {
+			return Double.NaN;
+		}
+		return truth(condition) == 1 ? ifValue : elseValue;
+	}
+
+}
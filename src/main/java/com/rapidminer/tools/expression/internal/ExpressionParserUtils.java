@@ -18,25 +18,36 @@
 */
 package com.rapidminer.tools.expression.internal;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.operator.ProcessStoppedException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.SetRelation;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.expression.*;
+import com.rapidminer.tools.expression.internal.antlr.AntlrParser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -47,6 +58,15 @@ import java.util.HashSet;
  */
 public final class ExpressionParserUtils {
 
+	/** The number of examples evaluated by one task in parallel evaluation. */
+	private static final int ROWS_PER_TASK = 1 << 14;
+
+	/** The number of tasks per thread evaluated before the values are written. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** The number of examples after which a task checks whether the process was stopped. */
+	private static final int STATUS_CHECK_INTERVAL = 1 << 10;
+
 	private ExpressionParserUtils() {
 		throw new UnsupportedOperationException("Static utility class");
 	}
@@ -143,9 +163,40 @@ public final class ExpressionParserUtils {
      */
     public static Attribute addAttribute(ExampleSet exampleSet, String name, String expression, ExpressionParser parser,
 			ExampleResolver resolver, Operator executingOperator) throws ProcessStoppedException, ExpressionException {
+		return addAttribute(exampleSet, name, expression, parser, resolver, executingOperator, false);
+	}
+
+    /**
+     * Like {@link #addAttribute(ExampleSet, String, String, ExpressionParser, ExampleResolver,
+     * Operator)}, but optionally evaluates the expression for chunks of examples in parallel using
+     * the {@link ConcurrencyContext} of the executing operator. The values are written to the
+     * example set in the order of the examples afterwards. Expressions using random numbers may
+     * deliver other values than for sequential evaluation, since the order in which the random
+     * numbers are drawn is not fixed.
+     * <p>
+     * Numerical and boolean expressions are compiled if possible, see
+     * {@link #compile(ExpressionParser, String, ExampleSet)}.
+     *
+     * @param exampleSet        the example set to which the generated attribute is added
+     * @param name              the new attribute name
+     * @param expression        the expression used to generate attribute values
+     * @param parser            the expression parser used to parse the expression argument
+     * @param resolver          the example resolver which is used by the parser to resolve example values
+     * @param executingOperator the operator calling this method. Must not be <code>null</code> for parallel
+     *                          evaluation
+     * @param parallel          whether the expression should be evaluated in parallel
+     * @return the attribute
+     * @throws ProcessStoppedException in case the process was stopped by the user
+     * @throws ExpressionException     in case parsing the expression fails
+     * @since 7.6.1
+     */
+    public static Attribute addAttribute(ExampleSet exampleSet, String name, String expression, ExpressionParser parser,
+			ExampleResolver resolver, Operator executingOperator, boolean parallel)
+			throws ProcessStoppedException, ExpressionException {
 
 		// parse the expression
 		Expression parsedExpression = parser.parse(expression);
+		CompiledExpression compiledExpression = compile(parser, expression, exampleSet);
 
 		Attribute newAttribute = null;
 		// if != null this needs to be overridden
@@ -183,34 +234,47 @@ public final class ExpressionParserUtils {
 		exampleSet.getAttributes().addRegular(newAttribute);
 
 		// create attribute of correct type and all values
-		for (Example example : exampleSet) {
-			if (executingOperator != null) {
-				executingOperator.checkForStop();
+		if (parallel && executingOperator != null && exampleSet.size() > ROWS_PER_TASK) {
+			evaluateInParallel(exampleSet, newAttribute, parsedExpression, compiledExpression, resolver,
+					executingOperator);
+		} else if (compiledExpression != null) {
+			// boolean results are encoded as the indices of false and true in the mapping
+			for (Example example : exampleSet) {
+				if (executingOperator != null) {
+					executingOperator.checkForStop();
+				}
+				example.setValue(newAttribute, compiledExpression.evaluate(example));
 			}
-
-			// bind example to resolver
-			resolver.bind(example);
-
-			// calculate result
+		} else {
 			try {
-				switch (resultType) {
-					case DOUBLE:
-					case INTEGER:
-						example.setValue(newAttribute, parsedExpression.evaluateNumerical());
-						break;
-					case DATE:
-						Date date = parsedExpression.evaluateDate();
-						example.setValue(newAttribute, date == null ? Double.NaN : date.getTime());
-						break;
-					default:
-						example.setValue(newAttribute, parsedExpression.evaluateNominal());
-						break;
+				for (Example example : exampleSet) {
+					if (executingOperator != null) {
+						executingOperator.checkForStop();
+					}
+
+					// bind example to resolver, the attributes looked up by name are kept between
+					// the examples
+					resolver.bind(example);
+
+					// calculate result
+					switch (resultType) {
+						case DOUBLE:
+						case INTEGER:
+							example.setValue(newAttribute, parsedExpression.evaluateNumerical());
+							break;
+						case DATE:
+							Date date = parsedExpression.evaluateDate();
+							example.setValue(newAttribute, date == null ? Double.NaN : date.getTime());
+							break;
+						default:
+							example.setValue(newAttribute, parsedExpression.evaluateNominal());
+							break;
+					}
 				}
 			} finally {
 				// avoid memory leaks
 				resolver.unbind();
 			}
-
 		}
 
 		// remove existing attribute (if necessary)
@@ -231,6 +295,138 @@ public final class ExpressionParserUtils {
 		return newAttribute;
 	}
 
+	/**
+	 * Evaluates the expression for chunks of examples in parallel and writes the values of each
+	 * round of chunks to the new attribute in the order of the examples. The values are not
+	 * written concurrently, since neither the example table nor the nominal mapping of the new
+	 * attribute support this. The compiled expression is used if it is not {@code null}.
+	 */
+	private static void evaluateInParallel(ExampleSet exampleSet, Attribute newAttribute, Expression parsedExpression,
+			CompiledExpression compiledExpression, ExampleResolver resolver, Operator executingOperator)
+			throws ProcessStoppedException, ExpressionException {
+		ConcurrencyContext context = Resources.getConcurrencyContext(executingOperator);
+		ExampleSet readSet = ExampleSets.createThreadSafeCopy(exampleSet);
+		CompiledExpression compiled = compiledExpression == null ? null : compiledExpression.bind(readSet);
+		ExpressionType resultType = parsedExpression.getExpressionType();
+		boolean nominal = compiled == null && resultType != ExpressionType.DOUBLE && resultType != ExpressionType.INTEGER
+				&& resultType != ExpressionType.DATE;
+		int size = exampleSet.size();
+		int roundSize = Math.min(size, ROWS_PER_TASK * TASKS_PER_THREAD * context.getParallelism());
+		double[] values = nominal ? null : new double[roundSize];
+		String[] nominalValues = nominal ? new String[roundSize] : null;
+
+		Iterator<Example> writer = exampleSet.iterator();
+		for (int start = 0; start < size; start += roundSize) {
+			int end = Math.min(size, start + roundSize);
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int taskStart = start; taskStart < end; taskStart += ROWS_PER_TASK) {
+				final int from = taskStart;
+				final int to = Math.min(end, taskStart + ROWS_PER_TASK);
+				final int offset = start;
+				tasks.add(() -> {
+					if (compiled != null) {
+						for (int row = from; row < to; row++) {
+							if ((row - from) % STATUS_CHECK_INTERVAL == 0) {
+								context.checkStatus();
+							}
+							values[row - offset] = compiled.evaluate(readSet.getExample(row));
+						}
+						return null;
+					}
+					try {
+						for (int row = from; row < to; row++) {
+							if ((row - from) % STATUS_CHECK_INTERVAL == 0) {
+								context.checkStatus();
+							}
+							resolver.bind(readSet.getExample(row));
+							switch (resultType) {
+								case DOUBLE:
+								case INTEGER:
+									values[row - offset] = parsedExpression.evaluateNumerical();
+									break;
+								case DATE:
+									Date date = parsedExpression.evaluateDate();
+									values[row - offset] = date == null ? Double.NaN : date.getTime();
+									break;
+								default:
+									nominalValues[row - offset] = parsedExpression.evaluateNominal();
+									break;
+							}
+						}
+					} finally {
+						resolver.unbind();
+					}
+					return null;
+				});
+			}
+			try {
+				context.call(tasks);
+			} catch (ExecutionException e) {
+				throw toExpressionException(e, executingOperator);
+			}
+
+			for (int row = start; row < end; row++) {
+				Example example = writer.next();
+				if (nominal) {
+					example.setValue(newAttribute, nominalValues[row - start]);
+				} else {
+					example.setValue(newAttribute, values[row - start]);
+				}
+			}
+			executingOperator.checkForStop();
+		}
+	}
+
+	/**
+	 * Converts the failure of a parallel evaluation. Expression exceptions and stops are passed on
+	 * as they are, other operator exceptions become the cause of an expression exception. Runtime
+	 * exceptions and errors are rethrown.
+	 */
+	private static ExpressionException toExpressionException(ExecutionException e, Operator executingOperator)
+			throws ProcessStoppedException {
+		if (e.getCause() instanceof ExpressionException) {
+			return (ExpressionException) e.getCause();
+		}
+		OperatorException cause;
+		try {
+			cause = ExecutionExceptionHandling.INSTANCE.processExecutionException(e, executingOperator.getProcess());
+		} catch (OperatorException thrown) {
+			cause = thrown;
+		}
+		if (cause instanceof ProcessStoppedException) {
+			throw (ProcessStoppedException) cause;
+		}
+		ExpressionException expressionException = new ExpressionException(cause.getMessage());
+		expressionException.initCause(cause);
+		return expressionException;
+	}
+
+    /**
+     * Compiles the expression to a generated class reading the attribute values of the example
+     * set directly, if the parser supports this. Only numerical and boolean expressions using
+     * numerical attributes, the operators and the elementary logical and mathematical functions
+     * are compiled. Boolean results are encoded as {@code 1} for true, {@code 0} for false and
+     * {@link Double#NaN} for missing values.
+     *
+     * @param parser     the expression parser
+     * @param expression the expression to compile
+     * @param exampleSet the example set whose attributes are read
+     * @return the compiled expression or {@code null} if the expression must be evaluated by the
+     *         {@link Expression} returned by {@link ExpressionParser#parse(String)}
+     * @since 7.6.1
+     */
+    public static CompiledExpression compile(ExpressionParser parser, String expression, ExampleSet exampleSet) {
+		if (!(parser instanceof AntlrParser)) {
+			return null;
+		}
+		try {
+			return ((AntlrParser) parser).compile(expression, exampleSet);
+		} catch (ExpressionException e) {
+			// the error is reported when parsing the expression
+			return null;
+		}
+	}
+
     /**
      * Adds the {@link ExpressionParserBuilder#OLD_EXPRESSION_PARSER_FUNCTIONS} operator version as
      * incompatible version change by increasing the array size by one and adding the
@@ -18,7 +18,9 @@
 */
 package com.rapidminer.tools.expression.internal.antlr;
 
+import com.rapidminer.example.ExampleSet;
 import com.rapidminer.tools.expression.*;
+import com.rapidminer.tools.expression.internal.CompiledExpression;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
@@ -120,6 +122,27 @@ public class AntlrParser implements ExpressionParser {
 		return new EvaluatorCreationVisitor(lookup).visit(tree);
 	}
 
+    /**
+     * Parses the expression and compiles it to a generated class that reads the values of the
+     * attributes of the given example set directly. Only numerical and boolean expressions using
+     * numerical attributes and the basic functions are compiled, see {@link ExpressionCompiler}.
+     * The expression must be evaluated by {@link #parse(String)} otherwise.
+     *
+     * @param expression the expression to compile
+     * @param exampleSet the example set whose attributes are read by the expression
+     * @return the compiled expression or {@code null} if the expression cannot be compiled
+     * @throws ExpressionException if the parsing failed
+     * @since 7.6.1
+     */
+    public CompiledExpression compile(String expression, ExampleSet exampleSet) throws ExpressionException {
+		ParseTree tree = parseExpression(expression);
+		try {
+			return new ExpressionCompiler(lookup, exampleSet).compile(tree);
+		} catch (ExpressionParsingException e) {
+			throw new ExpressionException(e);
+		}
+	}
+
 	@Override
 	public ExpressionContext getExpressionContext() {
 		return lookup;
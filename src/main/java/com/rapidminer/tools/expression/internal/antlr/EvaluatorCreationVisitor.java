@@ -65,7 +65,7 @@ class EvaluatorCreationVisitor extends FunctionExpressionParserBaseVisitor<Expre
 				if (function == null) {
 					throw new UnknownFunctionException(ctx, "expression_parser.unknown_operator", operatorName);
 				}
-				return function.compute(right);
+				return compute(function, right);
 
 			} else {
 				ExpressionEvaluator left = visit(ctx.operationExp(0));
@@ -76,7 +76,7 @@ class EvaluatorCreationVisitor extends FunctionExpressionParserBaseVisitor<Expre
 				if (function == null) {
 					throw new UnknownFunctionException(ctx, "expression_parser.unknown_operator", operatorName);
 				}
-				return function.compute(left, right);
+				return compute(function, left, right);
 			}
 		}
 	}
@@ -113,7 +113,21 @@ class EvaluatorCreationVisitor extends FunctionExpressionParserBaseVisitor<Expre
 			throw new UnknownFunctionException(ctx, "expression_parser.unknown_function", functionName);
 		}
 
-		return function.compute(innerEvaluators);
+		return compute(function, innerEvaluators);
+	}
+
+	/**
+	 * Applies the function to the evaluators of its arguments. Called for every operator and
+	 * function of the expression.
+	 *
+	 * @param function
+	 *            the function of the current node
+	 * @param inputEvaluators
+	 *            the evaluators of the function arguments
+	 * @return the evaluator of the current node
+	 */
+	ExpressionEvaluator compute(Function function, ExpressionEvaluator... inputEvaluators) {
+		return function.compute(inputEvaluators);
 	}
 
     /**
@@ -139,7 +153,7 @@ class EvaluatorCreationVisitor extends FunctionExpressionParserBaseVisitor<Expre
 	 *            a ATTRIBUTE as defined in FunctionExpressionLexer.g4
 	 * @return
 	 */
-	private String getAttributeName(String text) {
+	String getAttributeName(String text) {
 		String attributeName = text.substring(1, text.length() - 1);
 		return attributeName.replace("\\[", "[").replace("\\]", "]").replace("\\\\", "\\");
 	}
@@ -184,7 +198,7 @@ class EvaluatorCreationVisitor extends FunctionExpressionParserBaseVisitor<Expre
 	 *            FunctionExpressionLexer.g4
 	 * @return
 	 */
-	private String getScopeConstantName(String text) {
+	String getScopeConstantName(String text) {
 		String scopeName = text.substring(2, text.length() - 1);
 		return scopeName.replace("\\{", "{").replace("\\}", "}").replace("\\\\", "\\");
 	}
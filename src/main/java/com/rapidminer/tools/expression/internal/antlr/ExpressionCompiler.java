@@ -0,0 +1,509 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression.internal.antlr;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.tools.expression.ExpressionContext;
+import com.rapidminer.tools.expression.ExpressionEvaluator;
+import com.rapidminer.tools.expression.ExpressionType;
+import com.rapidminer.tools.expression.Function;
+import com.rapidminer.tools.expression.internal.CompiledExpression;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.AttributeContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.IndirectScopeConstantContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.VariableContext;
+import com.rapidminer.tools.expression.internal.function.basic.Divide;
+import com.rapidminer.tools.expression.internal.function.basic.Minus;
+import com.rapidminer.tools.expression.internal.function.basic.Modulus;
+import com.rapidminer.tools.expression.internal.function.basic.Multiply;
+import com.rapidminer.tools.expression.internal.function.basic.Plus;
+import com.rapidminer.tools.expression.internal.function.basic.Power;
+import com.rapidminer.tools.expression.internal.function.comparison.Equals;
+import com.rapidminer.tools.expression.internal.function.comparison.GreaterEqualThan;
+import com.rapidminer.tools.expression.internal.function.comparison.GreaterThan;
+import com.rapidminer.tools.expression.internal.function.comparison.LessEqualThan;
+import com.rapidminer.tools.expression.internal.function.comparison.LessThan;
+import com.rapidminer.tools.expression.internal.function.comparison.Missing;
+import com.rapidminer.tools.expression.internal.function.comparison.NotEquals;
+import com.rapidminer.tools.expression.internal.function.logical.And;
+import com.rapidminer.tools.expression.internal.function.logical.If;
+import com.rapidminer.tools.expression.internal.function.logical.Not;
+import com.rapidminer.tools.expression.internal.function.logical.Or;
+import com.rapidminer.tools.expression.internal.function.mathematical.AbsoluteValue;
+import com.rapidminer.tools.expression.internal.function.mathematical.CommonLogarithm;
+import com.rapidminer.tools.expression.internal.function.mathematical.ExponentialFunction;
+import com.rapidminer.tools.expression.internal.function.mathematical.ModulusAsFunction;
+import com.rapidminer.tools.expression.internal.function.mathematical.NaturalLogarithm;
+import com.rapidminer.tools.expression.internal.function.mathematical.PowerAsFunction;
+import com.rapidminer.tools.expression.internal.function.mathematical.Signum;
+import com.rapidminer.tools.expression.internal.function.mathematical.SquareRoot;
+import com.rapidminer.tools.expression.internal.function.rounding.Ceil;
+import com.rapidminer.tools.expression.internal.function.rounding.Floor;
+import com.rapidminer.tools.expression.internal.function.trigonometric.ArcCosine;
+import com.rapidminer.tools.expression.internal.function.trigonometric.ArcSine;
+import com.rapidminer.tools.expression.internal.function.trigonometric.ArcTangent;
+import com.rapidminer.tools.expression.internal.function.trigonometric.Cosine;
+import com.rapidminer.tools.expression.internal.function.trigonometric.HyperbolicCosine;
+import com.rapidminer.tools.expression.internal.function.trigonometric.HyperbolicSine;
+import com.rapidminer.tools.expression.internal.function.trigonometric.HyperbolicTangent;
+import com.rapidminer.tools.expression.internal.function.trigonometric.Sinus;
+import com.rapidminer.tools.expression.internal.function.trigonometric.Tangent;
+import groovyjarjarasm.asm.ClassWriter;
+import groovyjarjarasm.asm.MethodVisitor;
+import groovyjarjarasm.asm.Opcodes;
+import groovyjarjarasm.asm.Type;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Visitor that builds the {@link ExpressionEvaluator} of an expression like the
+ * {@link EvaluatorCreationVisitor} and additionally generates the byte code of every node it
+ * supports. If all nodes are supported, the expression is compiled to a subclass of
+ * {@link CompiledExpression} that reads the attribute values directly from the examples.
+ * <p>
+ * Supported are numerical attributes, constants, the arithmetic operators, comparisons of
+ * numbers, the logical functions and the elementary mathematical functions. Nominal and date
+ * values, random numbers and all other functions are not supported, expressions using them are
+ * evaluated by the {@link ExpressionEvaluator}. Functions are identified by their class, so
+ * functions replaced by other modules are not compiled.
+ *
+ * @author Gisa Schaefer
+ * @since 7.6.1
+ */
+class ExpressionCompiler extends EvaluatorCreationVisitor {
+
+	/**
+	 * Emits the byte code of a node, which leaves the numerical or encoded boolean value of the
+	 * node on the operand stack.
+	 */
+	private interface NodeCode {
+
+		void emit(MethodVisitor method);
+	}
+
+	/** Class loader for the generated classes, one per class so that they can be unloaded. */
+	private static final class GeneratedClassLoader extends ClassLoader {
+
+		private GeneratedClassLoader() {
+			super(CompiledExpression.class.getClassLoader());
+		}
+
+		private Class<?> define(String name, byte[] code) {
+			return defineClass(name, code, 0, code.length);
+		}
+	}
+
+	private static final String PACKAGE = "com/rapidminer/tools/expression/internal/antlr/";
+	private static final String SUPER_CLASS = Type.getInternalName(CompiledExpression.class);
+	private static final String ATTRIBUTE_ARRAY = Type.getDescriptor(Attribute[].class);
+	private static final String CONSTRUCTOR = Type.getMethodDescriptor(Type.VOID_TYPE,
+			Type.getType(ExpressionType.class), Type.getType(String[].class), Type.getType(Attribute[].class));
+	private static final String UNARY = "(D)D";
+	private static final String BINARY = "(DD)D";
+
+	private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+	/** Operators compiled to a single instruction. */
+	private static final Map<Class<?>, Integer> INSTRUCTIONS = new HashMap<>();
+
+	/** Functions of numbers compiled to a static method of {@link Math}. */
+	private static final Map<Class<?>, String> MATH_METHODS = new HashMap<>();
+
+	/** Comparisons of numbers compiled to a static method of {@link CompiledExpression}. */
+	private static final Map<Class<?>, String> COMPARISONS = new HashMap<>();
+
+	/**
+	 * Functions of numbers or booleans compiled to a static method of {@link CompiledExpression}.
+	 */
+	private static final Map<Class<?>, String> LOGICAL_METHODS = new HashMap<>();
+
+	static {
+		INSTRUCTIONS.put(Plus.class, Opcodes.DADD);
+		INSTRUCTIONS.put(Minus.class, Opcodes.DSUB);
+		INSTRUCTIONS.put(Multiply.class, Opcodes.DMUL);
+		INSTRUCTIONS.put(Divide.class, Opcodes.DDIV);
+		INSTRUCTIONS.put(Modulus.class, Opcodes.DREM);
+		INSTRUCTIONS.put(ModulusAsFunction.class, Opcodes.DREM);
+
+		MATH_METHODS.put(Power.class, "pow");
+		MATH_METHODS.put(PowerAsFunction.class, "pow");
+		MATH_METHODS.put(AbsoluteValue.class, "abs");
+		MATH_METHODS.put(SquareRoot.class, "sqrt");
+		MATH_METHODS.put(ExponentialFunction.class, "exp");
+		MATH_METHODS.put(NaturalLogarithm.class, "log");
+		MATH_METHODS.put(CommonLogarithm.class, "log10");
+		MATH_METHODS.put(Signum.class, "signum");
+		MATH_METHODS.put(Ceil.class, "ceil");
+		MATH_METHODS.put(Floor.class, "floor");
+		MATH_METHODS.put(Sinus.class, "sin");
+		MATH_METHODS.put(Cosine.class, "cos");
+		MATH_METHODS.put(Tangent.class, "tan");
+		MATH_METHODS.put(ArcSine.class, "asin");
+		MATH_METHODS.put(ArcCosine.class, "acos");
+		MATH_METHODS.put(ArcTangent.class, "atan");
+		MATH_METHODS.put(HyperbolicSine.class, "sinh");
+		MATH_METHODS.put(HyperbolicCosine.class, "cosh");
+		MATH_METHODS.put(HyperbolicTangent.class, "tanh");
+
+		COMPARISONS.put(LessThan.class, "lessThan");
+		COMPARISONS.put(LessEqualThan.class, "lessEqualThan");
+		COMPARISONS.put(GreaterThan.class, "greaterThan");
+		COMPARISONS.put(GreaterEqualThan.class, "greaterEqualThan");
+
+		LOGICAL_METHODS.put(And.class, "and");
+		LOGICAL_METHODS.put(Or.class, "or");
+		LOGICAL_METHODS.put(Not.class, "not");
+		LOGICAL_METHODS.put(Missing.class, "missing");
+	}
+
+	private final ExpressionContext lookUp;
+	private final ExampleSet exampleSet;
+
+	/** The code of the non-constant nodes that can be compiled. */
+	private final Map<ExpressionEvaluator, NodeCode> codes = new IdentityHashMap<>();
+
+	private final List<String> attributeNames = new ArrayList<>();
+	private final List<Attribute> attributes = new ArrayList<>();
+
+	/**
+	 * Creates a compiler for expressions reading the attributes of the given example set.
+	 *
+	 * @param lookUp
+	 *            the {@link ExpressionContext} for looking up functions, variables and scope
+	 *            constants
+	 * @param exampleSet
+	 *            the example set whose attributes are read
+	 */
+	ExpressionCompiler(ExpressionContext lookUp, ExampleSet exampleSet) {
+		super(lookUp);
+		this.lookUp = lookUp;
+		this.exampleSet = exampleSet;
+	}
+
+	/**
+	 * Builds the evaluator of the parse tree and compiles it if possible.
+	 *
+	 * @param tree
+	 *            the parse tree of the expression
+	 * @return the compiled expression or {@code null} if the expression uses values or functions
+	 *         that are not supported
+	 */
+	CompiledExpression compile(ParseTree tree) {
+		ExpressionEvaluator evaluator = visit(tree);
+		if (!isSupported(evaluator.getType())) {
+			return null;
+		}
+		NodeCode code = getCode(evaluator);
+		if (code == null) {
+			return null;
+		}
+		String className = PACKAGE + "GeneratedExpression" + CLASS_COUNTER.incrementAndGet();
+		byte[] byteCode = generateClass(className, code);
+		try {
+			Class<?> generated = new GeneratedClassLoader().define(className.replace('/', '.'), byteCode);
+			return (CompiledExpression) generated
+					.getConstructor(ExpressionType.class, String[].class, Attribute[].class)
+					.newInstance(evaluator.getType(), attributeNames.toArray(new String[attributeNames.size()]),
+							attributes.toArray(new Attribute[attributes.size()]));
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// cannot happen for the generated code, fall back to the evaluator
+			return null;
+		}
+	}
+
+	@Override
+	ExpressionEvaluator compute(Function function, ExpressionEvaluator... inputEvaluators) {
+		ExpressionEvaluator result = super.compute(function, inputEvaluators);
+		// the unary plus returns its input
+		if (!result.isConstant() && !codes.containsKey(result) && isSupported(result.getType())) {
+			NodeCode code = generateCode(function, result, inputEvaluators);
+			if (code != null) {
+				codes.put(result, code);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public ExpressionEvaluator visitAttribute(AttributeContext ctx) {
+		ExpressionEvaluator evaluator = super.visitAttribute(ctx);
+		addAttributeCode(evaluator, getAttributeName(ctx.getText()));
+		return evaluator;
+	}
+
+	@Override
+	public ExpressionEvaluator visitVariable(VariableContext ctx) {
+		ExpressionEvaluator evaluator = super.visitVariable(ctx);
+		// variables which are not constants are attributes
+		if (!evaluator.isConstant()) {
+			addAttributeCode(evaluator, ctx.getText());
+		}
+		return evaluator;
+	}
+
+	@Override
+	public ExpressionEvaluator visitIndirectScopeConstant(IndirectScopeConstantContext ctx) {
+		ExpressionEvaluator evaluator = super.visitIndirectScopeConstant(ctx);
+		addAttributeCode(evaluator, lookUp.getScopeString(getScopeConstantName(ctx.getText())));
+		return evaluator;
+	}
+
+	/**
+	 * Adds the code reading the value of a numerical attribute of the example set. Values of
+	 * integer attributes are rounded down like the {@link com.rapidminer.tools.expression.ExampleResolver} does.
+	 */
+	private void addAttributeCode(ExpressionEvaluator evaluator, String name) {
+		ExpressionType type = evaluator.getType();
+		Attribute attribute = exampleSet.getAttributes().get(name);
+		if (attribute == null || !attribute.isNumerical()
+				|| type != ExpressionType.DOUBLE && type != ExpressionType.INTEGER) {
+			return;
+		}
+		int index = attributeNames.indexOf(name);
+		if (index < 0) {
+			index = attributeNames.size();
+			attributeNames.add(name);
+			attributes.add(attribute);
+		}
+		final int attributeIndex = index;
+		codes.put(evaluator, method -> {
+			method.visitVarInsn(Opcodes.ALOAD, 1);
+			method.visitVarInsn(Opcodes.ALOAD, 0);
+			method.visitFieldInsn(Opcodes.GETFIELD, SUPER_CLASS, "attributes", ATTRIBUTE_ARRAY);
+			method.visitLdcInsn(attributeIndex);
+			method.visitInsn(Opcodes.AALOAD);
+			method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Example.class), "getValue",
+					Type.getMethodDescriptor(Type.DOUBLE_TYPE, Type.getType(Attribute.class)), false);
+			if (type == ExpressionType.INTEGER) {
+				method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "floor", UNARY, false);
+			}
+		});
+	}
+
+	/**
+	 * Generates the code of a function node.
+	 *
+	 * @return the code or {@code null} if the function or its arguments are not supported
+	 */
+	private NodeCode generateCode(Function function, ExpressionEvaluator result, ExpressionEvaluator[] inputs) {
+		Class<?> functionClass = function.getClass();
+		if (functionClass == If.class && inputs.length == 3 && inputs[0].isConstant()) {
+			return generateConstantIfCode(result, inputs);
+		}
+		NodeCode[] inputCodes = new NodeCode[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			inputCodes[i] = getCode(inputs[i]);
+			if (inputCodes[i] == null) {
+				return null;
+			}
+		}
+		boolean numericalResult = isNumerical(result.getType());
+		if (INSTRUCTIONS.containsKey(functionClass) && numericalResult && allNumerical(inputs)) {
+			if (inputs.length == 1 && functionClass == Minus.class) {
+				return method -> {
+					inputCodes[0].emit(method);
+					method.visitInsn(Opcodes.DNEG);
+				};
+			}
+			int instruction = INSTRUCTIONS.get(functionClass);
+			return inputs.length != 2 ? null : method -> {
+				inputCodes[0].emit(method);
+				inputCodes[1].emit(method);
+				method.visitInsn(instruction);
+			};
+		} else if (MATH_METHODS.containsKey(functionClass) && numericalResult && allNumerical(inputs)) {
+			return invokeStatic("java/lang/Math", MATH_METHODS.get(functionClass), inputCodes);
+		} else if (COMPARISONS.containsKey(functionClass) && allNumerical(inputs)) {
+			return invokeStatic(SUPER_CLASS, COMPARISONS.get(functionClass), inputCodes);
+		} else if ((functionClass == Equals.class || functionClass == NotEquals.class) && inputs.length == 2
+				&& (allNumerical(inputs) || allBoolean(inputs))) {
+			return invokeStatic(SUPER_CLASS, functionClass == Equals.class ? "equal" : "notEqual", inputCodes);
+		} else if (LOGICAL_METHODS.containsKey(functionClass)) {
+			return invokeStatic(SUPER_CLASS, LOGICAL_METHODS.get(functionClass), inputCodes);
+		} else if (functionClass == If.class && inputs.length == 3) {
+			return generateIfCode(result, inputs, inputCodes);
+		}
+		return null;
+	}
+
+	/**
+	 * Generates the code of an if node with a constant condition, which is the code of the
+	 * selected branch. The other branch need not be supported.
+	 */
+	private NodeCode generateConstantIfCode(ExpressionEvaluator result, ExpressionEvaluator[] inputs) {
+		double condition = getConstant(inputs[0]);
+		if (Double.isNaN(condition)) {
+			return null;
+		}
+		// like the if function, numbers close to zero are false
+		ExpressionEvaluator branch = Math.abs(condition) < Double.MIN_VALUE * 2 ? inputs[2] : inputs[1];
+		boolean matching = isNumerical(result.getType()) ? isNumerical(branch.getType())
+				: branch.getType() == ExpressionType.BOOLEAN;
+		return matching ? getCode(branch) : null;
+	}
+
+	/**
+	 * Generates the code of an if node with a condition that is not constant. Both branches are
+	 * evaluated, which is fine since the supported nodes have no side effects.
+	 */
+	private NodeCode generateIfCode(ExpressionEvaluator result, ExpressionEvaluator[] inputs, NodeCode[] inputCodes) {
+		ExpressionType type = result.getType();
+		ExpressionEvaluator[] branches = { inputs[1], inputs[2] };
+		if (isNumerical(type) && allNumerical(branches) || type == ExpressionType.BOOLEAN && allBoolean(branches)) {
+			return invokeStatic(SUPER_CLASS, "select", inputCodes);
+		}
+		return null;
+	}
+
+	/** Generates the call of a static method taking one or two doubles. */
+	private static NodeCode invokeStatic(String owner, String name, NodeCode[] inputCodes) {
+		String descriptor;
+		switch (inputCodes.length) {
+			case 1:
+				descriptor = UNARY;
+				break;
+			case 2:
+				descriptor = BINARY;
+				break;
+			case 3:
+				descriptor = "(DDD)D";
+				break;
+			default:
+				return null;
+		}
+		return method -> {
+			for (NodeCode inputCode : inputCodes) {
+				inputCode.emit(method);
+			}
+			method.visitMethodInsn(Opcodes.INVOKESTATIC, owner, name, descriptor, false);
+		};
+	}
+
+	/**
+	 * Returns the code of a node, constant numerical and boolean nodes are loaded as constant.
+	 *
+	 * @return the code or {@code null} if the node is not supported
+	 */
+	private NodeCode getCode(ExpressionEvaluator evaluator) {
+		if (evaluator.isConstant() && isSupported(evaluator.getType())) {
+			double constant = getConstant(evaluator);
+			return method -> method.visitLdcInsn(constant);
+		}
+		return codes.get(evaluator);
+	}
+
+	/**
+	 * Returns the value of a constant numerical node or the encoded value of a constant boolean
+	 * node.
+	 */
+	private static double getConstant(ExpressionEvaluator evaluator) {
+		try {
+			if (evaluator.getType() == ExpressionType.BOOLEAN) {
+				Boolean value = evaluator.getBooleanFunction().call();
+				return value == null ? Double.NaN : value ? 1 : 0;
+			} else {
+				return evaluator.getDoubleFunction().call();
+			}
+		} catch (Exception e) {
+			// constants are evaluated when the evaluator is created and do not fail
+			return Double.NaN;
+		}
+	}
+
+	/** Generates a subclass of {@link CompiledExpression} evaluating the given code. */
+	private static byte[] generateClass(String className, NodeCode code) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+				SUPER_CLASS, null);
+
+		MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR, null, null);
+		constructor.visitCode();
+		constructor.visitVarInsn(Opcodes.ALOAD, 0);
+		constructor.visitVarInsn(Opcodes.ALOAD, 1);
+		constructor.visitVarInsn(Opcodes.ALOAD, 2);
+		constructor.visitVarInsn(Opcodes.ALOAD, 3);
+		constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_CLASS, "<init>", CONSTRUCTOR, false);
+		constructor.visitInsn(Opcodes.RETURN);
+		constructor.visitMaxs(0, 0);
+		constructor.visitEnd();
+
+		MethodVisitor newInstance = writer.visitMethod(Opcodes.ACC_PROTECTED, "newInstance",
+				Type.getMethodDescriptor(Type.getType(CompiledExpression.class), Type.getType(Attribute[].class)), null,
+				null);
+		newInstance.visitCode();
+		newInstance.visitTypeInsn(Opcodes.NEW, className);
+		newInstance.visitInsn(Opcodes.DUP);
+		newInstance.visitVarInsn(Opcodes.ALOAD, 0);
+		newInstance.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SUPER_CLASS, "getExpressionType",
+				Type.getMethodDescriptor(Type.getType(ExpressionType.class)), false);
+		newInstance.visitVarInsn(Opcodes.ALOAD, 0);
+		newInstance.visitFieldInsn(Opcodes.GETFIELD, SUPER_CLASS, "attributeNames", Type.getDescriptor(String[].class));
+		newInstance.visitVarInsn(Opcodes.ALOAD, 1);
+		newInstance.visitMethodInsn(Opcodes.INVOKESPECIAL, className, "<init>", CONSTRUCTOR, false);
+		newInstance.visitInsn(Opcodes.ARETURN);
+		newInstance.visitMaxs(0, 0);
+		newInstance.visitEnd();
+
+		MethodVisitor evaluate = writer.visitMethod(Opcodes.ACC_PUBLIC, "evaluate",
+				Type.getMethodDescriptor(Type.DOUBLE_TYPE, Type.getType(Example.class)), null, null);
+		evaluate.visitCode();
+		code.emit(evaluate);
+		evaluate.visitInsn(Opcodes.DRETURN);
+		evaluate.visitMaxs(0, 0);
+		evaluate.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private static boolean isSupported(ExpressionType type) {
+		return isNumerical(type) || type == ExpressionType.BOOLEAN;
+	}
+
+	private static boolean isNumerical(ExpressionType type) {
+		return type == ExpressionType.DOUBLE || type == ExpressionType.INTEGER;
+	}
+
+	private static boolean allNumerical(ExpressionEvaluator[] evaluators) {
+		for (ExpressionEvaluator evaluator : evaluators) {
+			if (!isNumerical(evaluator.getType())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean allBoolean(ExpressionEvaluator[] evaluators) {
+		for (ExpressionEvaluator evaluator : evaluators) {
+			if (evaluator.getType() != ExpressionType.BOOLEAN) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -271,12 +271,38 @@ public class BallTree<T extends Serializable> implements GeometricDataCollection
 
 	@Override
 	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, double[] values) {
-		throw new RuntimeException("Not supported method");
+		ArrayList<Tupel<Double, T>> neighboursList = new ArrayList<Tupel<Double, T>>();
+		if (root == null) {
+			return neighboursList;
+		}
+		ArrayDeque<BallTreeNode<T>> nodeStack = new ArrayDeque<BallTreeNode<T>>();
+		nodeStack.push(root);
+		while (!nodeStack.isEmpty()) {
+			BallTreeNode<T> currentNode = nodeStack.pop();
+			double currentDistance = distance.calculateDistance(currentNode.getCenter(), values);
+			if (currentDistance <= withinDistance) {
+				neighboursList.add(new Tupel<Double, T>(currentDistance, currentNode.getStoreValue()));
+			}
+			// all descendants lie within the radius around the center
+			if (currentDistance - currentNode.getRadius() <= withinDistance) {
+				if (currentNode.hasLeftChild()) {
+					nodeStack.push(currentNode.getLeftChild());
+				}
+				if (currentNode.hasRightChild()) {
+					nodeStack.push(currentNode.getRightChild());
+				}
+			}
+		}
+		return neighboursList;
 	}
 
 	@Override
 	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, int butAtLeastK, double[] values) {
-		throw new RuntimeException("Not supported method");
+		Collection<Tupel<Double, T>> result = getNearestValueDistances(withinDistance, values);
+		if (result.size() < butAtLeastK) {
+			return getNearestValueDistances(butAtLeastK, values);
+		}
+		return result;
 	}
 
 	@Override
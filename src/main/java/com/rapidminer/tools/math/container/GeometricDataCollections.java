@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.mixed.MixedEuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * Helper methods for choosing and creating a {@link GeometricDataCollection}. The tree based
+ * collections only return exact results for certain distance measures: The {@link KDTree} requires
+ * that the distance between two points is at least the difference in every single dimension, the
+ * {@link BallTree} requires a metric distance. Both do not support missing values, since the
+ * measures simply ignore the affected dimensions.
+ *
+ * @since 7.6.1
+ */
+public final class GeometricDataCollections {
+
+    /**
+     * The names of the available search structures.
+     */
+    public static final String[] SEARCH_STRUCTURES = { "automatic", "linear search", "kd-tree", "ball tree" };
+
+    /**
+     * Chooses the search structure depending on the data and the distance measure.
+     */
+    public static final int AUTOMATIC = 0;
+
+    /**
+     * A {@link LinearList}, supports all distance measures.
+     */
+    public static final int LINEAR_SEARCH = 1;
+
+    /**
+     * A {@link KDTree}.
+     */
+    public static final int KD_TREE = 2;
+
+    /**
+     * A {@link BallTree}.
+     */
+    public static final int BALL_TREE = 3;
+
+	/** Up to this number of dimensions, kd-trees are able to prune most of the search space. */
+	private static final int MAX_KD_TREE_DIMENSIONS = 10;
+
+	/** Ball trees degrade more slowly with the number of dimensions, but are expensive to build. */
+	private static final int MAX_BALL_TREE_DIMENSIONS = 20;
+
+	/** For smaller data sets, a linear search is faster than building and using a tree. */
+	private static final int MIN_TREE_SIZE = 2000;
+
+	private GeometricDataCollections() {}
+
+    /**
+     * Checks whether a {@link KDTree} returns exact results for the given measure.
+     *
+     * @param measure           the initialized distance measure
+     * @param onlyNumerical     {@code true} if all dimensions are numerical
+     * @param hasMissingValues  {@code true} if any point contains missing values
+     * @return {@code true} if the kd-tree can be used
+     */
+    public static boolean supportsKDTree(DistanceMeasure measure, boolean onlyNumerical, boolean hasMissingValues) {
+		if (hasMissingValues || !onlyNumerical) {
+			return false;
+		}
+		return measure instanceof EuclideanDistance || measure instanceof ManhattanDistance
+				|| measure instanceof ChebychevNumericalDistance || measure instanceof MixedEuclideanDistance;
+	}
+
+    /**
+     * Checks whether a {@link BallTree} returns exact results for the given measure.
+     *
+     * @param measure          the initialized distance measure
+     * @param hasMissingValues {@code true} if any point contains missing values
+     * @return {@code true} if the ball tree can be used
+     */
+    public static boolean supportsBallTree(DistanceMeasure measure, boolean hasMissingValues) {
+		if (hasMissingValues) {
+			return false;
+		}
+		return measure instanceof EuclideanDistance || measure instanceof ManhattanDistance
+				|| measure instanceof ChebychevNumericalDistance || measure instanceof MixedEuclideanDistance;
+	}
+
+    /**
+     * Returns the search structure to use. A tree that is not supported by the measure or the data
+     * is replaced by the linear search. For {@link #AUTOMATIC}, a kd-tree is used for low
+     * dimensional data, a ball tree for a medium number of dimensions and a linear search
+     * otherwise.
+     *
+     * @param requested        the requested search structure, one of the constants of this class
+     * @param measure          the initialized distance measure
+     * @param dimensions       the number of dimensions
+     * @param size             the number of points
+     * @param onlyNumerical    {@code true} if all dimensions are numerical
+     * @param hasMissingValues {@code true} if any point contains missing values
+     * @return the search structure to use
+     */
+    public static int selectSearchStructure(int requested, DistanceMeasure measure, int dimensions, int size,
+			boolean onlyNumerical, boolean hasMissingValues) {
+		boolean kdTree = dimensions > 0 && supportsKDTree(measure, onlyNumerical, hasMissingValues);
+		boolean ballTree = dimensions > 0 && supportsBallTree(measure, hasMissingValues);
+		switch (requested) {
+			case KD_TREE:
+				return kdTree ? KD_TREE : LINEAR_SEARCH;
+			case BALL_TREE:
+				return ballTree ? BALL_TREE : LINEAR_SEARCH;
+			case AUTOMATIC:
+				if (size < MIN_TREE_SIZE) {
+					return LINEAR_SEARCH;
+				} else if (kdTree && dimensions <= MAX_KD_TREE_DIMENSIONS) {
+					return KD_TREE;
+				} else if (ballTree && dimensions <= MAX_BALL_TREE_DIMENSIONS) {
+					return BALL_TREE;
+				}
+				return LINEAR_SEARCH;
+			default:
+				return LINEAR_SEARCH;
+		}
+	}
+
+    /**
+     * Creates the given search structure and adds all points.
+     *
+     * @param <T>         the type of the stored values
+     * @param structure   the search structure as returned by
+     *                    {@link #selectSearchStructure(int, DistanceMeasure, int, int, boolean, boolean)}
+     * @param dimensions  the number of dimensions
+     * @param measure     the initialized distance measure
+     * @param points      the points
+     * @param storeValues the values stored with the points
+     * @return the filled collection
+     */
+    public static <T extends Serializable> GeometricDataCollection<T> create(int structure, int dimensions,
+			DistanceMeasure measure, List<double[]> points, List<T> storeValues) {
+		switch (structure) {
+			case KD_TREE:
+				KDTree<T> kdTree = new KDTree<>(dimensions, measure);
+				kdTree.addAll(points, storeValues);
+				return kdTree;
+			case BALL_TREE:
+				BallTree<T> ballTree = new BallTree<>(measure);
+				for (int i = 0; i < points.size(); i++) {
+					ballTree.add(points.get(i), storeValues.get(i));
+				}
+				return ballTree;
+			case LINEAR_SEARCH:
+			default:
+				LinearList<T> list = new LinearList<>(measure);
+				for (int i = 0; i < points.size(); i++) {
+					list.add(points.get(i), storeValues.get(i));
+				}
+				return list;
+		}
+	}
+}
@@ -60,7 +60,6 @@ public class KDTree<T extends Serializable> implements GeometricDataCollection<T
 		if (root == null) {
 			this.root = new KDTreeNode<T>(values, storeValue, 0);
 		} else {
-			int currentDimension = 0;
 			int depth = 0;
 			KDTreeNode<T> currentNode = root;
 			KDTreeNode<T> childNode = null;
@@ -72,10 +71,88 @@ public class KDTree<T extends Serializable> implements GeometricDataCollection<T
 				} else {
 					currentNode = childNode;
 					depth++;
-					currentDimension = depth % k;
 				}
 			}
-			currentNode.setChild(new KDTreeNode<T>(values, storeValue, currentDimension));
+			// the new node is one level below the current one
+			currentNode.setChild(new KDTreeNode<T>(values, storeValue, (depth + 1) % k));
+		}
+	}
+
+    /**
+     * Adds all given points. In contrast to calling {@link #add(double[], Serializable)} for every
+     * point in the given order, the points are inserted median first for every level. This results
+     * in a balanced tree even if the points are sorted, which is common for example sets.
+     *
+     * @param points      the points, all of them must have the number of dimensions of this tree
+     * @param storeValues the values stored with the points
+     * @since 7.6.1
+     */
+    public void addAll(List<double[]> points, List<T> storeValues) {
+		if (points.size() != storeValues.size()) {
+			throw new IllegalArgumentException("Number of points and values must be equal");
+		}
+		if (!points.isEmpty() && root != null) {
+			// the levels below the existing nodes cannot be balanced anymore
+			for (int i = 0; i < points.size(); i++) {
+				add(points.get(i), storeValues.get(i));
+			}
+			return;
+		}
+		int[] order = new int[points.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		addMedianFirst(points, storeValues, order, 0, order.length, 0);
+	}
+
+	/**
+	 * Adds the median of the given index range with respect to the dimension of the given depth
+	 * and afterwards the points left and right of it.
+	 */
+	private void addMedianFirst(List<double[]> points, List<T> storeValues, int[] order, int from, int to, int depth) {
+		while (from < to) {
+			int dimension = depth % k;
+			int median = (from + to) >>> 1;
+			select(points, order, from, to - 1, median, dimension);
+			add(points.get(order[median]), storeValues.get(order[median]));
+			addMedianFirst(points, storeValues, order, from, median, depth + 1);
+			// continue with the right part iteratively to limit the recursion depth
+			from = median + 1;
+			depth++;
+		}
+	}
+
+	/**
+	 * Partially sorts the given index range such that the index at position n refers to the point
+	 * with the n-th smallest value in the given dimension (quick select).
+	 */
+	private static void select(List<double[]> points, int[] order, int left, int right, int n, int dimension) {
+		while (left < right) {
+			double pivot = points.get(order[(left + right) >>> 1])[dimension];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (points.get(order[i])[dimension] < pivot) {
+					i++;
+				}
+				while (points.get(order[j])[dimension] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = order[i];
+					order[i] = order[j];
+					order[j] = swap;
+					i++;
+					j--;
+				}
+			}
+			if (n <= j) {
+				right = j;
+			} else if (n >= i) {
+				left = i;
+			} else {
+				return;
+			}
 		}
 	}
 
@@ -115,10 +192,12 @@ public class KDTree<T extends Serializable> implements GeometricDataCollection<T
 			Tupel<Double, KDTreeNode<T>> currentTupel = new Tupel<Double, KDTreeNode<T>>(distance.calculateDistance(
 					currentNode.getValues(), values), currentNode);
 			priorityQueue.add(currentTupel);
-			// now check if far children has to be regarded
+			// now check if far children has to be regarded: the distance to any point on the far
+			// side is at least the distance to the splitting plane
 			if (!priorityQueue.isFilled()
-					|| priorityQueue.peek().getFirst().doubleValue() > currentNode.getCompareValue()
-							- values[currentNode.getCompareDimension()]) {
+					|| priorityQueue.peek().getFirst().doubleValue() > Math.abs(currentNode.getCompareValue()
+							- values[currentNode.getCompareDimension()])) {
+
 				// if needs to be checked, traverse tree to nearest leaf
 				if (currentNode.hasFarChild(values)) {
 					traverseTree(nodeStack, currentNode.getFarChild(values), values);
@@ -142,12 +221,37 @@ public class KDTree<T extends Serializable> implements GeometricDataCollection<T
 
 	@Override
 	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, double[] values) {
-		throw new RuntimeException("Not supported method");
+		ArrayList<Tupel<Double, T>> neighboursList = new ArrayList<Tupel<Double, T>>();
+		if (root == null) {
+			return neighboursList;
+		}
+		ArrayDeque<KDTreeNode<T>> nodeStack = new ArrayDeque<KDTreeNode<T>>();
+		nodeStack.push(root);
+		while (!nodeStack.isEmpty()) {
+			KDTreeNode<T> currentNode = nodeStack.pop();
+			double currentDistance = distance.calculateDistance(currentNode.getValues(), values);
+			if (currentDistance <= withinDistance) {
+				neighboursList.add(new Tupel<Double, T>(currentDistance, currentNode.getStoreValue()));
+			}
+			if (currentNode.hasNearChild(values)) {
+				nodeStack.push(currentNode.getNearChild(values));
+			}
+			// the far side only needs to be regarded if the splitting plane is within the distance
+			if (currentNode.hasFarChild(values)
+					&& Math.abs(currentNode.getCompareValue() - values[currentNode.getCompareDimension()]) <= withinDistance) {
+				nodeStack.push(currentNode.getFarChild(values));
+			}
+		}
+		return neighboursList;
 	}
 
 	@Override
 	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, int butAtLeastK, double[] values) {
-		throw new RuntimeException("Not supported method");
+		Collection<Tupel<Double, T>> result = getNearestValueDistances(withinDistance, values);
+		if (result.size() < butAtLeastK) {
+			return getNearestValueDistances(butAtLeastK, values);
+		}
+		return result;
 	}
 
 	@Override
@@ -0,0 +1,488 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.matrix;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Computes covariance and correlation matrices of example sets in a single pass. The examples are
+ * read in blocks of rows which are stored column-wise, so that the whole data is never copied at
+ * once. The sums of products of a block are computed in tiles of columns that stay in the cache and
+ * the tiles are distributed over the threads of the {@link ConcurrencyContext}.
+ * <p>
+ * For numerical stability, the values of every column are shifted by the mean of the first block
+ * containing values of the column. The sums of the shifted values then stay small and the
+ * covariances do not suffer from the cancellation of the textbook formula.
+ * <p>
+ * Covariances are computed over all examples, missing values result in missing covariances.
+ * Correlations are computed over the examples where both values are present, like
+ * {@link com.rapidminer.tools.math.MathFunctions#correlation(ExampleSet, Attribute, Attribute, boolean)}.
+ *
+ * @since 7.6.1
+ */
+public final class BlockedCovariance {
+
+	/** The number of columns of a tile. */
+	private static final int TILE_SIZE = 64;
+
+	/** The number of values read per block, the rows of a block are limited accordingly. */
+	private static final int BLOCK_VALUES = 1 << 18;
+
+	/** The minimal number of rows of a block. */
+	private static final int MIN_BLOCK_ROWS = 64;
+
+	/** The maximal number of rows of a block. */
+	private static final int MAX_BLOCK_ROWS = 4096;
+
+	/** The number of tasks per thread, the tiles on the diagonal need less work. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	private final Attribute[] attributes;
+	private final int columns;
+	private final boolean pairwise;
+
+	/** The values of the current block, column-wise and shifted. */
+	private final double[][] block;
+	private int blockRows;
+
+	/** The shifts of the columns, {@code NaN} until the first value of the column is read. */
+	private final double[] shifts;
+
+	/** The number of rows and the sums of the shifted values over all rows. */
+	private long rows;
+	private final double[] sums;
+
+	/** The sums of products of the shifted values, only the upper triangle is used. */
+	private final double[][] products;
+
+	/**
+	 * The index of the columns with missing values in the pairwise statistics below, -1 for
+	 * columns without missing values so far.
+	 */
+	private final int[] missingIndex;
+	private int numberOfMissing;
+
+	/**
+	 * The pairwise statistics for pairs with at least one column containing missing values: the
+	 * number of rows where both are present and the sums of the values and of their squares, of the
+	 * column with the smaller index first. The statistics of a pair are stored with the column of
+	 * the smaller index if it contains missing values, otherwise with the other one.
+	 */
+	private int[][] pairCounts = new int[0][];
+	private double[][] pairFirstSums = new double[0][];
+	private double[][] pairSecondSums = new double[0][];
+	private double[][] pairFirstSquares = new double[0][];
+	private double[][] pairSecondSquares = new double[0][];
+
+	private final List<int[]> tiles = new ArrayList<>();
+
+	private BlockedCovariance(Attribute[] attributes, boolean pairwise) {
+		this.attributes = attributes;
+		this.columns = attributes.length;
+		this.pairwise = pairwise;
+		this.block = new double[columns][getBlockSize(columns)];
+		this.shifts = new double[columns];
+		this.sums = new double[columns];
+		this.products = new double[columns][];
+		this.missingIndex = new int[columns];
+		for (int i = 0; i < columns; i++) {
+			products[i] = new double[columns];
+			shifts[i] = Double.NaN;
+			missingIndex[i] = -1;
+		}
+
+		for (int first = 0; first < columns; first += TILE_SIZE) {
+			for (int second = first; second < columns; second += TILE_SIZE) {
+				tiles.add(new int[] { first, second });
+			}
+		}
+	}
+
+    /**
+     * Computes the covariance matrix of the given attributes.
+     *
+     * @param exampleSet the example set
+     * @param attributes the attributes, the order of the rows and columns of the matrix
+     * @param operator   the executing operator, used for the concurrency context and to check for
+     *                   stop, might be {@code null}
+     * @param progress   the progress to report the processed examples to, might be {@code null}
+     * @return the covariance matrix
+     * @throws ProcessStoppedException if the process is stopped
+     */
+    public static double[][] covariance(ExampleSet exampleSet, Attribute[] attributes, Operator operator,
+			OperatorProgress progress) throws ProcessStoppedException {
+		BlockedCovariance calculator = new BlockedCovariance(attributes, false);
+		calculator.accumulate(exampleSet, operator, progress);
+
+		int n = attributes.length;
+		double[][] covariances = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				double covariance = (calculator.products[i][j] - calculator.sums[i] * calculator.sums[j] / calculator.rows)
+						/ (calculator.rows - 1);
+				covariances[i][j] = covariance;
+				covariances[j][i] = covariance;
+			}
+		}
+		return covariances;
+	}
+
+    /**
+     * Computes the correlation matrix of the given attributes. The correlation of two attributes is
+     * computed over the examples where both values are present and is missing if one of the
+     * attributes is constant on these examples.
+     *
+     * @param exampleSet the example set
+     * @param attributes the attributes, the order of the rows and columns of the matrix
+     * @param squared    whether to return the squared correlations
+     * @param operator   the executing operator, used for the concurrency context and to check for
+     *                   stop, might be {@code null}
+     * @param progress   the progress to report the processed examples to, might be {@code null}
+     * @return the correlation matrix
+     * @throws ProcessStoppedException if the process is stopped
+     */
+    public static double[][] correlation(ExampleSet exampleSet, Attribute[] attributes, boolean squared,
+			Operator operator, OperatorProgress progress) throws ProcessStoppedException {
+		BlockedCovariance calculator = new BlockedCovariance(attributes, true);
+		calculator.accumulate(exampleSet, operator, progress);
+
+		int n = attributes.length;
+		double[][] correlations = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				double count;
+				double sumFirst;
+				double sumSecond;
+				double squaresFirst;
+				double squaresSecond;
+				int index = calculator.missingIndex[i] >= 0 ? calculator.missingIndex[i] : calculator.missingIndex[j];
+				int other = calculator.missingIndex[i] >= 0 ? j : i;
+				if (index >= 0) {
+					count = calculator.pairCounts[index][other];
+					sumFirst = calculator.pairFirstSums[index][other];
+					sumSecond = calculator.pairSecondSums[index][other];
+					squaresFirst = calculator.pairFirstSquares[index][other];
+					squaresSecond = calculator.pairSecondSquares[index][other];
+				} else {
+					count = calculator.rows;
+					sumFirst = calculator.sums[i];
+					sumSecond = calculator.sums[j];
+					squaresFirst = calculator.products[i][i];
+					squaresSecond = calculator.products[j][j];
+				}
+				double divisor = Math.sqrt((count * squaresFirst - sumFirst * sumFirst)
+						* (count * squaresSecond - sumSecond * sumSecond));
+				double r;
+				if (divisor == 0) {
+					// one or both of the standard deviations are 0 -> correlation is undefined
+					r = Double.NaN;
+				} else {
+					r = (count * calculator.products[i][j] - sumFirst * sumSecond) / divisor;
+				}
+				if (squared) {
+					r = r * r;
+				}
+				correlations[i][j] = r;
+				correlations[j][i] = r;
+			}
+		}
+		return correlations;
+	}
+
+	/**
+	 * Returns the number of rows per block for the given number of columns.
+	 */
+	private static int getBlockSize(int columns) {
+		return Math.max(MIN_BLOCK_ROWS, Math.min(MAX_BLOCK_ROWS, BLOCK_VALUES / Math.max(1, columns)));
+	}
+
+	/**
+	 * Reads all examples block by block and adds the sums of each block.
+	 */
+	private void accumulate(ExampleSet exampleSet, Operator operator, OperatorProgress progress)
+			throws ProcessStoppedException {
+		ConcurrencyContext context = operator != null ? Resources.getConcurrencyContext(operator) : null;
+		int parallelism = context != null ? context.getParallelism() : 1;
+		int numberOfTasks = Math.min(tiles.size(), parallelism * TASKS_PER_THREAD);
+
+		Iterator<Example> reader = exampleSet.iterator();
+		int completed = 0;
+		while (reader.hasNext()) {
+			readBlock(reader);
+			if (parallelism > 1 && numberOfTasks > 1) {
+				addTilesInParallel(context, numberOfTasks, operator);
+			} else {
+				addTiles(0, tiles.size());
+			}
+
+			completed += blockRows;
+			if (progress != null) {
+				progress.setCompleted(completed);
+			} else if (operator != null) {
+				operator.checkForStop();
+			}
+		}
+	}
+
+	/**
+	 * Reads the next block of examples, shifts the values and adds them to the column sums.
+	 */
+	private void readBlock(Iterator<Example> reader) {
+		int size = columns > 0 ? block[0].length : MAX_BLOCK_ROWS;
+		blockRows = 0;
+		while (reader.hasNext() && blockRows < size) {
+			Example example = reader.next();
+			for (int i = 0; i < columns; i++) {
+				block[i][blockRows] = example.getValue(attributes[i]);
+			}
+			blockRows++;
+		}
+
+		if (pairwise) {
+			for (int i = 0; i < columns; i++) {
+				if (missingIndex[i] < 0) {
+					double[] values = block[i];
+					for (int r = 0; r < blockRows; r++) {
+						if (Double.isNaN(values[r])) {
+							addMissingColumn(i);
+							break;
+						}
+					}
+				}
+			}
+		}
+		rows += blockRows;
+
+		for (int i = 0; i < columns; i++) {
+			double[] values = block[i];
+			if (Double.isNaN(shifts[i])) {
+				// shifting by the mean of the first values, for covariances missing values remain
+				double sum = 0;
+				int count = 0;
+				for (int r = 0; r < blockRows; r++) {
+					if (!pairwise || !Double.isNaN(values[r])) {
+						sum += values[r];
+						count++;
+					}
+				}
+				if (count > 0) {
+					shifts[i] = sum / count;
+				} else if (!pairwise) {
+					shifts[i] = 0;
+				}
+			}
+			double shift = Double.isNaN(shifts[i]) ? 0 : shifts[i];
+			double sum = 0;
+			for (int r = 0; r < blockRows; r++) {
+				values[r] -= shift;
+				sum += values[r];
+			}
+			sums[i] += sum;
+		}
+	}
+
+	/**
+	 * Starts the pairwise statistics of a column containing missing values. Up to the current
+	 * block, the column had no missing values, so the statistics of its pairs are initialized from
+	 * the sums over all rows or moved from the other column of the pair.
+	 */
+	private void addMissingColumn(int column) {
+		int index = numberOfMissing++;
+		pairCounts = Arrays.copyOf(pairCounts, numberOfMissing);
+		pairFirstSums = Arrays.copyOf(pairFirstSums, numberOfMissing);
+		pairSecondSums = Arrays.copyOf(pairSecondSums, numberOfMissing);
+		pairFirstSquares = Arrays.copyOf(pairFirstSquares, numberOfMissing);
+		pairSecondSquares = Arrays.copyOf(pairSecondSquares, numberOfMissing);
+		pairCounts[index] = new int[columns];
+		pairFirstSums[index] = new double[columns];
+		pairSecondSums[index] = new double[columns];
+		pairFirstSquares[index] = new double[columns];
+		pairSecondSquares[index] = new double[columns];
+
+		for (int other = 0; other < columns; other++) {
+			if (other < column && missingIndex[other] >= 0) {
+				// stored with the other column of smaller index
+				continue;
+			}
+			int first = Math.min(column, other);
+			int second = Math.max(column, other);
+			int previous = other != column ? missingIndex[other] : -1;
+			if (previous >= 0) {
+				pairCounts[index][other] = pairCounts[previous][column];
+				pairFirstSums[index][other] = pairFirstSums[previous][column];
+				pairSecondSums[index][other] = pairSecondSums[previous][column];
+				pairFirstSquares[index][other] = pairFirstSquares[previous][column];
+				pairSecondSquares[index][other] = pairSecondSquares[previous][column];
+			} else {
+				pairCounts[index][other] = (int) rows;
+				pairFirstSums[index][other] = sums[first];
+				pairSecondSums[index][other] = sums[second];
+				pairFirstSquares[index][other] = products[first][first];
+				pairSecondSquares[index][other] = products[second][second];
+			}
+		}
+		missingIndex[column] = index;
+	}
+
+	/**
+	 * Adds the products of the current block for the tiles in parallel. The tasks do not throw
+	 * checked exceptions, so failures are rethrown unchecked.
+	 */
+	private void addTilesInParallel(ConcurrencyContext context, int numberOfTasks, Operator operator) {
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int task = 0; task < numberOfTasks; task++) {
+			final int from = (int) ((long) tiles.size() * task / numberOfTasks);
+			final int to = (int) ((long) tiles.size() * (task + 1) / numberOfTasks);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					addTiles(from, to);
+					return null;
+				}
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			try {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+			} catch (OperatorException unexpected) {
+				throw new RuntimeException(unexpected.getMessage(), unexpected);
+			}
+		}
+	}
+
+	/**
+	 * Adds the products of the current block for the given range of tiles.
+	 */
+	private void addTiles(int from, int to) {
+		for (int t = from; t < to; t++) {
+			int[] tile = tiles.get(t);
+			int firstEnd = Math.min(columns, tile[0] + TILE_SIZE);
+			int secondEnd = Math.min(columns, tile[1] + TILE_SIZE);
+			for (int i = tile[0]; i < firstEnd; i++) {
+				int j = Math.max(i, tile[1]);
+				if (missingIndex[i] < 0) {
+					// four columns at once, reusing the values of the first column
+					for (; j + 3 < secondEnd; j += 4) {
+						if (missingIndex[j] < 0 && missingIndex[j + 1] < 0 && missingIndex[j + 2] < 0
+								&& missingIndex[j + 3] < 0) {
+							addProducts(i, j);
+						} else {
+							for (int k = j; k < j + 4; k++) {
+								addProduct(i, k);
+							}
+						}
+					}
+				}
+				for (; j < secondEnd; j++) {
+					addProduct(i, j);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the products of the first column with the four columns starting at the second one, all
+	 * without missing values.
+	 */
+	private void addProducts(int first, int second) {
+		double[] x = block[first];
+		double[] y0 = block[second];
+		double[] y1 = block[second + 1];
+		double[] y2 = block[second + 2];
+		double[] y3 = block[second + 3];
+		double sum0 = 0;
+		double sum1 = 0;
+		double sum2 = 0;
+		double sum3 = 0;
+		for (int r = 0; r < blockRows; r++) {
+			double value = x[r];
+			sum0 += value * y0[r];
+			sum1 += value * y1[r];
+			sum2 += value * y2[r];
+			sum3 += value * y3[r];
+		}
+		double[] rowProducts = products[first];
+		rowProducts[second] += sum0;
+		rowProducts[second + 1] += sum1;
+		rowProducts[second + 2] += sum2;
+		rowProducts[second + 3] += sum3;
+	}
+
+	/**
+	 * Adds the products of two columns, only over the rows where both are present if one of them
+	 * contains missing values.
+	 */
+	private void addProduct(int first, int second) {
+		double[] x = block[first];
+		double[] y = block[second];
+		int index = missingIndex[first] >= 0 ? missingIndex[first] : missingIndex[second];
+		if (index < 0) {
+			double sum = 0;
+			for (int r = 0; r < blockRows; r++) {
+				sum += x[r] * y[r];
+			}
+			products[first][second] += sum;
+			return;
+		}
+		int other = missingIndex[first] >= 0 ? second : first;
+		int count = 0;
+		double sum = 0;
+		double sumFirst = 0;
+		double sumSecond = 0;
+		double squaresFirst = 0;
+		double squaresSecond = 0;
+		for (int r = 0; r < blockRows; r++) {
+			double prod = x[r] * y[r];
+			if (!Double.isNaN(prod)) {
+				sum += prod;
+				sumFirst += x[r];
+				sumSecond += y[r];
+				squaresFirst += x[r] * x[r];
+				squaresSecond += y[r] * y[r];
+				count++;
+			}
+		}
+		products[first][second] += sum;
+		pairCounts[index][other] += count;
+		pairFirstSums[index][other] += sumFirst;
+		pairSecondSums[index][other] += sumSecond;
+		pairFirstSquares[index][other] += squaresFirst;
+		pairSecondSquares[index][other] += squaresSecond;
+	}
+}
@@ -20,7 +20,6 @@ package com.rapidminer.tools.math.matrix;
 
 import Jama.Matrix;
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ProcessStoppedException;
@@ -35,8 +34,7 @@ import com.rapidminer.operator.ProcessStoppedException;
 public class CovarianceMatrix {
 
     /**
-     * Transforms the example set into a double matrix (doubling the amount of used memory) and
-     * invokes {@link #getCovarianceMatrix(double[][])}.
+     * Invokes {@link #getCovarianceMatrix(ExampleSet, Operator)} without an operator.
      *
      * @param exampleSet the example set
      * @return the covariance matrix
@@ -54,32 +52,26 @@ public class CovarianceMatrix {
 	}
 
     /**
-     * Transforms the example set into a double matrix (doubling the amount of used memory) and
-     * invokes {@link #getCovarianceMatrix(double[][])}.
+     * Computes the covariance matrix of the regular attributes with a {@link BlockedCovariance},
+     * which reads the example set in blocks instead of copying it.
      *
      * @param exampleSet ExampleSet to construct the covariance matrix from
-     * @param op         executing Operator which will be used to check for stop (can be null).
+     * @param op         executing Operator which will be used to check for stop and for the
+     *                   concurrency context (can be null).
      * @return the covariance matrix
      * @throws ProcessStoppedException the process stopped exception
      */
     public static Matrix getCovarianceMatrix(ExampleSet exampleSet, Operator op) throws ProcessStoppedException {
-		boolean checkForStop = op != null;
-		double[][] data = new double[exampleSet.size()][exampleSet.getAttributes().size()];
-		int c = 0;
-		for (Attribute attribute : exampleSet.getAttributes()) {
-			int r = 0;
-			for (Example example : exampleSet) {
-				data[r][c] = example.getValue(attribute);
-				r++;
-			}
-			c++;
-
-			if (checkForStop) {
-				op.checkForStop();
-			}
+		if (exampleSet.size() == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero rows.");
 		}
-
-		return getCovarianceMatrix(data, op);
+		if (exampleSet.getAttributes().size() == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero columns.");
+		}
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		return new Matrix(BlockedCovariance.covariance(exampleSet, attributes, op, null));
 	}
 
     /**
@@ -25,12 +25,14 @@ import com.rapidminer.example.Statistics;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchScoring;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.learner.functions.neuralnet.*;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -170,10 +172,19 @@ public class AutoMLPImprovedNeuralNetModel extends PredictionModel {
 			}
 		}
 
-		// optimization loop
+		// optimization loop, on the dense layers if the net consists of such
+		DenseNeuralNet denseNet = DenseNeuralNet.create(inputNodes, innerNodes, outputNodes);
 		for (int cycle = 0; cycle < maxCycles; cycle++) {
 			error = 0;
-			int maxSize = exampleSet.size();
+			int maxSize = denseNet != null ? 0 : exampleSet.size();
+			if (denseNet != null) {
+				try {
+					error = denseNet.trainCycle(exampleSet, exampleIndices, cycle, learningRate, momentum, decay, 1, null);
+				} catch (OperatorException e) {
+					// only thrown for stop checks and parallel execution which need an operator
+					throw new RuntimeException(e);
+				}
+			}
 			for (int index = 0; index < maxSize; index++) {
 				int exampleIndex = index;
 				if (exampleIndices != null) {
@@ -207,6 +218,9 @@ public class AutoMLPImprovedNeuralNetModel extends PredictionModel {
 				}
 			}
 		}
+		if (denseNet != null) {
+			denseNet.writeWeights();
+		}
 	}
 
 	@Override
@@ -216,6 +230,14 @@ public class AutoMLPImprovedNeuralNetModel extends PredictionModel {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
+
+		final DenseNeuralNet denseNet = DenseNeuralNet.create(inputNodes, innerNodes, outputNodes);
+		Attribute[] attributes = denseNet != null ? denseNet.getAttributes(exampleSet) : null;
+		if (attributes != null) {
+			performDensePrediction(exampleSet, predictedLabel, denseNet, attributes, progress);
+			return exampleSet;
+		}
+
 		int progressCounter = 0;
 		for (Example example : exampleSet) {
 			resetNetwork();
@@ -259,6 +281,61 @@ public class AutoMLPImprovedNeuralNetModel extends PredictionModel {
 		return exampleSet;
 	}
 
+	/**
+	 * Predicts the examples on the dense layers in parallel batches. The same calculations as on the
+	 * nodes.
+	 */
+	private void performDensePrediction(ExampleSet exampleSet, final Attribute predictedLabel,
+			final DenseNeuralNet denseNet, Attribute[] attributes, OperatorProgress progress) throws OperatorException {
+		final int numberOfOutputs = outputNodes.length;
+		final double[][] outputs = new double[BatchScoring.BATCH_SIZE][numberOfOutputs];
+		final ThreadLocal<double[][]> activations = new ThreadLocal<double[][]>() {
+
+			@Override
+			protected double[][] initialValue() {
+				return denseNet.createActivations();
+			}
+		};
+		BatchScoring.apply(exampleSet, Arrays.asList(attributes), getOperator(), progress,
+				new BatchScoring.RowPredictor() {
+
+					@Override
+					public void predict(double[] values, int row) {
+						denseNet.predict(values, activations.get(), outputs[row]);
+					}
+				}, new BatchScoring.RowWriter() {
+
+					@Override
+					public void write(Example example, int row) {
+						double[] classProbabilities = outputs[row];
+						if (predictedLabel.isNominal()) {
+							double total = 0.0;
+							for (int c = 0; c < numberOfOutputs; c++) {
+								total += classProbabilities[c];
+							}
+
+							double maxConfidence = Double.NEGATIVE_INFINITY;
+							int maxIndex = 0;
+							for (int c = 0; c < numberOfOutputs; c++) {
+								classProbabilities[c] /= total;
+								if (classProbabilities[c] > maxConfidence) {
+									maxIndex = c;
+									maxConfidence = classProbabilities[c];
+								}
+							}
+
+							example.setValue(predictedLabel,
+									predictedLabel.getMapping().mapString(getLabel().getMapping().mapIndex(maxIndex)));
+							for (int c = 0; c < numberOfOutputs; c++) {
+								example.setConfidence(getLabel().getMapping().mapIndex(c), classProbabilities[c]);
+							}
+						} else {
+							example.setValue(predictedLabel, classProbabilities[0]);
+						}
+					}
+				});
+	}
+
     /**
      * Get attribute names string [ ].
      *
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import com.rapidminer.Process;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.tools.ExpressionEvaluationException;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests the {@link ExpressionFilter} for compiled and evaluated expressions.
+ *
+ * @since 7.6.1
+ */
+public class ExpressionFilterTest {
+
+	private static ExampleSet exampleSet;
+	private static Operator operator;
+
+    /**
+     * Creates an example set with a real attribute containing missing values and a nominal
+     * attribute, and a process whose root operator creates the filters.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setUpForAll() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(AttributeFactory.createAttribute("real", Ontology.REAL));
+		attributes.add(AttributeFactory.createAttribute("nominal", Ontology.NOMINAL));
+		attributes.get(1).getMapping().mapString("a");
+		attributes.get(1).getMapping().mapString("b");
+		ExampleSetBuilder builder = ExampleSets.from(attributes);
+		for (int i = 0; i < 20; i++) {
+			builder.addRow(new double[] { i % 5 == 0 ? Double.NaN : i - 10, i % 2 });
+		}
+		exampleSet = builder.build();
+		operator = new Process().getRootOperator();
+	}
+
+    /**
+     * A compiled boolean expression is false for missing results.
+     *
+     * @throws Exception if the filter fails
+     */
+    @Test
+	public void compiledTest() throws Exception {
+		ExpressionFilter filter = new ExpressionFilter(exampleSet, "real > 0 || real && missing(real)", operator);
+		Attribute real = exampleSet.getAttributes().get("real");
+		for (Example example : exampleSet) {
+			assertEquals(example.getValue(real) > 0, filter.conditionOk(example));
+		}
+	}
+
+    /**
+     * Numerical expressions can be used as condition if they are 0 or 1.
+     *
+     * @throws Exception if the filter fails
+     */
+    @Test
+	public void compiledNumericalTest() throws Exception {
+		ExpressionFilter filter = new ExpressionFilter(exampleSet, "if(real > 0, 1.0, 0.0)", operator);
+		Attribute real = exampleSet.getAttributes().get("real");
+		for (Example example : exampleSet) {
+			assertEquals(example.getValue(real) > 0, filter.conditionOk(example));
+		}
+	}
+
+    /**
+     * Numerical expressions other than 0 and 1 are not accepted.
+     *
+     * @throws Exception if the filter fails
+     */
+    @Test(expected = ExpressionEvaluationException.class)
+	public void compiledNotBooleanTest() throws Exception {
+		ExpressionFilter filter = new ExpressionFilter(exampleSet, "real * 2", operator);
+		for (Example example : exampleSet) {
+			filter.conditionOk(example);
+		}
+	}
+
+    /**
+     * Expressions with nominal values are evaluated by the expression parser.
+     *
+     * @throws Exception if the filter fails
+     */
+    @Test
+	public void evaluatedTest() throws Exception {
+		ExpressionFilter filter = new ExpressionFilter(exampleSet, "real > 0 && nominal == \"b\"", operator);
+		Attribute real = exampleSet.getAttributes().get("real");
+		Attribute nominal = exampleSet.getAttributes().get("nominal");
+		for (Example example : exampleSet) {
+			assertEquals(example.getValue(real) > 0 && "b".equals(example.getNominalValue(nominal)),
+					filter.conditionOk(example));
+		}
+	}
+
+}
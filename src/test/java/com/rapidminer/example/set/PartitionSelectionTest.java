@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests the selection of all subsets but one by {@link Partition#selectAllSubsetsBut(int)}.
+ *
+ * @since 7.6.1
+ */
+public class PartitionSelectionTest {
+
+    /**
+     * Selects the same examples as selecting the other subsets one by one.
+     */
+    @Test
+	public void selectAllSubsetsButOne() {
+		int[] elements = { 1, 0, 3, 2, 0, 2, 4, 1, 3 };
+		for (int deselected = -1; deselected <= 5; deselected++) {
+			Partition expected = new Partition(elements, 5);
+			expected.clearSelection();
+			for (int i = 0; i < expected.getNumberOfSubsets(); i++) {
+				if (i != deselected) {
+					expected.selectSubset(i);
+				}
+			}
+			Partition partition = new Partition(elements, 5);
+			partition.clearSelection();
+			partition.selectAllSubsetsBut(deselected);
+
+			assertEquals(expected.getSelectionSize(), partition.getSelectionSize());
+			for (int i = 0; i < expected.getSelectionSize(); i++) {
+				assertEquals(expected.mapIndex(i), partition.mapIndex(i));
+			}
+		}
+	}
+
+    /**
+     * Leaves out exactly one example of a leave-one-out split.
+     */
+    @Test
+	public void leaveOneOut() {
+		int size = 1000;
+		int[] elements = new int[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = size - 1 - i;
+		}
+		Partition partition = new Partition(elements, size);
+		partition.selectAllSubsetsBut(10);
+		assertEquals(size - 1, partition.getSelectionSize());
+		assertEquals(size - 12, partition.mapIndex(size - 12));
+		assertEquals(size - 10, partition.mapIndex(size - 11));
+	}
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests that the {@link CompactNominalMapping} gives back exactly the values it was given.
+ *
+ * @since 7.6.1
+ */
+public class CompactNominalMappingTest {
+
+	private static final String[] VALUES = { "", "value", "\u00E4\u00F6\u00FC\u00DF", "\u65E5\u672C",
+			"\uD83D\uDE00", "a\uD800b", "\uDC00", "\uD800", "\uDBFF\uDBFF", "\uDC00\uD800", "\u00FF\uD800" };
+
+    /**
+     * Maps and looks up all values on the heap.
+     */
+    @Test
+	public void roundTripOnHeap() {
+		assertRoundTrip(new CompactNominalMapping(false));
+	}
+
+    /**
+     * Maps and looks up all values off-heap.
+     */
+    @Test
+	public void roundTripOffHeap() {
+		assertRoundTrip(new CompactNominalMapping(true));
+	}
+
+    /**
+     * Lone surrogates must not collapse into the same replacement character.
+     */
+    @Test
+	public void loneSurrogatesAreDistinct() {
+		CompactNominalMapping mapping = new CompactNominalMapping(false);
+		int high = mapping.mapString("\uD800");
+		int low = mapping.mapString("\uDC00");
+		int replacement = mapping.mapString("\uFFFD");
+		assertNotEquals(high, low);
+		assertNotEquals(high, replacement);
+		assertNotEquals(low, replacement);
+		assertEquals(3, mapping.size());
+	}
+
+    /**
+     * Replaces a value by one with a lone surrogate and back.
+     */
+    @Test
+	public void setMapping() {
+		CompactNominalMapping mapping = new CompactNominalMapping(false);
+		mapping.mapString("value");
+		mapping.setMapping("a\uD800b", 0);
+		assertEquals("a\uD800b", mapping.mapIndex(0));
+		assertEquals(0, mapping.getIndex("a\uD800b"));
+		assertEquals(-1, mapping.getIndex("value"));
+		mapping.setMapping("value", 0);
+		assertEquals("value", mapping.mapIndex(0));
+		assertEquals(-1, mapping.getIndex("a\uD800b"));
+	}
+
+    /**
+     * Serializes and deserializes a mapping with all values.
+     */
+    @Test
+	public void serialization() throws IOException, ClassNotFoundException {
+		for (boolean offHeap : new boolean[] { false, true }) {
+			CompactNominalMapping mapping = new CompactNominalMapping(offHeap);
+			for (String value : VALUES) {
+				mapping.mapString(value);
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(mapping);
+			}
+			CompactNominalMapping copy;
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				copy = (CompactNominalMapping) in.readObject();
+			}
+			assertEquals(VALUES.length, copy.size());
+			for (int i = 0; i < VALUES.length; i++) {
+				assertEquals(VALUES[i], copy.mapIndex(i));
+				assertEquals(i, copy.getIndex(VALUES[i]));
+			}
+		}
+	}
+
+    /**
+     * A clone shares the values until one side changes; afterwards the other side keeps its
+     * values.
+     */
+    @Test
+	public void copyOnWriteClone() {
+		CompactNominalMapping mapping = new CompactNominalMapping(false);
+		for (String value : VALUES) {
+			mapping.mapString(value);
+		}
+		CompactNominalMapping clone = (CompactNominalMapping) mapping.clone();
+		assertEquals("value", clone.mapIndex(1));
+		assertEquals(VALUES.length, clone.mapString("added"));
+		clone.setMapping("changed", 1);
+		assertEquals(VALUES.length, mapping.size());
+		assertEquals(-1, mapping.getIndex("added"));
+		assertEquals("value", mapping.mapIndex(1));
+		assertEquals(1, mapping.getIndex("value"));
+		assertEquals(VALUES.length + 1, clone.size());
+		assertEquals("changed", clone.mapIndex(1));
+		assertEquals(-1, clone.getIndex("value"));
+
+		CompactNominalMapping secondClone = (CompactNominalMapping) mapping.clone();
+		mapping.setMapping("original changed", 0);
+		mapping.clear();
+		assertEquals(0, mapping.size());
+		assertEquals(VALUES.length, secondClone.size());
+		for (int i = 0; i < VALUES.length; i++) {
+			assertEquals(VALUES[i], secondClone.mapIndex(i));
+			assertEquals(i, secondClone.getIndex(VALUES[i]));
+		}
+	}
+
+    /**
+     * {@link PolynominalAttribute#setMapping(NominalMapping)} copies the given mapping into a
+     * compact mapping if compact mappings are enabled or the given mapping is compact, and clones
+     * of the attribute share its mapping.
+     */
+    @Test
+	public void polynominalAttributeSetMapping() {
+		try {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS, "true");
+			Attribute attribute = AttributeFactory.createAttribute("compact", Ontology.POLYNOMINAL);
+			assertTrue(attribute.getMapping() instanceof CompactNominalMapping);
+			assertSame(attribute.getMapping(), ((Attribute) attribute.clone()).getMapping());
+
+			PolynominalMapping given = new PolynominalMapping();
+			given.mapString("a");
+			given.mapString("b");
+			attribute.setMapping(given);
+			given.mapString("c");
+			assertTrue(attribute.getMapping() instanceof CompactNominalMapping);
+			assertEquals(2, attribute.getMapping().size());
+			assertEquals("b", attribute.getMapping().mapIndex(1));
+
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS, "false");
+			Attribute other = AttributeFactory.createAttribute("other", Ontology.POLYNOMINAL);
+			assertTrue(other.getMapping() instanceof PolynominalMapping);
+			other.setMapping(attribute.getMapping());
+			assertTrue(other.getMapping() instanceof CompactNominalMapping);
+			other.getMapping().mapString("d");
+			assertEquals(3, other.getMapping().size());
+			assertEquals(2, attribute.getMapping().size());
+			assertEquals(-1, attribute.getMapping().getIndex("d"));
+
+			other.setMapping(given);
+			assertTrue(other.getMapping() instanceof PolynominalMapping);
+			assertEquals(3, other.getMapping().size());
+		} finally {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COMPACT_NOMINAL_MAPPINGS, "false");
+		}
+	}
+
+	private static void assertRoundTrip(CompactNominalMapping mapping) {
+		for (int i = 0; i < VALUES.length; i++) {
+			assertEquals(i, mapping.mapString(VALUES[i]));
+		}
+		for (int i = 0; i < VALUES.length; i++) {
+			assertEquals(i, mapping.mapString(VALUES[i]));
+			assertEquals(i, mapping.getIndex(VALUES[i]));
+			assertEquals(VALUES[i], mapping.mapIndex(i));
+			assertEquals(VALUES[i], mapping.getValues().get(i));
+		}
+		assertEquals(VALUES.length, mapping.size());
+	}
+
+}
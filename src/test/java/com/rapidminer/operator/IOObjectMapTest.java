@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.set.SplittedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.ExampleTable;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
+import com.rapidminer.tools.Ontology;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests the memory bound, the eviction, the spilling and the statistics of the
+ * {@link IOObjectMap}.
+ *
+ * @since 7.6.1
+ */
+public class IOObjectMapTest {
+
+	/** The estimated size of objects other than example sets. */
+	private static final long OBJECT_SIZE = 1 << 16;
+
+	/** The number of examples of the test sets, estimated with 160,000 bytes for two attributes. */
+	private static final int ROWS = 10_000;
+
+	private static final long SET_SIZE = ROWS * 2 * 8;
+
+    /**
+     * Evicts the object with the lowest frequency per size first, and lets objects which were not
+     * accessed since the last eviction age out.
+     */
+    @Test
+	public void evictionOrder() {
+		IOObjectMap map = new IOObjectMap(3 * OBJECT_SIZE);
+		map.store("a", new IOObjectCollection<>());
+		map.store("b", new IOObjectCollection<>());
+		map.store("c", new IOObjectCollection<>());
+		map.get("a");
+		map.get("a");
+		map.get("c");
+		assertEquals(3 * OBJECT_SIZE, map.getMemoryUsage());
+		assertEquals(0, map.getEvictionCount());
+
+		// b has the lowest frequency
+		map.store("d", new IOObjectCollection<>());
+		assertEquals(new HashSet<>(Arrays.asList("a", "c", "d")), map.getAllKeys());
+
+		// d is accessed after the eviction of b and thus has a higher priority than c now
+		map.get("d");
+		map.store("e", new IOObjectCollection<>());
+		assertEquals(new HashSet<>(Arrays.asList("a", "d", "e")), map.getAllKeys());
+
+		assertEquals(2, map.getEvictionCount());
+		assertEquals(2 * OBJECT_SIZE, map.getEvictedBytes());
+		assertEquals(3 * OBJECT_SIZE, map.getMemoryUsage());
+		assertNull(map.get("b"));
+	}
+
+    /**
+     * Views are only charged for their own examples and attributes, not for the whole table.
+     */
+    @Test
+	public void viewSize() throws UserError {
+		ExampleSet exampleSet = createExampleSet();
+		SplittedExampleSet view = new SplittedExampleSet(exampleSet, 0.5, SplittedExampleSet.SHUFFLED_SAMPLING, true, 2017);
+		view.selectSingleSubset(0);
+		IOObjectMap map = new IOObjectMap(Long.MAX_VALUE);
+		map.store("view", view);
+		assertEquals(view.size() * 2 * 8, map.getMemoryUsage());
+		map.store("set", exampleSet);
+		assertEquals(view.size() * 2 * 8 + SET_SIZE, map.getMemoryUsage());
+	}
+
+    /**
+     * Evicted example sets are spilled to disk and read again transparently, with the same values,
+     * the same type and the counters of the lookups.
+     */
+    @Test
+	public void spillAndReload() {
+		IOObjectMap map = new IOObjectMap(SET_SIZE + SET_SIZE / 2);
+		ExampleSet first = createExampleSet();
+		ExampleSet second = createExampleSet();
+		map.store("first", first);
+		assertSame(first, map.get("first"));
+		map.store("second", second);
+
+		// the first set is spilled since it was not accessed after the second was stored
+		assertEquals(1, map.getEvictionCount());
+		assertEquals(SET_SIZE, map.getEvictedBytes());
+		assertEquals(SET_SIZE, map.getMemoryUsage());
+		assertEquals(new HashSet<>(Arrays.asList("first", "second")), map.getAllKeys());
+		assertEquals(ExampleSet.class, map.getType("first"));
+		assertEquals(ROWS, ((ExampleSetMetaData) map.getMetaData("first")).getNumberOfExamples().getValue().intValue());
+
+		ExampleSet reloaded = (ExampleSet) map.get("first");
+		assertEquals(1, map.getDiskHitCount());
+		assertEqualValues(first, reloaded);
+		assertEquals(ExampleSet.class, map.getType("first"));
+		assertSame(reloaded, map.get("first"));
+
+		// reloading evicted the second set in turn
+		assertEquals(2, map.getEvictionCount());
+		assertEquals(2 * SET_SIZE, map.getEvictedBytes());
+		assertEquals(SET_SIZE, map.getMemoryUsage());
+		assertEqualValues(second, (ExampleSet) map.get("second"));
+		assertEquals(2, map.getDiskHitCount());
+
+		assertNull(map.get("third"));
+		assertEquals(2, map.getHitCount());
+		assertEquals(1, map.getMissCount());
+	}
+
+    /**
+     * Removing a set while it is written to disk drops it and the memory usage only counts the
+     * remaining objects.
+     */
+    @Test
+	public void removeDuringSpill() {
+		IOObjectMap map = new IOObjectMap(SET_SIZE + SET_SIZE / 2);
+		ExampleSet exampleSet = createExampleSet();
+		RemovingExampleSet removing = new RemovingExampleSet(exampleSet.getExampleTable(),
+				Arrays.asList(exampleSet.getAttributes().get("first"), exampleSet.getAttributes().get("second")),
+				map, "removed");
+		map.store("removed", removing);
+		removing.armed = true;
+		map.store("kept", createExampleSet());
+
+		assertTrue(removing.removed);
+		assertEquals(new HashSet<>(Arrays.asList("kept")), map.getAllKeys());
+		assertNull(map.get("removed"));
+		assertEquals(SET_SIZE, map.getMemoryUsage());
+		assertEquals(1, map.getEvictionCount());
+		assertEquals(1, map.getMissCount());
+		assertNotNull(map.get("kept"));
+		assertEquals(1, map.getHitCount());
+		assertEquals(0, map.getDiskHitCount());
+	}
+
+	/**
+	 * Creates a set with two numerical attributes and {@link #ROWS} examples.
+	 */
+	private static ExampleSet createExampleSet() {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.INTEGER);
+		return ExampleSets.from(first, second).withBlankSize(ROWS).withColumnFiller(first, row -> row / 7.0)
+				.withColumnFiller(second, row -> row % 13 == 0 ? Double.NaN : row % 100).build();
+	}
+
+	private static void assertEqualValues(ExampleSet expected, ExampleSet actual) {
+		assertEquals(expected.size(), actual.size());
+		Iterator<Example> actualExamples = actual.iterator();
+		for (Example example : expected) {
+			Example actualExample = actualExamples.next();
+			for (Attribute attribute : expected.getAttributes()) {
+				assertEquals(example.getValue(attribute),
+						actualExample.getValue(actual.getAttributes().get(attribute.getName())), 0);
+			}
+		}
+	}
+
+	/**
+	 * Removes itself from the map when it is iterated while armed, i.e. when it is written to disk.
+	 */
+	private static class RemovingExampleSet extends SimpleExampleSet {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient IOObjectMap map;
+		private final String name;
+		private boolean armed;
+		private boolean removed;
+
+		private RemovingExampleSet(ExampleTable table, List<Attribute> attributes, IOObjectMap map, String name) {
+			super(table, attributes);
+			this.map = map;
+			this.name = name;
+		}
+
+		@Override
+		public Iterator<Example> iterator() {
+			if (armed) {
+				armed = false;
+				removed = map.remove(name) != null;
+			}
+			return super.iterator();
+		}
+	}
+
+}
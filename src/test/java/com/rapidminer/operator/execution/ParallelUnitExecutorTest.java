@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.execution;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.SingleMacroDefinitionOperator;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Tests the scheduling of the {@link ParallelUnitExecutor}.
+ *
+ * @since 7.6.1
+ */
+public class ParallelUnitExecutorTest {
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and sets a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * An operator starts as soon as its input is ready and does not wait for unrelated operators
+     * started together with its predecessor. The slow operator only finishes once the successor of
+     * the fast operator has run.
+     *
+     * @throws Exception if the execution fails
+     */
+    @Test
+	public void operatorStartsWhenInputIsReadyTest() throws Exception {
+		Process process = createProcess();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		CountDownLatch latch = new CountDownLatch(1);
+		List<String> log = Collections.synchronizedList(new ArrayList<>());
+		TestOperator slow = add(unit, "slow", log, () -> {
+			if (!latch.await(10, TimeUnit.SECONDS)) {
+				throw new OperatorException("successor of fast operator not started");
+			}
+		});
+		TestOperator fast = add(unit, "fast", log, null);
+		TestOperator afterSlow = add(unit, "afterSlow", log, null);
+		TestOperator afterFast = add(unit, "afterFast", log, latch::countDown);
+		slow.output.connectTo(afterSlow.input);
+		fast.output.connectTo(afterFast.input);
+
+		new ParallelUnitExecutor(4).execute(unit);
+
+		assertTrue(log.indexOf("fast") < log.indexOf("afterFast"));
+		assertTrue(log.indexOf("slow") < log.indexOf("afterSlow"));
+		assertEquals(afterFast, process.getCurrentOperator());
+	}
+
+    /**
+     * Operators defining macros keep their position: the unconnected consumer of the macro sees
+     * its value and the macro is only defined after the previous operators have finished.
+     *
+     * @throws Exception if the execution fails
+     */
+    @Test
+	public void macroDefinitionKeepsOrderTest() throws Exception {
+		Process process = createProcess();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		List<String> log = Collections.synchronizedList(new ArrayList<>());
+		add(unit, "first", log, () -> {
+			Thread.sleep(200);
+			log.add("macro before definition: " + process.getMacroHandler().getMacro("value"));
+		});
+		SingleMacroDefinitionOperator setMacro = new SingleMacroDefinitionOperator(new OperatorDescription("",
+				"set_macro", SingleMacroDefinitionOperator.class, null, null, null));
+		setMacro.setParameter(SingleMacroDefinitionOperator.PARAMETER_MACRO, "value");
+		setMacro.setParameter(SingleMacroDefinitionOperator.PARAMETER_VALUE, "42");
+		unit.addOperator(setMacro);
+		add(unit, "consumer", log,
+				() -> log.add("macro after definition: " + process.getMacroHandler().getMacro("value")));
+
+		new ParallelUnitExecutor(4).execute(unit);
+
+		assertEquals("macro before definition: null", log.get(0));
+		assertEquals("macro after definition: 42", log.get(2));
+	}
+
+    /**
+     * The exception of a failing operator is rethrown and its successor is not started.
+     *
+     * @throws Exception if the execution fails unexpectedly
+     */
+    @Test
+	public void failureStopsExecutionTest() throws Exception {
+		Process process = createProcess();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		List<String> log = Collections.synchronizedList(new ArrayList<>());
+		TestOperator failing = add(unit, "failing", log, () -> {
+			throw new OperatorException("failed");
+		});
+		TestOperator successor = add(unit, "successor", log, null);
+		failing.output.connectTo(successor.input);
+		try {
+			new ParallelUnitExecutor(4).execute(unit);
+			fail("exception expected");
+		} catch (OperatorException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		assertTrue(log.isEmpty());
+	}
+
+	/**
+	 * Creates a new running process.
+	 */
+	private static Process createProcess() {
+		Process process = new Process();
+		process.resume();
+		return process;
+	}
+
+	/**
+	 * Adds a test operator to the unit which runs the action and then logs its name.
+	 */
+	private static TestOperator add(ExecutionUnit unit, String name, List<String> log, Action action) {
+		TestOperator operator = new TestOperator(log, action);
+		operator.rename(name);
+		unit.addOperator(operator);
+		return operator;
+	}
+
+	/**
+	 * The work of a {@link TestOperator}.
+	 */
+	private interface Action {
+
+		void run() throws Exception;
+	}
+
+	/**
+	 * Operator running an action and logging its name afterwards.
+	 */
+	private static class TestOperator extends Operator {
+
+		private final InputPort input = getInputPorts().createPort("input");
+		private final OutputPort output = getOutputPorts().createPort("output");
+		private final List<String> log;
+		private final Action action;
+
+		private TestOperator(List<String> log, Action action) {
+			super(new OperatorDescription("", "test", TestOperator.class, null, null, null));
+			this.log = log;
+			this.action = action;
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			if (action != null) {
+				try {
+					action.run();
+				} catch (OperatorException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new OperatorException(e.getMessage(), e);
+				}
+			}
+			log.add(getName());
+		}
+	}
+
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.features.transformation;
+
+import Jama.Matrix;
+import Jama.SingularValueDecomposition;
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.DataRowFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Compares the {@link RandomizedDecomposition} with the singular value decomposition of Jama on
+ * low-rank data, for which the randomized decomposition is exact up to rounding errors, directly
+ * and via the models of the {@link PCA} and the {@link SVDReduction} with the exact decomposition.
+ *
+ * @since 7.6.1
+ */
+public class RandomizedDecompositionTest {
+
+	private static final int SIZE = 400;
+
+	private static final int COLUMNS = 30;
+
+	private static final int RANK = 4;
+
+	private static final double TOLERANCE = 1e-8;
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Compares the principal components of dense data with an offset, with as many components as
+     * the rank and more, with and without oversampling and power iterations.
+     *
+     * @throws OperatorException if the decomposition fails
+     */
+    @Test
+	public void centeredDense() throws OperatorException {
+		double[][] data = createLowRankData(2017, false, 5);
+		for (int components : new int[] { RANK, RANK + 3 }) {
+			assertSameDecomposition(data, false, true, components, 10, 2);
+			assertSameDecomposition(data, false, true, components, 0, 0);
+		}
+	}
+
+    /**
+     * Compares the singular vectors of dense data without centering.
+     *
+     * @throws OperatorException if the decomposition fails
+     */
+    @Test
+	public void uncenteredDense() throws OperatorException {
+		double[][] data = createLowRankData(2018, false, 0);
+		for (int components : new int[] { RANK, RANK + 3 }) {
+			assertSameDecomposition(data, false, false, components, 10, 2);
+			assertSameDecomposition(data, false, false, components, 0, 0);
+		}
+	}
+
+    /**
+     * Compares the decompositions of sparse data, for which only the non-zero values are read and
+     * the principal components are centered implicitly.
+     *
+     * @throws OperatorException if the decomposition fails
+     */
+    @Test
+	public void sparse() throws OperatorException {
+		double[][] data = createLowRankData(2019, true, 0);
+		for (boolean center : new boolean[] { false, true }) {
+			assertSameDecomposition(data, true, center, RANK, 10, 2);
+			assertSameDecomposition(data, true, center, RANK + 3, 5, 1);
+		}
+	}
+
+    /**
+     * Compares the models of the principal component analysis with the exact and the randomized
+     * decomposition.
+     *
+     * @throws OperatorException if the operator fails
+     */
+    @Test
+	public void pcaModel() throws OperatorException {
+		double[][] data = createLowRankData(2020, false, 5);
+		PCAModel exact = run(PCA.class, createExampleSet(data, false), false).get(PCAModel.class);
+		PCAModel randomized = run(PCA.class, createExampleSet(data, false), true).get(PCAModel.class);
+		assertEquals(RANK, randomized.getNumberOfComponents());
+		double scale = exact.getEigenvalue(0);
+		for (int component = 0; component < RANK; component++) {
+			String message = "component " + component;
+			assertEquals(message, exact.getEigenvalue(component), randomized.getEigenvalue(component),
+					TOLERANCE * scale);
+			assertEquals(message, exact.getCumulativeVariance(component), randomized.getCumulativeVariance(component),
+					TOLERANCE);
+			assertSameDirection(message, exact.getEigenvector(component), randomized.getEigenvector(component));
+		}
+		for (int j = 0; j < COLUMNS; j++) {
+			assertEquals(exact.getMean(j), randomized.getMean(j), TOLERANCE * Math.max(1, Math.abs(exact.getMean(j))));
+		}
+	}
+
+    /**
+     * Compares the models of the singular value decomposition with the exact and the randomized
+     * decomposition.
+     *
+     * @throws OperatorException if the operator fails
+     */
+    @Test
+	public void svdModel() throws OperatorException {
+		double[][] data = createLowRankData(2021, false, 0);
+		SVDModel exact = run(SVDReduction.class, createExampleSet(data, false), false).get(SVDModel.class);
+		SVDModel randomized = run(SVDReduction.class, createExampleSet(data, false), true).get(SVDModel.class);
+		double scale = exact.getSingularValue(0);
+		for (int component = 0; component < RANK; component++) {
+			String message = "component " + component;
+			assertEquals(message, exact.getSingularValue(component), randomized.getSingularValue(component),
+					TOLERANCE * scale);
+			double[] exactVector = new double[COLUMNS];
+			double[] randomizedVector = new double[COLUMNS];
+			for (int j = 0; j < COLUMNS; j++) {
+				exactVector[j] = exact.getSingularVectorValue(component, j);
+				randomizedVector[j] = randomized.getSingularVectorValue(component, j);
+			}
+			assertSameDirection(message, exactVector, randomizedVector);
+		}
+	}
+
+	/**
+	 * Decomposes the data directly and compares the result with the singular value decomposition
+	 * of the (centered) data by Jama.
+	 */
+	private static void assertSameDecomposition(double[][] data, boolean sparse, boolean center, int components,
+			int oversampling, int iterations) throws OperatorException {
+		String message = (sparse ? "sparse" : "dense") + (center ? " centered" : "") + " with " + components
+				+ " components, oversampling " + oversampling + " and " + iterations + " iterations";
+		Operator operator = createOperator(center ? PCA.class : SVDReduction.class, true);
+		operator.setParameter(RandomizedDecomposition.PARAMETER_OVERSAMPLING, String.valueOf(oversampling));
+		operator.setParameter(RandomizedDecomposition.PARAMETER_POWER_ITERATIONS, String.valueOf(iterations));
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		process.resume();
+		RandomizedDecomposition decomposition = RandomizedDecomposition.decompose(createExampleSet(data, sparse),
+				components, center, operator);
+
+		double[] means = new double[COLUMNS];
+		if (center) {
+			for (double[] row : data) {
+				for (int j = 0; j < COLUMNS; j++) {
+					means[j] += row[j] / SIZE;
+				}
+			}
+		}
+		double[][] centered = new double[SIZE][COLUMNS];
+		double sumOfSquares = 0;
+		for (int i = 0; i < SIZE; i++) {
+			for (int j = 0; j < COLUMNS; j++) {
+				centered[i][j] = data[i][j] - means[j];
+				sumOfSquares += centered[i][j] * centered[i][j];
+			}
+		}
+		SingularValueDecomposition svd = new Matrix(centered).svd();
+		double[] singularValues = svd.getSingularValues();
+		double[][] vectors = svd.getV().getArray();
+
+		assertEquals(message, SIZE, decomposition.getNumberOfExamples());
+		assertEquals(message, sumOfSquares, decomposition.getSumOfSquares(), TOLERANCE * sumOfSquares);
+		for (int j = 0; j < COLUMNS; j++) {
+			assertEquals(message, means[j], decomposition.getMeans()[j], TOLERANCE * Math.max(1, Math.abs(means[j])));
+		}
+		double[] squaredSingularValues = decomposition.getSquaredSingularValues();
+		double[][] singularVectors = decomposition.getRightSingularVectors();
+		assertEquals(message, components, squaredSingularValues.length);
+		double scale = singularValues[0] * singularValues[0];
+		for (int component = 0; component < components; component++) {
+			String componentMessage = message + ", component " + component;
+			assertEquals(componentMessage, singularValues[component] * singularValues[component],
+					squaredSingularValues[component], TOLERANCE * scale);
+			assertEquals(componentMessage, singularValues[component], decomposition.getSingularValues()[component],
+					Math.sqrt(TOLERANCE) * singularValues[0]);
+			// the vectors of the vanishing singular values are arbitrary
+			if (component < RANK) {
+				double[] expected = new double[COLUMNS];
+				double[] actual = new double[COLUMNS];
+				for (int j = 0; j < COLUMNS; j++) {
+					expected[j] = vectors[j][component];
+					actual[j] = singularVectors[j][component];
+				}
+				assertSameDirection(componentMessage, expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * Asserts that both vectors have unit length and the same direction up to the sign.
+	 */
+	private static void assertSameDirection(String message, double[] expected, double[] actual) {
+		double product = 0;
+		double squares = 0;
+		for (int j = 0; j < expected.length; j++) {
+			product += expected[j] * actual[j];
+			squares += actual[j] * actual[j];
+		}
+		assertEquals(message, 1, squares, TOLERANCE);
+		assertEquals(message, 1, Math.abs(product), TOLERANCE);
+	}
+
+	private static IOContainer run(Class<? extends Operator> operatorClass, ExampleSet exampleSet, boolean randomized)
+			throws OperatorException {
+		Operator operator = createOperator(operatorClass, randomized);
+		operator.setParameter(PCA.PARAMETER_REDUCTION_TYPE, "fixed number");
+		operator.setParameter(operatorClass == PCA.class ? PCA.PARAMETER_NUMBER_OF_COMPONENTS
+				: SVDReduction.PARAMETER_NUMBER_OF_COMPONENTS, String.valueOf(RANK));
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(0)
+				.connectTo(operator.getInputPorts().getPortByName("example set input"));
+		operator.getOutputPorts().getPortByName("preprocessing model")
+				.connectTo(process.getRootOperator().getSubprocess(0).getInnerSinks().getPortByIndex(0));
+		return process.run(new IOContainer(exampleSet));
+	}
+
+	private static Operator createOperator(Class<? extends Operator> operatorClass, boolean randomized) {
+		Operator operator;
+		try {
+			operator = operatorClass.getConstructor(OperatorDescription.class)
+					.newInstance(new OperatorDescription("", "decomposition", operatorClass, null, null, null));
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+		operator.setParameter(RandomizedDecomposition.PARAMETER_DECOMPOSITION,
+				RandomizedDecomposition.DECOMPOSITION_METHODS[randomized ? RandomizedDecomposition.DECOMPOSITION_RANDOMIZED
+						: RandomizedDecomposition.DECOMPOSITION_EXACT]);
+		operator.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		operator.setParameter(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED, "1992");
+		return operator;
+	}
+
+	/**
+	 * Creates data of the given rank with well separated singular values plus the given offset per
+	 * column, which raises the rank of the uncentered data by one. For sparse data, the factors are
+	 * sparse so that most values are zero.
+	 */
+	private static double[][] createLowRankData(long seed, boolean sparse, double offset) {
+		Random random = new Random(seed);
+		double[][] left = new double[SIZE][RANK];
+		double[][] right = new double[RANK][COLUMNS];
+		for (int i = 0; i < SIZE; i++) {
+			for (int c = 0; c < RANK; c++) {
+				left[i][c] = sparse && random.nextInt(4) != 0 ? 0 : random.nextGaussian();
+			}
+		}
+		for (int c = 0; c < RANK; c++) {
+			for (int j = 0; j < COLUMNS; j++) {
+				right[c][j] = (sparse && random.nextInt(3) != 0 ? 0 : random.nextGaussian()) * (RANK - c) * 2;
+			}
+		}
+		double[][] data = new double[SIZE][COLUMNS];
+		for (int i = 0; i < SIZE; i++) {
+			for (int j = 0; j < COLUMNS; j++) {
+				double value = 0;
+				for (int c = 0; c < RANK; c++) {
+					value += left[i][c] * right[c][j];
+				}
+				data[i][j] = value + offset * (j + 1);
+			}
+		}
+		return data;
+	}
+
+	private static ExampleSet createExampleSet(double[][] data, boolean sparse) {
+		Attribute[] attributes = new Attribute[COLUMNS];
+		for (int j = 0; j < COLUMNS; j++) {
+			attributes[j] = AttributeFactory.createAttribute("att" + j, Ontology.REAL);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes);
+		DataRowFactory factory = new DataRowFactory(
+				sparse ? DataRowFactory.TYPE_DOUBLE_SPARSE_ARRAY : DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
+		for (double[] row : data) {
+			DataRow dataRow = factory.create(COLUMNS);
+			for (int j = 0; j < COLUMNS; j++) {
+				dataRow.set(attributes[j], row[j]);
+			}
+			builder.addDataRow(dataRow);
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import com.rapidminer.Process;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.OperatorCapability;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+
+/**
+ * Tests that the parameters of the {@link AbstractParallelTreeLearner} reach the tree builder.
+ *
+ * @since 7.6.1
+ */
+public class AbstractParallelTreeLearnerTest {
+
+	/**
+	 * A parallel tree learner growing trees of depth at most two.
+	 */
+	private static class TestTreeLearner extends AbstractParallelTreeLearner {
+
+		private TestTreeLearner() {
+			super(new OperatorDescription("", "test_tree", TestTreeLearner.class, null, null, null));
+		}
+
+		@Override
+		public List<ColumnTerminator> getTerminationCriteria(ExampleSet exampleSet) {
+			List<ColumnTerminator> terminators = new ArrayList<>();
+			terminators.add(new ColumnSingleLabelTermination());
+			terminators.add(new ColumnNoAttributeLeftTermination());
+			terminators.add(new ColumnEmptyTermination());
+			terminators.add(new ColumnMaxDepthTermination(2));
+			return terminators;
+		}
+
+		@Override
+		public Pruner getPruner() {
+			return null;
+		}
+
+		@Override
+		protected AbstractParallelTreeBuilder getTreeBuilder(ExampleSet exampleSet) throws OperatorException {
+			return new NonParallelTreeBuilder(this, createCriterion(), getTerminationCriteria(exampleSet), getPruner(),
+					null, false, 0, 1, 1);
+		}
+
+		@Override
+		public boolean supportsCapability(OperatorCapability capability) {
+			return true;
+		}
+	}
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+	}
+
+    /**
+     * Checks that the number of bins restricts the numerical split points. Without bins the tree
+     * splits between 9 and 10 where the label changes, with two bins the only split point is
+     * between the bins at 19.5.
+     *
+     * @throws OperatorException if learning fails
+     */
+    @Test
+	public void numberOfBinsTest() throws OperatorException {
+		Attribute value = AttributeFactory.createAttribute("value", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		label.getMapping().mapString("low");
+		label.getMapping().mapString("high");
+		ExampleSet exampleSet = ExampleSets.from(value, label).withRole(label, Attributes.LABEL_NAME)
+				.withBlankSize(40).withColumnFiller(value, i -> i).withColumnFiller(label, i -> i < 10 ? 0 : 1).build();
+
+		TestTreeLearner learner = new TestTreeLearner();
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(learner);
+		process.resume();
+		learner.setParameter(AbstractParallelTreeLearner.PARAMETER_CRITERION, "gini_index");
+		learner.setParameter(AbstractParallelTreeLearner.PARAMETER_PRE_PRUNING, "false");
+		Tree tree = ((TreeModel) learner.learn(exampleSet)).getRoot();
+		assertEquals(9.5, getSplitValue(tree), 0);
+
+		learner.setParameter(AbstractParallelTreeLearner.PARAMETER_NUMBER_OF_BINS, "2");
+		tree = ((TreeModel) learner.learn(exampleSet)).getRoot();
+		assertEquals(19.5, getSplitValue(tree), 0);
+	}
+
+	private static double getSplitValue(Tree tree) {
+		assertFalse(tree.isLeaf());
+		Iterator<Edge> edges = tree.childIterator();
+		while (edges.hasNext()) {
+			SplitCondition condition = edges.next().getCondition();
+			if (condition instanceof LessEqualsSplitCondition) {
+				return ((LessEqualsSplitCondition) condition).getValue();
+			}
+		}
+		throw new AssertionError("no numerical split");
+	}
+
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.tools.Ontology;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests the radix sort of the start selections and the partitioning of the selections of the
+ * {@link SelectionCreator}.
+ *
+ * @since 7.6.1
+ */
+public class SelectionCreatorTest {
+
+	private static final double[] SPECIAL_VALUES = { Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY,
+			Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+			Double.MIN_NORMAL, 1, -1, Double.longBitsToDouble(0x7ff0000000000001L),
+			Double.longBitsToDouble(0xfff8000000000000L) };
+
+    /**
+     * Checks that the radix sort orders as {@link Double#compare(double, double)} and keeps the
+     * order of equal values, including both zeros and missing values.
+     */
+    @Test
+	public void radixOrderTest() {
+		Random random = new Random(2017);
+		for (int size : new int[] { 0, 1, 2, 17, 1000, 50_000 }) {
+			double[] column = new double[size];
+			for (int i = 0; i < size; i++) {
+				switch (random.nextInt(4)) {
+					case 0:
+						column[i] = SPECIAL_VALUES[random.nextInt(SPECIAL_VALUES.length)];
+						break;
+					case 1:
+						column[i] = random.nextInt(10) - 5;
+						break;
+					case 2:
+						column[i] = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+						break;
+					default:
+						column[i] = Double.longBitsToDouble(random.nextLong());
+				}
+			}
+			assertArrayEquals("size " + size, sortByComparison(column), SelectionCreator.createSortedSelection(column));
+		}
+	}
+
+    /**
+     * Checks the radix sort on columns where all values or all but the highest digits are equal.
+     */
+    @Test
+	public void radixOrderEqualDigitsTest() {
+		double[] zeros = new double[100];
+		for (int i = 0; i < zeros.length; i++) {
+			zeros[i] = i % 3 == 0 ? -0.0 : 0.0;
+		}
+		assertArrayEquals(sortByComparison(zeros), SelectionCreator.createSortedSelection(zeros));
+
+		double[] missings = new double[100];
+		Arrays.fill(missings, Double.NaN);
+		assertArrayEquals(sortByComparison(missings), SelectionCreator.createSortedSelection(missings));
+
+		double[] signs = new double[100];
+		for (int i = 0; i < signs.length; i++) {
+			signs[i] = i % 2 == 0 ? -2 : 2;
+		}
+		assertArrayEquals(sortByComparison(signs), SelectionCreator.createSortedSelection(signs));
+	}
+
+    /**
+     * Checks that partitioning a range of the selections in place creates the same parts in the
+     * same order as the splits of a copy of that range.
+     *
+     * @throws OperatorException if the column table cannot be created
+     */
+    @Test
+	public void partitionTest() throws OperatorException {
+		ColumnExampleTable columnTable = createColumnTable(3000, new Random(42));
+		SelectionCreator creator = new SelectionCreator(columnTable);
+		Map<Integer, int[]> allSelectedExamples = creator.getStartSelection();
+		int numberOfExamples = columnTable.getNumberOfExamples();
+		double[] splitValues = { -0.5, 0.3, 1.5 };
+
+		Random random = new Random(7);
+		int from = 0;
+		int to = numberOfExamples;
+		for (int round = 0; round < 40; round++) {
+			int bestAttribute = random.nextInt(columnTable.getTotalNumberOfRegularAttributes());
+			double bestSplitValue = splitValues[random.nextInt(splitValues.length)];
+
+			Map<Integer, int[]> copy = new HashMap<>();
+			for (Map.Entry<Integer, int[]> entry : allSelectedExamples.entrySet()) {
+				copy.put(entry.getKey(), Arrays.copyOfRange(entry.getValue(), from, to));
+			}
+			Collection<Map<Integer, int[]>> expected = creator.getSplits(copy, bestAttribute, bestSplitValue);
+
+			int[] ends = creator.getSplitEnds(allSelectedExamples, from, to, bestAttribute, bestSplitValue);
+			assertArrayEquals(ends, creator.partition(allSelectedExamples, from, to, bestAttribute, bestSplitValue));
+			assertEquals(expected.size(), ends.length);
+
+			Iterator<Map<Integer, int[]>> expectedParts = expected.iterator();
+			List<int[]> nonEmptyParts = new ArrayList<>();
+			int start = from;
+			for (int end : ends) {
+				Map<Integer, int[]> expectedPart = expectedParts.next();
+				for (Map.Entry<Integer, int[]> entry : allSelectedExamples.entrySet()) {
+					assertArrayEquals("round " + round + ", attribute " + entry.getKey(),
+							expectedPart.get(entry.getKey()), Arrays.copyOfRange(entry.getValue(), start, end));
+				}
+				if (end > start) {
+					nonEmptyParts.add(new int[] { start, end });
+				}
+				start = end;
+			}
+			assertEquals(to, start);
+
+			// continue with a random part, the other examples must stay where they are
+			int[] part = nonEmptyParts.get(random.nextInt(nonEmptyParts.size()));
+			from = part[0];
+			to = part[1];
+			if (to - from < 10) {
+				from = 0;
+				to = numberOfExamples;
+			}
+		}
+	}
+
+	private static int[] sortByComparison(double[] column) {
+		Integer[] indices = new Integer[column.length];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = i;
+		}
+		// the object sort is stable
+		Arrays.sort(indices, (a, b) -> Double.compare(column[a], column[b]));
+		int[] sorted = new int[indices.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = indices[i];
+		}
+		return sorted;
+	}
+
+	/**
+	 * Creates a table with two nominal and two numerical attributes with missing values.
+	 */
+	private static ColumnExampleTable createColumnTable(int size, Random random) throws OperatorException {
+		List<Attribute> attributes = new ArrayList<>();
+		for (int a = 0; a < 2; a++) {
+			Attribute nominal = AttributeFactory.createAttribute("nominal" + a, Ontology.NOMINAL);
+			for (int v = 0; v < 4 + 20 * a; v++) {
+				nominal.getMapping().mapString("value" + v);
+			}
+			attributes.add(nominal);
+		}
+		attributes.add(AttributeFactory.createAttribute("integers", Ontology.INTEGER));
+		attributes.add(AttributeFactory.createAttribute("reals", Ontology.REAL));
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		label.getMapping().mapString("no");
+		label.getMapping().mapString("yes");
+		attributes.add(label);
+
+		double[][] columns = new double[attributes.size()][size];
+		for (int i = 0; i < size; i++) {
+			for (int a = 0; a < 2; a++) {
+				columns[a][i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(4 + 20 * a);
+			}
+			columns[2][i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(3) - 1;
+			columns[3][i] = random.nextInt(10) == 0 ? Double.NaN : random.nextGaussian();
+			columns[4][i] = random.nextInt(2);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(size).withRole(label,
+				Attributes.LABEL_NAME);
+		for (int a = 0; a < attributes.size(); a++) {
+			double[] column = columns[a];
+			builder.withColumnFiller(attributes.get(a), i -> column[i]);
+		}
+		ExampleSet exampleSet = builder.build();
+		return new ColumnExampleTable(exampleSet, null, false);
+	}
+
+}
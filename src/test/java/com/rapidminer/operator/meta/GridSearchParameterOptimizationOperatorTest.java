@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.meta;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.datatable.DataTable;
+import com.rapidminer.datatable.DataTableRow;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.ValueDouble;
+import com.rapidminer.operator.performance.EstimatedPerformance;
+import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.visualization.ProcessLogOperator;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.ParameterTypeTupel;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests that the parallel evaluation of the {@link GridSearchParameterOptimizationOperator} finds
+ * the same best parameter set and logs the same rows as the sequential evaluation.
+ *
+ * @since 7.6.1
+ */
+public class GridSearchParameterOptimizationOperatorTest {
+
+	/** The score operators which have been executed. */
+	private static final Set<Operator> EXECUTED = Collections.synchronizedSet(Collections
+			.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and sets a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Optimizes a score with ties between the kernels. The first best combination in the order of
+     * the grid must win and the process log must contain the rows of all combinations in this
+     * order, for the sequential and the parallel evaluation.
+     *
+     * @throws OperatorException if the optimization fails
+     */
+    @Test
+	public void parallelEqualsSequentialTest() throws OperatorException {
+		Result sequential = optimize(false);
+		Result parallel = optimize(true);
+
+		assertTrue(EXECUTED.contains(sequential.scoreOperator));
+		assertFalse(EXECUTED.contains(parallel.scoreOperator));
+		assertEquals("[score.kernel=a, score.x=3]", sequential.best.toString());
+		assertEquals(sequential.best, parallel.best);
+		assertEquals(-0.0, sequential.bestPerformance, 0);
+		assertEquals(sequential.bestPerformance, parallel.bestPerformance, 0);
+		assertEquals(3 * 7, sequential.logRows.size());
+		assertEquals(sequential.logRows, parallel.logRows);
+	}
+
+	/**
+	 * Runs a grid search over the kernels and the values 0 to 6 of the score operator.
+	 */
+	private static Result optimize(boolean parallel) throws OperatorException {
+		Process process = new Process();
+		process.resume();
+		GridSearchParameterOptimizationOperator optimize = new GridSearchParameterOptimizationOperator(
+				new OperatorDescription("", "optimize", GridSearchParameterOptimizationOperator.class, null, null, null));
+		process.getRootOperator().getSubprocess(0).addOperator(optimize);
+		ScoreOperator score = new ScoreOperator(
+				new OperatorDescription("", "score_test", ScoreOperator.class, null, null, null));
+		score.rename("score");
+		optimize.getSubprocess(0).addOperator(score);
+		score.getOutputPorts().getPortByName("performance")
+				.connectTo(optimize.getSubprocess(0).getInnerSinks().getPortByName("performance"));
+		ProcessLogOperator log = new ProcessLogOperator(
+				new OperatorDescription("", "log", ProcessLogOperator.class, null, null, null));
+		log.rename("log");
+		List<String[]> logged = new ArrayList<>();
+		logged.add(new String[] { "kernel", "operator.score.parameter.kernel" });
+		logged.add(new String[] { "x", "operator.score.parameter.x" });
+		logged.add(new String[] { "score", "operator.score.value.score" });
+		log.setListParameter(ProcessLogOperator.PARAMETER_LOG, logged);
+		optimize.getSubprocess(0).addOperator(log);
+
+		List<String[]> grid = new ArrayList<>();
+		grid.add(new String[] { ParameterTypeTupel.transformTupel2String("score", "kernel"), "a,b,c" });
+		grid.add(new String[] { ParameterTypeTupel.transformTupel2String("score", "x"), "0,1,2,3,4,5,6" });
+		optimize.setListParameter(ParameterIteratingOperatorChain.PARAMETER_PARAMETERS, grid);
+		optimize.setParameter(ParameterIteratingOperatorChain.PARAMETER_ENABLE_PARALLEL_EXECUTION,
+				String.valueOf(parallel));
+		optimize.execute();
+
+		Result result = new Result();
+		result.scoreOperator = score;
+		ParameterSet best = optimize.getOutputPorts().getPortByName("parameter").getData(ParameterSet.class);
+		List<String> values = new ArrayList<>();
+		for (Iterator<ParameterValue> i = best.getParameterValues(); i.hasNext();) {
+			ParameterValue value = i.next();
+			values.add(value.getOperator() + "." + value.getParameterKey() + "=" + value.getParameterValue());
+		}
+		Collections.sort(values);
+		result.best = values.toString();
+		result.bestPerformance = best.getPerformance().getMainCriterion().getAverage();
+		DataTable table = process.getDataTable("log");
+		for (DataTableRow row : table) {
+			result.logRows.add(table.getValueAsString(row, 0) + ";" + table.getValueAsString(row, 1) + ";"
+					+ table.getValueAsString(row, 2));
+		}
+		return result;
+	}
+
+	/**
+	 * The outcome of an optimization.
+	 */
+	private static class Result {
+
+		private Operator scoreOperator;
+		private String best;
+		private double bestPerformance;
+		private final List<String> logRows = new ArrayList<>();
+	}
+
+	/**
+	 * Delivers the performance {@code -(x - 3)^2}, independent of the kernel.
+	 */
+	public static class ScoreOperator extends Operator {
+
+		private final OutputPort performanceOutput = getOutputPorts().createPort("performance");
+
+		private double score;
+
+		public ScoreOperator(OperatorDescription description) {
+			super(description);
+			addValue(new ValueDouble("score", "The last score.") {
+
+				@Override
+				public double getDoubleValue() {
+					return score;
+				}
+			});
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			int x = getParameterAsInt("x");
+			score = -(x - 3) * (x - 3);
+			PerformanceVector performance = new PerformanceVector();
+			performance.addCriterion(new EstimatedPerformance("score", score, 1, false));
+			performanceOutput.deliver(performance);
+			EXECUTED.add(this);
+		}
+
+		@Override
+		public List<ParameterType> getParameterTypes() {
+			List<ParameterType> types = super.getParameterTypes();
+			types.add(new ParameterTypeCategory("kernel", "The kernel.", new String[] { "a", "b", "c" }, 0));
+			types.add(new ParameterTypeInt("x", "The value to optimize.", 0, 10, 0));
+			return types;
+		}
+	}
+
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.nio.CSVExampleSource;
+import com.rapidminer.test_utils.RapidAssert;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.io.Encoding;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Tests that the {@link ParallelCSVReader} delivers the same example sets as reading the rows of
+ * the {@link CSVResultSet} one by one.
+ */
+public class ParallelCSVReaderTest {
+
+	private static final int NUMBER_OF_BLOCKS = 4;
+
+	/**
+	 * Lines put at the block boundaries together with the offset of the boundary inside of them.
+	 */
+	private static final String[][] BOUNDARY_LINES = { { "1,\"a\nb\",2,\n", "5" }, { "1,\"a\nb\",2,\n", "4" },
+			{ "1,\"a\r\nb\",2,\n", "5" }, { "1,x,2,\r\n", "7" } };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process as well as the asserters for comparing example sets.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setupProcess() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		RapidMiner.initAsserters();
+	}
+
+    /**
+     * Reads values of all kinds with missings, comments and unparseable values.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void mixedValuesTest() throws Exception {
+		StringBuilder content = new StringBuilder("id,name,value,date\n");
+		int row = 0;
+		while (content.length() < NUMBER_OF_BLOCKS * ParallelCSVReader.BYTES_PER_TASK) {
+			content.append(createRow(row++)).append(row % 2 == 0 ? "\n" : "\r\n");
+		}
+		assertSameExampleSets(write(content.toString()), row);
+	}
+
+    /**
+     * Reads a file whose block boundaries are right before, inside or after quoted values with
+     * line breaks and {@code \r\n} line terminators.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void lineBreaksAtBlockBoundariesTest() throws Exception {
+		StringBuilder content = new StringBuilder("id,name,value,date\n");
+		int row = 0;
+		for (int block = 1; block <= NUMBER_OF_BLOCKS; block++) {
+			String[] boundaryLine = BOUNDARY_LINES[block - 1];
+			int lineStart = block * ParallelCSVReader.BYTES_PER_TASK - Integer.parseInt(boundaryLine[1]);
+			row = appendRows(content, lineStart, row, "\n");
+			content.append(boundaryLine[0]);
+		}
+		content.append(createRow(row)).append('\n');
+		assertSameExampleSets(write(content.toString()), -1);
+	}
+
+    /**
+     * Reads a file with {@code \r\n} line terminators only, whose block boundaries are between the
+     * two characters of a terminator, right in front of one and right behind one.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void crlfLineEndingsTest() throws Exception {
+		String[][] boundaryLines = { { "1,x,2,\r\n", "7" }, { "2,\"a\r\nb\",3,\r\n", "0" }, { "3,y,4,\r\n", "6" },
+				{ "\r\n4,z,5,\r\n", "1" } };
+		StringBuilder content = new StringBuilder("id,name,value,date\r\n");
+		int row = 0;
+		for (int block = 1; block <= NUMBER_OF_BLOCKS; block++) {
+			String[] boundaryLine = boundaryLines[block - 1];
+			int lineStart = block * ParallelCSVReader.BYTES_PER_TASK - Integer.parseInt(boundaryLine[1]);
+			row = appendRows(content, lineStart, row, "\r\n");
+			content.append(boundaryLine[0]);
+		}
+		content.append(createRow(row)).append("\r\n");
+		assertSameExampleSets(write(content.toString()), -1);
+	}
+
+    /**
+     * Reads a file starting with a UTF-8 byte order mark, which is neither part of the first
+     * attribute name nor counted for the block boundaries.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void utf8BomTest() throws Exception {
+		StringBuilder content = new StringBuilder("\uFEFFid,name,value,date\r\n");
+		// the mark is one character but three bytes, so the blocks start one character behind
+		// their byte offsets
+		int row = appendRows(content, ParallelCSVReader.BYTES_PER_TASK + 1, 0, "\r\n");
+		content.append("1,x,2,\r\n");
+		row = appendRows(content, 2 * ParallelCSVReader.BYTES_PER_TASK - 2, row, "\r\n");
+		content.append("2,y,3,\r\n");
+		content.append(createRow(row)).append("\r\n");
+		File file = write(content.toString());
+		assertSameExampleSets(file, -1);
+		assertTrue(read(file, true, true).getAttributes().get("id") != null);
+	}
+
+    /**
+     * Reads a file whose block boundaries are at the start, inside and at the end of comment
+     * lines, including a comment with an unbalanced quote.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void commentsAtBlockBoundariesTest() throws Exception {
+		String[][] boundaryLines = { { "# comment\n", "0" }, { "# comment, \"a\n", "4" }, { "#\n", "1" },
+				{ "# c\r\n", "4" } };
+		StringBuilder content = new StringBuilder("id,name,value,date\n");
+		int row = 0;
+		for (int block = 1; block <= NUMBER_OF_BLOCKS; block++) {
+			String[] boundaryLine = boundaryLines[block - 1];
+			int lineStart = block * ParallelCSVReader.BYTES_PER_TASK - Integer.parseInt(boundaryLine[1]);
+			row = appendRows(content, lineStart, row, "\n");
+			content.append(boundaryLine[0]);
+		}
+		content.append(createRow(row)).append('\n');
+		assertSameExampleSets(write(content.toString()), -1);
+	}
+
+    /**
+     * Reads a file with unparseable values and malformed lines at the block boundaries as missing
+     * values, as done by the sequential reader.
+     *
+     * @throws Exception if reading fails
+     */
+    @Test
+	public void errorsAtBlockBoundariesTest() throws Exception {
+		String[][] boundaryLines = { { "1,x,y,\n", "0" }, { "2,\"a\"b,3,\n", "0" }, { "3,x,z,2017-01-01\n", "5" },
+				{ "4,\"a\"b,4,\n", "3" } };
+		StringBuilder content = new StringBuilder("id,name,value,date\n");
+		int row = 0;
+		for (int block = 1; block <= NUMBER_OF_BLOCKS; block++) {
+			String[] boundaryLine = boundaryLines[block - 1];
+			int lineStart = block * ParallelCSVReader.BYTES_PER_TASK - Integer.parseInt(boundaryLine[1]);
+			row = appendRows(content, lineStart, row, "\n");
+			content.append(boundaryLine[0]);
+		}
+		content.append(createRow(row)).append('\n');
+		assertSameExampleSets(write(content.toString()), -1);
+	}
+
+    /**
+     * Fails with the same row number as the sequential reader if a value at a block boundary cannot
+     * be parsed and the values are not read as missings.
+     *
+     * @throws Exception if reading fails unexpectedly
+     */
+    @Test
+	public void valueErrorAtBlockBoundaryTest() throws Exception {
+		StringBuilder content = new StringBuilder("id,name,value,date\n");
+		int row = appendRows(content, 2 * ParallelCSVReader.BYTES_PER_TASK, 0, "\n");
+		content.append("1,x,y,\n");
+		content.append(createRow(row)).append('\n');
+		File file = write(content.toString().replace("n/a", ""));
+
+		String expected = readError(file, false);
+		assertTrue(expected.contains("y"));
+		assertEquals(expected, readError(file, true));
+	}
+
+	/**
+	 * Appends rows and comment lines with the given terminator so that the next line starts at the
+	 * given position. Returns the number of the next row.
+	 */
+	private static int appendRows(StringBuilder content, int lineStart, int row, String terminator) {
+		int next = row;
+		String line = createRow(next);
+		while (content.length() + line.length() + terminator.length() < lineStart - 40) {
+			content.append(line).append(terminator);
+			line = createRow(++next);
+		}
+		String comment = "# comment" + terminator;
+		while (lineStart - content.length() > comment.length() + terminator.length()) {
+			content.append(comment);
+		}
+		while (content.length() < lineStart - terminator.length()) {
+			content.append('#');
+		}
+		content.append(terminator);
+		return next;
+	}
+
+	private static String createRow(int row) {
+		String value = row % 11 == 0 ? "" : row % 101 == 0 ? "n/a" : String.valueOf(row * 0.25);
+		String date = row % 13 == 0 ? "" : String.format("2017-%02d-%02d", row % 12 + 1, row % 28 + 1);
+		if (row % 1000 == 0) {
+			return "# comment " + row;
+		}
+		return row + ",\"name " + row % 97 + "\"," + value + "," + date;
+	}
+
+	private File write(String content) throws IOException {
+		File file = folder.newFile("data.csv");
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static void assertSameExampleSets(File file, int rows) throws OperatorException {
+		ExampleSet expected = read(file, false, true);
+		ExampleSet actual = read(file, true, true);
+		if (rows >= 0) {
+			assertTrue(expected.size() > 0);
+			assertEquals(rows - (rows + 999) / 1000, expected.size());
+		}
+		RapidAssert.assertEquals(expected, actual);
+	}
+
+	private static String readError(File file, boolean parallel) throws OperatorException {
+		try {
+			read(file, parallel, false);
+		} catch (UserError e) {
+			return e.getMessage();
+		}
+		fail("parsing error expected");
+		return null;
+	}
+
+	private static ExampleSet read(File file, boolean parallel, boolean faultTolerant) throws OperatorException {
+		CSVExampleSource source = new CSVExampleSource(
+				new OperatorDescription("", "read_csv", CSVExampleSource.class, null, null, null));
+		source.setParameter(CSVExampleSource.PARAMETER_CSV_FILE, file.getAbsolutePath());
+		source.setParameter(CSVExampleSource.PARAMETER_COLUMN_SEPARATORS, ",");
+		source.setParameter(Encoding.PARAMETER_ENCODING, StandardCharsets.UTF_8.name());
+		source.setParameter(CSVExampleSource.PARAMETER_SKIP_COMMENTS, "true");
+		source.setParameter(CSVExampleSource.PARAMETER_COMMENT_CHARS, "#");
+		source.setParameter(AbstractDataResultSetReader.PARAMETER_DATE_FORMAT, "yyyy-MM-dd");
+		source.setParameter(CSVExampleSource.PARAMETER_ENABLE_PARALLEL_EXECUTION, String.valueOf(parallel));
+		source.setParameter(AbstractDataResultSetReader.PARAMETER_ERROR_TOLERANT, String.valueOf(faultTolerant));
+		Process process = new Process();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		unit.addOperator(source);
+		source.getOutputPorts().getPortByIndex(0).connectTo(unit.getInnerSinks().getPortByIndex(0));
+		return process.run().get(ExampleSet.class);
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ * Unit tests for the {@link XlsxSharedStrings} table.
+ *
+ * @since 7.6.1
+ */
+public class XlsxSharedStringsTest {
+
+    /**
+     * Items are returned as added.
+     */
+    @Test
+	public void addAndGetTest() {
+		String[] items = { "", "text", null, "\u00E4\u00F6\u00FC\u00DF", "\u20AC 5", "\u65E5\u672C\u8A9E",
+				"\uD83D\uDE00 smile", "new\nline" };
+		XlsxSharedStrings strings = new XlsxSharedStrings(2);
+		for (String item : items) {
+			strings.add(item == null ? null : new StringBuilder(item));
+		}
+		assertEquals(items.length, strings.size());
+		for (int i = 0; i < items.length; i++) {
+			assertEquals(items[i], strings.get(i));
+		}
+		assertNull(strings.get(2));
+		assertArrayEquals(items, strings.toArray());
+	}
+
+    /**
+     * Unpaired surrogates are replaced like done by {@link String#getBytes}.
+     */
+    @Test
+	public void unpairedSurrogateTest() {
+		XlsxSharedStrings strings = new XlsxSharedStrings(0);
+		strings.add("a\uD800b");
+		strings.add("\uDC00");
+		assertEquals("a?b", strings.get(0));
+		assertEquals("?", strings.get(1));
+	}
+
+    /**
+     * Items fill several pages and items longer than a page are kept in their own page.
+     */
+    @Test
+	public void pagesTest() {
+		char[] longItem = new char[(1 << 20) + 7];
+		Arrays.fill(longItem, '\u00E9');
+		String[] items = new String[5_000];
+		XlsxSharedStrings strings = new XlsxSharedStrings(16);
+		for (int i = 0; i < items.length; i++) {
+			items[i] = i % 1_000 == 500 ? new String(longItem) : "item " + i + new String(longItem, 0, i % 300);
+			strings.add(items[i]);
+		}
+		for (int i = items.length - 1; i >= 0; i--) {
+			assertEquals(items[i], strings.get(i));
+		}
+	}
+
+    /**
+     * Repeated reads share the cached instance until another item with the same cache slot is read.
+     */
+    @Test
+	public void cacheTest() {
+		XlsxSharedStrings strings = new XlsxSharedStrings(1 << 13);
+		for (int i = 0; i < 1 << 13; i++) {
+			strings.add("item " + i);
+		}
+		String first = strings.get(1);
+		assertSame(first, strings.get(1));
+		assertEquals("item " + ((1 << 12) + 1), strings.get((1 << 12) + 1));
+		assertEquals(first, strings.get(1));
+	}
+
+    /**
+     * Reading an index which was not added fails.
+     */
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void outOfBoundsTest() {
+		XlsxSharedStrings strings = new XlsxSharedStrings(16);
+		strings.add("only");
+		strings.get(1);
+	}
+}
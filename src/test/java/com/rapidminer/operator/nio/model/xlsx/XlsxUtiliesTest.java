@@ -18,10 +18,16 @@
 */
 package com.rapidminer.operator.nio.model.xlsx;
 
+import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxCell;
 import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxCellCoordinates;
+import com.rapidminer.operator.nio.model.xlsx.XlsxUtilities.XlsxRowText;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -106,4 +112,76 @@ public class XlsxUtiliesTest {
 	public void convertToCellRefToCoordinatesIllegalArgumentNotLetterTest() {
 		XlsxUtilities.convertCellRefToCoordinates("1");
 	}
+
+    /**
+     * Cell numbers parsed from the row text equal the numbers parsed by {@link Double#parseDouble}.
+     */
+    @Test
+	public void cellNumberTest() {
+		String[] values = { "0", "-0", "+0", "0.0", "1", "-1", "42", "0.1", "0.3", "-2.5", ".5", "5.", "1e3", "1E-3",
+				"1.5e+10", "123456789012345", "1234567890123456", "12345678901234567890", "0.000000000000000000001",
+				"1e22", "1e23", "1e-22", "1e-23", "9007199254740993", "4.35", "2.675", "1e308", "1e-320", "00012.500",
+				"3.141592653589793", "1.7976931348623157E308", "NaN", "Infinity", "-Infinity", "0x1p3", " 1", "1 " };
+		for (String value : values) {
+			assertEquals(value, Double.parseDouble(value), number(value), 0);
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			String digits = Long.toString(Math.abs(random.nextLong() % 1_000_000_000_000_000L));
+			int point = random.nextInt(digits.length() + 1);
+			String value = (random.nextBoolean() ? "-" : "") + digits.substring(0, point) + "." + digits.substring(point);
+			if (random.nextBoolean()) {
+				value += "E" + (random.nextInt(60) - 30);
+			}
+			assertEquals(value, Double.parseDouble(value), number(value), 0);
+		}
+	}
+
+    /**
+     * Values that are no numbers are rejected like by {@link Double#parseDouble}.
+     */
+    @Test
+	public void cellNumberIllegalTest() {
+		for (String value : new String[] { "", "-", ".", "e5", "1e", "1e+", "1..2", "1,5", "abc", "1-2" }) {
+			try {
+				number(value);
+				throw new AssertionError("Parsed illegal number " + value);
+			} catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+
+    /**
+     * Cell values kept in the row text.
+     */
+    @Test
+	public void cellTextTest() {
+		XlsxRowText rowText = new XlsxRowText();
+		XlsxCell first = cell(rowText, "first");
+		XlsxCell blank = cell(rowText, " \t ");
+		XlsxCell empty = cell(rowText, "");
+		XlsxCell number = cell(rowText, "2.5");
+		assertEquals("first", first.getValue());
+		assertEquals(2.5, number.getNumber(), 0);
+		assertEquals("2.5", number.getValue());
+		assertFalse(first.isBlank());
+		assertTrue(blank.isBlank());
+		assertTrue(empty.isBlank());
+		assertTrue(empty.hasValue());
+		assertFalse(new XlsxCell(XlsxCellType.NUMBER).hasValue());
+		assertEquals(new XlsxCell(XlsxCellType.NUMBER), new XlsxCell(XlsxCellType.NUMBER));
+		assertEquals(cell(new XlsxRowText(), "first"), first);
+	}
+
+	private static double number(String value) {
+		return cell(new XlsxRowText(), value).getNumber();
+	}
+
+	private static XlsxCell cell(XlsxRowText rowText, String value) {
+		XlsxCell cell = new XlsxCell(XlsxCellType.NUMBER);
+		char[] characters = ("<v>" + value + "</v>").toCharArray();
+		cell.setText(rowText, characters, 3, value.length());
+		return cell;
+	}
 }
@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.join;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.test_utils.RapidAssert;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the results of the {@link ExampleSetJoin} with those of the {@link LegacyExampleSetJoin}
+ * for all join types with duplicate and missing keys on both sides.
+ *
+ * @since 7.6.1
+ */
+public class KeyJoinTest {
+
+	private static final String[] LEFT_KEYS = { "x", "y", "z", "w" };
+
+	/** Partly the same values as on the left side, but in a different order of the mapping. */
+	private static final String[] RIGHT_KEYS = { "z", "v", "y", "x" };
+
+	private static final double[] LEFT_NUMBERS = { 1, 2, 3, -0.0, 0.0, Double.NaN, 4 };
+
+	private static final double[] RIGHT_NUMBERS = { 2, 3, 5, 0.0, Double.NaN, -0.0 };
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process, the asserters for comparing example sets and a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+		RapidMiner.initAsserters();
+	}
+
+    /**
+     * Joins by a nominal key whose values are mapped differently on both sides.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void nominalKey() throws OperatorException {
+		assertSameJoins(createLeft(300), createRight(200), "key");
+	}
+
+    /**
+     * Joins by a numerical key with both zeros.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void numericalKey() throws OperatorException {
+		assertSameJoins(createLeft(300), createRight(200), "num");
+	}
+
+    /**
+     * Joins by a nominal and a numerical key.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void combinedKeys() throws OperatorException {
+		assertSameJoins(createLeft(300), createRight(200), "key", "num");
+	}
+
+    /**
+     * Joins by the id attributes.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void idKey() throws OperatorException {
+		assertSameJoins(createLeft(300), createRight(200));
+	}
+
+    /**
+     * Joins more examples than read in one round of the parallel look-ups.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void manyExamples() throws OperatorException {
+		assertSameJoins(createLeft(100_000), createRight(400), "key", "num");
+	}
+
+    /**
+     * Joins inputs sorted by their key with the sort-merge strategy.
+     *
+     * @throws OperatorException if joining fails
+     */
+    @Test
+	public void sortMerge() throws OperatorException {
+		for (String key : new String[] { "key", "num" }) {
+			ExampleSet left = createLeft(300);
+			ExampleSet right = createRight(200);
+			left = new SortedExampleSet(left, left.getAttributes().get(key), SortedExampleSet.INCREASING);
+			right = new SortedExampleSet(right, right.getAttributes().get(key), SortedExampleSet.INCREASING);
+			for (int joinType = 0; joinType < ExampleSetJoin.JOIN_TYPES.length; joinType++) {
+				ExampleSet expected = join(LegacyExampleSetJoin.class, left, right, joinType, key);
+				ExampleSet actual = join(ExampleSetJoin.class, left, right, joinType, key);
+				RapidAssert.assertEquals(ExampleSetJoin.JOIN_TYPES[joinType] + " join by " + key, expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * Joins with all join types using the given key attributes or the id if there are none.
+	 */
+	private static void assertSameJoins(ExampleSet left, ExampleSet right, String... keys) throws OperatorException {
+		for (int joinType = 0; joinType < ExampleSetJoin.JOIN_TYPES.length; joinType++) {
+			ExampleSet expected = join(LegacyExampleSetJoin.class, left, right, joinType, keys);
+			ExampleSet actual = join(ExampleSetJoin.class, left, right, joinType, keys);
+			assertTrue(expected.size() > 0);
+			RapidAssert.assertEquals(ExampleSetJoin.JOIN_TYPES[joinType] + " join", expected, actual);
+		}
+	}
+
+	private static ExampleSet join(Class<? extends AbstractExampleSetJoin> joinClass, ExampleSet left,
+			ExampleSet right, int joinType, String... keys) throws OperatorException {
+		AbstractExampleSetJoin join;
+		try {
+			join = joinClass.getConstructor(OperatorDescription.class)
+					.newInstance(new OperatorDescription("", "join", joinClass, null, null, null));
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+		join.setParameter(ExampleSetJoin.PARAMETER_JOIN_TYPE, ExampleSetJoin.JOIN_TYPES[joinType]);
+		join.setParameter(ExampleSetJoin.PARAMETER_USE_ID, String.valueOf(keys.length == 0));
+		if (joinClass == ExampleSetJoin.class && left instanceof SortedExampleSet) {
+			join.setParameter(ExampleSetJoin.PARAMETER_JOIN_STRATEGY,
+					ExampleSetJoin.JOIN_STRATEGIES[ExampleSetJoin.JOIN_STRATEGY_SORT_MERGE]);
+		}
+		List<String[]> keyPairs = new ArrayList<>();
+		for (String key : keys) {
+			keyPairs.add(new String[] { key, key });
+		}
+		join.setListParameter(ExampleSetJoin.PARAMETER_JOIN_ATTRIBUTES, keyPairs);
+
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(join);
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(0).connectTo(join.getLeftInput());
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(1).connectTo(join.getRightInput());
+		join.getJoinOutput().connectTo(process.getRootOperator().getSubprocess(0).getInnerSinks().getPortByIndex(0));
+		return process.run(new IOContainer(left, right)).get(ExampleSet.class);
+	}
+
+	private static ExampleSet createLeft(int size) {
+		return create(size, 150, 0, LEFT_KEYS, LEFT_NUMBERS, 2017);
+	}
+
+	private static ExampleSet createRight(int size) {
+		return create(size, 120, 60, RIGHT_KEYS, RIGHT_NUMBERS, 2018);
+	}
+
+	/**
+	 * Creates a set with duplicate and missing ids, nominal and numerical keys and a value unique
+	 * to the side.
+	 */
+	private static ExampleSet create(int size, int ids, int firstId, String[] keys, double[] numbers, long seed) {
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.INTEGER);
+		Attribute key = AttributeFactory.createAttribute("key", Ontology.POLYNOMINAL);
+		Attribute num = AttributeFactory.createAttribute("num", Ontology.REAL);
+		Attribute value = AttributeFactory.createAttribute(seed == 2017 ? "left" : "right", Ontology.REAL);
+		for (String keyValue : keys) {
+			key.getMapping().mapString(keyValue);
+		}
+		Random random = new Random(seed);
+		double[][] columns = new double[4][size];
+		for (int row = 0; row < size; row++) {
+			columns[0][row] = random.nextInt(20) == 0 ? Double.NaN : firstId + random.nextInt(ids);
+			int keyIndex = random.nextInt(keys.length + 1);
+			columns[1][row] = keyIndex == keys.length ? Double.NaN : keyIndex;
+			columns[2][row] = numbers[random.nextInt(numbers.length)];
+			columns[3][row] = row;
+		}
+		return ExampleSets.from(id, key, num, value).withRole(id, Attributes.ID_NAME).withBlankSize(size)
+				.withColumnFiller(id, row -> columns[0][row]).withColumnFiller(key, row -> columns[1][row])
+				.withColumnFiller(num, row -> columns[2][row]).withColumnFiller(value, row -> columns[3][row]).build();
+	}
+
+}
@@ -0,0 +1,290 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.outlier;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorVersion;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.math.container.GeometricDataCollections;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the outlier scores of the {@link LOFOutlierOperator}, the {@link DBOutlierOperator} and
+ * the {@link DKNOutlierOperator}, computed by the {@link NeighbourQueryEngine}, with those computed
+ * by the {@link SearchSpace} at the compatibility level
+ * {@link AbstractOutlierDetection#VERSION_SEARCH_SPACE_ONLY}. The data has many equal distances and
+ * duplicate rows, but no missing distances, which the engine orders differently: it has no missing
+ * values and no zero rows, and the angle is only tested on data without parallel rows, for which
+ * the rounded cosine may exceed one.
+ *
+ * @since 7.6.1
+ */
+public class NeighbourQueryEngineTest {
+
+	private static final String[] DISTANCE_FUNCTIONS = { "euclidian distance", "squared distance", "cosine distance",
+			"inverted cosine distance", "angle" };
+
+	/** The structures tested for the euclidian and the squared distance. */
+	private static final int[] STRUCTURES = { GeometricDataCollections.LINEAR_SEARCH, GeometricDataCollections.KD_TREE,
+			GeometricDataCollections.BALL_TREE };
+
+	private static final int GAUSSIAN = 0;
+
+	private static final int GAUSSIAN_WITH_DUPLICATES = 1;
+
+	private static final int DISCRETE_WITH_DUPLICATES = 2;
+
+	private static final String[] DATA = { "gaussian data", "gaussian data with duplicates",
+			"discrete data with duplicates" };
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Compares the local outlier factors for all distance functions and search structures, with
+     * lower bounds below and above the number of duplicates.
+     *
+     * @throws OperatorException if the outlier detection fails
+     */
+    @Test
+	public void lof() throws OperatorException {
+		for (String distanceFunction : DISTANCE_FUNCTIONS) {
+			for (int data : getData(distanceFunction)) {
+				for (int structure : getStructures(distanceFunction)) {
+					for (int[] bounds : new int[][] { { 1, 5 }, { 4, 12 }, { 10, 10 } }) {
+						LOFOutlierOperator lof = createOperator(LOFOutlierOperator.class, distanceFunction, structure);
+						lof.setParameter(LOFOutlierOperator.PARAMETER_MINIMAL_POINTS_LOWER_BOUND,
+								String.valueOf(bounds[0]));
+						lof.setParameter(LOFOutlierOperator.PARAMETER_MINIMAL_POINTS_UPPER_BOUND,
+								String.valueOf(bounds[1]));
+						assertSameScores(lof, data, distanceFunction + " " + structure + " MinPts " + bounds[0]
+								+ " to " + bounds[1] + " on " + DATA[data]);
+					}
+				}
+			}
+		}
+	}
+
+    /**
+     * Compares the DB(p,D)-outliers for all distance functions and search structures, with small
+     * proportions counted by the index and large ones counted by a linear scan.
+     *
+     * @throws OperatorException if the outlier detection fails
+     */
+    @Test
+	public void db() throws OperatorException {
+		for (String distanceFunction : DISTANCE_FUNCTIONS) {
+			double distance = getTypicalDistance(distanceFunction);
+			for (int data : getData(distanceFunction)) {
+				for (int structure : getStructures(distanceFunction)) {
+					for (double proportion : new double[] { 0.5, 0.9, 0.99 }) {
+						DBOutlierOperator db = createOperator(DBOutlierOperator.class, distanceFunction, structure);
+						db.setParameter(DBOutlierOperator.PARAMETER_DISTANCE, String.valueOf(distance));
+						db.setParameter(DBOutlierOperator.PARAMETER_PROPORTION, String.valueOf(proportion));
+						assertSameScores(db, data, distanceFunction + " " + structure + " p " + proportion
+								+ " on " + DATA[data]);
+					}
+				}
+			}
+		}
+	}
+
+    /**
+     * Compares the D^k_n-outliers for all distance functions and search structures, with many
+     * equal k-distances on the discrete data.
+     *
+     * @throws OperatorException if the outlier detection fails
+     */
+    @Test
+	public void dkn() throws OperatorException {
+		for (String distanceFunction : DISTANCE_FUNCTIONS) {
+			for (int data : getData(distanceFunction)) {
+				for (int structure : getStructures(distanceFunction)) {
+					for (int[] kn : new int[][] { { 1, 10 }, { 5, 3 }, { 12, 40 } }) {
+						DKNOutlierOperator dkn = createOperator(DKNOutlierOperator.class, distanceFunction, structure);
+						dkn.setParameter(DKNOutlierOperator.PARAMETER_NUMBER_OF_NEIGHBORS, String.valueOf(kn[0]));
+						dkn.setParameter(DKNOutlierOperator.PARAMETER_NUMBER_OF_OUTLIERS, String.valueOf(kn[1]));
+						assertSameScores(dkn, data, distanceFunction + " " + structure + " k " + kn[0] + " n "
+								+ kn[1] + " on " + DATA[data]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the operator at the compatibility level of the search space and the current one and
+	 * compares the outlier attributes.
+	 */
+	private static void assertSameScores(AbstractOutlierDetection operator, int data, String message)
+			throws OperatorException {
+		operator.setCompatibilityLevel(AbstractOutlierDetection.VERSION_SEARCH_SPACE_ONLY);
+		ExampleSet expected = run(operator, create(data));
+		operator.setCompatibilityLevel(OperatorVersion.getLatestVersion(operator.getOperatorDescription()));
+		assertTrue(operator.usesNeighbourQueries());
+		ExampleSet actual = run(operator, create(data));
+
+		Attribute expectedOutlier = expected.getAttributes().getOutlier();
+		Attribute actualOutlier = actual.getAttributes().getOutlier();
+		assertEquals(message, expected.size(), actual.size());
+		for (int row = 0; row < expected.size(); row++) {
+			Example expectedExample = expected.getExample(row);
+			Example actualExample = actual.getExample(row);
+			if (expectedOutlier.isNominal()) {
+				assertEquals(message + " in row " + row, expectedExample.getValueAsString(expectedOutlier),
+						actualExample.getValueAsString(actualOutlier));
+			} else {
+				double expectedScore = expectedExample.getValue(expectedOutlier);
+				assertEquals(message + " in row " + row, expectedScore, actualExample.getValue(actualOutlier),
+						1e-12 * Math.max(1, Math.abs(expectedScore)));
+			}
+		}
+	}
+
+	private static ExampleSet run(AbstractOutlierDetection operator, ExampleSet exampleSet) throws OperatorException {
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(0)
+				.connectTo(operator.getExampleSetInputPort());
+		operator.getExampleSetOutputPort()
+				.connectTo(process.getRootOperator().getSubprocess(0).getInnerSinks().getPortByIndex(0));
+		ExampleSet result = process.run(new IOContainer(exampleSet)).get(ExampleSet.class);
+		operator.remove();
+		return result;
+	}
+
+	private static <T extends AbstractOutlierDetection> T createOperator(Class<T> operatorClass,
+			String distanceFunction, int structure) {
+		T operator;
+		try {
+			operator = operatorClass.getConstructor(OperatorDescription.class)
+					.newInstance(new OperatorDescription("", "outlier", operatorClass, null, null, null));
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+		operator.setParameter(LOFOutlierOperator.PARAMETER_DISTANCE_FUNCTION, distanceFunction);
+		operator.setParameter(AbstractOutlierDetection.PARAMETER_SEARCH_STRUCTURE,
+				GeometricDataCollections.SEARCH_STRUCTURES[structure]);
+		return operator;
+	}
+
+	/**
+	 * Returns the search structures to test, only the trees are skipped for the cosine based
+	 * distances.
+	 */
+	private static int[] getStructures(String distanceFunction) {
+		return distanceFunction.endsWith("cosine distance") || distanceFunction.equals("angle")
+				? new int[] { GeometricDataCollections.AUTOMATIC } : STRUCTURES;
+	}
+
+	/**
+	 * Returns the data to test, the angle of parallel rows may be missing.
+	 */
+	private static int[] getData(String distanceFunction) {
+		return distanceFunction.equals("angle") ? new int[] { GAUSSIAN }
+				: new int[] { GAUSSIAN_WITH_DUPLICATES, DISCRETE_WITH_DUPLICATES };
+	}
+
+	/**
+	 * Returns a distance D for the DB(p,D)-outliers that some but not all rows reach.
+	 */
+	private static double getTypicalDistance(String distanceFunction) {
+		switch (distanceFunction) {
+			case "squared distance":
+				return 2;
+			case "cosine distance":
+				return 0.95;
+			case "inverted cosine distance":
+				return 0.05;
+			case "angle":
+				return 0.3;
+			default:
+				return 1.5;
+		}
+	}
+
+	/**
+	 * Creates positive gaussian or discrete data, with every tenth row duplicated if requested.
+	 */
+	private static ExampleSet create(int data) {
+		boolean discrete = data == DISCRETE_WITH_DUPLICATES;
+		int size = 300;
+		int numberOfAttributes = 3;
+		Attribute[] attributes = new Attribute[numberOfAttributes];
+		for (int i = 0; i < numberOfAttributes; i++) {
+			attributes[i] = AttributeFactory.createAttribute("att" + i, Ontology.REAL);
+		}
+		Random random = new Random(2017 + data);
+		double[][] columns = new double[numberOfAttributes][size];
+		for (int row = 0; row < size; row++) {
+			for (int i = 0; i < numberOfAttributes; i++) {
+				if (data != GAUSSIAN && row % 10 == 9) {
+					columns[i][row] = columns[i][row - 1];
+				} else {
+					columns[i][row] = discrete ? 1 + random.nextInt(4) : 5 + random.nextGaussian();
+				}
+			}
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(size);
+		for (int i = 0; i < numberOfAttributes; i++) {
+			double[] column = columns[i];
+			builder.withColumnFiller(attributes[i], row -> column[row]);
+		}
+		return builder.build();
+	}
+
+}
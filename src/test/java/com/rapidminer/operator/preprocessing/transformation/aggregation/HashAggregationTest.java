@@ -0,0 +1,287 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DoubleArrayDataRow;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the groups and aggregated values of the {@link HashAggregation} with those of the tree
+ * based aggregation of the {@link AggregationOperator}, including missing group values and the
+ * numerical keys {@code -0.0}, {@code 0.0} and {@code NaN}.
+ *
+ * @since 7.6.1
+ */
+public class HashAggregationTest {
+
+	/** Enough examples for counting with several threads. */
+	private static final int SIZE = 40_000;
+
+	private static final String[] NOMINAL_VALUES = { "b", "a", "?", "c" };
+
+	private static final double[] NUMERICAL_VALUES = { -0.0, 0.0, 1.5, Double.NaN, 2, -3, Double.POSITIVE_INFINITY };
+
+	private static final String[] NUMERICAL_FUNCTIONS = { AggregationFunction.FUNCTION_NAME_SUM,
+			AggregationFunction.FUNCTION_NAME_AVERAGE, AggregationFunction.FUNCTION_NAME_MEDIAN,
+			AggregationFunction.FUNCTION_NAME_VARIANCE, AggregationFunction.FUNCTION_NAME_MINIMUM,
+			AggregationFunction.FUNCTION_NAME_MAXIMUM, AggregationFunction.FUNCTION_NAME_COUNT_PERCENTAGE,
+			AggregationFunction.FUNCTION_NAME_SUM_FRACTIONAL };
+
+	private static final String[] NOMINAL_FUNCTIONS = { AggregationFunction.FUNCTION_NAME_COUNT,
+			AggregationFunction.FUNCTION_NAME_COUNT_INCLUDE_MISSINGS, AggregationFunction.FUNCTION_NAME_MODE,
+			AggregationFunction.FUNCTION_NAME_LEAST, AggregationFunction.FUNCTION_NAME_CONCATENATION };
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and sets a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Groups by a nominal attribute with missing values and a value looking like a missing value.
+     *
+     * @throws OperatorException if the aggregation fails
+     */
+    @Test
+	public void nominalKeys() throws OperatorException {
+		assertSameAggregation(createExampleSet(false), "nominal");
+	}
+
+    /**
+     * Groups by a numerical attribute with missing values, both zeros and infinity.
+     *
+     * @throws OperatorException if the aggregation fails
+     */
+    @Test
+	public void numericalKeys() throws OperatorException {
+		assertSameAggregation(createExampleSet(false), "numerical");
+	}
+
+    /**
+     * Groups by combinations of nominal and numerical attributes.
+     *
+     * @throws OperatorException if the aggregation fails
+     */
+    @Test
+	public void combinedKeys() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(false);
+		assertSameAggregation(exampleSet, "nominal", "numerical");
+		assertSameAggregation(exampleSet, "numerical", "integer", "nominal");
+	}
+
+    /**
+     * Groups weighted examples.
+     *
+     * @throws OperatorException if the aggregation fails
+     */
+    @Test
+	public void weightedExamples() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(true);
+		assertSameAggregation(exampleSet, "numerical");
+		assertSameAggregation(exampleSet, "integer", "nominal");
+	}
+
+	/**
+	 * Aggregates by the given attributes with the tree and with the hash aggregation, with and
+	 * without sorting the groups, and compares the rows.
+	 */
+	private static void assertSameAggregation(ExampleSet exampleSet, String... groupNames) throws OperatorException {
+		Attributes attributes = exampleSet.getAttributes();
+		Attribute[] groupAttributes = new Attribute[groupNames.length];
+		for (int i = 0; i < groupNames.length; i++) {
+			groupAttributes[i] = attributes.get(groupNames[i]);
+		}
+		Process process = new Process();
+		process.resume();
+		AggregationOperator operator = new AggregationOperator(
+				new OperatorDescription("", "aggregate", AggregationOperator.class, null, null, null));
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+
+		List<String> expected = aggregate(exampleSet, groupAttributes, operator, null);
+		assertTrue(expected.size() > 1);
+		assertEquals(expected, aggregate(exampleSet, groupAttributes, operator, true));
+
+		// the groups are the same in another order, the percentages of weighted counts may differ
+		// in the last digit since their total is summed up in the order of the groups
+		List<String> unsorted = aggregate(exampleSet, groupAttributes, operator, false);
+		Collections.sort(expected);
+		Collections.sort(unsorted);
+		assertEquals(expected.size(), unsorted.size());
+		for (int row = 0; row < expected.size(); row++) {
+			String[] expectedValues = expected.get(row).split("\\|");
+			String[] values = unsorted.get(row).split("\\|");
+			assertEquals(expectedValues.length, values.length);
+			for (int i = 0; i < values.length; i++) {
+				if (!expectedValues[i].equals(values[i])) {
+					double expectedValue = Double.parseDouble(expectedValues[i]);
+					assertEquals(expectedValue, Double.parseDouble(values[i]), 1e-12 * Math.abs(expectedValue));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Aggregates with the tree if sortGroups is {@code null} or else with the hash aggregation and
+	 * returns the resulting rows as strings.
+	 */
+	private static List<String> aggregate(ExampleSet exampleSet, Attribute[] groupAttributes,
+			AggregationOperator operator, Boolean sortGroups) throws OperatorException {
+		Attributes attributes = exampleSet.getAttributes();
+		List<AggregationFunction> functions = new ArrayList<>();
+		for (String name : NUMERICAL_FUNCTIONS) {
+			functions.add(AggregationFunction.createAggregationFunction(name, attributes.get("value"), true, false));
+		}
+		for (String name : NOMINAL_FUNCTIONS) {
+			functions.add(AggregationFunction.createAggregationFunction(name, attributes.get("label"), false, false));
+		}
+		functions.add(AggregationFunction.createAggregationFunction(AggregationFunction.FUNCTION_NAME_AVERAGE,
+				attributes.get("value"), false, true));
+
+		Attribute[] newAttributes = new Attribute[groupAttributes.length + functions.size()];
+		for (int i = 0; i < groupAttributes.length; i++) {
+			newAttributes[i] = AttributeFactory.createAttribute(groupAttributes[i]);
+		}
+		for (int i = 0; i < functions.size(); i++) {
+			newAttributes[groupAttributes.length + i] = functions.get(i).getTargetAttribute();
+		}
+		List<double[]> groupCombinations = new ArrayList<>();
+		List<List<Aggregator>> allAggregators = new ArrayList<>();
+		for (int i = 0; i < functions.size(); i++) {
+			allAggregators.add(new ArrayList<>());
+		}
+		if (sortGroups == null) {
+			operator.aggregateInTree(exampleSet, groupAttributes, functions, newAttributes, groupCombinations,
+					allAggregators);
+		} else {
+			new HashAggregation(groupAttributes, functions, sortGroups, operator).aggregate(exampleSet, newAttributes,
+					groupCombinations, allAggregators);
+		}
+		for (int i = 0; i < functions.size(); i++) {
+			functions.get(i).postProcessing(allAggregators.get(i));
+		}
+
+		// assigns the table indices used for setting the aggregated values
+		ExampleSets.from(newAttributes);
+		List<String> rows = new ArrayList<>();
+		for (int row = 0; row < groupCombinations.size(); row++) {
+			double[] data = new double[newAttributes.length];
+			System.arraycopy(groupCombinations.get(row), 0, data, 0, groupAttributes.length);
+			DoubleArrayDataRow dataRow = new DoubleArrayDataRow(data);
+			for (int i = 0; i < functions.size(); i++) {
+				Attribute target = newAttributes[groupAttributes.length + i];
+				Aggregator aggregator = allAggregators.get(i).get(row);
+				if (aggregator != null) {
+					aggregator.set(target, dataRow);
+				} else {
+					functions.get(i).setDefault(target, dataRow);
+				}
+			}
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < newAttributes.length; i++) {
+				double value = dataRow.get(newAttributes[i]);
+				if (newAttributes[i].isNominal()) {
+					builder.append(Double.isNaN(value) ? "missing" : newAttributes[i].getMapping().mapIndex((int) value));
+				} else {
+					builder.append(value);
+				}
+				builder.append('|');
+			}
+			rows.add(builder.toString());
+		}
+		return rows;
+	}
+
+	/**
+	 * Creates random group values with every key occurring in many examples.
+	 */
+	private static ExampleSet createExampleSet(boolean weighted) {
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.POLYNOMINAL);
+		Attribute numerical = AttributeFactory.createAttribute("numerical", Ontology.REAL);
+		Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+		Attribute value = AttributeFactory.createAttribute("value", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.POLYNOMINAL);
+		Attribute weight = AttributeFactory.createAttribute("weight", Ontology.REAL);
+		for (String nominalValue : NOMINAL_VALUES) {
+			nominal.getMapping().mapString(nominalValue);
+		}
+		for (int i = 0; i < 5; i++) {
+			label.getMapping().mapString("label" + i);
+		}
+		Random random = new Random(2017);
+		double[][] columns = new double[6][SIZE];
+		for (int row = 0; row < SIZE; row++) {
+			int nominalIndex = random.nextInt(NOMINAL_VALUES.length + 1);
+			columns[0][row] = nominalIndex == NOMINAL_VALUES.length ? Double.NaN : nominalIndex;
+			columns[1][row] = NUMERICAL_VALUES[random.nextInt(NUMERICAL_VALUES.length)];
+			columns[2][row] = random.nextInt(3);
+			columns[3][row] = random.nextInt(20) == 0 ? Double.NaN : random.nextGaussian() * 100;
+			columns[4][row] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(5);
+			columns[5][row] = random.nextDouble() * 2;
+		}
+		ExampleSetBuilder builder = weighted ? ExampleSets.from(nominal, numerical, integer, value, label, weight)
+				.withRole(weight, Attributes.WEIGHT_NAME) : ExampleSets.from(nominal, numerical, integer, value, label);
+		builder.withBlankSize(SIZE);
+		Attribute[] all = { nominal, numerical, integer, value, label, weight };
+		for (int i = 0; i < (weighted ? 6 : 5); i++) {
+			final double[] column = columns[i];
+			builder.withColumnFiller(all[i], row -> column[row]);
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.similarity;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.math.similarity.DistanceMeasures;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the results of the {@link CrossDistancesOperator}, computed by the
+ * {@link CrossDistancesEngine}, with those of the {@link LegacyCrossDistancesOperator} on small
+ * random data with few distinct values, so that many distances are equal.
+ * <p>
+ * Without top k, or if there are at most k documents, the rows must be the same. With top k, the
+ * values per request must be the same and the documents strictly better than the k-th value must be
+ * the same. Of the documents tied with the k-th value, the engine keeps the earliest rows, while the
+ * legacy operator keeps any of them depending on the shape of its heap.
+ *
+ * @since 7.6.1
+ */
+public class CrossDistancesEngineTest {
+
+	private static final String[] MEASURES = { "EuclideanDistance", "CosineSimilarity", "ManhattanDistance" };
+
+	private static final int[] KS = { 1, 3, 7, 40 };
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Compares data without missing values, for which the Euclidean distance and the cosine
+     * similarity are computed without the measure objects.
+     *
+     * @throws OperatorException if computing the distances fails
+     */
+    @Test
+	public void completeData() throws OperatorException {
+		assertSameDistances(create(15, 3, 0, false, 2017), create(25, 3, 0, false, 2018));
+	}
+
+    /**
+     * Compares data with missing values, for which all measures are used.
+     *
+     * @throws OperatorException if computing the distances fails
+     */
+    @Test
+	public void missingValues() throws OperatorException {
+		assertSameDistances(create(15, 3, 0.1, false, 2019), create(25, 3, 0.1, false, 2020));
+	}
+
+    /**
+     * Compares sets with nominal ids, which are remapped for the result.
+     *
+     * @throws OperatorException if computing the distances fails
+     */
+    @Test
+	public void nominalIds() throws OperatorException {
+		assertSameDistances(create(15, 3, 0, true, 2021), create(25, 3, 0.05, true, 2022));
+	}
+
+    /**
+     * Compares enough pairs for the requests being distributed over several threads and the
+     * documents over several tiles.
+     *
+     * @throws OperatorException if computing the distances fails
+     */
+    @Test
+	public void manyPairs() throws OperatorException {
+		ExampleSet requests = create(300, 4, 0, false, 2023);
+		ExampleSet documents = create(600, 4, 0, false, 2024);
+		for (String measure : MEASURES) {
+			assertSameDistances(requests, documents, measure, false, false, 5);
+			assertSameDistances(requests, documents, measure, true, true, 5);
+		}
+		assertSameDistances(requests, documents, "EuclideanDistance", false, false, -1);
+	}
+
+	/**
+	 * Compares all measures for both search modes, distances and similarities, without top k and
+	 * with several k.
+	 */
+	private static void assertSameDistances(ExampleSet requests, ExampleSet documents) throws OperatorException {
+		for (String measure : MEASURES) {
+			for (boolean similarity : new boolean[] { false, true }) {
+				for (boolean farthest : new boolean[] { false, true }) {
+					assertSameDistances(requests, documents, measure, similarity, farthest, -1);
+					for (int k : KS) {
+						assertSameDistances(requests, documents, measure, similarity, farthest, k);
+					}
+				}
+			}
+		}
+	}
+
+	private static void assertSameDistances(ExampleSet requests, ExampleSet documents, String measure,
+			boolean similarity, boolean farthest, int k) throws OperatorException {
+		String message = measure + (similarity ? " similarity" : " distance") + (farthest ? " farthest" : " nearest")
+				+ (k < 0 ? "" : " top " + k);
+		Comparator<double[]> order = createOrder(farthest);
+		List<List<double[]>> expected = compute(LegacyCrossDistancesOperator.class, requests, documents, measure,
+				similarity, farthest, k, order);
+		List<List<double[]>> actual = compute(CrossDistancesOperator.class, requests, documents, measure, similarity,
+				farthest, k, order);
+		List<List<double[]>> all = k < 0 ? expected
+				: compute(LegacyCrossDistancesOperator.class, requests, documents, measure, similarity, farthest, -1,
+						order);
+
+		for (int request = 0; request < requests.size(); request++) {
+			List<double[]> expectedRows = expected.get(request);
+			List<double[]> actualRows = actual.get(request);
+			List<double[]> allRows = all.get(request);
+			String requestMessage = message + " for request " + request;
+			assertEquals(requestMessage, expectedRows.size(), actualRows.size());
+			assertEquals(requestMessage, k < 0 ? documents.size() : Math.min(k, documents.size()), actualRows.size());
+			for (int i = 0; i < actualRows.size(); i++) {
+				assertEquals(requestMessage, expectedRows.get(i)[1], actualRows.get(i)[1], 0);
+			}
+			if (actualRows.size() == allRows.size()) {
+				for (int i = 0; i < actualRows.size(); i++) {
+					assertEquals(requestMessage, expectedRows.get(i)[0], actualRows.get(i)[0], 0);
+				}
+				continue;
+			}
+
+			// the documents better than the worst kept value are the same, the tied ones the earliest
+			double worst = actualRows.get(actualRows.size() - 1)[1];
+			Set<Double> expectedTied = new TreeSet<>();
+			Set<Double> actualTied = new TreeSet<>();
+			for (int i = 0; i < actualRows.size(); i++) {
+				if (Double.compare(actualRows.get(i)[1], worst) == 0) {
+					expectedTied.add(expectedRows.get(i)[0]);
+					actualTied.add(actualRows.get(i)[0]);
+				} else {
+					assertEquals(requestMessage, expectedRows.get(i)[0], actualRows.get(i)[0], 0);
+				}
+			}
+			Set<Double> candidates = new TreeSet<>();
+			for (double[] row : allRows) {
+				if (Double.compare(row[1], worst) == 0) {
+					candidates.add(row[0]);
+				}
+			}
+			assertTrue(requestMessage, candidates.containsAll(expectedTied));
+			List<Double> earliest = new ArrayList<>(candidates).subList(0, actualTied.size());
+			assertEquals(requestMessage, earliest, new ArrayList<>(actualTied));
+		}
+	}
+
+	/**
+	 * Orders the rows by their value in the search direction and then by the document.
+	 */
+	private static Comparator<double[]> createOrder(boolean farthest) {
+		double factor = farthest ? -1 : 1;
+		return (first, second) -> {
+			int result = Double.compare(first[1] * factor, second[1] * factor);
+			return result != 0 ? result : Double.compare(first[0], second[0]);
+		};
+	}
+
+	/**
+	 * Runs the given operator and returns the document row and the value of the result rows per
+	 * request row, in the given order.
+	 */
+	private static List<List<double[]>> compute(Class<? extends Operator> operatorClass, ExampleSet requests,
+			ExampleSet documents, String measure, boolean similarity, boolean farthest, int k,
+			Comparator<double[]> order) throws OperatorException {
+		Operator operator;
+		try {
+			operator = operatorClass.getConstructor(OperatorDescription.class)
+					.newInstance(new OperatorDescription("", "cross_distances", operatorClass, null, null, null));
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+		operator.setParameter(DistanceMeasures.PARAMETER_MEASURE_TYPES,
+				DistanceMeasures.MEASURE_TYPES[DistanceMeasures.NUMERICAL_MEASURES_TYPE]);
+		operator.setParameter(DistanceMeasures.PARAMETER_NUMERICAL_MEASURE, measure);
+		operator.setParameter(CrossDistancesOperator.PARAMETER_COMPUTE_SIMILARITIES, String.valueOf(similarity));
+		operator.setParameter(CrossDistancesOperator.PARAMETER_USE_K, String.valueOf(k > 0));
+		if (k > 0) {
+			operator.setParameter(CrossDistancesOperator.PARAMETER_K, String.valueOf(k));
+		}
+		operator.setParameter(CrossDistancesOperator.PARAMETER_SEARCH_MODE, farthest ? "farthest" : "nearest");
+
+		Process process = new Process();
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(0)
+				.connectTo(operator.getInputPorts().getPortByIndex(0));
+		process.getRootOperator().getSubprocess(0).getInnerSources().getPortByIndex(1)
+				.connectTo(operator.getInputPorts().getPortByIndex(1));
+		operator.getOutputPorts().getPortByIndex(0)
+				.connectTo(process.getRootOperator().getSubprocess(0).getInnerSinks().getPortByIndex(0));
+		ExampleSet result = process.run(new IOContainer(requests, documents)).get(ExampleSet.class);
+
+		List<List<double[]>> rows = new ArrayList<>();
+		for (int request = 0; request < requests.size(); request++) {
+			rows.add(new ArrayList<>());
+		}
+		Attribute request = result.getAttributes().get("request");
+		Attribute document = result.getAttributes().get("document");
+		Attribute distance = result.getAttributes().get("distance");
+		for (Example example : result) {
+			rows.get(getRow(example.getValueAsString(request)))
+					.add(new double[] { getRow(example.getValueAsString(document)), example.getValue(distance) });
+		}
+		for (List<double[]> requestRows : rows) {
+			requestRows.sort(order);
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the row encoded in a numerical id or a nominal id with a prefix.
+	 */
+	private static int getRow(String id) {
+		return (int) Double.parseDouble(id.startsWith("id") ? id.substring(2) : id);
+	}
+
+	/**
+	 * Creates a set of small integer values, partly missing, with the row as id.
+	 */
+	private static ExampleSet create(int size, int numberOfAttributes, double missingRatio, boolean nominalIds,
+			long seed) {
+		Attribute[] attributes = new Attribute[numberOfAttributes + 1];
+		for (int i = 0; i < numberOfAttributes; i++) {
+			attributes[i] = AttributeFactory.createAttribute("att" + i, Ontology.REAL);
+		}
+		Attribute id = AttributeFactory.createAttribute("id", nominalIds ? Ontology.POLYNOMINAL : Ontology.INTEGER);
+		attributes[numberOfAttributes] = id;
+		Random random = new Random(seed);
+		double[][] columns = new double[numberOfAttributes + 1][size];
+		for (int row = 0; row < size; row++) {
+			for (int i = 0; i < numberOfAttributes; i++) {
+				columns[i][row] = random.nextDouble() < missingRatio ? Double.NaN : random.nextInt(3);
+			}
+			columns[numberOfAttributes][row] = nominalIds ? id.getMapping().mapString("id" + row) : row;
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withRole(id, Attributes.ID_NAME).withBlankSize(size);
+		for (int i = 0; i <= numberOfAttributes; i++) {
+			double[] column = columns[i];
+			builder.withColumnFiller(attributes[i], row -> column[row]);
+		}
+		return builder.build();
+	}
+
+}
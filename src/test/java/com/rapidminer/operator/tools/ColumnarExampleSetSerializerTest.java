@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.tools;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+
+/**
+ * Round trip tests for the {@link ColumnarExampleSetSerializer}.
+ *
+ * @since 7.6.1
+ */
+public class ColumnarExampleSetSerializerTest {
+
+	/** More rows than fit into one chunk */
+	private static final int ROWS = 70_000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Nominal values with missings keep their values, mapping and role.
+     */
+    @Test
+	public void nominalTest() throws IOException {
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		for (int i = 0; i < 50; i++) {
+			nominal.getMapping().mapString("value" + i);
+		}
+		label.getMapping().mapString("yes");
+		label.getMapping().mapString("no");
+		ExampleSet exampleSet = ExampleSets.from(nominal, label).withBlankSize(ROWS)
+				.withColumnFiller(nominal, row -> row % 13 == 0 ? Double.NaN : row * 7 % 50)
+				.withColumnFiller(label, row -> row % 3 == 0 ? 1 : 0).withRole(label, Attributes.LABEL_NAME).build();
+		exampleSet.getAnnotations().setAnnotation("Source", "nominal test");
+		assertRoundTrips(exampleSet);
+	}
+
+    /**
+     * Date, time and date time values keep their milliseconds.
+     */
+    @Test
+	public void dateTest() throws IOException {
+		Attribute date = AttributeFactory.createAttribute("date", Ontology.DATE);
+		Attribute time = AttributeFactory.createAttribute("time", Ontology.TIME);
+		Attribute dateTime = AttributeFactory.createAttribute("date_time", Ontology.DATE_TIME);
+		long start = 1_483_228_800_000L;
+		ExampleSet exampleSet = ExampleSets.from(date, time, dateTime).withBlankSize(ROWS)
+				.withColumnFiller(date, row -> start + row / 100 * 86_400_000L)
+				.withColumnFiller(time, row -> row * 1_000L % 86_400_000L)
+				.withColumnFiller(dateTime, row -> row % 101 == 0 ? Double.NaN : start + row * 60_123L).build();
+		assertRoundTrips(exampleSet);
+	}
+
+    /**
+     * Mostly zero numerical values keep their values, including negative zeros.
+     */
+    @Test
+	public void sparseTest() throws IOException {
+		Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+		Attribute mostlyOne = AttributeFactory.createAttribute("mostly_one", Ontology.REAL);
+		ExampleSet exampleSet = ExampleSets.from(real, integer, mostlyOne).withBlankSize(ROWS)
+				.withColumnFiller(real, random(0.99, 17))
+				.withColumnFiller(integer, row -> row % 1_000 == 0 ? row : row % 777 == 0 ? -0.0 : 0)
+				.withColumnFiller(mostlyOne, row -> row % 500 == 0 ? Double.NaN : row % 250 == 0 ? row : 1).build();
+		assertRoundTrips(exampleSet);
+	}
+
+    /**
+     * Missing values in constant, dense and empty columns.
+     */
+    @Test
+	public void missingTest() throws IOException {
+		Attribute allMissing = AttributeFactory.createAttribute("all_missing", Ontology.REAL);
+		Attribute someMissing = AttributeFactory.createAttribute("some_missing", Ontology.REAL);
+		Attribute nominal = AttributeFactory.createAttribute("nominal_missing", Ontology.POLYNOMINAL);
+		IntToDoubleFunction dense = random(0, 4711);
+		ExampleSet exampleSet = ExampleSets.from(allMissing, someMissing, nominal).withBlankSize(ROWS)
+				.withColumnFiller(allMissing, row -> Double.NaN)
+				.withColumnFiller(someMissing, row -> row % 2 == 0 ? Double.NaN : dense.applyAsDouble(row))
+				.withColumnFiller(nominal, row -> Double.NaN).build();
+		assertRoundTrips(exampleSet);
+
+		ExampleSet empty = ExampleSets.from(AttributeFactory.createAttribute("empty", Ontology.REAL)).build();
+		assertRoundTrips(empty);
+	}
+
+    /**
+     * Files of other serialization types are not mapped.
+     */
+    @Test
+	public void readMappedOtherTypeTest() throws IOException {
+		ExampleSet exampleSet = ExampleSets.from(AttributeFactory.createAttribute("real", Ontology.REAL))
+				.withBlankSize(10).build();
+		File file = folder.newFile();
+		try (OutputStream out = new FileOutputStream(file)) {
+			IOObjectSerializer.getInstance().serialize(out, exampleSet, SerializationType.STREAMED_EXAMPLE_SET_DENSE_3);
+		}
+		assertNull(ColumnarExampleSetSerializer.readMapped(file));
+	}
+
+	/**
+	 * Checks that the example set is read back equally from a stream, with and without compression,
+	 * and from a mapped file.
+	 */
+	private void assertRoundTrips(ExampleSet exampleSet) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new ColumnarExampleSetSerializer(false).write(exampleSet, bytes);
+		assertEqual(exampleSet, new ColumnarExampleSetSerializer(false).read(new ByteArrayInputStream(bytes.toByteArray())));
+
+		bytes = new ByteArrayOutputStream();
+		IOObjectSerializer.getInstance().serialize(bytes, exampleSet, SerializationType.COLUMNAR_EXAMPLE_SET);
+		assertEqual(exampleSet,
+				(ExampleSet) IOObjectSerializer.getInstance().deserialize(new ByteArrayInputStream(bytes.toByteArray())));
+
+		File file = folder.newFile();
+		try (OutputStream out = new FileOutputStream(file)) {
+			bytes.writeTo(out);
+		}
+		assertEqual(exampleSet, ColumnarExampleSetSerializer.readMapped(file));
+	}
+
+	private static void assertEqual(ExampleSet expected, ExampleSet actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.getAnnotations(), actual.getAnnotations());
+		assertEquals(expected.getAttributes().allSize(), actual.getAttributes().allSize());
+		Iterator<Attribute> expectedAttributes = expected.getAttributes().allAttributes();
+		Iterator<Attribute> actualAttributes = actual.getAttributes().allAttributes();
+		while (expectedAttributes.hasNext()) {
+			Attribute expectedAttribute = expectedAttributes.next();
+			Attribute actualAttribute = actualAttributes.next();
+			String name = expectedAttribute.getName();
+			assertEquals(name, actualAttribute.getName());
+			assertEquals(name, expectedAttribute.getValueType(), actualAttribute.getValueType());
+			assertEquals(name, expected.getAttributes().getRole(expectedAttribute).getSpecialName(),
+					actual.getAttributes().getRole(actualAttribute).getSpecialName());
+			if (expectedAttribute.isNominal()) {
+				assertEquals(name, expectedAttribute.getMapping().getValues(), actualAttribute.getMapping().getValues());
+			}
+			for (int row = 0; row < expected.size(); row++) {
+				double expectedValue = expected.getExample(row).getValue(expectedAttribute);
+				double actualValue = actual.getExample(row).getValue(actualAttribute);
+				if (Double.doubleToLongBits(expectedValue) != Double.doubleToLongBits(actualValue)) {
+					assertEquals(name + " in row " + row, Double.toString(expectedValue), Double.toString(actualValue));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns uniform random values in [0, 1) of which the given fraction is replaced by zeros.
+	 */
+	private static IntToDoubleFunction random(double sparsity, long seed) {
+		double[] values = new double[ROWS];
+		Random random = new Random(seed);
+		for (int i = 0; i < ROWS; i++) {
+			values[i] = random.nextDouble() < sparsity ? 0 : random.nextDouble();
+		}
+		return row -> values[row];
+	}
+}
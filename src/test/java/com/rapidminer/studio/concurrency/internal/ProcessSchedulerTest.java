@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.studio.concurrency.internal;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests the admission control of the {@link ProcessScheduler}.
+ *
+ * @since 7.6.1
+ */
+public class ProcessSchedulerTest {
+
+	private static final long MB = 1024L * 1024L;
+
+	private final AtomicLong freeMemory = new AtomicLong(1024 * MB);
+
+	private final ProcessScheduler scheduler = new ProcessScheduler(freeMemory::get);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and sets a memory reserve of 100 MB.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PROCESS_MEMORY_RESERVE, "100");
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "4");
+	}
+
+    /**
+     * Releases blocked processes and restores the number of processes.
+     */
+    @After
+	public void cleanup() {
+		release.countDown();
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "4");
+	}
+
+    /**
+     * A process is queued while the free memory is below the reserve and started once memory is
+     * released, even if the running process did not finish.
+     *
+     * @throws Exception if a process fails
+     */
+    @Test
+	public void memoryAdmissionTest() throws Exception {
+		freeMemory.set(50 * MB);
+		Future<String> first = submitBlocked();
+		Future<String> second = scheduler.submit(new Process(), 0, () -> "second");
+		assertEquals(1, scheduler.getRunningCount());
+		assertEquals(1, scheduler.getQueuedCount());
+		Thread.sleep(1_500);
+		assertFalse(second.isDone());
+
+		freeMemory.set(200 * MB);
+		assertEquals("second", second.get(10, TimeUnit.SECONDS));
+		assertFalse(first.isDone());
+		release.countDown();
+		assertEquals("blocked", first.get(10, TimeUnit.SECONDS));
+	}
+
+    /**
+     * The estimated memory of a process is used if it exceeds the reserve.
+     *
+     * @throws Exception if a process fails
+     */
+    @Test
+	public void estimatedMemoryTest() throws Exception {
+		freeMemory.set(200 * MB);
+		Future<String> first = submitBlocked();
+		Future<String> large = scheduler.submit(new Process(), 300 * MB, () -> "large");
+		Future<String> small = scheduler.submit(new Process(), 0, () -> "small");
+		assertEquals(2, scheduler.getQueuedCount());
+		assertFalse(small.isDone());
+
+		// the queue keeps the submission order, so the small process waits for the large one
+		release.countDown();
+		assertEquals("blocked", first.get(10, TimeUnit.SECONDS));
+		assertEquals("large", large.get(10, TimeUnit.SECONDS));
+		assertEquals("small", small.get(10, TimeUnit.SECONDS));
+	}
+
+    /**
+     * At most the configured number of processes run at the same time.
+     *
+     * @throws Exception if a process fails
+     */
+    @Test
+	public void processBudgetTest() throws Exception {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "1");
+		Future<String> first = submitBlocked();
+		Future<String> second = scheduler.submit(new Process(), 0, () -> "second");
+		assertEquals(1, scheduler.getQueuedCount());
+		Thread.sleep(200);
+		assertFalse(second.isDone());
+
+		release.countDown();
+		assertEquals("blocked", first.get(10, TimeUnit.SECONDS));
+		assertEquals("second", second.get(10, TimeUnit.SECONDS));
+		assertEquals(0, scheduler.getQueuedCount());
+	}
+
+    /**
+     * A process cancelled while queued is never started.
+     *
+     * @throws Exception if a process fails
+     */
+    @Test
+	public void cancelQueuedTest() throws Exception {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "1");
+		AtomicBoolean started = new AtomicBoolean();
+		Future<String> first = submitBlocked();
+		Future<String> cancelled = scheduler.submit(new Process(), 0, () -> {
+			started.set(true);
+			return "cancelled";
+		});
+		Future<String> third = scheduler.submit(new Process(), 0, () -> "third");
+		assertTrue(cancelled.cancel(false));
+
+		release.countDown();
+		assertEquals("blocked", first.get(10, TimeUnit.SECONDS));
+		assertEquals("third", third.get(10, TimeUnit.SECONDS));
+		assertFalse(started.get());
+	}
+
+	/**
+	 * Submits a process that runs until {@link #release} is counted down and waits for its start.
+	 */
+	private Future<String> submitBlocked() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		Future<String> future = scheduler.submit(new Process(), 0, () -> {
+			started.countDown();
+			release.await();
+			return "blocked";
+		});
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		return future;
+	}
+}
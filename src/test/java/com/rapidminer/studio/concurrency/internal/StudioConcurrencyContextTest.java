@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.studio.concurrency.internal;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+/**
+ * Tests the per-process thread budget and the CPU time accounting of the
+ * {@link StudioConcurrencyContext}.
+ *
+ * @since 7.6.1
+ */
+public class StudioConcurrencyContextTest {
+
+	private static final int TASKS = 8;
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and sets a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Removes the per-process budget.
+     */
+    @After
+	public void resetBudget() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS, "0");
+	}
+
+    /**
+     * With a budget of one thread per process, the tasks of a process run one after the other.
+     *
+     * @throws Exception if a task fails
+     */
+    @Test
+	public void throttledSubmissionTest() throws Exception {
+		assertMaximalConcurrency(1);
+	}
+
+    /**
+     * With a budget of two threads per process, at most two tasks run at the same time.
+     *
+     * @throws Exception if a task fails
+     */
+    @Test
+	public void throttledSubmissionTwoThreadsTest() throws Exception {
+		assertMaximalConcurrency(2);
+	}
+
+    /**
+     * Tasks submitted by a task of the same context bypass the budget, otherwise the two nested
+     * tasks waiting for each other could never run at the same time.
+     *
+     * @throws Exception if a task fails
+     */
+    @Test
+	public void nestedSubmissionBypassesBudgetTest() throws Exception {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS, "1");
+		StudioConcurrencyContext context = new StudioConcurrencyContext(new Process());
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Callable<Integer> nested = () -> barrier.await(10, TimeUnit.SECONDS);
+		List<Callable<Integer>> outer = new ArrayList<>();
+		outer.add(() -> {
+			List<Callable<Integer>> tasks = new ArrayList<>();
+			tasks.add(nested);
+			tasks.add(nested);
+			List<Integer> arrivals = context.call(tasks);
+			return arrivals.get(0) + arrivals.get(1);
+		});
+		// the arrival indices of the barrier are 0 and 1
+		assertEquals(1, (int) context.call(outer).get(0));
+	}
+
+    /**
+     * The CPU time of the tasks and the added time of the process thread are accounted.
+     *
+     * @throws Exception if a task fails
+     */
+    @Test
+	public void cpuTimeTest() throws Exception {
+		assumeTrue(ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported());
+		StudioConcurrencyContext context = new StudioConcurrencyContext(new Process());
+		List<Callable<Long>> tasks = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			tasks.add(() -> {
+				long start = StudioConcurrencyContext.getCurrentThreadCpuTime();
+				long sum = 0;
+				while (StudioConcurrencyContext.getCurrentThreadCpuTime() - start < 20_000_000L) {
+					sum += start % 7;
+				}
+				return sum;
+			});
+		}
+		context.call(tasks);
+		long taskTime = context.getCpuTime();
+		assertTrue(taskTime >= 40_000_000L);
+		context.addCpuTime(1_000L);
+		assertEquals(taskTime + 1_000L, context.getCpuTime());
+	}
+
+	/**
+	 * Runs sleeping tasks with the given per-process budget and checks the maximal number of tasks
+	 * running at the same time.
+	 */
+	private static void assertMaximalConcurrency(int budget) throws Exception {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_PER_PROCESS,
+				String.valueOf(budget));
+		StudioConcurrencyContext context = new StudioConcurrencyContext(new Process());
+		assertEquals(budget, context.getParallelism());
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maximum = new AtomicInteger();
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < TASKS; i++) {
+			int index = i;
+			tasks.add(() -> {
+				int current = running.incrementAndGet();
+				maximum.accumulateAndGet(current, Math::max);
+				Thread.sleep(20);
+				running.decrementAndGet();
+				return index;
+			});
+		}
+		List<Integer> results = context.call(tasks);
+		for (int i = 0; i < TASKS; i++) {
+			assertEquals(i, (int) results.get(i));
+		}
+		assertTrue("at most " + budget + " tasks expected, but " + maximum.get() + " ran", maximum.get() <= budget);
+		assertEquals(budget, maximum.get());
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression.internal;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.expression.ExampleResolver;
+import com.rapidminer.tools.expression.ExpressionParser;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests that the parallel evaluation of
+ * {@link ExpressionParserUtils#addAttribute(ExampleSet, String, String, ExpressionParser, ExampleResolver, Operator, boolean)}
+ * delivers the same values as the sequential evaluation, for compiled and evaluated expressions.
+ *
+ * @since 7.6.1
+ */
+public class ExpressionParserUtilsTest {
+
+	/** More examples than evaluated by one parallel task. */
+	private static final int SIZE = 40_000;
+
+	private ExampleSet exampleSet;
+	private Operator operator;
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and allows four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setUpForAll() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Creates an example set with a real attribute containing missing values and a nominal
+     * attribute, and a running process whose root operator executes the evaluation.
+     */
+    @Before
+	public void setUp() {
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(AttributeFactory.createAttribute("real", Ontology.REAL));
+		attributes.add(AttributeFactory.createAttribute("nominal", Ontology.NOMINAL));
+		Attribute nominal = attributes.get(1);
+		for (int i = 0; i < 7; i++) {
+			nominal.getMapping().mapString("value" + i);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes);
+		for (int i = 0; i < SIZE; i++) {
+			builder.addRow(new double[] { i % 13 == 0 ? Double.NaN : (i % 101) - 50.5, i % 11 == 0 ? Double.NaN : i % 7 });
+		}
+		exampleSet = builder.build();
+
+		Process process = new Process();
+		process.resume();
+		operator = process.getRootOperator();
+	}
+
+    /**
+     * Numerical expressions are compiled and evaluated in parallel.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void numericalTest() throws Exception {
+		assertParallelEqualsSequential("real * 2 + sqrt(abs(real))");
+	}
+
+    /**
+     * Boolean results are written as binominal values in parallel.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void booleanTest() throws Exception {
+		assertParallelEqualsSequential("real > 0 || missing(real)");
+	}
+
+    /**
+     * Nominal results are not compiled and evaluated by the expression, the values are written in
+     * the order of the examples and map to the same indices.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void nominalTest() throws Exception {
+		Attribute[] attributes = assertParallelEqualsSequential("if(real > 0, \"positive\", nominal) + \"_\" + real");
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(exampleSet.getExample(i).getValue(attributes[0]),
+					exampleSet.getExample(i).getValue(attributes[1]), 0);
+		}
+		assertEquals(attributes[0].getMapping().getValues(), attributes[1].getMapping().getValues());
+	}
+
+    /**
+     * Dates are evaluated by the expression in parallel.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void dateTest() throws Exception {
+		assertParallelEqualsSequential("date_add(date_parse(0), floor(real), DATE_UNIT_DAY)");
+	}
+
+    /**
+     * Random numbers with a fixed seed are drawn from one generator shared by all threads. The
+     * parallel evaluation draws the same numbers, but they can be assigned to other examples than
+     * for a sequential evaluation.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void randomWithFixedSeedTest() throws Exception {
+		Attribute sequential = addAttribute("sequential", "rand(2017)", false);
+		Attribute parallel = addAttribute("parallel", "rand(2017)", true);
+		double[] sequentialValues = new double[SIZE];
+		double[] parallelValues = new double[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			sequentialValues[i] = exampleSet.getExample(i).getValue(sequential);
+			parallelValues[i] = exampleSet.getExample(i).getValue(parallel);
+		}
+		Arrays.sort(sequentialValues);
+		Arrays.sort(parallelValues);
+		assertArrayEquals(sequentialValues, parallelValues, 0);
+	}
+
+    /**
+     * Random numbers with a non-negative seed depending on the example are the same for parallel
+     * evaluation, since every example uses its own generator.
+     *
+     * @throws Exception if the evaluation fails
+     */
+    @Test
+	public void randomWithExampleSeedTest() throws Exception {
+		assertParallelEqualsSequential("rand(floor(abs(real)))");
+	}
+
+	/**
+	 * Adds the expression sequentially and in parallel and compares the values.
+	 *
+	 * @return the sequentially and the parallel generated attribute
+	 */
+	private Attribute[] assertParallelEqualsSequential(String expression) throws Exception {
+		Attribute sequential = addAttribute("sequential", expression, false);
+		Attribute parallel = addAttribute("parallel", expression, true);
+		assertEquals(sequential.getValueType(), parallel.getValueType());
+		for (int i = 0; i < SIZE; i++) {
+			Example example = exampleSet.getExample(i);
+			assertEquals(expression + " in row " + i, example.getValueAsString(sequential),
+					example.getValueAsString(parallel));
+		}
+		return new Attribute[] { sequential, parallel };
+	}
+
+	private Attribute addAttribute(String name, String expression, boolean parallel) throws Exception {
+		ExampleResolver resolver = new ExampleResolver(exampleSet);
+		ExpressionParser parser = ExpressionParserUtils.createAllModulesParser(operator, resolver);
+		return ExpressionParserUtils.addAttribute(exampleSet, name, expression, parser, resolver, operator, parallel);
+	}
+
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.expression.internal.antlr;
+
+import com.rapidminer.MacroHandler;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.expression.ExampleResolver;
+import com.rapidminer.tools.expression.Expression;
+import com.rapidminer.tools.expression.ExpressionException;
+import com.rapidminer.tools.expression.ExpressionParserBuilder;
+import com.rapidminer.tools.expression.ExpressionRegistry;
+import com.rapidminer.tools.expression.ExpressionType;
+import com.rapidminer.tools.expression.MacroResolver;
+import com.rapidminer.tools.expression.internal.CompiledExpression;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+
+/**
+ * Tests that {@link AntlrParser#compile(String, ExampleSet)} delivers the same results as the
+ * evaluators of {@link AntlrParser#parse(String)} and falls back for unsupported expressions.
+ *
+ * @since 7.6.1
+ */
+public class ExpressionCompilerTest {
+
+	private static final double[] VALUES = { 0, -0.0, 1, -1, 2.5, -3.75, 1e-320, 17, Double.NaN,
+			Double.POSITIVE_INFINITY };
+
+	private static ExampleSet exampleSet;
+	private static ExampleResolver resolver;
+	private static AntlrParser parser;
+
+    /**
+     * Creates an example set with all combinations of the test values for a real and an integer
+     * attribute and a parser with all functions, a macro and the example set attributes.
+     */
+    @BeforeClass
+	public static void setUpForAll() {
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(AttributeFactory.createAttribute("real", Ontology.REAL));
+		attributes.add(AttributeFactory.createAttribute("int", Ontology.INTEGER));
+		attributes.add(AttributeFactory.createAttribute("nominal", Ontology.NOMINAL));
+		attributes.add(AttributeFactory.createAttribute("date", Ontology.DATE_TIME));
+		Attribute nominal = attributes.get(2);
+		nominal.getMapping().mapString("cat");
+		nominal.getMapping().mapString("dog");
+		ExampleSetBuilder builder = ExampleSets.from(attributes);
+		for (int i = 0; i < VALUES.length; i++) {
+			for (int j = 0; j < VALUES.length; j++) {
+				builder.addRow(new double[] { VALUES[i], VALUES[j], j % 3 == 2 ? Double.NaN : j % 2, 1e12 * i });
+			}
+		}
+		exampleSet = builder.build();
+		resolver = new ExampleResolver(exampleSet);
+
+		MacroHandler handler = new MacroHandler(null);
+		handler.addMacro("number", "2");
+		handler.addMacro("attribute", "real");
+		parser = (AntlrParser) new ExpressionParserBuilder().withDynamics(resolver)
+				.withScope(new MacroResolver(handler)).withModules(ExpressionRegistry.INSTANCE.getAll()).build();
+	}
+
+    /**
+     * Arithmetic operators on real and integer attributes.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void arithmeticTest() throws ExpressionException {
+		assertCompiledEquals("real + int", ExpressionType.DOUBLE);
+		assertCompiledEquals("int + int", ExpressionType.INTEGER);
+		assertCompiledEquals("+real", ExpressionType.DOUBLE);
+		assertCompiledEquals("-real - int", ExpressionType.DOUBLE);
+		assertCompiledEquals("real * int / 3", ExpressionType.DOUBLE);
+		assertCompiledEquals("real % int", ExpressionType.DOUBLE);
+		assertCompiledEquals("real ^ int", ExpressionType.DOUBLE);
+		assertCompiledEquals("mod(int, 2) + pow(real, 2)", ExpressionType.DOUBLE);
+	}
+
+    /**
+     * Mathematical functions, constants and macros.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void functionTest() throws ExpressionException {
+		assertCompiledEquals("sqrt(abs(real)) + exp(int) - ln(real) + log(int)", ExpressionType.DOUBLE);
+		assertCompiledEquals("sgn(real) * floor(real) + ceil(int)", ExpressionType.INTEGER);
+		assertCompiledEquals("sin(real) + cos(int) + tan(real) + asin(real) + acos(int) + atan(real)",
+				ExpressionType.DOUBLE);
+		assertCompiledEquals("sinh(real) + cosh(int) + tanh(real)", ExpressionType.DOUBLE);
+		assertCompiledEquals("real * pi + e + parse(%{number})", ExpressionType.DOUBLE);
+		assertCompiledEquals("#{attribute} + 1", ExpressionType.DOUBLE);
+		assertCompiledEquals("[int] * 2", ExpressionType.INTEGER);
+	}
+
+    /**
+     * Comparisons and logical functions, including missing values and numbers close to zero.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void logicalTest() throws ExpressionException {
+		assertCompiledEquals("real < int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real <= int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real > int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real >= int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real == int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real != int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("(real < 1) == (int > 1)", ExpressionType.BOOLEAN);
+		assertCompiledEquals("(real < 1) != (int > 1)", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real && int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("real || !int", ExpressionType.BOOLEAN);
+		assertCompiledEquals("(real > 0) && int || !(real < int)", ExpressionType.BOOLEAN);
+		assertCompiledEquals("missing(real) || missing(real > int)", ExpressionType.BOOLEAN);
+	}
+
+    /**
+     * If with constant and non-constant conditions.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void ifTest() throws ExpressionException {
+		assertCompiledEquals("if(real > int, real, int)", ExpressionType.DOUBLE);
+		assertCompiledEquals("if(real, 1, 2)", ExpressionType.INTEGER);
+		assertCompiledEquals("if(real > 1, real < int, missing(int))", ExpressionType.BOOLEAN);
+		assertCompiledEquals("if(true, real, \"text\")", ExpressionType.DOUBLE);
+		assertCompiledEquals("if(0, \"text\", int)", ExpressionType.INTEGER);
+	}
+
+    /**
+     * Nominal and date values, random numbers and other functions are not compiled.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void unsupportedTest() throws ExpressionException {
+		assertNull(parser.compile("nominal", exampleSet));
+		assertNull(parser.compile("real + \"text\"", exampleSet));
+		assertNull(parser.compile("nominal == \"cat\"", exampleSet));
+		assertNull(parser.compile("date_diff(date, date)", exampleSet));
+		assertNull(parser.compile("missing(nominal)", exampleSet));
+		assertNull(parser.compile("round(real)", exampleSet));
+		assertNull(parser.compile("if(real > 0, \"a\", \"b\")", exampleSet));
+		assertNull(parser.compile("eval(\"real\")", exampleSet));
+	}
+
+    /**
+     * Constant expressions are compiled and do not read attributes.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void constantTest() throws ExpressionException {
+		assertCompiledEquals("1 + 2 * 3", ExpressionType.INTEGER);
+		assertCompiledEquals("sqrt(2) > 1", ExpressionType.BOOLEAN);
+		assertCompiledEquals("length(\"text\") + 1", ExpressionType.INTEGER);
+	}
+
+    /**
+     * A compiled expression can be bound to another example set with the same attributes.
+     *
+     * @throws ExpressionException if the parsing fails
+     */
+    @Test
+	public void bindTest() throws ExpressionException {
+		CompiledExpression compiled = parser.compile("real * 2 + int", exampleSet);
+		assertNotNull(compiled);
+
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(AttributeFactory.createAttribute("int", Ontology.INTEGER));
+		attributes.add(AttributeFactory.createAttribute("real", Ontology.REAL));
+		ExampleSet other = ExampleSets.from(attributes).addRow(new double[] { 3.5, 1.25 }).build();
+		CompiledExpression bound = compiled.bind(other);
+		assertNotNull(bound);
+		assertEquals(ExpressionType.DOUBLE, bound.getExpressionType());
+		assertEquals(5.5, bound.evaluate(other.getExample(0)), 0);
+
+		List<Attribute> missing = new ArrayList<>();
+		missing.add(AttributeFactory.createAttribute("real", Ontology.REAL));
+		assertNull(compiled.bind(ExampleSets.from(missing).build()));
+	}
+
+	/**
+	 * Compiles the expression and compares the results for all examples with the evaluator,
+	 * boolean results are compared in their encoding.
+	 */
+	private static void assertCompiledEquals(String expression, ExpressionType type) throws ExpressionException {
+		CompiledExpression compiled = parser.compile(expression, exampleSet);
+		assertNotNull(expression, compiled);
+		Expression evaluated = parser.parse(expression);
+		assertEquals(expression, type, evaluated.getExpressionType());
+		assertEquals(expression, type, compiled.getExpressionType());
+		try {
+			for (Example example : exampleSet) {
+				resolver.bind(example);
+				double expected;
+				if (type == ExpressionType.BOOLEAN) {
+					Boolean value = evaluated.evaluateBoolean();
+					expected = value == null ? Double.NaN : value ? 1 : 0;
+				} else {
+					expected = evaluated.evaluateNumerical();
+				}
+				assertEquals(expression + " for " + example, expected, compiled.evaluate(example), 0);
+			}
+		} finally {
+			resolver.unbind();
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the neighbours found by the {@link KDTree} and the {@link BallTree} with the brute force
+ * search of the {@link LinearList}.
+ *
+ * @since 7.6.1
+ */
+public class GeometricDataCollectionTest {
+
+	private static final int[] NUMBERS_OF_NEIGHBOURS = { 1, 3, 10, 50 };
+
+	private static final double[] DISTANCES = { 0, 0.05, 0.2, 1 };
+
+    /**
+     * Finds the same neighbours in random data of different dimensions, with the points added one
+     * by one and all at once.
+     */
+    @Test
+	public void randomPoints() {
+		Random random = new Random(2017);
+		for (int dimensions = 1; dimensions <= 4; dimensions++) {
+			List<double[]> points = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				double[] point = new double[dimensions];
+				for (int d = 0; d < dimensions; d++) {
+					point[d] = random.nextDouble();
+				}
+				points.add(point);
+			}
+			assertSameNeighbours(points, createQueries(random, dimensions, -0.5, 1.5), new EuclideanDistance());
+			assertSameNeighbours(points, createQueries(random, dimensions, -0.5, 1.5), new ManhattanDistance());
+		}
+	}
+
+    /**
+     * Finds the same neighbours in sorted data with many equal coordinates and ties, where the
+     * dimensions differ in scale so that pruning by the wrong dimension or by a signed distance to
+     * the splitting plane would miss neighbours.
+     */
+    @Test
+	public void sortedGridWithTies() {
+		List<double[]> points = new ArrayList<>();
+		for (int x = 0; x < 20; x++) {
+			for (int y = 0; y < 20; y++) {
+				points.add(new double[] { x, y * 0.01 });
+				if (x % 5 == 0) {
+					// duplicates
+					points.add(new double[] { x, y * 0.01 });
+				}
+			}
+		}
+		List<double[]> queries = new ArrayList<>();
+		for (double x = -2.5; x < 22; x += 0.75) {
+			for (double y = -0.02; y < 0.22; y += 0.035) {
+				queries.add(new double[] { x, y });
+			}
+		}
+		queries.add(new double[] { 5, 0.1 });
+		assertSameNeighbours(points, queries, new EuclideanDistance());
+		assertSameNeighbours(points, queries, new ManhattanDistance());
+	}
+
+    /**
+     * Builds a balanced tree from sorted points if they are added all at once, so that a nearest
+     * neighbour query only computes a small fraction of the distances. Splitting by the wrong
+     * dimension or inserting the sorted points one by one results in a degenerated tree.
+     */
+    @Test
+	public void addAllBuildsBalancedTree() {
+		List<double[]> points = new ArrayList<>();
+		List<Integer> values = new ArrayList<>();
+		for (int x = 0; x < 64; x++) {
+			for (int y = 0; y < 64; y++) {
+				points.add(new double[] { x, y });
+				values.add(values.size());
+			}
+		}
+		CountingDistance distance = new CountingDistance();
+		KDTree<Integer> tree = new KDTree<>(2, distance);
+		tree.addAll(points, values);
+		assertEquals(points.size(), tree.size());
+
+		Random random = new Random(2017);
+		int queries = 100;
+		for (int i = 0; i < queries; i++) {
+			double[] query = { random.nextDouble() * 63, random.nextDouble() * 63 };
+			Tupel<Double, Integer> nearest = tree.getNearestValueDistances(1, query).iterator().next();
+			double[] point = points.get(nearest.getSecond());
+			assertEquals(Math.hypot(point[0] - query[0], point[1] - query[1]), nearest.getFirst(), 1e-12);
+			assertEquals(Math.round(query[0]), point[0], 0);
+			assertEquals(Math.round(query[1]), point[1], 0);
+		}
+		assertTrue("too many distances computed: " + distance.count,
+				distance.count < queries * points.size() / 50);
+	}
+
+	private static List<double[]> createQueries(Random random, int dimensions, double min, double max) {
+		List<double[]> queries = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			double[] query = new double[dimensions];
+			for (int d = 0; d < dimensions; d++) {
+				query[d] = min + random.nextDouble() * (max - min);
+			}
+			queries.add(query);
+		}
+		return queries;
+	}
+
+	/**
+	 * Checks that the nearest neighbour distances and the neighbours within the distances are the
+	 * same for all collections. The neighbours themselves are only compared for the distance
+	 * queries, since neighbours with equal distances may be chosen differently for the k nearest.
+	 */
+	private static void assertSameNeighbours(List<double[]> points, List<double[]> queries, DistanceMeasure distance) {
+		List<Integer> values = new ArrayList<>();
+		LinearList<Integer> expected = new LinearList<>(distance);
+		KDTree<Integer> tree = new KDTree<>(points.get(0).length, distance);
+		KDTree<Integer> balancedTree = new KDTree<>(points.get(0).length, distance);
+		BallTree<Integer> ballTree = new BallTree<>(distance);
+		for (int i = 0; i < points.size(); i++) {
+			expected.add(points.get(i), i);
+			tree.add(points.get(i), i);
+			ballTree.add(points.get(i), i);
+			values.add(i);
+		}
+		balancedTree.addAll(points, values);
+
+		List<GeometricDataCollection<Integer>> collections = Arrays.asList(tree, balancedTree, ballTree);
+		for (GeometricDataCollection<Integer> collection : collections) {
+			assertEquals(points.size(), collection.size());
+			for (double[] query : queries) {
+				String message = collection.getClass().getSimpleName() + " " + Arrays.toString(query);
+				for (int k : NUMBERS_OF_NEIGHBOURS) {
+					assertArrayEquals(message, distances(expected.getNearestValueDistances(k, query)),
+							distances(collection.getNearestValueDistances(k, query)), 1e-12);
+				}
+				for (double withinDistance : DISTANCES) {
+					assertArrayEquals(message, sorted(expected.getNearestValueDistances(withinDistance, query)),
+							sorted(collection.getNearestValueDistances(withinDistance, query)));
+					assertArrayEquals(message, distances(expected.getNearestValueDistances(withinDistance, 5, query)),
+							distances(collection.getNearestValueDistances(withinDistance, 5, query)), 1e-12);
+				}
+			}
+		}
+	}
+
+	private static double[] distances(Collection<Tupel<Double, Integer>> neighbours) {
+		double[] distances = new double[neighbours.size()];
+		int i = 0;
+		for (Tupel<Double, Integer> neighbour : neighbours) {
+			distances[i++] = neighbour.getFirst();
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+
+	private static int[] sorted(Collection<Tupel<Double, Integer>> neighbours) {
+		return neighbours.stream().sorted(Comparator.comparing(Tupel::getSecond)).mapToInt(Tupel::getSecond)
+				.toArray();
+	}
+
+	/**
+	 * Euclidean distance counting its calls.
+	 */
+	private static class CountingDistance extends EuclideanDistance {
+
+		private static final long serialVersionUID = 1L;
+
+		private int count;
+
+		@Override
+		public double calculateDistance(double[] value1, double[] value2) {
+			count++;
+			return super.calculateDistance(value1, value2);
+		}
+	}
+
+}
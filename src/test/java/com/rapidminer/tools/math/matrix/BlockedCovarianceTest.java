@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.matrix;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.license.OpenSourceLicenseManager;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.license.LicenseManagerRegistry;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessRootOperator;
+import com.rapidminer.operator.visualization.dependencies.CorrelationMatrixOperator;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.math.MathFunctions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Compares the covariances and correlations of the {@link BlockedCovariance} with two-pass
+ * computations and with the previous computations of
+ * {@link CovarianceMatrix#getCovarianceMatrix(double[][], Operator)} and
+ * {@link MathFunctions#correlation(ExampleSet, Attribute, Attribute, boolean)}. The data spans
+ * several blocks and contains columns whose missing values start in later blocks, so that the
+ * pairwise statistics of the correlations are started with the sums of the previous blocks.
+ *
+ * @since 7.6.1
+ */
+public class BlockedCovarianceTest {
+
+	/** The columns with a large offset, for which the previous correlations are imprecise. */
+	private static final double OFFSET = 1e8;
+
+    /**
+     * Registers the open source license manager and the root operator needed for creating a
+     * process and a global thread budget of four threads.
+     *
+     * @throws OperatorCreationException if the root operator cannot be registered
+     */
+    @BeforeClass
+	public static void setup() throws OperatorCreationException {
+		if (LicenseManagerRegistry.INSTANCE.get() == null) {
+			LicenseManagerRegistry.INSTANCE.set(new OpenSourceLicenseManager());
+		}
+		if (OperatorService.getOperatorDescriptions(ProcessRootOperator.class).length == 0) {
+			OperatorService.registerOperator(
+					new OperatorDescription("", "process", ProcessRootOperator.class, null, null, null));
+		}
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+    /**
+     * Compares few columns of different kinds over several blocks, computed without an operator.
+     *
+     * @throws OperatorException if the computation fails
+     */
+    @Test
+	public void fewColumns() throws OperatorException {
+		double[][] columns = createColumns(10_000, 12, 2017);
+		assertSameMatrices(columns, null);
+	}
+
+    /**
+     * Compares more columns than fit into a tile over several blocks, computed in parallel for the
+     * operator of a process.
+     *
+     * @throws OperatorException if the computation fails
+     */
+    @Test
+	public void manyColumns() throws OperatorException {
+		double[][] columns = createColumns(4_000, 150, 2018);
+		Process process = new Process();
+		Operator operator = new CorrelationMatrixOperator(
+				new OperatorDescription("", "correlation_matrix", CorrelationMatrixOperator.class, null, null, null));
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		process.resume();
+		assertSameMatrices(columns, operator);
+	}
+
+    /**
+     * Compares a single block with a single column.
+     *
+     * @throws OperatorException if the computation fails
+     */
+    @Test
+	public void singleColumn() throws OperatorException {
+		Random random = new Random(2019);
+		double[][] columns = new double[1][50];
+		for (int row = 0; row < 50; row++) {
+			columns[0][row] = row % 7 == 0 ? Double.NaN : random.nextGaussian();
+		}
+		assertSameMatrices(columns, null);
+	}
+
+	private static void assertSameMatrices(double[][] columns, Operator operator) throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(columns);
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		int n = columns.length;
+		int size = columns[0].length;
+
+		double[][] covariances = BlockedCovariance.covariance(exampleSet, attributes, operator, null);
+		double[][] rows = new double[size][n];
+		for (int row = 0; row < size; row++) {
+			for (int i = 0; i < n; i++) {
+				rows[row][i] = columns[i][row];
+			}
+		}
+		double[][] previousCovariances = CovarianceMatrix.getCovarianceMatrix(rows, null).getArray();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				String message = "covariance of " + i + " and " + j;
+				double expected = getCovariance(columns[i], columns[j]);
+				double tolerance = 1e-9 * Math.sqrt(Math.abs(getCovariance(columns[i], columns[i])
+						* getCovariance(columns[j], columns[j])));
+				assertClose(message, expected, covariances[i][j], tolerance);
+				assertClose(message, previousCovariances[i][j], covariances[i][j], tolerance);
+			}
+		}
+
+		for (boolean squared : new boolean[] { false, true }) {
+			double[][] correlations = BlockedCovariance.correlation(exampleSet, attributes, squared, operator, null);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					String message = (squared ? "squared correlation of " : "correlation of ") + i + " and " + j;
+					double expected = getCorrelation(columns[i], columns[j]);
+					assertClose(message, squared ? expected * expected : expected, correlations[i][j], 1e-9);
+					if (!isOffset(columns[i]) && !isOffset(columns[j])) {
+						assertClose(message,
+								MathFunctions.correlation(exampleSet, attributes[i], attributes[j], squared),
+								correlations[i][j], 1e-9);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Asserts that both values are missing or close to each other.
+	 */
+	private static void assertClose(String message, double expected, double actual, double tolerance) {
+		if (Double.isNaN(expected)) {
+			assertTrue(message + " expected missing but was " + actual, Double.isNaN(actual));
+		} else {
+			assertEquals(message, expected, actual, tolerance);
+		}
+	}
+
+	/**
+	 * Computes the covariance over all rows with two passes, missing if a value is missing.
+	 */
+	private static double getCovariance(double[] x, double[] y) {
+		double meanX = 0;
+		double meanY = 0;
+		for (int row = 0; row < x.length; row++) {
+			meanX += x[row];
+			meanY += y[row];
+		}
+		meanX /= x.length;
+		meanY /= y.length;
+		double sum = 0;
+		for (int row = 0; row < x.length; row++) {
+			sum += (x[row] - meanX) * (y[row] - meanY);
+		}
+		return sum / (x.length - 1);
+	}
+
+	/**
+	 * Computes the correlation over the rows where both values are present with two passes,
+	 * missing if one of the columns is constant on these rows.
+	 */
+	private static double getCorrelation(double[] x, double[] y) {
+		double meanX = 0;
+		double meanY = 0;
+		int count = 0;
+		for (int row = 0; row < x.length; row++) {
+			if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+				meanX += x[row];
+				meanY += y[row];
+				count++;
+			}
+		}
+		meanX /= count;
+		meanY /= count;
+		double products = 0;
+		double squaresX = 0;
+		double squaresY = 0;
+		for (int row = 0; row < x.length; row++) {
+			if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+				double dx = x[row] - meanX;
+				double dy = y[row] - meanY;
+				products += dx * dy;
+				squaresX += dx * dx;
+				squaresY += dy * dy;
+			}
+		}
+		if (squaresX == 0 || squaresY == 0) {
+			return Double.NaN;
+		}
+		return products / Math.sqrt(squaresX * squaresY);
+	}
+
+	private static boolean isOffset(double[] column) {
+		for (double value : column) {
+			if (!Double.isNaN(value)) {
+				return value > OFFSET / 2;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates columns of different kinds, repeated if there are more than twelve: gaussian,
+	 * correlated and anti-correlated, with missing values from the start, only in later blocks and
+	 * complementary to another column, constant, all missing, with a large offset and discrete.
+	 */
+	private static double[][] createColumns(int size, int numberOfColumns, long seed) {
+		Random random = new Random(seed);
+		double[][] columns = new double[numberOfColumns][size];
+		for (int i = 0; i < numberOfColumns; i++) {
+			double[] column = columns[i];
+			for (int row = 0; row < size; row++) {
+				double value = random.nextGaussian();
+				switch (i % 12) {
+					case 1:
+						column[row] = columns[i - 1][row] + 0.5 * value;
+						break;
+					case 2:
+						column[row] = random.nextInt(10) == 0 ? Double.NaN : value;
+						break;
+					case 3:
+						column[row] = row > size * 9 / 10 && random.nextInt(3) == 0 ? Double.NaN : value;
+						break;
+					case 4:
+						column[row] = row > size / 2 && row < size * 6 / 10 ? Double.NaN : value;
+						break;
+					case 5:
+						column[row] = 3;
+						break;
+					case 6:
+						column[row] = OFFSET + value;
+						break;
+					case 7:
+						column[row] = Double.NaN;
+						break;
+					case 8:
+						column[row] = -2 * columns[i - 5][row] + 0.1 * value;
+						break;
+					case 9:
+						column[row] = random.nextInt(5);
+						break;
+					case 10:
+						column[row] = Double.isNaN(columns[i - 8][row]) ? value : Double.NaN;
+						break;
+					default:
+						column[row] = value;
+				}
+			}
+		}
+		return columns;
+	}
+
+	private static ExampleSet createExampleSet(double[][] columns) {
+		Attribute[] attributes = new Attribute[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			attributes[i] = AttributeFactory.createAttribute("att" + i, Ontology.REAL);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(columns[0].length);
+		for (int i = 0; i < columns.length; i++) {
+			double[] column = columns[i];
+			builder.withColumnFiller(attributes[i], row -> column[row]);
+		}
+		return builder.build();
+	}
+
+}